@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.IO.dataReader;
+
+import java.io.IOException;
+import java.util.List;
+
+import edu.yu.einstein.genplay.core.pileupFlattener.BinCoverageAccumulator;
+import edu.yu.einstein.genplay.dataStructure.enums.Strand;
+
+
+/**
+ * Interface defining method for data readers that can accumulate their windows directly
+ * into the bins of a coverage without creating an object per window.
+ * @author Julien Lajugie
+ */
+public interface CoverageReader {
+
+	/**
+	 * Reads all the windows and adds them to the accumulators of their chromosomes.
+	 * The windows don't need to be sorted.  The windows on the 3' strand are added to the accumulators of the 3' strand,
+	 * the other windows to the accumulators of the 5' strand.  The two lists can be the same.
+	 * @param accumulators5 accumulators of the 5' strand with one accumulator per chromosome of the project
+	 * @param accumulators3 accumulators of the 3' strand ({@link Strand#THREE}) with one accumulator per chromosome of the project
+	 * @throws IOException
+	 */
+	public void readCoverage(List<BinCoverageAccumulator> accumulators5, List<BinCoverageAccumulator> accumulators3) throws IOException;
+}
@@ -29,6 +29,7 @@ import edu.yu.einstein.genplay.core.IO.dataReader.GeneReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.RepeatReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.DataLineValidator;
 import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.core.IO.utils.StrandedExtractorOptions;
@@ -55,6 +56,7 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 
 	private int	firstBasePosition = DEFAULT_FIRST_BASE_POSITION;// position of the first base
 	private StrandedExtractorOptions		strandOptions;		// options on the strand and read length / shift
+	private String 							chromosomeName;		// name of the chromosome of the last line read
 	private Chromosome 						chromosome;		 	// chromosome of the last item read
 	private Integer 						start;				// start position of the last item read
 	private Integer 						stop;				// stop position of the last item read
@@ -77,7 +79,7 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 
 
 	@Override
-	protected int extractDataLine(String line) throws DataLineException {
+	protected int extractDataLine(DataLine line) throws DataLineException {
 		chromosome = null;
 		start = null;
 		stop = null;
@@ -88,14 +90,14 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 		UTR3Bound = null;
 		exons = null;
 
-		String[] splitedLine = Extractors.parseLineTabOnly(line);
-		if (splitedLine.length < 3) {
+		int fieldCount = line.splitTabOnly();
+		if (fieldCount < 3) {
 			// error in the format, BED files have 3 mandatory fields
 			throw new DataLineException(DataLineException.INVALID_PARAMETER_NUMBER);
 		}
 
 		// chromosome
-		String chromosomeName = splitedLine[0];
+		chromosomeName = line.getString(0, chromosomeName);
 		if (getChromosomeSelector() != null) {
 			// case where last chromosome already extracted, no more data to extract
 			if (getChromosomeSelector().isExtractionDone(chromosomeName)) {
@@ -114,8 +116,8 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 		}
 
 		// strand
-		if (splitedLine.length > 5) {
-			strand = Strand.get(splitedLine[5].trim().charAt(0));
+		if (fieldCount > 5) {
+			strand = Strand.get(line.getChar(5, 0));
 		}
 		if ((strand != null) && (strandOptions != null) && (!strandOptions.isSelected(strand))) {
 			chromosome = null;
@@ -123,9 +125,9 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 		}
 
 		// start and stop
-		start = Extractors.getInt(splitedLine[1].trim());
+		start = line.getInt(1);
 		UTR5Bound = start;
-		stop = Extractors.getInt(splitedLine[2].trim());
+		stop = line.getInt(2);
 		UTR3Bound = stop;
 
 		String errors = DataLineValidator.getErrors(chromosome, start, stop);
@@ -138,7 +140,7 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 		if (!stopEndErrorMessage.isEmpty()) {
 			DataLineException stopEndException = new DataLineException(stopEndErrorMessage, DataLineException.SHRINK_STOP_PROCESS);
 			// notify the listeners that the stop position needed to be shrunk
-			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line);
+			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line.toString());
 			stop = chromosome.getLength();
 		}
 
@@ -154,18 +156,18 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 		start = getRealGenomePosition(chromosome, start);
 		stop = getRealGenomePosition(chromosome, stop);
 
-		if (splitedLine.length <= 3) {
+		if (fieldCount <= 3) {
 			return ITEM_EXTRACTED;
 		}
 		// retrieve the name field
-		name = splitedLine[3].trim();
-		if (splitedLine.length <= 4) {
+		name = line.getString(3);
+		if (fieldCount <= 4) {
 			return ITEM_EXTRACTED;
 		}
 		// retrieve the score field
-		score = Extractors.getFloat(splitedLine[4].trim(), 0f);
+		score = line.getFloat(4, 0f);
 
-		if (splitedLine.length <= 7) {
+		if (fieldCount <= 7) {
 			// if the file doesn't contain information about the UTR sites
 			UTR5Bound = start;
 			UTR3Bound = stop;
@@ -175,24 +177,24 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 		// UTR bounds are for genes only so we don't need to
 		// worry about the strand shift and the read length
 		// since these operations are not available for genes
-		UTR5Bound = Extractors.getInt(splitedLine[6].trim(), UTR5Bound);
-		UTR3Bound = Extractors.getInt(splitedLine[7].trim(), UTR3Bound);
+		UTR5Bound = line.getInt(6, UTR5Bound);
+		UTR3Bound = line.getInt(7, UTR3Bound);
 
 		// but we need to compute the position on the meta-genome
 		UTR5Bound = getRealGenomePosition(chromosome, UTR5Bound);
 		UTR3Bound = getRealGenomePosition(chromosome, UTR3Bound);
 
-		if (splitedLine.length <= 11) {
+		if (fieldCount <= 11) {
 			return ITEM_EXTRACTED;
 		}
 
 		// retrieve exons
-		if ((!splitedLine[10].trim().equals("-")) && (!splitedLine[11].trim().equals("-"))) {
-			String[] exonStartsStr = Utils.split(splitedLine[11], ',');
-			String[] exonLengthsStr = Utils.split(splitedLine[10], ',');
+		if ((!line.fieldEquals(10, "-")) && (!line.fieldEquals(11, "-"))) {
+			String[] exonStartsStr = Utils.split(line.getString(11), ',');
+			String[] exonLengthsStr = Utils.split(line.getString(10), ',');
 			String[] exonScoresStr = null;
-			if (splitedLine.length > 12) {
-				exonScoresStr = Utils.split(splitedLine[12], ',');
+			if (fieldCount > 12) {
+				exonScoresStr = Utils.split(line.getString(12), ',');
 			}
 			GenericSCWListViewBuilder exonListBuilder = new GenericSCWListViewBuilder();
 			for (int i = 0; i < exonLengthsStr.length; i++) {
@@ -294,6 +296,15 @@ public class BedExtractor extends TextFileExtractor implements SCWReader, GeneRe
 	}
 
 
+	/**
+	 * @return true because the lines of the file are independent from each other
+	 */
+	@Override
+	protected boolean isSplittable() {
+		return true;
+	}
+
+
 	@Override
 	public void setFirstBasePosition(int firstBasePosition) {
 		this.firstBasePosition = firstBasePosition;
@@ -26,8 +26,8 @@ import java.io.File;
 import java.io.FileNotFoundException;
 
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.DataLineValidator;
-import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.exception.exceptions.DataLineException;
 import edu.yu.einstein.genplay.exception.exceptions.InvalidChromosomeException;
@@ -43,6 +43,7 @@ public final class BedGraphExtractor extends TextFileExtractor implements SCWRea
 	public static final int DEFAULT_FIRST_BASE_POSITION = 0;
 
 	private int	firstBasePosition = DEFAULT_FIRST_BASE_POSITION;// position of the first base
+	private String 							chromosomeName;		// name of the chromosome of the last line read
 	private Chromosome 						chromosome;		 	// chromosome of the last item read
 	private Integer 						start;				// start position of the last item read
 	private Integer 						stop;				// stop position of the last item read
@@ -60,17 +61,16 @@ public final class BedGraphExtractor extends TextFileExtractor implements SCWRea
 
 
 	@Override
-	protected int extractDataLine(String line) throws DataLineException {
+	protected int extractDataLine(DataLine line) throws DataLineException {
 		chromosome = null;
 		start = null;
 		stop = null;
 		score = null;
-		String[] splitedLine = Extractors.parseLineTabOnly(line);
-		if (splitedLine.length < 4) {
+		if (line.splitTabOnly() < 4) {
 			//throw new InvalidDataLineException(extractedLine);
 			throw new DataLineException(DataLineException.INVALID_PARAMETER_NUMBER);
 		}
-		String chromosomeName = splitedLine[0];
+		chromosomeName = line.getString(0, chromosomeName);
 
 		if (getChromosomeSelector() != null) {
 			// case where last chromosome already extracted, no more data to extract
@@ -90,11 +90,9 @@ public final class BedGraphExtractor extends TextFileExtractor implements SCWRea
 			return LINE_SKIPPED;
 		}
 
-		start = Extractors.getInt(splitedLine[1].trim());
-		start = getRealGenomePosition(chromosome, start);
-		stop = Extractors.getInt(splitedLine[2].trim());
-		stop = getRealGenomePosition(chromosome, stop);
-		score = Extractors.getFloat(splitedLine[3].trim());
+		start = getRealGenomePosition(chromosome, line.getInt(1));
+		stop = getRealGenomePosition(chromosome, line.getInt(2));
+		score = line.getFloat(3);
 
 		if (score == 0) {
 			return LINE_SKIPPED;
@@ -110,7 +108,7 @@ public final class BedGraphExtractor extends TextFileExtractor implements SCWRea
 		if (!stopEndErrorMessage.isEmpty()) {
 			DataLineException stopEndException = new DataLineException(stopEndErrorMessage, DataLineException.SHRINK_STOP_PROCESS);
 			// notify the listeners that the stop position needed to be shrunk
-			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line);
+			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line.toString());
 			stop = chromosome.getLength();
 		}
 		return ITEM_EXTRACTED;
@@ -148,6 +146,15 @@ public final class BedGraphExtractor extends TextFileExtractor implements SCWRea
 	}
 
 
+	/**
+	 * @return true because the lines of the file are independent from each other
+	 */
+	@Override
+	protected boolean isSplittable() {
+		return true;
+	}
+
+
 	@Override
 	public void setFirstBasePosition(int firstBasePosition) {
 		this.firstBasePosition = firstBasePosition;
@@ -28,6 +28,7 @@ import java.io.FileNotFoundException;
 
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.DataLineValidator;
 import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.core.IO.utils.StrandedExtractorOptions;
@@ -77,7 +78,8 @@ public final class ElandExtendedExtractor extends TextFileExtractor implements S
 
 
 	@Override
-	protected int extractDataLine(String extractedLine) throws DataLineException {
+	protected int extractDataLine(DataLine dataLine) throws DataLineException {
+		String extractedLine = dataLine.toString();
 		chromosome = null;
 		start = null;
 		stop = null;
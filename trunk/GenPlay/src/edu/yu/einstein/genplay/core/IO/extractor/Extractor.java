@@ -26,12 +26,15 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.yu.einstein.genplay.core.IO.utils.ChromosomesSelector;
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
 import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCompute;
+import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCursor;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.AlleleType;
 import edu.yu.einstein.genplay.exception.exceptions.DataLineException;
@@ -63,6 +66,7 @@ public abstract class Extractor implements InvalidDataEventsGenerator, Stoppable
 	private long 									extractionDuration;			// duration of the extraction in seconds
 	private	String									genomeName;					// name of the genome used for the mapping of the data
 	private AlleleType								alleleType;					// type of allele to load the data (multi genome)
+	private final Map<Chromosome, ShiftCursor>		shiftCursors;				// cursors shifting the positions on the meta genome, by chromosome (multi genome)
 	private int										warningCount;				// number of warning sent to the listeners
 	protected int									itemExtractedCount;			// number of item extracted
 
@@ -79,6 +83,7 @@ public abstract class Extractor implements InvalidDataEventsGenerator, Stoppable
 		itemExtractedCount = 0;
 		dataName = retrieveDataName(dataFile);
 		progressListeners = new ArrayList<OperationProgressListener>();
+		shiftCursors = new ConcurrentHashMap<Chromosome, ShiftCursor>();
 	}
 
 
@@ -187,7 +192,12 @@ public abstract class Extractor implements InvalidDataEventsGenerator, Stoppable
 			position += 1 - getFirstBasePosition();
 		}
 		if (ProjectManager.getInstance().isMultiGenomeProject()) {
-			return ShiftCompute.getPosition(genomeName, alleleType, position, chromosome, FormattedMultiGenomeName.META_GENOME_NAME);
+			ShiftCursor shiftCursor = shiftCursors.get(chromosome);
+			if (shiftCursor == null) {
+				shiftCursor = ShiftCompute.getCursor(genomeName, alleleType, chromosome, FormattedMultiGenomeName.META_GENOME_NAME);
+				shiftCursors.put(chromosome, shiftCursor);
+			}
+			return shiftCursor.getPosition(position);
 		} else {
 			return position;
 		}
@@ -279,6 +289,7 @@ public abstract class Extractor implements InvalidDataEventsGenerator, Stoppable
 	 */
 	public void setAlleleType(AlleleType alleleType) {
 		this.alleleType = alleleType;
+		shiftCursors.clear();
 	}
 
 
@@ -304,6 +315,7 @@ public abstract class Extractor implements InvalidDataEventsGenerator, Stoppable
 	 */
 	public void setGenomeName(String genomeName) {
 		this.genomeName = genomeName;
+		shiftCursors.clear();
 	}
 
 
@@ -25,9 +25,10 @@ package edu.yu.einstein.genplay.core.IO.extractor;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 
+import edu.yu.einstein.genplay.core.IO.utils.CompressedFiles;
 import edu.yu.einstein.genplay.exception.exceptions.InvalidFileTypeException;
 import edu.yu.einstein.genplay.util.Utils;
 
@@ -47,7 +48,7 @@ public final class ExtractorFactory {
 	 * @throws FileNotFoundException
 	 */
 	public static Extractor checkFileExtension(File fileToExtract) throws FileNotFoundException {
-		String fileExtension = Utils.getExtension(fileToExtract);
+		String fileExtension = CompressedFiles.getUncompressedExtension(fileToExtract);
 		if (fileExtension == null) {
 			return null;
 		}
@@ -95,7 +96,7 @@ public final class ExtractorFactory {
 	public static Extractor checkHeader(File fileToExtract) throws IOException {
 		BufferedReader reader = null;
 		try {
-			reader = new BufferedReader(new FileReader(fileToExtract));
+			reader = new BufferedReader(new InputStreamReader(CompressedFiles.openInputStream(fileToExtract)));
 			boolean isHeader = true;
 			String line = null;
 
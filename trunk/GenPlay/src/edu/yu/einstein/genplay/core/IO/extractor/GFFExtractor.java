@@ -28,8 +28,8 @@ import java.io.FileNotFoundException;
 import edu.yu.einstein.genplay.core.IO.dataReader.RepeatReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.DataLineValidator;
-import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.core.IO.utils.StrandedExtractorOptions;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.SimpleChromosomeWindow;
@@ -49,6 +49,7 @@ public final class GFFExtractor extends TextFileExtractor implements SCWReader,
 
 	private int	firstBasePosition = DEFAULT_FIRST_BASE_POSITION;// position of the first base
 	private StrandedExtractorOptions		strandOptions;		// options on the strand and read length / shift
+	private String 							chromosomeName;		// name of the chromosome of the last line read
 	private Chromosome 						chromosome;		 	// chromosome of the last item read
 	private Integer 						start;				// start position of the last item read
 	private Integer 						stop;				// stop position of the last item read
@@ -68,7 +69,7 @@ public final class GFFExtractor extends TextFileExtractor implements SCWReader,
 
 
 	@Override
-	protected int extractDataLine(String line) throws DataLineException {
+	protected int extractDataLine(DataLine line) throws DataLineException {
 		chromosome = null;
 		start = null;
 		stop = null;
@@ -76,13 +77,13 @@ public final class GFFExtractor extends TextFileExtractor implements SCWReader,
 		score = null;
 		strand = null;
 
-		String[] splitedLine = Extractors.parseLineTabOnly(line);
-		if (splitedLine.length < 7) {
+		int fieldCount = line.splitTabOnly();
+		if (fieldCount < 7) {
 			throw new DataLineException(DataLineException.INVALID_PARAMETER_NUMBER);
 		}
 
 		// chromosome
-		String chromosomeName = splitedLine[0];
+		chromosomeName = line.getString(0, chromosomeName);
 		if (getChromosomeSelector() != null) {
 			// case where last chromosome already extracted, no more data to extract
 			if (getChromosomeSelector().isExtractionDone(chromosomeName)) {
@@ -101,15 +102,15 @@ public final class GFFExtractor extends TextFileExtractor implements SCWReader,
 		}
 
 		// strand
-		strand = Strand.get(splitedLine[6].trim().charAt(0));
+		strand = Strand.get(line.getChar(6, 0));
 		if ((strand != null) && (strandOptions != null) && (!strandOptions.isSelected(strand))) {
 			chromosome = null;
 			return LINE_SKIPPED;
 		}
 
 		// start and stop
-		start = Extractors.getInt(splitedLine[3]);
-		stop = Extractors.getInt(splitedLine[4]);
+		start = line.getInt(3);
+		stop = line.getInt(4);
 
 		String errors = DataLineValidator.getErrors(chromosome, start, stop);
 		if (!errors.isEmpty()) {
@@ -121,7 +122,7 @@ public final class GFFExtractor extends TextFileExtractor implements SCWReader,
 		if (!stopEndErrorMessage.isEmpty()) {
 			DataLineException stopEndException = new DataLineException(stopEndErrorMessage, DataLineException.SHRINK_STOP_PROCESS);
 			// notify the listeners that the stop position needed to be shrunk
-			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line);
+			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line.toString());
 			stop = chromosome.getLength();
 		}
 
@@ -137,8 +138,8 @@ public final class GFFExtractor extends TextFileExtractor implements SCWReader,
 		stop = getRealGenomePosition(chromosome, stop);
 
 		// name and score
-		name = splitedLine[2];
-		score = Extractors.getFloat(splitedLine[5]);
+		name = line.getString(2);
+		score = line.getFloat(5);
 
 		return ITEM_EXTRACTED;
 	}
@@ -192,6 +193,15 @@ public final class GFFExtractor extends TextFileExtractor implements SCWReader,
 	}
 
 
+	/**
+	 * @return true because the lines of the file are independent from each other
+	 */
+	@Override
+	protected boolean isSplittable() {
+		return true;
+	}
+
+
 	@Override
 	public void setFirstBasePosition(int firstBasePosition) {
 		this.firstBasePosition = firstBasePosition;
@@ -29,6 +29,7 @@ import java.util.Map;
 
 import edu.yu.einstein.genplay.core.IO.dataReader.GeneReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.DataLineValidator;
 import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.core.IO.utils.StrandedExtractorOptions;
@@ -56,6 +57,7 @@ public class GTFExtractor extends TextFileExtractor implements GeneReader, Stran
 
 	private int	firstBasePosition = DEFAULT_FIRST_BASE_POSITION;// position of the first base
 	private StrandedExtractorOptions				strandOptions;		// options on the strand and read length / shift
+	private String 									chromosomeName;		// name of the chromosome of the last line read
 	private Chromosome 								currentChromosome;	// chromosome of the current item
 	private Chromosome 								previousChromosome;	// chromosome of the last item read
 	private String 									currentName;		// name of the current item
@@ -78,7 +80,7 @@ public class GTFExtractor extends TextFileExtractor implements GeneReader, Stran
 
 
 	@Override
-	protected int extractDataLine(String line) throws DataLineException {
+	protected int extractDataLine(DataLine line) throws DataLineException {
 		previousChromosome = currentChromosome;
 		previousName = currentName;
 		previousStrand = currentStrand;
@@ -87,13 +89,13 @@ public class GTFExtractor extends TextFileExtractor implements GeneReader, Stran
 		currentName = null;
 		currentStrand = null;
 
-		String[] splitedLine = Extractors.parseLineTabOnly(line);
-		if (splitedLine.length < 8) {
+		int fieldCount = line.splitTabOnly();
+		if (fieldCount < 8) {
 			throw new DataLineException(DataLineException.INVALID_PARAMETER_NUMBER);
 		}
 
 		// chromosome
-		String chromosomeName = splitedLine[0];
+		chromosomeName = line.getString(0, chromosomeName);
 		if (getChromosomeSelector() != null) {
 			// case where last chromosome already extracted, no more data to extract
 			if (getChromosomeSelector().isExtractionDone(chromosomeName)) {
@@ -113,9 +115,8 @@ public class GTFExtractor extends TextFileExtractor implements GeneReader, Stran
 
 		// case where we need to extract the current chromosome
 		// retrieve the strand
-		String strandStr = splitedLine[6].trim();
-		if (!strandStr.equals(".")) {
-			currentStrand = Strand.get(strandStr.charAt(0));
+		if (!line.fieldEquals(6, ".")) {
+			currentStrand = Strand.get(line.getChar(6, 0));
 		}
 
 		if ((currentStrand != null) && (strandOptions != null) && (!strandOptions.isSelected(currentStrand))) {
@@ -124,8 +125,8 @@ public class GTFExtractor extends TextFileExtractor implements GeneReader, Stran
 		}
 
 		// start and stop position
-		int start = Extractors.getInt(splitedLine[3].trim());
-		int stop = Extractors.getInt(splitedLine[4].trim());
+		int start = line.getInt(3);
+		int stop = line.getInt(4);
 
 		String errors = DataLineValidator.getErrors(currentChromosome, start, stop);
 		if (!errors.isEmpty()) {
@@ -137,7 +138,7 @@ public class GTFExtractor extends TextFileExtractor implements GeneReader, Stran
 		if (!stopEndErrorMessage.isEmpty()) {
 			DataLineException stopEndException = new DataLineException(stopEndErrorMessage, DataLineException.SHRINK_STOP_PROCESS);
 			// notify the listeners that the stop position needed to be shrunk
-			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line);
+			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line.toString());
 			stop = currentChromosome.getLength();
 		}
 
@@ -153,10 +154,10 @@ public class GTFExtractor extends TextFileExtractor implements GeneReader, Stran
 		stop = getRealGenomePosition(currentChromosome, stop);
 
 		// retrieve the score
-		Float score = Extractors.getFloat(splitedLine[5].trim(), null);
+		Float score = line.getFloat(5, null);
 		// if there is some attribute informations
-		if (splitedLine.length >= 9) {
-			Map<String, String> attributes = parseAttributes(splitedLine[8]);
+		if (fieldCount >= 9) {
+			Map<String, String> attributes = parseAttributes(line.getString(8));
 			// try to retrieve the gene name
 			if (attributes.containsKey("gene_id")) {
 				currentName = attributes.get("gene_id");
@@ -29,6 +29,7 @@ import edu.yu.einstein.genplay.core.IO.dataReader.GeneReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.RepeatReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.DataLineValidator;
 import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.core.IO.utils.StrandedExtractorOptions;
@@ -55,6 +56,7 @@ public final class PSLExtractor extends TextFileExtractor implements SCWReader,
 
 	private int	firstBasePosition = DEFAULT_FIRST_BASE_POSITION;// position of the first base
 	private StrandedExtractorOptions		strandOptions;		// options on the strand and read length / shift
+	private String 							chromosomeName;		// name of the chromosome of the last line read
 	private Chromosome 						chromosome;		 	// chromosome of the last item read
 	private Integer 						start;				// start position of the last item read
 	private Integer 						stop;				// stop position of the last item read
@@ -75,7 +77,7 @@ public final class PSLExtractor extends TextFileExtractor implements SCWReader,
 
 
 	@Override
-	protected int extractDataLine(String line) throws DataLineException {
+	protected int extractDataLine(DataLine line) throws DataLineException {
 		chromosome = null;
 		start = null;
 		stop = null;
@@ -84,13 +86,13 @@ public final class PSLExtractor extends TextFileExtractor implements SCWReader,
 		strand = null;
 		exons = null;
 
-		String[] splitedLine = Extractors.parseLineTabOnly(line);
-		if (splitedLine.length < 21) {
+		int fieldCount = line.splitTabOnly();
+		if (fieldCount < 21) {
 			throw new DataLineException(DataLineException.INVALID_PARAMETER_NUMBER);
 		}
 
 		// chromosome
-		String chromosomeName = splitedLine[13];
+		chromosomeName = line.getString(13, chromosomeName);
 		if (getChromosomeSelector() != null) {
 			// case where last chromosome already extracted, no more data to extract
 			if (getChromosomeSelector().isExtractionDone(chromosomeName)) {
@@ -109,15 +111,15 @@ public final class PSLExtractor extends TextFileExtractor implements SCWReader,
 		}
 
 		// strand
-		strand = Strand.get(splitedLine[8].charAt(0));
+		strand = Strand.get(line.getChar(8, 0));
 		if ((strand != null) && (strandOptions != null) && (!strandOptions.isSelected(strand))) {
 			chromosome = null;
 			return LINE_SKIPPED;
 		}
 
 		// start and stop
-		start = Extractors.getInt(splitedLine[15]);
-		stop = Extractors.getInt(splitedLine[16]);
+		start = line.getInt(15);
+		stop = line.getInt(16);
 
 		String errors = DataLineValidator.getErrors(chromosome, start, stop);
 		if (!errors.isEmpty()) {
@@ -129,7 +131,7 @@ public final class PSLExtractor extends TextFileExtractor implements SCWReader,
 		if (!stopEndErrorMessage.isEmpty()) {
 			DataLineException stopEndException = new DataLineException(stopEndErrorMessage, DataLineException.SHRINK_STOP_PROCESS);
 			// notify the listeners that the stop position needed to be shrunk
-			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line);
+			notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line.toString());
 			stop = chromosome.getLength();
 		}
 
@@ -146,8 +148,8 @@ public final class PSLExtractor extends TextFileExtractor implements SCWReader,
 		stop = getRealGenomePosition(chromosome, stop);
 
 		// exons
-		String[] exonStartsStr = Utils.split(splitedLine[20], '"');
-		String[] exonLengthsStr = Utils.split(splitedLine[18], '"');
+		String[] exonStartsStr = Utils.split(line.getString(20), '"');
+		String[] exonLengthsStr = Utils.split(line.getString(18), '"');
 
 		GenericSCWListViewBuilder exonListBuilder = new GenericSCWListViewBuilder();
 		for (int i = 0; i < exonLengthsStr.length; i++) {
@@ -245,6 +247,15 @@ public final class PSLExtractor extends TextFileExtractor implements SCWReader,
 	}
 
 
+	/**
+	 * @return true because the lines of the file are independent from each other
+	 */
+	@Override
+	protected boolean isSplittable() {
+		return true;
+	}
+
+
 	@Override
 	public void setFirstBasePosition(int firstBasePosition) {
 		this.firstBasePosition = firstBasePosition;
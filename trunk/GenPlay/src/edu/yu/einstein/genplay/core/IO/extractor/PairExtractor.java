@@ -27,6 +27,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.DataLineValidator;
 import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
@@ -61,7 +62,8 @@ public final class PairExtractor extends TextFileExtractor implements SCWReader
 
 
 	@Override
-	protected int extractDataLine(String line) throws DataLineException {
+	protected int extractDataLine(DataLine dataLine) throws DataLineException {
+		String line = dataLine.toString();
 		chromosome = null;
 		position = null;
 		score = null;
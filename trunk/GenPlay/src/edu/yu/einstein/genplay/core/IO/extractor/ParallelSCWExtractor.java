@@ -0,0 +1,548 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.IO.extractor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
+import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
+import edu.yu.einstein.genplay.core.IO.utils.CompressedFiles;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.enums.Strand;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressEventsGenerator;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressListener;
+import edu.yu.einstein.genplay.gui.statusBar.Stoppable;
+import edu.yu.einstein.genplay.util.DaemonThreadFactory;
+
+
+/**
+ * {@link SCWReader} that extracts the data of a text file in parallel.<br>
+ * The file is split in ranges of about {@link #RANGE_SIZE} bytes aligned on line boundaries.
+ * Each range is parsed by a worker thread using a range extractor created by the wrapped {@link TextFileExtractor}.
+ * The items of the ranges are returned in the order of the file so the {@link SCWReader} contract is unchanged:
+ * a sorted file still generates sorted items.  The number of ranges being parsed or waiting to be read is bounded.<br>
+ * The invalid lines are notified with their line number in the file and the counters of the wrapped extractor
+ * (lines extracted, lines skipped, items extracted) are updated at the end of the extraction.<br>
+ * Only the extractors whose lines can be parsed independently are supported (see {@link #isSupported(SCWReader)}).
+ * The extraction of random lines requires the whole file to be numbered first so it is not supported.<br>
+ * The worker threads are stopped at the end of the extraction or when the extractor is closed.
+ * Readers that are not read until the end need to be closed (see {@link #close()}).
+ * @author Julien Lajugie
+ */
+public class ParallelSCWExtractor implements SCWReader, StrandReader, Stoppable, OperationProgressEventsGenerator, Closeable {
+
+	/**
+	 * Items extracted from a range of the file
+	 * @author Julien Lajugie
+	 */
+	private static class RangeItems {
+
+		/** Range extractor that extracted the items */
+		private final TextFileExtractor extractor;
+
+		/** Chromosomes of the items */
+		private Chromosome[] chromosomes = new Chromosome[INITIAL_ITEM_CAPACITY];
+
+		/** Start positions of the items */
+		private int[] starts = new int[INITIAL_ITEM_CAPACITY];
+
+		/** Stop positions of the items */
+		private int[] stops = new int[INITIAL_ITEM_CAPACITY];
+
+		/** Scores of the items */
+		private float[] scores = new float[INITIAL_ITEM_CAPACITY];
+
+		/** Strands of the items, null if the extractor is not a {@link StrandReader} */
+		private Strand[] strands = null;
+
+		/** Number of items */
+		private int size = 0;
+
+
+		/**
+		 * Creates an instance of {@link RangeItems}
+		 * @param extractor range extractor that extracted the items
+		 */
+		private RangeItems(TextFileExtractor extractor) {
+			this.extractor = extractor;
+			if (extractor instanceof StrandReader) {
+				strands = new Strand[INITIAL_ITEM_CAPACITY];
+			}
+		}
+
+
+		/**
+		 * Adds the last item read by the extractor
+		 */
+		private void addLastItem() {
+			if (size == starts.length) {
+				int newCapacity = size * 2;
+				chromosomes = Arrays.copyOf(chromosomes, newCapacity);
+				starts = Arrays.copyOf(starts, newCapacity);
+				stops = Arrays.copyOf(stops, newCapacity);
+				scores = Arrays.copyOf(scores, newCapacity);
+				if (strands != null) {
+					strands = Arrays.copyOf(strands, newCapacity);
+				}
+			}
+			SCWReader reader = (SCWReader) extractor;
+			chromosomes[size] = reader.getChromosome();
+			starts[size] = reader.getStart();
+			stops[size] = reader.getStop();
+			scores[size] = reader.getScore();
+			if (strands != null) {
+				strands[size] = ((StrandReader) extractor).getStrand();
+			}
+			size++;
+		}
+	}
+
+
+	/**
+	 * Stream returning the bytes of a range of a file
+	 * @author Julien Lajugie
+	 */
+	private static class RangeInputStream extends InputStream {
+
+		/** Stream of the file */
+		private final FileInputStream inputStream;
+
+		/** Number of bytes of the range left to read */
+		private long remaining;
+
+
+		/**
+		 * Creates an instance of {@link RangeInputStream}
+		 * @param file a file
+		 * @param start offset of the first byte of the range
+		 * @param stop offset of the byte after the last byte of the range
+		 * @throws IOException
+		 */
+		private RangeInputStream(File file, long start, long stop) throws IOException {
+			inputStream = new FileInputStream(file);
+			inputStream.getChannel().position(start);
+			remaining = stop - start;
+		}
+
+
+		@Override
+		public void close() throws IOException {
+			inputStream.close();
+		}
+
+
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int readByte = inputStream.read();
+			if (readByte != -1) {
+				remaining--;
+			}
+			return readByte;
+		}
+
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int byteRead = inputStream.read(b, off, (int) Math.min(len, remaining));
+			if (byteRead > 0) {
+				remaining -= byteRead;
+			}
+			return byteRead;
+		}
+	}
+
+
+	/** Approximate size in bytes of the ranges parsed by the worker threads */
+	public static final int RANGE_SIZE = 1 << 23;
+
+	/** Size of the buffers of the readers of the ranges */
+	private static final int RANGE_BUFFER_SIZE = 1 << 18;
+
+	/** Initial capacity of the arrays storing the items of a range */
+	private static final int INITIAL_ITEM_CAPACITY = 1 << 12;
+
+	/** Number of ranges parsed or waiting to be read per worker thread */
+	private static final int RANGES_PER_THREAD = 2;
+
+
+	/**
+	 * @param reader a {@link SCWReader}
+	 * @return true if the specified reader can be wrapped in a {@link ParallelSCWExtractor}: the reader is a
+	 * {@link TextFileExtractor} whose lines can be parsed independently, the extraction of random lines is not set,
+	 * the file is not compressed, the file is larger than a range and more than one processor is available
+	 * @throws IOException
+	 */
+	public static boolean isSupported(SCWReader reader) throws IOException {
+		if (!(reader instanceof TextFileExtractor)) {
+			return false;
+		}
+		TextFileExtractor extractor = (TextFileExtractor) reader;
+		return extractor.isSplittable()
+				&& (extractor.getRandomLineCount() == null)
+				&& (extractor.getDataFile().length() > RANGE_SIZE)
+				&& (Runtime.getRuntime().availableProcessors() > 1)
+				&& !CompressedFiles.isCompressed(extractor.getDataFile());
+	}
+
+
+	private final TextFileExtractor 				extractor;				// wrapped extractor
+	private final LinkedList<Future<RangeItems>>	pendingRanges;			// ranges parsed or waiting to be read, in the order of the file
+	private final List<TextFileExtractor>			readRangeExtractors;	// extractors of the ranges already read
+	private final int								threadCount;			// number of worker threads
+	private ExecutorService							executor = null;		// executor of the worker threads
+	private long[]									rangeBounds = null;		// offsets of the bounds of the ranges, null until the extraction is initialized
+	private int										nextRangeIndex = 0;		// index of the next range to submit
+	private int										lineOffset;				// number of lines of the file before the current range
+	private RangeItems								currentRange = null;	// range being read
+	private int										currentIndex = -1;		// index of the current item in the current range
+	private volatile boolean						isAborted = false;		// true when the remaining ranges don't need to be parsed
+	private boolean									isFinalized = false;	// true when the extraction has been finalized
+
+
+	/**
+	 * Creates an instance of {@link ParallelSCWExtractor}
+	 * @param extractor a {@link TextFileExtractor} that is also a {@link SCWReader}.  No item must have been read yet
+	 */
+	public ParallelSCWExtractor(TextFileExtractor extractor) {
+		this(extractor, Runtime.getRuntime().availableProcessors());
+	}
+
+
+	/**
+	 * Creates an instance of {@link ParallelSCWExtractor}
+	 * @param extractor a {@link TextFileExtractor} that is also a {@link SCWReader}.  No item must have been read yet
+	 * @param threadCount number of worker threads parsing the ranges of the file
+	 */
+	public ParallelSCWExtractor(TextFileExtractor extractor, int threadCount) {
+		if (!(extractor instanceof SCWReader)) {
+			throw new IllegalArgumentException("The extractor must be a SCWReader");
+		}
+		this.extractor = extractor;
+		this.threadCount = Math.max(1, threadCount);
+		pendingRanges = new LinkedList<Future<RangeItems>>();
+		readRangeExtractors = new ArrayList<TextFileExtractor>();
+	}
+
+
+	@Override
+	public void addOperationProgressListener(OperationProgressListener operationProgressListener) {
+		extractor.addOperationProgressListener(operationProgressListener);
+	}
+
+
+	/**
+	 * Stops the extraction: stops the worker threads and closes the files.
+	 * This method can be called at any time, no item can be read once the extractor is closed.
+	 */
+	@Override
+	public void close() {
+		finalizeExtraction();
+	}
+
+
+	/**
+	 * Computes the bounds of the ranges of the file.  The bounds are located after a line terminator.
+	 * @param dataStart offset of the first data line
+	 * @throws IOException
+	 */
+	private void computeRangeBounds(long dataStart) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(extractor.getDataFile(), "r");
+		try {
+			long fileLength = file.length();
+			List<Long> bounds = new ArrayList<Long>();
+			bounds.add(dataStart);
+			long bound = dataStart;
+			while ((bound = nextLineStart(file, bound + RANGE_SIZE, fileLength)) < fileLength) {
+				bounds.add(bound);
+			}
+			bounds.add(fileLength);
+			rangeBounds = new long[bounds.size()];
+			for (int i = 0; i < rangeBounds.length; i++) {
+				rangeBounds[i] = bounds.get(i);
+			}
+		} finally {
+			file.close();
+		}
+	}
+
+
+	/**
+	 * Finalizes the extraction: stops the worker threads and updates the wrapped extractor
+	 */
+	private void finalizeExtraction() {
+		if (!isFinalized) {
+			isFinalized = true;
+			isAborted = true;
+			for (Future<RangeItems> pendingRange: pendingRanges) {
+				pendingRange.cancel(false);
+			}
+			pendingRanges.clear();
+			if (executor != null) {
+				// the running workers stop at their next item since the extraction is aborted
+				executor.shutdown();
+			}
+			currentRange = null;
+			extractor.finalizeRangeExtraction(readRangeExtractors);
+		}
+	}
+
+
+	@Override
+	public Chromosome getChromosome() {
+		return currentRange.chromosomes[currentIndex];
+	}
+
+
+	@Override
+	public OperationProgressListener[] getOperationProgressListeners() {
+		return extractor.getOperationProgressListeners();
+	}
+
+
+	@Override
+	public Float getScore() {
+		return currentRange.scores[currentIndex];
+	}
+
+
+	@Override
+	public Integer getStart() {
+		return currentRange.starts[currentIndex];
+	}
+
+
+	@Override
+	public Integer getStop() {
+		return currentRange.stops[currentIndex];
+	}
+
+
+	@Override
+	public Strand getStrand() {
+		if (currentRange.strands == null) {
+			return null;
+		}
+		return currentRange.strands[currentIndex];
+	}
+
+
+	/**
+	 * Initializes the extraction: reads the header, splits the file and starts the worker threads
+	 * @throws IOException
+	 */
+	private void initializeExtraction() throws IOException {
+		long dataStart = extractor.initializeRangeExtraction();
+		lineOffset = extractor.getCurrentLineNumber();
+		if (dataStart == -1) {
+			rangeBounds = new long[0];
+		} else {
+			computeRangeBounds(dataStart);
+		}
+		executor = Executors.newFixedThreadPool(threadCount, new DaemonThreadFactory("Parallel Extractor"));
+		submitRanges();
+	}
+
+
+	/**
+	 * @return true if the extraction was stopped
+	 */
+	public boolean isStopped() {
+		return extractor.isStopped();
+	}
+
+
+	/**
+	 * @param file a file
+	 * @param position a position in the file
+	 * @param fileLength length of the file
+	 * @return the offset of the beginning of the first line starting at or after the specified position,
+	 * the length of the file if there is no such line
+	 * @throws IOException
+	 */
+	private static long nextLineStart(RandomAccessFile file, long position, long fileLength) throws IOException {
+		if (position >= fileLength) {
+			return fileLength;
+		}
+		// we start searching one byte before the position in case the position is already the beginning of a line
+		long offset = position - 1;
+		file.seek(offset);
+		byte[] buffer = new byte[1 << 16];
+		boolean isAfterCarriageReturn = false;
+		int byteRead;
+		while ((byteRead = file.read(buffer)) != -1) {
+			for (int i = 0; i < byteRead; i++, offset++) {
+				if (isAfterCarriageReturn) {
+					// a line starts after a '\r' unless the '\r' is followed by a '\n'
+					return buffer[i] == '\n' ? offset + 1 : offset;
+				}
+				if (buffer[i] == '\n') {
+					return offset + 1;
+				}
+				isAfterCarriageReturn = buffer[i] == '\r';
+			}
+		}
+		return fileLength;
+	}
+
+
+	/**
+	 * Reads the next range and notifies the invalid lines of this range
+	 * @return the items of the next range, null if there is no more range to read
+	 * @throws IOException
+	 */
+	private RangeItems nextRange() throws IOException {
+		if (currentRange != null) {
+			lineOffset += currentRange.extractor.getCurrentLineNumber();
+			if (currentRange.extractor.isExtractionDone()) {
+				// the rest of the file doesn't need to be extracted
+				return null;
+			}
+		}
+		if (pendingRanges.isEmpty() || extractor.isStopped()) {
+			return null;
+		}
+		RangeItems range;
+		try {
+			range = pendingRanges.removeFirst().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			} else if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			} else {
+				throw new IOException(e.getCause());
+			}
+		}
+		readRangeExtractors.add(range.extractor);
+		extractor.notifyRangeInvalidLines(range.extractor, lineOffset);
+		submitRanges();
+		return range;
+	}
+
+
+	/**
+	 * Parses the specified range of the file
+	 * @param start offset of the first byte of the range
+	 * @param stop offset of the byte after the last byte of the range
+	 * @return the items of the range
+	 * @throws Exception
+	 */
+	private RangeItems parseRange(long start, long stop) throws Exception {
+		TextFileExtractor rangeExtractor = extractor.createRangeExtractor(new RangeInputStream(extractor.getDataFile(), start, stop), RANGE_BUFFER_SIZE);
+		RangeItems range = new RangeItems(rangeExtractor);
+		try {
+			while (!isAborted && !extractor.isStopped() && rangeExtractor.readItem()) {
+				range.addLastItem();
+			}
+		} finally {
+			rangeExtractor.finalizeExtraction();
+		}
+		return range;
+	}
+
+
+	@Override
+	public boolean readItem() throws IOException {
+		if (isFinalized) {
+			return false;
+		}
+		try {
+			if (rangeBounds == null) {
+				initializeExtraction();
+			}
+			if ((currentRange != null) && ((currentIndex + 1) < currentRange.size)) {
+				currentIndex++;
+				return true;
+			}
+			// reads the next non empty range
+			while ((currentRange = nextRange()) != null) {
+				if (currentRange.size > 0) {
+					currentIndex = 0;
+					return true;
+				}
+			}
+		} catch (IOException e) {
+			finalizeExtraction();
+			throw e;
+		} catch (RuntimeException e) {
+			finalizeExtraction();
+			throw e;
+		}
+		finalizeExtraction();
+		return false;
+	}
+
+
+	@Override
+	public void removeOperationProgressListener(OperationProgressListener operationProgressListener) {
+		extractor.removeOperationProgressListener(operationProgressListener);
+	}
+
+
+	@Override
+	public void stop() {
+		extractor.stop();
+	}
+
+
+	/**
+	 * Submits ranges to the worker threads until the maximum number of pending ranges is reached
+	 */
+	private void submitRanges() {
+		int maxPendingRanges = threadCount * RANGES_PER_THREAD;
+		while ((pendingRanges.size() < maxPendingRanges) && (nextRangeIndex < (rangeBounds.length - 1))) {
+			final long start = rangeBounds[nextRangeIndex];
+			final long stop = rangeBounds[nextRangeIndex + 1];
+			nextRangeIndex++;
+			pendingRanges.add(executor.submit(new Callable<RangeItems>() {
+				@Override
+				public RangeItems call() throws Exception {
+					return parseRange(start, stop);
+				}
+			}));
+		}
+	}
+}
@@ -22,16 +22,19 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.IO.extractor;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.NavigableSet;
-import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import net.sf.samtools.AlignmentBlock;
 import net.sf.samtools.SAMFileHeader;
@@ -41,14 +44,15 @@ import net.sf.samtools.SAMProgramRecord;
 import net.sf.samtools.SAMReadGroupRecord;
 import net.sf.samtools.SAMRecord;
 import net.sf.samtools.SAMRecordIterator;
+import net.sf.samtools.SAMSequenceRecord;
 import edu.yu.einstein.genplay.core.IO.dataReader.ChromosomeWindowReader;
+import edu.yu.einstein.genplay.core.IO.dataReader.CoverageReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.DataReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
 import edu.yu.einstein.genplay.core.IO.utils.StrandedExtractorOptions;
 import edu.yu.einstein.genplay.core.IO.utils.SAMRecordFilter.SAMRecordFilter;
-import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
-import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
+import edu.yu.einstein.genplay.core.pileupFlattener.BinCoverageAccumulator;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.ChromosomeWindow;
 import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.SimpleChromosomeWindow;
@@ -56,13 +60,22 @@ import edu.yu.einstein.genplay.dataStructure.enums.Strand;
 import edu.yu.einstein.genplay.dataStructure.gene.Gene;
 import edu.yu.einstein.genplay.dataStructure.gene.SimpleGene;
 import edu.yu.einstein.genplay.exception.exceptions.DataLineException;
+import edu.yu.einstein.genplay.exception.exceptions.InvalidChromosomeException;
+import edu.yu.einstein.genplay.util.DaemonThreadFactory;
 
 
 /**
- * Extractor that extract data from a SAM / BAM file
+ * Extractor that extract data from a SAM / BAM file.<br>
+ * When the file is an indexed BAM file (a .bai index is present), only the chromosomes selected
+ * for the extraction are read.  Each chromosome is queried with its own {@link SAMFileReader} and
+ * processed by a pool of worker threads.  The alignments are then returned in batches of a single chromosome.
+ * The alignments of a chromosome are returned sorted but the batches of different chromosomes can be interleaved.<br>
+ * The extractor can also accumulate the alignments directly into coverage bins (see {@link CoverageReader}).
+ * In this case the alignments don't need to be sorted and no object is created per alignment.<br>
+ * The extractor must be closed when the file is not read until the end.
  * @author Julien Lajugie
  */
-public class SAMExtractor extends Extractor implements DataReader, ChromosomeWindowReader, SCWReader, StrandReader, StrandedExtractor {
+public class SAMExtractor extends Extractor implements DataReader, ChromosomeWindowReader, CoverageReader, SCWReader, StrandReader, StrandedExtractor, Closeable {
 
 
 	/**
@@ -72,7 +85,7 @@ public class SAMExtractor extends Extractor implements DataReader, ChromosomeWin
 	 * doesn't insert a value in the set if this value is already present.
 	 * @author Julien Lajugie
 	 */
-	private class NeverEqualChromosomeWindowStartComparator implements Comparator<ChromosomeWindow>{
+	private static class NeverEqualChromosomeWindowStartComparator implements Comparator<ChromosomeWindow>{
 
 		/**
 		 * @return -1 if the start position of the first window is smaller or equal to the one of the second window.
@@ -89,6 +102,381 @@ public class SAMExtractor extends Extractor implements DataReader, ChromosomeWin
 	}
 
 
+	/**
+	 * Batch of alignments of a chromosome ready to be retrieved
+	 * @author Julien Lajugie
+	 */
+	private static class AlignmentBatch implements AlignmentSink {
+
+		/** Chromosome of the alignments */
+		private final Chromosome chromosome;
+
+		/** Start positions of the alignments */
+		private int[] starts = new int[INITIAL_BATCH_CAPACITY];
+
+		/** Stop positions of the alignments */
+		private int[] stops = new int[INITIAL_BATCH_CAPACITY];
+
+		/** Strands of the alignments */
+		private Strand[] strands = new Strand[INITIAL_BATCH_CAPACITY];
+
+		/** Number of alignments in the batch */
+		private int size = 0;
+
+		/** Invalid records found while processing the batch, null if none */
+		private List<DataLineException> invalidRecords = null;
+
+		/** Exception that stopped the worker that processed the batch, null if none */
+		private Throwable workerException = null;
+
+		/** True if the batch is the last batch of its chromosome */
+		private boolean isLastBatch = false;
+
+
+		/**
+		 * Creates an instance of {@link AlignmentBatch}
+		 * @param chromosome chromosome of the alignments
+		 */
+		private AlignmentBatch(Chromosome chromosome) {
+			this.chromosome = chromosome;
+		}
+
+
+		@Override
+		public void add(int start, int stop, Strand strand) {
+			if (size == starts.length) {
+				int newCapacity = size * 2;
+				int[] newStarts = new int[newCapacity];
+				int[] newStops = new int[newCapacity];
+				Strand[] newStrands = new Strand[newCapacity];
+				System.arraycopy(starts, 0, newStarts, 0, size);
+				System.arraycopy(stops, 0, newStops, 0, size);
+				System.arraycopy(strands, 0, newStrands, 0, size);
+				starts = newStarts;
+				stops = newStops;
+				strands = newStrands;
+			}
+			starts[size] = start;
+			stops[size] = stop;
+			strands[size] = strand;
+			size++;
+		}
+
+
+		/**
+		 * Adds an invalid record to the batch
+		 * @param invalidRecord a {@link DataLineException} describing the invalid record
+		 */
+		private void addInvalidRecord(DataLineException invalidRecord) {
+			if (invalidRecords == null) {
+				invalidRecords = new ArrayList<DataLineException>();
+			}
+			invalidRecords.add(invalidRecord);
+		}
+
+
+		/**
+		 * Removes all the alignments of the batch
+		 */
+		private void clear() {
+			size = 0;
+		}
+	}
+
+
+	/**
+	 * Processes the records of a chromosome and generates the alignments that are retrieved by the extractor.
+	 * The alignment blocks of split reads are retrieved sorted by start position unless the processor
+	 * is created without sorting.
+	 * @author Julien Lajugie
+	 */
+	private class AlignmentProcessor {
+
+		/** Chromosome of the records */
+		private final Chromosome chromosome;
+
+		/** True if the alignments must be added to the sinks sorted by start position */
+		private final boolean isSortRequired;
+
+		/** Set containing the alignment blocks waiting to be retrieved sorted by start position */
+		private final NavigableSet<Gene> waitingAlignmentBlocks;
+
+
+		/**
+		 * Creates an instance of {@link AlignmentProcessor}
+		 * @param chromosome chromosome of the records
+		 * @param isSortRequired true if the alignments must be added to the sinks sorted by start position.
+		 * When false the blocks of the split reads are added directly to the sinks
+		 */
+		private AlignmentProcessor(Chromosome chromosome, boolean isSortRequired) {
+			this.chromosome = chromosome;
+			this.isSortRequired = isSortRequired;
+			waitingAlignmentBlocks = new TreeSet<Gene>(new NeverEqualChromosomeWindowStartComparator());
+		}
+
+
+		/**
+		 * Add the specified alignment to the waiting list, or directly to the specified sink if the alignments don't need to be sorted
+		 * @param blockToAdd
+		 * @param strand
+		 * @param sink sink receiving the alignments
+		 */
+		private void addBlockToWaitingList(AlignmentBlock blockToAdd, Strand strand, AlignmentSink sink) {
+			int start = blockToAdd.getReferenceStart();
+			int stop = start + blockToAdd.getLength();
+			// compute the read position with specified strand shift and read length
+			if (strandOptions != null) {
+				SimpleChromosomeWindow resultStartStop = strandOptions.computeStartStop(chromosome, start, stop, strand);
+				start = resultStartStop.getStart();
+				stop = resultStartStop.getStop();
+			}
+			// if we are in a multi-genome project, we compute the position on the meta genome
+			start = getRealGenomePosition(chromosome, start);
+			stop = getRealGenomePosition(chromosome, stop);
+			if (isSortRequired) {
+				waitingAlignmentBlocks.add(new SimpleGene(null, strand, start, stop, 0, null));
+			} else {
+				sink.add(start, stop, strand);
+			}
+		}
+
+
+		/**
+		 * Adds all the alignments of the waiting list to the specified sink.
+		 * Must be called once all the records of the chromosome have been processed.
+		 * @param sink sink receiving the alignments
+		 */
+		private void flush(AlignmentSink sink) {
+			while (!waitingAlignmentBlocks.isEmpty()) {
+				Gene removedWaitingBlock = waitingAlignmentBlocks.pollFirst();
+				sink.add(removedWaitingBlock.getStart(), removedWaitingBlock.getStop(), removedWaitingBlock.getStrand());
+			}
+		}
+
+
+		/**
+		 * Removes all the alignments with a start smaller than a specified value from the waiting list
+		 * and adds them to the specified sink.
+		 * @param position
+		 * @param sink sink receiving the alignments
+		 */
+		private void flushWaitingAlignments(int position, AlignmentSink sink) {
+			ChromosomeWindow chromosomeWindow = new SimpleChromosomeWindow(position, position + 1);
+			while (!waitingAlignmentBlocks.isEmpty() && (waitingAlignmentBlocks.first().compareTo(chromosomeWindow) <= 0)) {
+				Gene removedWaitingBlock = waitingAlignmentBlocks.pollFirst();
+				sink.add(removedWaitingBlock.getStart(), removedWaitingBlock.getStop(), removedWaitingBlock.getStrand());
+			}
+		}
+
+
+		/**
+		 * Process a paired SAM record and extract its starts and stops
+		 * @param samRecord a {@link SAMRecord}
+		 * @param sink sink receiving the alignments
+		 */
+		private void processPairedSamRecord(SAMRecord samRecord, AlignmentSink sink) {
+			// check if the read is the leftmost of the pair
+			if (isLeftMostOfPair(samRecord)) {
+				int start = samRecord.getAlignmentStart();
+				int stop = samRecord.getMateAlignmentStart() + 1;
+				Strand strand = samRecord.getFirstOfPairFlag() ? Strand.FIVE : Strand.THREE;
+				// compute the read position with specified strand shift and read length
+				if (strandOptions != null) {
+					if (strandOptions.isSelected(strand)) {
+						SimpleChromosomeWindow resultStartStop = strandOptions.computeStartStop(chromosome, start, stop, strand);
+						start = resultStartStop.getStart();
+						stop = resultStartStop.getStop();
+					} else {
+						return;
+					}
+				}
+				// if we are in a multi-genome project, we compute the position on the meta genome
+				start = getRealGenomePosition(chromosome, start);
+				stop = getRealGenomePosition(chromosome, stop);
+				if ((stop - start) > 0) {
+					sink.add(start, stop, strand);
+				}
+			}
+		}
+
+
+		/**
+		 * Process the specified {@link SAMRecord} and adds its alignments to the specified sink
+		 * @param samRecord a {@link SAMRecord} of the chromosome of the processor
+		 * @param sink sink receiving the alignments
+		 */
+		private void processSamRecord(SAMRecord samRecord, AlignmentSink sink) {
+			if (isPairedMode) {
+				processPairedSamRecord(samRecord, sink);
+				return;
+			}
+			Strand strand = samRecord.getReadNegativeStrandFlag() ? Strand.THREE : Strand.FIVE;
+			List<AlignmentBlock> alignmentBlocks = samRecord.getAlignmentBlocks();
+			if (!alignmentBlocks.isEmpty()) {
+				AlignmentBlock firstBlock = alignmentBlocks.get(0);
+				int start = firstBlock.getReferenceStart();
+				int stop = start + firstBlock.getLength();
+				// compute the read position with specified strand shift and read length
+				if (strandOptions != null) {
+					if (strandOptions.isSelected(strand)) {
+						SimpleChromosomeWindow resultStartStop = strandOptions.computeStartStop(chromosome, start, stop, strand);
+						start = resultStartStop.getStart();
+						stop = resultStartStop.getStop();
+					} else {
+						return;
+					}
+				}
+				// if we are in a multi-genome project, we compute the position on the meta genome
+				start = getRealGenomePosition(chromosome, start);
+				stop = getRealGenomePosition(chromosome, stop);
+
+				// add the waiting alignments with a start position smaller than the current alignment
+				flushWaitingAlignments(start, sink);
+
+				// add the first alignment block to the sink
+				sink.add(start, stop, strand);
+
+				// add the other blocks to the waiting list to make sure that they will be retrieved in sorted order
+				// if the strand option has been specified we don't consider the other blocks
+				if (strandOptions == null) {
+					for (int i = 1; i < alignmentBlocks.size(); i++) {
+						addBlockToWaitingList(alignmentBlocks.get(i), strand, sink);
+					}
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Receives the alignments generated by an {@link AlignmentProcessor}
+	 * @author Julien Lajugie
+	 */
+	private static interface AlignmentSink {
+
+		/**
+		 * Adds an alignment to the sink
+		 * @param start start position of the alignment
+		 * @param stop stop position of the alignment
+		 * @param strand strand of the alignment
+		 */
+		public void add(int start, int stop, Strand strand);
+	}
+
+
+	/**
+	 * Extracts the records of a chromosome of an indexed BAM file using its own {@link SAMFileReader}
+	 * @author Julien Lajugie
+	 */
+	private class ChromosomeWorker implements Runnable {
+
+		/** Chromosome to extract */
+		private final Chromosome chromosome;
+
+		/** Name of the chromosome in the BAM file */
+		private final String sequenceName;
+
+		/** Sink accumulating the coverage of the chromosome, null if the alignments are sent in batches */
+		private final CoverageSink coverageSink;
+
+
+		/**
+		 * Creates an instance of {@link ChromosomeWorker}
+		 * @param chromosome chromosome to extract
+		 * @param sequenceName name of the chromosome in the BAM file
+		 * @param coverageSink sink accumulating the coverage of the chromosome.  Null if the alignments must be sent in batches.
+		 * When specified only the last batch, without alignments, is sent
+		 */
+		private ChromosomeWorker(Chromosome chromosome, String sequenceName, CoverageSink coverageSink) {
+			this.chromosome = chromosome;
+			this.sequenceName = sequenceName;
+			this.coverageSink = coverageSink;
+		}
+
+
+		@Override
+		public void run() {
+			AlignmentBatch batch = new AlignmentBatch(chromosome);
+			SAMFileReader chromosomeReader = null;
+			try {
+				chromosomeReader = new SAMFileReader(getDataFile());
+				SAMRecordIterator chromosomeIterator = chromosomeReader.query(sequenceName, 0, 0, false);
+				AlignmentProcessor processor = new AlignmentProcessor(chromosome, coverageSink == null);
+				AlignmentSink sink = coverageSink == null ? batch : coverageSink;
+				while (!isStopped() && chromosomeIterator.hasNext()) {
+					SAMRecord samRecord = null;
+					try {
+						samRecord = chromosomeIterator.next();
+						samRecord = applyFilters(samRecord);
+						if (samRecord != null) {
+							processor.processSamRecord(samRecord, sink);
+						}
+					} catch (SAMFormatException e) {
+						batch.addInvalidRecord(createInvalidRecordException(e, samRecord));
+					}
+					if (batch.size >= BATCH_SIZE) {
+						readyBatches.put(batch);
+						batch = new AlignmentBatch(chromosome);
+						sink = batch;
+					}
+				}
+				processor.flush(sink);
+				chromosomeIterator.close();
+			} catch (InterruptedException e) {
+				// the extraction was stopped
+				return;
+			} catch (Throwable t) {
+				batch.workerException = t;
+			} finally {
+				if (chromosomeReader != null) {
+					chromosomeReader.close();
+				}
+			}
+			batch.isLastBatch = true;
+			try {
+				readyBatches.put(batch);
+			} catch (InterruptedException e) {
+				// the extraction was stopped
+			}
+		}
+	}
+
+
+	/**
+	 * Adds the alignments of a chromosome to the coverage accumulators of their strand
+	 * @author Julien Lajugie
+	 */
+	private static class CoverageSink implements AlignmentSink {
+
+		/** Accumulator of the 5' strand */
+		private final BinCoverageAccumulator accumulator5;
+
+		/** Accumulator of the 3' strand */
+		private final BinCoverageAccumulator accumulator3;
+
+
+		/**
+		 * Creates an instance of {@link CoverageSink}
+		 * @param accumulator5 accumulator of the 5' strand
+		 * @param accumulator3 accumulator of the 3' strand
+		 */
+		private CoverageSink(BinCoverageAccumulator accumulator5, BinCoverageAccumulator accumulator3) {
+			this.accumulator5 = accumulator5;
+			this.accumulator3 = accumulator3;
+		}
+
+
+		@Override
+		public void add(int start, int stop, Strand strand) {
+			if (strand == Strand.THREE) {
+				accumulator3.addWindow(start, stop, 1f);
+			} else {
+				accumulator5.addWindow(start, stop, 1f);
+			}
+		}
+	}
+
+
 	/**
 	 * Default first base position of bed files. SAM files are 1-based
 	 * Even though BAM files are 0-based, {@link SAMFileReader} objects
@@ -96,20 +484,32 @@ public class SAMExtractor extends Extractor implements DataReader, ChromosomeWin
 	 * */
 	public static final int DEFAULT_FIRST_BASE_POSITION = 1;
 
+	/** Number of alignments in the batches generated by the workers of an indexed extraction */
+	private static final int BATCH_SIZE = 1 << 14;
+
+	/** Initial capacity of the batches */
+	private static final int INITIAL_BATCH_CAPACITY = 16;
+
+	/** Number of batches waiting to be retrieved per worker thread */
+	private static final int BATCHES_PER_THREAD = 4;
+
 	private int	firstBasePosition = DEFAULT_FIRST_BASE_POSITION; 						// position of the first base
 	private final SAMReadGroupRecord[]				readGroups;							// read groups of the SAM file
 	private final String[]							programNames;						// programs used to generate and process the SAM file
 	private final SAMFileReader 					samReader;							// reader that read sam / bam files (from sam.jar)
-	private final SAMRecordIterator 				iterator;							// iterator in the file
+	private SAMRecordIterator		 				iterator = null;					// iterator in the file, used when the file is not indexed
 	private StrandedExtractorOptions				strandOptions;						// options on the strand and read length / shift
 	private final List<SAMRecordFilter>				recordFilters;						// SAM record filters (we don't consider records that don't pass these filters)
 	private boolean									isPairedMode;						// true if the extractor is in pair end mode
-	private Chromosome 								chromosome;							// chromosome of the last record read (a record has exactly one chromosome)
-	private final Queue<Integer>					startQueue;							// queue containing the start positions of the last record read (a record can have more than one start if split)
-	private final Queue<Integer>					stopQueue;							// queue containing the stop positions of the last record read (a record can have more than one stop if split)
-	private final Queue<Strand>						strandQueue;						// queue containing the strands of the last record read (a record can have more than one stop if split)
-	private final NavigableSet<Gene>				waitingAlignmentBlocks;				// set containing the alignment blocks sorted by start position
-	private boolean 								lastChromosomeJustFlushed = false;	// true if the waiting list of the last chromosome was just flushed
+	private Boolean									isIndexedExtraction = null;			// true if the file is extracted using its index, null until the extraction starts
+	private AlignmentBatch							currentBatch = null;				// batch containing the last alignment retrieved
+	private int										currentIndex = 0;					// index of the last alignment retrieved in the current batch
+	private AlignmentProcessor						currentProcessor = null;			// processor of the chromosome being read when the file is not indexed
+	private AlignmentBatch							pendingBatch = null;				// batch to retrieve after the current batch when the file is not indexed
+	private boolean									isExtractionDone = false;			// true when the rest of the file doesn't need to be extracted
+	private ExecutorService							executor = null;					// executor of the chromosome workers when the file is indexed
+	private BlockingQueue<AlignmentBatch>			readyBatches = null;				// batches generated by the chromosome workers
+	private int										runningWorkerCount = 0;				// number of chromosome workers that didn't send their last batch
 
 
 	/**
@@ -121,33 +521,7 @@ public class SAMExtractor extends Extractor implements DataReader, ChromosomeWin
 		samReader = new SAMFileReader(dataFile);
 		readGroups = retrieveReadGroups();
 		programNames = retrieveProgramNames();
-		iterator = samReader.iterator();
-		startQueue = new ConcurrentLinkedQueue<Integer>();
-		stopQueue = new ConcurrentLinkedQueue<Integer>();
-		strandQueue = new ConcurrentLinkedQueue<Strand>();
 		recordFilters = new ArrayList<SAMRecordFilter>();
-		waitingAlignmentBlocks = new TreeSet<Gene>(new NeverEqualChromosomeWindowStartComparator());
-	}
-
-
-	/**
-	 * Add the specified alignment to the waiting list
-	 * @param blockToAdd
-	 * @param strand
-	 */
-	private void addBlockToWaitingList(AlignmentBlock blockToAdd, Strand strand) {
-		int start = blockToAdd.getReferenceStart();
-		int stop = start + blockToAdd.getLength();
-		// compute the read position with specified strand shift and read length
-		if (strandOptions != null) {
-			SimpleChromosomeWindow resultStartStop = strandOptions.computeStartStop(chromosome, start, stop, strand);
-			start = resultStartStop.getStart();
-			stop = resultStartStop.getStop();
-		}
-		// if we are in a multi-genome project, we compute the position on the meta genome
-		start = getRealGenomePosition(chromosome, start);
-		stop = getRealGenomePosition(chromosome, stop);
-		waitingAlignmentBlocks.add(new SimpleGene(null, strand, start, stop, 0, null));
 	}
 
 
@@ -177,24 +551,50 @@ public class SAMExtractor extends Extractor implements DataReader, ChromosomeWin
 
 
 	/**
-	 * Removes all the alignments with a start smaller than a specified value from the waiting list
-	 * and adds them to the list of the alignments ready to be retrieved.
-	 * @param position
+	 * Stops the chromosome workers and closes the file.  Needs to be called when the extraction
+	 * is abandoned before the end of the file
+	 */
+	@Override
+	public void close() {
+		stopIndexedExtraction();
+		if (iterator != null) {
+			iterator.close();
+			iterator = null;
+		}
+		samReader.close();
+	}
+
+
+	/**
+	 * @param e a {@link SAMFormatException}
+	 * @param samRecord record that caused the exception, can be null
+	 * @return a {@link DataLineException} describing the invalid record
 	 */
-	private void flushWaitingAlignments(int position) {
-		ChromosomeWindow chromosomeWindow = new SimpleChromosomeWindow(position, position + 1);
-		while (!waitingAlignmentBlocks.isEmpty() && (waitingAlignmentBlocks.first().compareTo(chromosomeWindow) <= 0)) {
-			Gene removedWaitingBlock = waitingAlignmentBlocks.pollFirst();
-			startQueue.add(removedWaitingBlock.getStart());
-			stopQueue.add(removedWaitingBlock.getStop());
-			strandQueue.add(removedWaitingBlock.getStrand());
+	private DataLineException createInvalidRecordException(SAMFormatException e, SAMRecord samRecord) {
+		DataLineException dataLineException = new DataLineException(e.getMessage(), DataLineException.SKIP_PROCESS);
+		dataLineException.setFile(getDataFile());
+		if ((samRecord != null) && (samRecord.getSAMString() != null)) {
+			dataLineException.setLine(samRecord.getSAMString());
 		}
+		return dataLineException;
+	}
+
+
+	/**
+	 * @param chromosome a {@link Chromosome} of the project
+	 * @param accumulators5 accumulators of the 5' strand
+	 * @param accumulators3 accumulators of the 3' strand
+	 * @return a {@link CoverageSink} adding the alignments of the specified chromosome to its accumulators
+	 */
+	private CoverageSink createCoverageSink(Chromosome chromosome, List<BinCoverageAccumulator> accumulators5, List<BinCoverageAccumulator> accumulators3) {
+		int chromosomeIndex = getProjectChromosome().getIndex(chromosome);
+		return new CoverageSink(accumulators5.get(chromosomeIndex), accumulators3.get(chromosomeIndex));
 	}
 
 
 	@Override
 	public Chromosome getChromosome() {
-		return chromosome;
+		return currentBatch.chromosome;
 	}
 
 
@@ -236,19 +636,19 @@ public class SAMExtractor extends Extractor implements DataReader, ChromosomeWin
 
 	@Override
 	public Integer getStart() {
-		return startQueue.peek();
+		return currentBatch.starts[currentIndex];
 	}
 
 
 	@Override
 	public Integer getStop() {
-		return stopQueue.peek();
+		return currentBatch.stops[currentIndex];
 	}
 
 
 	@Override
 	public Strand getStrand() {
-		return strandQueue.peek();
+		return currentBatch.strands[currentIndex];
 	}
 
 
@@ -276,149 +676,199 @@ public class SAMExtractor extends Extractor implements DataReader, ChromosomeWin
 
 
 	/**
-	 * Process a paired SAM record and extract its starts and stops
-	 * @param samRecord a {@link SAMRecord}
-	 * @return true if a window was extracted from the record, false otherwise
+	 * Retrieves the next batch of alignments generated by the chromosome workers of an indexed extraction
+	 * @return the next batch of alignments, null if all the chromosomes have been extracted
+	 * @throws IOException
 	 */
-	private boolean processPairedSamRecord(SAMRecord samRecord) {
-		// check if the read is the leftmost of the pair
-		if (isLeftMostOfPair(samRecord)) {
-			int start = samRecord.getAlignmentStart();
-			int stop = samRecord.getMateAlignmentStart() + 1;
-			Strand strand = samRecord.getFirstOfPairFlag() ? Strand.FIVE : Strand.THREE;
-			// compute the read position with specified strand shift and read length
-			if (strandOptions != null) {
-				if (strandOptions.isSelected(strand)) {
-					SimpleChromosomeWindow resultStartStop = strandOptions.computeStartStop(chromosome, start, stop, strand);
-					start = resultStartStop.getStart();
-					stop = resultStartStop.getStop();
-				} else {
-					return false;
-				}
+	private AlignmentBatch nextIndexedBatch() throws IOException {
+		if (executor == null) {
+			startIndexedExtraction(null, null);
+		}
+		if (runningWorkerCount == 0) {
+			executor.shutdown();
+			return null;
+		}
+		AlignmentBatch batch;
+		try {
+			batch = readyBatches.take();
+		} catch (InterruptedException e) {
+			stopIndexedExtraction();
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		if (batch.isLastBatch) {
+			runningWorkerCount--;
+		}
+		if (batch.workerException != null) {
+			stopIndexedExtraction();
+			if (batch.workerException instanceof IOException) {
+				throw (IOException) batch.workerException;
+			} else if (batch.workerException instanceof RuntimeException) {
+				throw (RuntimeException) batch.workerException;
+			} else if (batch.workerException instanceof Error) {
+				throw (Error) batch.workerException;
+			} else {
+				throw new IOException(batch.workerException);
 			}
-			// if we are in a multi-genome project, we compute the position on the meta genome
-			start = getRealGenomePosition(chromosome, start);
-			stop = getRealGenomePosition(chromosome, stop);
-			if ((stop - start) > 0) {
-				startQueue.add(start);
-				stopQueue.add(stop);
-				strandQueue.add(strand);
-				return true;
+		}
+		if (batch.invalidRecords != null) {
+			for (DataLineException invalidRecord: batch.invalidRecords) {
+				notifyDataEventListeners(invalidRecord);
 			}
 		}
-		return false;
+		return batch;
 	}
 
 
 	/**
-	 * Process the specified {@link SAMRecord} and extract its chromosome, starts, stops and strand values
-	 * @param samRecord a {@link SAMRecord}
-	 * @return true if an alignment was extracted
+	 * Reads the records of the file until some alignments are ready to be retrieved
+	 * @return the next batch of alignments, null if the end of the file has been reached
 	 */
-	private boolean processSamRecord(SAMRecord samRecord) {
-		ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
-		if (isPairedMode) {
-			chromosome =  projectChromosomes.get(samRecord.getReferenceName());
-			return processPairedSamRecord(samRecord);
-		}
-
-		Strand strand = samRecord.getReadNegativeStrandFlag() ? Strand.THREE : Strand.FIVE;
-		Chromosome currentChromosome = projectChromosomes.get(samRecord.getReferenceName());
-		// when a new chromosome start being extracted we flush all the waiting alignments from the previous chromosome
-		if ((chromosome != null) && (currentChromosome != chromosome) && !waitingAlignmentBlocks.isEmpty() && !lastChromosomeJustFlushed) {
-			flushWaitingAlignments(chromosome.getLength() + 1);
-			// add the other blocks to the waiting list to make sure that they will be retrieved in sorted order
-			for (AlignmentBlock currentBlock: samRecord.getAlignmentBlocks()) {
-				addBlockToWaitingList(currentBlock, strand);
-				lastChromosomeJustFlushed = true;
-			}
-			return true;
+	private AlignmentBatch nextSequentialBatch() {
+		if (pendingBatch != null) {
+			AlignmentBatch batch = pendingBatch;
+			pendingBatch = null;
+			return batch;
 		}
-
-		chromosome = currentChromosome;
-		lastChromosomeJustFlushed = false;
-		List<AlignmentBlock> alignmentBlocks = samRecord.getAlignmentBlocks();
-		if (!alignmentBlocks.isEmpty()) {
-			AlignmentBlock firstBlock = alignmentBlocks.get(0);
-			int start = firstBlock.getReferenceStart();
-			int stop = start + firstBlock.getLength();
-			// compute the read position with specified strand shift and read length
-			if (strandOptions != null) {
-				if (strandOptions.isSelected(strand)) {
-					SimpleChromosomeWindow resultStartStop = strandOptions.computeStartStop(chromosome, start, stop, strand);
-					start = resultStartStop.getStart();
-					stop = resultStartStop.getStop();
-				} else {
-					return false;
+		if (iterator == null) {
+			iterator = samReader.iterator();
+		}
+		while (!isExtractionDone && iterator.hasNext()) {
+			SAMRecord samRecord = null;
+			try {
+				samRecord = iterator.next();
+				String chromosomeName = samRecord.getReferenceName();
+				// case where last chromosome already extracted, no more data to extract
+				if ((getChromosomeSelector() != null) && (getChromosomeSelector().isExtractionDone(chromosomeName))) {
+					isExtractionDone = true;
+				} else if ((getChromosomeSelector() == null) || getChromosomeSelector().isSelected(chromosomeName)) {
+					// chromosome was selected for extraction
+					samRecord = applyFilters(samRecord);
+					if (samRecord != null) {
+						Chromosome chromosome = getProjectChromosome().get(chromosomeName);
+						if ((currentProcessor == null) || (currentProcessor.chromosome != chromosome)) {
+							// when a new chromosome start being extracted we flush all the waiting alignments from the previous chromosome
+							AlignmentBatch flushedBatch = null;
+							if (currentProcessor != null) {
+								flushedBatch = new AlignmentBatch(currentProcessor.chromosome);
+								currentProcessor.flush(flushedBatch);
+							}
+							currentProcessor = new AlignmentProcessor(chromosome, true);
+							AlignmentBatch batch = new AlignmentBatch(chromosome);
+							currentProcessor.processSamRecord(samRecord, batch);
+							if (flushedBatch != null) {
+								pendingBatch = batch;
+								return flushedBatch;
+							}
+							return batch;
+						} else {
+							AlignmentBatch batch = currentBatch.chromosome == chromosome ? currentBatch : new AlignmentBatch(chromosome);
+							batch.clear();
+							currentProcessor.processSamRecord(samRecord, batch);
+							if (batch.size > 0) {
+								return batch;
+							}
+						}
+					}
 				}
+			} catch (InvalidChromosomeException e) {
+				// unknown chromosome
+			} catch (SAMFormatException e) {
+				notifyDataEventListeners(createInvalidRecordException(e, samRecord));
 			}
-			// if we are in a multi-genome project, we compute the position on the meta genome
-			start = getRealGenomePosition(chromosome, start);
-			stop = getRealGenomePosition(chromosome, stop);
-
-			// add the waiting alignments with a start position smaller than the current alignment
-			flushWaitingAlignments(start);
+		}
+		// flush the waiting alignments of the last chromosome
+		if (currentProcessor != null) {
+			AlignmentBatch batch = new AlignmentBatch(currentProcessor.chromosome);
+			currentProcessor.flush(batch);
+			currentProcessor = null;
+			return batch;
+		}
+		return null;
+	}
 
-			// add the first alignment block to the start and stop list ready to be retrieved
-			startQueue.add(start);
-			stopQueue.add(stop);
-			strandQueue.add(strand);
 
-			// add the other blocks to the waiting list to make sure that they will be retrieved in sorted order
-			// if the strand option has been specified we don't consider the other blocks
-			if (strandOptions == null) {
-				for (int i = 1; i < alignmentBlocks.size(); i++) {
-					addBlockToWaitingList(alignmentBlocks.get(i), strand);
+	/**
+	 * Reads all the alignments and adds them to the accumulators of their chromosomes.
+	 * The chromosomes of an indexed BAM file are processed in parallel.
+	 * This method must not be used after {@link #readItem()}.
+	 */
+	@Override
+	public void readCoverage(List<BinCoverageAccumulator> accumulators5, List<BinCoverageAccumulator> accumulators3) throws IOException {
+		if (samReader.isBinary() && samReader.hasIndex()) {
+			isIndexedExtraction = true;
+			startIndexedExtraction(accumulators5, accumulators3);
+			try {
+				while (!isStopped() && (nextIndexedBatch() != null)) {
+					// the batches sent by the workers only contain the invalid records and the errors
+					// that are notified when the batches are retrieved
 				}
+			} finally {
+				stopIndexedExtraction();
+			}
+		} else {
+			isIndexedExtraction = false;
+			iterator = samReader.iterator();
+			AlignmentProcessor processor = null;
+			CoverageSink sink = null;
+			try {
+				while (!isStopped() && iterator.hasNext()) {
+					SAMRecord samRecord = null;
+					try {
+						samRecord = iterator.next();
+						String chromosomeName = samRecord.getReferenceName();
+						// case where last chromosome already extracted, no more data to extract
+						if ((getChromosomeSelector() != null) && (getChromosomeSelector().isExtractionDone(chromosomeName))) {
+							break;
+						} else if ((getChromosomeSelector() == null) || getChromosomeSelector().isSelected(chromosomeName)) {
+							// chromosome was selected for extraction
+							samRecord = applyFilters(samRecord);
+							if (samRecord != null) {
+								Chromosome chromosome = getProjectChromosome().get(chromosomeName);
+								if ((processor == null) || (processor.chromosome != chromosome)) {
+									processor = new AlignmentProcessor(chromosome, false);
+									sink = createCoverageSink(chromosome, accumulators5, accumulators3);
+								}
+								processor.processSamRecord(samRecord, sink);
+							}
+						}
+					} catch (InvalidChromosomeException e) {
+						// unknown chromosome
+					} catch (SAMFormatException e) {
+						notifyDataEventListeners(createInvalidRecordException(e, samRecord));
+					}
+				}
+			} finally {
+				iterator.close();
+				iterator = null;
 			}
-			return true;
 		}
-		return false;
 	}
 
 
 	@Override
 	public boolean readItem() throws IOException {
 		if (isStopped()) {
+			stopIndexedExtraction();
 			return false;
 		}
-		// remove the last item from the queues
-		if (!startQueue.isEmpty()) {
-			startQueue.poll();
-			stopQueue.poll();
-			strandQueue.poll();
-			// nothing to do if there still some items in the queues
-			if (!startQueue.isEmpty()) {
-				return true;
-			}
+		// retrieve the next alignment of the current batch
+		if ((currentBatch != null) && ((currentIndex + 1) < currentBatch.size)) {
+			currentIndex++;
+			return true;
 		}
-		SAMRecord samRecord = null;
-		while (iterator.hasNext()) {
-			try {
-				samRecord = iterator.next();
-				String chromosomeName = samRecord.getReferenceName();
-				// case where last chromosome already extracted, no more data to extract
-				if ((getChromosomeSelector() != null) && (getChromosomeSelector().isExtractionDone(chromosomeName))) {
-					return false;
-				}
-				// chromosome was selected for extraction
-				if ((getChromosomeSelector() == null) || getChromosomeSelector().isSelected(chromosomeName)) {
-					samRecord = applyFilters(samRecord);
-					if ((samRecord != null) && processSamRecord(samRecord)) {
-						return true;
-					}
-				}
-			} catch (SAMFormatException e) {
-				DataLineException dataLineException = new DataLineException(e.getMessage(), DataLineException.SKIP_PROCESS);
-				dataLineException.setFile(getDataFile());
-				if ((samRecord != null) && (samRecord.getSAMString() != null)) {
-					dataLineException.setLine(samRecord.getSAMString());
-				}
-				notifyDataEventListeners(dataLineException);
-
-			}
+		if (isIndexedExtraction == null) {
+			isIndexedExtraction = samReader.isBinary() && samReader.hasIndex();
 		}
-		return false;
+		currentIndex = 0;
+		do {
+			if (isIndexedExtraction) {
+				currentBatch = nextIndexedBatch();
+			} else {
+				currentBatch = nextSequentialBatch();
+			}
+		} while ((currentBatch != null) && (currentBatch.size == 0));
+		return currentBatch != null;
 	}
 
 
@@ -491,4 +941,48 @@ public class SAMExtractor extends Extractor implements DataReader, ChromosomeWin
 	public void setStrandedExtractorOptions(StrandedExtractorOptions options) {
 		strandOptions = options;
 	}
+
+
+	/**
+	 * Starts the extraction of an indexed file: one worker per chromosome present in the
+	 * file and selected for the extraction
+	 * @param accumulators5 accumulators of the 5' strand when the coverage is read, null otherwise
+	 * @param accumulators3 accumulators of the 3' strand when the coverage is read, null otherwise
+	 */
+	private void startIndexedExtraction(List<BinCoverageAccumulator> accumulators5, List<BinCoverageAccumulator> accumulators3) {
+		List<ChromosomeWorker> workers = new ArrayList<ChromosomeWorker>();
+		for (SAMSequenceRecord sequence: samReader.getFileHeader().getSequenceDictionary().getSequences()) {
+			String sequenceName = sequence.getSequenceName();
+			if ((getChromosomeSelector() == null) || getChromosomeSelector().isSelected(sequenceName)) {
+				try {
+					Chromosome chromosome = getProjectChromosome().get(sequenceName);
+					CoverageSink coverageSink = null;
+					if (accumulators5 != null) {
+						coverageSink = createCoverageSink(chromosome, accumulators5, accumulators3);
+					}
+					workers.add(new ChromosomeWorker(chromosome, sequenceName, coverageSink));
+				} catch (InvalidChromosomeException e) {
+					// unknown chromosome
+				}
+			}
+		}
+		int threadCount = Math.max(1, Math.min(workers.size(), Runtime.getRuntime().availableProcessors()));
+		executor = Executors.newFixedThreadPool(threadCount, new DaemonThreadFactory("SAM Extractor"));
+		readyBatches = new LinkedBlockingQueue<AlignmentBatch>(threadCount * BATCHES_PER_THREAD);
+		runningWorkerCount = workers.size();
+		for (ChromosomeWorker worker: workers) {
+			executor.execute(worker);
+		}
+	}
+
+
+	/**
+	 * Stops the workers of an indexed extraction
+	 */
+	private void stopIndexedExtraction() {
+		if (executor != null) {
+			executor.shutdownNow();
+			runningWorkerCount = 0;
+		}
+	}
 }
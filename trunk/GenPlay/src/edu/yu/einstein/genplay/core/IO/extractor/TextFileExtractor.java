@@ -22,14 +22,19 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.IO.extractor;
 
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TreeSet;
 
 import edu.yu.einstein.genplay.core.IO.dataReader.DataReader;
+import edu.yu.einstein.genplay.core.IO.utils.ByteLineReader;
+import edu.yu.einstein.genplay.core.IO.utils.CompressedFiles;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.core.IO.utils.TrackLineHeader;
 import edu.yu.einstein.genplay.exception.ExceptionManager;
@@ -41,10 +46,33 @@ import edu.yu.einstein.genplay.gui.statusBar.Stoppable;
  * This class must be extended by the {@link Extractor} for text files
  * @author Julien Lajugie
  */
-public abstract class TextFileExtractor extends Extractor implements Stoppable, DataReader {
+public abstract class TextFileExtractor extends Extractor implements Stoppable, DataReader, Cloneable, Closeable {
+
+	/**
+	 * Invalid data line found by a range extractor.
+	 * The line number is relative to the beginning of the range.
+	 * @author Julien Lajugie
+	 */
+	private static class DeferredInvalidLine {
+
+		private final DataLineException exception;	// exception describing the problem
+		private final int 				lineNumber;	// line number relative to the beginning of the range
+		private final String 			line;		// invalid line
+
+
+		/**
+		 * Creates an instance of {@link DeferredInvalidLine}
+		 * @param exception exception describing the problem
+		 * @param lineNumber line number relative to the beginning of the range
+		 * @param line invalid line
+		 */
+		private DeferredInvalidLine(DataLineException exception, int lineNumber, String line) {
+			this.exception = exception;
+			this.lineNumber = lineNumber;
+			this.line = line;
+		}
+	}
 
-	/** Size of the buffer of the reader */
-	private final static int BUFFER_LENGTH = 8192;
 
 	/** Return code when the extraction of a file is done */
 	protected final static int EXTRACTION_DONE = 0;
@@ -58,8 +86,11 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 	/** Return code when an item was extracted */
 	protected final static int ITEM_EXTRACTED = 3;
 
-	private final BufferedReader 			reader;						// buffered reader to read the data
+	private ByteLineReader 					reader;						// reader to read the data
+	private DataLine						pendingLine = null;			// first data line, read while reading the header
 	private boolean							isInitialized = false;		// true when the file has been initialized and is ready to be extracted
+	private boolean							isExtractionDone = false;	// true when a line returned the EXTRACTION_DONE code
+	private List<DeferredInvalidLine>		deferredInvalidLines = null;// invalid lines found by a range extractor, null if the extractor is not a range extractor
 	private int 							lineExtracted;				// number of line extracted
 	private int								lineSkipped;				// number of line skipped
 	private int 							currentLineNumber;			// current line number
@@ -69,13 +100,16 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 
 
 	/**
-	 * 
+	 * The data file can be compressed with gzip or bgzip.
+	 * The file is opened when the extraction starts.
 	 * @param dataFile
 	 * @throws FileNotFoundException
 	 */
 	public TextFileExtractor(File dataFile) throws FileNotFoundException {
 		super(dataFile);
-		reader = new BufferedReader(new FileReader(dataFile), BUFFER_LENGTH);
+		if (!dataFile.isFile()) {
+			throw new FileNotFoundException(dataFile.getPath());
+		}
 		lineExtracted = 0;
 		lineSkipped = 0;
 		trackLineHeader = new TrackLineHeader();
@@ -83,7 +117,50 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 
 
 	/**
-	 * Method defining how to extract the data
+	 * Closes the file of the extractor.  Can be called when the extraction is abandoned before the end of the file
+	 */
+	@Override
+	public void close() {
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				ExceptionManager.getInstance().caughtException(e);
+			}
+		}
+	}
+
+
+	/**
+	 * Creates an extractor that extracts the lines of a range of the data file.
+	 * The created extractor shares the parameters of this extractor (eg: chromosome selector, strand options).
+	 * It doesn't read the header, doesn't notify the progress listeners and doesn't notify directly
+	 * the invalid data listeners. The invalid lines are notified by this extractor when
+	 * {@link #notifyRangeInvalidLines(TextFileExtractor, int)} is called.
+	 * @param rangeStream stream containing the range of the file to extract.  The range must start at the beginning of a line
+	 * @param bufferSize size of the buffer of the reader of the range
+	 * @return an extractor of the specified range
+	 * @throws CloneNotSupportedException
+	 */
+	TextFileExtractor createRangeExtractor(InputStream rangeStream, int bufferSize) throws CloneNotSupportedException {
+		TextFileExtractor rangeExtractor = (TextFileExtractor) clone();
+		rangeExtractor.reader = new ByteLineReader(rangeStream, bufferSize);
+		rangeExtractor.pendingLine = null;
+		rangeExtractor.isInitialized = true;
+		rangeExtractor.isExtractionDone = false;
+		rangeExtractor.deferredInvalidLines = new ArrayList<DeferredInvalidLine>();
+		rangeExtractor.lineExtracted = 0;
+		rangeExtractor.lineSkipped = 0;
+		rangeExtractor.currentLineNumber = 0;
+		rangeExtractor.randomLineNumbers = null;
+		rangeExtractor.itemExtractedCount = 0;
+		return rangeExtractor;
+	}
+
+
+	/**
+	 * Method defining how to extract the data.
+	 * The line is only valid until the method returns.
 	 * @param currentLine a data line
 	 * @return
 	 * <ul>
@@ -93,7 +170,7 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 	 * <li> {@link #ITEM_EXTRACTED} if the line was extracted and an item was extracted
 	 * </ul>
 	 */
-	protected abstract int extractDataLine(String currentLine) throws DataLineException;
+	protected abstract int extractDataLine(DataLine currentLine) throws DataLineException;
 
 
 	/**
@@ -113,14 +190,26 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 	 */
 	@Override
 	protected final void finalizeExtraction() {
-		super.finalizeExtraction();
-		if (reader != null) {
-			try {
-				reader.close();
-			} catch (IOException e) {
-				ExceptionManager.getInstance().caughtException(e);
-			}
+		if (deferredInvalidLines == null) {
+			// range extractors don't notify the progress listeners
+			super.finalizeExtraction();
+		}
+		close();
+	}
+
+
+	/**
+	 * Finalizes the extraction of a file that was extracted by range extractors
+	 * @param rangeExtractors extractors of the ranges of the file that were extracted
+	 */
+	void finalizeRangeExtraction(List<TextFileExtractor> rangeExtractors) {
+		for (TextFileExtractor currentExtractor: rangeExtractors) {
+			currentLineNumber += currentExtractor.currentLineNumber;
+			lineExtracted += currentExtractor.lineExtracted;
+			lineSkipped += currentExtractor.lineSkipped;
+			itemExtractedCount += currentExtractor.itemExtractedCount;
 		}
+		finalizeExtraction();
 	}
 
 
@@ -172,36 +261,117 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 	@Override
 	protected final void initializeExtraction() throws IOException {
 		super.initializeExtraction();
+		reader = new ByteLineReader(CompressedFiles.openInputStream(getDataFile()));
 		isInitialized = true;
-		readHeader();
+		try {
+			readHeader();
+		} catch (IOException e) {
+			close();
+			throw e;
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+
+	/**
+	 * Initializes the extraction of the file before the file is split into ranges
+	 * @return the offset of the first data line of the file, -1 if the file doesn't contain data lines
+	 * @throws IOException
+	 */
+	long initializeRangeExtraction() throws IOException {
+		if (!isInitialized) {
+			initializeExtraction();
+		}
+		if (pendingLine == null) {
+			return -1;
+		}
+		return reader.getLineOffset();
+	}
+
+
+	/**
+	 * @return true if a line of the file indicated that the rest of the file doesn't need to be extracted
+	 */
+	boolean isExtractionDone() {
+		return isExtractionDone;
 	}
 
 
 	/**
-	 * Reads the header and call the {@link #extractHeader(String)} method for each header line
+	 * @return true if the lines of the file can be extracted independently from each other,
+	 * in which case ranges of the file can be extracted in parallel.  False by default
+	 */
+	protected boolean isSplittable() {
+		return false;
+	}
+
+
+	@Override
+	protected void notifyDataEventListeners(DataLineException e, int lineNumber, String line) {
+		if (deferredInvalidLines != null) {
+			// range extractor: the line number in the file is not known yet
+			deferredInvalidLines.add(new DeferredInvalidLine(e, lineNumber, line));
+		} else {
+			super.notifyDataEventListeners(e, lineNumber, line);
+		}
+	}
+
+
+	/**
+	 * Notifies the invalid data listeners of the invalid lines found by a range extractor
+	 * @param rangeExtractor a range extractor created by this extractor
+	 * @param lineOffset number of lines of the file before the range
+	 */
+	void notifyRangeInvalidLines(TextFileExtractor rangeExtractor, int lineOffset) {
+		for (DeferredInvalidLine currentLine: rangeExtractor.deferredInvalidLines) {
+			super.notifyDataEventListeners(currentLine.exception, lineOffset + currentLine.lineNumber, currentLine.line);
+		}
+		rangeExtractor.deferredInvalidLines.clear();
+	}
+
+
+	/**
+	 * Reads the header and call the {@link #extractHeaderLine(String)} method for each header line
 	 * @throws IOException
 	 */
 	private void readHeader() throws IOException {
-		String currentLine = null;
-		reader.mark(BUFFER_LENGTH);
+		DataLine currentLine = null;
 		// loop for the header
-		while (!isStopped()
-				&& ((currentLine = reader.readLine()) != null)
-				&& Extractors.isHeaderLine(currentLine)) {
+		while (!isStopped() && ((currentLine = reader.readLine()) != null)) {
+			String headerLine = currentLine.toString();
+			if (!Extractors.isHeaderLine(headerLine)) {
+				// the first data line will be extracted by the readItem method
+				pendingLine = currentLine;
+				return;
+			}
 			currentLineNumber++;
-			reader.mark(BUFFER_LENGTH);
-			extractHeaderLine(currentLine);
+			extractHeaderLine(headerLine);
 		}
-		// roll back to the begining of the read if
-		if (((currentLine = reader.readLine()) != null)
-				&& !Extractors.isHeaderLine(currentLine)) {
-			reader.reset();
+	}
+
+
+	/**
+	 * @return the next line of the file, null if the end of the file has been reached
+	 * @throws IOException
+	 */
+	private DataLine nextLine() throws IOException {
+		if (pendingLine != null) {
+			DataLine line = pendingLine;
+			pendingLine = null;
+			return line;
 		}
+		return reader.readLine();
 	}
 
 
-	@Override
-	public boolean readItem() throws IOException {
+	/**
+	 * Extracts the lines of the file until an item is extracted
+	 * @return true if an item was extracted, false if the extraction is done
+	 * @throws IOException
+	 */
+	private boolean readNextItem() throws IOException {
 		// case where the extraction was stopped
 		if (isStopped()) {
 			finalizeExtraction();
@@ -213,11 +383,10 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 			initializeExtraction();
 		}
 
-		String currentLine = null;
+		DataLine currentLine = null;
 		int extractionStatus = LINE_SKIPPED;
-		while (((currentLine = reader.readLine()) != null) && (extractionStatus != EXTRACTION_DONE)) {
+		while ((extractionStatus != EXTRACTION_DONE) && ((currentLine = nextLine()) != null)) {
 			currentLineNumber++;
-			currentLine = currentLine.trim();
 			if (!currentLine.isEmpty()) {
 				// we extract a line if either way:
 				// 1. the whole file needs to be extracted (ie: the randomLineNumbers variable is not set)
@@ -227,10 +396,13 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 					try {
 						extractionStatus = extractDataLine(currentLine);
 					} catch (DataLineException e) {
-						notifyDataEventListeners(e, currentLineNumber, currentLine);
+						notifyDataEventListeners(e, currentLineNumber, currentLine.toString());
 						lineSkipped++;
 					}
 					switch (extractionStatus) {
+					case EXTRACTION_DONE:
+						isExtractionDone = true;
+						break;
 					case LINE_EXTRACTED:
 						lineExtracted++;
 						break;
@@ -251,6 +423,21 @@ public abstract class TextFileExtractor extends Extractor implements Stoppable,
 	}
 
 
+	@Override
+	public boolean readItem() throws IOException {
+		try {
+			return readNextItem();
+		} catch (IOException e) {
+			// the file is not read anymore
+			close();
+			throw e;
+		} catch (RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+
 	/**
 	 * @return the name of the data.  The name of the data is
 	 */
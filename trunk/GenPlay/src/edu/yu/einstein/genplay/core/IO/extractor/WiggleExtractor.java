@@ -26,6 +26,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
+import edu.yu.einstein.genplay.core.IO.utils.DataLine;
 import edu.yu.einstein.genplay.core.IO.utils.DataLineValidator;
 import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
@@ -64,33 +65,32 @@ public final class WiggleExtractor extends TextFileExtractor implements SCWReade
 
 
 	@Override
-	protected int extractDataLine(String line) throws DataLineException {
+	protected int extractDataLine(DataLine line) throws DataLineException {
 		start = null;
 		stop = null;
 		score = null;
-		String[] splittedLine = Extractors.parseLineTabAndSpace(line);
+		int fieldCount = line.splitTabAndSpace();
 		int i = 0;
-		while (i < splittedLine.length) {
-			String currentField = splittedLine[i].trim();
-			if (currentField.equalsIgnoreCase("variableStep")) {
+		while (i < fieldCount) {
+			if (line.fieldEqualsIgnoreCase(i, "variableStep")) {
 				// a variableStep must at least contain 2 elements
-				if (splittedLine.length < 2) {
+				if (fieldCount < 2) {
 					throw new DataLineException(DataLineException.INVALID_PARAMETER_NUMBER);
 				} else {
 					isFixedStep = false;
 					currentSpan = 1;
 				}
-			} else if (currentField.equalsIgnoreCase("fixedStep")) {
+			} else if (line.fieldEqualsIgnoreCase(i, "fixedStep")) {
 				// a fixedStep must at least contain 4 elements
-				if (splittedLine.length < 4) {
+				if (fieldCount < 4) {
 					throw new DataLineException(DataLineException.INVALID_PARAMETER_NUMBER);
 				} else {
 					isFixedStep = true;
 					currentSpan = 1;
 				}
-			} else if ((currentField.length() > 6) && (currentField.substring(0, 6).equalsIgnoreCase("chrom="))) {
+			} else if ((line.getFieldLength(i) > 6) && line.fieldStartsWithIgnoreCase(i, "chrom=")) {
 				// retrieve chromosome
-				String chromosomeName = splittedLine[i].trim().substring(6).trim();
+				String chromosomeName = line.getString(i).substring(6).trim();
 				if (getChromosomeSelector() != null) {
 					// case where last chromosome already extracted, no more data to extract
 					if (getChromosomeSelector().isExtractionDone(chromosomeName)) {
@@ -108,24 +108,24 @@ public final class WiggleExtractor extends TextFileExtractor implements SCWReade
 					// unknown chromosome
 					return LINE_SKIPPED;
 				}
-			} else if ((currentField.length() > 6) && (currentField.substring(0, 6).equalsIgnoreCase("start="))) {
+			} else if ((line.getFieldLength(i) > 6) && line.fieldStartsWithIgnoreCase(i, "start=")) {
 				// retrieve start position
-				String posStr = splittedLine[i].trim().substring(6);
+				String posStr = line.getString(i).substring(6);
 				currentPosition = Extractors.getInt(posStr);
-			} else if ((currentField.length() > 5) && (currentField.substring(0, 5).equalsIgnoreCase("step="))) {
+			} else if ((line.getFieldLength(i) > 5) && line.fieldStartsWithIgnoreCase(i, "step=")) {
 				// retrieve step position
-				String stepStr = splittedLine[i].trim().substring(5);
+				String stepStr = line.getString(i).substring(5);
 				currentStep = Extractors.getInt(stepStr);
-			} else if ((currentField.length() > 5) && (currentField.substring(0, 5).equalsIgnoreCase("span="))) {
+			} else if ((line.getFieldLength(i) > 5) && line.fieldStartsWithIgnoreCase(i, "span=")) {
 				// retrieve span
-				String spanStr = splittedLine[i].trim().substring(5);
+				String spanStr = line.getString(i).substring(5);
 				currentSpan = Extractors.getInt(spanStr);
 			} else {
 				if (chromosome == null) {
 					return LINE_SKIPPED;
 				}
 				if (isFixedStep) {
-					score = Extractors.getFloat(splittedLine[i]);
+					score = line.getFloat(i);
 					if ((score == 0) || !getChromosomeSelector().isSelected(chromosome.getName())) {
 						currentPosition += currentStep;
 						return LINE_SKIPPED;
@@ -134,11 +134,11 @@ public final class WiggleExtractor extends TextFileExtractor implements SCWReade
 					start = currentPosition;
 					stop = currentPosition + currentSpan;
 				} else {
-					if (splittedLine.length < 2) {
+					if (fieldCount < 2) {
 						throw new DataLineException(DataLineException.INVALID_PARAMETER_NUMBER);
 					}
-					currentPosition = Extractors.getInt(splittedLine[i].trim());
-					float score = Extractors.getFloat(splittedLine[i + 1]);
+					currentPosition = line.getInt(i);
+					float score = line.getFloat(i + 1);
 					i++;
 					if ((score == 0) || !getChromosomeSelector().isSelected(chromosome.getName())) {
 						return LINE_SKIPPED;
@@ -158,7 +158,7 @@ public final class WiggleExtractor extends TextFileExtractor implements SCWReade
 				if (!stopEndErrorMessage.isEmpty()) {
 					DataLineException stopEndException = new DataLineException(stopEndErrorMessage, DataLineException.SHRINK_STOP_PROCESS);
 					// notify the listeners that the stop position needed to be shrunk
-					notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line);
+					notifyDataEventListeners(stopEndException, getCurrentLineNumber(), line.toString());
 					stop = chromosome.getLength();
 				}
 
@@ -0,0 +1,981 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.IO.fileSorter;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
+import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
+import edu.yu.einstein.genplay.core.IO.utils.Extractors;
+import edu.yu.einstein.genplay.core.manager.application.ConfigurationManager;
+import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
+import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.enums.Strand;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressEventsGenerator;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressListener;
+import edu.yu.einstein.genplay.gui.statusBar.Stoppable;
+import edu.yu.einstein.genplay.util.DaemonThreadFactory;
+import edu.yu.einstein.genplay.util.Utils;
+
+
+/**
+ * {@link SCWReader} that returns the items of another {@link SCWReader} sorted by chromosome and start position.<br>
+ * The items are parsed only once by the wrapped reader and stored as compact binary records.
+ * The records are accumulated in runs that fit in the memory budget.  Each run is sorted and written in
+ * a temporary binary file by a worker thread while the next run is read.  When all the items fit in a
+ * single run, the run is kept in memory and no file is written.  Otherwise the runs are merged by the worker
+ * threads: each chromosome is merged separately from the sections of the runs containing this chromosome.<br>
+ * The items of a chromosome are returned sorted by start position (items with the same start are returned in the
+ * order of the wrapped reader) but the items of different chromosomes can be interleaved.<br>
+ * This reader replaces the sort of the text file by {@link ExternalSortAdapter} when the file is only sorted to be loaded.<br>
+ * The sorter must be closed when its items are not read until the end.
+ * @author Julien Lajugie
+ */
+public class ExternalSCWSorter implements SCWReader, StrandReader, Stoppable, OperationProgressEventsGenerator, Closeable {
+
+	/**
+	 * Records accumulated in memory
+	 * @author Julien Lajugie
+	 */
+	private static class Run {
+
+		/** Maximum number of records of the run */
+		private final int capacity;
+
+		/** Indexes of the chromosomes of the records */
+		private int[] chromosomeIndexes;
+
+		/** Start positions of the records */
+		private int[] starts;
+
+		/** Stop positions of the records */
+		private int[] stops;
+
+		/** Scores of the records */
+		private float[] scores;
+
+		/** Strands of the records (see {@link ExternalSCWSorter#encodeStrand(Strand)}), null if the records have no strand */
+		private byte[] strands;
+
+		/** Number of records in the run */
+		private int size = 0;
+
+		/** Indexes of the records sorted by chromosome and start position, null until the run is sorted */
+		private int[] order = null;
+
+		/** Index in {@link #order} of the first record of each chromosome, the last element is the size of the run */
+		private int[] chromosomeBounds = null;
+
+
+		/**
+		 * Creates an instance of {@link Run}
+		 * @param capacity maximum number of records of the run
+		 * @param hasStrands true if the strands of the records need to be stored
+		 */
+		private Run(int capacity, boolean hasStrands) {
+			this.capacity = capacity;
+			int initialCapacity = Math.min(capacity, INITIAL_RUN_CAPACITY);
+			chromosomeIndexes = new int[initialCapacity];
+			starts = new int[initialCapacity];
+			stops = new int[initialCapacity];
+			scores = new float[initialCapacity];
+			if (hasStrands) {
+				strands = new byte[initialCapacity];
+			}
+		}
+
+
+		/**
+		 * Adds a record to the run
+		 * @param chromosomeIndex index of the chromosome of the record
+		 * @param start start position of the record
+		 * @param stop stop position of the record
+		 * @param score score of the record
+		 * @param strand strand of the record
+		 */
+		private void add(int chromosomeIndex, int start, int stop, float score, byte strand) {
+			if (size == starts.length) {
+				int newCapacity = (int) Math.min(capacity, size * 2l);
+				chromosomeIndexes = Arrays.copyOf(chromosomeIndexes, newCapacity);
+				starts = Arrays.copyOf(starts, newCapacity);
+				stops = Arrays.copyOf(stops, newCapacity);
+				scores = Arrays.copyOf(scores, newCapacity);
+				if (strands != null) {
+					strands = Arrays.copyOf(strands, newCapacity);
+				}
+			}
+			chromosomeIndexes[size] = chromosomeIndex;
+			starts[size] = start;
+			stops[size] = stop;
+			scores[size] = score;
+			if (strands != null) {
+				strands[size] = strand;
+			}
+			size++;
+		}
+
+
+		/**
+		 * @return true if the run cannot receive more records
+		 */
+		private boolean isFull() {
+			return size >= capacity;
+		}
+
+
+		/**
+		 * Sorts the records by chromosome and then by start position.
+		 * The records are bucketed by chromosome and the start positions of each chromosome are sorted
+		 * as primitive keys containing the start position in the high bits and the record index in the low bits.
+		 * @param chromosomeCount number of chromosomes of the project
+		 */
+		private void sort(int chromosomeCount) {
+			chromosomeBounds = new int[chromosomeCount + 1];
+			for (int i = 0; i < size; i++) {
+				chromosomeBounds[chromosomeIndexes[i] + 1]++;
+			}
+			for (int i = 0; i < chromosomeCount; i++) {
+				chromosomeBounds[i + 1] += chromosomeBounds[i];
+			}
+			int[] nextIndexes = Arrays.copyOf(chromosomeBounds, chromosomeCount);
+			long[] keys = new long[size];
+			for (int i = 0; i < size; i++) {
+				keys[nextIndexes[chromosomeIndexes[i]]++] = ((long) starts[i] << 32) | i;
+			}
+			for (int i = 0; i < chromosomeCount; i++) {
+				Arrays.sort(keys, chromosomeBounds[i], chromosomeBounds[i + 1]);
+			}
+			order = new int[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = (int) keys[i];
+			}
+			chromosomeIndexes = null;
+		}
+
+
+		/**
+		 * Sorts the run and writes it in a temporary file
+		 * @param chromosomeCount number of chromosomes of the project
+		 * @param tmpDirectory directory of the temporary file
+		 * @return the {@link RunFile} containing the sorted records
+		 * @throws IOException
+		 */
+		private RunFile sortAndSave(int chromosomeCount, File tmpDirectory) throws IOException {
+			sort(chromosomeCount);
+			int recordSize = strands == null ? RECORD_SIZE : RECORD_SIZE + 1;
+			File file = File.createTempFile("sortedRun", ".tmp", tmpDirectory);
+			file.deleteOnExit();
+			OutputStream outputStream = new FileOutputStream(file);
+			try {
+				byte[] buffer = new byte[(IO_BUFFER_SIZE / recordSize) * recordSize];
+				int position = 0;
+				for (int i = 0; i < size; i++) {
+					int index = order[i];
+					position = writeInt(buffer, position, starts[index]);
+					position = writeInt(buffer, position, stops[index]);
+					position = writeInt(buffer, position, Float.floatToRawIntBits(scores[index]));
+					if (strands != null) {
+						buffer[position++] = strands[index];
+					}
+					if (position == buffer.length) {
+						outputStream.write(buffer, 0, position);
+						position = 0;
+					}
+				}
+				outputStream.write(buffer, 0, position);
+			} finally {
+				outputStream.close();
+			}
+			return new RunFile(file, chromosomeBounds, recordSize);
+		}
+	}
+
+
+	/**
+	 * Sorted run written in a temporary file
+	 * @author Julien Lajugie
+	 */
+	private static class RunFile {
+
+		/** Temporary file containing the records */
+		private final File file;
+
+		/** Index of the first record of each chromosome in the file, the last element is the number of records */
+		private final int[] chromosomeBounds;
+
+		/** Size of a record in bytes */
+		private final int recordSize;
+
+
+		/**
+		 * Creates an instance of {@link RunFile}
+		 * @param file temporary file containing the records
+		 * @param chromosomeBounds index of the first record of each chromosome in the file
+		 * @param recordSize size of a record in bytes
+		 */
+		private RunFile(File file, int[] chromosomeBounds, int recordSize) {
+			this.file = file;
+			this.chromosomeBounds = chromosomeBounds;
+			this.recordSize = recordSize;
+		}
+	}
+
+
+	/**
+	 * Reads the records of a chromosome from a {@link RunFile}
+	 * @author Julien Lajugie
+	 */
+	private static class RunSectionReader {
+
+		/** Stream of the run file */
+		private final InputStream inputStream;
+
+		/** Size of a record in bytes */
+		private final int recordSize;
+
+		/** Buffer containing the records read from the file */
+		private final byte[] buffer;
+
+		/** Number of records of the section that haven't been loaded in the buffer yet */
+		private int recordsToLoad;
+
+		/** Position of the next record in the buffer */
+		private int position = 0;
+
+		/** Number of bytes of the buffer loaded from the file */
+		private int limit = 0;
+
+		/** Start position of the current record */
+		private int start;
+
+		/** Stop position of the current record */
+		private int stop;
+
+		/** Score of the current record */
+		private float score;
+
+		/** Strand of the current record */
+		private byte strand;
+
+
+		/**
+		 * Creates an instance of {@link RunSectionReader}
+		 * @param runFile a {@link RunFile}
+		 * @param chromosomeIndex index of the chromosome to read
+		 * @throws IOException
+		 */
+		private RunSectionReader(RunFile runFile, int chromosomeIndex) throws IOException {
+			recordSize = runFile.recordSize;
+			recordsToLoad = runFile.chromosomeBounds[chromosomeIndex + 1] - runFile.chromosomeBounds[chromosomeIndex];
+			buffer = new byte[(MERGE_BUFFER_SIZE / recordSize) * recordSize];
+			FileInputStream fileInputStream = new FileInputStream(runFile.file);
+			fileInputStream.getChannel().position((long) runFile.chromosomeBounds[chromosomeIndex] * recordSize);
+			inputStream = fileInputStream;
+		}
+
+
+		/**
+		 * Closes the file
+		 * @throws IOException
+		 */
+		private void close() throws IOException {
+			inputStream.close();
+		}
+
+
+		/**
+		 * Reads the next record of the section
+		 * @return true if a record was read, false if all the records of the section have been read
+		 * @throws IOException
+		 */
+		private boolean next() throws IOException {
+			if (position == limit) {
+				if (recordsToLoad == 0) {
+					return false;
+				}
+				int recordCount = Math.min(recordsToLoad, buffer.length / recordSize);
+				limit = recordCount * recordSize;
+				position = 0;
+				int byteRead = 0;
+				while (byteRead < limit) {
+					int read = inputStream.read(buffer, byteRead, limit - byteRead);
+					if (read == -1) {
+						throw new EOFException("Truncated sorted run file");
+					}
+					byteRead += read;
+				}
+				recordsToLoad -= recordCount;
+			}
+			start = readInt(buffer, position);
+			stop = readInt(buffer, position + 4);
+			score = Float.intBitsToFloat(readInt(buffer, position + 8));
+			strand = recordSize > RECORD_SIZE ? buffer[position + RECORD_SIZE] : 0;
+			position += recordSize;
+			return true;
+		}
+	}
+
+
+	/**
+	 * Batch of sorted records of a chromosome ready to be retrieved
+	 * @author Julien Lajugie
+	 */
+	private static class SortedBatch {
+
+		/** Chromosome of the records */
+		private final Chromosome chromosome;
+
+		/** Start positions of the records */
+		private final int[] starts = new int[BATCH_SIZE];
+
+		/** Stop positions of the records */
+		private final int[] stops = new int[BATCH_SIZE];
+
+		/** Scores of the records */
+		private final float[] scores = new float[BATCH_SIZE];
+
+		/** Strands of the records */
+		private final byte[] strands = new byte[BATCH_SIZE];
+
+		/** Number of records in the batch */
+		private int size = 0;
+
+		/** Exception that stopped the merge of the chromosome, null if none */
+		private Throwable mergeException = null;
+
+		/** True if the batch is the last batch of its chromosome */
+		private boolean isLastBatch = false;
+
+
+		/**
+		 * Creates an instance of {@link SortedBatch}
+		 * @param chromosome chromosome of the records
+		 */
+		private SortedBatch(Chromosome chromosome) {
+			this.chromosome = chromosome;
+		}
+	}
+
+
+	/** Estimated memory used by a record while a run is filled and sorted (in bytes) */
+	private static final int RECORD_MEMORY_SIZE = 32;
+
+	/** Minimum number of records of a run */
+	private static final int MIN_RUN_CAPACITY = 1 << 16;
+
+	/** Initial capacity of the runs */
+	private static final int INITIAL_RUN_CAPACITY = 1 << 12;
+
+	/** Size of a record without strand in the run files (start, stop and score) */
+	private static final int RECORD_SIZE = 12;
+
+	/** Size of the buffer used to write the run files */
+	private static final int IO_BUFFER_SIZE = 1 << 16;
+
+	/** Size of the buffer of each run read during a merge */
+	private static final int MERGE_BUFFER_SIZE = 1 << 15;
+
+	/** Number of records in the batches generated by the merges */
+	private static final int BATCH_SIZE = 1 << 14;
+
+	/** Number of batches waiting to be retrieved per worker thread */
+	private static final int BATCHES_PER_THREAD = 4;
+
+	/** Time a merge waits for room in the queue of the batches before checking if the sort was finalized (in ms) */
+	private static final long BATCH_OFFER_TIMEOUT = 100;
+
+
+	/**
+	 * @param strand a {@link Strand}
+	 * @return the byte stored in the records for the specified strand
+	 */
+	private static byte encodeStrand(Strand strand) {
+		if (strand == Strand.FIVE) {
+			return 1;
+		} else if (strand == Strand.THREE) {
+			return 2;
+		} else {
+			return 0;
+		}
+	}
+
+
+	/**
+	 * @param strand a byte stored in the records
+	 * @return the {@link Strand} corresponding to the specified byte
+	 */
+	private static Strand decodeStrand(byte strand) {
+		if (strand == 1) {
+			return Strand.FIVE;
+		} else if (strand == 2) {
+			return Strand.THREE;
+		} else {
+			return null;
+		}
+	}
+
+
+	/**
+	 * @param buffer a buffer
+	 * @param position position of the integer in the buffer
+	 * @return the big-endian integer at the specified position
+	 */
+	private static int readInt(byte[] buffer, int position) {
+		return ((buffer[position] & 0xff) << 24)
+				| ((buffer[position + 1] & 0xff) << 16)
+				| ((buffer[position + 2] & 0xff) << 8)
+				| (buffer[position + 3] & 0xff);
+	}
+
+
+	/**
+	 * Writes a big-endian integer in a buffer
+	 * @param buffer a buffer
+	 * @param position position of the integer in the buffer
+	 * @param value value to write
+	 * @return the position after the integer
+	 */
+	private static int writeInt(byte[] buffer, int position, int value) {
+		buffer[position] = (byte) (value >>> 24);
+		buffer[position + 1] = (byte) (value >>> 16);
+		buffer[position + 2] = (byte) (value >>> 8);
+		buffer[position + 3] = (byte) value;
+		return position + 4;
+	}
+
+
+	private final SCWReader 				reader;					// wrapped reader
+	private final long						memoryBudget;			// memory budget of the sort in bytes
+	private final int						threadCount;			// number of worker threads
+	private final File						tmpDirectory;			// directory of the run files
+	private final ProjectChromosomes		projectChromosomes;		// chromosomes of the project
+	private final List<RunFile>				runFiles;				// sorted runs written on the disk
+	private ExecutorService					executor = null;		// executor of the worker threads
+	private boolean							isSorted = false;		// true when the runs have been sorted
+	private volatile boolean				isFinalized = false;	// true when all the items have been read or when the sort is closed
+	private volatile boolean				isStopped = false;		// true if the sort was stopped
+	private Run								memoryRun = null;		// sorted run kept in memory when all the items fit in one run
+	private int								memoryRunIndex = -1;	// index in the sorted order of the current item of the memory run
+	private int								memoryRunChromosomeIndex = -1;	// index of the chromosome of the current item of the memory run
+	private Chromosome						memoryRunChromosome = null;		// chromosome of the current item of the memory run
+	private BlockingQueue<SortedBatch>		readyBatches = null;	// batches generated by the merges
+	private int								runningMergeCount = 0;	// number of merges that didn't send their last batch
+	private SortedBatch						currentBatch = null;	// batch containing the current item when the runs are merged
+	private int								currentIndex = 0;		// index of the current item in the current batch
+
+
+	/**
+	 * Creates an instance of {@link ExternalSCWSorter} using the sort memory budget of the {@link ConfigurationManager}
+	 * @param reader {@link SCWReader} to sort.  No item must have been read yet
+	 */
+	public ExternalSCWSorter(SCWReader reader) {
+		this(reader, ConfigurationManager.getInstance().getSortMemory() * 1024l * 1024l, Runtime.getRuntime().availableProcessors(), new File(Utils.getTmpDirectoryPath()));
+	}
+
+
+	/**
+	 * Creates an instance of {@link ExternalSCWSorter}
+	 * @param reader {@link SCWReader} to sort.  No item must have been read yet
+	 * @param memoryBudget memory that the runs being filled and sorted can use (in bytes)
+	 * @param threadCount number of worker threads sorting and merging the runs
+	 * @param tmpDirectory directory of the temporary run files
+	 */
+	public ExternalSCWSorter(SCWReader reader, long memoryBudget, int threadCount, File tmpDirectory) {
+		this.reader = reader;
+		this.memoryBudget = memoryBudget;
+		this.threadCount = Math.max(1, threadCount);
+		this.tmpDirectory = tmpDirectory;
+		projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
+		runFiles = new ArrayList<RunFile>();
+	}
+
+
+	@Override
+	public void addOperationProgressListener(OperationProgressListener operationProgressListener) {
+		if (reader instanceof OperationProgressEventsGenerator) {
+			((OperationProgressEventsGenerator) reader).addOperationProgressListener(operationProgressListener);
+		}
+	}
+
+
+	/**
+	 * Stops the worker threads, deletes the run files and closes the wrapped reader.
+	 * Needs to be called when the items are not read until the end
+	 */
+	@Override
+	public void close() {
+		finalizeSort();
+		Extractors.close(reader);
+	}
+
+
+	/**
+	 * Finalizes the sort: stops the worker threads and deletes the run files
+	 */
+	private void finalizeSort() {
+		if (!isFinalized) {
+			isFinalized = true;
+			if (executor != null) {
+				executor.shutdownNow();
+			}
+			memoryRun = null;
+			currentBatch = null;
+			for (RunFile runFile: runFiles) {
+				runFile.file.delete();
+			}
+			runFiles.clear();
+		}
+	}
+
+
+	@Override
+	public Chromosome getChromosome() {
+		if (memoryRun != null) {
+			return memoryRunChromosome;
+		}
+		return currentBatch.chromosome;
+	}
+
+
+	@Override
+	public OperationProgressListener[] getOperationProgressListeners() {
+		if (reader instanceof OperationProgressEventsGenerator) {
+			return ((OperationProgressEventsGenerator) reader).getOperationProgressListeners();
+		}
+		return new OperationProgressListener[0];
+	}
+
+
+	@Override
+	public Float getScore() {
+		if (memoryRun != null) {
+			return memoryRun.scores[memoryRun.order[memoryRunIndex]];
+		}
+		return currentBatch.scores[currentIndex];
+	}
+
+
+	@Override
+	public Integer getStart() {
+		if (memoryRun != null) {
+			return memoryRun.starts[memoryRun.order[memoryRunIndex]];
+		}
+		return currentBatch.starts[currentIndex];
+	}
+
+
+	@Override
+	public Integer getStop() {
+		if (memoryRun != null) {
+			return memoryRun.stops[memoryRun.order[memoryRunIndex]];
+		}
+		return currentBatch.stops[currentIndex];
+	}
+
+
+	@Override
+	public Strand getStrand() {
+		if (memoryRun != null) {
+			if (memoryRun.strands == null) {
+				return null;
+			}
+			return decodeStrand(memoryRun.strands[memoryRun.order[memoryRunIndex]]);
+		}
+		return decodeStrand(currentBatch.strands[currentIndex]);
+	}
+
+
+	/**
+	 * @return true if the sort was stopped
+	 */
+	public boolean isStopped() {
+		return isStopped;
+	}
+
+
+	/**
+	 * Merges the records of a chromosome from all the run files and sends them in batches
+	 * @param chromosomeIndex index of the chromosome to merge
+	 */
+	private void mergeChromosome(int chromosomeIndex) {
+		SortedBatch batch = new SortedBatch(projectChromosomes.get(chromosomeIndex));
+		List<RunSectionReader> sectionReaders = new ArrayList<RunSectionReader>();
+		try {
+			for (RunFile runFile: runFiles) {
+				if (runFile.chromosomeBounds[chromosomeIndex] < runFile.chromosomeBounds[chromosomeIndex + 1]) {
+					RunSectionReader sectionReader = new RunSectionReader(runFile, chromosomeIndex);
+					sectionReaders.add(sectionReader);
+					sectionReader.next();
+				}
+			}
+			// binary min-heap of the section readers ordered by start position and then by run index
+			int heapSize = sectionReaders.size();
+			int[] heap = new int[heapSize];
+			for (int i = 0; i < heapSize; i++) {
+				heap[i] = i;
+			}
+			for (int i = (heapSize / 2) - 1; i >= 0; i--) {
+				siftDown(heap, heapSize, i, sectionReaders);
+			}
+			while ((heapSize > 0) && !isStopped && !isFinalized) {
+				RunSectionReader sectionReader = sectionReaders.get(heap[0]);
+				batch.starts[batch.size] = sectionReader.start;
+				batch.stops[batch.size] = sectionReader.stop;
+				batch.scores[batch.size] = sectionReader.score;
+				batch.strands[batch.size] = sectionReader.strand;
+				batch.size++;
+				if (batch.size == BATCH_SIZE) {
+					if (!sendBatch(batch)) {
+						return;
+					}
+					batch = new SortedBatch(batch.chromosome);
+				}
+				if (!sectionReader.next()) {
+					heapSize--;
+					heap[0] = heap[heapSize];
+				}
+				siftDown(heap, heapSize, 0, sectionReaders);
+			}
+		} catch (InterruptedException e) {
+			// the sort was stopped
+			return;
+		} catch (Throwable t) {
+			batch.mergeException = t;
+		} finally {
+			for (RunSectionReader sectionReader: sectionReaders) {
+				try {
+					sectionReader.close();
+				} catch (IOException e) {
+					// nothing to do, the file is deleted at the end of the sort
+				}
+			}
+		}
+		batch.isLastBatch = true;
+		try {
+			sendBatch(batch);
+		} catch (InterruptedException e) {
+			// the sort was stopped
+		}
+	}
+
+
+	/**
+	 * Retrieves the next batch of records generated by the merges
+	 * @return the next batch of records, null if all the chromosomes have been merged
+	 * @throws IOException
+	 */
+	private SortedBatch nextMergedBatch() throws IOException {
+		if (runningMergeCount == 0) {
+			return null;
+		}
+		SortedBatch batch;
+		try {
+			batch = readyBatches.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		if (batch.isLastBatch) {
+			runningMergeCount--;
+		}
+		if (batch.mergeException != null) {
+			throw toIOException(batch.mergeException);
+		}
+		return batch;
+	}
+
+
+	@Override
+	public boolean readItem() throws IOException {
+		if (isFinalized) {
+			return false;
+		}
+		try {
+			if (!isSorted) {
+				sortRuns();
+			}
+			if (isStopped) {
+				finalizeSort();
+				return false;
+			}
+			if (memoryRun != null) {
+				if ((memoryRunIndex + 1) < memoryRun.size) {
+					memoryRunIndex++;
+					if (memoryRunIndex >= memoryRun.chromosomeBounds[memoryRunChromosomeIndex + 1]) {
+						// skip the chromosomes without items
+						do {
+							memoryRunChromosomeIndex++;
+						} while (memoryRunIndex >= memoryRun.chromosomeBounds[memoryRunChromosomeIndex + 1]);
+						memoryRunChromosome = projectChromosomes.get(memoryRunChromosomeIndex);
+					}
+					return true;
+				}
+			} else {
+				if ((currentBatch != null) && ((currentIndex + 1) < currentBatch.size)) {
+					currentIndex++;
+					return true;
+				}
+				currentIndex = 0;
+				while ((currentBatch = nextMergedBatch()) != null) {
+					if (currentBatch.size > 0) {
+						return true;
+					}
+				}
+			}
+		} catch (IOException e) {
+			finalizeSort();
+			throw e;
+		} catch (RuntimeException e) {
+			finalizeSort();
+			throw e;
+		}
+		finalizeSort();
+		return false;
+	}
+
+
+	@Override
+	public void removeOperationProgressListener(OperationProgressListener operationProgressListener) {
+		if (reader instanceof OperationProgressEventsGenerator) {
+			((OperationProgressEventsGenerator) reader).removeOperationProgressListener(operationProgressListener);
+		}
+	}
+
+
+	/**
+	 * Moves down the specified element of a heap of section readers until the heap is ordered
+	 * @param heap heap containing the indexes of the section readers
+	 * @param heapSize number of elements in the heap
+	 * @param index index in the heap of the element to move
+	 * @param sectionReaders section readers
+	 */
+	private static void siftDown(int[] heap, int heapSize, int index, List<RunSectionReader> sectionReaders) {
+		int element = heap[index];
+		while (true) {
+			int child = (2 * index) + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (((child + 1) < heapSize) && isBefore(heap[child + 1], heap[child], sectionReaders)) {
+				child++;
+			}
+			if (!isBefore(heap[child], element, sectionReaders)) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = element;
+	}
+
+
+	/**
+	 * @param readerIndex1 index of a section reader
+	 * @param readerIndex2 index of another section reader
+	 * @param sectionReaders section readers
+	 * @return true if the current record of the first reader must be returned before the current record of the second reader
+	 */
+	private static boolean isBefore(int readerIndex1, int readerIndex2, List<RunSectionReader> sectionReaders) {
+		int start1 = sectionReaders.get(readerIndex1).start;
+		int start2 = sectionReaders.get(readerIndex2).start;
+		return (start1 < start2) || ((start1 == start2) && (readerIndex1 < readerIndex2));
+	}
+
+
+	/**
+	 * Sends a batch generated by a merge to the reading thread.  Doesn't wait for room in the
+	 * queue of the batches once the sort is finalized since the batches are not read anymore
+	 * @param batch a batch of records
+	 * @return true if the batch was sent, false if the sort was finalized
+	 * @throws InterruptedException
+	 */
+	private boolean sendBatch(SortedBatch batch) throws InterruptedException {
+		while (!isFinalized) {
+			if (readyBatches.offer(batch, BATCH_OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Reads all the items of the wrapped reader and sorts them.
+	 * The full runs are sorted and saved by the worker threads while the next runs are read.
+	 * @throws IOException
+	 */
+	private void sortRuns() throws IOException {
+		isSorted = true;
+		final int chromosomeCount = projectChromosomes.size();
+		long runCapacity = memoryBudget / ((threadCount + 1l) * RECORD_MEMORY_SIZE);
+		runCapacity = Math.max(MIN_RUN_CAPACITY, Math.min(Integer.MAX_VALUE - 8, runCapacity));
+		boolean hasStrands = reader instanceof StrandReader;
+		executor = Executors.newFixedThreadPool(threadCount, new DaemonThreadFactory("SCW Sorter"));
+		LinkedList<Future<RunFile>> pendingRuns = new LinkedList<Future<RunFile>>();
+		Run run = new Run((int) runCapacity, hasStrands);
+		Chromosome lastChromosome = null;
+		int lastChromosomeIndex = -1;
+		try {
+			while (!isStopped && reader.readItem()) {
+				Chromosome chromosome = reader.getChromosome();
+				if (chromosome != lastChromosome) {
+					lastChromosomeIndex = projectChromosomes.getIndex(chromosome);
+					lastChromosome = chromosome;
+				}
+				byte strand = hasStrands ? encodeStrand(((StrandReader) reader).getStrand()) : 0;
+				run.add(lastChromosomeIndex, reader.getStart(), reader.getStop(), reader.getScore(), strand);
+				if (run.isFull()) {
+					// the number of runs in memory is limited by the number of threads
+					if (pendingRuns.size() >= threadCount) {
+						runFiles.add(waitForRun(pendingRuns.removeFirst()));
+					}
+					final Run runToSave = run;
+					pendingRuns.add(executor.submit(new Callable<RunFile>() {
+						@Override
+						public RunFile call() throws Exception {
+							return runToSave.sortAndSave(chromosomeCount, tmpDirectory);
+						}
+					}));
+					run = new Run((int) runCapacity, hasStrands);
+				}
+			}
+			if (pendingRuns.isEmpty() && runFiles.isEmpty()) {
+				// all the items fit in memory
+				run.sort(chromosomeCount);
+				memoryRun = run;
+			} else {
+				// the last run is sorted while the previous runs are being saved
+				RunFile lastRunFile = run.sortAndSave(chromosomeCount, tmpDirectory);
+				try {
+					while (!pendingRuns.isEmpty()) {
+						runFiles.add(waitForRun(pendingRuns.removeFirst()));
+					}
+				} finally {
+					// the last run needs to be merged after the other runs
+					runFiles.add(lastRunFile);
+				}
+				startMerges(chromosomeCount);
+			}
+		} finally {
+			// the runs still being saved when the sort fails are deleted with the other run files
+			while (!pendingRuns.isEmpty()) {
+				try {
+					runFiles.add(pendingRuns.removeFirst().get());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (ExecutionException e) {
+					// the run was not saved
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Starts the merges of the run files: one merge per chromosome
+	 * @param chromosomeCount number of chromosomes of the project
+	 */
+	private void startMerges(int chromosomeCount) {
+		readyBatches = new LinkedBlockingQueue<SortedBatch>(threadCount * BATCHES_PER_THREAD);
+		for (int i = 0; i < chromosomeCount; i++) {
+			boolean hasRecords = false;
+			for (RunFile runFile: runFiles) {
+				hasRecords |= runFile.chromosomeBounds[i] < runFile.chromosomeBounds[i + 1];
+			}
+			if (hasRecords) {
+				final int chromosomeIndex = i;
+				runningMergeCount++;
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						mergeChromosome(chromosomeIndex);
+					}
+				});
+			}
+		}
+	}
+
+
+	@Override
+	public void stop() {
+		isStopped = true;
+		if (reader instanceof Stoppable) {
+			((Stoppable) reader).stop();
+		}
+	}
+
+
+	/**
+	 * @param throwable a {@link Throwable} thrown by a worker thread
+	 * @return an {@link IOException} to throw, or throws the specified throwable if it is a {@link RuntimeException} or an {@link Error}
+	 */
+	private static IOException toIOException(Throwable throwable) {
+		if (throwable instanceof IOException) {
+			return (IOException) throwable;
+		} else if (throwable instanceof RuntimeException) {
+			throw (RuntimeException) throwable;
+		} else if (throwable instanceof Error) {
+			throw (Error) throwable;
+		} else {
+			return new IOException(throwable);
+		}
+	}
+
+
+	/**
+	 * Waits until the specified run has been sorted and saved
+	 * @param pendingRun a run being sorted and saved
+	 * @return the {@link RunFile} containing the run
+	 * @throws IOException
+	 */
+	private RunFile waitForRun(Future<RunFile> pendingRun) throws IOException {
+		try {
+			return pendingRun.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (ExecutionException e) {
+			throw toIOException(e.getCause());
+		}
+	}
+}
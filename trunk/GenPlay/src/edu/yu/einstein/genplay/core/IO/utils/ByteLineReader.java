@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.IO.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Reads the lines of a text stream into a large byte buffer without converting them into {@link String} objects.
+ * <br/>The lines are returned as a {@link DataLine} object that is reused for each line.
+ * Lines can be terminated by a line feed ('\n'), a carriage return ('\r') or a carriage return followed by a line feed.
+ * @author Julien Lajugie
+ */
+public final class ByteLineReader implements Closeable {
+
+	/** Default size of the buffer of the reader */
+	public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+	/** Stream read */
+	private final InputStream inputStream;
+
+	/** Buffer containing the bytes read from the stream */
+	private byte[] buffer;
+
+	/** Index of the first byte of the buffer that has not been returned yet */
+	private int position;
+
+	/** Number of bytes of the buffer that have been read from the stream */
+	private int limit;
+
+	/** Offset in the stream of the first byte of the buffer */
+	private long bufferOffset;
+
+	/** Offset in the stream of the first byte of the last line returned */
+	private long lineOffset;
+
+	/** True when the end of the stream has been reached */
+	private boolean isEndOfStream;
+
+	/** True if the last line was terminated by a carriage return, in which case a following line feed must be skipped */
+	private boolean skipLineFeed;
+
+	/** Line returned by the reader */
+	private final DataLine line;
+
+
+	/**
+	 * Creates an instance of {@link ByteLineReader} with a buffer of {@link #DEFAULT_BUFFER_SIZE} bytes
+	 * @param inputStream stream to read
+	 */
+	public ByteLineReader(InputStream inputStream) {
+		this(inputStream, DEFAULT_BUFFER_SIZE);
+	}
+
+
+	/**
+	 * Creates an instance of {@link ByteLineReader}
+	 * @param inputStream stream to read
+	 * @param bufferSize initial size of the buffer.  The buffer grows if a line is longer than the buffer
+	 */
+	public ByteLineReader(InputStream inputStream, int bufferSize) {
+		this.inputStream = inputStream;
+		buffer = new byte[bufferSize];
+		line = new DataLine();
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		inputStream.close();
+	}
+
+
+	/**
+	 * Moves the bytes that haven't been returned yet at the beginning of the buffer
+	 * and fills the rest of the buffer with bytes from the stream.
+	 * The buffer size is doubled if it is full.
+	 * @throws IOException
+	 */
+	private void fillBuffer() throws IOException {
+		int remaining = limit - position;
+		if (remaining == buffer.length) {
+			byte[] newBuffer = new byte[buffer.length * 2];
+			System.arraycopy(buffer, position, newBuffer, 0, remaining);
+			buffer = newBuffer;
+		} else if (position > 0) {
+			System.arraycopy(buffer, position, buffer, 0, remaining);
+		}
+		bufferOffset += position;
+		position = 0;
+		limit = remaining;
+		int byteRead = inputStream.read(buffer, limit, buffer.length - limit);
+		if (byteRead == -1) {
+			isEndOfStream = true;
+		} else {
+			limit += byteRead;
+		}
+	}
+
+
+	/**
+	 * @return the offset in the stream of the first byte of the last line returned by {@link #readLine()}
+	 */
+	public long getLineOffset() {
+		return lineOffset;
+	}
+
+
+	/**
+	 * Reads the next line of the stream
+	 * @return a {@link DataLine} containing the next line, null if the end of the stream has been reached.
+	 * The returned object is reused by the reader and is only valid until the next call to this method
+	 * @throws IOException
+	 */
+	public DataLine readLine() throws IOException {
+		int searchStart = position;
+		while (true) {
+			if (skipLineFeed && (position < limit)) {
+				skipLineFeed = false;
+				if (buffer[position] == '\n') {
+					position++;
+					searchStart = position;
+				}
+			}
+			for (int i = searchStart; i < limit; i++) {
+				byte currentByte = buffer[i];
+				if ((currentByte == '\n') || (currentByte == '\r')) {
+					line.set(buffer, position, i);
+					lineOffset = bufferOffset + position;
+					position = i + 1;
+					skipLineFeed = currentByte == '\r';
+					return line;
+				}
+			}
+			if (isEndOfStream) {
+				if (position < limit) {
+					// last line of the stream without line terminator
+					line.set(buffer, position, limit);
+					lineOffset = bufferOffset + position;
+					position = limit;
+					return line;
+				}
+				return null;
+			}
+			int alreadySearched = limit - position;
+			fillBuffer();
+			searchStart = alreadySearched;
+		}
+	}
+}
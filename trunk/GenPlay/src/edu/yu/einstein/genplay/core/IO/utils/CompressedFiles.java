@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.IO.utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+import net.sf.samtools.util.BlockCompressedInputStream;
+import edu.yu.einstein.genplay.util.Utils;
+
+
+/**
+ * Tools to read data files that can be compressed with gzip or bgzip.
+ * The compression is detected from the content of the files, not from their extension.
+ * @author Julien Lajugie
+ */
+public class CompressedFiles {
+
+	/** Extensions of the compressed files */
+	public static final String[] COMPRESSION_EXTENSIONS = {"gz", "bgz", "gzip"};
+
+	/** Size of the buffer of the streams reading the files */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+
+	/**
+	 * @param file a {@link File}
+	 * @return the extension of the file (without the dot) ignoring the compression extension.
+	 * Eg: "bed" for "data.bed.gz" or for "data.bed".  Null if none
+	 */
+	public static final String getUncompressedExtension(File file) {
+		String extension = Utils.getExtension(file);
+		if (isCompressionExtension(extension)) {
+			String fileName = file.getName();
+			return Utils.getExtension(new File(fileName.substring(0, fileName.length() - extension.length() - 1)));
+		}
+		return extension;
+	}
+
+
+	/**
+	 * @param file a file
+	 * @return true if the specified file is compressed with gzip or bgzip
+	 * @throws IOException
+	 */
+	public static final boolean isCompressed(File file) throws IOException {
+		InputStream inputStream = new FileInputStream(file);
+		try {
+			return isGzipStream(inputStream);
+		} finally {
+			inputStream.close();
+		}
+	}
+
+
+	/**
+	 * @param extension an extension
+	 * @return true if the specified extension is the extension of a compressed file
+	 */
+	public static final boolean isCompressionExtension(String extension) {
+		if (extension != null) {
+			for (String currentExtension: COMPRESSION_EXTENSIONS) {
+				if (currentExtension.equalsIgnoreCase(extension)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * @param inputStream a stream.  If the stream supports marks it is reset after the test
+	 * @return true if the stream starts with the gzip magic number
+	 * @throws IOException
+	 */
+	private static boolean isGzipStream(InputStream inputStream) throws IOException {
+		if (inputStream.markSupported()) {
+			inputStream.mark(2);
+		}
+		int firstByte = inputStream.read();
+		int secondByte = inputStream.read();
+		if (inputStream.markSupported()) {
+			inputStream.reset();
+		}
+		return (firstByte == 0x1f) && (secondByte == 0x8b);
+	}
+
+
+	/**
+	 * Opens a stream reading the uncompressed content of the specified file.
+	 * The BGZF files are decompressed in parallel when more than one processor is available.
+	 * @param file a file, compressed with gzip or bgzip or not compressed
+	 * @return a stream reading the uncompressed content of the file
+	 * @throws IOException
+	 */
+	public static final InputStream openInputStream(File file) throws IOException {
+		InputStream inputStream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+		try {
+			if (BlockCompressedInputStream.isValidFile(inputStream)) {
+				int threadCount = Runtime.getRuntime().availableProcessors();
+				if (threadCount > 1) {
+					return new ParallelBGZFInputStream(inputStream, threadCount);
+				} else {
+					return new BlockCompressedInputStream(inputStream);
+				}
+			} else if (isGzipStream(inputStream)) {
+				return new GZIPInputStream(inputStream, BUFFER_SIZE);
+			} else {
+				return inputStream;
+			}
+		} catch (IOException e) {
+			inputStream.close();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,515 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.IO.utils;
+
+import edu.yu.einstein.genplay.exception.exceptions.DataLineException;
+
+
+/**
+ * A line of a data file read by a {@link ByteLineReader}.
+ * <br/>The line is not converted into a {@link String}.  The fields of the line are located
+ * directly in the buffer of the reader and the numbers are parsed from the bytes of the fields.
+ * The object is reused by the reader for each line so its content is only valid until the next line is read.
+ * @author Julien Lajugie
+ */
+public final class DataLine {
+
+	/** Largest integer that can be represented exactly by a double */
+	private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+	/** Powers of ten that can be represented exactly by a double */
+	private static final double[] EXACT_DOUBLE_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+	/** Mask of the bits of the significand of a double that are lost when the double is converted into a float */
+	private static final long FLOAT_ROUNDING_MASK = (1L << 29) - 1;
+
+	/** Value of the lost bits of a double exactly halfway between two floats */
+	private static final long FLOAT_HALFWAY_BITS = 1L << 28;
+
+	/** Default number of fields that can be stored without resizing the field arrays */
+	private static final int DEFAULT_FIELD_CAPACITY = 16;
+
+	/** Buffer containing the line */
+	private byte[] buffer;
+
+	/** Index of the first byte of the line in the buffer */
+	private int lineStart;
+
+	/** Index of the byte following the last byte of the line in the buffer */
+	private int lineStop;
+
+	/** Index of the first byte of each field in the buffer */
+	private int[] fieldStarts;
+
+	/** Index of the byte following the last byte of each field in the buffer */
+	private int[] fieldStops;
+
+	/** Number of fields of the line, -1 if the line has not been split yet */
+	private int fieldCount;
+
+
+	/**
+	 * Creates an instance of {@link DataLine}
+	 */
+	DataLine() {
+		fieldStarts = new int[DEFAULT_FIELD_CAPACITY];
+		fieldStops = new int[DEFAULT_FIELD_CAPACITY];
+	}
+
+
+	/**
+	 * Creates an instance of {@link DataLine} containing the specified string
+	 * @param line a line
+	 */
+	public DataLine(String line) {
+		this();
+		byte[] bytes = line.getBytes();
+		set(bytes, 0, bytes.length);
+	}
+
+
+	/**
+	 * Adds a field to the list of fields of the line
+	 * @param start index of the first byte of the field
+	 * @param stop index of the byte following the last byte of the field
+	 */
+	private void addField(int start, int stop) {
+		// remove the spaces at the extremities of the field
+		while ((start < stop) && (buffer[start] <= ' ')) {
+			start++;
+		}
+		while ((stop > start) && (buffer[stop - 1] <= ' ')) {
+			stop--;
+		}
+		if (fieldCount == fieldStarts.length) {
+			int[] newFieldStarts = new int[fieldCount * 2];
+			int[] newFieldStops = new int[fieldCount * 2];
+			System.arraycopy(fieldStarts, 0, newFieldStarts, 0, fieldCount);
+			System.arraycopy(fieldStops, 0, newFieldStops, 0, fieldCount);
+			fieldStarts = newFieldStarts;
+			fieldStops = newFieldStops;
+		}
+		fieldStarts[fieldCount] = start;
+		fieldStops[fieldCount] = stop;
+		fieldCount++;
+	}
+
+
+	/**
+	 * @param field index of a field
+	 * @throws IndexOutOfBoundsException if the line has not been split or if the field doesn't exist
+	 */
+	private void checkField(int field) {
+		if ((field < 0) || (field >= fieldCount)) {
+			throw new IndexOutOfBoundsException("Field: " + field + ", Field count: " + fieldCount);
+		}
+	}
+
+
+	/**
+	 * @param field index of a field
+	 * @param string a string
+	 * @return true if the field is equal to the specified string
+	 */
+	public boolean fieldEquals(int field, String string) {
+		checkField(field);
+		return regionEquals(fieldStarts[field], fieldStops[field], string, false, false);
+	}
+
+
+	/**
+	 * @param field index of a field
+	 * @param string a string
+	 * @return true if the field is equal to the specified string, ignoring case
+	 */
+	public boolean fieldEqualsIgnoreCase(int field, String string) {
+		checkField(field);
+		return regionEquals(fieldStarts[field], fieldStops[field], string, true, false);
+	}
+
+
+	/**
+	 * @param field index of a field
+	 * @param prefix a prefix
+	 * @return true if the field starts with the specified prefix, ignoring case
+	 */
+	public boolean fieldStartsWithIgnoreCase(int field, String prefix) {
+		checkField(field);
+		return regionEquals(fieldStarts[field], fieldStops[field], prefix, true, true);
+	}
+
+
+	/**
+	 * @param field index of a field
+	 * @param index index of a character in the field
+	 * @return the character at the specified index of the field
+	 */
+	public char getChar(int field, int index) {
+		checkField(field);
+		if ((index < 0) || (index >= getFieldLength(field))) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Field length: " + getFieldLength(field));
+		}
+		return (char) (buffer[fieldStarts[field] + index] & 0xFF);
+	}
+
+
+	/**
+	 * @return the number of fields of the line.  The line needs to be split first.
+	 * @see #splitTabOnly()
+	 * @see #splitTabAndSpace()
+	 */
+	public int getFieldCount() {
+		return fieldCount;
+	}
+
+
+	/**
+	 * @param field index of a field
+	 * @return the number of characters of the field
+	 */
+	public int getFieldLength(int field) {
+		checkField(field);
+		return fieldStops[field] - fieldStarts[field];
+	}
+
+
+	/**
+	 * Parses a field as a float
+	 * @param field index of a field
+	 * @return the float value of the field
+	 * @throws DataLineException if the field is not a valid number
+	 */
+	public float getFloat(int field) throws DataLineException {
+		checkField(field);
+		float result = parseFloat(fieldStarts[field], fieldStops[field]);
+		if (Float.isNaN(result)) {
+			// the field is not a simple decimal number (eg: NaN, Infinity, too many digits)
+			return Extractors.getFloat(getString(field));
+		}
+		return result;
+	}
+
+
+	/**
+	 * Parses a field as a float
+	 * @param field index of a field
+	 * @param alternative the value to return if the field is not a valid number (can be null)
+	 * @return the float value of the field if the field is valid, the alternative otherwise
+	 */
+	public Float getFloat(int field, Float alternative) {
+		checkField(field);
+		float result = parseFloat(fieldStarts[field], fieldStops[field]);
+		if (Float.isNaN(result)) {
+			return Extractors.getFloat(getString(field), alternative);
+		}
+		return result;
+	}
+
+
+	/**
+	 * Parses a field as an integer
+	 * @param field index of a field
+	 * @return the integer value of the field
+	 * @throws DataLineException if the field is not a valid integer
+	 */
+	public int getInt(int field) throws DataLineException {
+		checkField(field);
+		long result = parseInt(fieldStarts[field], fieldStops[field]);
+		if (result == Long.MIN_VALUE) {
+			return Extractors.getInt(getString(field));
+		}
+		return (int) result;
+	}
+
+
+	/**
+	 * Parses a field as an integer
+	 * @param field index of a field
+	 * @param alternative the value to return if the field is not a valid integer (can be null)
+	 * @return the integer value of the field if the field is valid, the alternative otherwise
+	 */
+	public Integer getInt(int field, Integer alternative) {
+		checkField(field);
+		long result = parseInt(fieldStarts[field], fieldStops[field]);
+		if (result == Long.MIN_VALUE) {
+			return Extractors.getInt(getString(field), alternative);
+		}
+		return (int) result;
+	}
+
+
+	/**
+	 * @param field index of a field
+	 * @return the field as a {@link String}
+	 */
+	public String getString(int field) {
+		checkField(field);
+		return new String(buffer, fieldStarts[field], getFieldLength(field));
+	}
+
+
+	/**
+	 * Returns the field as a {@link String}.  If the field is equal to the specified previous value
+	 * the previous value is returned and no new string is created.
+	 * This is useful for the fields that are often repeated on consecutive lines (eg: chromosome names)
+	 * @param field index of a field
+	 * @param previousValue value of the field on a previous line (can be null)
+	 * @return the field as a {@link String}
+	 */
+	public String getString(int field, String previousValue) {
+		if ((previousValue != null) && fieldEquals(field, previousValue)) {
+			return previousValue;
+		}
+		return getString(field);
+	}
+
+
+	/**
+	 * @return true if the line is empty
+	 */
+	public boolean isEmpty() {
+		return lineStop == lineStart;
+	}
+
+
+	/**
+	 * @return the number of characters of the line
+	 */
+	public int length() {
+		return lineStop - lineStart;
+	}
+
+
+	/**
+	 * Parses a decimal number made of an optional sign, digits, an optional decimal point and an optional exponent.
+	 * The number is computed with one double operation, which is correctly rounded when both the digits
+	 * and the power of ten are exact doubles.  The double is then rounded to a float, which gives the
+	 * correctly rounded float unless the double falls exactly halfway between two floats.
+	 * The numbers that don't fit these conditions are not parsed
+	 * @param start index of the first byte of the number
+	 * @param stop index of the byte following the last byte of the number
+	 * @return the parsed number, NaN if the number could not be parsed
+	 */
+	private float parseFloat(int start, int stop) {
+		int i = start;
+		boolean isNegative = false;
+		if ((i < stop) && ((buffer[i] == '-') || (buffer[i] == '+'))) {
+			isNegative = buffer[i] == '-';
+			i++;
+		}
+		long mantissa = 0;
+		int exponent = 0;
+		int digitCount = 0;
+		while ((i < stop) && (buffer[i] >= '0') && (buffer[i] <= '9')) {
+			if (mantissa > MAX_EXACT_DOUBLE_INTEGER) {
+				return Float.NaN;
+			}
+			mantissa = (mantissa * 10) + (buffer[i] - '0');
+			digitCount++;
+			i++;
+		}
+		if ((i < stop) && (buffer[i] == '.')) {
+			i++;
+			while ((i < stop) && (buffer[i] >= '0') && (buffer[i] <= '9')) {
+				if (mantissa > MAX_EXACT_DOUBLE_INTEGER) {
+					return Float.NaN;
+				}
+				mantissa = (mantissa * 10) + (buffer[i] - '0');
+				exponent--;
+				digitCount++;
+				i++;
+			}
+		}
+		if (digitCount == 0) {
+			return Float.NaN;
+		}
+		if ((i < stop) && ((buffer[i] == 'e') || (buffer[i] == 'E'))) {
+			i++;
+			long explicitExponent = parseInt(i, stop);
+			if ((explicitExponent == Long.MIN_VALUE) || (Math.abs(explicitExponent) > 100)) {
+				return Float.NaN;
+			}
+			exponent += explicitExponent;
+			i = stop;
+		}
+		if ((i != stop) || (mantissa > MAX_EXACT_DOUBLE_INTEGER)) {
+			return Float.NaN;
+		}
+		double result;
+		if (mantissa == 0) {
+			result = 0d;
+		} else if ((exponent >= 0) && (exponent < EXACT_DOUBLE_POWERS_OF_TEN.length)) {
+			result = mantissa * EXACT_DOUBLE_POWERS_OF_TEN[exponent];
+		} else if ((exponent < 0) && (-exponent < EXACT_DOUBLE_POWERS_OF_TEN.length)) {
+			result = mantissa / EXACT_DOUBLE_POWERS_OF_TEN[-exponent];
+		} else {
+			return Float.NaN;
+		}
+		if ((Double.doubleToRawLongBits(result) & FLOAT_ROUNDING_MASK) == FLOAT_HALFWAY_BITS) {
+			// the rounding to a float could be wrong
+			return Float.NaN;
+		}
+		return (float) (isNegative ? -result : result);
+	}
+
+
+	/**
+	 * Parses an integer made of an optional sign and digits
+	 * @param start index of the first byte of the integer
+	 * @param stop index of the byte following the last byte of the integer
+	 * @return the parsed integer, {@link Long#MIN_VALUE} if the integer is not valid or doesn't fit in an int
+	 */
+	private long parseInt(int start, int stop) {
+		int i = start;
+		boolean isNegative = false;
+		if ((i < stop) && ((buffer[i] == '-') || (buffer[i] == '+'))) {
+			isNegative = buffer[i] == '-';
+			i++;
+		}
+		if ((i == stop) || ((stop - i) > 10)) {
+			return Long.MIN_VALUE;
+		}
+		long result = 0;
+		for (; i < stop; i++) {
+			int digit = buffer[i] - '0';
+			if ((digit < 0) || (digit > 9)) {
+				return Long.MIN_VALUE;
+			}
+			result = (result * 10) + digit;
+		}
+		if (isNegative) {
+			result = -result;
+		}
+		if ((result < Integer.MIN_VALUE) || (result > Integer.MAX_VALUE)) {
+			return Long.MIN_VALUE;
+		}
+		return result;
+	}
+
+
+	/**
+	 * @param start index of the first byte of a region of the buffer
+	 * @param stop index of the byte following the last byte of the region
+	 * @param string a string
+	 * @param ignoreCase true to ignore the case of the characters
+	 * @param isPrefix true to test if the string is a prefix of the region, false to test if the region is equal to the string
+	 * @return true if the region is equal to the string (or starts with the string if isPrefix is true)
+	 */
+	private boolean regionEquals(int start, int stop, String string, boolean ignoreCase, boolean isPrefix) {
+		int length = string.length();
+		if ((stop - start) < length) {
+			return false;
+		}
+		if (!isPrefix && ((stop - start) != length)) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c1 = (char) (buffer[start + i] & 0xFF);
+			char c2 = string.charAt(i);
+			if ((c1 != c2) && (!ignoreCase || (Character.toLowerCase(c1) != Character.toLowerCase(c2)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Sets the content of the line.  The spaces at the extremities of the line are removed
+	 * @param buffer buffer containing the line
+	 * @param start index of the first byte of the line in the buffer
+	 * @param stop index of the byte following the last byte of the line in the buffer
+	 */
+	void set(byte[] buffer, int start, int stop) {
+		while ((start < stop) && (buffer[start] <= ' ')) {
+			start++;
+		}
+		while ((stop > start) && (buffer[stop - 1] <= ' ')) {
+			stop--;
+		}
+		this.buffer = buffer;
+		lineStart = start;
+		lineStop = stop;
+		fieldCount = -1;
+	}
+
+
+	/**
+	 * Splits the line into fields separated by one or many continuous spaces or tabs,
+	 * except if the spaces or tabs are inside double quotes.
+	 * Equivalent to {@link Extractors#parseLineTabAndSpace(String)}
+	 * @return the number of fields of the line
+	 */
+	public int splitTabAndSpace() {
+		return split(true);
+	}
+
+
+	/**
+	 * Splits the line into fields separated by one or many continuous tabs,
+	 * except if the tabs are inside double quotes.
+	 * Equivalent to {@link Extractors#parseLineTabOnly(String)}
+	 * @return the number of fields of the line
+	 */
+	public int splitTabOnly() {
+		return split(false);
+	}
+
+
+	/**
+	 * Splits the line into fields
+	 * @param isSpaceSeparator true if the spaces are separators, false if only the tabs are separators
+	 * @return the number of fields of the line
+	 */
+	private int split(boolean isSpaceSeparator) {
+		fieldCount = 0;
+		int i = lineStart;
+		while (i < lineStop) {
+			// skip the separators
+			while ((i < lineStop) && ((buffer[i] == '\t') || (isSpaceSeparator && (buffer[i] == ' ')))) {
+				i++;
+			}
+			if (i < lineStop) {
+				int fieldStart = i;
+				boolean isInsideQuotes = false;
+				while ((i < lineStop) && (isInsideQuotes || ((buffer[i] != '\t') && (!isSpaceSeparator || (buffer[i] != ' '))))) {
+					// loop until we meet a separator that is not between double quotes
+					if (buffer[i] == '"') {
+						isInsideQuotes = !isInsideQuotes;
+					}
+					i++;
+				}
+				addField(fieldStart, i);
+			}
+		}
+		return fieldCount;
+	}
+
+
+	@Override
+	public String toString() {
+		return new String(buffer, lineStart, length());
+	}
+}
@@ -23,14 +23,16 @@
 package edu.yu.einstein.genplay.core.IO.utils;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.TreeSet;
 
+import edu.yu.einstein.genplay.core.IO.dataReader.DataReader;
 import edu.yu.einstein.genplay.exception.ExceptionManager;
 import edu.yu.einstein.genplay.exception.exceptions.DataLineException;
 import edu.yu.einstein.genplay.util.Utils;
@@ -43,15 +45,31 @@ import edu.yu.einstein.genplay.util.Utils;
  */
 public class Extractors {
 
+	/**
+	 * Closes the specified reader if it holds resources that need to be released (eg: worker threads, files).
+	 * Needs to be called in a finally block when a reader may not be read until the end.
+	 * @param reader a {@link DataReader}
+	 */
+	public static final void close(DataReader reader) {
+		if (reader instanceof Closeable) {
+			try {
+				((Closeable) reader).close();
+			} catch (IOException e) {
+				ExceptionManager.getInstance().caughtException(e);
+			}
+		}
+	}
+
+
 	/**
 	 * Counts the number of line containing data in the specified
-	 * @param file a file
+	 * @param file a file, compressed with gzip or bgzip or not compressed
 	 * @return the number of line containing data in the specified file
 	 */
 	public static final Integer countDataLines(File file) {
 		BufferedReader reader = null;
 		try {
-			reader = new BufferedReader(new FileReader(file));
+			reader = new BufferedReader(new InputStreamReader(CompressedFiles.openInputStream(file)));
 			String line = null;
 			int count = 0;
 			while ((line = reader.readLine()) != null) {
@@ -297,7 +315,7 @@ public class Extractors {
 	public static final String retrieveDataName(File dataFile) {
 		BufferedReader reader = null;
 		try {
-			reader = new BufferedReader(new FileReader(dataFile));
+			reader = new BufferedReader(new InputStreamReader(CompressedFiles.openInputStream(dataFile)));
 			boolean isHeader = true;
 			boolean isTrackInfo = false;
 			String line = null;
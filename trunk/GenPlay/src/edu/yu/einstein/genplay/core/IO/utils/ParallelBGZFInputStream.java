@@ -0,0 +1,344 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.IO.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import net.sf.samtools.util.BlockCompressedInputStream;
+import net.sf.samtools.util.BlockCompressedStreamConstants;
+import edu.yu.einstein.genplay.util.DaemonThreadFactory;
+
+
+/**
+ * Stream decompressing a BGZF stream (blocked gzip format used by bgzip, BAM and tabix).<br/>
+ * The BGZF blocks are independent gzip members.  They are read sequentially from the compressed stream
+ * and inflated concurrently by a pool of daemon worker threads shared by all the streams.  The inflated blocks are
+ * returned in the order of the stream.  The number of blocks read ahead is bounded.<br/>
+ * The stream needs to be closed to release its {@link Inflater} objects.<br/>
+ * Use {@link BlockCompressedInputStream} to decompress BGZF streams on a single thread.
+ * @author Julien Lajugie
+ */
+public final class ParallelBGZFInputStream extends InputStream {
+
+	/** Number of blocks inflated or waiting to be read per worker thread */
+	private static final int BLOCKS_PER_THREAD = 4;
+
+	/** Executor of the worker threads, shared by all the streams */
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new DaemonThreadFactory("BGZF Inflater"));
+
+	/** Compressed stream */
+	private final InputStream inputStream;
+
+	/** Inflaters of the stream not used by a worker thread (guarded by itself) */
+	private final LinkedList<Inflater> inflaters;
+
+	/** Blocks being inflated or waiting to be read, in the order of the stream */
+	private final LinkedList<Future<byte[]>> pendingBlocks;
+
+	/** Maximum number of pending blocks */
+	private final int maxPendingBlocks;
+
+	/** Inflated block being read */
+	private byte[] currentBlock;
+
+	/** Index of the next byte to read in the current block */
+	private int position;
+
+	/** True when the last block of the compressed stream has been read */
+	private boolean isEndOfCompressedStream;
+
+	/** True when the stream is closed (guarded by the inflater list) */
+	private boolean isClosed;
+
+
+	/**
+	 * Creates an instance of {@link ParallelBGZFInputStream}
+	 * @param inputStream a BGZF compressed stream
+	 * @param threadCount number of blocks inflated concurrently
+	 */
+	public ParallelBGZFInputStream(InputStream inputStream, int threadCount) {
+		this.inputStream = inputStream;
+		threadCount = Math.max(1, threadCount);
+		inflaters = new LinkedList<Inflater>();
+		pendingBlocks = new LinkedList<Future<byte[]>>();
+		maxPendingBlocks = threadCount * BLOCKS_PER_THREAD;
+		currentBlock = new byte[0];
+		position = 0;
+		isEndOfCompressedStream = false;
+		isClosed = false;
+	}
+
+
+	@Override
+	public int available() throws IOException {
+		return currentBlock.length - position;
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		synchronized (inflaters) {
+			if (isClosed) {
+				return;
+			}
+			isClosed = true;
+			// the inflaters still used by a worker thread are released when the worker is done
+			for (Inflater inflater: inflaters) {
+				inflater.end();
+			}
+			inflaters.clear();
+		}
+		for (Future<byte[]> pendingBlock: pendingBlocks) {
+			pendingBlock.cancel(false);
+		}
+		pendingBlocks.clear();
+		inputStream.close();
+	}
+
+
+	/**
+	 * Inflates the specified BGZF block
+	 * @param compressedBlock a BGZF block
+	 * @return the inflated data of the block
+	 * @throws IOException
+	 */
+	private byte[] inflateBlock(byte[] compressedBlock) throws IOException {
+		int footerOffset = compressedBlock.length - BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH;
+		int uncompressedLength = readInt(compressedBlock, footerOffset + 4);
+		byte[] uncompressedBlock = new byte[uncompressedLength];
+		Inflater inflater = takeInflater();
+		try {
+			inflater.setInput(compressedBlock, BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH, footerOffset - BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH);
+			int inflatedLength = inflater.inflate(uncompressedBlock);
+			if (inflatedLength != uncompressedLength) {
+				throw new IOException("Invalid BGZF block: inflated " + inflatedLength + " bytes instead of " + uncompressedLength);
+			}
+		} catch (DataFormatException e) {
+			throw new IOException(e);
+		} finally {
+			releaseInflater(inflater);
+		}
+		return uncompressedBlock;
+	}
+
+
+	/**
+	 * @return true if the stream is closed
+	 */
+	private boolean isClosed() {
+		synchronized (inflaters) {
+			return isClosed;
+		}
+	}
+
+
+	/**
+	 * Reads the next inflated block
+	 * @return false if the end of the stream has been reached, true otherwise
+	 * @throws IOException
+	 */
+	private boolean nextBlock() throws IOException {
+		while (position == currentBlock.length) {
+			submitBlocks();
+			if (pendingBlocks.isEmpty()) {
+				return false;
+			}
+			try {
+				currentBlock = pendingBlocks.removeFirst().get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw new IOException(e.getCause());
+			}
+			position = 0;
+		}
+		return true;
+	}
+
+
+	@Override
+	public int read() throws IOException {
+		if (isClosed()) {
+			throw new IOException("Stream closed");
+		}
+		if (!nextBlock()) {
+			return -1;
+		}
+		return currentBlock[position++] & 0xff;
+	}
+
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (isClosed()) {
+			throw new IOException("Stream closed");
+		}
+		if (len == 0) {
+			return 0;
+		}
+		if (!nextBlock()) {
+			return -1;
+		}
+		int byteRead = Math.min(len, currentBlock.length - position);
+		System.arraycopy(currentBlock, position, b, off, byteRead);
+		position += byteRead;
+		return byteRead;
+	}
+
+
+	/**
+	 * Reads the next compressed block of the stream
+	 * @return the next BGZF block, null if the end of the stream has been reached
+	 * @throws IOException
+	 */
+	private byte[] readCompressedBlock() throws IOException {
+		byte[] header = new byte[BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH];
+		int headerLength = readFully(header, 0, header.length);
+		if (headerLength == 0) {
+			return null;
+		}
+		if ((headerLength < header.length)
+				|| (header[0] != BlockCompressedStreamConstants.GZIP_ID1)
+				|| ((header[1] & 0xff) != BlockCompressedStreamConstants.GZIP_ID2)
+				|| ((header[3] & BlockCompressedStreamConstants.GZIP_FLG) == 0)
+				|| (header[12] != BlockCompressedStreamConstants.BGZF_ID1)
+				|| (header[13] != BlockCompressedStreamConstants.BGZF_ID2)) {
+			throw new IOException("Invalid BGZF block header");
+		}
+		int blockLength = (readShort(header, BlockCompressedStreamConstants.BLOCK_LENGTH_OFFSET) & 0xffff) + 1;
+		if (blockLength < (BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH + BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH)) {
+			throw new IOException("Invalid BGZF block length: " + blockLength);
+		}
+		byte[] block = new byte[blockLength];
+		System.arraycopy(header, 0, block, 0, header.length);
+		if (readFully(block, header.length, blockLength - header.length) < (blockLength - header.length)) {
+			throw new EOFException("Unexpected end of BGZF stream");
+		}
+		return block;
+	}
+
+
+	/**
+	 * Reads bytes from the compressed stream until the specified number of bytes is read or the end of the stream is reached
+	 * @param b buffer into which the data is read
+	 * @param off start offset in the buffer
+	 * @param len number of bytes to read
+	 * @return the number of bytes read
+	 * @throws IOException
+	 */
+	private int readFully(byte[] b, int off, int len) throws IOException {
+		int totalRead = 0;
+		while (totalRead < len) {
+			int byteRead = inputStream.read(b, off + totalRead, len - totalRead);
+			if (byteRead == -1) {
+				return totalRead;
+			}
+			totalRead += byteRead;
+		}
+		return totalRead;
+	}
+
+
+	/**
+	 * @param b a byte array
+	 * @param offset an offset in the array
+	 * @return the little endian int stored at the specified offset
+	 */
+	private static int readInt(byte[] b, int offset) {
+		return (b[offset] & 0xff) | ((b[offset + 1] & 0xff) << 8) | ((b[offset + 2] & 0xff) << 16) | ((b[offset + 3] & 0xff) << 24);
+	}
+
+
+	/**
+	 * @param b a byte array
+	 * @param offset an offset in the array
+	 * @return the little endian short stored at the specified offset
+	 */
+	private static short readShort(byte[] b, int offset) {
+		return (short) ((b[offset] & 0xff) | ((b[offset + 1] & 0xff) << 8));
+	}
+
+
+	/**
+	 * Returns an inflater to the inflaters of the stream or releases it if the stream is closed
+	 * @param inflater an inflater taken with {@link #takeInflater()}
+	 */
+	private void releaseInflater(Inflater inflater) {
+		synchronized (inflaters) {
+			if (isClosed) {
+				inflater.end();
+			} else {
+				inflater.reset();
+				inflaters.add(inflater);
+			}
+		}
+	}
+
+
+	/**
+	 * Reads compressed blocks and submits them to the worker threads until the maximum number of pending blocks is reached
+	 * @throws IOException
+	 */
+	private void submitBlocks() throws IOException {
+		while (!isEndOfCompressedStream && (pendingBlocks.size() < maxPendingBlocks)) {
+			final byte[] compressedBlock = readCompressedBlock();
+			if (compressedBlock == null) {
+				isEndOfCompressedStream = true;
+			} else {
+				pendingBlocks.add(EXECUTOR.submit(new Callable<byte[]>() {
+					@Override
+					public byte[] call() throws Exception {
+						return inflateBlock(compressedBlock);
+					}
+				}));
+			}
+		}
+	}
+
+
+	/**
+	 * @return an inflater of the stream that is not used by another worker thread
+	 */
+	private Inflater takeInflater() {
+		synchronized (inflaters) {
+			if (!inflaters.isEmpty()) {
+				return inflaters.removeFirst();
+			}
+		}
+		return new Inflater(true);
+	}
+}
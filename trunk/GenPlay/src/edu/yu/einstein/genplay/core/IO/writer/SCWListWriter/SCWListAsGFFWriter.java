@@ -30,6 +30,7 @@ import java.io.IOException;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
 import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCompute;
+import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCursor;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
@@ -81,6 +82,10 @@ public final class SCWListAsGFFWriter extends SCWListWriter implements Stoppable
 			writer.newLine();
 			// print the data
 			for(Chromosome currentChromosome: projectChromosomes) {
+				ShiftCursor shiftCursor = null;
+				if (isMultiGenome) {
+					shiftCursor = ShiftCompute.getCursor(FormattedMultiGenomeName.META_GENOME_NAME, allele, currentChromosome, fullGenomeName);
+				}
 				ListView<ScoredChromosomeWindow> currentList = data.get(currentChromosome);
 				int currentChromosomeSize = currentChromosome.getLength();
 				if (currentList != null) {
@@ -101,8 +106,8 @@ public final class SCWListAsGFFWriter extends SCWListWriter implements Stoppable
 							}
 
 							if (isMultiGenome) {
-								start = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, start, currentChromosome, fullGenomeName);
-								stop = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, stop, currentChromosome, fullGenomeName);
+								start = shiftCursor.getPosition(start);
+								stop = shiftCursor.getPosition(stop);
 							}
 
 							if ((start > -1) && (stop > -1)) {
@@ -30,6 +30,7 @@ import java.io.IOException;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
 import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCompute;
+import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCursor;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
@@ -82,6 +83,10 @@ public final class BinListAsWiggleWriter extends BinListWriter implements Stoppa
 			int binSize = data.getBinSize();
 			// print the data
 			for(Chromosome currentChromosome: projectChromosomes) {
+				ShiftCursor shiftCursor = null;
+				if (isMultiGenome) {
+					shiftCursor = ShiftCompute.getCursor(FormattedMultiGenomeName.META_GENOME_NAME, allele, currentChromosome, fullGenomeName);
+				}
 				if(data.get(currentChromosome) != null) {
 					ListView<ScoredChromosomeWindow> currentList = data.get(currentChromosome);
 					int j = 0;
@@ -92,7 +97,7 @@ public final class BinListAsWiggleWriter extends BinListWriter implements Stoppa
 					while (j < currentList.size()) {
 						int start = currentList.get(j).getStart();
 						if (isMultiGenome) {
-							start = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, start, currentChromosome, fullGenomeName);
+							start = shiftCursor.getPosition(start);
 						}
 
 						if (start > -1) {
@@ -31,6 +31,7 @@ import edu.yu.einstein.genplay.core.IO.writer.Writer;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
 import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCompute;
+import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCursor;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.AlleleType;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
@@ -135,6 +136,10 @@ public class ConcatenateBinListWriter implements Writer, Stoppable {
 				writer.newLine();
 
 				for (Chromosome currentChromosome: ProjectManager.getInstance().getProjectChromosomes()) {
+					ShiftCursor shiftCursor = null;
+					if (isMultiGenome) {
+						shiftCursor = ShiftCompute.getCursor(FormattedMultiGenomeName.META_GENOME_NAME, allele, currentChromosome, fullGenomeName);
+					}
 					int currentChromosomeSize = currentChromosome.getLength();
 					int binCount = (currentChromosomeSize / binSize) + 1;
 					int j = 0;
@@ -146,8 +151,8 @@ public class ConcatenateBinListWriter implements Writer, Stoppable {
 						}
 
 						if (isMultiGenome) {
-							start = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, start, currentChromosome, fullGenomeName);
-							stop = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, stop, currentChromosome, fullGenomeName);
+							start = shiftCursor.getPosition(start);
+							stop = shiftCursor.getPosition(stop);
 						}
 
 						writer.write(currentChromosome + "\t" + start + "\t" + stop);
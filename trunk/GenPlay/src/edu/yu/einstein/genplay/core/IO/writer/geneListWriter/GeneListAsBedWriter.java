@@ -32,6 +32,7 @@ import edu.yu.einstein.genplay.core.IO.utils.TrackLineHeader;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
 import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCompute;
+import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCursor;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.gene.Gene;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.geneList.GeneList;
@@ -224,6 +225,10 @@ public final class GeneListAsBedWriter extends GeneListWriter implements Stoppab
 
 			// print the data
 			for (Chromosome currentChromosome: projectChromosomes) {
+				ShiftCursor shiftCursor = null;
+				if (isMultiGenome) {
+					shiftCursor = ShiftCompute.getCursor(FormattedMultiGenomeName.META_GENOME_NAME, allele, currentChromosome, fullGenomeName);
+				}
 				ListView<Gene> currentList = data.get(currentChromosome);
 				if (currentList != null) {
 					for (Gene currentGene : currentList) {
@@ -239,10 +244,10 @@ public final class GeneListAsBedWriter extends GeneListWriter implements Stoppab
 						int UTR3Bound = currentGene.getUTR3Bound();
 
 						if (isMultiGenome) {
-							start = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, start, currentChromosome, fullGenomeName);
-							stop = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, stop, currentChromosome, fullGenomeName);
-							UTR5Bound = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, UTR5Bound, currentChromosome, fullGenomeName);
-							UTR3Bound = ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, allele, UTR3Bound, currentChromosome, fullGenomeName);
+							start = shiftCursor.getPosition(start);
+							stop = shiftCursor.getPosition(stop);
+							UTR5Bound = shiftCursor.getPosition(UTR5Bound);
+							UTR3Bound = shiftCursor.getPosition(UTR3Bound);
 						}
 						// we subtract 1 because positions in bed files are 0 based and GenPlay positions are 1-based
 						start--;
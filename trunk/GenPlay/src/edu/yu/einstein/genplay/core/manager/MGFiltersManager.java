@@ -25,17 +25,19 @@ package edu.yu.einstein.genplay.core.manager;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFChromosomeColumns;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFColumnKey;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFColumnStore;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFChromosomeScanner;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScanner;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScannerReceiver;
 import edu.yu.einstein.genplay.core.multiGenome.filter.MGFilter;
 import edu.yu.einstein.genplay.core.multiGenome.filter.VCFFilter;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.exception.ExceptionManager;
 import edu.yu.einstein.genplay.gui.MGDisplaySettings.MGDisplaySettings;
 
@@ -44,7 +46,7 @@ import edu.yu.einstein.genplay.gui.MGDisplaySettings.MGDisplaySettings;
  * @author Nicolas Fourel
  * @version 0.1
  */
-public class MGFiltersManager implements VCFScannerReceiver {
+public class MGFiltersManager {
 
 	private static	MGFiltersManager	instance = null;		// unique instance of the singleton
 
@@ -54,8 +56,8 @@ public class MGFiltersManager implements VCFScannerReceiver {
 	private boolean chromosomeHasChanged;
 
 	private Map<VCFFile, List<VCFFilter>> filterMap;
-	private Map<VCFFile, List<VCFLine>> resultMap;
-	private VCFFile processingFile;
+	private Map<VCFFile, VCFChromosomeColumns> resultMap;
+	private Map<VCFFile, VCFColumnStore> columnStoreMap;			// columnar caches of the VCF files used by the filters
 
 
 	/**
@@ -91,7 +93,7 @@ public class MGFiltersManager implements VCFScannerReceiver {
 		filterListToUpdate = null;
 		filterMap = null;
 		resultMap = null;
-		processingFile = null;
+		columnStoreMap = new HashMap<VCFFile, VCFColumnStore>();
 		currentFilterList = MGDisplaySettings.getInstance().getFilterSettings().getAllMGFilters();
 	}
 
@@ -154,22 +156,30 @@ public class MGFiltersManager implements VCFScannerReceiver {
 
 
 	/**
-	 * Retrieves the VCF lines from each VCF files.
+	 * Retrieves the VCF columns from each VCF files.
 	 * It retrieves only the required columns.
+	 * The columns are read from the columnar cache of the VCF files and only the missing ones are scanned.
 	 */
 	public void retrieveDataFromVCF () {
 		if ((filterMap != null) && (filterMap.size() > 0)) {
-			resultMap = new HashMap<VCFFile, List<VCFLine>>();
-			List<String> genomeNames = ProjectManager.getInstance().getMultiGenomeProject().getGenomeNames();
+			resultMap = new HashMap<VCFFile, VCFChromosomeColumns>();
+			Chromosome chromosome = ProjectManager.getInstance().getProjectWindow().getGenomeWindow().getChromosome();
 
 			for (VCFFile vcfFile: filterMap.keySet()) {
-				processingFile = vcfFile;
-				resultMap.put(vcfFile, new ArrayList<VCFLine>());
+				Set<VCFColumnKey> columnKeys = new LinkedHashSet<VCFColumnKey>();
+				for (VCFFilter filter: filterMap.get(vcfFile)) {
+					columnKeys.addAll(filter.getFilter().getColumnKeys());
+				}
+
+				VCFColumnStore columnStore = columnStoreMap.get(vcfFile);
+				if (columnStore == null) {
+					List<String> genomeNames = ProjectManager.getInstance().getMultiGenomeProject().getGenomeNames();
+					columnStore = new VCFColumnStore(vcfFile, genomeNames);
+					columnStoreMap.put(vcfFile, columnStore);
+				}
 
 				try {
-					VCFScanner scanner = new VCFChromosomeScanner(this, vcfFile);
-					scanner.setGenomes(genomeNames);
-					scanner.compute();
+					resultMap.put(vcfFile, columnStore.getColumns(chromosome, columnKeys));
 				} catch (IOException e1) {
 					ExceptionManager.getInstance().caughtException(e1);
 				}
@@ -178,12 +188,6 @@ public class MGFiltersManager implements VCFScannerReceiver {
 	}
 
 
-	@Override
-	public void processLine(VCFLine line) {
-		resultMap.get(processingFile).add(line);
-	}
-
-
 	/**
 	 * @return true if filters must be created, false otherwise
 	 */
@@ -197,9 +201,9 @@ public class MGFiltersManager implements VCFScannerReceiver {
 
 	/**
 	 * @param filter the filter
-	 * @return the result of the query on the VCF file related to the filter
+	 * @return the columns of the VCF file related to the filter
 	 */
-	public List<VCFLine> getResultOfFilter (VCFFilter filter) {
+	public VCFChromosomeColumns getResultOfFilter (VCFFilter filter) {
 		return resultMap.get(filter.getVCFFile());
 	}
 
@@ -22,24 +22,28 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.manager;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.Map;
 
 import edu.yu.einstein.genplay.core.manager.application.ConfigurationManager;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.exception.ExceptionManager;
 
 /**
- * A generic class to provides tool to handle the Undo / Redo / Reset actions
+ * A generic class to provides tool to handle the Undo / Redo / Reset actions.
+ * The objects handled by the manager are immutable so the saved states only keep references to the objects.
+ * Undoing or redoing an action doesn't require to copy the data and the chromosome lists shared by different states are retained only once.
+ * When the memory retained by the history exceeds the undo memory of the {@link ConfigurationManager},
+ * the states the least likely to be restored are written on the disk.
  * @author Julien Lajugie
  * @version 0.1
  * @param <T> type of the object to restore with undo / redo / reset
@@ -50,12 +54,9 @@ public class URRManager<T extends Serializable> implements Serializable {
 	private static final int  SAVED_FORMAT_VERSION_NUMBER = 0;			// saved format version
 	private int 									length; 			// number of action that can be undone / redone
 	private T 										currentObject; 		// current object
-	private T 										initialObjectSaver; // Initial object to restore with the reset action. Used only for the serialization.
-	private transient ByteArrayOutputStream 		initialObject; 		// the initial object in it's compressed form. Transient because a BAOS can't be serialized
-	private transient List<ByteArrayOutputStream> 	undoList; 			// a list of object to restore with the undo action in a compressed form.
-	private transient List<ByteArrayOutputStream> 	redoList; 			// a list of object to restore with the redo action in a compressed form.
-	private List<T> 								undoListSaver; 		// the list of undo in an uncompressed form. Used only for the serialization.
-	private List<T> 								redoListSaver; 		// the list of redo in an uncompressed form. Used only for the serialization.
+	private transient URRState<T>					initialState; 		// the initial state to restore with the reset action
+	private transient LinkedList<URRState<T>> 		undoList; 			// a list of states to restore with the undo action
+	private transient LinkedList<URRState<T>> 		redoList; 			// a list of states to restore with the redo action
 
 
 	/**
@@ -66,8 +67,27 @@ public class URRManager<T extends Serializable> implements Serializable {
 	public URRManager(int length, T initialObject) {
 		this.length = length;
 		this.currentObject = initialObject;
-		this.undoList = new LinkedList<ByteArrayOutputStream>();
-		this.redoList = new LinkedList<ByteArrayOutputStream>();
+		this.undoList = new LinkedList<URRState<T>>();
+		this.redoList = new LinkedList<URRState<T>>();
+	}
+
+
+	/**
+	 * Creates a copy of the specified state.
+	 * States written on the disk are copied in memory.
+	 * @param state a state
+	 * @param copiedStates states already copied.  A state is copied only once so states shared by the initial, undo and redo lists stay shared
+	 * @return a copy of the state
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private URRState<T> copyState(URRState<T> state, Map<URRState<T>, URRState<T>> copiedStates) throws IOException, ClassNotFoundException {
+		URRState<T> copy = copiedStates.get(state);
+		if (copy == null) {
+			copy = new URRState<T>(state.getData());
+			copiedStates.put(state, copy);
+		}
+		return copy;
 	}
 
 
@@ -75,22 +95,29 @@ public class URRManager<T extends Serializable> implements Serializable {
 	 * Delete the initial object
 	 */
 	public void deactivateReset () {
-		setInitialObject(null);
+		setInitialState(null);
 	}
 
 
 	/**
 	 * @return a deep clone of the current object
 	 */
-	@SuppressWarnings("unchecked")
 	public URRManager<T> deepClone() {
 		try {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			ObjectOutputStream oos = new ObjectOutputStream(baos);
-			oos.writeObject(this);
-			ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-			ObjectInputStream ois = new ObjectInputStream(bais);
-			return (URRManager<T>) ois.readObject();
+			// the saved objects are immutable so the clone can share them
+			URRManager<T> clone = new URRManager<T>(length, currentObject);
+			Map<URRState<T>, URRState<T>> copiedStates = new IdentityHashMap<URRState<T>, URRState<T>>();
+			if (initialState != null) {
+				clone.initialState = copyState(initialState, copiedStates);
+			}
+			for (URRState<T> currentState: undoList) {
+				clone.undoList.add(copyState(currentState, copiedStates));
+			}
+			for (URRState<T> currentState: redoList) {
+				clone.redoList.add(copyState(currentState, copiedStates));
+			}
+			clone.enforceMemoryBudget();
+			return clone;
 		} catch (Exception e) {
 			ExceptionManager.getInstance().caughtException(e);
 			return null;
@@ -98,6 +125,46 @@ public class URRManager<T extends Serializable> implements Serializable {
 	}
 
 
+	/**
+	 * Writes on the disk the states that don't fit in the undo memory.
+	 * The states the most likely to be restored (ie: the last undo, the next redo) are kept in memory first
+	 * and the initial state is the first state written on the disk.
+	 * @throws IOException
+	 */
+	private void enforceMemoryBudget() throws IOException {
+		long memoryBudget = ConfigurationManager.getInstance().getUndoMemory() * 1024l * 1024l;
+		// the lists of the current object are not retained by the history
+		Map<ListView<?>, Boolean> countedLists = new IdentityHashMap<ListView<?>, Boolean>();
+		URRState.addChromosomeLists(currentObject, countedLists);
+		List<URRState<T>> states = new ArrayList<URRState<T>>();
+		Iterator<URRState<T>> undoIterator = undoList.descendingIterator();
+		Iterator<URRState<T>> redoIterator = redoList.descendingIterator();
+		while (undoIterator.hasNext() || redoIterator.hasNext()) {
+			if (undoIterator.hasNext()) {
+				states.add(undoIterator.next());
+			}
+			if (redoIterator.hasNext()) {
+				states.add(redoIterator.next());
+			}
+		}
+		if (initialState != null) {
+			states.add(initialState);
+		}
+		long usedMemory = 0;
+		for (URRState<T> currentState: states) {
+			if (currentState.isInMemory()) {
+				long stateMemory = currentState.estimateRetainedMemory(countedLists);
+				if ((usedMemory + stateMemory) > memoryBudget) {
+					currentState.writeOnDisk();
+				} else {
+					usedMemory += stateMemory;
+					currentState.addChromosomeLists(countedLists);
+				}
+			}
+		}
+	}
+
+
 	/**
 	 * @return true if the redo action is available. False otherwise
 	 */
@@ -110,7 +177,7 @@ public class URRManager<T extends Serializable> implements Serializable {
 	 * @return true if the reset action is available. False otherwise
 	 */
 	public boolean isResetable() {
-		return initialObject != null;
+		return initialState != null;
 	}
 
 
@@ -123,7 +190,7 @@ public class URRManager<T extends Serializable> implements Serializable {
 
 
 	/**
-	 * Serializes and zips the undo and the redo lists
+	 * Creates the states of the undo and the redo lists
 	 * after the unserialization of an instance.
 	 * @param in {@link ObjectInputStream}
 	 * @throws IOException
@@ -134,14 +201,13 @@ public class URRManager<T extends Serializable> implements Serializable {
 		in.readInt();
 		length = in.readInt();
 		currentObject = (T) in.readObject();
-		initialObjectSaver = (T) in.readObject();
-		undoListSaver = (List<T>) in.readObject();
-		redoListSaver = (List<T>) in.readObject();
-		undoList = new LinkedList<ByteArrayOutputStream>();
-		redoList = new LinkedList<ByteArrayOutputStream>();
+		T initialObjectSaver = (T) in.readObject();
+		List<T> undoListSaver = (List<T>) in.readObject();
+		List<T> redoListSaver = (List<T>) in.readObject();
+		undoList = new LinkedList<URRState<T>>();
+		redoList = new LinkedList<URRState<T>>();
 		if (initialObjectSaver != null) {
-			setInitialObject(serializeAndZip(initialObjectSaver));
-			initialObjectSaver = null;
+			setInitialState(new URRState<T>(initialObjectSaver));
 		}
 		if (undoListSaver != null) {
 			// if the undo saver list is longer than the authorized count of
@@ -151,9 +217,8 @@ public class URRManager<T extends Serializable> implements Serializable {
 				undoListSaver.remove(0);
 			}
 			for (T currentUndo : undoListSaver) {
-				undoList.add(serializeAndZip(currentUndo));
+				undoList.add(new URRState<T>(currentUndo));
 			}
-			undoListSaver = null;
 		}
 		if (redoListSaver != null) {
 			// if the redo saver list is longer than the authorized count of
@@ -163,10 +228,10 @@ public class URRManager<T extends Serializable> implements Serializable {
 				redoListSaver.remove(0);
 			}
 			for (T currentRedo : redoListSaver) {
-				redoList.add(serializeAndZip(currentRedo));
+				redoList.add(new URRState<T>(currentRedo));
 			}
-			redoListSaver = null;
 		}
+		enforceMemoryBudget();
 	}
 
 
@@ -178,19 +243,19 @@ public class URRManager<T extends Serializable> implements Serializable {
 	 */
 	public T redo() throws IOException, ClassNotFoundException {
 		if (this.isRedoable()) {
-			ByteArrayOutputStream oldBaos = serializeAndZip(currentObject);
-			undoList.add(oldBaos);
-			int lastIndex = redoList.size() - 1;
-			ByteArrayOutputStream newBaos = redoList.get(lastIndex);
-			if (initialObject == null) {
-				setInitialObject(oldBaos);
-			} else if (initialObject.equals(newBaos)) {
-				setInitialObject(null);
+			URRState<T> newState = redoList.getLast();
+			T newObject = newState.getData();
+			URRState<T> oldState = new URRState<T>(currentObject);
+			undoList.add(oldState);
+			redoList.removeLast();
+			if (initialState == null) {
+				setInitialState(oldState);
+			} else if (initialState == newState) {
+				setInitialState(null);
 			}
-			currentObject = unzipAndUnserialize(newBaos);
-			redoList.remove(lastIndex);
-			newBaos.close();
-			oldBaos.close();
+			currentObject = newObject;
+			release(newState);
+			enforceMemoryBudget();
 			return currentObject;
 		} else {
 			return null;
@@ -199,34 +264,26 @@ public class URRManager<T extends Serializable> implements Serializable {
 
 
 	/**
-	 * Restores the original states of the objects
-	 * @return the original states
-	 * @throws IOException
-	 * @throws ClassNotFoundException
+	 * Deletes the specified state if it's not used by the initial, the undo or the redo lists anymore
+	 * @param state a state removed from the history
 	 */
-	public T reset() throws IOException, ClassNotFoundException {
-		set(unzipAndUnserialize(initialObject));
-		setInitialObject(null);
-		return currentObject;
+	private void release(URRState<T> state) {
+		if ((state != null) && (state != initialState) && !undoList.contains(state) && !redoList.contains(state)) {
+			state.delete();
+		}
 	}
 
 
 	/**
-	 * Serializes and then zips the input parameter
-	 * @param inputObject
-	 * @return a serialized and ziped version of the input parameter
+	 * Restores the original states of the objects
+	 * @return the original states
 	 * @throws IOException
+	 * @throws ClassNotFoundException
 	 */
-	private ByteArrayOutputStream serializeAndZip(T inputObject) throws IOException {
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		GZIPOutputStream gz = new GZIPOutputStream(baos);
-		ObjectOutputStream oos = new ObjectOutputStream(gz);
-		oos.writeObject(inputObject);
-		oos.flush();
-		oos.close();
-		gz.flush();
-		gz.close();
-		return baos;
+	public T reset() throws IOException, ClassNotFoundException {
+		set(initialState.getData());
+		setInitialState(null);
+		return currentObject;
 	}
 
 
@@ -236,41 +293,43 @@ public class URRManager<T extends Serializable> implements Serializable {
 	 * @throws IOException
 	 */
 	public void set(T newObject) throws IOException {
-		// FIXME urrmanager.set should be in a separate thread because it freezes the interface after an action performed on a big track
 		if (newObject != null) {
-			ByteArrayOutputStream oldBaos = null;
+			URRState<T> oldState = null;
 			// if it's the first operation
-			if ((initialObject == null) && ConfigurationManager.getInstance().isResetTrack()) {
-				oldBaos = serializeAndZip(currentObject);
-				setInitialObject(oldBaos);
-				oldBaos.close();
+			if ((initialState == null) && ConfigurationManager.getInstance().isResetTrack()) {
+				oldState = new URRState<T>(currentObject);
+				setInitialState(oldState);
 			}
 			// if we accept the undo operation
 			if (length > 0) {
 				// if the undoBinLists is full (ie: more elements than undo count in the config manager)
 				if (undoList.size() >= length) {
-					undoList.remove(0);
+					release(undoList.removeFirst());
 				}
-				if (oldBaos == null) {
-					oldBaos = serializeAndZip(currentObject);
+				if (oldState == null) {
+					oldState = new URRState<T>(currentObject);
 				}
-				undoList.add(oldBaos);
-				oldBaos.close();
+				undoList.add(oldState);
 			}
 			currentObject = newObject;
-			redoList.clear();
+			while (!redoList.isEmpty()) {
+				release(redoList.removeLast());
+			}
+			enforceMemoryBudget();
 		}
 	}
 
 
 	/**
-	 * @param initialObject the initialObject to set
+	 * @param initialState the initial state to set
 	 */
-	private void setInitialObject(ByteArrayOutputStream initialObject) {
-		if (initialObject == null) {
-			this.initialObject = null;
+	private void setInitialState(URRState<T> initialState) {
+		if (initialState == null) {
+			URRState<T> oldInitialState = this.initialState;
+			this.initialState = null;
+			release(oldInitialState);
 		} else if (ConfigurationManager.getInstance().isResetTrack()) {
-			this.initialObject = initialObject;
+			this.initialState = initialState;
 		}
 	}
 
@@ -285,11 +344,11 @@ public class URRManager<T extends Serializable> implements Serializable {
 		}
 		this.length = length;
 		while (undoList.size() > length) {
-			undoList.remove(0);
+			release(undoList.removeFirst());
 		}
 		if (undoList.size() == 0) {
 			while (redoList.size() > length) {
-				redoList.remove(0);
+				release(redoList.removeFirst());
 			}
 		}
 
@@ -304,21 +363,19 @@ public class URRManager<T extends Serializable> implements Serializable {
 	 */
 	public T undo() throws IOException, ClassNotFoundException {
 		if (this.isUndoable()) {
-			ByteArrayOutputStream oldBaos = serializeAndZip(currentObject);
-			redoList.add(oldBaos);
-			// we unserialize the last BinList in of the undo lists and we
-			// remove it from the undo list
-			int lastIndex = undoList.size() - 1;
-			ByteArrayOutputStream newBaos = undoList.get(lastIndex);
-			if (initialObject == null) {
-				setInitialObject(oldBaos);
-			} else if (initialObject.equals(newBaos)) {
-				setInitialObject(null);
+			URRState<T> newState = undoList.getLast();
+			T newObject = newState.getData();
+			URRState<T> oldState = new URRState<T>(currentObject);
+			redoList.add(oldState);
+			undoList.removeLast();
+			if (initialState == null) {
+				setInitialState(oldState);
+			} else if (initialState == newState) {
+				setInitialState(null);
 			}
-			currentObject = unzipAndUnserialize(newBaos);
-			undoList.remove(lastIndex);
-			oldBaos.close();
-			newBaos.close();
+			currentObject = newObject;
+			release(newState);
+			enforceMemoryBudget();
 			return currentObject;
 		} else {
 			return null;
@@ -327,28 +384,9 @@ public class URRManager<T extends Serializable> implements Serializable {
 
 
 	/**
-	 * Unzips and then unserializes a specified ByteArrayOutputStream
-	 * @param baos
-	 * @return an unziped and unserialized representation of the input parameter
-	 * @throws IOException
-	 * @throws ClassNotFoundException
-	 */
-	@SuppressWarnings("unchecked")
-	private T unzipAndUnserialize(ByteArrayOutputStream baos) throws IOException, ClassNotFoundException {
-		ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-		GZIPInputStream gz = new GZIPInputStream(bais);
-		ObjectInputStream ois = new ObjectInputStream(gz);
-		T outputObject = (T) ois.readObject();
-		ois.close();
-		gz.close();
-		return outputObject;
-	}
-
-
-	/**
-	 * Unzips and unserializes the undo and the redo lists so they can
-	 * be serialized with the rest of the current instance and saved.
-	 * This is because ByteArrayOutputStream can't be serialized
+	 * Writes the saved objects so they can be serialized
+	 * with the rest of the current instance and saved.
+	 * States written on the disk are read back before being serialized.
 	 * @param out {@link ObjectOutputStream}
 	 * @throws IOException
 	 */
@@ -357,32 +395,31 @@ public class URRManager<T extends Serializable> implements Serializable {
 		out.writeInt(length);
 		out.writeObject(currentObject);
 		try {
-			// unserialize the initial BinList
+			T initialObjectSaver = null;
+			List<T> undoListSaver = null;
+			List<T> redoListSaver = null;
+			// retrieve the initial object
 			if (this.isResetable()) {
-				initialObjectSaver = unzipAndUnserialize(initialObject);
+				initialObjectSaver = initialState.getData();
 			}
-			// unserialize the undo BinLists
+			// retrieve the undo objects
 			if (this.isUndoable()) {
 				undoListSaver = new ArrayList<T>();
-				for (ByteArrayOutputStream currentUndo : undoList) {
-					undoListSaver.add(unzipAndUnserialize(currentUndo));
+				for (URRState<T> currentUndo : undoList) {
+					undoListSaver.add(currentUndo.getData());
 				}
 			}
-			// unserialize the redo BinLists
+			// retrieve the redo objects
 			if (this.isRedoable()) {
 				redoListSaver = new ArrayList<T>();
-				for (ByteArrayOutputStream currentRedo : redoList) {
-					redoListSaver.add(unzipAndUnserialize(currentRedo));
+				for (URRState<T> currentRedo : redoList) {
+					redoListSaver.add(currentRedo.getData());
 				}
 			}
 			// write the savers
 			out.writeObject(initialObjectSaver);
 			out.writeObject(undoListSaver);
 			out.writeObject(redoListSaver);
-			// delete the savers
-			initialObjectSaver = null;
-			undoListSaver = null;
-			redoListSaver = null;
 		} catch (ClassNotFoundException e) {
 			throw new IOException();
 		}
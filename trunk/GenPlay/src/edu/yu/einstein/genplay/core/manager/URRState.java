@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.manager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.GenomicListView;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.util.Utils;
+
+
+/**
+ * State of an object saved by a {@link URRManager}.
+ * The data handled by the {@link URRManager} are immutable so a state only keeps a reference to the data.
+ * The chromosome lists shared by different versions of the data are retained only once.
+ * A state can be written in a temporary file to release the memory it uses.
+ * @author Julien Lajugie
+ * @param <T> type of the saved object
+ */
+final class URRState<T extends Serializable> {
+
+	/** Estimated size in bytes of an element of a list of scored chromosome windows */
+	private static final int SCW_ELEMENT_SIZE = 8;
+
+	/** Estimated size in bytes of an element of the other lists */
+	private static final int ELEMENT_SIZE = 48;
+
+	/** Prefix of the name of the temporary files */
+	private static final String TEMP_FILE_PREFIX = "genplay-undo-";
+
+
+	/**
+	 * Estimates the memory used by a chromosome list
+	 * @param chromosomeList a {@link ListView}
+	 * @return the estimated memory used by the list in bytes
+	 */
+	private static long estimateMemoryUsage(ListView<?> chromosomeList) {
+		if (chromosomeList instanceof SCWListView) {
+			return (long) chromosomeList.size() * SCW_ELEMENT_SIZE;
+		} else {
+			return (long) chromosomeList.size() * ELEMENT_SIZE;
+		}
+	}
+
+
+	/** Saved object, null if the state is stored in a file */
+	private T data;
+
+	/** File storing the saved object, null if the state is in memory */
+	private File file;
+
+
+	/**
+	 * Creates an instance of {@link URRState}
+	 * @param data saved object
+	 */
+	URRState(T data) {
+		this.data = data;
+		this.file = null;
+	}
+
+
+	/**
+	 * Deletes the temporary file of the state if the state was written on the disk.
+	 * The state can't be used after this method is called.
+	 */
+	void delete() {
+		if (file != null) {
+			file.delete();
+			file = null;
+		}
+		data = null;
+	}
+
+
+	/**
+	 * Adds the chromosome lists of the specified object to the specified map
+	 * @param object a saved object
+	 * @param countedLists map of the chromosome lists already counted
+	 */
+	static void addChromosomeLists(Object object, Map<ListView<?>, Boolean> countedLists) {
+		if (object instanceof GenomicListView<?>) {
+			for (ListView<?> currentList: (GenomicListView<?>) object) {
+				if (currentList != null) {
+					countedLists.put(currentList, Boolean.TRUE);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Adds the chromosome lists of the state to the specified map
+	 * @param countedLists map of the chromosome lists already counted
+	 */
+	void addChromosomeLists(Map<ListView<?>, Boolean> countedLists) {
+		addChromosomeLists(data, countedLists);
+	}
+
+
+	/**
+	 * Estimates the memory retained by this state
+	 * @param countedLists chromosome lists already retained by the current object or by other states.
+	 * The lists of this state that are in this map are not counted
+	 * @return the estimated memory in bytes used by the lists of this state that are not in the specified map.
+	 * 0 if the state is not in memory or if the memory usage of the saved object cannot be estimated
+	 */
+	long estimateRetainedMemory(Map<ListView<?>, Boolean> countedLists) {
+		long retainedMemory = 0;
+		if (data instanceof GenomicListView<?>) {
+			for (ListView<?> currentList: (GenomicListView<?>) data) {
+				if ((currentList != null) && !countedLists.containsKey(currentList)) {
+					retainedMemory += estimateMemoryUsage(currentList);
+				}
+			}
+		}
+		return retainedMemory;
+	}
+
+
+	/**
+	 * @return the saved object.  The object is read from the disk if the state was written in a file
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	@SuppressWarnings("unchecked")
+	T getData() throws IOException, ClassNotFoundException {
+		if (data != null) {
+			return data;
+		}
+		ObjectInputStream ois = null;
+		try {
+			ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+			return (T) ois.readObject();
+		} finally {
+			if (ois != null) {
+				ois.close();
+			}
+		}
+	}
+
+
+	/**
+	 * @return true if the state is in memory, false if it is stored in a file
+	 */
+	boolean isInMemory() {
+		return data != null;
+	}
+
+
+	/**
+	 * Writes the saved object in a temporary file and releases the reference to the object
+	 * @throws IOException
+	 */
+	void writeOnDisk() throws IOException {
+		if (data != null) {
+			File tempFile = File.createTempFile(TEMP_FILE_PREFIX, null, new File(Utils.getTmpDirectoryPath()));
+			tempFile.deleteOnExit();
+			ObjectOutputStream oos = null;
+			try {
+				oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+				oos.writeObject(data);
+			} catch (IOException e) {
+				tempFile.delete();
+				throw e;
+			} finally {
+				if (oos != null) {
+					oos.close();
+				}
+			}
+			file = tempFile;
+			data = null;
+		}
+	}
+}
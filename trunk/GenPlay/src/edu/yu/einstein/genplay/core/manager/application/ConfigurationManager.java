@@ -58,9 +58,15 @@ public final class ConfigurationManager {
 	private static final int 		DEFAULT_TRACK_COUNT 			= 50; 		// default number of track
 	private static final int 		DEFAULT_TRACK_HEIGHT 			= 100; 		// default track height
 	private static final int 		DEFAULT_UNDO_COUNT 				= 1; 		// default number of undo in memory
+	private static final int 		DEFAULT_UNDO_MEMORY 			= 512; 		// default memory (in MB) used by the undo history of a layer before being written on the disk
 	private static final boolean 	DEFAULT_RESET_TRACK 			= true; 	// default value of reset track
 	private static final boolean 	DEFAULT_CACHE_TRACK 			= true; 	// default value of cache track
 	private static final boolean 	DEFAULT_SHOW_LEGEND 			= true; 	// default value of show legend
+	private static final boolean 	DEFAULT_PARALLEL_LOADING 		= true; 	// default value of parallel loading
+	private static final int 		DEFAULT_SORT_MEMORY 			= 256; 		// default memory (in MB) used to sort the data of unsorted files while loading them
+	private static final boolean 	DEFAULT_UNSORTED_LOADING 		= false; 	// default value of unsorted loading
+	private static final boolean 	DEFAULT_LAZY_VARIANT_LOADING 	= false; 	// default value of lazy variant loading
+	private static final int 		DEFAULT_VARIANT_TILE_CACHE 		= 64; 		// default number of tiles of variants kept in memory when the variants are loaded lazily
 	private static final int 		MIN_TRACK_COUNT 				= 1; 		// minimum number of tracks
 	private static final int 		MAX_TRACK_COUNT 				= 1024; 	// maximum number of tracks
 	private static final int 		MIN_TRACK_HEIGHT 				= 30; 		// minimum height of the tracks
@@ -143,9 +149,15 @@ public final class ConfigurationManager {
 	private int 	trackCount; 					// track count
 	private int 	trackHeight; 					// track height
 	private int 	undoCount; 						// number of undo in memory
+	private int 	undoMemory; 					// memory (in MB) used by the undo history of a layer before being written on the disk
 	private boolean resetTrack;						// enable the reset track feature
 	private boolean cacheTrack;						// enable the reset track feature
 	private boolean legend;							// show legend for multi genome stripes
+	private boolean parallelLoading;				// enable the pipelined loading of the layers
+	private int 	sortMemory;						// memory (in MB) used to sort the data of unsorted files while loading them
+	private boolean unsortedLoading;				// enable the loading of unsorted files in one pass
+	private boolean lazyVariantLoading;				// enable the loading of the variants of the displayed window only
+	private int 	variantTileCache;				// number of tiles of variants kept in memory when the variants are loaded lazily
 
 
 	/**
@@ -182,12 +194,24 @@ public final class ConfigurationManager {
 					setTrackHeight(Integer.parseInt(value));
 				} else if (key.equalsIgnoreCase("undo count")) {
 					setUndoCount(Integer.parseInt(value));
+				} else if (key.equalsIgnoreCase("undo memory")) {
+					setUndoMemory(Integer.parseInt(value));
 				} else if (key.equalsIgnoreCase("reset track")) {
 					setResetTrack(Boolean.parseBoolean(value));
 				} else if (key.equalsIgnoreCase("cache track")) {
 					setCacheTrack(Boolean.parseBoolean(value));
 				} else if (key.equalsIgnoreCase("show legend")) {
 					setLegend(Boolean.parseBoolean(value));
+				} else if (key.equalsIgnoreCase("parallel loading")) {
+					setParallelLoading(Boolean.parseBoolean(value));
+				} else if (key.equalsIgnoreCase("sort memory")) {
+					setSortMemory(Integer.parseInt(value));
+				} else if (key.equalsIgnoreCase("unsorted loading")) {
+					setUnsortedLoading(Boolean.parseBoolean(value));
+				} else if (key.equalsIgnoreCase("lazy variant loading")) {
+					setLazyVariantLoading(Boolean.parseBoolean(value));
+				} else if (key.equalsIgnoreCase("variant tile cache")) {
+					setVariantTileCache(Integer.parseInt(value));
 				}
 			}
 		}
@@ -250,6 +274,14 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @return the memory (in MB) used to sort the data of unsorted files while loading them
+	 */
+	public int getSortMemory() {
+		return sortMemory;
+	}
+
+
 	/**
 	 * @return the trackCount
 	 */
@@ -274,6 +306,22 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @return the memory (in MB) that the undo history of a layer can use before being written on the disk
+	 */
+	public int getUndoMemory() {
+		return undoMemory;
+	}
+
+
+	/**
+	 * @return the number of tiles of variants kept in memory when the variants are loaded lazily
+	 */
+	public int getVariantTileCache() {
+		return variantTileCache;
+	}
+
+
 	/**
 	 * @return the cacheTrack
 	 */
@@ -282,6 +330,15 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @return true if the multi-genome tracks should only load the variants of the displayed window
+	 * from the indexed VCF files instead of keeping the content of the files for the whole chromosomes
+	 */
+	public boolean isLazyVariantLoading() {
+		return lazyVariantLoading;
+	}
+
+
 	/**
 	 * @return the legend
 	 */
@@ -290,6 +347,15 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @return true if the layers should be loaded using a pipeline that parses
+	 * the files and flattens the different chromosomes concurrently
+	 */
+	public boolean isParallelLoading() {
+		return parallelLoading;
+	}
+
+
 	/**
 	 * @return true if the main menu bar should be shown
 	 */
@@ -306,6 +372,15 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @return true if the windows of the layers should be sorted by the flatteners
+	 * so unsorted files can be loaded in one pass
+	 */
+	public boolean isUnsortedLoading() {
+		return unsortedLoading;
+	}
+
+
 	/**
 	 * Load the configuration from a file.
 	 * @throws IOException
@@ -343,9 +418,15 @@ public final class ConfigurationManager {
 		trackCount = DEFAULT_TRACK_COUNT;
 		trackHeight = DEFAULT_TRACK_HEIGHT;
 		undoCount = DEFAULT_UNDO_COUNT;
+		undoMemory = DEFAULT_UNDO_MEMORY;
 		resetTrack = DEFAULT_RESET_TRACK;
 		cacheTrack = DEFAULT_CACHE_TRACK;
 		legend = DEFAULT_SHOW_LEGEND;
+		parallelLoading = DEFAULT_PARALLEL_LOADING;
+		sortMemory = DEFAULT_SORT_MEMORY;
+		unsortedLoading = DEFAULT_UNSORTED_LOADING;
+		lazyVariantLoading = DEFAULT_LAZY_VARIANT_LOADING;
+		variantTileCache = DEFAULT_VARIANT_TILE_CACHE;
 	}
 
 
@@ -373,6 +454,14 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @param lazyVariantLoading set to true to load only the variants of the displayed window in the multi-genome tracks
+	 */
+	public void setLazyVariantLoading(boolean lazyVariantLoading) {
+		this.lazyVariantLoading = lazyVariantLoading;
+	}
+
+
 	/**
 	 * @param legend the legend to set
 	 */
@@ -389,6 +478,15 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @param parallelLoading set to true to load the layers using a pipeline that parses
+	 * the files and flattens the different chromosomes concurrently
+	 */
+	public void setParallelLoading(boolean parallelLoading) {
+		this.parallelLoading = parallelLoading;
+	}
+
+
 	/**
 	 * @param resetTrack the resetTrack to set
 	 */
@@ -405,6 +503,18 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @param sortMemory the memory (in MB) used to sort the data of unsorted files while loading them
+	 */
+	public void setSortMemory(int sortMemory) {
+		if (sortMemory <= 0) {
+			this.sortMemory = DEFAULT_SORT_MEMORY;
+		} else {
+			this.sortMemory = sortMemory;
+		}
+	}
+
+
 	/**
 	 * @param trackCount the trackCount to set
 	 */
@@ -441,6 +551,39 @@ public final class ConfigurationManager {
 	}
 
 
+	/**
+	 * @param undoMemory the memory (in MB) that the undo history of a layer can use before being written on the disk
+	 */
+	public void setUndoMemory(int undoMemory) {
+		if (undoMemory < 0) {
+			this.undoMemory = DEFAULT_UNDO_MEMORY;
+		} else {
+			this.undoMemory = undoMemory;
+		}
+	}
+
+
+	/**
+	 * @param unsortedLoading set to true to sort the windows of the layers in the flatteners
+	 * so unsorted files can be loaded in one pass
+	 */
+	public void setUnsortedLoading(boolean unsortedLoading) {
+		this.unsortedLoading = unsortedLoading;
+	}
+
+
+	/**
+	 * @param variantTileCache the number of tiles of variants kept in memory when the variants are loaded lazily
+	 */
+	public void setVariantTileCache(int variantTileCache) {
+		if (variantTileCache <= 0) {
+			this.variantTileCache = DEFAULT_VARIANT_TILE_CACHE;
+		} else {
+			this.variantTileCache = variantTileCache;
+		}
+	}
+
+
 	/**
 	 * Writes the configuration on the disk
 	 * @throws IOException
@@ -466,11 +609,23 @@ public final class ConfigurationManager {
 			writer.newLine();
 			writer.write("undo count: " + getUndoCount());
 			writer.newLine();
+			writer.write("undo memory: " + getUndoMemory());
+			writer.newLine();
 			writer.write("reset track: " + isResetTrack());
 			writer.newLine();
 			writer.write("cache track: " + isCacheTrack());
 			writer.newLine();
 			writer.write("show legend: " + isLegend());
+			writer.newLine();
+			writer.write("parallel loading: " + isParallelLoading());
+			writer.newLine();
+			writer.write("sort memory: " + getSortMemory());
+			writer.newLine();
+			writer.write("unsorted loading: " + isUnsortedLoading());
+			writer.newLine();
+			writer.write("lazy variant loading: " + isLazyVariantLoading());
+			writer.newLine();
+			writer.write("variant tile cache: " + getVariantTileCache());
 		} finally {
 			if (writer != null) {
 				writer.close();
@@ -33,6 +33,7 @@ import java.util.List;
 import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.ScorePrecision;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreStorage;
 import edu.yu.einstein.genplay.dataStructure.genome.Assembly;
 import edu.yu.einstein.genplay.dataStructure.gwBookmark.GWBookmark;
 import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
@@ -45,7 +46,7 @@ import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
 public class ProjectManager implements Serializable {
 
 	private static final long serialVersionUID = -8900126340763056646L; // generated ID
-	private static final int  SAVED_FORMAT_VERSION_NUMBER = 2;			// saved format version
+	private static final int  SAVED_FORMAT_VERSION_NUMBER = 3;			// saved format version
 	private static	ProjectManager	instance = null;					// unique instance of the singleton
 
 	/**
@@ -71,6 +72,7 @@ public class ProjectManager implements Serializable {
 	private Assembly 					assembly;					// assembly name
 	private	boolean						isMultiGenome;				// True if it is a multi genome project, false if it is a simple genome project
 	private ScorePrecision				projectScorePrecision;		// precision of the scores of the project (16 / 32 BIT)
+	private ScoreStorage				projectScoreStorage;		// storage of the scores of the project (memory / memory-mapped files)
 	private final ProjectWindow			projectWindow;				// Instance of the Genome Window Manager
 	private final ProjectZoom 			projectZoom;				// Instance of the Zoom Manager
 	private final ProjectChromosomes	projectChromosomes;			// Instance of the Chromosome Manager
@@ -166,6 +168,14 @@ public class ProjectManager implements Serializable {
 	}
 
 
+	/**
+	 * @return the storage of the scores of the project
+	 */
+	public ScoreStorage getProjectScoreStorage() {
+		return projectScoreStorage;
+	}
+
+
 	/**
 	 * @return the Genome Window Manager
 	 */
@@ -220,6 +230,11 @@ public class ProjectManager implements Serializable {
 		if (savedVersion >= 1) {
 			instance.setProjectScorePrecision((ScorePrecision) in.readObject());
 		}
+		if (savedVersion >= 3) {
+			instance.setProjectScoreStorage((ScoreStorage) in.readObject());
+		} else {
+			instance.setProjectScoreStorage(ScoreStorage.IN_MEMORY);
+		}
 		instance.getProjectWindow().setProjectWindow((ProjectWindow) in.readObject());
 		instance.getProjectChromosomes().setProjectChromosomes((ProjectChromosomes) in.readObject());
 		if (savedVersion >= 2) {
@@ -291,6 +306,15 @@ public class ProjectManager implements Serializable {
 	}
 
 
+	/**
+	 * @param projectScoreStorage the ScoreStorage of the scores of the project
+	 */
+	public void setProjectScoreStorage(ScoreStorage projectScoreStorage) {
+		PrimitiveList.setScoreStorage(projectScoreStorage);
+		this.projectScoreStorage = projectScoreStorage;
+	}
+
+
 	/**
 	 * Updates the chromosome list
 	 */
@@ -314,6 +338,7 @@ public class ProjectManager implements Serializable {
 		out.writeObject(assembly);
 		out.writeBoolean(isMultiGenome);
 		out.writeObject(projectScorePrecision);
+		out.writeObject(projectScoreStorage);
 		out.writeObject(projectWindow);
 		out.writeObject(projectChromosomes);
 		out.writeObject(projectBookmarks);
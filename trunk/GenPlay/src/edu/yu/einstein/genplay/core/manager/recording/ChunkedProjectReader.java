@@ -0,0 +1,501 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.manager.recording;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.zip.InflaterInputStream;
+
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
+
+
+/**
+ * Reads the project files written by a {@link ChunkedProjectWriter}.
+ * The project stream is read sequentially.  The lists saved in their own blocks are replaced by
+ * {@link PrimitiveList} objects that read their block the first time one of their elements is accessed.
+ * The project file stays open until the project stream is closed and all the lists are loaded or garbage collected.
+ * @author Julien Lajugie
+ */
+final class ChunkedProjectReader {
+
+	/**
+	 * Loads a list saved in a block of the project file
+	 * @param <T> type of the elements of the list
+	 * @author Julien Lajugie
+	 */
+	final class BlockLoader<T> implements Callable<PrimitiveList<T>> {
+
+		/** Index of the block containing the list */
+		private final int blockIndex;
+
+		/** Reference to the list loaded by this loader */
+		private ListReference listReference;
+
+
+		/**
+		 * Creates an instance of {@link BlockLoader}
+		 * @param blockIndex index of the block containing the list
+		 */
+		private BlockLoader(int blockIndex) {
+			this.blockIndex = blockIndex;
+		}
+
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public PrimitiveList<T> call() throws IOException, ClassNotFoundException {
+			ObjectInputStream ois = new ObjectInputStream(new InflaterInputStream(new ByteArrayInputStream(readBlock(blockIndex))));
+			PrimitiveList<T> list;
+			try {
+				list = (PrimitiveList<T>) ois.readObject();
+			} finally {
+				ois.close();
+			}
+			listLoaded(listReference);
+			return list;
+		}
+
+
+		/**
+		 * @return the compressed block containing the list or null if the project file is closed
+		 * @throws IOException
+		 */
+		byte[] readCompressedBlock() throws IOException {
+			synchronized (ChunkedProjectReader.this) {
+				if (isClosed) {
+					return null;
+				}
+				return readBlock(blockIndex);
+			}
+		}
+	}
+
+
+	/**
+	 * Input stream reading a block of the project file
+	 * @author Julien Lajugie
+	 */
+	private class BlockInputStream extends InputStream {
+
+		/** Position of the next byte to read in the project file */
+		private long position;
+
+		/** Position of the end of the block in the project file */
+		private final long end;
+
+
+		/**
+		 * Creates an instance of {@link BlockInputStream}
+		 * @param blockIndex index of the block to read
+		 */
+		private BlockInputStream(int blockIndex) {
+			position = blockOffsets[blockIndex];
+			end = position + blockLengths[blockIndex];
+		}
+
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			if (read(b, 0, 1) == -1) {
+				return -1;
+			}
+			return b[0] & 0xFF;
+		}
+
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (position >= end) {
+				return -1;
+			}
+			int byteCount = (int) Math.min(len, end - position);
+			synchronized (ChunkedProjectReader.this) {
+				randomAccessFile.seek(position);
+				byteCount = randomAccessFile.read(b, off, byteCount);
+			}
+			if (byteCount > 0) {
+				position += byteCount;
+			}
+			return byteCount;
+		}
+	}
+
+
+	/**
+	 * Weak reference to a list created by a reader.
+	 * The reference is enqueued in {@link ChunkedProjectReader#collectedLists} when the list is garbage collected.
+	 * @author Julien Lajugie
+	 */
+	private static final class ListReference extends WeakReference<PrimitiveList<?>> {
+
+		/** Reader that created the list */
+		private final ChunkedProjectReader reader;
+
+		/** True if the list has been loaded or garbage collected (guarded by the reader) */
+		private boolean isDone = false;
+
+
+		/**
+		 * Creates an instance of {@link ListReference}
+		 * @param list a list created by the reader
+		 * @param reader reader that created the list
+		 */
+		private ListReference(PrimitiveList<?> list, ChunkedProjectReader reader) {
+			super(list, collectedLists);
+			this.reader = reader;
+		}
+	}
+
+
+	/**
+	 * Stream reading the project objects.  Replaces the references to the
+	 * lists saved in their own blocks by lists loaded on first access.
+	 * @author Julien Lajugie
+	 */
+	private class ProjectInputStream extends ObjectInputStream {
+
+		/**
+		 * Creates an instance of {@link ProjectInputStream}
+		 * @param in stream containing the project block
+		 * @throws IOException
+		 */
+		private ProjectInputStream(InputStream in) throws IOException {
+			super(in);
+			enableResolveObject(true);
+		}
+
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			projectStreamClosed();
+		}
+
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			if (obj instanceof PrimitiveListBlock) {
+				PrimitiveListBlock listBlock = (PrimitiveListBlock) obj;
+				return createList(listBlock.getElementClass(), listBlock);
+			}
+			return obj;
+		}
+	}
+
+
+	/** Size of the buffer used to read the project stream */
+	private static final int BUFFER_SIZE = 65536;
+
+	/** Readers of project files not closed yet */
+	private static final Set<ChunkedProjectReader> openReaders = new HashSet<ChunkedProjectReader>();
+
+	/** References of the lists garbage collected before being loaded */
+	private static final ReferenceQueue<PrimitiveList<?>> collectedLists = new ReferenceQueue<PrimitiveList<?>>();
+
+	static {
+		// notifies the readers when their lists are garbage collected so the project files
+		// of the lists that are never loaded are closed
+		Thread cleanerThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (true) {
+					try {
+						Reference<? extends PrimitiveList<?>> reference = collectedLists.remove();
+						ListReference listReference = (ListReference) reference;
+						listReference.reader.listLoaded(listReference);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		}, "Project File Cleaner");
+		cleanerThread.setDaemon(true);
+		cleanerThread.start();
+	}
+
+
+	/**
+	 * @param file a file
+	 * @return true if the specified file is a project file written by a {@link ChunkedProjectWriter}
+	 * @throws IOException
+	 */
+	static boolean isChunkedProject(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			return hasMagicNumber(in);
+		} finally {
+			in.close();
+		}
+	}
+
+
+	/**
+	 * Checks if the specified stream contains a project written by a {@link ChunkedProjectWriter}.
+	 * The stream needs to support marks.  The stream is reset to its current position.
+	 * @param in an input stream supporting marks
+	 * @return true if the stream contains a project written by a {@link ChunkedProjectWriter}
+	 * @throws IOException
+	 */
+	static boolean isChunkedProject(InputStream in) throws IOException {
+		in.mark(ChunkedProjectWriter.MAGIC_NUMBER.length);
+		try {
+			return hasMagicNumber(in);
+		} finally {
+			in.reset();
+		}
+	}
+
+
+	/**
+	 * @param in an input stream
+	 * @return true if the next bytes of the specified stream are the magic number of the chunked project files
+	 * @throws IOException
+	 */
+	private static boolean hasMagicNumber(InputStream in) throws IOException {
+		byte[] magicNumber = new byte[ChunkedProjectWriter.MAGIC_NUMBER.length];
+		int byteCount = 0;
+		int readCount = 0;
+		while ((byteCount < magicNumber.length) && ((readCount = in.read(magicNumber, byteCount, magicNumber.length - byteCount)) != -1)) {
+			byteCount += readCount;
+		}
+		return Arrays.equals(magicNumber, ChunkedProjectWriter.MAGIC_NUMBER);
+	}
+
+
+	/**
+	 * Loads the lists still stored in the specified file and closes the readers of this file.
+	 * This method needs to be called before the file is deleted or replaced.
+	 * @param file a project file
+	 */
+	static void releaseFile(File file) {
+		List<ChunkedProjectReader> readers;
+		synchronized (openReaders) {
+			readers = new ArrayList<ChunkedProjectReader>(openReaders);
+		}
+		for (ChunkedProjectReader currentReader: readers) {
+			if (currentReader.file.getAbsoluteFile().equals(file.getAbsoluteFile())) {
+				currentReader.release();
+			}
+		}
+	}
+
+	/** Project file */
+	private final File file;
+
+	/** Random access to the project file */
+	private final RandomAccessFile randomAccessFile;
+
+	/** Positions of the blocks in the project file */
+	private final long[] blockOffsets;
+
+	/** Lengths in byte of the blocks */
+	private final long[] blockLengths;
+
+	/** Lists created by this reader and not loaded or garbage collected yet */
+	private final List<ListReference> lists;
+
+	/** Number of lists created by this reader that are not loaded or garbage collected yet */
+	private int unloadedListCount = 0;
+
+	/** True if the project stream has been closed */
+	private boolean isProjectStreamClosed = false;
+
+	/** True if the project file has been closed */
+	private boolean isClosed = false;
+
+
+	/**
+	 * Creates an instance of {@link ChunkedProjectReader}.  Reads the table of content of the specified file.
+	 * @param file a project file written by a {@link ChunkedProjectWriter}
+	 * @throws IOException if the file is not a valid project file
+	 */
+	ChunkedProjectReader(File file) throws IOException {
+		this.file = file;
+		lists = new ArrayList<ListReference>();
+		randomAccessFile = new RandomAccessFile(file, "r");
+		try {
+			byte[] magicNumber = new byte[ChunkedProjectWriter.MAGIC_NUMBER.length];
+			randomAccessFile.readFully(magicNumber);
+			if (!Arrays.equals(magicNumber, ChunkedProjectWriter.MAGIC_NUMBER)) {
+				throw new IOException("Invalid project file: " + file.getName());
+			}
+			if (randomAccessFile.readInt() > ChunkedProjectWriter.FORMAT_VERSION) {
+				throw new IOException("The project " + file.getName() + " was saved with a more recent version of GenPlay");
+			}
+			long trailerOffset = randomAccessFile.length() - ChunkedProjectWriter.TRAILER_LENGTH;
+			randomAccessFile.seek(trailerOffset);
+			long tableOfContentOffset = randomAccessFile.readLong();
+			randomAccessFile.readFully(magicNumber);
+			if (!Arrays.equals(magicNumber, ChunkedProjectWriter.MAGIC_NUMBER) || (tableOfContentOffset < 0) || (tableOfContentOffset > trailerOffset)) {
+				throw new IOException("The project file " + file.getName() + " is truncated");
+			}
+			byte[] tableOfContent = new byte[(int) (trailerOffset - tableOfContentOffset)];
+			randomAccessFile.seek(tableOfContentOffset);
+			randomAccessFile.readFully(tableOfContent);
+			DataInputStream tocStream = new DataInputStream(new ByteArrayInputStream(tableOfContent));
+			int blockCount = tocStream.readInt();
+			blockOffsets = new long[blockCount];
+			blockLengths = new long[blockCount];
+			for (int i = 0; i < blockCount; i++) {
+				blockOffsets[i] = tocStream.readLong();
+				blockLengths[i] = tocStream.readLong();
+			}
+		} catch (IOException e) {
+			randomAccessFile.close();
+			throw e;
+		}
+		synchronized (openReaders) {
+			openReaders.add(this);
+		}
+	}
+
+
+	/**
+	 * Closes the project file
+	 */
+	synchronized void close() {
+		if (!isClosed) {
+			isClosed = true;
+			try {
+				randomAccessFile.close();
+			} catch (IOException e) {
+				// nothing to do, the file is not used anymore
+			}
+			synchronized (openReaders) {
+				openReaders.remove(this);
+			}
+		}
+	}
+
+
+	/**
+	 * Closes the project file if the project stream is closed and if all the lists are loaded or garbage collected
+	 */
+	private synchronized void closeIfUnused() {
+		if (isProjectStreamClosed && (unloadedListCount == 0)) {
+			close();
+		}
+	}
+
+
+	/**
+	 * Creates a list whose elements are loaded from the project file the first time they are accessed
+	 * @param <T> type of the elements of the list
+	 * @param elementClass class of the elements of the list
+	 * @param listBlock reference to the block containing the list
+	 * @return a list whose elements are loaded on first access
+	 */
+	private synchronized <T> PrimitiveList<T> createList(Class<T> elementClass, PrimitiveListBlock listBlock) {
+		BlockLoader<T> loader = new BlockLoader<T>(listBlock.getBlockIndex());
+		PrimitiveList<T> list = new PrimitiveList<T>(elementClass, listBlock.getSubarraySize(), listBlock.getSize(), loader);
+		loader.listReference = new ListReference(list, this);
+		lists.add(loader.listReference);
+		unloadedListCount++;
+		return list;
+	}
+
+
+	/**
+	 * Creates a stream reading the objects of the project.
+	 * The lists saved in their own blocks are loaded when their elements are first accessed.
+	 * @return a stream reading the objects of the project
+	 * @throws IOException
+	 */
+	ObjectInputStream createProjectInputStream() throws IOException {
+		return new ProjectInputStream(new InflaterInputStream(new BufferedInputStream(new BlockInputStream(0), BUFFER_SIZE)));
+	}
+
+
+	/**
+	 * Notifies the reader that one of its lists has been loaded or garbage collected
+	 * @param listReference reference to the list
+	 */
+	private synchronized void listLoaded(ListReference listReference) {
+		if (!listReference.isDone) {
+			listReference.isDone = true;
+			lists.remove(listReference);
+			unloadedListCount--;
+			closeIfUnused();
+		}
+	}
+
+
+	/**
+	 * Notifies the reader that the project stream has been closed
+	 */
+	private synchronized void projectStreamClosed() {
+		isProjectStreamClosed = true;
+		closeIfUnused();
+	}
+
+
+	/**
+	 * @param blockIndex index of a block
+	 * @return the specified block
+	 * @throws IOException
+	 */
+	private synchronized byte[] readBlock(int blockIndex) throws IOException {
+		if (isClosed) {
+			throw new IOException("The project file " + file.getName() + " is closed");
+		}
+		byte[] block = new byte[(int) blockLengths[blockIndex]];
+		randomAccessFile.seek(blockOffsets[blockIndex]);
+		randomAccessFile.readFully(block);
+		return block;
+	}
+
+
+	/**
+	 * Loads the lists still stored in the project file and closes the file
+	 */
+	private void release() {
+		List<ListReference> listsToLoad;
+		synchronized (this) {
+			listsToLoad = new ArrayList<ListReference>(lists);
+		}
+		for (ListReference currentReference: listsToLoad) {
+			PrimitiveList<?> currentList = currentReference.get();
+			if (currentList != null) {
+				currentList.loadElements();
+			}
+		}
+		close();
+	}
+}
@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.manager.recording;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import edu.yu.einstein.genplay.core.operationPool.OperationPool;
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
+
+
+/**
+ * Writes a project file made of independently compressed blocks followed by a table of content.
+ * <br/>The file layout is:
+ * <ul>
+ * <li>the magic number and the version of the format</li>
+ * <li>the project block: a compressed object stream containing the project objects</li>
+ * <li>one compressed block per data list.  In the project stream, the lists are replaced by a reference to their block</li>
+ * <li>the table of content: the position and the length of each block</li>
+ * <li>the position of the table of content and the magic number</li>
+ * </ul>
+ * The data lists are compressed in parallel.
+ * When the project is loaded the data lists are read the first time their elements are accessed.
+ * @author Julien Lajugie
+ */
+final class ChunkedProjectWriter {
+
+	/**
+	 * Stream writing in the project file
+	 * @author Julien Lajugie
+	 */
+	private class BlockOutputStream extends OutputStream {
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			fileOutputStream.write(b, off, len);
+			position += len;
+		}
+
+
+		@Override
+		public void write(int b) throws IOException {
+			fileOutputStream.write(b);
+			position++;
+		}
+	}
+
+
+	/**
+	 * Stream writing the project objects.  Replaces the large lists by a reference
+	 * to a block where the list is saved.
+	 * @author Julien Lajugie
+	 */
+	private class ProjectOutputStream extends ObjectOutputStream {
+
+		/**
+		 * Creates an instance of {@link ProjectOutputStream}
+		 * @param out stream of the project block
+		 * @throws IOException
+		 */
+		private ProjectOutputStream(OutputStream out) throws IOException {
+			super(out);
+			enableReplaceObject(true);
+		}
+
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			if (obj instanceof PrimitiveList<?>) {
+				PrimitiveList<?> list = (PrimitiveList<?>) obj;
+				if (list.size() >= MIN_BLOCK_LIST_SIZE) {
+					blockLists.add(list);
+					// the block 0 is the project block
+					return new PrimitiveListBlock(blockLists.size(), list);
+				}
+			}
+			return obj;
+		}
+	}
+
+
+	/** Magic number of the project files written by this class */
+	static final byte[] MAGIC_NUMBER = {'G', 'P', 'P', 'C'};
+
+	/** Version of the format of the project files */
+	static final int FORMAT_VERSION = 1;
+
+	/** Length of the trailer of the file: position of the table of content and magic number */
+	static final int TRAILER_LENGTH = 8 + MAGIC_NUMBER.length;
+
+	/** Lists with fewer elements are saved in the project block */
+	private static final int MIN_BLOCK_LIST_SIZE = 4096;
+
+	/** Size of the buffer used to write the file */
+	private static final int BUFFER_SIZE = 65536;
+
+
+	/**
+	 * @param list a list
+	 * @return the compressed block containing the specified list
+	 * @throws IOException
+	 */
+	private static byte[] createBlock(PrimitiveList<?> list) throws IOException {
+		// the lists not loaded yet are copied from their project file
+		Callable<?> elementLoader = list.getElementLoader();
+		if (elementLoader instanceof ChunkedProjectReader.BlockLoader<?>) {
+			byte[] block = ((ChunkedProjectReader.BlockLoader<?>) elementLoader).readCompressedBlock();
+			if (block != null) {
+				return block;
+			}
+		}
+		ByteArrayOutputStream blockStream = new ByteArrayOutputStream();
+		Deflater deflater = new Deflater();
+		ObjectOutputStream oos = new ObjectOutputStream(new DeflaterOutputStream(blockStream, deflater, BUFFER_SIZE));
+		try {
+			oos.writeObject(list);
+		} finally {
+			oos.close();
+			deflater.end();
+		}
+		return blockStream.toByteArray();
+	}
+
+	/** Buffered stream of the project file */
+	private final OutputStream fileOutputStream;
+
+	/** Position of the next byte written in the project file */
+	private long position = 0;
+
+	/** Lists saved in their own block */
+	private final List<PrimitiveList<?>> blockLists;
+
+	/** Positions of the blocks in the project file */
+	private long[] blockOffsets;
+
+	/** Lengths in byte of the blocks */
+	private long[] blockLengths;
+
+	/** Position of the project block in the project file */
+	private final long projectBlockOffset;
+
+	/** Compressor of the project block */
+	private final Deflater projectDeflater;
+
+	/** Compressed stream of the project block */
+	private final DeflaterOutputStream projectDeflaterStream;
+
+	/** Stream writing the project objects */
+	private final ObjectOutputStream projectOutputStream;
+
+
+	/**
+	 * Creates an instance of {@link ChunkedProjectWriter}
+	 * @param file file where the project is saved
+	 * @throws IOException
+	 */
+	ChunkedProjectWriter(File file) throws IOException {
+		fileOutputStream = new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE);
+		blockLists = new ArrayList<PrimitiveList<?>>();
+		DataOutputStream headerStream = new DataOutputStream(new BlockOutputStream());
+		headerStream.write(MAGIC_NUMBER);
+		headerStream.writeInt(FORMAT_VERSION);
+		headerStream.flush();
+		projectBlockOffset = position;
+		projectDeflater = new Deflater();
+		projectDeflaterStream = new DeflaterOutputStream(new BlockOutputStream(), projectDeflater, BUFFER_SIZE);
+		projectOutputStream = new ProjectOutputStream(projectDeflaterStream);
+	}
+
+
+	/**
+	 * Closes the project file without completing it.
+	 * This method needs to be called when the project cannot be saved so the file can be deleted.
+	 * It has no effect once {@link #close()} has been called.
+	 */
+	void abort() {
+		projectDeflater.end();
+		try {
+			fileOutputStream.close();
+		} catch (IOException e) {
+			// nothing to do, the file is discarded
+		}
+	}
+
+
+	/**
+	 * Ends the project block, compresses the lists in parallel and writes the table of content.
+	 * The file is closed even if an exception is thrown
+	 * @throws IOException
+	 * @throws ExecutionException
+	 * @throws InterruptedException
+	 */
+	void close() throws IOException, InterruptedException, ExecutionException {
+		try {
+			// end of the project block
+			projectOutputStream.flush();
+			projectDeflaterStream.finish();
+			projectDeflater.end();
+			blockOffsets = new long[blockLists.size() + 1];
+			blockLengths = new long[blockLists.size() + 1];
+			blockOffsets[0] = projectBlockOffset;
+			blockLengths[0] = position - projectBlockOffset;
+
+			// compress the lists in parallel
+			final OperationPool op = OperationPool.getInstance();
+			List<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
+			for (int i = 0; i < blockLists.size(); i++) {
+				final int blockIndex = i + 1;
+				final PrimitiveList<?> currentList = blockLists.get(i);
+				Callable<Void> currentThread = new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						try {
+							writeBlock(blockIndex, createBlock(currentList));
+						} finally {
+							op.notifyDone();
+						}
+						return null;
+					}
+				};
+				threadList.add(currentThread);
+			}
+			op.startPool(threadList);
+
+			// table of content and trailer
+			long tableOfContentOffset = position;
+			DataOutputStream tocStream = new DataOutputStream(new BlockOutputStream());
+			tocStream.writeInt(blockOffsets.length);
+			for (int i = 0; i < blockOffsets.length; i++) {
+				tocStream.writeLong(blockOffsets[i]);
+				tocStream.writeLong(blockLengths[i]);
+			}
+			tocStream.writeLong(tableOfContentOffset);
+			tocStream.write(MAGIC_NUMBER);
+			tocStream.flush();
+		} finally {
+			fileOutputStream.close();
+		}
+	}
+
+
+	/**
+	 * @return the stream where the project objects need to be written.
+	 * The stream must not be closed, {@link #close()} needs to be called instead
+	 */
+	ObjectOutputStream getProjectOutputStream() {
+		return projectOutputStream;
+	}
+
+
+	/**
+	 * Writes a block at the end of the project file
+	 * @param blockIndex index of the block
+	 * @param block compressed block
+	 * @throws IOException
+	 */
+	private synchronized void writeBlock(int blockIndex, byte[] block) throws IOException {
+		blockOffsets[blockIndex] = position;
+		blockLengths[blockIndex] = block.length;
+		fileOutputStream.write(block);
+		position += block.length;
+	}
+}
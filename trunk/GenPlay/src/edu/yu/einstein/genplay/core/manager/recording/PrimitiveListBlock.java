@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.manager.recording;
+
+import java.io.Serializable;
+
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
+
+
+/**
+ * Reference to a {@link PrimitiveList} saved in its own block of a chunked project file.
+ * The references are written in the project stream in place of the lists and are replaced
+ * by lists loaded on first access when the project is loaded.
+ * @author Julien Lajugie
+ */
+final class PrimitiveListBlock implements Serializable {
+
+	/** Generated serial ID */
+	private static final long serialVersionUID = -2383964530618224917L;
+
+	/** Index of the block containing the list */
+	private final int blockIndex;
+
+	/** Class of the elements of the list */
+	private final Class<?> elementClass;
+
+	/** Size of the subarrays of the list */
+	private final int subarraySize;
+
+	/** Size of the list */
+	private final int size;
+
+
+	/**
+	 * Creates an instance of {@link PrimitiveListBlock}
+	 * @param blockIndex index of the block containing the list
+	 * @param list list saved in the block
+	 */
+	PrimitiveListBlock(int blockIndex, PrimitiveList<?> list) {
+		this.blockIndex = blockIndex;
+		elementClass = list.getElementClass();
+		subarraySize = list.getSubarraySize();
+		size = list.size();
+	}
+
+
+	/**
+	 * @return the index of the block containing the list
+	 */
+	int getBlockIndex() {
+		return blockIndex;
+	}
+
+
+	/**
+	 * @return the class of the elements of the list
+	 */
+	Class<?> getElementClass() {
+		return elementClass;
+	}
+
+
+	/**
+	 * @return the size of the list
+	 */
+	int getSize() {
+		return size;
+	}
+
+
+	/**
+	 * @return the size of the subarrays of the list
+	 */
+	int getSubarraySize() {
+		return subarraySize;
+	}
+}
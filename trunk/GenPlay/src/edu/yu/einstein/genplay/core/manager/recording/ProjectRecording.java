@@ -22,6 +22,7 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.manager.recording;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -32,8 +33,8 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.concurrent.ExecutionException;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import javax.swing.JOptionPane;
 import javax.swing.UIManager;
@@ -50,6 +51,8 @@ import edu.yu.einstein.genplay.util.Utils;
 
 /**
  * This class manages the saving and loading processes of the current project.
+ * The projects are saved using a {@link ChunkedProjectWriter}.
+ * The projects saved as a single compressed object stream by the previous versions can still be loaded.
  * @author Nicolas Fourel
  */
 public class ProjectRecording {
@@ -66,6 +69,46 @@ public class ProjectRecording {
 	private String 				currentProjectPath; // path to the current project
 
 
+	/**
+	 * Copies the content of a stream in a file
+	 * @param is an input stream
+	 * @param outputFile file where the stream is copied
+	 * @throws IOException
+	 */
+	private static void copyStreamToFile(InputStream is, File outputFile) throws IOException {
+		FileOutputStream fos = new FileOutputStream(outputFile);
+		try {
+			byte[] buffer = new byte[65536];
+			int byteCount;
+			while ((byteCount = is.read(buffer)) != -1) {
+				fos.write(buffer, 0, byteCount);
+			}
+		} finally {
+			fos.close();
+		}
+	}
+
+
+	/**
+	 * Replaces a file by another one
+	 * @param source file replacing the destination file
+	 * @param destination file to replace
+	 * @throws IOException if the file cannot be replaced
+	 */
+	private static void replaceFile(File source, File destination) throws IOException {
+		if (!source.renameTo(destination)) {
+			// some systems cannot replace a file or a file still open
+			ChunkedProjectReader.releaseFile(destination);
+			if (destination.exists() && !destination.delete()) {
+				throw new IOException("The file " + destination.getPath() + " cannot be replaced");
+			}
+			if (!source.renameTo(destination)) {
+				throw new IOException("The file " + source.getPath() + " cannot be renamed " + destination.getName());
+			}
+		}
+	}
+
+
 	/**
 	 * Creates an instance of {@link ProjectRecording}
 	 */
@@ -88,10 +131,12 @@ public class ProjectRecording {
 			ExceptionManager.getInstance().caughtException(e);
 		}
 
-		try {
-			gz.close();
-		} catch (IOException e) {
-			ExceptionManager.getInstance().caughtException(e);
+		if (gz != null) {
+			try {
+				gz.close();
+			} catch (IOException e) {
+				ExceptionManager.getInstance().caughtException(e);
+			}
 		}
 
 		if (fis != null) {
@@ -170,8 +215,29 @@ public class ProjectRecording {
 	 */
 	public void initObjectInputStream(File inputFile) throws Exception {
 		fileToLoad = inputFile;
-		fis = new FileInputStream(inputFile);
-		initObjectInputStream(fis);
+		if (ChunkedProjectReader.isChunkedProject(inputFile)) {
+			initChunkedProjectInputStream(inputFile);
+		} else {
+			fis = new FileInputStream(inputFile);
+			initObjectInputStream(fis);
+		}
+	}
+
+
+	/**
+	 * Creates the object input stream of a project saved by a {@link ChunkedProjectWriter}.
+	 * @param inputFile project file
+	 * @throws InvalidFileTypeException if the file is not a valid project file
+	 */
+	private void initChunkedProjectInputStream(File inputFile) throws InvalidFileTypeException {
+		try {
+			gz = null;
+			fis = null;
+			ois = new ChunkedProjectReader(inputFile).createProjectInputStream();
+		} catch (IOException e) {
+			ExceptionManager.getInstance().caughtException(e);
+			throw new InvalidFileTypeException();
+		}
 	}
 
 
@@ -182,7 +248,16 @@ public class ProjectRecording {
 	 */
 	public void initObjectInputStream(InputStream is) throws Exception {
 		try {
-			gz = new GZIPInputStream(is);
+			BufferedInputStream bis = new BufferedInputStream(is);
+			if (ChunkedProjectReader.isChunkedProject(bis)) {
+				// the blocks of the project are read on demand so the stream is copied in a file
+				File projectFile = File.createTempFile("genplay-project", ".gpp", new File(Utils.getTmpDirectoryPath()));
+				projectFile.deleteOnExit();
+				copyStreamToFile(bis, projectFile);
+				initChunkedProjectInputStream(projectFile);
+				return;
+			}
+			gz = new GZIPInputStream(bis);
 			ois = new ObjectInputStream(gz);
 		} catch (IOException e) {
 			// a IOException is likely to be caused by a invalid file type
@@ -241,20 +316,24 @@ public class ProjectRecording {
 
 
 	/**
-	 * Saves the current list of tracks into a file
+	 * Saves the current list of tracks into a file.
+	 * The project is first saved in a temporary file that replaces the output file once the project is saved.
+	 * The data of the project loaded from the output file and not loaded yet can still be read while the project is saved.
 	 * @param outputFile file where the project needs to be saved
 	 * @return true if the saving was successful. Returns false otherwise
 	 */
 	public boolean saveProject(File outputFile) {
+		File temporaryFile = new File(outputFile.getPath() + ".tmp");
+		ChunkedProjectWriter writer = null;
+		boolean isSaved = false;
 		try {
 			TrackListPanel trackListPanel = MainFrame.getInstance().getTrackListPanel();
 			// remove all the references to the listener so we don't save them
 			for (Track currentTrack : trackListPanel.getModel().getTracks()) {
 				currentTrack.removeTrackListener(trackListPanel);
 			}
-			FileOutputStream fos = new FileOutputStream(outputFile);
-			GZIPOutputStream gz = new GZIPOutputStream(fos);
-			ObjectOutputStream oos = new ObjectOutputStream(gz);
+			writer = new ChunkedProjectWriter(temporaryFile);
+			ObjectOutputStream oos = writer.getProjectOutputStream();
 			/*
 			// there is bug during the serialization with the nimbus LAF if the
 			// track list is visible
@@ -276,12 +355,10 @@ public class ProjectRecording {
 			if (UIManager.getLookAndFeel().getID().equalsIgnoreCase("Nimbus")) {
 				trackListPanel.setViewportView(trackListPanel.getJpTrackList());
 			}
-			oos.flush();
-			oos.close();
-			gz.flush();
-			gz.close();
-			fos.flush();
-			fos.close();
+			writer.close();
+			writer = null;
+			replaceFile(temporaryFile, outputFile);
+			isSaved = true;
 			// rebuild the references to the listener
 			for (Track currentTrack : trackListPanel.getModel().getTracks()) {
 				currentTrack.addTrackListener(trackListPanel);
@@ -290,9 +367,20 @@ public class ProjectRecording {
 			// deactivate the configuration file saving
 		} catch (IOException e) {
 			ExceptionManager.getInstance().caughtException(Thread.currentThread(), e, "An error occurred while saving the project");
-			return false;
+		} catch (ExecutionException e) {
+			ExceptionManager.getInstance().caughtException(Thread.currentThread(), e, "An error occurred while saving the project");
+		} catch (InterruptedException e) {
+			// the saving has been canceled
+		} finally {
+			if (!isSaved) {
+				// the file needs to be closed before being deleted
+				if (writer != null) {
+					writer.abort();
+				}
+				temporaryFile.delete();
+			}
 		}
-		return true;
+		return isSaved;
 	}
 
 
@@ -56,6 +56,16 @@ public class RecentProjectRecording {
 	 */
 	public ProjectInformation getProjectInformation(File inputFile) throws Exception {
 		try {
+			if (ChunkedProjectReader.isChunkedProject(inputFile)) {
+				ChunkedProjectReader reader = new ChunkedProjectReader(inputFile);
+				ObjectInputStream ois = reader.createProjectInputStream();
+				try {
+					return (ProjectInformation) ois.readObject();
+				} finally {
+					ois.close();
+					reader.close();
+				}
+			}
 			FileInputStream fis = new FileInputStream(inputFile);
 			GZIPInputStream gz = new GZIPInputStream(fis);
 			ObjectInputStream ois = new ObjectInputStream(gz);
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+
+
+/**
+ * Columns of a VCF file for one chromosome.
+ * The columns all have one value per line, the lines being ordered
+ * the same way as the positions returned by {@link #getPositions()}.
+ * @author Julien Lajugie
+ */
+public class VCFChromosomeColumns {
+
+	private final Chromosome 					chromosome;	// chromosome of the columns
+	private final int[] 						positions;	// reference genome position of each line
+	private final Map<VCFColumnKey, VCFColumn> 	columns;	// columns loaded for the chromosome
+
+
+	/**
+	 * Creates an instance of {@link VCFChromosomeColumns} without any column
+	 * @param chromosome chromosome of the columns
+	 * @param positions reference genome position of each line
+	 */
+	public VCFChromosomeColumns(Chromosome chromosome, int[] positions) {
+		this.chromosome = chromosome;
+		this.positions = positions;
+		columns = new HashMap<VCFColumnKey, VCFColumn>();
+	}
+
+
+	/**
+	 * Adds a column
+	 * @param key key of the column
+	 * @param column column to add. Must have the same size as this {@link VCFChromosomeColumns}
+	 */
+	void addColumn(VCFColumnKey key, VCFColumn column) {
+		if (column.size() != size()) {
+			throw new IllegalArgumentException("The size of the column " + key + " (" + column.size() + ") differs from the number of lines (" + size() + ")");
+		}
+		columns.put(key, column);
+	}
+
+
+	/**
+	 * @return the chromosome of the columns
+	 */
+	public Chromosome getChromosome() {
+		return chromosome;
+	}
+
+
+	/**
+	 * @param key key of a column
+	 * @return the column with the specified key, null if the column is not loaded
+	 */
+	public VCFColumn getColumn(VCFColumnKey key) {
+		return columns.get(key);
+	}
+
+
+	/**
+	 * @return the reference genome position of each line. The returned array must not be modified
+	 */
+	public int[] getPositions() {
+		return positions;
+	}
+
+
+	/**
+	 * @param key key of a column
+	 * @return true if the column with the specified key is loaded
+	 */
+	public boolean hasColumn(VCFColumnKey key) {
+		return columns.containsKey(key);
+	}
+
+
+	/**
+	 * @return the number of lines
+	 */
+	public int size() {
+		return positions.length;
+	}
+}
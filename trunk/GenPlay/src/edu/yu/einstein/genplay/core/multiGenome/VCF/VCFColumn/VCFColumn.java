@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn;
+
+
+/**
+ * A dictionary-encoded column of a VCF file for one chromosome.
+ * Each distinct value of the column is stored once in a dictionary and
+ * each line of the VCF stores the index of its value in this dictionary.
+ * Filters can then be evaluated once per distinct value instead of once per line.
+ * @author Julien Lajugie
+ */
+public class VCFColumn {
+
+	/** Code of the lines that have no value for the column */
+	public static final int MISSING_VALUE = -1;
+
+	private final String[] 	dictionary;			// distinct values of the column
+	private final int[] 	codes;				// index in the dictionary of the value of each line
+	private final boolean 	hasMissingValues;	// true if some lines have no value
+
+
+	/**
+	 * Creates an instance of {@link VCFColumn}
+	 * @param dictionary distinct values of the column
+	 * @param codes index in the dictionary of the value of each line or {@link #MISSING_VALUE}
+	 */
+	public VCFColumn(String[] dictionary, int[] codes) {
+		this.dictionary = dictionary;
+		this.codes = codes;
+		boolean hasMissingValues = false;
+		for (int i = 0; (i < codes.length) && !hasMissingValues; i++) {
+			hasMissingValues = codes[i] == MISSING_VALUE;
+		}
+		this.hasMissingValues = hasMissingValues;
+	}
+
+
+	/**
+	 * @return the index in the dictionary of the value of each line or {@link #MISSING_VALUE}.
+	 * The returned array must not be modified
+	 */
+	public int[] getCodes() {
+		return codes;
+	}
+
+
+	/**
+	 * @return the distinct values of the column. The returned array must not be modified
+	 */
+	public String[] getDictionary() {
+		return dictionary;
+	}
+
+
+	/**
+	 * @param index index of a line
+	 * @return the value of the line, null if the line has no value
+	 */
+	public String getValue(int index) {
+		int code = codes[index];
+		if (code == MISSING_VALUE) {
+			return null;
+		}
+		return dictionary[code];
+	}
+
+
+	/**
+	 * @return true if some lines have no value for the column
+	 */
+	public boolean hasMissingValues() {
+		return hasMissingValues;
+	}
+
+
+	/**
+	 * @return the number of lines of the column
+	 */
+	public int size() {
+		return codes.length;
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Builds a {@link VCFColumn} one value at a time
+ * @author Julien Lajugie
+ */
+public class VCFColumnBuilder {
+
+	/** Default capacity of the builder */
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	private final Map<String, Integer> 	valueCodes;	// code of each value already added
+	private final List<String> 			dictionary;	// distinct values in the order they were added
+	private int[] 						codes;		// code of each value added
+	private int 						size;		// number of values added
+
+
+	/**
+	 * Creates an instance of {@link VCFColumnBuilder}
+	 */
+	public VCFColumnBuilder() {
+		valueCodes = new HashMap<String, Integer>();
+		dictionary = new ArrayList<String>();
+		codes = new int[DEFAULT_CAPACITY];
+		size = 0;
+	}
+
+
+	/**
+	 * Adds the value of the next line
+	 * @param value a value, null if the line has no value
+	 */
+	public void addValue(String value) {
+		int code = VCFColumn.MISSING_VALUE;
+		if (value != null) {
+			Integer valueCode = valueCodes.get(value);
+			if (valueCode == null) {
+				valueCode = dictionary.size();
+				valueCodes.put(value, valueCode);
+				dictionary.add(value);
+			}
+			code = valueCode;
+		}
+		if (size == codes.length) {
+			codes = Arrays.copyOf(codes, size * 2);
+		}
+		codes[size++] = code;
+	}
+
+
+	/**
+	 * @return the column containing the values added to the builder
+	 */
+	public VCFColumn getColumn() {
+		return new VCFColumn(dictionary.toArray(new String[dictionary.size()]), Arrays.copyOf(codes, size));
+	}
+}
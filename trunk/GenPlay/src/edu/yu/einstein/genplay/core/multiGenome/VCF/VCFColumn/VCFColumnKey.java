@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn;
+
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.dataStructure.enums.VCFColumnName;
+
+
+/**
+ * Identifies a column of a {@link VCFColumnStore}.
+ * A key is either a whole VCF column (eg: QUAL, FILTER, INFO) or,
+ * for the FORMAT column, one field of one genome (eg: the GQ field of a sample).
+ * @author Julien Lajugie
+ */
+public class VCFColumnKey {
+
+	private final VCFColumnName columnName;		// name of the VCF column
+	private final String 		id;				// ID of the FORMAT field, null for the other columns
+	private final String 		genomeRawName;	// raw name of the genome of the FORMAT field, null for the other columns
+
+
+	/**
+	 * Creates an instance of {@link VCFColumnKey} for a whole VCF column
+	 * @param columnName name of the VCF column
+	 */
+	public VCFColumnKey(VCFColumnName columnName) {
+		this(columnName, null, null);
+	}
+
+
+	/**
+	 * Creates an instance of {@link VCFColumnKey}
+	 * @param columnName name of the VCF column
+	 * @param id ID of the FORMAT field (ignored if the column is not FORMAT)
+	 * @param genomeRawName raw name of the genome of the FORMAT field (ignored if the column is not FORMAT)
+	 */
+	public VCFColumnKey(VCFColumnName columnName, String id, String genomeRawName) {
+		this.columnName = columnName;
+		if (columnName == VCFColumnName.FORMAT) {
+			this.id = id;
+			this.genomeRawName = genomeRawName;
+		} else {
+			this.id = null;
+			this.genomeRawName = null;
+		}
+	}
+
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if ((obj == null) || (getClass() != obj.getClass())) {
+			return false;
+		}
+		VCFColumnKey other = (VCFColumnKey) obj;
+		return (columnName == other.columnName) && equals(id, other.id) && equals(genomeRawName, other.genomeRawName);
+	}
+
+
+	/**
+	 * @param s1 a string
+	 * @param s2 a string
+	 * @return true if both strings are null or equal
+	 */
+	private static boolean equals(String s1, String s2) {
+		return s1 == null ? s2 == null : s1.equals(s2);
+	}
+
+
+	/**
+	 * @return the name of the VCF column
+	 */
+	public VCFColumnName getColumnName() {
+		return columnName;
+	}
+
+
+	/**
+	 * @return a string identifying the key that can be used in a file name
+	 */
+	public String getFileName() {
+		return VCFColumnStore.toFileName(toString());
+	}
+
+
+	/**
+	 * @return the raw name of the genome of the FORMAT field, null for the other columns
+	 */
+	public String getGenomeRawName() {
+		return genomeRawName;
+	}
+
+
+	/**
+	 * @return the ID of the FORMAT field, null for the other columns
+	 */
+	public String getId() {
+		return id;
+	}
+
+
+	/**
+	 * Retrieves the value of the column identified by this key from a VCF line
+	 * @param line a VCF line processed for analysis
+	 * @param format the FORMAT column of the line split on ':' (only used when the key is a FORMAT key)
+	 * @return the value of the column identified by this key, null if the line has no such value
+	 */
+	public String getValue(VCFLine line, String[] format) {
+		if (columnName != VCFColumnName.FORMAT) {
+			return line.getValueFromColumn(columnName);
+		}
+		int idIndex = -1;
+		for (int i = 0; i < format.length; i++) {
+			if (format[i].equals(id)) {
+				idIndex = i;
+			}
+		}
+		if (idIndex == -1) {
+			return null;
+		}
+		String[] genomeFormat = line.getFormatValues(genomeRawName);
+		if ((genomeFormat == null) || (idIndex >= genomeFormat.length)) {
+			return null;
+		}
+		return genomeFormat[idIndex];
+	}
+
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + ((columnName == null) ? 0 : columnName.hashCode());
+		result = (prime * result) + ((id == null) ? 0 : id.hashCode());
+		result = (prime * result) + ((genomeRawName == null) ? 0 : genomeRawName.hashCode());
+		return result;
+	}
+
+
+	@Override
+	public String toString() {
+		String string = columnName.toString();
+		if (columnName == VCFColumnName.FORMAT) {
+			string += "." + id + "." + genomeRawName;
+		}
+		return string;
+	}
+}
@@ -0,0 +1,483 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFChromosomeScanner;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScanner;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScannerReceiver;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.enums.VCFColumnName;
+import edu.yu.einstein.genplay.util.Utils;
+
+
+/**
+ * Columnar cache of the fields of a VCF file used by the multi-genome filters.
+ * <br/>
+ * The first time a column of a chromosome is requested the chromosome is scanned once
+ * for all the missing columns. The columns are then kept in memory for the current chromosome
+ * and persisted in a directory next to the VCF file (see {@link #DIRECTORY_EXTENSION}) so
+ * switching back to a chromosome or editing a filter doesn't require to rescan the VCF.
+ * <br/>
+ * The persisted columns are invalidated when the VCF file or the genomes of the project change.
+ * If the directory cannot be written the columns are only kept in memory.
+ * @author Julien Lajugie
+ */
+public class VCFColumnStore implements VCFScannerReceiver {
+
+	/** Extension appended to the path of the VCF file to get the directory of the persisted columns */
+	public static final String DIRECTORY_EXTENSION = ".gpcolumns";
+
+	/** Extension of the files storing the positions of a chromosome */
+	private static final String POSITION_FILE_EXTENSION = ".positions";
+
+	/** Extension of the files storing a column of a chromosome */
+	private static final String COLUMN_FILE_EXTENSION = ".column";
+
+	/** Version of the format of the persisted files */
+	private static final int SAVED_FORMAT_VERSION_NUMBER = 0;
+
+	/** Charset of the persisted values */
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private final VCFFile 				vcfFile;			// VCF file of the columns
+	private final List<String> 			genomeNames;		// genomes used to select the lines of the VCF
+	private final File 					directory;			// directory of the persisted columns
+	private VCFChromosomeColumns 		currentColumns;		// columns of the last chromosome requested
+
+	// scan state
+	private VCFColumnKey[] 				keysToBuild;		// keys of the columns built during the scan
+	private VCFColumnBuilder[] 			builders;			// builders of the columns built during the scan
+	private boolean 					hasFormatKeys;		// true if some of the keys are FORMAT keys
+	private int[] 						positions;			// positions of the lines scanned
+	private int 						positionCount;		// number of lines scanned
+
+
+	/**
+	 * Creates an instance of {@link VCFColumnStore}
+	 * @param vcfFile VCF file of the columns
+	 * @param genomeNames genomes used to select the lines of the VCF (lines not defining any of these genomes are skipped)
+	 */
+	public VCFColumnStore(VCFFile vcfFile, List<String> genomeNames) {
+		this.vcfFile = vcfFile;
+		this.genomeNames = new ArrayList<String>(genomeNames);
+		directory = new File(vcfFile.getFile().getPath() + DIRECTORY_EXTENSION);
+		currentColumns = null;
+	}
+
+
+	/**
+	 * Closes a stream ignoring errors
+	 * @param stream a stream, can be null
+	 */
+	private static void close(Closeable stream) {
+		if (stream != null) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				// nothing to do, the stream was only used for the cache
+			}
+		}
+	}
+
+
+	/**
+	 * Replaces a persisted file by a file that has just been written
+	 * @param tmpFile the file that has just been written
+	 * @param file the persisted file
+	 * @param written true if the temporary file was written successfully
+	 */
+	private static void commit(File tmpFile, File file, boolean written) {
+		if (written) {
+			file.delete();
+			if (tmpFile.renameTo(file)) {
+				return;
+			}
+		}
+		tmpFile.delete();
+	}
+
+
+	/**
+	 * @param chromosome a chromosome
+	 * @param key a column key
+	 * @return the file of the column of the specified chromosome
+	 */
+	private File getColumnFile(Chromosome chromosome, VCFColumnKey key) {
+		return new File(directory, toFileName(chromosome.getName()) + "." + key.getFileName() + COLUMN_FILE_EXTENSION);
+	}
+
+
+	/**
+	 * Returns the columns of the specified chromosome. The missing columns
+	 * are read from the disk or built in one scan of the VCF file.
+	 * @param chromosome a chromosome
+	 * @param keys keys of the columns to retrieve
+	 * @return the columns of the specified chromosome, containing at least the columns of the specified keys
+	 * @throws IOException
+	 */
+	public synchronized VCFChromosomeColumns getColumns(Chromosome chromosome, Collection<VCFColumnKey> keys) throws IOException {
+		if ((currentColumns == null) || !currentColumns.getChromosome().equals(chromosome)) {
+			currentColumns = null;
+			int[] savedPositions = readPositions(chromosome);
+			if (savedPositions != null) {
+				currentColumns = new VCFChromosomeColumns(chromosome, savedPositions);
+			}
+		}
+
+		List<VCFColumnKey> missingKeys = new ArrayList<VCFColumnKey>();
+		for (VCFColumnKey key: keys) {
+			if (((currentColumns == null) || !currentColumns.hasColumn(key)) && !missingKeys.contains(key)) {
+				VCFColumn column = null;
+				if (currentColumns != null) {
+					column = readColumn(chromosome, key, currentColumns.size());
+				}
+				if (column != null) {
+					currentColumns.addColumn(key, column);
+				} else {
+					missingKeys.add(key);
+				}
+			}
+		}
+
+		if (!missingKeys.isEmpty()) {
+			scan(chromosome, missingKeys);
+			int[] scannedPositions = Arrays.copyOf(positions, positionCount);
+			if ((currentColumns != null) && !Arrays.equals(scannedPositions, currentColumns.getPositions())) {
+				// the lines of the VCF are not the ones of the persisted columns anymore
+				currentColumns = null;
+				if (missingKeys.size() < keys.size()) {
+					missingKeys = new ArrayList<VCFColumnKey>(keys);
+					scan(chromosome, missingKeys);
+					scannedPositions = Arrays.copyOf(positions, positionCount);
+				}
+			}
+			if (currentColumns == null) {
+				currentColumns = new VCFChromosomeColumns(chromosome, scannedPositions);
+				writePositions(chromosome, scannedPositions);
+			}
+			for (int i = 0; i < keysToBuild.length; i++) {
+				VCFColumn column = builders[i].getColumn();
+				currentColumns.addColumn(keysToBuild[i], column);
+				writeColumn(chromosome, keysToBuild[i], column);
+			}
+			keysToBuild = null;
+			builders = null;
+			positions = null;
+		}
+		return currentColumns;
+	}
+
+
+	/**
+	 * @return a value identifying the genomes used to select the lines of the VCF
+	 */
+	private int getGenomeSignature() {
+		return genomeNames.hashCode();
+	}
+
+
+	/**
+	 * @param chromosome a chromosome
+	 * @return the file of the positions of the specified chromosome
+	 */
+	private File getPositionFile(Chromosome chromosome) {
+		return new File(directory, toFileName(chromosome.getName()) + POSITION_FILE_EXTENSION);
+	}
+
+
+	/**
+	 * @return the VCF file of the columns
+	 */
+	public VCFFile getVCFFile() {
+		return vcfFile;
+	}
+
+
+	/**
+	 * Opens an output stream in the directory of the persisted columns
+	 * @param file a file of the directory
+	 * @return an output stream, null if the file cannot be written
+	 */
+	private DataOutputStream openOutputStream(File file) {
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			return null;
+		}
+		try {
+			return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+
+	@Override
+	public void processLine(VCFLine line) {
+		if (positionCount == positions.length) {
+			positions = Arrays.copyOf(positions, positionCount * 2);
+		}
+		positions[positionCount++] = line.getReferencePosition();
+		String[] format = null;
+		if (hasFormatKeys) {
+			format = Utils.split(line.getFORMAT(), ':');
+		}
+		for (int i = 0; i < keysToBuild.length; i++) {
+			builders[i].addValue(keysToBuild[i].getValue(line, format));
+		}
+	}
+
+
+	/**
+	 * Reads a persisted column
+	 * @param chromosome a chromosome
+	 * @param key a column key
+	 * @param size expected number of lines of the column
+	 * @return the column, null if the column has not been persisted or is not valid anymore
+	 */
+	private VCFColumn readColumn(Chromosome chromosome, VCFColumnKey key, int size) {
+		File file = getColumnFile(chromosome, key);
+		if (!file.isFile()) {
+			return null;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (!readHeader(in) || !in.readUTF().equals(key.toString()) || (in.readInt() != size)) {
+				return null;
+			}
+			String[] dictionary = new String[in.readInt()];
+			for (int i = 0; i < dictionary.length; i++) {
+				byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+				dictionary[i] = new String(bytes, CHARSET);
+			}
+			int[] codes = readInts(in, size);
+			for (int code: codes) {
+				if ((code < VCFColumn.MISSING_VALUE) || (code >= dictionary.length)) {
+					return null;
+				}
+			}
+			return new VCFColumn(dictionary, codes);
+		} catch (IOException e) {
+			// an unreadable column is rebuilt from the VCF file
+			return null;
+		} finally {
+			close(in);
+		}
+	}
+
+
+	/**
+	 * Reads the header of a persisted file
+	 * @param in input stream of the file
+	 * @return true if the file was saved for the current version of the VCF file and genomes
+	 * @throws IOException
+	 */
+	private boolean readHeader(DataInputStream in) throws IOException {
+		File file = vcfFile.getFile();
+		return (in.readInt() == SAVED_FORMAT_VERSION_NUMBER) &&
+				(in.readLong() == file.length()) &&
+				(in.readLong() == file.lastModified()) &&
+				(in.readInt() == getGenomeSignature());
+	}
+
+
+	/**
+	 * Reads the specified number of ints
+	 * @param in an input stream
+	 * @param count number of ints to read
+	 * @return an array containing the ints read
+	 * @throws IOException
+	 */
+	private static int[] readInts(DataInputStream in, int count) throws IOException {
+		byte[] bytes = new byte[count * 4];
+		in.readFully(bytes);
+		int[] ints = new int[count];
+		ByteBuffer.wrap(bytes).asIntBuffer().get(ints);
+		return ints;
+	}
+
+
+	/**
+	 * Reads the persisted positions of a chromosome
+	 * @param chromosome a chromosome
+	 * @return the positions, null if the positions have not been persisted or are not valid anymore
+	 */
+	private int[] readPositions(Chromosome chromosome) {
+		File file = getPositionFile(chromosome);
+		if (!file.isFile()) {
+			return null;
+		}
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			if (!readHeader(in)) {
+				return null;
+			}
+			return readInts(in, in.readInt());
+		} catch (IOException e) {
+			// unreadable positions are rebuilt from the VCF file
+			return null;
+		} finally {
+			close(in);
+		}
+	}
+
+
+	/**
+	 * Scans the lines of a chromosome to build the specified columns
+	 * @param chromosome a chromosome
+	 * @param keys keys of the columns to build
+	 * @throws IOException
+	 */
+	private void scan(Chromosome chromosome, List<VCFColumnKey> keys) throws IOException {
+		keysToBuild = keys.toArray(new VCFColumnKey[keys.size()]);
+		builders = new VCFColumnBuilder[keysToBuild.length];
+		hasFormatKeys = false;
+		for (int i = 0; i < keysToBuild.length; i++) {
+			builders[i] = new VCFColumnBuilder();
+			hasFormatKeys |= keysToBuild[i].getColumnName() == VCFColumnName.FORMAT;
+		}
+		positions = new int[1024];
+		positionCount = 0;
+		VCFScanner scanner = new VCFChromosomeScanner(this, vcfFile, chromosome);
+		scanner.setGenomes(genomeNames);
+		scanner.compute();
+	}
+
+
+	/**
+	 * @param name a name
+	 * @return the name with the characters that are not safe in file names replaced by '_'
+	 */
+	static String toFileName(String name) {
+		return name.replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+
+
+	/**
+	 * Persists a column. The column is only kept in memory if it cannot be written.
+	 * @param chromosome a chromosome
+	 * @param key key of the column
+	 * @param column column to persist
+	 */
+	private void writeColumn(Chromosome chromosome, VCFColumnKey key, VCFColumn column) {
+		File file = getColumnFile(chromosome, key);
+		File tmpFile = new File(file.getPath() + ".tmp");
+		DataOutputStream out = openOutputStream(tmpFile);
+		if (out == null) {
+			return;
+		}
+		boolean written = false;
+		try {
+			writeHeader(out);
+			out.writeUTF(key.toString());
+			out.writeInt(column.size());
+			String[] dictionary = column.getDictionary();
+			out.writeInt(dictionary.length);
+			for (String value: dictionary) {
+				byte[] bytes = value.getBytes(CHARSET);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+			writeInts(out, column.getCodes());
+			written = true;
+		} catch (IOException e) {
+			// the column stays in memory only
+		} finally {
+			close(out);
+		}
+		commit(tmpFile, file, written);
+	}
+
+
+	/**
+	 * Writes the header of a persisted file
+	 * @param out output stream of the file
+	 * @throws IOException
+	 */
+	private void writeHeader(DataOutputStream out) throws IOException {
+		File file = vcfFile.getFile();
+		out.writeInt(SAVED_FORMAT_VERSION_NUMBER);
+		out.writeLong(file.length());
+		out.writeLong(file.lastModified());
+		out.writeInt(getGenomeSignature());
+	}
+
+
+	/**
+	 * Writes an array of ints
+	 * @param out an output stream
+	 * @param ints ints to write
+	 * @throws IOException
+	 */
+	private static void writeInts(DataOutputStream out, int[] ints) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(ints.length * 4);
+		buffer.asIntBuffer().put(ints);
+		out.write(buffer.array());
+	}
+
+
+	/**
+	 * Persists the positions of a chromosome. The positions are only kept in memory if they cannot be written.
+	 * @param chromosome a chromosome
+	 * @param positions positions to persist
+	 */
+	private void writePositions(Chromosome chromosome, int[] positions) {
+		File file = getPositionFile(chromosome);
+		File tmpFile = new File(file.getPath() + ".tmp");
+		DataOutputStream out = openOutputStream(tmpFile);
+		if (out == null) {
+			return;
+		}
+		boolean written = false;
+		try {
+			writeHeader(out);
+			out.writeInt(positions.length);
+			writeInts(out, positions);
+			written = true;
+		} catch (IOException e) {
+			// the positions stay in memory only
+		} finally {
+			close(out);
+		}
+		commit(tmpFile, file, written);
+	}
+}
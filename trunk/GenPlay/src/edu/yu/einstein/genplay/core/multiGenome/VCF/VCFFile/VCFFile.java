@@ -34,7 +34,6 @@ import java.util.List;
 import java.util.Map;
 
 import edu.yu.einstein.genplay.core.manager.ProjectFiles;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFHeaderType.VCFHeaderAdvancedType;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFStatistics.VCFFileFullStatistic;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
@@ -139,6 +138,21 @@ public class VCFFile implements Serializable {
 	}
 
 
+	/**
+	 * Creates a reader on the VCF file independent from the one returned by {@link #getReader()}.
+	 * Independent readers can be used to scan different parts of the file concurrently.
+	 * The reader must be closed after use.
+	 * @return a new reader on the VCF file
+	 * @throws IOException
+	 */
+	public VCFReader createReader () throws IOException {
+		VCFReader newReader = new VCFReader();
+		newReader.indexVCFFile(file);
+		newReader.setColumnNames(header.getColumnNames());
+		return newReader;
+	}
+
+
 	@Override
 	public boolean equals(Object obj) {
 		if(this == obj){
@@ -322,20 +336,15 @@ public class VCFFile implements Serializable {
 	 * Initializes the list of reference genome position for this reader.
 	 * It is required when using VCF Filters.
 	 * @param chromosome the current chromosome
-	 * @param results		the list of result
+	 * @param positions	the reference genome positions of the lines of the chromosome
 	 */
-	public void initializePositionList (Chromosome chromosome, List<VCFLine> results) {
+	public void initializePositionList (Chromosome chromosome, int[] positions) {
 		if (chromosomeHasChanged(chromosome)) {
-			if (results != null) {
-				positionList = new PrimitiveList<Integer>(Integer.class, results.size());
-				//VCFLine line = new VCFLine(null, null);
-				for (int i = 0; i < results.size(); i++) {
-					//line.initialize(results.get(i), null);
-					positionList.add(results.get(i).getReferencePosition());
-				}
-			} else {
-				positionList = new PrimitiveList<Integer>(Integer.class, 0);
+			PrimitiveList<Integer> positionList = new PrimitiveList<Integer>(Integer.class);
+			if (positions != null) {
+				positionList.addInts(positions, 0, positions.length);
 			}
+			this.positionList = positionList;
 		}
 	}
 
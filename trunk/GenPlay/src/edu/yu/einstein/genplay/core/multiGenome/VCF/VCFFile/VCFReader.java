@@ -55,6 +55,17 @@ public class VCFReader {
 	}
 
 
+	/**
+	 * Closes the stream of the indexed VCF file
+	 * @throws IOException
+	 */
+	public void close () throws IOException {
+		if (vcfParser != null) {
+			vcfParser.getmFp().close();
+		}
+	}
+
+
 	/**
 	 * Indexes the file creating using the Tabix API
 	 * @param file
@@ -85,7 +96,7 @@ public class VCFReader {
 	 * @throws IOException
 	 */
 	public List<String> query (String chr, int start, int stop) throws IOException {
-		Iterator iter = vcfParser.query(chr + ":" + start + "-" + stop);
+		Iterator iter = queryIterator(chr, start, stop);
 		List<String> result = new ArrayList<String>();
 		String line;
 		while ((iter != null) && ((line = iter.next()) != null)){
@@ -95,6 +106,19 @@ public class VCFReader {
 	}
 
 
+	/**
+	 * Performs a query on the indexed VCF file without loading the results in memory.
+	 * @param chr		chromosome
+	 * @param start		start position
+	 * @param stop		stop position
+	 * @return an iterator on the lines of the results, null if there is no result
+	 * @throws IOException
+	 */
+	public Iterator queryIterator (String chr, int start, int stop) throws IOException {
+		return vcfParser.query(chr + ":" + start + "-" + stop);
+	}
+
+
 	/**
 	 * Performs a query on the first chromosome of the indexed VCF file and return the 10 first results.
 	 * @return query 	results list
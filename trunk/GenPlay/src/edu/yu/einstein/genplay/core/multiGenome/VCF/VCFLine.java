@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFHeaderType.VCFHeaderType;
@@ -56,7 +57,7 @@ public class VCFLine implements Serializable {
 	private VCFGenomeIndexer genomeIndexer;
 
 	private String[] elements;
-	private final static HashMap<String, Chromosome> chromosomeNamesMap = new HashMap<String, Chromosome>();
+	private final static Map<String, Chromosome> chromosomeNamesMap = new ConcurrentHashMap<String, Chromosome>();	// shared by the lines read concurrently
 	private boolean hasData;			// Used during the export only. Some line can be qualified according to different constraints (variations, filters...). If the line passes those constraints, it has then the significant data.
 	private boolean readyForAnalyse;
 
@@ -203,10 +204,8 @@ public class VCFLine implements Serializable {
 	 * @return the chromosome related to the VCF line
 	 */
 	public Chromosome getChromosome () {
-		Chromosome chromosome = null;
-		if (chromosomeNamesMap.containsKey(getCHROM())) {
-			chromosome = chromosomeNamesMap.get(getCHROM());
-		} else {
+		Chromosome chromosome = chromosomeNamesMap.get(getCHROM());
+		if (chromosome == null) {
 			String shortLineName = getShortChromosomeName(getCHROM());
 			List<Chromosome> chromosomeList = ProjectManager.getInstance().getProjectChromosomes().getChromosomeList();
 			for (Chromosome current: chromosomeList) {
@@ -608,6 +607,16 @@ public class VCFLine implements Serializable {
 		}
 		return false;
 	}
+
+
+	/**
+	 * Compares the CHROM field with a chromosome without using the chromosome list of the project.
+	 * @param chromosome a {@link Chromosome}
+	 * @return true if the line is on the chromosome, false otherwise
+	 */
+	public boolean isOnChromosome (Chromosome chromosome) {
+		return getCHROM().equals(chromosome.getName()) || getShortChromosomeName(getCHROM()).equals(getShortChromosomeName(chromosome.getName()));
+	}
 	/**
 	 * @param alternative ALT field (or part of it)
 	 * @return true if the given alternative is coded as an SV
@@ -25,18 +25,24 @@ package edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner;
 import java.io.IOException;
 import java.util.List;
 
+import net.sf.jannot.tabix.Iterator;
+
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFReader;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.exception.ExceptionManager;
 
 /**
  * See the {@link VCFScanner} description for further information on scanners.
- * The {@link VCFChromosomeScanner} will go through the lines of a {@link VCFFile} for the current {@link Chromosome} only.
- * Only the current {@link Chromosome} will be scanned.
+ * The {@link VCFChromosomeScanner} will go through the lines of a {@link VCFFile} for one {@link Chromosome} only.
+ * Unless specified in the constructor, only the current {@link Chromosome} will be scanned.
  * 
  * This uses the Tabix API and we'll retrieve all information about a {@link Chromosome} at once, it may generate memory peaks.
+ * When the scanner is created with its own {@link VCFReader} the lines are streamed from the file instead.
+ * Scanners with their own readers can scan different chromosomes of the same file concurrently.
+ * They can also scan only a region of the chromosome.
  * 
  * @author Nicolas Fourel
  * @version 0.1
@@ -46,6 +52,11 @@ public class VCFChromosomeScanner extends VCFScanner {
 	private List<String> 	result;		// The full list of lines returned by the Tabix API.
 	private VCFLine 		line;		// The current line in process.
 	private int 			index;		// The index of the line in the list of result.
+	private final Chromosome chromosome;	// The chromosome to scan, null to scan the current chromosome.
+	private final VCFReader reader;			// The reader used to stream the lines, null to use the reader of the file.
+	private Iterator		iterator;		// The iterator on the lines streamed.
+	private final int 		start;			// The start of the region streamed.
+	private final int 		stop;			// The stop of the region streamed.
 
 
 	/**
@@ -55,8 +66,54 @@ public class VCFChromosomeScanner extends VCFScanner {
 	 * @throws IOException
 	 */
 	public VCFChromosomeScanner (VCFScannerReceiver receiver, VCFFile vcfFile) throws IOException {
+		this(receiver, vcfFile, null);
+	}
+
+
+	/**
+	 * Constructor of {@link VCFChromosomeScanner}
+	 * @param receiver
+	 * @param vcfFile
+	 * @param chromosome the chromosome to scan, null to scan the current chromosome
+	 * @throws IOException
+	 */
+	public VCFChromosomeScanner (VCFScannerReceiver receiver, VCFFile vcfFile, Chromosome chromosome) throws IOException {
+		this(receiver, vcfFile, chromosome, null);
+	}
+
+
+	/**
+	 * Constructor of {@link VCFChromosomeScanner}
+	 * @param receiver
+	 * @param vcfFile
+	 * @param chromosome the chromosome to scan, null to scan the current chromosome
+	 * @param reader a reader on the VCF file used to stream the lines (see {@link VCFFile#createReader()}), null to load the lines with the reader of the file
+	 * @throws IOException
+	 */
+	public VCFChromosomeScanner (VCFScannerReceiver receiver, VCFFile vcfFile, Chromosome chromosome, VCFReader reader) throws IOException {
+		this(receiver, vcfFile, chromosome, reader, 0, Integer.MAX_VALUE);
+	}
+
+
+	/**
+	 * Constructor of {@link VCFChromosomeScanner}
+	 * The lines overlapping the region are streamed, some of them can start before the region.
+	 * @param receiver
+	 * @param vcfFile
+	 * @param chromosome the chromosome to scan, null to scan the current chromosome
+	 * @param reader a reader on the VCF file used to stream the lines (see {@link VCFFile#createReader()})
+	 * @param start start of the region to scan
+	 * @param stop stop of the region to scan
+	 * @throws IOException
+	 */
+	public VCFChromosomeScanner (VCFScannerReceiver receiver, VCFFile vcfFile, Chromosome chromosome, VCFReader reader, int start, int stop) throws IOException {
 		super(receiver, vcfFile);
+		this.chromosome = chromosome;
+		this.reader = reader;
+		this.start = start;
+		this.stop = stop;
 		result = null;
+		iterator = null;
 		index = 0;
 	}
 
@@ -64,6 +121,7 @@ public class VCFChromosomeScanner extends VCFScanner {
 	@Override
 	protected void endScan() {
 		result = null;
+		iterator = null;
 		line = null;
 		index = 0;
 	}
@@ -73,7 +131,17 @@ public class VCFChromosomeScanner extends VCFScanner {
 	 * @return the current {@link VCFLine} being processed
 	 */
 	private VCFLine getCurrentLine () {
-		if (index < result.size()) {
+		if (reader != null) {
+			String nextLine = null;
+			try {
+				if (iterator != null) {
+					nextLine = iterator.next();
+				}
+			} catch (IOException e) {
+				ExceptionManager.getInstance().caughtException(e);
+			}
+			line = nextLine == null ? null : new VCFLine(nextLine, vcfFile.getHeader());
+		} else if (index < result.size()) {
 			line = new VCFLine(result.get(index), vcfFile.getHeader());
 		} else {
 			line = null;
@@ -84,9 +152,17 @@ public class VCFChromosomeScanner extends VCFScanner {
 
 	@Override
 	protected VCFLine getFirstLine() {
-		Chromosome chromosome = ProjectManager.getInstance().getProjectWindow().getGenomeWindow().getChromosome();
+		Chromosome chromosome = this.chromosome;
+		if (chromosome == null) {
+			chromosome = ProjectManager.getInstance().getProjectWindow().getGenomeWindow().getChromosome();
+		}
 		try {
-			result = vcfFile.getReader().query(chromosome.getName(), 0, chromosome.getLength());
+			if (reader != null) {
+				// by default the whole chromosome is streamed, including the lines past its length
+				iterator = reader.queryIterator(chromosome.getName(), start, stop);
+			} else {
+				result = vcfFile.getReader().query(chromosome.getName(), 0, chromosome.getLength());
+			}
 		} catch (IOException e) {
 			ExceptionManager.getInstance().caughtException(e);
 		}
@@ -290,6 +290,28 @@ public class VCFFileFullStatistic implements Serializable, VCFFileStatistics {
 	}
 
 
+	/**
+	 * Adds the numbers of another statistics object, and of its genomes, to the numbers of this one.
+	 * The statistics have to be processed again after merging.
+	 * @param statistic the statistics to add
+	 */
+	public void merge (VCFFileFullStatistic statistic) {
+		numberOfSNPs += statistic.numberOfSNPs;
+		numberOfShortInsertions += statistic.numberOfShortInsertions;
+		numberOfLongInsertions += statistic.numberOfLongInsertions;
+		numberOfShortDeletions += statistic.numberOfShortDeletions;
+		numberOfLongDeletions += statistic.numberOfLongDeletions;
+
+		numberOfLines += statistic.numberOfLines;
+
+		for (String genomeName: statistic.genomeStatistics.keySet()) {
+			addGenomeName(genomeName);
+			VCFSampleFullStatistic sampleStatistic = (VCFSampleFullStatistic) genomeStatistics.get(genomeName);
+			sampleStatistic.merge((VCFSampleFullStatistic) statistic.genomeStatistics.get(genomeName));
+		}
+	}
+
+
 	@Override
 	public void processStatistics () {
 		if (data == null) {
@@ -439,6 +439,30 @@ public class VCFSampleFullStatistic implements Serializable, VCFSampleStatistics
 	}
 
 
+	/**
+	 * Adds the numbers of another statistics object to the numbers of this one.
+	 * The statistics have to be processed again after merging.
+	 * @param statistic the statistics to add
+	 */
+	public void merge (VCFSampleFullStatistic statistic) {
+		numberOfSNPs += statistic.numberOfSNPs;
+		numberOfShortInsertions += statistic.numberOfShortInsertions;
+		numberOfLongInsertions += statistic.numberOfLongInsertions;
+		numberOfShortDeletions += statistic.numberOfShortDeletions;
+		numberOfLongDeletions += statistic.numberOfLongDeletions;
+
+		numberOfHomozygoteSNPs += statistic.numberOfHomozygoteSNPs;
+		numberOfHomozygoteInsertions += statistic.numberOfHomozygoteInsertions;
+		numberOfHomozygoteDeletions += statistic.numberOfHomozygoteDeletions;
+		numberOfHeterozygoteSNPs += statistic.numberOfHeterozygoteSNPs;
+		numberOfHeterozygoteInsertions += statistic.numberOfHeterozygoteInsertions;
+		numberOfHeterozygoteDeletions += statistic.numberOfHeterozygoteDeletions;
+		numberOfHemizygoteSNPs += statistic.numberOfHemizygoteSNPs;
+		numberOfHemizygoteInsertions += statistic.numberOfHemizygoteInsertions;
+		numberOfHemizygoteDeletions += statistic.numberOfHemizygoteDeletions;
+	}
+
+
 	@Override
 	public void show () {
 		String info = "";
@@ -0,0 +1,411 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.data.display;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.yu.einstein.genplay.core.comparator.VariantComparator;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGChromosomeContent;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGChromosomeVariants;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.NoCallVariant;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.ReferenceVariant;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
+import edu.yu.einstein.genplay.dataStructure.enums.VariantType;
+
+/**
+ * The {@link VariantColumnList} stores the variants of one allele of a {@link VariantDisplayList}.
+ * The variants are not stored as {@link Variant} objects but as parallel arrays of primitives (one column per attribute):
+ * start, stop, type, score, alternative index, position index and chromosome content.
+ * 
+ * {@link Variant} objects are only created on demand by {@link #get(int)}:
+ * the alternatives are the {@link Variant} shared by the {@link MGChromosomeVariants} of the chromosome content,
+ * the references and the no calls are created from the columns.
+ * 
+ * @author Julien Lajugie
+ */
+public class VariantColumnList {
+
+	private static final int 			RESIZE_MIN = 1000;					// minimum length added every time the arrays are resized
+	private static final int 			RESIZE_MAX = 10000000;				// maximum length added every time the arrays are resized
+	private static final int 			RESIZE_FACTOR = 2;					// multiplication factor of the length of the arrays every time they are resized
+	private static final VariantType[] 	TYPES = VariantType.values();		// variant types indexed by their codes
+
+	private final List<MGChromosomeContent> contents;						// chromosome contents of the variants
+	private short[]		contentIndexes;										// indexes of the chromosome contents of the variants
+	private int[] 		positionIndexes;									// indexes of the variants in their chromosome content
+	private int[] 		starts;												// start positions on the meta genome
+	private int[] 		stops;												// stop positions on the meta genome
+	private byte[] 		types;												// types of the variants (ordinal of the VariantType, -1 if no type)
+	private byte[] 		alternativeIndexes;									// indexes of the alternatives in their line, -1 for references and no calls
+	private float[] 	scores;												// scores of the variants
+	private int 		size;												// number of variants
+
+
+	/**
+	 * Constructor of {@link VariantColumnList}
+	 */
+	public VariantColumnList () {
+		contents = new ArrayList<MGChromosomeContent>();
+		contentIndexes = new short[0];
+		positionIndexes = new int[0];
+		starts = new int[0];
+		stops = new int[0];
+		types = new byte[0];
+		alternativeIndexes = new byte[0];
+		scores = new float[0];
+		size = 0;
+	}
+
+
+	/**
+	 * Adds a variant to the list.
+	 * The values of the variant are copied, the variant itself is not kept.
+	 * @param variant a {@link Variant} defined in a {@link MGChromosomeContent}
+	 */
+	public void add (Variant variant) {
+		MGChromosomeContent content = variant.getChromosomeContent();
+		int positionIndex = variant.getReferencePositionIndex();
+		int alternativeIndex = -1;
+		if (variant.isAlternative()) {
+			MGChromosomeVariants contentVariants = content.getVariants();
+			for (int i = 0; (i < content.getMaxAlternativeNumber()) && (alternativeIndex == -1); i++) {
+				if (contentVariants.getVariant(i, positionIndex) == variant) {
+					alternativeIndex = i;
+				}
+			}
+		}
+		add(content, positionIndex, variant.getStart(), variant.getStop(), variant.getType(), alternativeIndex);
+	}
+
+
+	/**
+	 * Adds a variant to the list
+	 * @param content			the {@link MGChromosomeContent} of the variant
+	 * @param positionIndex		the index of the variant in the {@link MGChromosomeContent}
+	 * @param start				the start position on the meta genome
+	 * @param stop				the stop position on the meta genome
+	 * @param type				the {@link VariantType} of the variant
+	 * @param alternativeIndex	the index of the alternative in its line, -1 for references and no calls
+	 */
+	public void add (MGChromosomeContent content, int positionIndex, int start, int stop, VariantType type, int alternativeIndex) {
+		if (size >= starts.length) {
+			resize();
+		}
+		contentIndexes[size] = getContentIndex(content);
+		positionIndexes[size] = positionIndex;
+		starts[size] = start;
+		stops[size] = stop;
+		types[size] = (byte) ((type == null) ? -1 : type.ordinal());
+		alternativeIndexes[size] = (byte) alternativeIndex;
+		scores[size] = content.getScore(positionIndex);
+		size++;
+	}
+
+
+	/**
+	 * Adds all the variants of another list to this list
+	 * @param list a {@link VariantColumnList}
+	 */
+	public void addAll (VariantColumnList list) {
+		for (int i = 0; i < list.size; i++) {
+			add(list.getChromosomeContent(i), list.positionIndexes[i], list.starts[i], list.stops[i], list.getType(i), list.alternativeIndexes[i]);
+		}
+	}
+
+
+	/**
+	 * Compares two variants the same way as the {@link VariantComparator}
+	 * @param referencePositions	reference genome positions of the variants
+	 * @param index1				index of a variant
+	 * @param index2				index of another variant
+	 * @return a negative integer, zero, or a positive integer as the first variant is before, at the same position, or after the second one
+	 */
+	private int compare (int[] referencePositions, int index1, int index2) {
+		if (referencePositions[index1] != referencePositions[index2]) {
+			return (referencePositions[index1] < referencePositions[index2]) ? -1 : 1;
+		}
+		int length1 = stops[index1] - starts[index1];
+		int length2 = stops[index2] - starts[index2];
+		// SNPs are before Indel if start positions are equal because
+		// Indel actually start 1bp after the position specified in the VCF
+		boolean isSNP1 = length1 == 1;
+		boolean isSNP2 = length2 == 1;
+		if (isSNP1 != isSNP2) {
+			return isSNP1 ? -1 : 1;
+		}
+		boolean isReference1 = isReference(index1);
+		boolean isReference2 = isReference(index2);
+		if (isReference1 != isReference2) {
+			return isReference1 ? 1 : -1;
+		}
+		if (length1 != length2) {
+			return (length1 > length2) ? -1 : 1;		// the longest variant is first
+		}
+		return 0;
+	}
+
+
+	/**
+	 * Creates the {@link Variant} at the given index
+	 * @param index index of a variant
+	 * @return the {@link Variant} at the given index
+	 */
+	public Variant get (int index) {
+		MGChromosomeContent content = getChromosomeContent(index);
+		if (alternativeIndexes[index] >= 0) {
+			return content.getVariants().getVariant(alternativeIndexes[index], positionIndexes[index]);
+		} else if (getType(index) == VariantType.NO_CALL) {
+			return new NoCallVariant(content, positionIndexes[index], starts[index]);
+		} else {
+			return new ReferenceVariant(content, positionIndexes[index], starts[index], stops[index], getType(index));
+		}
+	}
+
+
+	/**
+	 * @param index index of a variant
+	 * @return the {@link MGChromosomeContent} of the variant
+	 */
+	public MGChromosomeContent getChromosomeContent (int index) {
+		return contents.get(contentIndexes[index]);
+	}
+
+
+	/**
+	 * @param content a {@link MGChromosomeContent}
+	 * @return the index of the {@link MGChromosomeContent} in the list of contents
+	 */
+	private short getContentIndex (MGChromosomeContent content) {
+		for (int i = 0; i < contents.size(); i++) {
+			if (contents.get(i) == content) {
+				return (short) i;
+			}
+		}
+		contents.add(content);
+		return (short) (contents.size() - 1);
+	}
+
+
+	/**
+	 * @param index index of a variant
+	 * @return the index of the variant in its {@link MGChromosomeContent}
+	 */
+	public int getReferencePositionIndex (int index) {
+		return positionIndexes[index];
+	}
+
+
+	/**
+	 * @param index index of a variant
+	 * @return the score of the variant
+	 */
+	public float getScore (int index) {
+		return scores[index];
+	}
+
+
+	/**
+	 * @param index index of a variant
+	 * @return the start position of the variant on the meta genome
+	 */
+	public int getStart (int index) {
+		return starts[index];
+	}
+
+
+	/**
+	 * @param index index of a variant
+	 * @return the stop position of the variant on the meta genome
+	 */
+	public int getStop (int index) {
+		return stops[index];
+	}
+
+
+	/**
+	 * @param index index of a variant
+	 * @return the {@link VariantType} of the variant
+	 */
+	public VariantType getType (int index) {
+		int type = types[index];
+		return (type == -1) ? null : TYPES[type];
+	}
+
+
+	/**
+	 * @param index index of a variant
+	 * @return true if the variant is a reference, false otherwise
+	 */
+	public boolean isReference (int index) {
+		return (alternativeIndexes[index] < 0) && (getType(index) != VariantType.NO_CALL);
+	}
+
+
+	/**
+	 * @param index		index of a variant
+	 * @param variant	a {@link Variant}
+	 * @return true if the given {@link Variant} is the variant at the given index, false otherwise
+	 */
+	public boolean isVariant (int index, Variant variant) {
+		if (variant == null) {
+			return false;
+		}
+		return (variant.getChromosomeContent() == getChromosomeContent(index)) &&
+				(variant.getReferencePositionIndex() == positionIndexes[index]) &&
+				(variant.getStart() == starts[index]) &&
+				(variant.getStop() == stops[index]) &&
+				(variant.getType() == getType(index));
+	}
+
+
+	/**
+	 * Resizes the arrays
+	 */
+	private void resize () {
+		// we multiply the current size by the resize multiplication factor
+		int newLength = starts.length * RESIZE_FACTOR;
+		// we make sure we don't add less than RESIZE_MIN elements
+		newLength = Math.max(newLength, starts.length + RESIZE_MIN);
+		// we make sure we don't add more than RESIZE_MAX elements
+		newLength = Math.min(newLength, starts.length + RESIZE_MAX);
+		setLength(newLength);
+	}
+
+
+	/**
+	 * Sets the length of the arrays
+	 * @param length new length of the arrays
+	 */
+	private void setLength (int length) {
+		short[] newContentIndexes = new short[length];
+		int[] newPositionIndexes = new int[length];
+		int[] newStarts = new int[length];
+		int[] newStops = new int[length];
+		byte[] newTypes = new byte[length];
+		byte[] newAlternativeIndexes = new byte[length];
+		float[] newScores = new float[length];
+		System.arraycopy(contentIndexes, 0, newContentIndexes, 0, size);
+		System.arraycopy(positionIndexes, 0, newPositionIndexes, 0, size);
+		System.arraycopy(starts, 0, newStarts, 0, size);
+		System.arraycopy(stops, 0, newStops, 0, size);
+		System.arraycopy(types, 0, newTypes, 0, size);
+		System.arraycopy(alternativeIndexes, 0, newAlternativeIndexes, 0, size);
+		System.arraycopy(scores, 0, newScores, 0, size);
+		contentIndexes = newContentIndexes;
+		positionIndexes = newPositionIndexes;
+		starts = newStarts;
+		stops = newStops;
+		types = newTypes;
+		alternativeIndexes = newAlternativeIndexes;
+		scores = newScores;
+	}
+
+
+	/**
+	 * @return the number of variants
+	 */
+	public int size () {
+		return size;
+	}
+
+
+	/**
+	 * Sorts the variants the same way as the {@link VariantComparator} (stable sort).
+	 * The arrays are also compacted to the number of variants.
+	 */
+	public void sort () {
+		int[] referencePositions = new int[size];
+		for (int i = 0; i < size; i++) {
+			referencePositions[i] = getChromosomeContent(i).getPositions().get(positionIndexes[i]);
+		}
+		boolean isSorted = true;
+		for (int i = 1; (i < size) && isSorted; i++) {
+			isSorted = compare(referencePositions, i - 1, i) <= 0;
+		}
+		if (isSorted) {
+			setLength(size);
+		} else {
+			int[] order = new int[size];
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+			}
+			sort(referencePositions, order, new int[size], 0, size);
+			short[] newContentIndexes = new short[size];
+			int[] newPositionIndexes = new int[size];
+			int[] newStarts = new int[size];
+			int[] newStops = new int[size];
+			byte[] newTypes = new byte[size];
+			byte[] newAlternativeIndexes = new byte[size];
+			float[] newScores = new float[size];
+			for (int i = 0; i < size; i++) {
+				int index = order[i];
+				newContentIndexes[i] = contentIndexes[index];
+				newPositionIndexes[i] = positionIndexes[index];
+				newStarts[i] = starts[index];
+				newStops[i] = stops[index];
+				newTypes[i] = types[index];
+				newAlternativeIndexes[i] = alternativeIndexes[index];
+				newScores[i] = scores[index];
+			}
+			contentIndexes = newContentIndexes;
+			positionIndexes = newPositionIndexes;
+			starts = newStarts;
+			stops = newStops;
+			types = newTypes;
+			alternativeIndexes = newAlternativeIndexes;
+			scores = newScores;
+		}
+	}
+
+
+	/**
+	 * Merge sort of the indexes of the variants between from (included) and to (excluded)
+	 * @param referencePositions	reference genome positions of the variants
+	 * @param order					indexes of the variants to sort
+	 * @param buffer				temporary array with the same length as the indexes
+	 * @param from					index of the first element to sort
+	 * @param to					index after the last element to sort
+	 */
+	private void sort (int[] referencePositions, int[] order, int[] buffer, int from, int to) {
+		if ((to - from) < 2) {
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		sort(referencePositions, order, buffer, from, middle);
+		sort(referencePositions, order, buffer, middle, to);
+		if (compare(referencePositions, order[middle - 1], order[middle]) <= 0) {
+			return;
+		}
+		System.arraycopy(order, from, buffer, from, to - from);
+		int left = from;
+		int right = middle;
+		for (int i = from; i < to; i++) {
+			if ((right >= to) || ((left < middle) && (compare(referencePositions, buffer[left], buffer[right]) <= 0))) {
+				order[i] = buffer[left++];
+			} else {
+				order[i] = buffer[right++];
+			}
+		}
+	}
+}
@@ -27,21 +27,27 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGChromosomeContent;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGFileContentManager;
-import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.ReferenceVariant;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
 import edu.yu.einstein.genplay.core.multiGenome.filter.MGFilter;
 import edu.yu.einstein.genplay.core.multiGenome.filter.VCFFilter;
+import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
+import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCompute;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.VariantType;
+import edu.yu.einstein.genplay.dataStructure.genomeWindow.GenomeWindow;
 
 /**
  * A {@link VariantDisplayList} handles the list of {@link Variant} for each allele.
  * There is as many {@link Variant} lists as alleles.
+ * The lists are {@link VariantColumnList}: {@link Variant} objects are only created when they are requested.
  * It also handle the display policy of each {@link Variant}.
  * A {@link Variant} can be:
  * - shown
@@ -52,6 +58,11 @@ import edu.yu.einstein.genplay.dataStructure.enums.VariantType;
  * 
  * The {@link VariantDisplayList} is specific of one genome and knows which {@link VariantType} it handles.
  * 
+ * When the variants are loaded lazily (see {@link MGFileContentManager#isLazy()}), the lists only cover the displayed window
+ * plus one window width on each side, and have to be regenerated when the window moves out of the loaded region.
+ * The content of the region can be loaded in the background first (see {@link #loadWindow(GenomeWindow, Runnable)})
+ * so the lists are generated without reading the files.
+ * 
  * @author Nicolas Fourel
  * @version 0.1
  */
@@ -73,10 +84,13 @@ public class VariantDisplayList implements Serializable {
 	public static byte HIDE_REFERENCE = -3;
 
 
-	private List<List<Variant>> variants;	// The lists of variants for all alleles.
+	private List<VariantColumnList> variants;	// The lists of variants for all alleles.
 	private byte[][] display;				// The display policy bytes for all variants within all alleles (as array of bytes for memory usage).
 	private String genomeName;				// The name of the genome.
 	private List<VariantType> types;		// The list of variant type to handle.
+	private transient Chromosome loadedChromosome;	// The chromosome of the loaded region (lazy loading only).
+	private transient int loadedStart;				// Start of the loaded region on the meta genome (lazy loading only).
+	private transient int loadedStop;				// Stop of the loaded region on the meta genome (lazy loading only).
 
 
 	/**
@@ -88,12 +102,35 @@ public class VariantDisplayList implements Serializable {
 
 
 	/**
-	 * Generate the lists of variants
+	 * Generate the lists of variants.
+	 * When the variants are loaded lazily, the lists are emptied and will be loaded for the window displayed when the track is drawn.
 	 */
 	public void generateLists () {
+		if (ProjectManager.getInstance().getMultiGenomeProject().getFileContentManager().isLazy()) {
+			variants = new ArrayList<VariantColumnList>();
+			display = new byte[0][];
+			loadedChromosome = null;
+		} else {
+			VariantDisplayListBuilder builder = new VariantDisplayListBuilder();
+			variants = builder.getList(genomeName, types);
+			builder = null;
+		}
+	}
+
+
+	/**
+	 * Generate the lists of variants around a genome window.
+	 * The loaded region spreads over one window width on each side of the window.
+	 * @param genomeWindow a {@link GenomeWindow} (positions on the meta genome)
+	 */
+	public void generateLists (GenomeWindow genomeWindow) {
+		int[] region = getLoadedRegion(genomeWindow);
 		VariantDisplayListBuilder builder = new VariantDisplayListBuilder();
-		variants = builder.getList(genomeName, types);
+		variants = builder.getList(genomeName, types, genomeWindow.getChromosome(), region[2], region[3]);
 		builder = null;
+		loadedChromosome = genomeWindow.getChromosome();
+		loadedStart = region[0];
+		loadedStop = region[1];
 	}
 
 
@@ -114,50 +151,45 @@ public class VariantDisplayList implements Serializable {
 
 
 	/**
-	 * Recursive function. Returns the index where the value is found or -1 if the exact value is not found.
+	 * Returns the index where the value is found or -1 if the exact value is not found.
 	 * @param list
 	 * @param value	a position on the meta genome
 	 * @return the index where the start value of the window is found or -1 if the value is not found
 	 */
-	public int getIndex (List<Variant> list, int value) {
+	public int getIndex (VariantColumnList list, int value) {
+		if (list.size() == 0) {
+			return -1;
+		}
 		int index = getIndex(list, value, 0, list.size() - 1);
-		if (index >= 0) {
-			int start = list.get(index).getStart();
-			int stop = list.get(index).getStop();
-			if ((value >= start) && (value < stop)) {
-				return index;
-			}
+		if ((value >= list.getStart(index)) && (value < list.getStop(index))) {
+			return index;
 		}
 		return -1;
 	}
 
 
 	/**
-	 * Recursive function. Returns the index where the value is found
+	 * Returns the index where the value is found
 	 * or the index right after if the exact value is not found.
+	 * @param list			a list of variants (not empty)
 	 * @param value			value
 	 * @param indexStart	start index (in the data array)
 	 * @param indexStop		stop index (in the data array)
 	 * @return the index where the start value of the window is found or the index right after if the exact value is not found
 	 */
-	private int getIndex (List<Variant> list, int value, int indexStart, int indexStop) {
-		if (list.isEmpty()) {
-			return -1;
-		}
-		int middle = (indexStop - indexStart) / 2;
-		if (indexStart == indexStop) {
-			return indexStart;
-		} else {
-			int start = list.get(indexStart + middle).getStart();
-			int stop = list.get(indexStart + middle).getStop();
-			if ((value >= start) && (value < stop)) {
-				return indexStart + middle;
+	static int getIndex (VariantColumnList list, int value, int indexStart, int indexStop) {
+		while (indexStart != indexStop) {
+			int middle = indexStart + ((indexStop - indexStart) / 2);
+			int start = list.getStart(middle);
+			if ((value >= start) && (value < list.getStop(middle))) {
+				return middle;
 			} else if (value > start) {
-				return getIndex(list, value, indexStart + middle + 1, indexStop);
+				indexStart = middle + 1;
 			} else {
-				return getIndex(list, value, indexStart, indexStart + middle);
+				indexStop = middle;
 			}
 		}
+		return indexStart;
 	}
 
 
@@ -170,10 +202,42 @@ public class VariantDisplayList implements Serializable {
 	}
 
 
+	/**
+	 * @param genomeWindow a {@link GenomeWindow} (positions on the meta genome)
+	 * @return the region loaded around the window: its start and stop on the meta genome followed by its start and stop on the reference genome
+	 */
+	private static int[] getLoadedRegion (GenomeWindow genomeWindow) {
+		Chromosome chromosome = genomeWindow.getChromosome();
+		int margin = genomeWindow.getSize();
+		int metaStart = Math.max(0, genomeWindow.getStart() - margin);
+		int metaStop = genomeWindow.getStop() + margin;
+		int start = getReferencePosition(metaStart, chromosome);
+		int stop = getReferencePosition(metaStop, chromosome);
+		if (start < 0) {
+			start = 0;
+		}
+		if ((stop < 0) || (stop > chromosome.getLength())) {
+			stop = chromosome.getLength();
+		}
+		return new int[] {metaStart, metaStop, start, stop};
+	}
+
+
+	/**
+	 * @param metaGenomePosition a position on the meta genome
+	 * @param chromosome the chromosome of the position
+	 * @return the position on the reference genome
+	 */
+	private static int getReferencePosition (int metaGenomePosition, Chromosome chromosome) {
+		String referenceGenomeName = ProjectManager.getInstance().getAssembly().getDisplayName();
+		return ShiftCompute.getPosition(FormattedMultiGenomeName.META_GENOME_NAME, null, metaGenomePosition, chromosome, referenceGenomeName);
+	}
+
+
 	/**
 	 * @return the variants
 	 */
-	public List<List<Variant>> getVariants() {
+	public List<VariantColumnList> getVariants() {
 		return variants;
 	}
 
@@ -181,13 +245,18 @@ public class VariantDisplayList implements Serializable {
 	/**
 	 * @param alleleIndex			the index of an allele
 	 * @param metaGenomePosition	a meta genome position
-	 * @return the list of variants at the given allele including the given meta genome position, null if not found
+	 * @return the list of variants at the given allele including the given meta genome position, an empty list if not found
 	 */
 	public List<Variant> getVariantsInArea (int alleleIndex, int metaGenomePosition) {
 		List<Variant> result = new ArrayList<Variant>();
-		int index = getIndex(variants.get(alleleIndex), metaGenomePosition);
+		if (alleleIndex >= variants.size()) {
+			// the lists are empty when the variants are loaded lazily and the window is not loaded yet
+			return result;
+		}
+		VariantColumnList variantList = variants.get(alleleIndex);
+		int index = getIndex(variantList, metaGenomePosition);
 		if (index > -1) {
-			result.add(variants.get(alleleIndex).get(index));
+			result.add(variantList.get(index));
 			result.addAll(lookAfterIndex(alleleIndex, index, metaGenomePosition));
 			result.addAll(lookBeforeIndex(alleleIndex, index, metaGenomePosition));
 		}
@@ -211,12 +280,55 @@ public class VariantDisplayList implements Serializable {
 	private void initialyzeDisplay () {
 		display = new byte[variants.size()][];
 		for (int i = 0; i < variants.size(); i++) {
-			List<Variant> currentVariantList = variants.get(i);
-			display[i] = new byte[currentVariantList.size()];
+			display[i] = new byte[variants.get(i).size()];
 		}
 	}
 
 
+	/**
+	 * @param genomeWindow a {@link GenomeWindow}
+	 * @return true if the content of the files around the window is available and the lists can be generated without reading the files
+	 * (always true when variants are not loaded lazily)
+	 */
+	public static boolean isWindowCached (GenomeWindow genomeWindow) {
+		int[] region = getLoadedRegion(genomeWindow);
+		return ProjectManager.getInstance().getMultiGenomeProject().getFileContentManager().areContentsLoaded(genomeWindow.getChromosome(), region[2], region[3]);
+	}
+
+
+	/**
+	 * @param genomeWindow a {@link GenomeWindow}
+	 * @return true if the variants around the window can be loaded, false if the window is too large (always true when variants are not loaded lazily)
+	 */
+	public static boolean isWindowDisplayable (GenomeWindow genomeWindow) {
+		int[] region = getLoadedRegion(genomeWindow);
+		return ProjectManager.getInstance().getMultiGenomeProject().getFileContentManager().isRegionLoadable(genomeWindow.getChromosome(), region[2], region[3]);
+	}
+
+
+	/**
+	 * @param genomeWindow a {@link GenomeWindow}
+	 * @return true if the variants of the window are loaded, false otherwise (always true when variants are not loaded lazily)
+	 */
+	public boolean isWindowLoaded (GenomeWindow genomeWindow) {
+		if (!ProjectManager.getInstance().getMultiGenomeProject().getFileContentManager().isLazy()) {
+			return true;
+		}
+		return (loadedChromosome != null) && loadedChromosome.equals(genomeWindow.getChromosome()) && (genomeWindow.getStart() >= loadedStart) && (genomeWindow.getStop() <= loadedStop);
+	}
+
+
+	/**
+	 * Loads in the background the content of the files around a window
+	 * @param genomeWindow	a {@link GenomeWindow}
+	 * @param onLoaded		run from the loading thread when the loading is done (can be null)
+	 */
+	public static void loadWindow (GenomeWindow genomeWindow, Runnable onLoaded) {
+		int[] region = getLoadedRegion(genomeWindow);
+		ProjectManager.getInstance().getMultiGenomeProject().getFileContentManager().loadContents(genomeWindow.getChromosome(), region[2], region[3], onLoaded);
+	}
+
+
 	/**
 	 * Look for all {@link Variant} after a specific index (within a specific allele) which include a meta genome position.
 	 * @param alleleIndex			the index of the allele
@@ -228,13 +340,12 @@ public class VariantDisplayList implements Serializable {
 		List<Variant> result = new ArrayList<Variant>();
 		int nextIndex = index + 1;
 		boolean includePosition = true;
-		List<Variant> variantList = variants.get(alleleIndex);
+		VariantColumnList variantList = variants.get(alleleIndex);
 		int size = variantList.size();
 
 		while (includePosition && (nextIndex < size)) {
-			Variant current = variantList.get(nextIndex);
-			if ((metaGenomePosition >= current.getStart()) && (metaGenomePosition < current.getStop())) {
-				result.add(current);
+			if ((metaGenomePosition >= variantList.getStart(nextIndex)) && (metaGenomePosition < variantList.getStop(nextIndex))) {
+				result.add(variantList.get(nextIndex));
 				nextIndex++;
 			} else {
 				includePosition = false;
@@ -255,12 +366,11 @@ public class VariantDisplayList implements Serializable {
 		List<Variant> result = new ArrayList<Variant>();
 		int previousIndex = index - 1;
 		boolean includePosition = true;
-		List<Variant> variantList = variants.get(alleleIndex);
+		VariantColumnList variantList = variants.get(alleleIndex);
 
 		while (includePosition && (previousIndex > -1)) {
-			Variant current = variantList.get(previousIndex);
-			if ((metaGenomePosition >= current.getStart()) && (metaGenomePosition < current.getStop())) {
-				result.add(current);
+			if ((metaGenomePosition >= variantList.getStart(previousIndex)) && (metaGenomePosition < variantList.getStop(previousIndex))) {
+				result.add(variantList.get(previousIndex));
 				previousIndex--;
 			} else {
 				includePosition = false;
@@ -280,14 +390,13 @@ public class VariantDisplayList implements Serializable {
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		int savedVersion = in.readInt();
 		if (savedVersion == 0) { // after version 0 we don't load the variant list anymore, we regenerate it instead
-			variants = (List<List<Variant>>) in.readObject();
+			in.readObject();
 		}
 		display = (byte[][]) in.readObject();
 		genomeName = (String) in.readObject();
 		types = (List<VariantType>) in.readObject();
-		if (savedVersion > 0) { // regenerate the list instead of loading it
-			generateLists();
-		}
+		// when the variants are loaded lazily, the lists will be loaded for the window displayed when the track is drawn
+		generateLists();
 	}
 
 
@@ -310,17 +419,22 @@ public class VariantDisplayList implements Serializable {
 	private void updateDisplayForFilters (List<MGFilter> filters, boolean showFilter) {
 		MGFileContentManager contentManager = ProjectManager.getInstance().getMultiGenomeProject().getFileContentManager();
 		Chromosome currentChromosome = ProjectManager.getInstance().getProjectWindow().getGenomeWindow().getChromosome();
+		Map<MGChromosomeContent, VCFFile> files = new HashMap<MGChromosomeContent, VCFFile>();
 		for (int i = 0; i < variants.size(); i++) {
-			List<Variant> currentVariantList = variants.get(i);
+			VariantColumnList currentVariantList = variants.get(i);
 			for (int j = 0; j < currentVariantList.size(); j++) {
-				Variant currentVariant = currentVariantList.get(j);
+				MGChromosomeContent content = currentVariantList.getChromosomeContent(j);
+				VCFFile file = files.get(content);
+				if ((file == null) && !files.containsKey(content)) {
+					file = contentManager.getFile(currentChromosome, content);
+					files.put(content, file);
+				}
 				boolean valid = true;
-				VCFFile file = contentManager.getFile(currentChromosome, currentVariant.getChromosomeContent());
 				for (MGFilter filter: filters) {
 					if (filter instanceof VCFFilter) {
 						VCFFilter currentFilter = (VCFFilter) filter;
 						if (currentFilter.getVCFFile().equals(file)) {
-							valid = currentFilter.isVariantValid(currentVariant.getReferencePositionIndex());
+							valid = currentFilter.isVariantValid(content.getFirstLineIndex() + currentVariantList.getReferencePositionIndex(j));
 							if (!valid) {
 								break;
 							}
@@ -357,7 +471,7 @@ public class VariantDisplayList implements Serializable {
 			for (int i = 0; i < variantNumber; i++) {
 				boolean isFullReference = true;
 				for (int j = 0; j < alleleNumber; j++) {
-					if (!(variants.get(j).get(i) instanceof ReferenceVariant)) {
+					if (!variants.get(j).isReference(i)) {
 						isFullReference = false;
 						break;
 					}
@@ -30,6 +30,7 @@ import edu.yu.einstein.genplay.core.comparator.VariantComparator;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGChromosomeContent;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGChromosomeVariants;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGFileContentManager;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGLineContent;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.DeletionVariant;
@@ -41,12 +42,14 @@ import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
 import edu.yu.einstein.genplay.core.multiGenome.operation.synchronization.MGSynchronizer;
 import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
 import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCompute;
+import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftCursor;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.VariantType;
 
 /**
  * The {@link VariantDisplayListBuilder} builds all lists of {@link Variant} for all allele.
  * It is genome and {@link Chromosome} specific and gather information from all necessary {@link VCFFile}.
+ * The variants are stored in {@link VariantColumnList}: the homozygote references are added without creating {@link Variant} objects.
  * 
  * @author Nicolas Fourel
  * @version 0.1
@@ -57,11 +60,11 @@ public class VariantDisplayListBuilder {
 	private final String 				referenceGenomeName;	// The name of the reference genome.
 	private final String 				metaGenomeName;			// The name of the meta genome.
 
-	private List<List<Variant>> 	variants;					// The lists of variants.
+	private List<VariantColumnList> variants;					// The lists of variants.
 	private String 					genomeName;					// The name of the genome to process.
 	private List<VariantType> 		types;						// The list of variant types to handle.
-	private Chromosome 				chromosome;					// The chromosome to process.
 	private MGChromosomeContent 	currentContent;				// The current chromosome content (when processing only)
+	private ShiftCursor				shiftCursor;				// The cursor shifting the reference genome positions on the meta genome (when processing only)
 
 
 	/**
@@ -75,18 +78,16 @@ public class VariantDisplayListBuilder {
 
 
 	/**
-	 * Adds a list to another one
-	 * @param list01 list receiving the other list
-	 * @param list02 list containing the elements to add
+	 * Adds the lists of variants of a line to the lists of variants
+	 * @param list lists of variants of a line (one list per allele)
 	 */
-	private void addFromListToList (List<List<Variant>> list01, List<List<Variant>> list02) {
-		// Add missing lists
-		int add = list02.size() - list01.size();
-		for (int i = 0; i < add; i++) {
-			list01.add(new ArrayList<Variant>());
-		}
-		for (int i = 0; i < list02.size(); i++) {
-			list01.get(i).addAll(list02.get(i));
+	private void addVariants (List<List<Variant>> list) {
+		ensureAlleleNumber(list.size());
+		for (int i = 0; i < list.size(); i++) {
+			VariantColumnList currentList = variants.get(i);
+			for (Variant variant: list.get(i)) {
+				currentList.add(variant);
+			}
 		}
 	}
 
@@ -163,6 +164,17 @@ public class VariantDisplayListBuilder {
 	}
 
 
+	/**
+	 * Adds empty lists of variants until there is at least the given number of lists
+	 * @param alleleNumber a number of alleles
+	 */
+	private void ensureAlleleNumber (int alleleNumber) {
+		while (variants.size() < alleleNumber) {
+			variants.add(new VariantColumnList());
+		}
+	}
+
+
 	/**
 	 * Add the necessary references of all {@link Variant} of the list
 	 * @param list list of {@link Variant}
@@ -241,37 +253,17 @@ public class VariantDisplayListBuilder {
 	 * @return the dominant {@link Variant}, null if no {@link Variant}
 	 */
 	private Variant getCurrentDominantVariant (int positionindex) {
-		List<Variant> variants = currentContent.getVariants().getVariants(positionindex);
-		List<Variant> eligibleVariants = new ArrayList<Variant>();
-		for (Variant current: variants) {
+		MGChromosomeVariants contentVariants = currentContent.getVariants();
+		Variant dominantVariant = null;
+		for (int i = 0; i < currentContent.getMaxAlternativeNumber(); i++) {
+			Variant current = contentVariants.getVariant(i, positionindex);
 			if (types.contains(current.getType())) {
-				eligibleVariants.add(current);
-			}
-		}
-		return getDominantVariant(eligibleVariants);
-	}
-
-
-	/**
-	 * @param variants a list of {@link Variant}
-	 * @return the dominant {@link Variant} among a list of {@link Variant}, null if not found
-	 */
-	private Variant getDominantVariant (List<Variant> variants) {
-		if ((variants == null) || (variants.size() == 0)) {
-			return null;
-		}
-
-		if (variants.size() == 1) {
-			return variants.get(0);
-		}
-
-		Variant variant = variants.get(0);
-		for (int i = 1; i < variants.size(); i++) {
-			if (variants.get(i).isDominant(variant)) {
-				variant = variants.get(i);
+				if ((dominantVariant == null) || current.isDominant(dominantVariant)) {
+					dominantVariant = current;
+				}
 			}
 		}
-		return variant;
+		return dominantVariant;
 	}
 
 
@@ -289,52 +281,52 @@ public class VariantDisplayListBuilder {
 
 
 	/**
-	 * @param chromosomeContent the {@link MGChromosomeContent} giving the maximum number of alleles
-	 * @return an empty list of {@link Variant} according to the maximum number of alleles
+	 * @param genomeName the name of a genome
+	 * @param types a list of {@link VariantType}
+	 * @return the list of {@link Variant} for the current chromosome
 	 */
-	private List<List<Variant>> getEmptyVariantList (MGChromosomeContent chromosomeContent) {
-		int size = chromosomeContent.getMaxGenotypeNumber();
-		if (size < 2) {
-			size = 2;
-		}
-		List<List<Variant>> list = new ArrayList<List<Variant>>();
-		for (int i = 0; i < size; i++) {
-			list.add(new ArrayList<Variant>());
-		}
-		return list;
+	public List<VariantColumnList> getList (String genomeName, List<VariantType> types) {
+		return getList(genomeName, types, ProjectManager.getInstance().getProjectWindow().getGenomeWindow().getChromosome());
 	}
 
 
 	/**
 	 * @param genomeName the name of a genome
 	 * @param types a list of {@link VariantType}
-	 * @return the list of {@link Variant} for the current chromosome
+	 * @param chromosome a chromosome
+	 * @return the list of {@link Variant}
 	 */
-	public List<List<Variant>> getList (String genomeName, List<VariantType> types) {
-		return getList(genomeName, types, ProjectManager.getInstance().getProjectWindow().getGenomeWindow().getChromosome());
+	public List<VariantColumnList> getList (String genomeName, List<VariantType> types, Chromosome chromosome) {
+		return getList(genomeName, types, chromosome, 0, chromosome.getLength());
 	}
 
 
 	/**
+	 * Returns the lists of {@link Variant} of a region of a chromosome.
+	 * When the variants are loaded lazily, the lists contain the variants of the tiles including the region (see {@link MGFileContentManager#getContents(VCFFile, Chromosome, int, int)}),
+	 * otherwise they contain the variants of the whole chromosome.
 	 * @param genomeName the name of a genome
 	 * @param types a list of {@link VariantType}
 	 * @param chromosome a chromosome
+	 * @param start start of the region on the reference genome
+	 * @param stop stop of the region on the reference genome
 	 * @return the list of {@link Variant}
 	 */
-	public List<List<Variant>> getList (String genomeName, List<VariantType> types, Chromosome chromosome) {
-		variants = new ArrayList<List<Variant>>();
+	public List<VariantColumnList> getList (String genomeName, List<VariantType> types, Chromosome chromosome, int start, int stop) {
+		variants = new ArrayList<VariantColumnList>();
 		this.genomeName = genomeName;
 		this.types = types;
-		this.chromosome = chromosome;
+		shiftCursor = ShiftCompute.getCursor(referenceGenomeName, null, chromosome, metaGenomeName);
 
 		List<VCFFile> fileList = getValidFileList();
 		for (VCFFile file: fileList) {
-			currentContent = contentManager.getContent(file, chromosome);
-			List<List<Variant>> list = getVariantList();
-			addFromListToList(variants, list);
+			for (MGChromosomeContent content: contentManager.getContents(file, chromosome, start, stop)) {
+				currentContent = content;
+				addVariantList();
+			}
 		}
-		for (List<Variant> list: variants) {
-			Collections.sort(list, new VariantComparator());
+		for (VariantColumnList list: variants) {
+			list.sort();
 		}
 
 		return variants;
@@ -383,11 +375,11 @@ public class VariantDisplayListBuilder {
 
 
 	/**
-	 * Creates the list of {@link Variant}
-	 * @return the list of all {@link Variant} for all alleles
+	 * Adds the {@link Variant} of the current chromosome content to the lists of variants
 	 */
-	private List<List<Variant>> getVariantList () {
-		List<List<Variant>> result = getEmptyVariantList(currentContent);
+	private void addVariantList () {
+		int alleleNumber = Math.max(currentContent.getMaxGenotypeNumber(), 2);
+		ensureAlleleNumber(alleleNumber);
 
 		int lineNumber = currentContent.getSize();
 		MGLineContent line = new MGLineContent();
@@ -397,9 +389,9 @@ public class VariantDisplayListBuilder {
 			if (defineVariantType(line)) {
 				if (isHomozygoteReference(genotype)) {
 					Variant dominantVariant = getCurrentDominantVariant(i);
-					Variant reference = new ReferenceVariant(currentContent, i, dominantVariant.getStart(), dominantVariant.getStop(), getReferenceType(dominantVariant));
-					for (List<Variant> currentList: result) {
-						currentList.add(reference);
+					VariantType referenceType = getReferenceType(dominantVariant);
+					for (int j = 0; j < alleleNumber; j++) {
+						variants.get(j).add(currentContent, i, dominantVariant.getStart(), dominantVariant.getStop(), referenceType, -1);
 					}
 				} else {
 					byte[] correctedGenotype = getAdjustedGenotype(line);
@@ -409,7 +401,7 @@ public class VariantDisplayListBuilder {
 							Variant variant = null;
 							byte alternativeIndex = correctedGenotype[j];
 							if (alternativeIndex == MGSynchronizer.NO_CALL) {
-								int start = ShiftCompute.getPosition(referenceGenomeName, null, line.getReferenceGenomePosition(), chromosome, metaGenomeName);
+								int start = shiftCursor.getPosition(line.getReferenceGenomePosition());
 								variant  = new NoCallVariant(currentContent, i, start);
 							} else if (alternativeIndex >= 0) {
 								variant = currentContent.getVariants().getVariant(alternativeIndex, i);
@@ -421,12 +413,11 @@ public class VariantDisplayListBuilder {
 						list = fillWithReferences(list);
 						list = adjustVariants(list);
 
-						addFromListToList(result, list);
+						addVariants(list);
 					}
 				}
 			}
 		}
-		return result;
 	}
 
 
@@ -23,13 +23,13 @@
 package edu.yu.einstein.genplay.core.multiGenome.data.display;
 
 import java.util.Iterator;
-import java.util.List;
 
-import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.MixVariant;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
+import edu.yu.einstein.genplay.dataStructure.enums.VariantType;
 
 /**
  * The {@link VariantDisplayListIterator} iterates over a {@link VariantDisplayList} for a specific allele.
+ * The {@link Variant} at the current index is created once and returned until the iterator moves.
  * 
  * @author Nicolas Fourel
  * @version 0.1
@@ -37,10 +37,11 @@ import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
 public class VariantDisplayListIterator implements Iterator<Variant> {
 
 	private final VariantDisplayList 	displayList;			// The list of variant display.
-	private final List<Variant> 		variantList;			// The list of variant.
+	private final VariantColumnList		variantList;			// The list of variant.
 	private final byte[] 				display;				// The display policy of the variants.
 	private boolean 					displayDependant;		// When display dependant, the iterator does not stop on hidden variants.
 	private int 						currentIndex;			// The current index while iterating.
+	private Variant						currentVariant;			// The variant at the current index (created on demand).
 
 
 	/**
@@ -78,7 +79,7 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 	 */
 	public int getCurrentMetaGenomePosition () {
 		if (inBound()) {
-			return variantList.get(currentIndex).getStart();
+			return variantList.getStart(currentIndex);
 		}
 		return 0;
 	}
@@ -89,7 +90,10 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 	 */
 	public Variant getCurrentVariant () {
 		if (inBound() && isCurrentVariantVisible()) {
-			return variantList.get(currentIndex);
+			if (currentVariant == null) {
+				currentVariant = variantList.get(currentIndex);
+			}
+			return currentVariant;
 		}
 		return null;
 	}
@@ -103,45 +107,26 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 	}
 
 
-	/**
-	 * Recursive function. Returns the index where the value is found
-	 * or the index right after if the exact value is not found.
-	 * @param value			value
-	 * @param indexStart	start index (in the data array)
-	 * @param indexStop		stop index (in the data array)
-	 * @return the index where the start value of the window is found or the index right after if the exact value is not found
-	 */
-	private int getIndex (List<Variant> list, int value, int indexStart, int indexStop) {
-		int middle = (indexStop - indexStart) / 2;
-		if (indexStart == indexStop) {
-			return indexStart;
-		} else {
-			int start = list.get(indexStart + middle).getStart();
-			int stop = list.get(indexStart + middle).getStop();
-			if ((value >= start) && (value < stop)) {
-				return indexStart + middle;
-			} else if (value > start) {
-				return getIndex(list, value, indexStart + middle + 1, indexStop);
-			} else {
-				return getIndex(list, value, indexStart, indexStart + middle);
-			}
-		}
-	}
-
-
 	/**
 	 * @param index the index of a variant
 	 * @return the display policy of the current variant
 	 */
 	private byte getVariantDisplay (int index) {
-		Variant current = variantList.get(index);
-		if (current instanceof MixVariant) {
+		if (variantList.getType(index) == VariantType.MIX) {
 			return VariantDisplayList.SHOW;
 		}
 		return display[index];
 	}
 
 
+	/**
+	 * @return true if there is a visible {@link Variant} at the current index, false otherwise
+	 */
+	public boolean hasCurrentVariant () {
+		return inBound() && isCurrentVariantVisible();
+	}
+
+
 	/**
 	 * @return true if there is an element at the next position, false otherwise
 	 */
@@ -173,7 +158,7 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 		boolean found = false;
 		int index = currentIndex;
 		while (inBound(index) && !found) {
-			if ((variantList.get(index).getStart() > metaGenomePosition) && isVariantVisible(index)) {
+			if ((variantList.getStart(index) > metaGenomePosition) && isVariantVisible(index)) {
 				found = true;
 			}
 			index++;
@@ -190,7 +175,7 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 		boolean found = false;
 		int index = currentIndex;
 		while (inBound(index) && !found) {
-			if ((variantList.get(index).getStart() < metaGenomePosition) && isVariantVisible(index)) {
+			if ((variantList.getStart(index) < metaGenomePosition) && isVariantVisible(index)) {
 				found = true;
 			}
 			index--;
@@ -248,7 +233,7 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 		while (inBound(index) && !moved) {
 			if (isVariantVisible(index)) {
 				moved = true;
-				currentIndex = index;
+				setCurrentIndex(index);
 			}
 			index--;
 		}
@@ -264,7 +249,7 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 		while (inBound(index) && !moved) {
 			if (isVariantVisible(index)) {
 				moved = true;
-				currentIndex = index;
+				setCurrentIndex(index);
 			}
 			index++;
 		}
@@ -293,6 +278,17 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 	public void remove() {}
 
 
+	/**
+	 * @param index the current index to set
+	 */
+	private void setCurrentIndex (int index) {
+		if (index != currentIndex) {
+			currentIndex = index;
+			currentVariant = null;
+		}
+	}
+
+
 	/**
 	 * @param displayDependant the displayDependant to set
 	 */
@@ -302,16 +298,16 @@ public class VariantDisplayListIterator implements Iterator<Variant> {
 
 
 	/**
-	 * Recursive function. Seeks the index of the variant for the given position in order to set the current index.
+	 * Seeks the index of the variant for the given position in order to set the current index.
 	 * If no variant is at the position, the next variant is then selected.
 	 * @param position	a position on the meta genome
 	 */
 	public void setIteratorPosition (int position) {
 		int index = -1;
 		if (variantList.size() > 0) {
-			index = getIndex(variantList, position, 0, variantList.size() - 1);
+			index = VariantDisplayList.getIndex(variantList, position, 0, variantList.size() - 1);
 		}
-		currentIndex = index;
+		setCurrentIndex(index);
 	}
 
 }
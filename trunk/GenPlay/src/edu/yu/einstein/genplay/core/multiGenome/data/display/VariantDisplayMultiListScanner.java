@@ -182,13 +182,12 @@ public class VariantDisplayMultiListScanner {
 		int position = 0;
 		boolean firstIterator = true;
 		for (VariantDisplayListIterator iterator: iterators) {
-			Variant currentVariant = iterator.getCurrentVariant();
-			if (currentVariant != null) {
+			if (iterator.hasCurrentVariant()) {
 				if (firstIterator) {
-					position = currentVariant.getStart();
+					position = iterator.getCurrentMetaGenomePosition();
 					firstIterator = false;
 				} else {
-					position = Math.min(position, currentVariant.getStart());
+					position = Math.min(position, iterator.getCurrentMetaGenomePosition());
 				}
 			}
 		}
@@ -202,9 +201,8 @@ public class VariantDisplayMultiListScanner {
 	private int getCurrentHighestMetaGenomePosition () {
 		int position = 0;
 		for (VariantDisplayListIterator iterator: iterators) {
-			Variant currentVariant = iterator.getCurrentVariant();
-			if (currentVariant != null) {
-				position = Math.max(position, currentVariant.getStart());
+			if (iterator.hasCurrentVariant()) {
+				position = Math.max(position, iterator.getCurrentMetaGenomePosition());
 			}
 		}
 		return position;
@@ -217,9 +215,8 @@ public class VariantDisplayMultiListScanner {
 	public List<Variant> getCurrentVariants () {
 		List<Variant> result = new ArrayList<Variant>();
 		for (VariantDisplayListIterator iterator: iterators) {
-			Variant currentVariant = iterator.getCurrentVariant();
-			if ((currentVariant != null) && (currentVariant.getStart() == metaGenomePosition)) {
-				result.add(currentVariant);
+			if (iterator.hasCurrentVariant() && (iterator.getCurrentMetaGenomePosition() == metaGenomePosition)) {
+				result.add(iterator.getCurrentVariant());
 			}
 		}
 		return result;
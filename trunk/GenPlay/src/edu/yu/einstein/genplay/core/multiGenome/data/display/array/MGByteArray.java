@@ -52,8 +52,17 @@ public class MGByteArray implements Serializable {
 	 * Creates an instance of {@link MGByteArray}
 	 */
 	public MGByteArray() {
-		data = new byte[DEFAULT_SIZE];
-		size = DEFAULT_SIZE;
+		this(DEFAULT_SIZE);
+	}
+
+
+	/**
+	 * Creates an instance of {@link MGByteArray}
+	 * @param size size of the array
+	 */
+	public MGByteArray(int size) {
+		data = new byte[size];
+		this.size = size;
 	}
 
 
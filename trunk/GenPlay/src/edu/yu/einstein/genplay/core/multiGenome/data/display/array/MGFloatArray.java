@@ -48,8 +48,17 @@ public class MGFloatArray implements Serializable {
 	 * Creates an instance of {@link MGFloatArray}
 	 */
 	public MGFloatArray() {
-		data = new float[DEFAULT_SIZE];
-		size = DEFAULT_SIZE;
+		this(DEFAULT_SIZE);
+	}
+
+
+	/**
+	 * Creates an instance of {@link MGFloatArray}
+	 * @param size size of the array
+	 */
+	public MGFloatArray(int size) {
+		data = new float[size];
+		this.size = size;
 	}
 
 
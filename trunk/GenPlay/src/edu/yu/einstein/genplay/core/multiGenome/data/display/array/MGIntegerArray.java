@@ -54,6 +54,15 @@ public class MGIntegerArray implements Serializable {
 	}
 
 
+	/**
+	 * Creates an instance of {@link MGIntegerArray}
+	 * @param size size of the array
+	 */
+	public MGIntegerArray(int size) {
+		initialize(size);
+	}
+
+
 	/**
 	 * Recreates the arrays with the right size in order to optimize the memory usage.
 	 */
@@ -51,6 +51,8 @@ import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
  * - a list of {@link Variant}
  * 
  * Every line from the chromosome is represented in these arrays.
+ * A {@link MGChromosomeContent} can also represent only a part of the chromosome (see {@link MGContentTileCache}),
+ * its first line is then not the first line of the chromosome (see {@link #getFirstLineIndex()}).
  * The {@link Variant} stored are stored only once and it's here, a same {@link Variant} can be used for different display.
  * This way, a {@link Variant} will never be created more than once.
  * For display specific details, a {@link Variant} is encapsulated in a {@link VariantDisplay}.
@@ -62,8 +64,10 @@ public class MGChromosomeContent implements Iterable<MGLineContent>, Serializabl
 
 	/** Default serial version ID */
 	private static final long serialVersionUID = -8385957556240550523L;
-	private static final int  SAVED_FORMAT_VERSION_NUMBER = 0;		// saved format version
+	private static final int  SAVED_FORMAT_VERSION_NUMBER = 1;		// saved format version
 	private String	 						chromosomeName;			// The chromosome represented here.
+	private int 							firstLineIndex;			// The index of the first line of the content among the lines of the chromosome.
+	private transient int 					arraySize;				// The initial size of the arrays, 0 for the default size.
 	private MGIntegerArray 					positions;				// The array of reference genome positions.
 	private MGFloatArray 					scores;					// The array of scores.
 	private List<MGIntegerArray> 			alternatives;			// The list of alternatives.
@@ -77,15 +81,29 @@ public class MGChromosomeContent implements Iterable<MGLineContent>, Serializabl
 	 * @param genomeNames
 	 */
 	public MGChromosomeContent (String chromosome, List<String> genomeNames) {
+		this(chromosome, genomeNames, 0, 0);
+	}
+
+
+	/**
+	 * Constructor of {@link MGChromosomeContent} for a part of a chromosome
+	 * @param chromosome
+	 * @param genomeNames
+	 * @param lineNumber		the number of lines of the content (0 for the default size)
+	 * @param firstLineIndex	the index of the first line of the content among the lines of the chromosome
+	 */
+	public MGChromosomeContent (String chromosome, List<String> genomeNames, int lineNumber, int firstLineIndex) {
 		chromosomeName = chromosome;
-		positions = new MGIntegerArray();
-		scores = new MGFloatArray();
+		this.firstLineIndex = firstLineIndex;
+		arraySize = lineNumber;
+		positions = createIntegerArray();
+		scores = (arraySize > 0) ? new MGFloatArray(arraySize) : new MGFloatArray();
 		alternatives = new ArrayList<MGIntegerArray>();
-		alternatives.add(new MGIntegerArray());
+		alternatives.add(createIntegerArray());
 		genotypes = new HashMap<String, List<MGByteArray>>();
 		for (String genomeName: genomeNames) {
 			genotypes.put(genomeName, new ArrayList<MGByteArray>());
-			genotypes.get(genomeName).add(new MGByteArray());
+			genotypes.get(genomeName).add(createByteArray());
 		}
 		variants = null;
 	}
@@ -100,7 +118,7 @@ public class MGChromosomeContent implements Iterable<MGLineContent>, Serializabl
 	private void addAlternative (int alternativeIndex, int positionIndex, int alternative) {
 		int add = (alternativeIndex - alternatives.size()) + 1;
 		for (int i = 0; i < add; i++) {
-			alternatives.add(new MGIntegerArray());
+			alternatives.add(createIntegerArray());
 		}
 		alternatives.get(alternativeIndex).set(positionIndex, alternative);
 	}
@@ -116,7 +134,7 @@ public class MGChromosomeContent implements Iterable<MGLineContent>, Serializabl
 		for (int i = 0; i < genotype.length; i++) {
 			int add = (i - genotypes.get(genomeName).size()) + 1;
 			for (int j = 0; j < add; j++) {
-				genotypes.get(genomeName).add(new MGByteArray());
+				genotypes.get(genomeName).add(createByteArray());
 			}
 			genotypes.get(genomeName).get(i).set(positionIndex, genotype[i]);
 		}
@@ -162,6 +180,28 @@ public class MGChromosomeContent implements Iterable<MGLineContent>, Serializabl
 	}
 
 
+	/**
+	 * @return a new {@link MGByteArray} with the initial size of the arrays
+	 */
+	private MGByteArray createByteArray () {
+		if (arraySize > 0) {
+			return new MGByteArray(arraySize);
+		}
+		return new MGByteArray();
+	}
+
+
+	/**
+	 * @return a new {@link MGIntegerArray} with the initial size of the arrays
+	 */
+	private MGIntegerArray createIntegerArray () {
+		if (arraySize > 0) {
+			return new MGIntegerArray(arraySize);
+		}
+		return new MGIntegerArray();
+	}
+
+
 	/**
 	 * Generates the variants based on {@link MGChromosomeContent} information.
 	 */
@@ -208,6 +248,14 @@ public class MGChromosomeContent implements Iterable<MGLineContent>, Serializabl
 	}
 
 
+	/**
+	 * @return the index of the first line of the content among the lines of the chromosome (0 if the content represents the whole chromosome)
+	 */
+	public int getFirstLineIndex () {
+		return firstLineIndex;
+	}
+
+
 	/**
 	 * @param index index of the genotypes
 	 * @return the map of genotypes
@@ -380,8 +428,11 @@ public class MGChromosomeContent implements Iterable<MGLineContent>, Serializabl
 	 */
 	@SuppressWarnings("unchecked")
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-		in.readInt();
+		int savedVersion = in.readInt();
 		chromosomeName = (String) in.readObject();
+		if (savedVersion > 0) {
+			firstLineIndex = in.readInt();
+		}
 		positions = (MGIntegerArray) in.readObject();
 		scores = (MGFloatArray) in.readObject();
 		alternatives = (List<MGIntegerArray>) in.readObject();
@@ -425,6 +476,7 @@ public class MGChromosomeContent implements Iterable<MGLineContent>, Serializabl
 	private void writeObject(ObjectOutputStream out) throws IOException {
 		out.writeInt(SAVED_FORMAT_VERSION_NUMBER);
 		out.writeObject(chromosomeName);
+		out.writeInt(firstLineIndex);
 		out.writeObject(positions);
 		out.writeObject(scores);
 		out.writeObject(alternatives);
@@ -0,0 +1,341 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.data.display.content;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import edu.yu.einstein.genplay.core.manager.application.ConfigurationManager;
+import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFReader;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFChromosomeScanner;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScanner;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScannerReceiver;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.array.MGIntegerArray;
+import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
+import edu.yu.einstein.genplay.core.multiGenome.utils.VCFLineUtility;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.exception.ExceptionManager;
+
+
+/**
+ * Cache of the parts of the chromosomes of the {@link VCFFile} loaded on demand when the variants are loaded lazily.
+ * <br/>
+ * A chromosome is split in tiles of {@link #TILE_LENGTH} bases of the reference genome.
+ * A tile is a {@link MGChromosomeContent} created from a region query on the indexed {@link VCFFile},
+ * with the same lines as the scan of the synchronization.
+ * The least recently used tiles are removed when the cache is full (see {@link ConfigurationManager#getVariantTileCache()}).
+ * <br/>
+ * The tiles of a file are read with a single {@link VCFReader} kept until the cache is cleared.
+ * A tile is loaded without locking the cache so the tiles already loaded can be retrieved while a tile is being loaded.
+ * @author Julien Lajugie
+ */
+public class MGContentTileCache {
+
+	/**
+	 * Key of a tile: a file, a chromosome and the index of the tile in the chromosome
+	 * @author Julien Lajugie
+	 */
+	private static class TileKey {
+
+		private final VCFFile 	file;				// file of the tile
+		private final String 	chromosomeName;		// chromosome of the tile
+		private final int 		tileIndex;			// index of the tile in the chromosome
+
+
+		/**
+		 * Creates an instance of {@link TileKey}
+		 * @param file file of the tile
+		 * @param chromosomeName chromosome of the tile
+		 * @param tileIndex index of the tile in the chromosome
+		 */
+		private TileKey(VCFFile file, String chromosomeName, int tileIndex) {
+			this.file = file;
+			this.chromosomeName = chromosomeName;
+			this.tileIndex = tileIndex;
+		}
+
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (obj.getClass() != getClass())) {
+				return false;
+			}
+			TileKey other = (TileKey) obj;
+			return file.equals(other.file) && chromosomeName.equals(other.chromosomeName) && (tileIndex == other.tileIndex);
+		}
+
+
+		@Override
+		public int hashCode() {
+			int result = (31 * file.hashCode()) + chromosomeName.hashCode();
+			return (31 * result) + tileIndex;
+		}
+	}
+
+
+	/**
+	 * Receives the lines of the region of a tile and converts them into {@link MGLineContent}
+	 * @author Julien Lajugie
+	 */
+	private static class TileScan implements VCFScannerReceiver {
+
+		private final Chromosome 			chromosome;		// chromosome of the tile
+		private final int 					start;			// first position of the tile
+		private final int 					stop;			// position after the last position of the tile
+		private final List<String> 			genomeNames;	// project genomes present in the file
+		private final List<MGLineContent> 	lines;			// lines of the tile
+
+
+		/**
+		 * Creates an instance of {@link TileScan}
+		 * @param chromosome chromosome of the tile
+		 * @param start first position of the tile
+		 * @param stop position after the last position of the tile
+		 * @param genomeNames project genomes present in the file
+		 */
+		private TileScan(Chromosome chromosome, int start, int stop, List<String> genomeNames) {
+			this.chromosome = chromosome;
+			this.start = start;
+			this.stop = stop;
+			this.genomeNames = genomeNames;
+			lines = new ArrayList<MGLineContent>();
+		}
+
+
+		@Override
+		public void processLine(VCFLine line) {
+			int referencePosition = line.getReferencePosition();
+			// the region query also returns the lines starting before the tile
+			if (!line.isOnChromosome(chromosome) || (referencePosition < start) || (referencePosition >= stop)) {
+				return;
+			}
+			MGLineContent position = new MGLineContent();
+			position.setReferenceGenomePosition(referencePosition);
+			position.setScore(line.getQuality());
+			position.setAlternatives(line.getAlternativesLength());
+			Map<String, byte[]> genotypes = new HashMap<String, byte[]>();
+			for (String genomeName: genomeNames) {
+				String genotype = line.getGenotype(FormattedMultiGenomeName.getRawName(genomeName));
+				String[] currentAltIndexes = genotype.replace('|', '/').split("/");
+				byte[] byteGenotypeArray = new byte[currentAltIndexes.length];
+				for (int i = 0; i < currentAltIndexes.length; i++) {
+					// no calls and references have the same codes as in the synchronization
+					byteGenotypeArray[i] = (byte) VCFLineUtility.getAlleleIndex(currentAltIndexes[i]);
+				}
+				genotypes.put(genomeName, byteGenotypeArray);
+			}
+			position.setGenotypes(genotypes);
+			lines.add(position);
+		}
+	}
+
+
+	/** Number of bases of the reference genome in a tile */
+	public static final int TILE_LENGTH = 65536;
+
+
+	/**
+	 * @param referencePosition a position on the reference genome
+	 * @return the index of the tile containing the position
+	 */
+	public static int getTileIndex (int referencePosition) {
+		return Math.max(0, referencePosition) / TILE_LENGTH;
+	}
+
+
+	/**
+	 * @param positions	sorted positions
+	 * @param value		a value
+	 * @return the number of positions smaller than the value
+	 */
+	private static int countLower (MGIntegerArray positions, int value) {
+		int low = 0;
+		int high = positions.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (positions.get(middle) < value) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+
+	private final LinkedHashMap<TileKey, MGChromosomeContent> 	tiles;		// tiles in the cache, from the least to the most recently used
+	private final Map<MGChromosomeContent, VCFFile> 			tileFiles;	// files of the tiles, kept as long as the tiles are used
+	private final Map<VCFFile, VCFReader> 						readers;	// readers of the files, a reader is used by one tile loading at a time
+
+
+	/**
+	 * Creates an instance of {@link MGContentTileCache}
+	 */
+	public MGContentTileCache () {
+		tiles = new LinkedHashMap<TileKey, MGChromosomeContent>(16, 0.75f, true);
+		tileFiles = new WeakHashMap<MGChromosomeContent, VCFFile>();
+		readers = new HashMap<VCFFile, VCFReader>();
+	}
+
+
+	/**
+	 * Removes all the tiles from the cache and closes the readers of the files
+	 */
+	public synchronized void clear () {
+		tiles.clear();
+		for (VCFReader reader: readers.values()) {
+			synchronized (reader) {
+				try {
+					reader.close();
+				} catch (IOException e) {
+					ExceptionManager.getInstance().caughtException(e);
+				}
+			}
+		}
+		readers.clear();
+	}
+
+
+	/**
+	 * @param tile a tile returned by the cache
+	 * @return the {@link VCFFile} of the tile, null if the content is not a tile
+	 */
+	public synchronized VCFFile getFile (MGChromosomeContent tile) {
+		return tileFiles.get(tile);
+	}
+
+
+	/**
+	 * @param file			a {@link VCFFile}
+	 * @param chromosome	a {@link Chromosome}
+	 * @param tileIndex		the index of a tile in the chromosome
+	 * @param linePositions	the positions of all the lines of the chromosome in the file, null if not available
+	 * @return the tile, loaded from the file if it is not in the cache
+	 * @throws IOException
+	 */
+	public MGChromosomeContent getTile (VCFFile file, Chromosome chromosome, int tileIndex, MGIntegerArray linePositions) throws IOException {
+		TileKey key = new TileKey(file, chromosome.getName(), tileIndex);
+		synchronized (this) {
+			MGChromosomeContent tile = tiles.get(key);
+			if (tile != null) {
+				return tile;
+			}
+		}
+		MGChromosomeContent tile = loadTile(file, chromosome, tileIndex, linePositions);
+		synchronized (this) {
+			MGChromosomeContent loadedTile = tiles.get(key);
+			if (loadedTile != null) {
+				// the tile has been loaded by another thread in the meantime
+				return loadedTile;
+			}
+			tiles.put(key, tile);
+			tileFiles.put(tile, file);
+			int maxTileNumber = ConfigurationManager.getInstance().getVariantTileCache();
+			while (tiles.size() > maxTileNumber) {
+				tiles.remove(tiles.keySet().iterator().next());
+			}
+		}
+		return tile;
+	}
+
+
+	/**
+	 * @param file	a {@link VCFFile}
+	 * @return the reader of the tiles of the file
+	 * @throws IOException
+	 */
+	private synchronized VCFReader getReader (VCFFile file) throws IOException {
+		VCFReader reader = readers.get(file);
+		if (reader == null) {
+			reader = file.createReader();
+			readers.put(file, reader);
+		}
+		return reader;
+	}
+
+
+	/**
+	 * @param file			a {@link VCFFile}
+	 * @param chromosome	a {@link Chromosome}
+	 * @param tileIndex		the index of a tile in the chromosome
+	 * @return true if the tile is in the cache (the order of the least recently used tiles is not modified)
+	 */
+	public synchronized boolean isTileLoaded (VCFFile file, Chromosome chromosome, int tileIndex) {
+		return tiles.containsKey(new TileKey(file, chromosome.getName(), tileIndex));
+	}
+
+
+	/**
+	 * Loads a tile from its file
+	 * @param file			a {@link VCFFile}
+	 * @param chromosome	a {@link Chromosome}
+	 * @param tileIndex		the index of a tile in the chromosome
+	 * @param linePositions	the positions of all the lines of the chromosome in the file, null if not available
+	 * @return the tile
+	 * @throws IOException
+	 */
+	private MGChromosomeContent loadTile (VCFFile file, Chromosome chromosome, int tileIndex, MGIntegerArray linePositions) throws IOException {
+		int start = tileIndex * TILE_LENGTH;
+		int stop = start + TILE_LENGTH;
+		// same genomes as the scan of the synchronization
+		List<String> projectGenomeNames = ProjectManager.getInstance().getMultiGenomeProject().getGenomeNames();
+		List<String> genomeNames = new ArrayList<String>();
+		for (String genomeName: file.getHeader().getGenomeNames()) {
+			if (projectGenomeNames.contains(genomeName)) {
+				genomeNames.add(genomeName);
+			}
+		}
+
+		TileScan tileScan = new TileScan(chromosome, start, stop, genomeNames);
+		VCFReader reader = getReader(file);
+		synchronized (reader) {
+			VCFScanner scanner = new VCFChromosomeScanner(tileScan, file, chromosome, reader, start, stop);
+			scanner.setGenomes(projectGenomeNames);
+			scanner.compute();
+		}
+
+		int firstLineIndex = 0;
+		if (linePositions != null) {
+			firstLineIndex = countLower(linePositions, start);
+		}
+		List<MGLineContent> lines = tileScan.lines;
+		MGChromosomeContent tile = new MGChromosomeContent(chromosome.getName(), file.getHeader().getGenomeNames(), Math.max(1, lines.size()), firstLineIndex);
+		for (int i = 0; i < lines.size(); i++) {
+			tile.addPosition(i, lines.get(i));
+		}
+		tile.compact();
+		tile.generateVariants();
+		return tile;
+	}
+}
@@ -30,15 +30,25 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import edu.yu.einstein.genplay.core.manager.application.ConfigurationManager;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.array.MGIntegerArray;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.exception.ExceptionManager;
+import edu.yu.einstein.genplay.util.DaemonThreadFactory;
 
 /**
  * A {@link MGFileContentManager} represents the content of all {@link VCFFile} organized by {@link Chromosome} and {@link MGChromosomeContent}.
  * 
+ * When the variants are loaded lazily (see {@link ConfigurationManager#isLazyVariantLoading()}), the content of the chromosomes is not kept.
+ * Only the positions of the lines are kept and the content is loaded by tiles when it is requested (see {@link MGContentTileCache}).
+ * The tiles can be loaded in the background (see {@link #loadContents(Chromosome, int, int, Runnable)}) so the display is not blocked.
+ * 
  * @author Nicolas Fourel
  * @version 0.1
  */
@@ -46,8 +56,14 @@ public class MGFileContentManager implements Serializable {
 
 	/** Default serial version ID */
 	private static final long serialVersionUID = 4837189232012683529L;
-	private static final int  SAVED_FORMAT_VERSION_NUMBER = 0;		// saved format version
+	private static final int  SAVED_FORMAT_VERSION_NUMBER = 1;		// saved format version
 	private Map<VCFFile, Map<String, MGChromosomeContent>> lists;		// Maps to store all data from all files.
+	private Map<VCFFile, Map<String, MGIntegerArray>> linePositions;	// Maps to store the positions of the lines of all files when the variants are loaded lazily.
+	private boolean lazy;												// True if the variants are loaded lazily.
+	private transient MGContentTileCache tileCache;						// The tiles loaded when the variants are loaded lazily.
+
+	/** Loads the tiles in the background, one region after another */
+	private static final ExecutorService TILE_LOADER = Executors.newSingleThreadExecutor(new DaemonThreadFactory("Variant Tile Loader"));
 
 
 	/**
@@ -59,6 +75,9 @@ public class MGFileContentManager implements Serializable {
 		for (VCFFile file: files) {
 			lists.put(file, new HashMap<String, MGChromosomeContent>());
 		}
+		linePositions = new HashMap<VCFFile, Map<String, MGIntegerArray>>();
+		lazy = ConfigurationManager.getInstance().isLazyVariantLoading();
+		tileCache = new MGContentTileCache();
 	}
 
 
@@ -73,6 +92,11 @@ public class MGFileContentManager implements Serializable {
 				lists.get(file).get(chromosome).compact();
 			}
 		}
+		for (Map<String, MGIntegerArray> filePositions: linePositions.values()) {
+			for (MGIntegerArray positions: filePositions.values()) {
+				positions.compact();
+			}
+		}
 	}
 
 
@@ -92,6 +116,106 @@ public class MGFileContentManager implements Serializable {
 	}
 
 
+	/**
+	 * Returns the contents of a file for a region of a chromosome.
+	 * When the variants are loaded lazily, the contents are the tiles of the region, otherwise it is the content of the whole chromosome.
+	 * @param file			a vcf file
+	 * @param chromosome	a chromosome
+	 * @param start			start of the region on the reference genome
+	 * @param stop			stop of the region on the reference genome
+	 * @return the {@link MGChromosomeContent} including the region, in the order of the chromosome
+	 */
+	public List<MGChromosomeContent> getContents (VCFFile file, Chromosome chromosome, int start, int stop) {
+		List<MGChromosomeContent> contents = new ArrayList<MGChromosomeContent>();
+		if (!lazy) {
+			contents.add(getContent(file, chromosome));
+		} else {
+			MGIntegerArray positions = null;
+			synchronized (this) {
+				if (linePositions.get(file) != null) {
+					positions = linePositions.get(file).get(chromosome.getName());
+				}
+			}
+			int firstTile = MGContentTileCache.getTileIndex(start);
+			int lastTile = MGContentTileCache.getTileIndex(Math.min(stop, chromosome.getLength()));
+			try {
+				for (int i = firstTile; i <= lastTile; i++) {
+					contents.add(tileCache.getTile(file, chromosome, i, positions));
+				}
+			} catch (IOException e) {
+				ExceptionManager.getInstance().caughtException(e);
+			}
+		}
+		return contents;
+	}
+
+
+	/**
+	 * @param chromosome	a chromosome
+	 * @param start			start of the region on the reference genome
+	 * @param stop			stop of the region on the reference genome
+	 * @return true if the contents of all the files for the region are available without reading the files
+	 */
+	public boolean areContentsLoaded (Chromosome chromosome, int start, int stop) {
+		if (!lazy) {
+			return true;
+		}
+		int firstTile = MGContentTileCache.getTileIndex(start);
+		int lastTile = MGContentTileCache.getTileIndex(Math.min(stop, chromosome.getLength()));
+		for (VCFFile file: getFileList()) {
+			for (int i = firstTile; i <= lastTile; i++) {
+				if (!tileCache.isTileLoaded(file, chromosome, i)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * @param chromosome	a chromosome
+	 * @param start			start of the region on the reference genome
+	 * @param stop			stop of the region on the reference genome
+	 * @return true if the contents of all the files for the region can be loaded together.
+	 * When the variants are loaded lazily, the tiles of the region must fit in the cache (see {@link ConfigurationManager#getVariantTileCache()}).
+	 */
+	public boolean isRegionLoadable (Chromosome chromosome, int start, int stop) {
+		if (!lazy) {
+			return true;
+		}
+		int firstTile = MGContentTileCache.getTileIndex(start);
+		int lastTile = MGContentTileCache.getTileIndex(Math.min(stop, chromosome.getLength()));
+		long tileCount = (long) ((lastTile - firstTile) + 1) * getFileList().size();
+		return tileCount <= ConfigurationManager.getInstance().getVariantTileCache();
+	}
+
+
+	/**
+	 * Loads in the background the contents of all the files for a region of a chromosome.
+	 * @param chromosome	a chromosome
+	 * @param start			start of the region on the reference genome
+	 * @param stop			stop of the region on the reference genome
+	 * @param onLoaded		run when the loading is done, successfully or not, from the loading thread (can be null)
+	 */
+	public void loadContents (final Chromosome chromosome, final int start, final int stop, final Runnable onLoaded) {
+		TILE_LOADER.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					for (VCFFile file: getFileList()) {
+						getContents(file, chromosome, start, stop);
+					}
+				} finally {
+					if (onLoaded != null) {
+						onLoaded.run();
+					}
+				}
+			}
+		});
+	}
+
+
 	/**
 	 * @param chromosome	a {@link Chromosome}
 	 * @param chromosomeContent a {@link MGChromosomeContent}
@@ -104,7 +228,7 @@ public class MGFileContentManager implements Serializable {
 				return file;
 			}
 		}
-		return null;
+		return tileCache.getFile(chromosomeContent);
 	}
 
 
@@ -116,6 +240,31 @@ public class MGFileContentManager implements Serializable {
 	}
 
 
+	/**
+	 * @param file			a vcf file
+	 * @param chromosome	a chromosome
+	 * @return the array of the positions of the lines of the chromosome in the file, used when the variants are loaded lazily
+	 */
+	public MGIntegerArray getLinePositions (VCFFile file, Chromosome chromosome) {
+		if (linePositions.get(file) == null) {
+			linePositions.put(file, new HashMap<String, MGIntegerArray>());
+		}
+		if (linePositions.get(file).get(chromosome.getName()) == null) {
+			linePositions.get(file).put(chromosome.getName(), new MGIntegerArray());
+		}
+		return linePositions.get(file).get(chromosome.getName());
+	}
+
+
+	/**
+	 * @return true if the variants are loaded lazily: only the positions of the lines are kept,
+	 * the content is loaded by tiles when it is requested
+	 */
+	public boolean isLazy () {
+		return lazy;
+	}
+
+
 	/**
 	 * Method used for unserialization
 	 * @param in
@@ -124,8 +273,16 @@ public class MGFileContentManager implements Serializable {
 	 */
 	@SuppressWarnings("unchecked")
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-		in.readInt();
+		int savedVersion = in.readInt();
 		lists = (Map<VCFFile, Map<String, MGChromosomeContent>>) in.readObject();
+		if (savedVersion > 0) {
+			linePositions = (Map<VCFFile, Map<String, MGIntegerArray>>) in.readObject();
+			lazy = in.readBoolean();
+		} else {
+			linePositions = new HashMap<VCFFile, Map<String, MGIntegerArray>>();
+			lazy = false;
+		}
+		tileCache = new MGContentTileCache();
 	}
 
 
@@ -183,6 +340,8 @@ public class MGFileContentManager implements Serializable {
 	private void writeObject(ObjectOutputStream out) throws IOException {
 		out.writeInt(SAVED_FORMAT_VERSION_NUMBER);
 		out.writeObject(lists);
+		out.writeObject(linePositions);
+		out.writeBoolean(lazy);
 	}
 
 }
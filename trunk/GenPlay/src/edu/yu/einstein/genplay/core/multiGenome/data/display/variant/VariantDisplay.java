@@ -26,13 +26,17 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 
+import edu.yu.einstein.genplay.core.multiGenome.data.display.VariantColumnList;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.VariantDisplayList;
 import edu.yu.einstein.genplay.dataStructure.enums.AlleleType;
+import edu.yu.einstein.genplay.dataStructure.enums.VariantType;
 
 /**
  * A {@link VariantDisplay} is exclusively for display purposes,
  * it contains the minimum amount of information to retrieve quickly and safely its specific display information.
  * A {@link Variant} itself can be involved in different layers/tracks but its way to display it can also be different every time.
+ * When created from an index of a {@link VariantDisplayList}, the {@link Variant} is only created when {@link #getVariant()} is called,
+ * the other getters read the columns of the list.
  * 
  * @author Nicolas Fourel
  * @version 0.1
@@ -57,7 +61,7 @@ public class VariantDisplay implements Serializable {
 	private void writeObject(java.io.ObjectOutputStream out) throws IOException {
 		out.writeInt(SAVED_FORMAT_VERSION_NUMBER);
 		out.writeObject(displayList);
-		out.writeObject(variant);
+		out.writeObject(getVariant());
 		out.writeInt(allele);
 		out.writeInt(index);
 	}
@@ -92,14 +96,112 @@ public class VariantDisplay implements Serializable {
 	}
 
 
+	/**
+	 * Constructor of {@link VariantDisplay}
+	 * @param displayList the {@link VariantDisplayList}
+	 * @param allele	the index on which allele the {@link Variant} is
+	 * @param index	the index of the {@link Variant} within its own {@link VariantDisplayList}
+	 */
+	public VariantDisplay (VariantDisplayList displayList, int allele, int index) {
+		this(displayList, null, allele, index);
+	}
+
+
+	/**
+	 * @return the columns of the {@link VariantDisplayList} containing the {@link Variant}, null if the {@link Variant} is not in a list
+	 */
+	private VariantColumnList getColumns () {
+		if ((displayList != null) && (index >= 0)) {
+			return displayList.getVariants().get(allele);
+		}
+		return null;
+	}
+
+
 	/**
 	 * @return the {@link Variant}
 	 */
 	public Variant getVariant () {
+		if (variant == null) {
+			variant = getColumns().get(index);
+		}
 		return variant;
 	}
 
 
+	/**
+	 * @return the start position of the {@link Variant} on the meta genome
+	 */
+	public int getStart () {
+		VariantColumnList columns = getColumns();
+		if (columns != null) {
+			return columns.getStart(index);
+		}
+		return variant.getStart();
+	}
+
+
+	/**
+	 * @return the stop position of the {@link Variant} on the meta genome
+	 */
+	public int getStop () {
+		VariantColumnList columns = getColumns();
+		if (columns != null) {
+			return columns.getStop(index);
+		}
+		return variant.getStop();
+	}
+
+
+	/**
+	 * @return the {@link VariantType} of the {@link Variant}
+	 */
+	public VariantType getType () {
+		VariantColumnList columns = getColumns();
+		if (columns != null) {
+			return columns.getType(index);
+		}
+		return variant.getType();
+	}
+
+
+	/**
+	 * @return the score of the {@link Variant}
+	 */
+	public float getScore () {
+		VariantColumnList columns = getColumns();
+		if (columns != null) {
+			return columns.getScore(index);
+		}
+		return variant.getScore();
+	}
+
+
+	/**
+	 * @return true if the {@link Variant} is a reference, false otherwise
+	 */
+	public boolean isReference () {
+		VariantColumnList columns = getColumns();
+		if (columns != null) {
+			return columns.isReference(index);
+		}
+		return variant instanceof ReferenceVariant;
+	}
+
+
+	/**
+	 * @param variant a {@link Variant}
+	 * @return true if the given {@link Variant} is the {@link Variant} of the {@link VariantDisplay}, false otherwise
+	 */
+	public boolean isVariant (Variant variant) {
+		VariantColumnList columns = getColumns();
+		if (columns != null) {
+			return columns.isVariant(index, variant);
+		}
+		return this.variant.equals(variant);
+	}
+
+
 	/**
 	 * @return the display information of the {@link VariantDisplay}
 	 */
@@ -134,6 +236,7 @@ public class VariantDisplay implements Serializable {
 	 * @return the sequence of nucleotide for the variant
 	 */
 	public String getVariantSequence() {
+		Variant variant = getVariant();
 		if ((variant instanceof InsertionVariant) || (variant instanceof SNPVariant)) {
 			return variant.getVariantSequence(getGenomeName(), AlleleType.getAlleleType(allele));
 		} else {
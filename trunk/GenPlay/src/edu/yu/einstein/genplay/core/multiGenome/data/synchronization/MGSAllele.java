@@ -32,6 +32,7 @@ import java.util.List;
 
 import edu.yu.einstein.genplay.core.comparator.MGOffsetComparator;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
+import edu.yu.einstein.genplay.core.multiGenome.utils.ShiftTable;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.offsetList.IntArrayAsOffsetList;
 
 
@@ -45,6 +46,7 @@ public class MGSAllele implements Serializable {
 	private static final long serialVersionUID = -3160689645132714945L;
 	private static final int  		SAVED_FORMAT_VERSION_NUMBER = 0;		// saved format version
 	private List<List<MGSOffset>> 	offsetList;								// List of offset organized by chromosome
+	private transient volatile ShiftTable[] shiftTables;					// Translation tables built from the offset lists, organized by chromosome
 
 
 	/**
@@ -67,6 +69,7 @@ public class MGSAllele implements Serializable {
 		for (int i = 0; i < projectChromosomeSize; i++) {
 			((IntArrayAsOffsetList)offsetList.get(i)).compact();
 		}
+		shiftTables = null;
 	}
 
 
@@ -78,6 +81,27 @@ public class MGSAllele implements Serializable {
 	}
 
 
+	/**
+	 * The table is built the first time it is requested and must not be requested
+	 * before the end of the synchronization.
+	 * @param chromosomeIndex index of a chromosome of the project
+	 * @return the {@link ShiftTable} of the chromosome
+	 */
+	public ShiftTable getShiftTable (int chromosomeIndex) {
+		ShiftTable[] tables = shiftTables;
+		if (tables == null) {
+			tables = new ShiftTable[offsetList.size()];
+			shiftTables = tables;
+		}
+		ShiftTable table = tables[chromosomeIndex];
+		if (table == null) {
+			table = new ShiftTable(offsetList.get(chromosomeIndex));
+			tables[chromosomeIndex] = table;
+		}
+		return table;
+	}
+
+
 	/**
 	 * Method used for unserialization
 	 * @param in
@@ -96,6 +120,7 @@ public class MGSAllele implements Serializable {
 	 */
 	public void setOffsetList(List<List<MGSOffset>> offsetList) {
 		this.offsetList = offsetList;
+		shiftTables = null;
 	}
 
 
@@ -128,6 +153,7 @@ public class MGSAllele implements Serializable {
 		for (int i = 0; i < chromosomeListSize; i++) {
 			Collections.sort(offsetList.get(i), comparator);
 		}
+		shiftTables = null;
 	}
 
 
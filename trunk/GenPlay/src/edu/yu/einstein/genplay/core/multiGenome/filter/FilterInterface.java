@@ -22,7 +22,12 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.multiGenome.filter;
 
+import java.util.BitSet;
+import java.util.List;
+
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFChromosomeColumns;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFColumnKey;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
 
 /**
@@ -40,6 +45,12 @@ public interface FilterInterface {
 	public boolean equals(Object obj);
 
 
+	/**
+	 * @return the keys of the VCF columns required to evaluate the filter on VCF columns
+	 */
+	public List<VCFColumnKey> getColumnKeys ();
+
+
 	/**
 	 * @return a description of the filter
 	 */
@@ -81,6 +92,14 @@ public interface FilterInterface {
 	public boolean isValid (VCFLine line);
 
 
+	/**
+	 * Checks which lines of VCF columns are valid according to the filter
+	 * @param columns the VCF columns (must contain the columns returned by {@link #getColumnKeys()})
+	 * @return a bit set where the bits of the valid lines are set
+	 */
+	public BitSet isValid (VCFChromosomeColumns columns);
+
+
 	/**
 	 * Gives a string for display use of the filter
 	 * @return a string
@@ -26,10 +26,11 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.BitSet;
 import java.util.List;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFChromosomeColumns;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
 import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
@@ -88,16 +89,18 @@ public class VCFFilter extends MGFilter implements Serializable {
 
 	/**
 	 * Analyzes lines from VCF file in order to determine if variation pass the filter.
-	 * @param results list of VCF lines delimited by columns (must contains the column of the filter)
+	 * @param columns columns of the VCF lines of the current chromosome (must contains the columns of the filter)
 	 */
-	public void generateFilter (List<VCFLine> results) {
-		vcfFile.initializePositionList(ProjectManager.getInstance().getProjectWindow().getGenomeWindow().getChromosome(), results);
-		if (results != null) {
-			booleanList = new PrimitiveList<Boolean>(Boolean.class, vcfFile.getPositionList().size());
-			for (VCFLine currentVcfLine: results) {
-				boolean valid = filter.isValid(currentVcfLine);
-				booleanList.add(valid);
+	public void generateFilter (VCFChromosomeColumns columns) {
+		if (columns != null) {
+			vcfFile.initializePositionList(columns.getChromosome(), columns.getPositions());
+			BitSet validLines = filter.isValid(columns);
+			booleanList = new PrimitiveList<Boolean>(Boolean.class);
+			for (int i = 0; i < columns.size(); i++) {
+				booleanList.add(validLines.get(i));
 			}
+		} else {
+			vcfFile.initializePositionList(ProjectManager.getInstance().getProjectWindow().getGenomeWindow().getChromosome(), null);
 		}
 	}
 
@@ -26,9 +26,12 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.BitSet;
 import java.util.List;
 
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFChromosomeColumns;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFColumnKey;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFHeaderType.VCFHeaderType;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.Variant;
 import edu.yu.einstein.genplay.core.multiGenome.filter.utils.FilterUtility;
@@ -185,6 +188,12 @@ public class GenotypeIDFilter implements IDFilterInterface, Serializable {
 	}
 
 
+	@Override
+	public BitSet isValid(VCFChromosomeColumns columns) {
+		return utility.isValid(this, columns);
+	}
+
+
 	@Override
 	public boolean isValid(Variant variant) {
 		return false;
@@ -197,6 +206,12 @@ public class GenotypeIDFilter implements IDFilterInterface, Serializable {
 	}
 
 
+	@Override
+	public List<VCFColumnKey> getColumnKeys() {
+		return utility.getColumnKeys(this);
+	}
+
+
 	@Override
 	public VCFColumnName getColumnName() {
 		return header.getColumnCategory();
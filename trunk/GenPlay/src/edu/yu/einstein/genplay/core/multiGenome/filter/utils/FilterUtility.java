@@ -22,9 +22,16 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.multiGenome.filter.utils;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFChromosomeColumns;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFColumn;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFColumn.VCFColumnKey;
 import edu.yu.einstein.genplay.core.multiGenome.filter.VCFID.AltFilter;
 import edu.yu.einstein.genplay.core.multiGenome.filter.VCFID.FilterFilter;
 import edu.yu.einstein.genplay.core.multiGenome.filter.VCFID.FlagIDFilter;
@@ -47,6 +54,74 @@ import edu.yu.einstein.genplay.util.Utils;
 public abstract class FilterUtility {
 
 
+	/**
+	 * @param filter	the filter
+	 * @return			the keys of the VCF columns required to evaluate the filter
+	 */
+	public List<VCFColumnKey> getColumnKeys (IDFilterInterface filter) {
+		List<VCFColumnKey> keys = new ArrayList<VCFColumnKey>();
+		if (filter.getColumnName() == VCFColumnName.FORMAT) {
+			for (String genomeName: filter.getGenomeNames()) {
+				String rawName = FormattedMultiGenomeName.getRawName(genomeName);
+				keys.add(new VCFColumnKey(VCFColumnName.FORMAT, filter.getHeaderType().getId(), rawName));
+			}
+		} else {
+			keys.add(new VCFColumnKey(filter.getColumnName()));
+		}
+		return keys;
+	}
+
+
+	/**
+	 * The method to test all the lines of VCF columns with a specific filter.
+	 * The result is the same as calling {@link #isValid(IDFilterInterface, VCFLine)} on each line
+	 * but the filter is only tested once per distinct value of the columns.
+	 * @param filter	the filter
+	 * @param columns	the VCF columns (must contain the columns returned by {@link #getColumnKeys(IDFilterInterface)})
+	 * @return			a bit set where the bits of the lines verifying the filter are set
+	 */
+	public BitSet isValid(IDFilterInterface filter, VCFChromosomeColumns columns) {
+		List<VCFColumnKey> keys = getColumnKeys(filter);
+		VCFColumn[] filterColumns = new VCFColumn[keys.size()];
+		for (int i = 0; i < filterColumns.length; i++) {
+			filterColumns[i] = columns.getColumn(keys.get(i));
+		}
+
+		if (filter.getColumnName() == VCFColumnName.FORMAT) {
+			if (filterColumns.length > 1) {
+				FormatFilterOperatorType operator = filter.getOperator();
+
+				if (operator == FormatFilterOperatorType.AND) {
+					BitSet result = passColumnTest(filter, filterColumns[0], true);
+					for (int i = 1; i < filterColumns.length; i++) {
+						result.and(passColumnTest(filter, filterColumns[i], true));
+					}
+					return result;
+				} else if (operator == FormatFilterOperatorType.OR) {
+					BitSet result = passColumnTest(filter, filterColumns[0], true);
+					for (int i = 1; i < filterColumns.length; i++) {
+						result.or(passColumnTest(filter, filterColumns[i], true));
+					}
+					return result;
+				} else if (operator == FormatFilterOperatorType.SUM) {
+					return passAggregateColumnTest(filter, filterColumns, false, columns.size());
+				} else if (operator == FormatFilterOperatorType.MEAN) {
+					return passAggregateColumnTest(filter, filterColumns, true, columns.size());
+				}
+
+				System.err.println("StringUtility.isValid() no operator found");
+			} else if (filterColumns.length == 1) {
+				// If the value is missing, the ID field has probably not been found.
+				return passColumnTest(filter, filterColumns[0], false);
+			}
+
+			return new BitSet(columns.size());
+		}
+
+		return passColumnTest(filter, filterColumns[0], true);
+	}
+
+
 	/**
 	 * The method to use to test a VCF line with a specific filter
 	 * @param filter	the filter
@@ -93,6 +168,78 @@ public abstract class FilterUtility {
 	}
 
 
+	/**
+	 * Algorithm for SUM and MEAN operators on VCF columns
+	 * @param filter	the filter
+	 * @param columns	the columns of the genomes
+	 * @param isMean	true for the MEAN operator, false for the SUM operator
+	 * @param size		the number of lines of the columns
+	 * @return			a bit set where the bits of the lines verifying the filter are set
+	 */
+	private BitSet passAggregateColumnTest (IDFilterInterface filter, VCFColumn[] columns, boolean isMean, int size) {
+		float[] aggregates = new float[size];
+		for (VCFColumn column: columns) {
+			// values are parsed once per distinct value of the column
+			String[] dictionary = column.getDictionary();
+			Float[] floatDictionary = new Float[dictionary.length];
+			for (int i = 0; i < dictionary.length; i++) {
+				floatDictionary[i] = toFloat(dictionary[i]);
+			}
+			int[] codes = column.getCodes();
+			for (int i = 0; i < size; i++) {
+				if ((codes[i] != VCFColumn.MISSING_VALUE) && (floatDictionary[codes[i]] != null)) {
+					aggregates[i] += floatDictionary[codes[i]];
+				}
+			}
+		}
+
+		BitSet result = new BitSet(size);
+		Map<Float, Boolean> testedValues = new HashMap<Float, Boolean>();
+		for (int i = 0; i < size; i++) {
+			Float value = aggregates[i];
+			if (isMean) {
+				value /= columns.length;
+			}
+			Boolean isValid = testedValues.get(value);
+			if (isValid == null) {
+				isValid = passTest(filter, value.toString());
+				testedValues.put(value, isValid);
+			}
+			if (isValid) {
+				result.set(i);
+			}
+		}
+		return result;
+	}
+
+
+	/**
+	 * Tests each distinct value of a VCF column with a filter
+	 * @param filter				the filter
+	 * @param column				the column
+	 * @param testMissingValues		true if the missing values are tested with the filter, false if they never pass the filter
+	 * @return						a bit set where the bits of the lines verifying the filter are set
+	 */
+	private BitSet passColumnTest (IDFilterInterface filter, VCFColumn column, boolean testMissingValues) {
+		String[] dictionary = column.getDictionary();
+		boolean[] validValues = new boolean[dictionary.length];
+		for (int i = 0; i < dictionary.length; i++) {
+			validValues[i] = passTest(filter, dictionary[i]);
+		}
+		boolean isMissingValueValid = testMissingValues && column.hasMissingValues() && passTest(filter, null);
+
+		int[] codes = column.getCodes();
+		BitSet result = new BitSet(codes.length);
+		for (int i = 0; i < codes.length; i++) {
+			int code = codes[i];
+			if ((code == VCFColumn.MISSING_VALUE) ? isMissingValueValid : validValues[code]) {
+				result.set(i);
+			}
+		}
+		return result;
+	}
+
+
 	/**
 	 * Algorithm for AND operator
 	 * @param filter	the filter
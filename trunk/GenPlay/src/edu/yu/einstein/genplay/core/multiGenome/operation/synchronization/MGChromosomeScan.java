@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.operation.synchronization;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.yu.einstein.genplay.core.manager.project.MultiGenomeProject;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFReader;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFChromosomeScanner;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScanner;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScannerReceiver;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFStatistics.VCFFileFullStatistic;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFStatistics.VCFFileStatistics;
+import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFStatistics.VCFSampleStatistics;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.array.MGIntegerArray;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGChromosomeContent;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGFileContentManager;
+import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGLineContent;
+import edu.yu.einstein.genplay.core.multiGenome.data.synchronization.MGSGenome;
+import edu.yu.einstein.genplay.core.multiGenome.data.synchronization.MGSOffset;
+import edu.yu.einstein.genplay.core.multiGenome.filter.MGFilter;
+import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
+import edu.yu.einstein.genplay.core.multiGenome.utils.VCFLineUtility;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.enums.VariantType;
+
+
+/**
+ * Scan of one chromosome of one VCF file for the {@link MGSynchronizer}.
+ * <br/>
+ * The positions of the chromosome are directly inserted in the {@link MGFileContentManager} since no other scan uses
+ * the same file and chromosome. The other synchronization data (offsets, statistics and variant types) are shared between
+ * the scans, so they are buffered and must be merged with {@link #merge()} once the scan is done.
+ * Merging the scans in the order of the files gives the same data as a sequential scan of the files.
+ * When the variants are loaded lazily (see {@link MGFileContentManager#isLazy()}) only the positions of the lines are inserted.
+ * @author Julien Lajugie
+ */
+class MGChromosomeScan implements VCFScannerReceiver {
+
+	private final MultiGenomeProject 				multiGenomeProject;	// the multi genome project
+	private final VCFFile 							vcfFile;			// the file to scan
+	private final Chromosome 						chromosome;			// the chromosome to scan
+	private final int 								chromosomeIndex;	// index of the chromosome in the project
+	private final List<String> 						currentGenomes;		// project genomes present in the file
+	private final VCFFileFullStatistic 				statistics;			// statistics of the lines scanned
+	private final Map<String, List<VariantType>> 	variantTypes;		// variant types found for each genome
+	private final Map<String, List<List<MGSOffset>>>alleleOffsets;		// offsets found for each allele of each genome
+	private final List<MGSOffset> 					referenceOffsets;	// insertions to add to the reference genome
+	private MGChromosomeContent 					content;			// content of the chromosome in the file
+	private MGIntegerArray 							linePositions;		// positions of the lines of the chromosome in the file (when the variants are loaded lazily)
+	private int 									positionIndex;		// index of the next position in the content
+
+
+	/**
+	 * Creates an instance of {@link MGChromosomeScan}
+	 * @param multiGenomeProject the multi genome project
+	 * @param vcfFile the file to scan
+	 * @param chromosome the chromosome to scan
+	 * @param chromosomeIndex index of the chromosome in the project
+	 * @param currentGenomes project genomes present in the file
+	 */
+	MGChromosomeScan(MultiGenomeProject multiGenomeProject, VCFFile vcfFile, Chromosome chromosome, int chromosomeIndex, List<String> currentGenomes) {
+		this.multiGenomeProject = multiGenomeProject;
+		this.vcfFile = vcfFile;
+		this.chromosome = chromosome;
+		this.chromosomeIndex = chromosomeIndex;
+		this.currentGenomes = currentGenomes;
+		statistics = new VCFFileFullStatistic();
+		for (String genomeName: currentGenomes) {
+			statistics.addGenomeName(genomeName);
+		}
+		variantTypes = new LinkedHashMap<String, List<VariantType>>();
+		alleleOffsets = new HashMap<String, List<List<MGSOffset>>>();
+		referenceOffsets = new ArrayList<MGSOffset>();
+		content = null;
+		linePositions = null;
+		positionIndex = 0;
+	}
+
+
+	/**
+	 * Adds a type of variant to the types found for a genome if it is not already present.
+	 * @param genomeName	the name of the genome
+	 * @param variantType	the type of variant
+	 */
+	private void addVariantType (String genomeName, VariantType variantType) {
+		if (!variantTypes.containsKey(genomeName)) {
+			variantTypes.put(genomeName, new ArrayList<VariantType>());
+		}
+		if (!variantTypes.get(genomeName).contains(variantType)) {
+			variantTypes.get(genomeName).add(variantType);
+		}
+	}
+
+
+	/**
+	 * @param offsets list of offsets of each allele of a genome
+	 * @param alleleIndex index of an allele
+	 * @return the list of offsets of the specified allele
+	 */
+	private List<MGSOffset> getAlleleOffsets(List<List<MGSOffset>> offsets, int alleleIndex) {
+		while (offsets.size() <= alleleIndex) {
+			offsets.add(null);
+		}
+		if (offsets.get(alleleIndex) == null) {
+			offsets.set(alleleIndex, new ArrayList<MGSOffset>());
+		}
+		return offsets.get(alleleIndex);
+	}
+
+
+	/**
+	 * @param alternative ALT field (or part of it)
+	 * @return true if the given alternative is coded as an SV
+	 */
+	private boolean isStructuralVariant (String alternative) {
+		if (alternative.charAt(0) == '<') {
+			return true;
+		}
+		return false;
+	}
+
+
+	/**
+	 * Defines if a variant is heterozygote according to its genotype.
+	 * @param firstAlleleNumber		number related to the "first" allele
+	 * @param secondAlleleNumber	number related to the "second" allele
+	 * @return	true if the variant is heterozygote, false otherwise
+	 */
+	private boolean isVariantHeterozygote (int firstAlleleNumber, int secondAlleleNumber) {
+		if (firstAlleleNumber != secondAlleleNumber) {
+			if ((firstAlleleNumber >= 0) || (secondAlleleNumber >= 0)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Defines if a variant is homozygote according to its genotype.
+	 * @param firstAlleleNumber		number related to the "first" allele
+	 * @param secondAlleleNumber	number related to the "second" allele
+	 * @return	true if the variant is homozygote, false otherwise
+	 */
+	private boolean isVariantHomozygote (int firstAlleleNumber, int secondAlleleNumber) {
+		if ((firstAlleleNumber == secondAlleleNumber) && (firstAlleleNumber >= 0)) {
+			return true;
+		}
+		return false;
+	}
+
+
+	/**
+	 * Merges the synchronization data buffered during the scan into the data of the project and of the file.
+	 * Must be called by one thread at a time, in the order of the files.
+	 */
+	void merge() {
+		for (String genomeName: currentGenomes) {
+			List<List<MGSOffset>> offsets = alleleOffsets.get(genomeName);
+			if (offsets != null) {
+				MGSGenome genome = multiGenomeProject.getMultiGenome().getGenomeInformation(genomeName);
+				for (int i = 0; i < offsets.size(); i++) {
+					if (offsets.get(i) != null) {
+						genome.getAllele(i).getOffsetList().get(chromosomeIndex).addAll(offsets.get(i));
+					}
+				}
+			}
+		}
+		multiGenomeProject.getMultiGenome().getReferenceGenome().getAllele().getOffsetList().get(chromosomeIndex).addAll(referenceOffsets);
+		for (String genomeName: variantTypes.keySet()) {
+			for (VariantType variantType: variantTypes.get(genomeName)) {
+				vcfFile.addVariantType(genomeName, variantType);
+			}
+		}
+		vcfFile.getStatistics().merge(statistics);
+	}
+
+
+	@Override
+	public void processLine(VCFLine line) {
+		// Set global information
+		if (!line.isOnChromosome(chromosome)) {
+			// the line belongs to the scan of another chromosome
+			return;
+		}
+
+		int referencePosition = line.getReferencePosition();								// get the reference genome position (POS field)
+
+		updateFileStatistics(statistics, line.getAlternativesTypes(), line.getAlternatives());
+
+		// Set position information (only the position is kept when the variants are loaded lazily)
+		MGFileContentManager contentManager = multiGenomeProject.getFileContentManager();
+		boolean isLazy = contentManager.isLazy();
+		MGLineContent position = null;
+		Map<String, byte[]> genotypes = null;
+		if (!isLazy) {
+			position = new MGLineContent();
+			position.setReferenceGenomePosition(referencePosition);
+			position.setScore(line.getQuality());
+			position.setAlternatives(line.getAlternativesLength());
+			genotypes = new HashMap<String, byte[]>();
+		}
+
+		// Start genome scanning
+		for (String genomeName: currentGenomes) {															// loop on every genome raw name
+			String genomeRawName = FormattedMultiGenomeName.getRawName(genomeName);
+			String genotype = line.getGenotype(genomeRawName);											// get the related format value, split it (colon separated) into an array, get the first value: the genotype
+
+			genotype = genotype.replace('|', '/');
+			String[] currentAltIndexes = genotype.split("/");
+			byte[] byteGenotypeArray = new byte[currentAltIndexes.length];
+			for (int i = 0; i < currentAltIndexes.length; i++) {
+				int currentAltIndex = VCFLineUtility.getAlleleIndex(currentAltIndexes[i]);
+
+				switch (currentAltIndex) {
+				case MGSynchronizer.NO_CALL:
+					byteGenotypeArray[i] = MGSynchronizer.NO_CALL;
+					break;
+				case MGSynchronizer.REFERENCE:
+					byteGenotypeArray[i] = MGSynchronizer.REFERENCE;
+					break;
+				default:
+					byteGenotypeArray[i] = (byte) currentAltIndex;
+					int alternativeLength = line.getAlternativesLength()[currentAltIndex];				// we retrieve its length
+					VariantType variantType = line.getAlternativesTypes()[currentAltIndex];				// get the type of variant according to the length of the variation
+					updateVariationSampleStatistics(statistics.getSampleStatistics(genomeName), variantType, line.getAlternatives()[currentAltIndex]);
+					addVariantType(genomeName, variantType);											// notice the reader of the variant type
+
+					if (variantType != VariantType.SNPS) {
+						if (!alleleOffsets.containsKey(genomeName)) {
+							alleleOffsets.put(genomeName, new ArrayList<List<MGSOffset>>());
+						}
+						getAlleleOffsets(alleleOffsets.get(genomeName), i).add(new MGSOffset(referencePosition, alternativeLength));
+
+						if (variantType == VariantType.INSERTION) {
+							referenceOffsets.add(new MGSOffset(referencePosition, alternativeLength));			// add the offset to the reference genome allele if it is an insertion
+						}
+					}
+					break;
+				}
+			}
+
+			updateGenotypeSampleStatistics(statistics.getSampleStatistics(genomeName), line.getAlternativesTypes(), byteGenotypeArray);
+			if (!isLazy) {
+				genotypes.put(genomeName, byteGenotypeArray);
+			}
+		}
+
+		// Finish position creation
+		if (isLazy) {
+			if (linePositions == null) {
+				synchronized (contentManager) {
+					linePositions = contentManager.getLinePositions(vcfFile, chromosome);
+				}
+			}
+			linePositions.set(positionIndex, referencePosition);
+		} else {
+			if (content == null) {
+				synchronized (contentManager) {
+					content = contentManager.getContent(vcfFile, chromosome);
+				}
+			}
+			position.setGenotypes(genotypes);
+			content.addPosition(positionIndex, position);
+		}
+		positionIndex++;
+	}
+
+
+	/**
+	 * Scans the chromosome of the file
+	 * @param genomes		genomes to take into account while scanning
+	 * @param variations	variations to take into account while scanning
+	 * @param filters		filters to apply while scanning
+	 * @throws IOException
+	 */
+	void scan(List<String> genomes, List<VariantType> variations, List<MGFilter> filters) throws IOException {
+		// each scan uses its own reader so the chromosomes of a file can be scanned concurrently
+		VCFReader reader = vcfFile.createReader();
+		try {
+			VCFScanner scanner = new VCFChromosomeScanner(this, vcfFile, chromosome, reader);
+			scanner.setGenomes(genomes);
+			scanner.setVariations(variations);
+			scanner.setFilters(filters);
+			scanner.compute();
+		} finally {
+			reader.close();
+		}
+	}
+
+
+	/**
+	 * Updates statistics related to the file
+	 * @param statistic		file statistics
+	 * @param variantTypes	variant type array
+	 * @param alternatives	alternatives array
+	 */
+	private void updateFileStatistics (VCFFileStatistics statistic, VariantType[] variantTypes, String[] alternatives) {
+		statistic.incrementNumberOfLines();
+		for (int i = 0; i < variantTypes.length; i++) {
+			if (variantTypes[i] == VariantType.SNPS) {
+				statistic.incrementNumberOfSNPs();
+			} else if (variantTypes[i] == VariantType.INSERTION) {
+				if (isStructuralVariant(alternatives[i])) {
+					statistic.incrementNumberOfLongInsertions();
+				} else {
+					statistic.incrementNumberOfShortInsertions();
+				}
+			} else if (variantTypes[i] == VariantType.DELETION) {
+				if (isStructuralVariant(alternatives[i])) {
+					statistic.incrementNumberOfLongDeletions();
+				} else {
+					statistic.incrementNumberOfShortDeletions();
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * @param statistic				sample statistics
+	 * @param variantTypes			array of variant types
+	 * @param firstAlleleNumber		number of the first allele
+	 * @param secondAlleleNumber	number of the second allele
+	 */
+	private void updateGenotypeSampleStatistics (VCFSampleStatistics statistic, VariantType[] variantTypes, byte[] alleleIndexes) {
+		boolean hemizygote = false;
+		boolean homozygote = false;
+		boolean heterozygote = false;
+		if (alleleIndexes.length > 0) {
+			if (alleleIndexes.length == 1) {
+				hemizygote = true;
+			} else {
+				homozygote = isVariantHomozygote(alleleIndexes[0], alleleIndexes[1]);
+				heterozygote = isVariantHeterozygote(alleleIndexes[0], alleleIndexes[1]);
+			}
+
+			for (VariantType variantType: variantTypes) {
+				if (homozygote) {
+					if (alleleIndexes[0] > -1) {
+						if (variantType == VariantType.SNPS) {
+							statistic.incrementNumberOfHomozygoteSNPs();
+						} else if (variantType == VariantType.INSERTION) {
+							statistic.incrementNumberOfHomozygoteInsertions();
+						} else if (variantType == VariantType.DELETION) {
+							statistic.incrementNumberOfHomozygoteDeletions();
+						}
+					}
+				} else if (heterozygote) {
+					if (variantType == VariantType.SNPS) {
+						statistic.incrementNumberOfHeterozygoteSNPs();
+					} else if (variantType == VariantType.INSERTION) {
+						statistic.incrementNumberOfHeterozygoteInsertions();
+					} else if (variantType == VariantType.DELETION) {
+						statistic.incrementNumberOfHeterozygoteDeletions();
+					}
+				} else if (hemizygote) {
+					if (variantType == VariantType.SNPS) {
+						statistic.incrementNumberOfHemizygoteSNPs();
+					} else if (variantType == VariantType.INSERTION) {
+						statistic.incrementNumberOfHemizygoteInsertions();
+					} else if (variantType == VariantType.DELETION) {
+						statistic.incrementNumberOfHemizygoteDeletions();
+					}
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Updates statistics related to the sample
+	 * @param statistic		sample statistics
+	 * @param variantType	variant type
+	 * @param alternative	alternative
+	 */
+	private void updateVariationSampleStatistics (VCFSampleStatistics statistic, VariantType variantType, String alternative) {
+		if (variantType == VariantType.SNPS) {
+			statistic.incrementNumberOfSNPs();
+		} else if (variantType == VariantType.INSERTION) {
+			if (isStructuralVariant(alternative)) {
+				statistic.incrementNumberOfLongInsertions();
+			} else {
+				statistic.incrementNumberOfShortInsertions();
+			}
+		} else if (variantType == VariantType.DELETION) {
+			if (isStructuralVariant(alternative)) {
+				statistic.incrementNumberOfLongDeletions();
+			} else {
+				statistic.incrementNumberOfShortDeletions();
+			}
+		}
+	}
+}
@@ -27,40 +27,35 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
 import edu.yu.einstein.genplay.core.manager.project.MultiGenomeProject;
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFLine;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFGenomeScanner;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScanner;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFScanner.VCFScannerReceiver;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFStatistics.VCFFileStatistics;
-import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFStatistics.VCFSampleStatistics;
-import edu.yu.einstein.genplay.core.multiGenome.data.display.content.MGLineContent;
 import edu.yu.einstein.genplay.core.multiGenome.data.synchronization.MGSAllele;
 import edu.yu.einstein.genplay.core.multiGenome.data.synchronization.MGSGenome;
 import edu.yu.einstein.genplay.core.multiGenome.data.synchronization.MGSOffset;
 import edu.yu.einstein.genplay.core.multiGenome.filter.MGFilter;
-import edu.yu.einstein.genplay.core.multiGenome.utils.FormattedMultiGenomeName;
-import edu.yu.einstein.genplay.core.multiGenome.utils.VCFLineUtility;
-import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.enums.VariantType;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.offsetList.IntArrayAsOffsetList;
 
 /**
+ * Synchronizes the genomes of a multi-genome project.
+ * The files are scanned one task per file and per chromosome and the synchronization
+ * of the offsets runs one task per allele, all the tasks running in the {@link OperationPool}.
+ * The results are merged in a deterministic order so they are the same as with a sequential processing.
  * @author Nicolas Fourel
  * @version 0.1
  */
-public class MGSynchronizer implements VCFScannerReceiver, Serializable {
+public class MGSynchronizer implements Serializable {
 
 	/** Default serial version ID */
 	private static final long serialVersionUID = -6135675382773268961L;
-	private static final int  SAVED_FORMAT_VERSION_NUMBER = 0;		// saved format version
+	private static final int  SAVED_FORMAT_VERSION_NUMBER = 1;		// saved format version
 	/** Index for reference */
 	public final static int REFERENCE = -1;
 	/** Index for no call */
@@ -70,11 +65,7 @@ public class MGSynchronizer implements VCFScannerReceiver, Serializable {
 	private final MultiGenomeProject multiGenomeProject;
 
 	// Attributes used for the synchronization
-	private Map<Chromosome, Integer> chromosomeIndexes;
 	private List<List<MGSOffset>> referenceOffsetList;
-	private VCFFile currentFile;
-	private VCFFileStatistics currentStatistics;
-	private List<String> currentGenomes;
 
 
 	/**
@@ -170,48 +161,6 @@ public class MGSynchronizer implements VCFScannerReceiver, Serializable {
 	}
 
 
-	/**
-	 * @param alternative ALT field (or part of it)
-	 * @return true if the given alternative is coded as an SV
-	 */
-	private boolean isStructuralVariant (String alternative) {
-		if (alternative.charAt(0) == '<') {
-			return true;
-		}
-		return false;
-	}
-
-
-	/**
-	 * Defines if a variant is heterozygote according to its genotype.
-	 * @param firstAlleleNumber		number related to the "first" allele
-	 * @param secondAlleleNumber	number related to the "second" allele
-	 * @return	true if the variant is heterozygote, false otherwise
-	 */
-	private boolean isVariantHeterozygote (int firstAlleleNumber, int secondAlleleNumber) {
-		if (firstAlleleNumber != secondAlleleNumber) {
-			if ((firstAlleleNumber >= 0) || (secondAlleleNumber >= 0)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
-
-	/**
-	 * Defines if a variant is homozygote according to its genotype.
-	 * @param firstAlleleNumber		number related to the "first" allele
-	 * @param secondAlleleNumber	number related to the "second" allele
-	 * @return	true if the variant is homozygote, false otherwise
-	 */
-	private boolean isVariantHomozygote (int firstAlleleNumber, int secondAlleleNumber) {
-		if ((firstAlleleNumber == secondAlleleNumber) && (firstAlleleNumber >= 0)) {
-			return true;
-		}
-		return false;
-	}
-
-
 	/**
 	 * Performs the synchronization for every genome of the project.
 	 * The process is separated on 3 levels:
@@ -219,8 +168,10 @@ public class MGSynchronizer implements VCFScannerReceiver, Serializable {
 	 * - alleles
 	 * - chromosomes
 	 * (Makes the reading easier)
+	 * @throws ExecutionException
+	 * @throws InterruptedException
 	 */
-	public void performPositionSynchronization () {
+	public void performPositionSynchronization () throws InterruptedException, ExecutionException {
 		referenceOffsetList = multiGenomeProject.getMultiGenome().getReferenceGenome().getAllele().getOffsetList();
 		synchronizeToGenomesLevel();
 		multiGenomeProject.getMultiGenome().getReferenceGenome().synchronizePosition();
@@ -229,100 +180,45 @@ public class MGSynchronizer implements VCFScannerReceiver, Serializable {
 
 	/**
 	 * Processes all files and insert required synchronization data into memory.
+	 * Each chromosome of each file is scanned in a separate task.
 	 * @param genomes
 	 * @param variations
 	 * @param filters
 	 * @throws IOException
+	 * @throws ExecutionException
+	 * @throws InterruptedException
 	 */
-	public void processFiles (List<String> genomes, List<VariantType> variations, List<MGFilter> filters) throws IOException {
+	public void processFiles (final List<String> genomes, final List<VariantType> variations, final List<MGFilter> filters) throws IOException, InterruptedException, ExecutionException {
 		List<VCFFile> VCFFileList = multiGenomeProject.getAllVCFFiles();													// get all vcf readers
+		ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
 
+		// one scan per file and per chromosome, in the order of the files
+		final List<MGChromosomeScan> scans = new ArrayList<MGChromosomeScan>();
+		List<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
 		for (VCFFile vcfFile: VCFFileList) {
-			chromosomeIndexes = new HashMap<Chromosome, Integer>();
-			currentFile = vcfFile;
-			currentStatistics = vcfFile.getStatistics();
-			currentGenomes = getRequiredGenomeNamesFromAReader(vcfFile);
-			VCFScanner scanner = new VCFGenomeScanner(this, vcfFile);
-			scanner.setGenomes(genomes);
-			scanner.setVariations(variations);
-			scanner.setFilters(filters);
-			scanner.compute();
-			currentStatistics.processStatistics();
-		}
-		multiGenomeProject.getFileContentManager().compact();
-	}
-
-
-	@Override
-	public void processLine(VCFLine line) {
-		// Set global information
-		Chromosome chromosome = line.getChromosome();
-		if (chromosome == null) {
-			return;
-		}
-
-		int referencePosition = line.getReferencePosition();								// get the reference genome position (POS field)
-
-		updateFileStatistics(currentStatistics, line.getAlternativesTypes(), line.getAlternatives());
-
-		// Set position information
-		MGLineContent position = new MGLineContent();
-		position.setReferenceGenomePosition(referencePosition);
-		position.setScore(line.getQuality());
-		position.setAlternatives(line.getAlternativesLength());
-		Map<String, byte[]> genotypes = new HashMap<String, byte[]>();
-
-		// Start genome scanning
-		for (String genomeName: currentGenomes) {															// loop on every genome raw name
-			MGSGenome genome = multiGenomeProject.getMultiGenome().getGenomeInformation(genomeName);
-			String genomeRawName = FormattedMultiGenomeName.getRawName(genomeName);
-			String genotype = line.getGenotype(genomeRawName);											// get the related format value, split it (colon separated) into an array, get the first value: the genotype
-
-			genotype = genotype.replace('|', '/');
-			String[] currentAltIndexes = genotype.split("/");
-			byte[] byteGenotypeArray = new byte[currentAltIndexes.length];
-			for (int i = 0; i < currentAltIndexes.length; i++) {
-				int currentAltIndex = VCFLineUtility.getAlleleIndex(currentAltIndexes[i]);
-
-				switch (currentAltIndex) {
-				case NO_CALL:
-					byteGenotypeArray[i] = NO_CALL;
-					break;
-				case REFERENCE:
-					byteGenotypeArray[i] = REFERENCE;
-					break;
-				default:
-					ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
-					int chromosomeIndex = projectChromosomes.getIndex(chromosome);
-					byteGenotypeArray[i] = (byte) currentAltIndex;
-					int alternativeLength = line.getAlternativesLength()[currentAltIndex];				// we retrieve its length
-					VariantType variantType = line.getAlternativesTypes()[currentAltIndex];				// get the type of variant according to the length of the variation
-					updateVariationSampleStatistics(currentStatistics.getSampleStatistics(genomeName), variantType, line.getAlternatives()[currentAltIndex]);
-					currentFile.addVariantType(genomeName, variantType);								// notice the reader of the variant type
-
-					if (variantType != VariantType.SNPS) {
-						genome.getAllele(i).getOffsetList().get(chromosomeIndex).add(new MGSOffset(referencePosition, alternativeLength));
-
-						if (variantType == VariantType.INSERTION) {
-							referenceOffsetList.get(chromosomeIndex).add(new MGSOffset(referencePosition, alternativeLength));				// add the offset to the reference genome allele if it is an insertion
-						}
+			List<String> currentGenomes = getRequiredGenomeNamesFromAReader(vcfFile);
+			for (int i = 0; i < projectChromosomes.size(); i++) {
+				final MGChromosomeScan currentScan = new MGChromosomeScan(multiGenomeProject, vcfFile, projectChromosomes.get(i), i, currentGenomes);
+				scans.add(currentScan);
+				threadList.add(new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						currentScan.scan(genomes, variations, filters);
+						return null;
 					}
-					break;
-				}
+				});
 			}
-
-			updateGenotypeSampleStatistics(currentStatistics.getSampleStatistics(genomeName), line.getAlternativesTypes(), byteGenotypeArray);
-			genotypes.put(genomeName, byteGenotypeArray);
 		}
+		OperationPool.getInstance().startPool(threadList);
 
-		// Finish position creation
-		position.setGenotypes(genotypes);
-		if (chromosomeIndexes.get(chromosome) == null) {
-			chromosomeIndexes.put(chromosome, 0);
+		// merges the scans in the order of the files and of the chromosomes
+		for (MGChromosomeScan currentScan: scans) {
+			currentScan.merge();
 		}
-		int currentIndex = chromosomeIndexes.get(chromosome);
-		multiGenomeProject.getFileContentManager().getContent(currentFile, chromosome).addPosition(currentIndex, position);
-		chromosomeIndexes.put(chromosome, currentIndex + 1);
+		for (VCFFile vcfFile: VCFFileList) {
+			vcfFile.getStatistics().processStatistics();
+		}
+		multiGenomeProject.getFileContentManager().compact();
 	}
 
 
@@ -334,12 +230,17 @@ public class MGSynchronizer implements VCFScannerReceiver, Serializable {
 	 */
 	@SuppressWarnings("unchecked")
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-		in.readInt();
-		chromosomeIndexes = (Map<Chromosome, Integer>) in.readObject();
-		referenceOffsetList = (List<List<MGSOffset>>) in.readObject();
-		currentFile = (VCFFile) in.readObject();
-		currentStatistics = (VCFFileStatistics) in.readObject();
-		currentGenomes = (List<String>) in.readObject();
+		int savedVersion = in.readInt();
+		if (savedVersion == 0) {
+			// the version 0 also saved the state of the last file scanned
+			in.readObject();
+			referenceOffsetList = (List<List<MGSOffset>>) in.readObject();
+			in.readObject();
+			in.readObject();
+			in.readObject();
+		} else {
+			referenceOffsetList = (List<List<MGSOffset>>) in.readObject();
+		}
 	}
 
 
@@ -452,120 +353,30 @@ public class MGSynchronizer implements VCFScannerReceiver, Serializable {
 	/**
 	 * This method manages the position synchronization for every genome.
 	 * It handles the genomes loop in order to process the synchronization for both alleles of each of them.
+	 * Each allele is synchronized in a separate task.
+	 * @throws ExecutionException
+	 * @throws InterruptedException
 	 */
-	private void synchronizeToGenomesLevel () {
+	private void synchronizeToGenomesLevel () throws InterruptedException, ExecutionException {
+		List<MGSAllele> alleleList = new ArrayList<MGSAllele>();
+		List<Callable<List<List<MGSOffset>>>> threadList = new ArrayList<Callable<List<List<MGSOffset>>>>();
 		for (String genomeName: multiGenomeProject.getGenomeNames()) {																// scan on every genome
 			MGSGenome genomeInformation = multiGenomeProject.getMultiGenome().getGenomeInformation(genomeName);						// current genome information
 			List<MGSAllele> alleles = genomeInformation.getAlleles();
 
-			for (MGSAllele allele: alleles) {
-				List<List<MGSOffset>> chromosomeAlleleAOffsetList = synchronizeToAlleleLevel(allele.getOffsetList());		// get the synchronized chromosome list of list for the current allele
-				allele.setOffsetList(chromosomeAlleleAOffsetList);															// set the current chromosome list of list of the current allele with the synchronized one
-			}
-		}
-	}
-
-
-	/**
-	 * Updates statistics related to the file
-	 * @param statistic		file statistics
-	 * @param variantTypes	variant type array
-	 * @param alternatives	alternatives array
-	 */
-	private void updateFileStatistics (VCFFileStatistics statistic, VariantType[] variantTypes, String[] alternatives) {
-		statistic.incrementNumberOfLines();
-		for (int i = 0; i < variantTypes.length; i++) {
-			if (variantTypes[i] == VariantType.SNPS) {
-				statistic.incrementNumberOfSNPs();
-			} else if (variantTypes[i] == VariantType.INSERTION) {
-				if (isStructuralVariant(alternatives[i])) {
-					statistic.incrementNumberOfLongInsertions();
-				} else {
-					statistic.incrementNumberOfShortInsertions();
-				}
-			} else if (variantTypes[i] == VariantType.DELETION) {
-				if (isStructuralVariant(alternatives[i])) {
-					statistic.incrementNumberOfLongDeletions();
-				} else {
-					statistic.incrementNumberOfShortDeletions();
-				}
-			}
-		}
-	}
-
-
-	/**
-	 * @param statistic				sample statistics
-	 * @param variantTypes			array of variant types
-	 * @param firstAlleleNumber		number of the first allele
-	 * @param secondAlleleNumber	number of the second allele
-	 */
-	private void updateGenotypeSampleStatistics (VCFSampleStatistics statistic, VariantType[] variantTypes, byte[] alleleIndexes) {
-		boolean hemizygote = false;
-		boolean homozygote = false;
-		boolean heterozygote = false;
-		if (alleleIndexes.length > 0) {
-			if (alleleIndexes.length == 1) {
-				hemizygote = true;
-			} else {
-				homozygote = isVariantHomozygote(alleleIndexes[0], alleleIndexes[1]);
-				heterozygote = isVariantHeterozygote(alleleIndexes[0], alleleIndexes[1]);
-			}
-
-			for (VariantType variantType: variantTypes) {
-				if (homozygote) {
-					if (alleleIndexes[0] > -1) {
-						if (variantType == VariantType.SNPS) {
-							statistic.incrementNumberOfHomozygoteSNPs();
-						} else if (variantType == VariantType.INSERTION) {
-							statistic.incrementNumberOfHomozygoteInsertions();
-						} else if (variantType == VariantType.DELETION) {
-							statistic.incrementNumberOfHomozygoteDeletions();
-						}
+			for (final MGSAllele allele: alleles) {
+				alleleList.add(allele);
+				threadList.add(new Callable<List<List<MGSOffset>>>() {
+					@Override
+					public List<List<MGSOffset>> call() throws Exception {
+						return synchronizeToAlleleLevel(allele.getOffsetList());										// get the synchronized chromosome list of list for the current allele
 					}
-				} else if (heterozygote) {
-					if (variantType == VariantType.SNPS) {
-						statistic.incrementNumberOfHeterozygoteSNPs();
-					} else if (variantType == VariantType.INSERTION) {
-						statistic.incrementNumberOfHeterozygoteInsertions();
-					} else if (variantType == VariantType.DELETION) {
-						statistic.incrementNumberOfHeterozygoteDeletions();
-					}
-				} else if (hemizygote) {
-					if (variantType == VariantType.SNPS) {
-						statistic.incrementNumberOfHemizygoteSNPs();
-					} else if (variantType == VariantType.INSERTION) {
-						statistic.incrementNumberOfHemizygoteInsertions();
-					} else if (variantType == VariantType.DELETION) {
-						statistic.incrementNumberOfHemizygoteDeletions();
-					}
-				}
+				});
 			}
 		}
-	}
-
-
-	/**
-	 * Updates statistics related to the sample
-	 * @param statistic		sample statistics
-	 * @param variantType	variant type
-	 * @param alternative	alternative
-	 */
-	private void updateVariationSampleStatistics (VCFSampleStatistics statistic, VariantType variantType, String alternative) {
-		if (variantType == VariantType.SNPS) {
-			statistic.incrementNumberOfSNPs();
-		} else if (variantType == VariantType.INSERTION) {
-			if (isStructuralVariant(alternative)) {
-				statistic.incrementNumberOfLongInsertions();
-			} else {
-				statistic.incrementNumberOfShortInsertions();
-			}
-		} else if (variantType == VariantType.DELETION) {
-			if (isStructuralVariant(alternative)) {
-				statistic.incrementNumberOfLongDeletions();
-			} else {
-				statistic.incrementNumberOfShortDeletions();
-			}
+		List<List<List<MGSOffset>>> result = OperationPool.getInstance().startPool(threadList);
+		for (int i = 0; i < alleleList.size(); i++) {
+			alleleList.get(i).setOffsetList(result.get(i));																// set the current chromosome list of list of the current allele with the synchronized one
 		}
 	}
 
@@ -577,11 +388,7 @@ public class MGSynchronizer implements VCFScannerReceiver, Serializable {
 	 */
 	private void writeObject(ObjectOutputStream out) throws IOException {
 		out.writeInt(SAVED_FORMAT_VERSION_NUMBER);
-		out.writeObject(chromosomeIndexes);
 		out.writeObject(referenceOffsetList);
-		out.writeObject(currentFile);
-		out.writeObject(currentStatistics);
-		out.writeObject(currentGenomes);
 	}
 
 }
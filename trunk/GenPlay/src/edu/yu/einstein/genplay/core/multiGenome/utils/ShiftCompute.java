@@ -21,41 +21,49 @@
  * Website: <http://genplay.einstein.yu.edu>
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.multiGenome.utils;
-import java.util.List;
 
-import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.multiGenome.data.synchronization.MGSAllele;
-import edu.yu.einstein.genplay.core.multiGenome.data.synchronization.MGSOffset;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.AlleleType;
-import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.offsetList.IntArrayAsOffsetList;
 
 
 /**
  * This class manages the shifting process in order to get a meta genome position from a genome position.
  * In a multi genome project, every position must be shifted in order to synchronize tracks.
+ * Streams of positions on a same chromosome should be shifted with a {@link ShiftCursor}.
  * @author Nicolas Fourel
  */
 public class ShiftCompute {
 
 
-	private static List<List<MGSOffset>> getOffsetList (String genome, AlleleType alleleType) {
-		MGSAllele alleleInformation = null;
-
-		if (FormattedMultiGenomeName.isReferenceGenome(genome)) {
-			alleleInformation = ProjectManager.getInstance().getMultiGenomeProject().getMultiGenome().getReferenceGenome().getAllele();
-		} else {
-			alleleInformation = ProjectManager.getInstance().getMultiGenomeProject().getMultiGenome().getGenomeInformation(genome).getAllele(alleleType);
-			if (alleleInformation == null) {
-				System.err.println("Illegal use of the method \"ShiftCompute.computeShift\" with the parameter: " + alleleType + " , genome: " + genome);
-				return null;
+	/**
+	 * @param inputGenomeName		the genome name of the positions to shift
+	 * @param inputAlleleType		the allele of the genome
+	 * @param chromosome			the chromosome where the positions are
+	 * @param outputGenomeName		the genome where the positions have to be shifted
+	 * @return						a {@link ShiftCursor} that shifts positions of a genome on another genome
+	 */
+	public static ShiftCursor getCursor (String inputGenomeName, AlleleType inputAlleleType, Chromosome chromosome, String outputGenomeName) {
+		if (FormattedMultiGenomeName.isSameGenome(inputGenomeName, outputGenomeName)) {
+			return new ShiftCursor(true, null, null);
+		}
+		int chromosomeIndex = ProjectManager.getInstance().getProjectChromosomes().getIndex(chromosome);
+		ShiftTable inputTable = null;
+		ShiftTable outputTable = null;
+		if (!FormattedMultiGenomeName.isMetaGenome(inputGenomeName)) {
+			inputTable = getShiftTable(inputGenomeName, inputAlleleType, chromosomeIndex);
+			if (inputTable == null) {
+				return new ShiftCursor(false, null, null);
 			}
 		}
-
-		List<List<MGSOffset>> offsetList = alleleInformation.getOffsetList();
-
-		return offsetList;
+		if (!FormattedMultiGenomeName.isMetaGenome(outputGenomeName)) {
+			outputTable = getShiftTable(outputGenomeName, inputAlleleType, chromosomeIndex);
+			if (outputTable == null) {
+				return new ShiftCursor(false, null, null);
+			}
+		}
+		return new ShiftCursor(true, inputTable, outputTable);
 	}
 
 
@@ -73,19 +81,17 @@ public class ShiftCompute {
 		}
 
 		int outputPosition = -1;
-		ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
-		int chromosomeIndex = projectChromosomes.getIndex(chromosome);
 		if (FormattedMultiGenomeName.isMetaGenome(outputGenomeName)) {
-			List<List<MGSOffset>> chromosomeOffsetList = getOffsetList(inputGenomeName, inputAlleleType);
-			if (chromosomeOffsetList != null) {
-				IntArrayAsOffsetList offsetList = (IntArrayAsOffsetList) chromosomeOffsetList.get(chromosomeIndex);
-				outputPosition = offsetList.getMetaGenomePosition(inputGenomePosition);
+			int chromosomeIndex = ProjectManager.getInstance().getProjectChromosomes().getIndex(chromosome);
+			ShiftTable shiftTable = getShiftTable(inputGenomeName, inputAlleleType, chromosomeIndex);
+			if (shiftTable != null) {
+				outputPosition = shiftTable.getMetaGenomePosition(inputGenomePosition);
 			}
 		} else if (FormattedMultiGenomeName.isMetaGenome(inputGenomeName)) {
-			List<List<MGSOffset>> chromosomeOffsetList = getOffsetList(outputGenomeName, inputAlleleType);
-			if (chromosomeOffsetList != null) {
-				IntArrayAsOffsetList offsetList = (IntArrayAsOffsetList) chromosomeOffsetList.get(chromosomeIndex);
-				outputPosition = offsetList.getGenomePosition(inputGenomePosition);
+			int chromosomeIndex = ProjectManager.getInstance().getProjectChromosomes().getIndex(chromosome);
+			ShiftTable shiftTable = getShiftTable(outputGenomeName, inputAlleleType, chromosomeIndex);
+			if (shiftTable != null) {
+				outputPosition = shiftTable.getGenomePosition(inputGenomePosition);
 			}
 		} else {
 			int inputPositionOnMetaGenome = getPosition(inputGenomeName, inputAlleleType, inputGenomePosition, chromosome, FormattedMultiGenomeName.META_GENOME_NAME);
@@ -95,4 +101,21 @@ public class ShiftCompute {
 		return outputPosition;
 	}
 
+
+	private static ShiftTable getShiftTable (String genome, AlleleType alleleType, int chromosomeIndex) {
+		MGSAllele alleleInformation = null;
+
+		if (FormattedMultiGenomeName.isReferenceGenome(genome)) {
+			alleleInformation = ProjectManager.getInstance().getMultiGenomeProject().getMultiGenome().getReferenceGenome().getAllele();
+		} else {
+			alleleInformation = ProjectManager.getInstance().getMultiGenomeProject().getMultiGenome().getGenomeInformation(genome).getAllele(alleleType);
+			if (alleleInformation == null) {
+				System.err.println("Illegal use of the method \"ShiftCompute.computeShift\" with the parameter: " + alleleType + " , genome: " + genome);
+				return null;
+			}
+		}
+
+		return alleleInformation.getShiftTable(chromosomeIndex);
+	}
+
 }
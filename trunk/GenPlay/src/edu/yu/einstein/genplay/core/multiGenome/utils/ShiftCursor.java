@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.utils;
+
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.enums.AlleleType;
+
+
+/**
+ * Translates a stream of positions from a genome to another genome on one chromosome.
+ * The cursor remembers where the previous position was found in the {@link ShiftTable}
+ * and starts the next search from there: positions translated in increasing order (or close to each others)
+ * cost an amortized constant time, positions in random order cost a binary search.
+ * A cursor can be shared between threads: the position found last is only used as the starting point of the next search.
+ * Cursors are created with {@link ShiftCompute#getCursor(String, AlleleType, Chromosome, String)}.
+ * @author Julien Lajugie
+ */
+public final class ShiftCursor {
+
+	private final boolean		isValid;			// false if the cursor cannot translate positions
+	private final ShiftTable 	inputTable;			// table from the input genome to the meta genome, null if the input genome is the meta genome
+	private final ShiftTable 	outputTable;		// table from the meta genome to the output genome, null if the output genome is the meta genome
+	private int 				genomeBound;		// result of the last search in the input table
+	private int 				metaGenomeBound;	// result of the last search in the output table
+
+
+	/**
+	 * Creates an instance of {@link ShiftCursor}
+	 * @param isValid		false if the cursor cannot translate positions (every position will be translated to -1)
+	 * @param inputTable	table from the input genome to the meta genome, null if the input genome is the meta genome
+	 * @param outputTable	table from the meta genome to the output genome, null if the output genome is the meta genome
+	 */
+	ShiftCursor(boolean isValid, ShiftTable inputTable, ShiftTable outputTable) {
+		this.isValid = isValid;
+		this.inputTable = inputTable;
+		this.outputTable = outputTable;
+		genomeBound = 0;
+		metaGenomeBound = 0;
+	}
+
+
+	/**
+	 * @param inputPosition a position on the input genome
+	 * @return the position on the output genome
+	 */
+	public int getPosition(int inputPosition) {
+		if (inputPosition < 0) {
+			return inputPosition;
+		}
+		if (!isValid) {
+			return -1;
+		}
+		int metaGenomePosition = inputPosition;
+		if (inputTable != null) {
+			int bound = inputTable.genomeBound(inputPosition, genomeBound);
+			genomeBound = bound;
+			metaGenomePosition = inputTable.toMetaGenomePosition(bound, inputPosition);
+		}
+		if ((outputTable == null) || (metaGenomePosition < 0)) {
+			return metaGenomePosition;
+		}
+		int bound = outputTable.metaGenomeBound(metaGenomePosition, metaGenomeBound);
+		metaGenomeBound = bound;
+		return outputTable.toGenomePosition(bound, metaGenomePosition);
+	}
+}
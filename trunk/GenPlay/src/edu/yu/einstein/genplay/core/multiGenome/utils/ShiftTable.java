@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.multiGenome.utils;
+
+import java.util.List;
+
+import edu.yu.einstein.genplay.core.multiGenome.data.synchronization.MGSOffset;
+
+
+/**
+ * Immutable translation table between the positions of a genome allele and the positions of the meta genome on a chromosome.
+ * The offsets of the allele are stored in flat sorted arrays of int for both directions:
+ * the genome positions of the offsets and the meta genome positions of the same offsets (genome position + offset).
+ * Positions are found with an iterative branch-free binary search or, when a previous result is given as a hint,
+ * with an exponential search starting from the hint so that sorted streams of positions are translated in amortized constant time.
+ * @author Julien Lajugie
+ */
+public final class ShiftTable {
+
+	private final int[] genomePositions;		// genome positions of the offsets, sorted
+	private final int[] metaGenomePositions;	// meta genome positions of the offsets, sorted
+	private final int[] offsets;				// offsets with the meta genome (cumulated)
+
+
+	/**
+	 * Creates an instance of {@link ShiftTable}
+	 * @param offsetList list of {@link MGSOffset} of a chromosome, sorted and synchronized
+	 */
+	public ShiftTable(List<MGSOffset> offsetList) {
+		int size = offsetList.size();
+		genomePositions = new int[size];
+		metaGenomePositions = new int[size];
+		offsets = new int[size];
+		for (int i = 0; i < size; i++) {
+			MGSOffset currentOffset = offsetList.get(i);
+			genomePositions[i] = currentOffset.getPosition();
+			offsets[i] = currentOffset.getValue();
+			metaGenomePositions[i] = genomePositions[i] + offsets[i];
+		}
+	}
+
+
+	/**
+	 * Branch-free binary search.
+	 * The elements of the array before the index low must be smaller than the key
+	 * and the elements from the index high must be greater or equal to the key.
+	 * @param array	a sorted array
+	 * @param key	value to search
+	 * @param low	lower bound of the result
+	 * @param high	upper bound of the result
+	 * @return the number of elements of the array smaller than the key
+	 */
+	private static int countLower(int[] array, int key, int low, int high) {
+		int length = high - low;
+		if (length == 0) {
+			return low;
+		}
+		int base = low;
+		while (length > 1) {
+			int half = length >>> 1;
+			base = (array[base + half] < key) ? base + half : base;
+			length -= half;
+		}
+		return base + ((array[base] < key) ? 1 : 0);
+	}
+
+
+	/**
+	 * Exponential search starting from a hint followed by a branch-free binary search.
+	 * @param array	a sorted array
+	 * @param key	value to search
+	 * @param hint	result of a previous search on the same array
+	 * @return the number of elements of the array smaller than the key
+	 */
+	private static int countLower(int[] array, int key, int hint) {
+		int size = array.length;
+		int low;
+		int high;
+		int step = 1;
+		if ((hint < size) && (array[hint] < key)) {
+			// the result is after the hint
+			low = hint + 1;
+			high = low;
+			while ((high < size) && (array[high] < key)) {
+				low = high + 1;
+				high = low + step;
+				step <<= 1;
+			}
+			high = Math.min(high, size);
+		} else {
+			// the result is before or at the hint
+			high = hint;
+			low = high - 1;
+			while ((low >= 0) && (array[low] >= key)) {
+				high = low;
+				low = high - step;
+				step <<= 1;
+			}
+			low = Math.max(low + 1, 0);
+		}
+		return countLower(array, key, low, high);
+	}
+
+
+	/**
+	 * @param genomePosition	a position on the genome
+	 * @param hint				a value previously returned by this method, or 0
+	 * @return the number of offsets located at or before the genome position
+	 */
+	int genomeBound(int genomePosition, int hint) {
+		if (genomePosition == Integer.MAX_VALUE) {
+			return genomePositions.length;
+		}
+		return countLower(genomePositions, genomePosition + 1, hint);
+	}
+
+
+	/**
+	 * @param metaGenomePosition	the position on the meta genome
+	 * @return the genome position associated to the given meta genome position
+	 */
+	public int getGenomePosition(int metaGenomePosition) {
+		return toGenomePosition(countLower(metaGenomePositions, metaGenomePosition, 0, metaGenomePositions.length), metaGenomePosition);
+	}
+
+
+	/**
+	 * @param genomePosition the position on the genome
+	 * @return the meta genome position associated to the given genome position
+	 */
+	public int getMetaGenomePosition(int genomePosition) {
+		if (genomePosition == Integer.MAX_VALUE) {
+			return toMetaGenomePosition(genomePositions.length, genomePosition);
+		}
+		return toMetaGenomePosition(countLower(genomePositions, genomePosition + 1, 0, genomePositions.length), genomePosition);
+	}
+
+
+	/**
+	 * @param metaGenomePosition	a position on the meta genome
+	 * @param hint					a value previously returned by this method, or 0
+	 * @return the number of offsets located before the meta genome position
+	 */
+	int metaGenomeBound(int metaGenomePosition, int hint) {
+		return countLower(metaGenomePositions, metaGenomePosition, hint);
+	}
+
+
+	/**
+	 * @return the number of offsets of the table
+	 */
+	public int size() {
+		return offsets.length;
+	}
+
+
+	/**
+	 * @param metaGenomeBound		the value returned by {@link #metaGenomeBound(int, int)} for the meta genome position
+	 * @param metaGenomePosition	a position on the meta genome
+	 * @return the genome position associated to the given meta genome position
+	 */
+	int toGenomePosition(int metaGenomeBound, int metaGenomePosition) {
+		int size = offsets.length;
+		if (size == 0) {
+			return metaGenomePosition;
+		}
+		int index = Math.min(metaGenomeBound, size - 1);					// index of the position (or the one right after)
+		int metaGenomePositionFound = metaGenomePositions[index];
+		if (metaGenomePosition == metaGenomePositionFound) {				// if both position are equal
+			return genomePositions[index];									// the genome position is the one found
+		} else if (metaGenomePosition > metaGenomePositionFound) {			// if the meta genome position is after the last offset
+			return genomePositions[index] + (metaGenomePosition - metaGenomePositionFound);
+		} else {
+			int difference = metaGenomePositionFound - metaGenomePosition;
+			int variationLength = offsets[index];							// length of the variation of the offset found
+			if (index > 0) {
+				variationLength -= offsets[index - 1];
+			}
+			if (difference <= variationLength) {							// the meta genome position is included in the variation
+				return MGSOffset.MISSING_POSITION_CODE;
+			} else {
+				return genomePositions[index] - (difference - variationLength);
+			}
+		}
+	}
+
+
+	/**
+	 * @param genomeBound		the value returned by {@link #genomeBound(int, int)} for the genome position
+	 * @param genomePosition	a position on the genome
+	 * @return the meta genome position associated to the given genome position
+	 */
+	int toMetaGenomePosition(int genomeBound, int genomePosition) {
+		if (genomeBound == 0) {
+			return genomePosition;											// there is no offset before the position
+		}
+		return genomePosition + offsets[genomeBound - 1];
+	}
+}
@@ -27,11 +27,11 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.Nucleotide;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.nucleotideList.NucleotideList;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -64,28 +64,28 @@ public class SCWLOCombineCsAndGs implements Operation<SCWList> {
 		final SCWListBuilder resultListBuilder = new SCWListBuilder(inputList);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = inputList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(inputList.get(chromosome));
 			if ((currentList != null) && (currentList.size() != 0)) {
 				int lastStop = 0;
 				for (int i = 0; (i < currentList.size()) && !stopped; i++) {
-					int start = currentList.get(i).getStart();
+					int start = currentList.getStart(i);
 					if ((start - 1) >= lastStop) {
 						start--;
 					}
-					int stop = Math.min(currentList.get(i).getStop(), chromosome.getLength() - 1);
+					int stop = Math.min(currentList.getStop(i), chromosome.getLength() - 1);
 					int currentPosition;
 					for (currentPosition = start; currentPosition < stop; currentPosition++) {
 						if (isCG(chromosome, currentPosition)) {
 							int cPosition = currentPosition;
 							int gPosition = currentPosition + 1;
 							float score = 0;
-							if (cPosition >= currentList.get(i).getStart()) {
-								score += currentList.get(i).getScore();
+							if (cPosition >= currentList.getStart(i)) {
+								score += currentList.getScore(i);
 							}
-							if (gPosition < currentList.get(i).getStop()) {
-								score += currentList.get(i).getScore();
-							} else if (((i + 1) < currentList.size()) && (gPosition == currentList.get(i + 1).getStart())) {
-								score += currentList.get(i + 1).getScore();
+							if (gPosition < currentList.getStop(i)) {
+								score += currentList.getScore(i);
+							} else if (((i + 1) < currentList.size()) && (gPosition == currentList.getStart(i + 1))) {
+								score += currentList.getScore(i + 1);
 							}
 							if (score != 0) {
 								resultListBuilder.addElementToBuild(chromosome, cPosition, gPosition + 1, score);
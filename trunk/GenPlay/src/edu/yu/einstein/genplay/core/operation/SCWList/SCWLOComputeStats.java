@@ -24,6 +24,7 @@ package edu.yu.einstein.genplay.core.operation.SCWList;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
@@ -31,12 +32,16 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListStats.ScoreQuantileSketch;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 /**
- * Computes statistics (eg: min, max, avg, stdev) on a specified {@link SCWList}
+ * Computes statistics (eg: min, max, avg, stdev) on a specified {@link SCWList}.
+ * All the statistics are computed in a single pass over each chromosome: the standard deviations are
+ * computed with a weighted incremental algorithm and the results of the chromosomes are merged into
+ * the genome wide results.  A {@link ScoreQuantileSketch} of the scores is computed during the same pass.
  * @author Julien Lajugie
  */
 public class SCWLOComputeStats implements Operation<Void> {
@@ -83,6 +88,9 @@ public class SCWLOComputeStats implements Operation<Void> {
 	/** Sum of Float scores of all windows for each chromosome */
 	private final double[] scoreSums;
 
+	/** Sketch of the distribution of the scores different from 0 */
+	private final ScoreQuantileSketch scoreSketch;
+
 	/**  input list */
 	private final SCWList inputList;
 
@@ -105,6 +113,7 @@ public class SCWLOComputeStats implements Operation<Void> {
 		windowCounts = new long[projectChromosomes.size()];
 		windowLengths = new long[projectChromosomes.size()];
 		scoreSums = new double[projectChromosomes.size()];
+		scoreSketch = new ScoreQuantileSketch();
 	}
 
 
@@ -116,43 +125,69 @@ public class SCWLOComputeStats implements Operation<Void> {
 		// retrieve the instance of the OperationPool singleton
 		final OperationPool op = OperationPool.getInstance();
 		// list for the threads
-		final Collection<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
+		final Collection<Callable<ScoreQuantileSketch>> threadList = new ArrayList<Callable<ScoreQuantileSketch>>();
+		// running means and sums of squared differences from the mean of each chromosome
+		final double[] means = new double[projectChromosomes.size()];
+		final double[] squaredDeviationSums = new double[projectChromosomes.size()];
 
-		// computes min / max / total score / non null bin count for each chromosome
+		// computes all the statistics of each chromosome in a single pass
 		for(short i = 0; i < inputList.size(); i++)  {
-			final ListView<ScoredChromosomeWindow> currentList = inputList.get(i);
+			final SCWListView currentList = SCWListViews.asSCWListView(inputList.get(i));
 			final short currentIndex = i;
 
-			Callable<Void> currentThread = new Callable<Void>() {
+			Callable<ScoreQuantileSketch> currentThread = new Callable<ScoreQuantileSketch>() {
 				@Override
-				public Void call() throws Exception {
-					minimums[currentIndex] = Float.POSITIVE_INFINITY;
-					maximums[currentIndex] = Float.NEGATIVE_INFINITY;
+				public ScoreQuantileSketch call() throws Exception {
+					ScoreQuantileSketch sketch = new ScoreQuantileSketch();
+					float minimum = Float.POSITIVE_INFINITY;
+					float maximum = Float.NEGATIVE_INFINITY;
+					double scoreSum = 0;
+					long windowCount = 0;
+					long windowLength = 0;
+					double mean = 0;
+					double squaredDeviationSum = 0;
 					if (currentList != null) {
 						for (int j = 0; (j < currentList.size()) && !stopped; j++) {
-							ScoredChromosomeWindow currentWindow = currentList.get(j);
-							if (currentWindow.getScore() != 0) {
-								minimums[currentIndex] = Math.min(minimums[currentIndex], currentWindow.getScore());
-								maximums[currentIndex] = Math.max(maximums[currentIndex], currentWindow.getScore());
-								scoreSums[currentIndex] += currentWindow.getScore() * currentWindow.getSize();
-								windowCounts[currentIndex]++;
-								windowLengths[currentIndex] += currentWindow.getSize();
+							float currentScore = currentList.getScore(j);
+							if (currentScore != 0) {
+								int currentSize = currentList.getStop(j) - currentList.getStart(j);
+								minimum = Math.min(minimum, currentScore);
+								maximum = Math.max(maximum, currentScore);
+								scoreSum += currentScore * currentSize;
+								windowCount++;
+								windowLength += currentSize;
+								// weighted incremental update of the mean and of the sum of squared deviations
+								if (windowLength != 0) {
+									double delta = currentScore - mean;
+									mean += (currentSize * delta) / windowLength;
+									squaredDeviationSum += currentSize * delta * (currentScore - mean);
+								}
+								sketch.add(currentScore);
 							}
 						}
 					}
+					minimums[currentIndex] = minimum;
+					maximums[currentIndex] = maximum;
+					scoreSums[currentIndex] = scoreSum;
+					windowCounts[currentIndex] = windowCount;
+					windowLengths[currentIndex] = windowLength;
+					means[currentIndex] = mean;
+					squaredDeviationSums[currentIndex] = squaredDeviationSum;
 					// notify that the current chromosome is done
 					op.notifyDone();
-					return null;
+					return sketch;
 				}
 			};
 
 			threadList.add(currentThread);
 		}
 		// start the pool of thread
-		op.startPool(threadList);
+		List<ScoreQuantileSketch> sketches = op.startPool(threadList);
 
 		// compute the genome wide result from the chromosomes results
-		for (int i = 0; i < projectChromosomes.size(); i++) {
+		double gwMean = 0;
+		double gwSquaredDeviationSum = 0;
+		for (int i = 0; i < inputList.size(); i++) {
 			minimum = Math.min(minimum, minimums[i]);
 			if (Float.isInfinite(minimums[i])) {
 				minimums[i] = 0;
@@ -163,10 +198,17 @@ public class SCWLOComputeStats implements Operation<Void> {
 			}
 			if (windowLengths[i] != 0) {
 				averages[i] = scoreSums[i] / windowLengths[i];
+				standardDeviations[i] = Math.sqrt(squaredDeviationSums[i] / windowLengths[i]);
+				// merge the mean and the sum of squared deviations of the chromosome with the ones of the previous chromosomes
+				long mergedLength = windowLength + windowLengths[i];
+				double delta = means[i] - gwMean;
+				gwMean += (delta * windowLengths[i]) / mergedLength;
+				gwSquaredDeviationSum += squaredDeviationSums[i] + (((delta * delta) * windowLength * windowLengths[i]) / mergedLength);
 			}
 			scoreSum += scoreSums[i];
 			windowCount += windowCounts[i];
 			windowLength += windowLengths[i];
+			scoreSketch.merge(sketches.get(i));
 		}
 		if (Float.isInfinite(minimum)) {
 			minimum = 0;
@@ -174,49 +216,9 @@ public class SCWLOComputeStats implements Operation<Void> {
 		if (Float.isInfinite(maximum)) {
 			maximum = 0;
 		}
-
 		if (windowLength != 0) {
-			// compute the average
 			average = scoreSum / windowLength;
-			threadList.clear();
-			// standard deviation genome wide need to be computed separetly because it uses the average GW
-			final double[] gwStandardDeviations = new double[projectChromosomes.size()];
-			// compute the standard deviation for each chromosome
-			for(short i = 0; i < inputList.size(); i++)  {
-				final ListView<ScoredChromosomeWindow> currentList = inputList.get(i);
-				final short currentIndex = i;
-
-				Callable<Void> currentThread = new Callable<Void>() {
-					@Override
-					public Void call() throws Exception {
-						if (currentList != null) {
-							for (int j = 0; (j < currentList.size()) && !stopped; j++) {
-								ScoredChromosomeWindow currentWindow = currentList.get(j);
-								if (currentWindow.getScore() != 0) {
-									gwStandardDeviations[currentIndex] += Math.pow(currentWindow.getScore() - average, 2) * currentWindow.getSize();
-									standardDeviations[currentIndex] += Math.pow(currentWindow.getScore() - averages[currentIndex], 2) * currentWindow.getSize();
-								}
-							}
-							if (windowLengths[currentIndex] != 0) {
-								standardDeviations[currentIndex] = Math.sqrt(standardDeviations[currentIndex] / windowLengths[currentIndex]);
-							}
-						}
-						// notify that the current chromosome is done
-						op.notifyDone();
-						return null;
-					}
-				};
-
-				threadList.add(currentThread);
-			}
-			// start the pool of thread
-			op.startPool(threadList);
-
-			// compute the genome wide standard deviation
-			for (int i = 0; i < projectChromosomes.size(); i++) {
-				standardDeviation += gwStandardDeviations[i];
-			}
-			standardDeviation = Math.sqrt(standardDeviation / windowLength);
+			standardDeviation = Math.sqrt(gwSquaredDeviationSum / windowLength);
 		}
 		return null;
 	}
@@ -298,6 +300,14 @@ public class SCWLOComputeStats implements Operation<Void> {
 	}
 
 
+	/**
+	 * @return the sketch of the distribution of the scores different from 0
+	 */
+	public ScoreQuantileSketch getScoreSketch() {
+		return scoreSketch;
+	}
+
+
 	/**
 	 * @return the scoreSums
 	 */
@@ -324,7 +334,7 @@ public class SCWLOComputeStats implements Operation<Void> {
 
 	@Override
 	public int getStepCount() {
-		return 2;
+		return 1;
 	}
 
 
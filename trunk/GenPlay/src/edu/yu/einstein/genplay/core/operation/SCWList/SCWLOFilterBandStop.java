@@ -31,10 +31,10 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -74,14 +74,14 @@ public class SCWLOFilterBandStop implements Operation<SCWList> {
 		final SCWListBuilder resultListBuilder = new SCWListBuilder(inputList);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = inputList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(inputList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
 				public Void call() throws Exception {
 					if ((currentList != null) && (currentList.size() != 0)) {
 						for (int j = 0; (j < currentList.size()) && !stopped; j++) {
-							float currentValue = currentList.get(j).getScore();
+							float currentValue = currentList.getScore(j);
 							if ((currentValue < lowThreshold) || (currentValue > highThreshold)) {
 								resultListBuilder.addElementToBuild(chromosome, currentList.get(j));
 							}
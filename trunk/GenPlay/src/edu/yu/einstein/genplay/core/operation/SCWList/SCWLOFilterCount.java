@@ -22,8 +22,6 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.operation.SCWList;
 
-import java.util.Arrays;
-
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
@@ -40,7 +38,7 @@ public class SCWLOFilterCount implements Operation<SCWList> {
 	private final int 			lowValuesCount;			// number of low values to filter
 	private final int 			highValuesCount;		// number of high values to filter
 	private final boolean		isSaturation;			// true if we saturate, false if we remove the filtered values
-	private boolean				stopped = false;		// true if the operation must be stopped
+	private SCWLOSelectScores	scwloSelectScores;		// operation selecting the scores corresponding to the thresholds
 	private Operation<SCWList> 	scwloFilterThreshold;	// threshold filter that does the real fitering operation
 
 
@@ -65,28 +63,27 @@ public class SCWLOFilterCount implements Operation<SCWList> {
 			throw new IllegalArgumentException("The number of values to filter must be positive");
 		}
 		// compute the total number of windows
-		int totalLenght = 0;
+		long windowCount = 0;
 		for (ListView<ScoredChromosomeWindow> currentList: inputList) {
 			if (currentList != null) {
-				totalLenght += currentList.size();
+				windowCount += currentList.size();
 			}
 		}
-		// create an array containing all the scores of the input list
-		float[] allScores = new float[totalLenght];
-		int i = 0;
-		for (ListView<ScoredChromosomeWindow> currentList: inputList) {
-			if (currentList != null) {
-				for (int j = 0; (j < currentList.size()) && !stopped; j++) {
-					float currentScore = currentList.get(j).getScore();
-					allScores[i] = currentScore;
-					i++;
-				}
+		// select the values of the min and of the max corresponding to the thresholds without sorting all the scores
+		float minValue = Float.NEGATIVE_INFINITY;
+		float maxValue = Float.POSITIVE_INFINITY;
+		if ((lowValuesCount > 0) || (highValuesCount > 0)) {
+			long minRank = lowValuesCount == 0 ? 0 : lowValuesCount - 1;
+			long maxRank = highValuesCount == 0 ? windowCount - 1 : windowCount - highValuesCount;
+			scwloSelectScores = new SCWLOSelectScores(inputList, minRank, maxRank);
+			float[] selectedScores = scwloSelectScores.compute();
+			if (lowValuesCount > 0) {
+				minValue = selectedScores[0];
+			}
+			if (highValuesCount > 0) {
+				maxValue = selectedScores[1];
 			}
 		}
-		// sort the array and search the value of the min and of the max corresponding to the thresholds
-		Arrays.sort(allScores);
-		float minValue = lowValuesCount == 0 ? Float.NEGATIVE_INFINITY : allScores[lowValuesCount - 1];
-		float maxValue = highValuesCount == 0 ? Float.POSITIVE_INFINITY : allScores[allScores.length - highValuesCount];
 		// start a SCWLOFilterThreshold with the min and max value that we just found
 		scwloFilterThreshold = new SCWLOFilterThreshold(inputList, minValue, maxValue, isSaturation);
 		return scwloFilterThreshold.compute();
@@ -113,13 +110,16 @@ public class SCWLOFilterCount implements Operation<SCWList> {
 
 	@Override
 	public int getStepCount() {
-		return 1 + inputList.getCreationStepCount();
+		// steps of the selection of the scores and of the threshold filter
+		return 3 + inputList.getCreationStepCount();
 	}
 
 
 	@Override
 	public void stop() {
-		stopped = true;
+		if (scwloSelectScores != null) {
+			scwloSelectScores.stop();
+		}
 		if (scwloFilterThreshold != null) {
 			scwloFilterThreshold.stop();
 		}
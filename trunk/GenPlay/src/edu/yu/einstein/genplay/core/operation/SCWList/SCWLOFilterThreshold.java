@@ -31,10 +31,10 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -76,29 +76,29 @@ public class SCWLOFilterThreshold implements Operation<SCWList> {
 		final SCWListBuilder resultListBuilder = new SCWListBuilder(inputList);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = inputList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(inputList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
 				public Void call() throws Exception {
 					if ((currentList != null) && (currentList.size() != 0)) {
 						for (int i = 0; (i < currentList.size()) && !stopped; i++) {
-							double currentScore = currentList.get(i).getScore();
+							double currentScore = currentList.getScore(i);
 							if (currentScore != 0) {
 								if (currentScore > highThreshold) {
 									// if the score is greater than the high threshold
 									if (isSaturation) {
 										// set the value to high threshold (saturation)
-										int start = currentList.get(i).getStart();
-										int stop = currentList.get(i).getStop();
+										int start = currentList.getStart(i);
+										int stop = currentList.getStop(i);
 										resultListBuilder.addElementToBuild(chromosome, start, stop, highThreshold);
 									}
 								} else if (currentScore < lowThreshold) {
 									// if the score is smaller than the low threshold
 									if (isSaturation) {
 										// set the value to low threshold (saturation)
-										int start = currentList.get(i).getStart();
-										int stop = currentList.get(i).getStop();
+										int start = currentList.getStart(i);
+										int stop = currentList.getStop(i);
 										resultListBuilder.addElementToBuild(chromosome, start, stop, lowThreshold);
 									}
 								} else {
@@ -32,10 +32,12 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -107,7 +109,7 @@ public class SCWLOIndexByChromosome implements Operation<SCWList> {
 		final float newDistance = newMax - newMin;
 		final SCWListBuilder resultListBuilder = new SCWListBuilder(scwList);
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = scwList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(scwList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -121,9 +123,9 @@ public class SCWLOIndexByChromosome implements Operation<SCWList> {
 						if (oldDistance != 0) {
 							// We index the intensities
 							for (int j = 0; (j < currentList.size()) && !stopped; j++) {
-								int start = currentList.get(j).getStart();
-								int stop = currentList.get(j).getStop();
-								float score = currentList.get(j).getScore();
+								int start = currentList.getStart(j);
+								int stop = currentList.getStop(j);
+								float score = currentList.getScore(j);
 								if (score != 0) {
 									score = ((newDistance * (score - oldMin)) / oldDistance) + newMin;
 								}
@@ -32,10 +32,10 @@ import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.LogBase;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -68,33 +68,43 @@ public class SCWLOLog implements Operation<SCWList> {
 		final SCWListBuilder resultListBuilder = new SCWListBuilder(scwList);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = scwList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(scwList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
 				public Void call() throws Exception {
 					if (currentList != null) {
-						// We log each element
-						for (int j = 0; (j < currentList.size()) && !stopped; j++) {
-							int start = currentList.get(j).getStart();
-							int stop = currentList.get(j).getStop();
-							float score = currentList.get(j).getScore();
-							// log is define on R+*
-							if (score > 0) {
-								if (logBase == LogBase.BASE_E) {
-									// the Math.log function return the natural log (no needs to change the base)
-									score = (float) Math.log(score);
-								} else {
-									// change of base: logb(x) = logk(x) / logk(b)
-									score = (float) (Math.log(score) / Math.log(logBase.getValue()));
+						int[] starts = new int[SCWListBuilder.SLICE_SIZE];
+						int[] stops = new int[SCWListBuilder.SLICE_SIZE];
+						float[] scores = new float[SCWListBuilder.SLICE_SIZE];
+						for (int sliceStart = 0; (sliceStart < currentList.size()) && !stopped; sliceStart += SCWListBuilder.SLICE_SIZE) {
+							int sliceStop = Math.min(currentList.size(), sliceStart + SCWListBuilder.SLICE_SIZE);
+							int sliceLength = sliceStop - sliceStart;
+							currentList.getStarts(sliceStart, sliceStop, starts, 0);
+							currentList.getStops(sliceStart, sliceStop, stops, 0);
+							currentList.getScores(sliceStart, sliceStop, scores, 0);
+							// We log each element
+							for (int j = 0; j < sliceLength; j++) {
+								float score = scores[j];
+								// log is define on R+*
+								if (score > 0) {
+									if (logBase == LogBase.BASE_E) {
+										// the Math.log function return the natural log (no needs to change the base)
+										scores[j] = (float) Math.log(score);
+									} else {
+										// change of base: logb(x) = logk(x) / logk(b)
+										scores[j] = (float) (Math.log(score) / Math.log(logBase.getValue()));
+									}
+								} else if (score < 0) {
+									// can't apply a log function on a negative or null numbers
+									throw new ArithmeticException("Logarithm of a negative value not allowed");
 								}
-							} else if (score < 0) {
-								// can't apply a log function on a negative or null numbers
-								throw new ArithmeticException("Logarithm of a negative value not allowed");
 							}
-							resultListBuilder.addElementToBuild(chromosome, start, stop, score);
+							resultListBuilder.addElementsToBuild(chromosome, starts, stops, scores, 0, sliceLength);
 						}
 					}
+					// the list view of the chromosome is built on the worker thread
+					resultListBuilder.buildListView(chromosome);
 					// tell the operation pool that a chromosome is done
 					op.notifyDone();
 					return null;
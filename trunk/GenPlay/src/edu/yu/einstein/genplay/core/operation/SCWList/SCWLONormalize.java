@@ -32,10 +32,10 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -73,20 +73,30 @@ public class SCWLONormalize implements Operation<SCWList> {
 		final SCWListBuilder resultListBuilder = new SCWListBuilder(inputList);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = inputList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(inputList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
 				public Void call() throws Exception {
 					if (currentList != null) {
-						for (int j = 0; (j < currentList.size()) && !stopped; j++) {
-							// we multiply each window by the coefficient previously computed
-							int start = currentList.get(j).getStart();
-							int stop = currentList.get(j).getStop();
-							float score = (float) (currentList.get(j).getScore() * coef);
-							resultListBuilder.addElementToBuild(chromosome, start, stop, score);
+						int[] starts = new int[SCWListBuilder.SLICE_SIZE];
+						int[] stops = new int[SCWListBuilder.SLICE_SIZE];
+						float[] scores = new float[SCWListBuilder.SLICE_SIZE];
+						for (int sliceStart = 0; (sliceStart < currentList.size()) && !stopped; sliceStart += SCWListBuilder.SLICE_SIZE) {
+							int sliceStop = Math.min(currentList.size(), sliceStart + SCWListBuilder.SLICE_SIZE);
+							int sliceLength = sliceStop - sliceStart;
+							currentList.getStarts(sliceStart, sliceStop, starts, 0);
+							currentList.getStops(sliceStart, sliceStop, stops, 0);
+							currentList.getScores(sliceStart, sliceStop, scores, 0);
+							for (int j = 0; j < sliceLength; j++) {
+								// we multiply each window by the coefficient previously computed
+								scores[j] = (float) (scores[j] * coef);
+							}
+							resultListBuilder.addElementsToBuild(chromosome, starts, stops, scores, 0, sliceLength);
 						}
 					}
+					// the list view of the chromosome is built on the worker thread
+					resultListBuilder.buildListView(chromosome);
 					// tell the operation pool that a chromosome is done
 					op.notifyDone();
 					return null;
@@ -32,11 +32,11 @@ import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.OperationWithConstant;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.SimpleScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -79,7 +79,7 @@ public class SCWLOOperationWithConstant implements Operation<SCWList> {
 		final SCWListBuilder resultListBuilder = new SCWListBuilder(scwList);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = scwList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(scwList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -88,12 +88,12 @@ public class SCWLOOperationWithConstant implements Operation<SCWList> {
 						int lastStop = 1;
 						// we add a constant to each element
 						for (int j = 0; (j < currentList.size()) && !stopped; j++) {
-							int start = currentList.get(j).getStart();
-							int stop = currentList.get(j).getStop();
+							int start = currentList.getStart(j);
+							int stop = currentList.getStop(j);
 							if ((start != lastStop) && applyToNullWindows) {
 								resultListBuilder.addElementToBuild(chromosome, lastStop, start, computeScore(0));
 							}
-							float currentScore = currentList.get(j).getScore();
+							float currentScore = currentList.getScore(j);
 							if (applyToNullWindows || (currentScore != 0)) {
 								resultListBuilder.addElementToBuild(chromosome, start, stop, computeScore(currentScore));
 							}
@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.operation.SCWList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+import edu.yu.einstein.genplay.core.operation.Operation;
+import edu.yu.einstein.genplay.core.operationPool.OperationPool;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
+
+
+/**
+ * Selects the scores with the specified ranks among the scores of all the windows of a {@link SCWList}.
+ * The result is the same as sorting all the scores with {@link Arrays#sort(float[])} and retrieving
+ * the scores at the specified indexes, but the scores are neither copied nor sorted.<br>
+ * The selection is an exact radix selection on the bits of the scores done in two passes computed in parallel
+ * on the chromosomes: the first pass counts the scores for each value of their 16 high bits, the second pass counts
+ * the scores for each value of their 16 low bits in the buckets containing the ranks.
+ * @author Julien Lajugie
+ */
+public class SCWLOSelectScores implements Operation<float[]> {
+
+	/** Number of bits of the scores processed by a pass */
+	private static final int RADIX_BITS = 16;
+
+	/** Number of buckets of a pass */
+	private static final int BUCKET_COUNT = 1 << RADIX_BITS;
+
+	/** Mask of the low bits of the scores */
+	private static final int LOW_BITS_MASK = BUCKET_COUNT - 1;
+
+	private final SCWList 	inputList;			// input list
+	private final long[]	ranks;				// ranks of the scores to select
+	private boolean			stopped = false;	// true if the operation must be stopped
+
+
+	/**
+	 * Creates an instance of {@link SCWLOSelectScores}
+	 * @param inputList input list
+	 * @param ranks ranks of the scores to select, from 0 for the smallest score
+	 * to the number of windows of the list minus 1 for the greatest score
+	 */
+	public SCWLOSelectScores(SCWList inputList, long... ranks) {
+		this.inputList = inputList;
+		this.ranks = ranks;
+	}
+
+
+	@Override
+	public float[] compute() throws Exception {
+		long windowCount = 0;
+		for (ListView<ScoredChromosomeWindow> currentList: inputList) {
+			if (currentList != null) {
+				windowCount += currentList.size();
+			}
+		}
+		for (long currentRank: ranks) {
+			if ((currentRank < 0) || (currentRank >= windowCount)) {
+				throw new IllegalArgumentException("The rank must be between 0 and the number of windows of the list minus 1");
+			}
+		}
+		// first pass: find the high bits of the selected scores and their ranks in their buckets
+		long[] highCounts = countBuckets(null);
+		int[] highBits = new int[ranks.length];
+		long[] bucketRanks = new long[ranks.length];
+		for (int i = 0; i < ranks.length; i++) {
+			highBits[i] = findBucket(highCounts, ranks[i]);
+			bucketRanks[i] = ranks[i] - countPreviousBuckets(highCounts, highBits[i]);
+		}
+		// second pass: find the low bits of the selected scores
+		int[] selectedBuckets = distinct(highBits);
+		long[] lowCounts = countBuckets(selectedBuckets);
+		float[] selectedScores = new float[ranks.length];
+		for (int i = 0; i < ranks.length; i++) {
+			int bucketOffset = Arrays.binarySearch(selectedBuckets, highBits[i]) * BUCKET_COUNT;
+			long[] bucketLowCounts = Arrays.copyOfRange(lowCounts, bucketOffset, bucketOffset + BUCKET_COUNT);
+			int lowBits = findBucket(bucketLowCounts, bucketRanks[i]);
+			selectedScores[i] = toScore((highBits[i] << RADIX_BITS) | lowBits);
+		}
+		return selectedScores;
+	}
+
+
+	/**
+	 * Counts the scores of the list per bucket.  The chromosomes are processed in parallel and the counts of
+	 * each chromosome are added to the result as soon as the chromosome is done.  Empty chromosomes are skipped.
+	 * @param selectedBuckets sorted high bits of the buckets to count per low bits during the second pass,
+	 * null to count all the scores per high bits during the first pass
+	 * @return the counts of the buckets.  During the second pass, the counts of the low bits of the
+	 * selected buckets are concatenated in the order of the selected buckets
+	 * @throws Exception
+	 */
+	private long[] countBuckets(final int[] selectedBuckets) throws Exception {
+		final OperationPool op = OperationPool.getInstance();
+		final Collection<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
+		final int countLength = selectedBuckets == null ? BUCKET_COUNT : BUCKET_COUNT * selectedBuckets.length;
+		final long[] counts = new long[countLength];
+		for (final ListView<ScoredChromosomeWindow> currentList: inputList) {
+			if ((currentList != null) && (currentList.size() > 0)) {
+				Callable<Void> currentThread = new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						int[] chromosomeCounts = new int[countLength];
+						SCWListView currentSCWList = SCWListViews.asSCWListView(currentList);
+						for (int j = 0; (j < currentSCWList.size()) && !stopped; j++) {
+							int key = toKey(currentSCWList.getScore(j));
+							int highBits = key >>> RADIX_BITS;
+							if (selectedBuckets == null) {
+								chromosomeCounts[highBits]++;
+							} else {
+								int bucketIndex = Arrays.binarySearch(selectedBuckets, highBits);
+								if (bucketIndex >= 0) {
+									chromosomeCounts[(bucketIndex * BUCKET_COUNT) + (key & LOW_BITS_MASK)]++;
+								}
+							}
+						}
+						synchronized (counts) {
+							for (int i = 0; i < countLength; i++) {
+								counts[i] += chromosomeCounts[i];
+							}
+						}
+						// notify that the current chromosome is done
+						op.notifyDone();
+						return null;
+					}
+				};
+				threadList.add(currentThread);
+			}
+		}
+		op.startPool(threadList);
+		return counts;
+	}
+
+
+	/**
+	 * @param counts counts of the buckets
+	 * @param bucket a bucket
+	 * @return the number of elements in the buckets before the specified bucket
+	 */
+	private static long countPreviousBuckets(long[] counts, int bucket) {
+		long count = 0;
+		for (int i = 0; i < bucket; i++) {
+			count += counts[i];
+		}
+		return count;
+	}
+
+
+	/**
+	 * @param values an array of integers
+	 * @return the sorted distinct values of the specified array
+	 */
+	private static int[] distinct(int[] values) {
+		int[] sortedValues = values.clone();
+		Arrays.sort(sortedValues);
+		int distinctCount = 0;
+		for (int i = 0; i < sortedValues.length; i++) {
+			if ((i == 0) || (sortedValues[i] != sortedValues[i - 1])) {
+				sortedValues[distinctCount++] = sortedValues[i];
+			}
+		}
+		return Arrays.copyOf(sortedValues, distinctCount);
+	}
+
+
+	/**
+	 * @param counts counts of the buckets
+	 * @param rank a rank
+	 * @return the bucket containing the element with the specified rank
+	 */
+	private static int findBucket(long[] counts, long rank) {
+		for (int i = 0; i < counts.length; i++) {
+			rank -= counts[i];
+			if (rank < 0) {
+				return i;
+			}
+		}
+		throw new IllegalStateException("The rank is greater than the number of elements");
+	}
+
+
+	@Override
+	public String getDescription() {
+		return "Operation: Select Scores";
+	}
+
+
+	@Override
+	public String getProcessingDescription() {
+		return "Selecting Scores";
+	}
+
+
+	@Override
+	public int getStepCount() {
+		return 2;
+	}
+
+
+	@Override
+	public void stop() {
+		stopped = true;
+	}
+
+
+	/**
+	 * @param score a score
+	 * @return an integer key such as the unsigned order of the keys is the order of the scores
+	 * sorted by {@link Arrays#sort(float[])}
+	 */
+	private static int toKey(float score) {
+		int bits = Float.floatToIntBits(score);
+		// flip all the bits of the negative values and the sign bit of the positive values
+		return bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+	}
+
+
+	/**
+	 * @param key a key computed by {@link #toKey(float)}
+	 * @return the score of the specified key
+	 */
+	private static float toScore(int key) {
+		int bits = key ^ ((~key >> 31) | Integer.MIN_VALUE);
+		return Float.intBitsToFloat(bits);
+	}
+}
@@ -32,10 +32,9 @@ import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
@@ -75,7 +74,7 @@ public class SCWLOTransfrag implements Operation<SCWList> {
 		final SCWListBuilder resultListBuilder = new SCWListBuilder(scwList);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = scwList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(scwList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -84,7 +83,7 @@ public class SCWLOTransfrag implements Operation<SCWList> {
 						int j = 0;
 						while ((j < currentList.size()) && !stopped) {
 							// skip zero values
-							while ((j < currentList.size()) && (currentList.get(j).getScore() == 0) && !stopped) {
+							while ((j < currentList.size()) && (currentList.getScore(j) == 0) && !stopped) {
 								j++;
 							}
 							int regionStartIndex = j;
@@ -93,10 +92,10 @@ public class SCWLOTransfrag implements Operation<SCWList> {
 							// a region stops when there is maxZeroWindowGap consecutive zero bins
 							while (((j + 1) < currentList.size()) && (gapSize <= zeroSCWGap) && !stopped) {
 								regionStopIndex = j;
-								if (currentList.get(j + 1).getScore() == 0) {
+								if (currentList.getScore(j + 1) == 0) {
 									gapSize += currentList.get(j + 1).getSize();
-								} else if (currentList.get(j + 1).getStart() != currentList.get(j).getStop()) {
-									gapSize += currentList.get(j + 1).getStart() - currentList.get(j).getStop();
+								} else if (currentList.getStart(j + 1) != currentList.getStop(j)) {
+									gapSize += currentList.getStart(j + 1) - currentList.getStop(j);
 								} else {
 									gapSize = 0;
 								}
@@ -118,7 +117,7 @@ public class SCWLOTransfrag implements Operation<SCWList> {
 									// all the windows of the region are set with the sum value on the region
 									regionScore = (float) SCWListViews.sum(currentList, regionStartIndex, regionStopIndex);
 								}
-								resultListBuilder.addElementToBuild(chromosome, currentList.get(regionStartIndex).getStart(), currentList.get(regionStopIndex).getStop(), regionScore);
+								resultListBuilder.addElementToBuild(chromosome, currentList.getStart(regionStartIndex), currentList.getStop(regionStopIndex), regionScore);
 							}
 							j++;
 						}
@@ -35,6 +35,7 @@ import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
 import edu.yu.einstein.genplay.dataStructure.enums.Strand;
 import edu.yu.einstein.genplay.dataStructure.gene.Gene;
 import edu.yu.einstein.genplay.dataStructure.gene.SimpleGene;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.geneListView.GeneListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.ListOfListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
@@ -84,7 +85,7 @@ public class SCWLOTransfragGeneList implements Operation<GeneList> {
 		final ListOfListViewBuilder<Gene> resultListBuilder = new ListOfListViewBuilder<Gene>(builderPrototype);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = scwList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(scwList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -96,7 +97,7 @@ public class SCWLOTransfragGeneList implements Operation<GeneList> {
 						int j = 0;
 						while ((j < currentList.size()) && !stopped) {
 							// skip zero values
-							while ((j < currentList.size()) && (currentList.get(j).getScore() == 0) &&!stopped) {
+							while ((j < currentList.size()) && (currentList.getScore(j) == 0) &&!stopped) {
 								j++;
 							}
 							int regionStartIndex = j;
@@ -106,10 +107,10 @@ public class SCWLOTransfragGeneList implements Operation<GeneList> {
 							// a region stops when there is maxZeroWindowGap consecutive zero bins
 							while (((j + 1) < currentList.size()) && (gapSize <= zeroSCWGap) && !stopped) {
 								regionStopIndex = j;
-								if (currentList.get(j + 1).getScore() == 0) {
+								if (currentList.getScore(j + 1) == 0) {
 									gapSize += currentList.get(j + 1).getSize();
-								} else if (currentList.get(j + 1).getStart() != currentList.get(j).getStop()) {
-									gapSize += currentList.get(j + 1).getStart() - currentList.get(j).getStop();
+								} else if (currentList.getStart(j + 1) != currentList.getStop(j)) {
+									gapSize += currentList.getStart(j + 1) - currentList.getStop(j);
 								} else {
 									gapSize = 0;
 								}
@@ -131,8 +132,8 @@ public class SCWLOTransfragGeneList implements Operation<GeneList> {
 									// all the windows of the region are set with the sum value on the region
 									regionScore = (float) SCWListViews.sum(currentList, regionStartIndex, regionStopIndex);
 								}
-								int regionStart = currentList.get(regionStartIndex).getStart();
-								int regionStop = currentList.get(regionStopIndex).getStop();
+								int regionStart = currentList.getStart(regionStartIndex);
+								int regionStop = currentList.getStop(regionStopIndex);
 								exons = SCWListViews.createGenericSCWListView(regionStart, regionStop, regionScore);
 								newGene = new SimpleGene(chromosome.getName() + "." + Integer.toString(geneCounter++), Strand.get('+'), regionStart, regionStop, regionScore, exons);
 								resultListBuilder.addElementToBuild(chromosome, newGene);
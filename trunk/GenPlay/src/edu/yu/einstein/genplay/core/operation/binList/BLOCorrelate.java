@@ -29,10 +29,10 @@ import java.util.concurrent.ExecutionException;
 
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.exception.exceptions.BinListDifferentWindowSizeException;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -95,8 +95,8 @@ public class BLOCorrelate implements Operation<Double[]> {
 		final OperationPool op = OperationPool.getInstance();
 		final Collection<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
 		for (int i = 0; i < binList1.size(); i++) {
-			final ListView<ScoredChromosomeWindow> currentList1 = binList1.get(i);
-			final ListView<ScoredChromosomeWindow> currentList2 = binList2.get(i);
+			final SCWListView currentList1 = SCWListViews.asSCWListView(binList1.get(i));
+			final SCWListView currentList2 = SCWListViews.asSCWListView(binList2.get(i));
 			final int currentIndex = i;
 			Callable<Void> currentThread = new Callable<Void>() {
 				@Override
@@ -104,8 +104,8 @@ public class BLOCorrelate implements Operation<Double[]> {
 					if ((currentList1 != null) && (currentList2 != null)) {
 						int j = 0;
 						while ((j < currentList1.size()) && (j < currentList2.size())) {
-							double scoreList1 = currentList1.get(j).getScore();
-							double scoreList2 = currentList2.get(j).getScore();
+							double scoreList1 = currentList1.getScore(j);
+							double scoreList2 = currentList2.getScore(j);
 							if ((scoreList1 != 0) && (scoreList2 != 0)) {
 								stdevs1[currentIndex] += Math.pow(scoreList1 - means1[currentIndex], 2);
 								stdevs2[currentIndex] += Math.pow(scoreList2 - means2[currentIndex], 2);
@@ -169,8 +169,8 @@ public class BLOCorrelate implements Operation<Double[]> {
 		final OperationPool op = OperationPool.getInstance();
 		final Collection<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
 		for (int i = 0; i < binList1.size(); i++) {
-			final ListView<ScoredChromosomeWindow> currentList1 = binList1.get(i);
-			final ListView<ScoredChromosomeWindow> currentList2 = binList2.get(i);
+			final SCWListView currentList1 = SCWListViews.asSCWListView(binList1.get(i));
+			final SCWListView currentList2 = SCWListViews.asSCWListView(binList2.get(i));
 			final int currentIndex = i;
 			Callable<Void> currentThread = new Callable<Void>() {
 				@Override
@@ -179,8 +179,8 @@ public class BLOCorrelate implements Operation<Double[]> {
 						int j = 0;
 						// compute the average only when the two scores are not null
 						while ((j < currentList1.size()) && (j < currentList2.size()) && !stopped) {
-							double scoreList1 = currentList1.get(j).getScore();
-							double scoreList2 = currentList2.get(j).getScore();
+							double scoreList1 = currentList1.getScore(j);
+							double scoreList2 = currentList2.getScore(j);
 							if ((scoreList1 != 0) && (scoreList2 != 0)) {
 								means1[currentIndex] += scoreList1;
 								means2[currentIndex] += scoreList2;
@@ -33,10 +33,10 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -71,7 +71,7 @@ public class BLODensity implements Operation<BinList> {
 		final BinListBuilder resultListBuilder = new BinListBuilder(binList.getBinSize());
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = binList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(binList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -82,7 +82,7 @@ public class BLODensity implements Operation<BinList> {
 							int noneZeroBinCount = 0;
 							for (int k = -halfWidth; (k <= halfWidth) && !stopped; k++) {
 								if(((j + k) >= 0) && ((j + k) < currentList.size()))  {
-									if (currentList.get(j + k).getScore() != 0) {
+									if (currentList.getScore(j + k) != 0) {
 										noneZeroBinCount++;
 									}
 								}
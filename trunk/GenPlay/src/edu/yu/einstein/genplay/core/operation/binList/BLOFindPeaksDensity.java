@@ -31,10 +31,10 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -78,7 +78,7 @@ public class BLOFindPeaksDensity implements Operation<BinList[]> {
 		final BinListBuilder resultListBuilder = new BinListBuilder(binList.getBinSize());
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = binList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(binList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -86,7 +86,7 @@ public class BLOFindPeaksDensity implements Operation<BinList[]> {
 					if (currentList != null) {
 						for (int j = 0; (j < currentList.size()) && !stopped; j++) {
 							float score = 0;
-							if (currentList.get(j).getScore() != 0) {
+							if (currentList.getScore(j) != 0) {
 								int indexStart = j - halfWidth;
 								int indexStop = j + halfWidth;
 								// if the start index is negative we set it to 0
@@ -102,13 +102,13 @@ public class BLOFindPeaksDensity implements Operation<BinList[]> {
 								int k = indexStart;
 								while ((binSelectedCount < minBinCount) && (k <= indexStop) && !stopped) {
 									// depending on the filter type we accept values above or under the threshold
-									if ((currentList.get(k).getScore() > lowThreshold) && (currentList.get(k).getScore() < highThreshold)) {
+									if ((currentList.getScore(k) > lowThreshold) && (currentList.getScore(k) < highThreshold)) {
 										binSelectedCount++;
 									}
 									k++;
 								}
 								if (binSelectedCount >= minBinCount) {
-									score = currentList.get(j).getScore();
+									score = currentList.getScore(j);
 								}
 							}
 							resultListBuilder.addElementToBuild(chromosome, score);
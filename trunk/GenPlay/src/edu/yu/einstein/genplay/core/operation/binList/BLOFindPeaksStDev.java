@@ -33,10 +33,9 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
@@ -74,7 +73,7 @@ public class BLOFindPeaksStDev implements Operation<BinList[]> {
 		final BinListBuilder resultListBuilder = new BinListBuilder(binList.getBinSize());
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = binList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(binList.get(chromosome));
 			int chromosomeIndex = projectChromosomes.getIndex(chromosome);
 			final double sd = binList.getStatistics().getStandardDeviations()[chromosomeIndex];
 			Callable<Void> currentThread = new Callable<Void>() {
@@ -88,7 +87,7 @@ public class BLOFindPeaksStDev implements Operation<BinList[]> {
 							double minAcceptedSD = nbSDAccepted * sd;
 							for (int j = 0; (j < currentList.size()) && !stopped; j++) {
 								float score = 0;
-								if (currentList.get(j).getScore() != 0) {
+								if (currentList.getScore(j) != 0) {
 									int indexStart = j - halfWidth;
 									int indexStop = j + halfWidth;
 									// if the start index is negative we set it to 0
@@ -103,7 +102,7 @@ public class BLOFindPeaksStDev implements Operation<BinList[]> {
 									double localStdev = SCWListViews.standardDeviation(currentList, indexStart, indexStop);
 									if ((localStdev != 0) && (localStdev >= minAcceptedSD)) {
 										// if the local stdev is higher than the threshold we keep the bin
-										score = currentList.get(j).getScore();
+										score = currentList.getScore(j);
 									}
 								}
 								resultListBuilder.addElementToBuild(chromosome, score);
@@ -35,12 +35,12 @@ import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.exception.exceptions.BinListDifferentWindowSizeException;
 import edu.yu.einstein.genplay.util.FloatLists;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -85,8 +85,8 @@ public class BLOIntervalsScoring implements Operation<BinList> {
 		final BinListBuilder resultListBuilder = new BinListBuilder(valueList.getBinSize());
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentIntervals = intervalList.get(chromosome);
-			final ListView<ScoredChromosomeWindow> currentValues = valueList.get(chromosome);
+			final SCWListView currentIntervals = SCWListViews.asSCWListView(intervalList.get(chromosome));
+			final SCWListView currentValues = SCWListViews.asSCWListView(valueList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -94,15 +94,15 @@ public class BLOIntervalsScoring implements Operation<BinList> {
 					if ((currentIntervals != null) && (currentValues != null)) {
 						int j = 0;
 						while ((j < currentIntervals.size()) && (j < currentValues.size()) && !stopped) {
-							while ((j < currentIntervals.size()) && (j < currentValues.size()) && (currentIntervals.get(j).getScore() == 0) && !stopped) {
-								resultListBuilder.addElementToBuild(chromosome, currentIntervals.get(j).getScore());
+							while ((j < currentIntervals.size()) && (j < currentValues.size()) && (currentIntervals.getScore(j) == 0) && !stopped) {
+								resultListBuilder.addElementToBuild(chromosome, currentIntervals.getScore(j));
 								j++;
 							}
 							int k = j;
 							List<Float> values = new ArrayList<Float>();
-							while ((j < currentIntervals.size()) && (j < currentValues.size()) && (currentIntervals.get(j).getScore() != 0) && !stopped) {
-								if (currentValues.get(j).getScore() != 0) {
-									values.add(currentValues.get(j).getScore());
+							while ((j < currentIntervals.size()) && (j < currentValues.size()) && (currentIntervals.getScore(j) != 0) && !stopped) {
+								if (currentValues.getScore(j) != 0) {
+									values.add(currentValues.getScore(j));
 								}
 								j++;
 							}
@@ -22,20 +22,23 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.operation.binList;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.concurrent.Callable;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
+import edu.yu.einstein.genplay.core.operationPool.ChromosomeRange;
+import edu.yu.einstein.genplay.core.operationPool.ChromosomeRangeOperation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
-import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.bin.BinListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
-import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
+import edu.yu.einstein.genplay.util.SlidingWindowKernels;
 
 
 /**
@@ -48,7 +51,7 @@ public class BLOLoessRegression implements Operation<BinList> {
 	private final BinList 	binList;			// input list
 	private final int 		movingWindowWidth;	// size of the moving window in bp
 	private final boolean	fillNullValues; 	// true to fill the null values
-	private boolean			stopped = false;	// true if the operation must be stopped
+	private volatile boolean stopped = false;	// true if the operation must be stopped
 
 
 	/**
@@ -76,58 +79,40 @@ public class BLOLoessRegression implements Operation<BinList> {
 		}
 
 		ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
-		final OperationPool op = OperationPool.getInstance();
-		final Collection<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
-		final BinListBuilder resultListBuilder = new BinListBuilder(binList.getBinSize());
-
-		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = binList.get(chromosome);
-			Callable<Void> currentThread = new Callable<Void>() {
-
-				@Override
-				public Void call() throws Exception {
-					if (currentList != null) {
-						for(int j = 0; (j < currentList.size()) && !stopped; j++) {
-							float score = 0f;
-							if ((currentList.get(j).getScore() != 0) || (fillNullValues)) {
-								// apply the array of coefficients centered on the current value to gauss
-								double sumWts = 0;
-								double sumWtX = 0;
-								double sumWtX2 = 0;
-								double sumWtY = 0;
-								double sumWtXY = 0;
-								for (int k = -halfWidth; (k <= halfWidth) && !stopped; k++) {
-									int movingX = j + k; // x coordinate of the current point in the moving window
-									if((movingX >= 0) && (movingX < currentList.size()))  {
-										int distance = Math.abs(k);
-										if(currentList.get(j + k).getScore() != 0)  {
-											sumWts += weights[distance];
-											sumWtX += movingX * weights[distance];
-											sumWtX2 += (movingX ^ 2) * weights[distance];
-											sumWtY += currentList.get(movingX).getScore() * weights[distance];
-											sumWtXY += movingX * currentList.get(movingX).getScore() * weights[distance];
-										}
-									}
-								}
-								double denom = (sumWts * sumWtX2) - Math.pow(sumWtX, 2);
-								if(denom != 0) {
-									double WLRSlope = ((sumWts * sumWtXY) - (sumWtX * sumWtY)) / denom;
-									double WLRIntercept = ((sumWtX2 * sumWtY) - (sumWtX * sumWtXY)) / denom;
-									double yLoess = (WLRSlope * j) + WLRIntercept;
-									score = (float) yLoess;
-								}
-								resultListBuilder.addElementToBuild(chromosome, score);
-							}
-						}
+		int[] elementCounts = new int[projectChromosomes.size()];
+		for (int i = 0; i < projectChromosomes.size(); i++) {
+			ListView<ScoredChromosomeWindow> currentList = binList.get(i);
+			elementCounts[i] = currentList == null ? 0 : currentList.size();
+		}
+
+		// the chromosomes are split into ranges computed in parallel.
+		// the halo of the ranges contains the bins of the moving window
+		ChromosomeRangeOperation<ScoredChromosomeWindow> rangeOperation = new ChromosomeRangeOperation<ScoredChromosomeWindow>() {
+
+			@Override
+			public void compute(ChromosomeRange range, ListViewBuilder<ScoredChromosomeWindow> rangeBuilder) throws Exception {
+				if (stopped) {
+					// the remaining ranges are not computed
+					throw new InterruptedException();
+				}
+				SCWListView currentList = SCWListViews.asSCWListView(binList.get(range.getChromosomeIndex()));
+				BinListViewBuilder binRangeBuilder = (BinListViewBuilder) rangeBuilder;
+				// copy the scores of the halo of the range in an array
+				float[] scores = new float[range.getHaloStop() - range.getHaloStart()];
+				currentList.getScores(range.getHaloStart(), range.getHaloStop(), scores, 0);
+				int offset = range.getStart() - range.getHaloStart();
+				float[] smoothedScores = new float[range.size()];
+				SlidingWindowKernels.loessRegression(scores, range.getHaloStart(), weights, offset, offset + range.size(), smoothedScores);
+				for (int j = 0; j < range.size(); j++) {
+					// the loess operation skips the null bins when the null values are not filled
+					if ((scores[offset + j] != 0) || (fillNullValues)) {
+						binRangeBuilder.addElementToBuild(smoothedScores[j]);
 					}
-					op.notifyDone();
-					return null;
 				}
-			};
-			threadList.add(currentThread);
-		}
-		op.startPool(threadList);
-		return (BinList) resultListBuilder.getSCWList();
+			}
+		};
+		List<ListView<ScoredChromosomeWindow>> resultList = OperationPool.getInstance().startRangePool(elementCounts, halfWidth, new BinListViewBuilder(binSize), rangeOperation);
+		return new BinList(resultList);
 	}
 
 
@@ -22,20 +22,23 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.operation.binList;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.concurrent.Callable;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
+import edu.yu.einstein.genplay.core.operationPool.ChromosomeRange;
+import edu.yu.einstein.genplay.core.operationPool.ChromosomeRangeOperation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
-import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.bin.BinListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
-import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
+import edu.yu.einstein.genplay.util.SlidingWindowKernels;
 
 
 /**
@@ -47,7 +50,7 @@ public class BLOMovingAverage implements Operation<BinList> {
 	private final BinList 	binList;			// input list
 	private final int		movingWindowWidth;	// the size of the average window
 	private final boolean	fillNullValues; 	// true to fill the null values
-	private boolean			stopped = false;	// true if the operation must be stopped
+	private volatile boolean stopped = false;	// true if the operation must be stopped
 
 
 	/**
@@ -70,45 +73,41 @@ public class BLOMovingAverage implements Operation<BinList> {
 		final int halfWidthBin = movingWindowWidth / 2 / binSize;
 
 		ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
-		final OperationPool op = OperationPool.getInstance();
-		final Collection<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
-		final BinListBuilder resultListBuilder = new BinListBuilder(binList.getBinSize());
-
-		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = binList.get(chromosome);
-			Callable<Void> currentThread = new Callable<Void>() {
-
-				@Override
-				public Void call() throws Exception {
-					if (currentList != null) {
-						for(int j = 0; (j < currentList.size()) && !stopped; j++) {
-							float score = 0f;
-							if ((currentList.get(j).getScore() != 0) || (fillNullValues)) {
-								double count = 0;
-								double SumNormSignalCoef = 0;
-								for (int k = -halfWidthBin; (k <= halfWidthBin) && !stopped; k++) {
-									if(((j + k) >= 0) && ((j + k) < currentList.size()))  {
-										if(currentList.get(j + k).getScore() != 0)  {
-											SumNormSignalCoef += currentList.get(j + k).getScore();
-											count++;
-										}
-									}
-								}
-								if(count != 0) {
-									score = (float) (SumNormSignalCoef / count);
-								}
-							}
-							resultListBuilder.addElementToBuild(chromosome, score);
-						}
+		int[] elementCounts = new int[projectChromosomes.size()];
+		for (int i = 0; i < projectChromosomes.size(); i++) {
+			ListView<ScoredChromosomeWindow> currentList = binList.get(i);
+			elementCounts[i] = currentList == null ? 0 : currentList.size();
+		}
+
+		// the chromosomes are split into ranges computed in parallel.
+		// the halo of the ranges contains the bins of the moving window
+		ChromosomeRangeOperation<ScoredChromosomeWindow> rangeOperation = new ChromosomeRangeOperation<ScoredChromosomeWindow>() {
+
+			@Override
+			public void compute(ChromosomeRange range, ListViewBuilder<ScoredChromosomeWindow> rangeBuilder) throws Exception {
+				if (stopped) {
+					// the remaining ranges are not computed
+					throw new InterruptedException();
+				}
+				SCWListView currentList = SCWListViews.asSCWListView(binList.get(range.getChromosomeIndex()));
+				BinListViewBuilder binRangeBuilder = (BinListViewBuilder) rangeBuilder;
+				// copy the scores of the halo of the range in an array
+				float[] scores = new float[range.getHaloStop() - range.getHaloStart()];
+				currentList.getScores(range.getHaloStart(), range.getHaloStop(), scores, 0);
+				int offset = range.getStart() - range.getHaloStart();
+				float[] smoothedScores = new float[range.size()];
+				SlidingWindowKernels.movingAverage(scores, halfWidthBin, offset, offset + range.size(), smoothedScores);
+				for (int j = 0; j < range.size(); j++) {
+					float score = 0f;
+					if ((scores[offset + j] != 0) || (fillNullValues)) {
+						score = smoothedScores[j];
 					}
-					op.notifyDone();
-					return null;
+					binRangeBuilder.addElementToBuild(score);
 				}
-			};
-			threadList.add(currentThread);
-		}
-		op.startPool(threadList);
-		return (BinList) resultListBuilder.getSCWList();
+			}
+		};
+		List<ListView<ScoredChromosomeWindow>> resultList = OperationPool.getInstance().startRangePool(elementCounts, halfWidthBin, new BinListViewBuilder(binSize), rangeOperation);
+		return new BinList(resultList);
 	}
 
 
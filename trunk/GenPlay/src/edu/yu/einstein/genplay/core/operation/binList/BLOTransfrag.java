@@ -34,10 +34,9 @@ import edu.yu.einstein.genplay.core.operation.Operation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
-import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
@@ -81,7 +80,7 @@ public class BLOTransfrag implements Operation<BinList> {
 		final BinListBuilder resultListBuilder = new BinListBuilder(binList.getBinSize());
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = binList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(binList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -90,7 +89,7 @@ public class BLOTransfrag implements Operation<BinList> {
 						int j = 0;
 						while ((j < currentList.size()) && !stopped) {
 							// skip zero values
-							while ((j < currentList.size()) && (currentList.get(j).getScore() == 0) && !stopped) {
+							while ((j < currentList.size()) && (currentList.getScore(j) == 0) && !stopped) {
 								resultListBuilder.addElementToBuild(chromosome, 0);
 								j++;
 							}
@@ -99,7 +98,7 @@ public class BLOTransfrag implements Operation<BinList> {
 							int zeroWindowCount = 0;
 							// a region stops when there is maxZeroWindowGap consecutive zero bins
 							while ((j < currentList.size()) && (zeroWindowCount <= zeroBinGap) && !stopped) {
-								if (currentList.get(j).getScore() == 0) {
+								if (currentList.getScore(j) == 0) {
 									zeroWindowCount++;
 								} else {
 									zeroWindowCount = 0;
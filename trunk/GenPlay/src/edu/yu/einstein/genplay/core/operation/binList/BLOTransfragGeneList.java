@@ -36,6 +36,7 @@ import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
 import edu.yu.einstein.genplay.dataStructure.enums.Strand;
 import edu.yu.einstein.genplay.dataStructure.gene.Gene;
 import edu.yu.einstein.genplay.dataStructure.gene.SimpleGene;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.geneListView.GeneListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.ListOfListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
@@ -87,7 +88,7 @@ public class BLOTransfragGeneList implements Operation<GeneList> {
 		final ListOfListViewBuilder<Gene> resultListBuilder = new ListOfListViewBuilder<Gene>(lvbPrototype);
 
 		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList = binList.get(chromosome);
+			final SCWListView currentList = SCWListViews.asSCWListView(binList.get(chromosome));
 			Callable<Void> currentThread = new Callable<Void>() {
 
 				@Override
@@ -97,7 +98,7 @@ public class BLOTransfragGeneList implements Operation<GeneList> {
 						int geneCounter = 1;
 						while ((j < currentList.size()) && !stopped) {
 							// skip zero values
-							while ((j < currentList.size()) && (currentList.get(j).getScore() == 0) && !stopped) {
+							while ((j < currentList.size()) && (currentList.getScore(j) == 0) && !stopped) {
 								j++;
 							}
 							int regionStart = j;
@@ -106,7 +107,7 @@ public class BLOTransfragGeneList implements Operation<GeneList> {
 
 							// a region stops when there is maxZeroWindowGap consecutive zero bins
 							while ((j < currentList.size()) && (zeroWindowCount <= zeroBinGap) && !stopped) {
-								if (currentList.get(j).getScore() == 0) {
+								if (currentList.getScore(j) == 0) {
 									zeroWindowCount++;
 								} else {
 									zeroWindowCount = 0;
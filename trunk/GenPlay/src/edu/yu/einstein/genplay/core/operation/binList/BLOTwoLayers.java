@@ -34,12 +34,14 @@ import edu.yu.einstein.genplay.core.operation.SCWList.SCWLOTwoLayers;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.exception.exceptions.BinListDifferentWindowSizeException;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -85,8 +87,8 @@ public class BLOTwoLayers implements Operation<SCWList> {
 		final BinListBuilder resultListBuilder = new BinListBuilder(binList1.getBinSize());
 
 		for(final Chromosome currentChromosome : projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentList1 = binList1.get(currentChromosome);
-			final ListView<ScoredChromosomeWindow> currentList2 = binList2.get(currentChromosome);
+			final SCWListView currentList1 = SCWListViews.asSCWListView(binList1.get(currentChromosome));
+			final SCWListView currentList2 = SCWListViews.asSCWListView(binList2.get(currentChromosome));
 			final boolean firstLayerIsEmpty = (currentList1 == null) || currentList1.isEmpty();
 			final boolean secondLayerIsEmpty = (currentList2 == null) || currentList2.isEmpty();
 
@@ -99,7 +101,7 @@ public class BLOTwoLayers implements Operation<SCWList> {
 							float score = 0f;
 							if (j < currentList2.size()) {
 								// we add the bins of the two binlists
-								score =  getScore(currentList1.get(j).getScore(), currentList2.get(j).getScore());
+								score =  getScore(currentList1.getScore(j), currentList2.getScore(j));
 							}
 							resultListBuilder.addElementToBuild(currentChromosome, score);
 						}
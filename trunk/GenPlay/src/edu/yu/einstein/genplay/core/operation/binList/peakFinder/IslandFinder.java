@@ -34,6 +34,7 @@ import edu.yu.einstein.genplay.core.operationPool.OperationPool;
 import edu.yu.einstein.genplay.core.stat.MathFunctions;
 import edu.yu.einstein.genplay.core.stat.Poisson;
 import edu.yu.einstein.genplay.dataStructure.enums.IslandResultType;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.bin.BinListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
@@ -42,6 +43,7 @@ import edu.yu.einstein.genplay.exception.ExceptionManager;
 import edu.yu.einstein.genplay.exception.exceptions.InvalidFactorialParameterException;
 import edu.yu.einstein.genplay.exception.exceptions.InvalidLambdaPoissonParameterException;
 import edu.yu.einstein.genplay.gui.statusBar.Stoppable;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 /**
  * IslandFinder
@@ -117,7 +119,7 @@ public class IslandFinder implements Serializable, Stoppable {
 		final OperationPool op = OperationPool.getInstance();
 		final Collection<Callable<ListView<ScoredChromosomeWindow>>> threadList = new ArrayList<Callable<ListView<ScoredChromosomeWindow>>>();
 		for (short i = 0; i < binList.size(); i++) {
-			final ListView<ScoredChromosomeWindow> currentList = binList.get(i);
+			final SCWListView currentList = SCWListViews.asSCWListView(binList.get(i));
 			Callable<ListView<ScoredChromosomeWindow>> currentThread = new Callable<ListView<ScoredChromosomeWindow>>() {
 				@Override
 				public ListView<ScoredChromosomeWindow> call() throws Exception {
@@ -230,7 +232,7 @@ public class IslandFinder implements Serializable, Stoppable {
 	 * @return					list of windows values
 	 */
 	private ListView<ScoredChromosomeWindow> getListIsland (
-			ListView<ScoredChromosomeWindow> currentList,
+			SCWListView currentList,
 			List<Double> scoreIsland,
 			List<Integer> islandsStart,
 			List<Integer> islandsStop,
@@ -244,13 +246,13 @@ public class IslandFinder implements Serializable, Stoppable {
 					if (scoreIsland.get(currentPos) >= islandMinScore) {	// the island score must be higher than the cut-off
 						switch (resultType) {	// if the result type is
 						case FILTERED:
-							value = currentList.get(i).getScore();	// we keep the original value
+							value = currentList.getScore(i);	// we keep the original value
 							break;
 						case IFSCORE:
 							value = scoreIsland.get(currentPos);	// we keep the island score value
 							break;
 						case SUMMIT:
-							if (currentList.get(i).getScore() < islandSummits.get(currentPos)) {
+							if (currentList.getScore(i) < islandSummits.get(currentPos)) {
 								value = 0d;
 							} else {
 								value = islandSummits.get(currentPos);
@@ -307,7 +309,7 @@ public class IslandFinder implements Serializable, Stoppable {
 	 * @param islandsStop		stop positions of all islands
 	 * @return					list of score islands
 	 */
-	private List<Double> islandScore (ListView<ScoredChromosomeWindow> currentList,
+	private List<Double> islandScore (SCWListView currentList,
 			List<Integer> islandsStart,
 			List<Integer> islandsStop) {
 		List<Double> scoreIsland = new ArrayList<Double> ();
@@ -317,8 +319,8 @@ public class IslandFinder implements Serializable, Stoppable {
 			sumScore = 0.0;
 			int i = islandsStart.get(currentPos);
 			while ((i <= islandsStop.get(currentPos)) && !stopped) {	// Loop for the sum
-				if (currentList.get(i).getScore() >= windowMinValue) {	// the window reads must be highter than the readCountLimit
-					sumScore += windowScore(currentList.get(i).getScore());
+				if (currentList.getScore(i) >= windowMinValue) {	// the window reads must be highter than the readCountLimit
+					sumScore += windowScore(currentList.getScore(i));
 				}
 				i++;
 			}
@@ -338,7 +340,7 @@ public class IslandFinder implements Serializable, Stoppable {
 	 * @param islandsStop		stop positions of all islands
 	 * @return					list of score islands
 	 */
-	private List<Double> islandSummits (ListView<ScoredChromosomeWindow> currentList,
+	private List<Double> islandSummits (SCWListView currentList,
 			List<Integer> islandsStart,
 			List<Integer> islandsStop) {
 		List<Double> scoreIsland = new ArrayList<Double> ();
@@ -348,7 +350,7 @@ public class IslandFinder implements Serializable, Stoppable {
 			summitScore = Double.NEGATIVE_INFINITY; // the summit is the smallest double value
 			int i = islandsStart.get(currentPos);
 			while ((i <= islandsStop.get(currentPos)) && !stopped) {	// Loop for the sum
-				summitScore = Math.max(summitScore, currentList.get(i).getScore());
+				summitScore = Math.max(summitScore, currentList.getScore(i));
 				i++;
 			}
 			scoreIsland.add(summitScore);
@@ -387,7 +389,7 @@ public class IslandFinder implements Serializable, Stoppable {
 	 * @param currentList	current list of the bin list
 	 * @return				array list with start position on index 0 and stop position on index 1
 	 */
-	private List<List<Integer>> searchIslandPosition (ListView<ScoredChromosomeWindow> currentList) {
+	private List<List<Integer>> searchIslandPosition (SCWListView currentList) {
 		List<List<Integer>> islandsPositions = new ArrayList<List<Integer>>();
 		List<Integer> islandsStart = new ArrayList<Integer>();	// stores all start islands position
 		List<Integer> islandsStop = new ArrayList<Integer>();		// stores all stop islands position
@@ -396,12 +398,12 @@ public class IslandFinder implements Serializable, Stoppable {
 			int islandStartPos;
 			int islandStopPos;
 			while ((j < currentList.size()) && !stopped) {	// while we are below the current list size,
-				if (currentList.get(j).getScore() >= windowMinValue) {	// the current window score must be higher than readCountLimit
+				if (currentList.getScore(j) >= windowMinValue) {	// the current window score must be higher than readCountLimit
 					islandStartPos = j;
 					int gapFound = 0;	// there are no gap found
 					int jTmp = j + 1;	// we prepared the research on the next window
 					while ((gapFound <= gap) && (jTmp < currentList.size()) && !stopped) {	// while we are below the gap number authorized and below the list size
-						if (currentList.get(jTmp).getScore() >= windowMinValue) {	// if the next window score is higher than the readCountLimit
+						if (currentList.getScore(jTmp) >= windowMinValue) {	// if the next window score is higher than the readCountLimit
 							gapFound = 0;	// gap number found must be 0
 						} else {	// if the next window score is smaller than the readCountLimit
 							gapFound++;	// one gap is found
@@ -22,22 +22,20 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.core.operation.geneList;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.Callable;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.Operation;
+import edu.yu.einstein.genplay.core.operationPool.ChromosomeRange;
+import edu.yu.einstein.genplay.core.operationPool.ChromosomeRangeOperation;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
-import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.GeneScoreType;
 import edu.yu.einstein.genplay.dataStructure.gene.Gene;
 import edu.yu.einstein.genplay.dataStructure.gene.SimpleGene;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.geneListView.GeneListViewBuilder;
-import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.ListOfListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.geneList.GeneList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.geneList.SimpleGeneList;
@@ -45,6 +43,7 @@ import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.util.ListView.ChromosomeWindowListViews;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -82,128 +81,121 @@ public class GLOScoreFromSCWList implements Operation<GeneList> {
 		}
 
 		ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
-		final OperationPool op = OperationPool.getInstance();
-		final Collection<Callable<Void>> threadList = new ArrayList<Callable<Void>>();
-		ListViewBuilder<Gene> lvbPrototype = new GeneListViewBuilder();
-		final ListOfListViewBuilder<Gene> resultListBuilder = new ListOfListViewBuilder<Gene>(lvbPrototype);
-
-		for (final Chromosome chromosome: projectChromosomes) {
-			final ListView<ScoredChromosomeWindow> currentSCWList = scwList.get(chromosome);
-			final ListView<Gene> currentGeneList = geneList.get(chromosome);
-
-			Callable<Void> currentThread = new Callable<Void>() {
-
-				@Override
-				public Void call() throws Exception {
-					if ((currentSCWList != null) && (currentGeneList != null)) {
-						for (int j = 0; (j < currentGeneList.size()) && !stopped; j++) {
-							Gene currentGene = currentGeneList.get(j);
-							if ((currentGene != null) && (currentGene.getExons() != null) && (!currentGene.getExons().isEmpty()))  {
-								double[] scores = new double[currentGene.getExons().size()] ; // array for the exon scores (1 score / exon)
-								if (geneScoreType == GeneScoreType.MINIMUM_COVERAGE) {
-									for (int i = 0; i < scores.length; i++) {
-										scores[i] = Float.MAX_VALUE;
-									}
-								}
+		int[] elementCounts = new int[projectChromosomes.size()];
+		for (int i = 0; i < projectChromosomes.size(); i++) {
+			if ((scwList.get(i) != null) && (geneList.get(i) != null)) {
+				elementCounts[i] = geneList.get(i).size();
+			}
+		}
+
+		// the genes of the chromosomes are split into ranges computed in parallel
+		ChromosomeRangeOperation<Gene> rangeOperation = new ChromosomeRangeOperation<Gene>() {
+
+			@Override
+			public void compute(ChromosomeRange range, ListViewBuilder<Gene> rangeBuilder) throws Exception {
+				ListView<ScoredChromosomeWindow> currentSCWList = scwList.get(range.getChromosomeIndex());
+				ListView<Gene> currentGeneList = geneList.get(range.getChromosomeIndex());
+				for (int j = range.getStart(); (j < range.getStop()) && !stopped; j++) {
+					Gene currentGene = currentGeneList.get(j);
+					if ((currentGene != null) && (currentGene.getExons() != null) && (!currentGene.getExons().isEmpty()))  {
+						double[] scores = new double[currentGene.getExons().size()] ; // array for the exon scores (1 score / exon)
+						if (geneScoreType == GeneScoreType.MINIMUM_COVERAGE) {
+							for (int i = 0; i < scores.length; i++) {
+								scores[i] = Float.MAX_VALUE;
+							}
+						}
 
-								double score = 0; // gene score
-								// set the score per exon
-								for (int k = 0; (k < currentGene.getExons().size()) && !stopped; k++) {
-									ListView<ScoredChromosomeWindow> currentExonSCW = ChromosomeWindowListViews.subList(currentSCWList, currentGene.getExons().get(k).getStart(), currentGene.getExons().get(k).getStop());
-									if (currentExonSCW != null) {
-										for (int l = 0; (l < currentExonSCW.size()) && !stopped; l++) {
-											float currentScore = currentExonSCW.get(l).getScore();
-											if (currentScore != 0) {
-												if (geneScoreType == GeneScoreType.MAXIMUM_COVERAGE) {
-													scores[k] = Math.max(scores[k], currentScore);
-												} else if (geneScoreType == GeneScoreType.MINIMUM_COVERAGE) {
-													scores[k] = Math.min(scores[k], currentScore);
-												} else { // case RPKM and BASE_COVERAGE_SUM
-													double start = Math.max(currentExonSCW.get(l).getStart(), currentGene.getExons().get(k).getStart());
-													double stop = Math.min(currentExonSCW.get(l).getStop(), currentGene.getExons().get(k).getStop());
-													scores[k] += currentScore * (stop - start);
-												}
-											}
+						double score = 0; // gene score
+						// set the score per exon
+						for (int k = 0; (k < currentGene.getExons().size()) && !stopped; k++) {
+							SCWListView currentExonSCW = SCWListViews.asSCWListView(ChromosomeWindowListViews.subList(currentSCWList, currentGene.getExons().get(k).getStart(), currentGene.getExons().get(k).getStop()));
+							if (currentExonSCW != null) {
+								for (int l = 0; (l < currentExonSCW.size()) && !stopped; l++) {
+									float currentScore = currentExonSCW.getScore(l);
+									if (currentScore != 0) {
+										if (geneScoreType == GeneScoreType.MAXIMUM_COVERAGE) {
+											scores[k] = Math.max(scores[k], currentScore);
+										} else if (geneScoreType == GeneScoreType.MINIMUM_COVERAGE) {
+											scores[k] = Math.min(scores[k], currentScore);
+										} else { // case RPKM and BASE_COVERAGE_SUM
+											double start = Math.max(currentExonSCW.getStart(l), currentGene.getExons().get(k).getStart());
+											double stop = Math.min(currentExonSCW.getStop(l), currentGene.getExons().get(k).getStop());
+											scores[k] += currentScore * (stop - start);
 										}
 									}
 								}
-								// set the score for the gene
-								switch (geneScoreType) {
-								case BASE_COVERAGE_SUM:
-									for (int i = 0; i < scores.length; i++) {
-										score += scores[i];
-									}
-									break;
-								case MAXIMUM_COVERAGE:
-									if (scores.length > 0) {
-										score = scores[0];
-										for (int i = 1; i < scores.length; i++) {
-											score = Math.max(score, scores[i]);
-										}
-									}
-									break;
-								case MINIMUM_COVERAGE:
-									if (scores.length > 0) {
-										score = scores[0];
-										if (scores[0] == Float.MAX_VALUE) {
-											scores[0] = 0;
-										}
-										for (int i = 1; i < scores.length; i++) {
-											score = Math.min(score, scores[i]);
-											if (scores[i] == Float.MAX_VALUE) {
-												scores[i] = 0;
-											}
-										}
-										if (score == Float.MAX_VALUE) {
-											score = 0;
-										}
-									}
-									break;
-								case RPKM:
-									double length = 0;
-									for (int i = 0; i < scores.length; i++) {
-										double exonLength = (currentGene.getExons().get(i).getSize());
-										score += scores[i];
-										length += exonLength;
-										// compute the RPKM for the current exon
-										// RPKM(Exon) = (Base_coverage_sum(Exon) * 10^9) / (Length(Exon) * Score_Count(SCWL))
-										scores[i] *= Math.pow(10, 9);
-										scores[i] /= exonLength * scoreCount;
+							}
+						}
+						// set the score for the gene
+						switch (geneScoreType) {
+						case BASE_COVERAGE_SUM:
+							for (int i = 0; i < scores.length; i++) {
+								score += scores[i];
+							}
+							break;
+						case MAXIMUM_COVERAGE:
+							if (scores.length > 0) {
+								score = scores[0];
+								for (int i = 1; i < scores.length; i++) {
+									score = Math.max(score, scores[i]);
+								}
+							}
+							break;
+						case MINIMUM_COVERAGE:
+							if (scores.length > 0) {
+								score = scores[0];
+								if (scores[0] == Float.MAX_VALUE) {
+									scores[0] = 0;
+								}
+								for (int i = 1; i < scores.length; i++) {
+									score = Math.min(score, scores[i]);
+									if (scores[i] == Float.MAX_VALUE) {
+										scores[i] = 0;
 									}
-									// compute the RPKM for the current gene
-									// RPKM(Gene) = (Base_coverage_sum(Gene) * 10^9) / (Length(Exons of genes) * Score_Count(SCWL))
-									score *= Math.pow(10, 9);
-									score /= length * scoreCount;
-									break;
 								}
-								GenericSCWListViewBuilder exonLVBuilder = new GenericSCWListViewBuilder();
-								for (int i = 0; i < scores.length; i++) {
-									int exonStart = currentGene.getExons().get(i).getStart();
-									int exonStop = currentGene.getExons().get(i).getStop();
-									float exonScore = (float) scores[i];
-									exonLVBuilder.addElementToBuild(exonStart, exonStop, exonScore);
+								if (score == Float.MAX_VALUE) {
+									score = 0;
 								}
-								Gene geneToAdd = new SimpleGene(currentGene.getName(),
-										currentGene.getStrand(),
-										currentGene.getStart(),
-										currentGene.getStop(),
-										(float) score,
-										currentGene.getUTR5Bound(),
-										currentGene.getUTR3Bound(),
-										exonLVBuilder.getListView());
-								resultListBuilder.addElementToBuild(chromosome, geneToAdd);
 							}
+							break;
+						case RPKM:
+							double length = 0;
+							for (int i = 0; i < scores.length; i++) {
+								double exonLength = (currentGene.getExons().get(i).getSize());
+								score += scores[i];
+								length += exonLength;
+								// compute the RPKM for the current exon
+								// RPKM(Exon) = (Base_coverage_sum(Exon) * 10^9) / (Length(Exon) * Score_Count(SCWL))
+								scores[i] *= Math.pow(10, 9);
+								scores[i] /= exonLength * scoreCount;
+							}
+							// compute the RPKM for the current gene
+							// RPKM(Gene) = (Base_coverage_sum(Gene) * 10^9) / (Length(Exons of genes) * Score_Count(SCWL))
+							score *= Math.pow(10, 9);
+							score /= length * scoreCount;
+							break;
 						}
+						GenericSCWListViewBuilder exonLVBuilder = new GenericSCWListViewBuilder();
+						for (int i = 0; i < scores.length; i++) {
+							int exonStart = currentGene.getExons().get(i).getStart();
+							int exonStop = currentGene.getExons().get(i).getStop();
+							float exonScore = (float) scores[i];
+							exonLVBuilder.addElementToBuild(exonStart, exonStop, exonScore);
+						}
+						Gene geneToAdd = new SimpleGene(currentGene.getName(),
+								currentGene.getStrand(),
+								currentGene.getStart(),
+								currentGene.getStop(),
+								(float) score,
+								currentGene.getUTR5Bound(),
+								currentGene.getUTR3Bound(),
+								exonLVBuilder.getListView());
+						rangeBuilder.addElementToBuild(geneToAdd);
 					}
-					// tell the operation pool that a chromosome is done
-					op.notifyDone();
-					return null;
 				}
-			};
-			threadList.add(currentThread);
-		}
-		op.startPool(threadList);
-		List<ListView<Gene>> data = resultListBuilder.getGenomicList();
+			}
+		};
+		List<ListView<Gene>> data = OperationPool.getInstance().startRangePool(elementCounts, 0, new GeneListViewBuilder(), rangeOperation);
 		return new SimpleGeneList(data, geneScoreType, geneList.getGeneDBURL());
 	}
 
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.operationPool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+
+
+/**
+ * Range of element indexes of a chromosome processed as a single unit of work by the {@link OperationPool}.
+ * A range owns the elements from {@link #getStart()} (inclusive) to {@link #getStop()} (exclusive).
+ * The halo extends the range on both sides and defines the elements that can be read by
+ * windowed operations (eg: moving average) without being written by the range.
+ * @author Julien Lajugie
+ */
+public final class ChromosomeRange {
+
+	/**
+	 * Splits the elements of a chromosome into consecutive ranges
+	 * @param chromosome a {@link Chromosome}
+	 * @param chromosomeIndex index of the chromosome in the project
+	 * @param elementCount number of elements of the chromosome
+	 * @param halo number of elements that can be read on each side of the ranges
+	 * @param rangeSize maximum number of elements per range
+	 * @return a list of {@link ChromosomeRange} sorted by position. The list contains
+	 * a single empty range if the chromosome has no element.
+	 */
+	static List<ChromosomeRange> split(Chromosome chromosome, int chromosomeIndex, int elementCount, int halo, int rangeSize) {
+		List<ChromosomeRange> ranges = new ArrayList<ChromosomeRange>();
+		int start = 0;
+		do {
+			int stop = (int) Math.min((long) start + rangeSize, elementCount);
+			ranges.add(new ChromosomeRange(chromosome, chromosomeIndex, elementCount, start, stop, halo));
+			start = stop;
+		} while (start < elementCount);
+		return ranges;
+	}
+
+	private final Chromosome 	chromosome;			// chromosome of the range
+	private final int 			chromosomeIndex;	// index of the chromosome in the project
+	private final int 			elementCount;		// number of elements of the chromosome
+	private final int			start;				// index of the first element of the range
+	private final int			stop;				// index after the last element of the range
+	private final int			haloStart;			// index of the first element that can be read
+	private final int			haloStop;			// index after the last element that can be read
+
+
+	/**
+	 * Creates an instance of {@link ChromosomeRange}
+	 * @param chromosome chromosome of the range
+	 * @param chromosomeIndex index of the chromosome in the project
+	 * @param elementCount number of elements of the chromosome
+	 * @param start index of the first element of the range
+	 * @param stop index after the last element of the range
+	 * @param halo number of elements that can be read on each side of the range
+	 */
+	ChromosomeRange(Chromosome chromosome, int chromosomeIndex, int elementCount, int start, int stop, int halo) {
+		this.chromosome = chromosome;
+		this.chromosomeIndex = chromosomeIndex;
+		this.elementCount = elementCount;
+		this.start = start;
+		this.stop = stop;
+		haloStart = Math.max(0, start - halo);
+		haloStop = (int) Math.min((long) stop + halo, elementCount);
+	}
+
+
+	/**
+	 * @return the number of bases of the chromosome covered by the range.
+	 * Used to compute the progression of the operations
+	 */
+	long getBaseCount() {
+		long chromosomeLength = chromosome.getLength();
+		if (elementCount == 0) {
+			return chromosomeLength;
+		}
+		return (chromosomeLength * (stop - start)) / elementCount;
+	}
+
+
+	/**
+	 * @return the chromosome of the range
+	 */
+	public Chromosome getChromosome() {
+		return chromosome;
+	}
+
+
+	/**
+	 * @return the index of the chromosome in the project
+	 */
+	public int getChromosomeIndex() {
+		return chromosomeIndex;
+	}
+
+
+	/**
+	 * @return the number of elements of the chromosome
+	 */
+	public int getElementCount() {
+		return elementCount;
+	}
+
+
+	/**
+	 * @return the index of the first element that can be read by the range
+	 */
+	public int getHaloStart() {
+		return haloStart;
+	}
+
+
+	/**
+	 * @return the index after the last element that can be read by the range
+	 */
+	public int getHaloStop() {
+		return haloStop;
+	}
+
+
+	/**
+	 * @return the index of the first element of the range
+	 */
+	public int getStart() {
+		return start;
+	}
+
+
+	/**
+	 * @return the index after the last element of the range
+	 */
+	public int getStop() {
+		return stop;
+	}
+
+
+	/**
+	 * @return the number of elements of the range
+	 */
+	public int size() {
+		return stop - start;
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.operationPool;
+
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
+
+
+/**
+ * Computation applied on a {@link ChromosomeRange} by the {@link OperationPool}.
+ * The same instance is called concurrently on different ranges so implementations must not
+ * keep a state that is modified during the computation.
+ * @param <T> type of the elements of the result lists
+ * @author Julien Lajugie
+ */
+public interface ChromosomeRangeOperation<T> {
+
+	/**
+	 * Computes the result elements of the specified range and adds them in order to the specified builder.
+	 * The elements of the input list outside of the halo of the range should not be read.
+	 * @param range a {@link ChromosomeRange}
+	 * @param rangeBuilder builder of the result of the range
+	 * @throws Exception
+	 */
+	public void compute(ChromosomeRange range, ListViewBuilder<T> rangeBuilder) throws Exception;
+}
@@ -25,14 +25,24 @@ package edu.yu.einstein.genplay.core.operationPool;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.bin.BinListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.exception.exceptions.ObjectAlreadyBuiltException;
 import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressEvent;
 import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressEventsGenerator;
 import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressListener;
@@ -47,6 +57,33 @@ public final class OperationPool implements OperationProgressEventsGenerator {
 
 	private static OperationPool 	instance = null;	// unique instance of this singleton class
 
+	/** Maximum number of elements of the ranges processed by {@link #startRangePool(int[], int, ListViewBuilder, ChromosomeRangeOperation)} */
+	public static final int RANGE_SIZE = 65536;
+
+
+	/**
+	 * Appends the elements of the result of a range to the builder of the result of a chromosome
+	 * @param <T> type of the elements
+	 * @param builder builder of the result of the chromosome
+	 * @param rangeResult result of a range
+	 * @throws ObjectAlreadyBuiltException
+	 */
+	private static <T> void appendRangeResult(ListViewBuilder<T> builder, ListView<T> rangeResult) throws ObjectAlreadyBuiltException {
+		if (builder instanceof BinListViewBuilder) {
+			// the positions of the bins are deduced from their indexes so we need
+			// to append the scores of the range otherwise the bins would be shifted
+			BinListViewBuilder binBuilder = (BinListViewBuilder) builder;
+			for (T currentElement: rangeResult) {
+				binBuilder.addElementToBuild(((ScoredChromosomeWindow) currentElement).getScore());
+			}
+		} else {
+			for (T currentElement: rangeResult) {
+				builder.addElementToBuild(currentElement);
+			}
+		}
+	}
+
+
 	/**
 	 * @return an instance of the singleton class {@link OperationPool}
 	 */
@@ -121,6 +158,25 @@ public final class OperationPool implements OperationProgressEventsGenerator {
 	}
 
 
+	/**
+	 * Submits a task to the executor.  The pool is notified once the task is done so
+	 * the thread waiting for the completion of the pool doesn't wait for the next polling.
+	 * @param <T> type returned by the task
+	 * @param callable task to execute
+	 * @return the {@link Future} result of the task
+	 */
+	private <T> Future<T> submit(Callable<T> callable) {
+		FutureTask<T> futureTask = new FutureTask<T>(callable) {
+			@Override
+			protected void done() {
+				notifyDone();
+			}
+		};
+		executor.execute(futureTask);
+		return futureTask;
+	}
+
+
 	/**
 	 * Starts the pool of thread. Waits until the end of the execution and returns the result in a list.
 	 * An InterruptedException is thrown if the execution is stopped before the end.
@@ -139,7 +195,7 @@ public final class OperationPool implements OperationProgressEventsGenerator {
 		// list for the return value of this method
 		List<T> results = new ArrayList<T>();
 		for (Callable<T> currentCallable: threads) {
-			futures.add(executor.submit(currentCallable));
+			futures.add(submit(currentCallable));
 		}
 		boolean stillAlive = true;
 		while (stillAlive) {
@@ -147,7 +203,7 @@ public final class OperationPool implements OperationProgressEventsGenerator {
 			// if the executor is terminated or shut down
 			if (executor.isTerminated() || executor.isShutdown()) {
 				// we cancel all the futures if there not done
-				for (short i = 0; i < futures.size(); i++) {
+				for (int i = 0; i < futures.size(); i++) {
 					if (!futures.get(i).isDone()) {
 						futures.get(i).cancel(true);
 					}
@@ -158,15 +214,17 @@ public final class OperationPool implements OperationProgressEventsGenerator {
 			}
 			long done = 0;
 			stillAlive = false;
-			// compute the completion and check if everything's done
-			for (short i = 0; i < futures.size(); i++) {
+			// compute the completion and check if everything's done.
+			// when there is one thread per chromosome the completion is weighted by the chromosome lengths
+			boolean isOneThreadPerChromosome = futures.size() == projectChromosomes.size();
+			for (int i = 0; i < futures.size(); i++) {
 				if (futures.get(i).isDone() || futures.get(i).isCancelled()) {
-					done += projectChromosomes.get(i).getLength();
+					done += isOneThreadPerChromosome ? projectChromosomes.get(i).getLength() : 1;
 				} else {
 					stillAlive = true;
 				}
 			}
-			long genomeLength = projectChromosomes.getGenomeLength();
+			long genomeLength = isOneThreadPerChromosome ? projectChromosomes.getGenomeLength() : futures.size();
 			double completion = 0;
 			if (genomeLength != 0) {
 				completion = (done / (double) genomeLength) * 100d;
@@ -186,6 +244,137 @@ public final class OperationPool implements OperationProgressEventsGenerator {
 	}
 
 
+	/**
+	 * Splits the chromosomes into ranges of at most {@link #RANGE_SIZE} elements and computes the ranges in parallel.
+	 * The threads of the pool pick the next range available as soon as they are done with their current range
+	 * so the work stays balanced even when the chromosomes have very different sizes.
+	 * The results of the ranges are stitched back together in order, one list per chromosome.
+	 * Waits until the end of the execution and returns the result.
+	 * An InterruptedException is thrown if the execution is stopped before the end
+	 * or if the range operation throws an InterruptedException.
+	 * @param <T> type of the elements of the result lists
+	 * @param elementCounts number of elements of the input list for each chromosome of the project
+	 * @param halo number of elements that the operation needs to read on each side of a range
+	 * @param builderPrototype prototype of the builders of the result lists. Cloned for each range and for each chromosome
+	 * @param rangeOperation operation computing the result of a range
+	 * @return a list containing one {@link ListView} per chromosome
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @throws ObjectAlreadyBuiltException
+	 */
+	public synchronized <T> List<ListView<T>> startRangePool(int[] elementCounts, int halo, final ListViewBuilder<T> builderPrototype, final ChromosomeRangeOperation<T> rangeOperation)
+			throws InterruptedException, ExecutionException, ObjectAlreadyBuiltException {
+		ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
+		// notify the listeners that the operation starts
+		notifyProgressListeners(OperationProgressEvent.STARTING, 0d);
+		// split the chromosomes into ranges
+		final List<ChromosomeRange> ranges = new ArrayList<ChromosomeRange>();
+		long genomeLength = 0;
+		for (int i = 0; i < elementCounts.length; i++) {
+			ranges.addAll(ChromosomeRange.split(projectChromosomes.get(i), i, elementCounts[i], halo, RANGE_SIZE));
+			genomeLength += projectChromosomes.get(i).getLength();
+		}
+		final Queue<Integer> rangeQueue = new ConcurrentLinkedQueue<Integer>();
+		for (int i = 0; i < ranges.size(); i++) {
+			rangeQueue.add(i);
+		}
+		final AtomicReferenceArray<ListView<T>> rangeResults = new AtomicReferenceArray<ListView<T>>(ranges.size());
+		final AtomicLong basesDone = new AtomicLong(0);
+		// start one worker per processor, each worker processes ranges until the queue is empty
+		int nbProcessor = Runtime.getRuntime().availableProcessors();
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		for (int i = 0; i < Math.min(nbProcessor, ranges.size()); i++) {
+			Callable<Void> currentWorker = new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					try {
+						Integer rangeIndex;
+						while (((rangeIndex = rangeQueue.poll()) != null) && !Thread.currentThread().isInterrupted()) {
+							ChromosomeRange currentRange = ranges.get(rangeIndex);
+							ListViewBuilder<T> rangeBuilder = builderPrototype.clone();
+							rangeOperation.compute(currentRange, rangeBuilder);
+							rangeResults.set(rangeIndex, rangeBuilder.getListView());
+							basesDone.addAndGet(currentRange.getBaseCount());
+						}
+					} catch (Exception e) {
+						// no need to process the remaining ranges
+						rangeQueue.clear();
+						throw e;
+					} finally {
+						notifyDone();
+					}
+					return null;
+				}
+			};
+			futures.add(submit(currentWorker));
+		}
+		boolean stillAlive = true;
+		while (stillAlive) {
+			wait(1000);
+			// if the executor is terminated or shut down
+			if (executor.isTerminated() || executor.isShutdown()) {
+				// we cancel all the futures if there not done
+				for (Future<Void> currentFuture: futures) {
+					if (!currentFuture.isDone()) {
+						currentFuture.cancel(true);
+					}
+				}
+				// we notify the listeners
+				notifyProgressListeners(OperationProgressEvent.ABORT, 100d);
+				throw new InterruptedException();
+			}
+			stillAlive = false;
+			for (Future<Void> currentFuture: futures) {
+				if (!currentFuture.isDone()) {
+					stillAlive = true;
+				}
+			}
+			double completion = 0;
+			if (genomeLength != 0) {
+				completion = (basesDone.get() / (double) genomeLength) * 100d;
+			}
+			notifyProgressListeners(OperationProgressEvent.IN_PROGRESS, completion);
+		}
+		// rethrow the exceptions of the workers
+		for (Future<Void> currentFuture: futures) {
+			try {
+				currentFuture.get();
+			} catch (ExecutionException e) {
+				// a range operation interrupted because it was stopped
+				if (e.getCause() instanceof InterruptedException) {
+					notifyProgressListeners(OperationProgressEvent.ABORT, 100d);
+					throw (InterruptedException) e.getCause();
+				}
+				throw e;
+			}
+		}
+
+		// stitch the results of the ranges
+		List<ListView<T>> results = new ArrayList<ListView<T>>();
+		int rangeIndex = 0;
+		for (int i = 0; i < elementCounts.length; i++) {
+			int firstRangeIndex = rangeIndex;
+			while ((rangeIndex < ranges.size()) && (ranges.get(rangeIndex).getChromosomeIndex() == i)) {
+				rangeIndex++;
+			}
+			if ((rangeIndex - firstRangeIndex) == 1) {
+				// no need to stitch chromosomes with a single range
+				results.add(rangeResults.get(firstRangeIndex));
+			} else {
+				ListViewBuilder<T> chromosomeBuilder = builderPrototype.clone();
+				for (int j = firstRangeIndex; j < rangeIndex; j++) {
+					appendRangeResult(chromosomeBuilder, rangeResults.get(j));
+				}
+				results.add(chromosomeBuilder.getListView());
+			}
+		}
+
+		// notify the listeners that the operation is complete
+		notifyProgressListeners(OperationProgressEvent.COMPLETE, 100d);
+		return results;
+	}
+
+
 	/**
 	 * Interrupts all the running thread and cancel the execution
 	 */
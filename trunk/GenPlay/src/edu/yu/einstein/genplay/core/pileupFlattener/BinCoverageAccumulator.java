@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.pileupFlattener;
+
+import java.util.Arrays;
+
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.bin.BinListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+
+
+/**
+ * Accumulates windows of a chromosome directly into the bins of a {@link BinList} chromosome.<br>
+ * The score of a bin is computed like in a {@link BinListPileupFlattener}: each window overlapping
+ * the bin contributes its score multiplied by the fraction of the window inside the bin.
+ * Unlike the {@link BinListPileupFlattener}, the windows don't need to be added in start position order
+ * and no object is created per window.<br>
+ * Only the {@link ScoreOperation#ADDITION}, {@link ScoreOperation#AVERAGE} and {@link ScoreOperation#MAXIMUM}
+ * operations are supported.  An accumulator must only be used by one thread at a time.
+ * @author Julien Lajugie
+ */
+public final class BinCoverageAccumulator {
+
+	/**
+	 * @param scoreOperation a {@link ScoreOperation}
+	 * @return true if the specified operation is supported by the {@link BinCoverageAccumulator} class
+	 */
+	public static boolean isSupported(ScoreOperation scoreOperation) {
+		return (scoreOperation == ScoreOperation.ADDITION)
+				|| (scoreOperation == ScoreOperation.AVERAGE)
+				|| (scoreOperation == ScoreOperation.MAXIMUM);
+	}
+
+	/** Size of the bins */
+	private final int binSize;
+
+	/** Operation to compute the score of the bins */
+	private final ScoreOperation scoreOperation;
+
+	/** Initial number of bins, used to allocate the arrays when the first window is added */
+	private final int initialBinCount;
+
+	/** Accumulated values of the bins: sum of the contributions for the addition and the average, maximum for the maximum */
+	private float[] values = null;
+
+	/** Number of non zero contributions of each bin, null for the addition */
+	private int[] counts = null;
+
+	/** Number of bins of the result list */
+	private int binCount = 0;
+
+
+	/**
+	 * Creates an instance of {@link BinCoverageAccumulator}
+	 * @param binSize size of the bins
+	 * @param scoreOperation operation to compute the score of the bins
+	 * @param chromosomeLength length of the chromosome, used to size the bins arrays
+	 */
+	public BinCoverageAccumulator(int binSize, ScoreOperation scoreOperation, int chromosomeLength) {
+		if (!isSupported(scoreOperation)) {
+			throw new UnsupportedOperationException("Operation not supported: " + scoreOperation.name());
+		}
+		this.binSize = binSize;
+		this.scoreOperation = scoreOperation;
+		initialBinCount = (chromosomeLength / binSize) + 1;
+	}
+
+
+	/**
+	 * Adds a window to the bins it overlaps
+	 * @param windowStart start position of the window
+	 * @param windowStop stop position of the window (excluded)
+	 * @param windowScore score of the window
+	 */
+	public void addWindow(int windowStart, int windowStop, float windowScore) {
+		int windowSize = windowStop - windowStart;
+		if ((windowSize <= 0) || (windowStop <= 1)) {
+			return;
+		}
+		int firstBin = Math.max(0, (windowStart - 1) / binSize);
+		int lastBin = (windowStop - 2) / binSize;
+		ensureCapacity(lastBin + 1);
+		binCount = Math.max(binCount, (windowStop / binSize) + 1);
+		for (int bin = firstBin; bin <= lastBin; bin++) {
+			int binStart = (bin * binSize) + 1;
+			int binStop = binStart + binSize;
+			float contribution;
+			if ((windowStart >= binStart) && (windowStop <= binStop)) {
+				// case where the entire window fall in the bin
+				contribution = windowScore;
+			} else {
+				int lengthBeforeBinStart = Math.max(0, binStart - windowStart);
+				int lengthAfterBinStop = Math.max(0, windowStop - binStop);
+				contribution = windowScore * ((windowSize - (lengthBeforeBinStart + lengthAfterBinStop)) / (float) windowSize);
+			}
+			if (contribution != 0) {
+				switch (scoreOperation) {
+				case ADDITION:
+					values[bin] += contribution;
+					break;
+				case AVERAGE:
+					values[bin] += contribution;
+					counts[bin]++;
+					break;
+				case MAXIMUM:
+					values[bin] = counts[bin] == 0 ? contribution : Math.max(values[bin], contribution);
+					counts[bin]++;
+					break;
+				default:
+					throw new UnsupportedOperationException("Operation not supported: " + scoreOperation.name());
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Makes sure that the arrays can store the specified number of bins
+	 * @param minBinCount minimum number of bins
+	 */
+	private void ensureCapacity(int minBinCount) {
+		if (values == null) {
+			int capacity = Math.max(minBinCount, initialBinCount);
+			values = new float[capacity];
+			if (scoreOperation != ScoreOperation.ADDITION) {
+				counts = new int[capacity];
+			}
+		} else if (values.length < minBinCount) {
+			int capacity = Math.max(minBinCount, values.length + (values.length >> 1));
+			values = Arrays.copyOf(values, capacity);
+			if (counts != null) {
+				counts = Arrays.copyOf(counts, capacity);
+			}
+		}
+	}
+
+
+	/**
+	 * @return a {@link ListView} containing the bins.  The list contains the bins up to the bin
+	 * containing the largest stop position of the windows added
+	 */
+	public ListView<ScoredChromosomeWindow> getListView() {
+		BinListViewBuilder builder = new BinListViewBuilder(binSize);
+		for (int bin = 0; bin < binCount; bin++) {
+			if (bin >= values.length) {
+				builder.addElementToBuild(0f);
+			} else if ((scoreOperation == ScoreOperation.AVERAGE) && (counts[bin] != 0)) {
+				builder.addElementToBuild(values[bin] / counts[bin]);
+			} else {
+				builder.addElementToBuild(values[bin]);
+			}
+		}
+		return builder.getListView();
+	}
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.pileupFlattener;
+
+import java.util.Arrays;
+
+
+/**
+ * Array based binary min-heap of float values supporting lazy removals.
+ * Removed values are stored in a second heap and are discarded when they reach the top of
+ * the main heap.  This allows to retrieve the minimum of a multiset of values that changes
+ * over time in amortized O(log n) without allocating any object.
+ * A max-heap can be simulated by pushing and removing the opposite of the values.
+ * @author Julien Lajugie
+ */
+class FloatMinHeap {
+
+	/** Default capacity of the heaps */
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/** Values of the heap */
+	private float[] values;
+
+	/** Number of values in the heap */
+	private int size;
+
+	/** Values removed from the heap but not discarded yet */
+	private float[] removedValues;
+
+	/** Number of values removed but not discarded yet */
+	private int removedSize;
+
+
+	/**
+	 * Creates an instance of {@link FloatMinHeap}
+	 */
+	FloatMinHeap() {
+		values = new float[DEFAULT_CAPACITY];
+		removedValues = new float[DEFAULT_CAPACITY];
+	}
+
+
+	/**
+	 * Adds a value to the heap
+	 * @param value value to add
+	 */
+	void add(float value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+		}
+		size = siftUp(values, size, value);
+	}
+
+
+	/**
+	 * Removes all the values of the heap, including the values removed but not discarded yet
+	 */
+	void clear() {
+		size = 0;
+		removedSize = 0;
+	}
+
+
+	/**
+	 * @return the minimum of the values of the heap. The heap must not be empty
+	 */
+	float min() {
+		while ((removedSize > 0) && (values[0] == removedValues[0])) {
+			size = siftDown(values, size);
+			removedSize = siftDown(removedValues, removedSize);
+		}
+		return values[0];
+	}
+
+
+	/**
+	 * Removes a value from the heap.  The value must have been previously added to the heap.
+	 * @param value value to remove
+	 */
+	void remove(float value) {
+		if (removedSize == removedValues.length) {
+			removedValues = Arrays.copyOf(removedValues, removedSize * 2);
+		}
+		removedSize = siftUp(removedValues, removedSize, value);
+	}
+
+
+	/**
+	 * Removes the smallest element of the specified heap
+	 * @param heap array containing a heap
+	 * @param heapSize size of the heap
+	 * @return the new size of the heap
+	 */
+	private static int siftDown(float[] heap, int heapSize) {
+		heapSize--;
+		if (heapSize > 0) {
+			float value = heap[heapSize];
+			int index = 0;
+			int half = heapSize >>> 1;
+			while (index < half) {
+				int child = (index << 1) + 1;
+				int right = child + 1;
+				if ((right < heapSize) && (heap[right] < heap[child])) {
+					child = right;
+				}
+				if (value <= heap[child]) {
+					break;
+				}
+				heap[index] = heap[child];
+				index = child;
+			}
+			heap[index] = value;
+		}
+		return heapSize;
+	}
+
+
+	/**
+	 * Adds a value to the specified heap.  The array must have room for the new value.
+	 * @param heap array containing a heap
+	 * @param heapSize size of the heap
+	 * @param value value to add
+	 * @return the new size of the heap
+	 */
+	private static int siftUp(float[] heap, int heapSize, float value) {
+		int index = heapSize;
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (heap[parent] <= value) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = value;
+		return heapSize + 1;
+	}
+}
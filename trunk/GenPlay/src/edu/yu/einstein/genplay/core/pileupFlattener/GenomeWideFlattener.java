@@ -70,6 +70,19 @@ public class GenomeWideFlattener {
 	}
 
 
+	/**
+	 * Deletes the temporary files of the sorting flatteners when the flattening is abandoned.
+	 * Has no effect once the list views have been retrieved.
+	 */
+	public void abort() {
+		for (PileupFlattener currentFlattener: flatteners) {
+			if (currentFlattener instanceof SortingPileupFlattener) {
+				((SortingPileupFlattener) currentFlattener).abort();
+			}
+		}
+	}
+
+
 	/**
 	 * Adds a Scored window to the list of {@link ScoredChromosomeWindow}
 	 * @param chromosome {@link Chromosome} of the element to add
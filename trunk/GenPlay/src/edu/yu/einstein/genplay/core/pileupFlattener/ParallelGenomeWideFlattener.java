@@ -0,0 +1,448 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.pileupFlattener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
+import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.exception.exceptions.ElementAddedNotSortedException;
+import edu.yu.einstein.genplay.exception.exceptions.InvalidChromosomeException;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressEvent;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressEventsGenerator;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressListener;
+
+
+/**
+ * Pipelined version of the {@link GenomeWideFlattener}.<br>
+ * The thread adding the windows (the reader stage) only stores them in batches of primitive arrays.
+ * Each batch is handed to the flattener stage of its chromosome and processed by a pool of worker threads.
+ * The batches of a given chromosome are processed sequentially and in order but the batches of different
+ * chromosomes are processed concurrently, so the parsing of the input and the flattening of the different
+ * chromosomes overlap.<br>
+ * The number of batches is fixed so the reader stage blocks when the flattener stages fall behind.
+ * The {@link ListView} objects of the different chromosomes are also built concurrently by the worker threads.<br>
+ * Exceptions thrown by a flattener (eg: {@link ElementAddedNotSortedException}) are rethrown in the
+ * reader thread by the next call to {@link #addWindow(Chromosome, int, int, float)} or by {@link #getListOfListViews()}.
+ * The worker threads are released by {@link #getListOfListViews()} or, if the flattening fails before, by {@link #abort()}.
+ * @author Julien Lajugie
+ */
+public class ParallelGenomeWideFlattener implements OperationProgressEventsGenerator {
+
+	/**
+	 * Batch of windows stored in primitive arrays
+	 * @author Julien Lajugie
+	 */
+	private static class WindowBatch {
+
+		/** Start positions of the windows */
+		private final int[] starts = new int[BATCH_SIZE];
+
+		/** Stop positions of the windows */
+		private final int[] stops = new int[BATCH_SIZE];
+
+		/** Scores of the windows */
+		private final float[] scores = new float[BATCH_SIZE];
+
+		/** Number of windows in the batch */
+		private int size = 0;
+
+		/** Stage of the chromosome of the windows of the batch */
+		private ChromosomeStage stage = null;
+	}
+
+
+	/**
+	 * Flattener stage of a chromosome.
+	 * Processes the batches of a chromosome in the order they were submitted, one batch at a time.
+	 * @author Julien Lajugie
+	 */
+	private class ChromosomeStage implements Runnable {
+
+		/** Flattener of the chromosome */
+		private final PileupFlattener flattener;
+
+		/** Batches waiting to be processed */
+		private final ConcurrentLinkedQueue<WindowBatch> pendingBatches;
+
+		/** True when a worker thread is scheduled to process the pending batches */
+		private final AtomicBoolean isScheduled;
+
+		/** Start position of the last window processed, used to compute the progress */
+		private volatile int lastProcessedStart;
+
+
+		/**
+		 * Creates an instance of {@link ChromosomeStage}
+		 * @param flattener flattener of the chromosome
+		 */
+		private ChromosomeStage(PileupFlattener flattener) {
+			this.flattener = flattener;
+			pendingBatches = new ConcurrentLinkedQueue<WindowBatch>();
+			isScheduled = new AtomicBoolean(false);
+			lastProcessedStart = 0;
+		}
+
+
+		/**
+		 * Adds a batch to the queue of the stage and schedules the stage if needed
+		 * @param batch a {@link WindowBatch}
+		 */
+		private void submit(WindowBatch batch) {
+			pendingBatches.add(batch);
+			if (isScheduled.compareAndSet(false, true)) {
+				executor.execute(this);
+			}
+		}
+
+
+		@Override
+		public void run() {
+			while (true) {
+				WindowBatch batch = pendingBatches.poll();
+				if (batch == null) {
+					isScheduled.set(false);
+					// a batch may have been added between the poll and the reset of the flag
+					if (pendingBatches.isEmpty() || !isScheduled.compareAndSet(false, true)) {
+						return;
+					}
+				} else {
+					try {
+						if (workerException == null) {
+							for (int i = 0; i < batch.size; i++) {
+								flattener.addWindow(batch.starts[i], batch.stops[i], batch.scores[i]);
+							}
+							if (batch.size > 0) {
+								lastProcessedStart = batch.starts[batch.size - 1];
+							}
+						}
+					} catch (Throwable e) {
+						setWorkerException(e);
+					} finally {
+						batch.size = 0;
+						batch.stage = null;
+						freeBatches.add(batch);
+					}
+				}
+			}
+		}
+	}
+
+	/** Number of windows per batch */
+	private static final int BATCH_SIZE = 8192;
+
+	/** Number of batches per worker thread */
+	private static final int BATCHES_PER_THREAD = 4;
+
+	/** Minimum delay in milliseconds between two progress notifications */
+	private static final long PROGRESS_NOTIFICATION_DELAY = 1000;
+
+	/** Flattener stages with one stage per chromosome */
+	private final List<ChromosomeStage> stages;
+
+	/** Batches that can be filled by the reader stage */
+	private final BlockingQueue<WindowBatch> freeBatches;
+
+	/** Total number of batches */
+	private final int batchCount;
+
+	/** Executor running the flattener stages */
+	private final ExecutorService executor;
+
+	/** We store the {@link ProjectChromosomes} to avoid wasting time retrieving it */
+	private final ProjectChromosomes projectChromosomes;
+
+	/** List of progress listeners */
+	private final List<OperationProgressListener> progressListeners;
+
+	/** Batch being filled by the reader stage */
+	private WindowBatch currentBatch;
+
+	/** First exception thrown by a flattener stage */
+	private volatile Throwable workerException;
+
+	/** Time of the last progress notification */
+	private long lastNotificationTime;
+
+
+	/**
+	 * Creates an instance of {@link ParallelGenomeWideFlattener} using one worker thread per processor
+	 * @param flattenerPrototype prototype of the flatteners of the chromosomes
+	 * @throws CloneNotSupportedException
+	 */
+	public ParallelGenomeWideFlattener(PileupFlattener flattenerPrototype) throws CloneNotSupportedException {
+		this(flattenerPrototype, Runtime.getRuntime().availableProcessors());
+	}
+
+
+	/**
+	 * Creates an instance of {@link ParallelGenomeWideFlattener}
+	 * @param flattenerPrototype prototype of the flatteners of the chromosomes
+	 * @param threadCount number of worker threads
+	 * @throws CloneNotSupportedException
+	 */
+	public ParallelGenomeWideFlattener(PileupFlattener flattenerPrototype, int threadCount) throws CloneNotSupportedException {
+		projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
+		int chromosomeCount = projectChromosomes.size();
+		stages = new ArrayList<ChromosomeStage>(chromosomeCount);
+		if (chromosomeCount > 0) {
+			stages.add(new ChromosomeStage(flattenerPrototype));
+			for (int i = 1; i < chromosomeCount; i++) {
+				stages.add(new ChromosomeStage(flattenerPrototype.clone()));
+			}
+		}
+		threadCount = Math.max(1, threadCount);
+		executor = Executors.newFixedThreadPool(threadCount);
+		batchCount = (threadCount * BATCHES_PER_THREAD) + 1;
+		freeBatches = new LinkedBlockingQueue<WindowBatch>();
+		for (int i = 0; i < batchCount; i++) {
+			freeBatches.add(new WindowBatch());
+		}
+		progressListeners = new ArrayList<OperationProgressListener>();
+		currentBatch = null;
+		workerException = null;
+		lastNotificationTime = System.currentTimeMillis();
+	}
+
+
+	/**
+	 * Stops the worker threads of the flattener and deletes the temporary files of the sorting flatteners.
+	 * This method can be called several times and has no effect once the list views have been retrieved.
+	 * No window can be added once this method has been called.
+	 */
+	public void abort() {
+		executor.shutdownNow();
+		try {
+			// the flatteners can only be aborted once the worker threads are done with their current batch
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			// the temporary files will be deleted when the application exits
+			Thread.currentThread().interrupt();
+			return;
+		}
+		for (ChromosomeStage currentStage: stages) {
+			if (currentStage.flattener instanceof SortingPileupFlattener) {
+				((SortingPileupFlattener) currentStage.flattener).abort();
+			}
+		}
+	}
+
+
+	@Override
+	public void addOperationProgressListener(OperationProgressListener operationProgressListener) {
+		progressListeners.add(operationProgressListener);
+	}
+
+
+	/**
+	 * Adds a Scored window to the list of {@link ScoredChromosomeWindow}.
+	 * The window is processed asynchronously by the flattener of its chromosome.
+	 * @param chromosome {@link Chromosome} of the element to add
+	 * @param start start position of the window to add
+	 * @param stop stop position of the window to add
+	 * @param score score of the window to add
+	 * @throws InvalidChromosomeException
+	 * @throws InterruptedException if the thread is interrupted while waiting for a free batch
+	 * @throws ExecutionException if a flattener stage threw a checked exception
+	 */
+	public void addWindow(Chromosome chromosome, int start, int stop, float score) throws InterruptedException, ExecutionException {
+		ChromosomeStage stage = stages.get(projectChromosomes.getIndex(chromosome));
+		if ((currentBatch != null) && ((currentBatch.stage != stage) || (currentBatch.size == BATCH_SIZE))) {
+			submitCurrentBatch();
+		}
+		if (currentBatch == null) {
+			currentBatch = takeFreeBatch();
+			currentBatch.stage = stage;
+		}
+		currentBatch.starts[currentBatch.size] = start;
+		currentBatch.stops[currentBatch.size] = stop;
+		currentBatch.scores[currentBatch.size] = score;
+		currentBatch.size++;
+	}
+
+
+	/**
+	 * Rethrows the first exception thrown by a flattener stage if any
+	 * @throws ExecutionException if the exception thrown is a checked exception
+	 */
+	private void checkWorkerException() throws ExecutionException {
+		Throwable e = workerException;
+		if (e != null) {
+			executor.shutdownNow();
+			if (e instanceof RuntimeException) {
+				throw (RuntimeException) e;
+			} else if (e instanceof Error) {
+				throw (Error) e;
+			} else {
+				throw new ExecutionException(e);
+			}
+		}
+	}
+
+
+	/**
+	 * @return the completion of the flattening in percent, computed from the position of
+	 * the last window processed on each chromosome
+	 */
+	private double computeCompletion() {
+		long genomeLength = projectChromosomes.getGenomeLength();
+		if (genomeLength == 0) {
+			return 0;
+		}
+		long done = 0;
+		for (int i = 0; i < stages.size(); i++) {
+			done += Math.min(stages.get(i).lastProcessedStart, projectChromosomes.get(i).getLength());
+		}
+		return (done / (double) genomeLength) * 100d;
+	}
+
+
+	/**
+	 * Waits for all the flattener stages to be done and retrieves the list of {@link ListView} elements.
+	 * No window can be added once this method has been called.
+	 * @return the list of {@link ListView} elements
+	 * @throws InterruptedException
+	 * @throws ExecutionException if a flattener stage threw a checked exception
+	 */
+	public List<ListView<ScoredChromosomeWindow>> getListOfListViews() throws InterruptedException, ExecutionException {
+		try {
+			if (currentBatch != null) {
+				submitCurrentBatch();
+			}
+			// wait until all the batches have been processed
+			for (int i = 0; i < batchCount; i++) {
+				freeBatches.take();
+			}
+			checkWorkerException();
+			// the list views are built concurrently since building them can be costly (eg: sorting flatteners)
+			List<Future<ListView<ScoredChromosomeWindow>>> futures = new ArrayList<Future<ListView<ScoredChromosomeWindow>>>();
+			for (final ChromosomeStage currentStage: stages) {
+				futures.add(executor.submit(new Callable<ListView<ScoredChromosomeWindow>>() {
+					@Override
+					public ListView<ScoredChromosomeWindow> call() throws Exception {
+						return currentStage.flattener.getListView();
+					}
+				}));
+			}
+			List<ListView<ScoredChromosomeWindow>> genomicList = new ArrayList<ListView<ScoredChromosomeWindow>>();
+			for (Future<ListView<ScoredChromosomeWindow>> currentFuture: futures) {
+				try {
+					genomicList.add(currentFuture.get());
+				} catch (ExecutionException e) {
+					setWorkerException(e.getCause());
+					checkWorkerException();
+				}
+			}
+			return genomicList;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+
+	@Override
+	public OperationProgressListener[] getOperationProgressListeners() {
+		OperationProgressListener[] listeners = new OperationProgressListener[progressListeners.size()];
+		return progressListeners.toArray(listeners);
+	}
+
+
+	/**
+	 * Notifies all the listeners of the completion of the flattening if the
+	 * last notification happened more than {@link #PROGRESS_NOTIFICATION_DELAY} ms ago
+	 */
+	private void notifyProgressListeners() {
+		if (!progressListeners.isEmpty()) {
+			long currentTime = System.currentTimeMillis();
+			if ((currentTime - lastNotificationTime) > PROGRESS_NOTIFICATION_DELAY) {
+				lastNotificationTime = currentTime;
+				OperationProgressEvent evt = new OperationProgressEvent(OperationProgressEvent.IN_PROGRESS, computeCompletion());
+				for (OperationProgressListener listener: progressListeners) {
+					listener.operationProgressChanged(evt);
+				}
+			}
+		}
+	}
+
+
+	@Override
+	public void removeOperationProgressListener(OperationProgressListener operationProgressListener) {
+		progressListeners.remove(operationProgressListener);
+	}
+
+
+	/**
+	 * Sets the exception thrown by a flattener stage if no exception was set before
+	 * @param e exception thrown by a flattener stage
+	 */
+	private synchronized void setWorkerException(Throwable e) {
+		if (workerException == null) {
+			workerException = e;
+		}
+	}
+
+
+	/**
+	 * Submits the batch being filled to the stage of its chromosome
+	 * @throws ExecutionException if a flattener stage threw a checked exception
+	 */
+	private void submitCurrentBatch() throws ExecutionException {
+		checkWorkerException();
+		WindowBatch batch = currentBatch;
+		currentBatch = null;
+		batch.stage.submit(batch);
+		notifyProgressListeners();
+	}
+
+
+	/**
+	 * Retrieves a free batch, waiting if necessary until a batch is released by a flattener stage
+	 * @return a {@link WindowBatch} that can be filled
+	 * @throws InterruptedException
+	 * @throws ExecutionException if a flattener stage threw a checked exception
+	 */
+	private WindowBatch takeFreeBatch() throws InterruptedException, ExecutionException {
+		try {
+			WindowBatch batch = freeBatches.take();
+			checkWorkerException();
+			return batch;
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,499 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.pileupFlattener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.yu.einstein.genplay.core.manager.application.ConfigurationManager;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.exception.exceptions.DataLoadingException;
+import edu.yu.einstein.genplay.exception.exceptions.ElementAddedNotSortedException;
+import edu.yu.einstein.genplay.exception.exceptions.ObjectAlreadyBuiltException;
+import edu.yu.einstein.genplay.util.Utils;
+
+
+/**
+ * {@link PileupFlattener} accepting windows in any order.<br>
+ * The windows are buffered in primitive arrays and are sorted by start position before being
+ * added to a wrapped flattener when the {@link #getListView()} method is called.
+ * The sort is stable so windows with the same start position are flattened in the order they were added
+ * and no {@link ElementAddedNotSortedException} is thrown when the windows are not added in start position order.<br>
+ * The clones of a {@link SortingPileupFlattener} share a memory budget.  When a buffer is full and growing it would
+ * exceed the budget, the buffer is sorted and written in a temporary file.  The temporary files and the buffer
+ * are merged when the {@link ListView} is built.  They are also deleted by {@link #abort()} when the flattening is abandoned.<br>
+ * Used with a {@link ParallelGenomeWideFlattener}, the buffers of the different chromosomes are sorted concurrently.
+ * @author Julien Lajugie
+ */
+public class SortingPileupFlattener implements PileupFlattener {
+
+	/**
+	 * Reader of sorted windows stored either in a temporary file or in the buffer of the flattener
+	 * @author Julien Lajugie
+	 */
+	private static class SortedChunkReader {
+
+		/** Stream of the temporary file, null if the windows are in memory */
+		private final DataInputStream inputStream;
+
+		/** Number of windows of the chunk */
+		private final int size;
+
+		/** Start positions of the windows in memory */
+		private final int[] starts;
+
+		/** Stop positions of the windows in memory */
+		private final int[] stops;
+
+		/** Scores of the windows in memory */
+		private final float[] scores;
+
+		/** Number of windows read */
+		private int readCount;
+
+		/** Start position of the current window */
+		private int start;
+
+		/** Stop position of the current window */
+		private int stop;
+
+		/** Score of the current window */
+		private float score;
+
+
+		/**
+		 * Creates an instance of {@link SortedChunkReader} reading a temporary file
+		 * @param chunk temporary file containing the windows
+		 * @throws IOException
+		 */
+		private SortedChunkReader(File chunk) throws IOException {
+			inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(chunk), IO_BUFFER_SIZE));
+			size = (int) (chunk.length() / RECORD_SIZE);
+			starts = null;
+			stops = null;
+			scores = null;
+		}
+
+
+		/**
+		 * Creates an instance of {@link SortedChunkReader} reading windows stored in memory
+		 * @param starts start positions of the windows
+		 * @param stops stop positions of the windows
+		 * @param scores scores of the windows
+		 * @param size number of windows
+		 */
+		private SortedChunkReader(int[] starts, int[] stops, float[] scores, int size) {
+			inputStream = null;
+			this.size = size;
+			this.starts = starts;
+			this.stops = stops;
+			this.scores = scores;
+		}
+
+
+		/**
+		 * Closes the temporary file if any
+		 * @throws IOException
+		 */
+		private void close() throws IOException {
+			if (inputStream != null) {
+				inputStream.close();
+			}
+		}
+
+
+		/**
+		 * Reads the next window of the chunk
+		 * @return true if a window was read, false if the end of the chunk was reached
+		 * @throws IOException
+		 */
+		private boolean next() throws IOException {
+			if (readCount == size) {
+				return false;
+			}
+			if (inputStream != null) {
+				start = inputStream.readInt();
+				stop = inputStream.readInt();
+				score = inputStream.readFloat();
+			} else {
+				start = starts[readCount];
+				stop = stops[readCount];
+				score = scores[readCount];
+			}
+			readCount++;
+			return true;
+		}
+	}
+
+	/** Estimation of the number of bytes of memory used by a window, including the memory needed to sort it */
+	private static final int WINDOW_MEMORY_SIZE = 32;
+
+	/** Minimum number of windows in a buffer before it can be written on the disk */
+	private static final int MIN_SPILL_SIZE = 1 << 16;
+
+	/** Initial number of windows of the buffers */
+	private static final int INITIAL_CAPACITY = 1 << 10;
+
+	/** Size in bytes of a window in a temporary file */
+	private static final int RECORD_SIZE = 12;
+
+	/** Size in bytes of the buffers of the temporary file streams */
+	private static final int IO_BUFFER_SIZE = 1 << 16;
+
+	/** Flattener receiving the sorted windows */
+	private final PileupFlattener flattener;
+
+	/** Number of windows that can be stored by the buffers of this flattener and of its clones */
+	private final AtomicLong bufferedCapacity;
+
+	/** Maximum number of windows that can be stored by the buffers of this flattener and of its clones */
+	private final long maxBufferedCapacity;
+
+	/** Directory of the temporary files */
+	private final File tmpDirectory;
+
+	/** Temporary files containing the sorted chunks written on the disk */
+	private final List<File> chunks;
+
+	/** Start positions of the buffered windows */
+	private int[] starts;
+
+	/** Stop positions of the buffered windows */
+	private int[] stops;
+
+	/** Scores of the buffered windows */
+	private float[] scores;
+
+	/** Number of buffered windows */
+	private int size;
+
+	/** True if the list view has already been built */
+	private boolean isBuilt;
+
+
+	/**
+	 * Creates an instance of {@link SortingPileupFlattener} using the sort memory
+	 * of the {@link ConfigurationManager} and the default temporary directory
+	 * @param flattener flattener receiving the sorted windows
+	 */
+	public SortingPileupFlattener(PileupFlattener flattener) {
+		this(flattener, ConfigurationManager.getInstance().getSortMemory() * 1024l * 1024l, new File(Utils.getTmpDirectoryPath()));
+	}
+
+
+	/**
+	 * Creates an instance of {@link SortingPileupFlattener}
+	 * @param flattener flattener receiving the sorted windows
+	 * @param memoryBudget memory in bytes that the buffers of the flattener and of its clones can use
+	 * @param tmpDirectory directory of the temporary files
+	 */
+	public SortingPileupFlattener(PileupFlattener flattener, long memoryBudget, File tmpDirectory) {
+		this(flattener, new AtomicLong(0), memoryBudget / WINDOW_MEMORY_SIZE, tmpDirectory);
+	}
+
+
+	/**
+	 * Creates an instance of {@link SortingPileupFlattener}
+	 * @param flattener flattener receiving the sorted windows
+	 * @param bufferedCapacity number of windows that can be stored by the buffers sharing the memory budget
+	 * @param maxBufferedCapacity maximum number of windows that can be stored by the buffers sharing the memory budget
+	 * @param tmpDirectory directory of the temporary files
+	 */
+	private SortingPileupFlattener(PileupFlattener flattener, AtomicLong bufferedCapacity, long maxBufferedCapacity, File tmpDirectory) {
+		this.flattener = flattener;
+		this.bufferedCapacity = bufferedCapacity;
+		this.maxBufferedCapacity = maxBufferedCapacity;
+		this.tmpDirectory = tmpDirectory;
+		chunks = new ArrayList<File>();
+		size = 0;
+		isBuilt = false;
+	}
+
+
+	/**
+	 * Deletes the temporary files and releases the buffer of the flattener when the flattening is abandoned.
+	 * No window can be added once this method has been called.  Has no effect once the list view has been built.
+	 */
+	public void abort() {
+		if (!isBuilt) {
+			isBuilt = true;
+			release();
+		}
+	}
+
+
+	@Override
+	public void addWindow(int windowStart, int windowStop, float windowScore) throws ObjectAlreadyBuiltException {
+		if (isBuilt) {
+			throw new ObjectAlreadyBuiltException();
+		}
+		if ((starts == null) || (size == starts.length)) {
+			ensureCapacity();
+		}
+		starts[size] = windowStart;
+		stops[size] = windowStop;
+		scores[size] = windowScore;
+		size++;
+	}
+
+
+	@Override
+	public void addWindow(ScoredChromosomeWindow windowToAdd) throws ObjectAlreadyBuiltException {
+		addWindow(windowToAdd.getStart(), windowToAdd.getStop(), windowToAdd.getScore());
+	}
+
+
+	/**
+	 * A new instance of {@link SortingPileupFlattener} containing no element and sharing
+	 * the memory budget of this flattener.
+	 */
+	@Override
+	public SortingPileupFlattener clone() {
+		return new SortingPileupFlattener(flattener.clone(), bufferedCapacity, maxBufferedCapacity, tmpDirectory);
+	}
+
+
+	/**
+	 * Makes room for a new window in the buffer.
+	 * The buffer is grown if the memory budget allows it, otherwise the buffer is written on the disk.
+	 */
+	private void ensureCapacity() {
+		if (starts == null) {
+			bufferedCapacity.addAndGet(INITIAL_CAPACITY);
+			starts = new int[INITIAL_CAPACITY];
+			stops = new int[INITIAL_CAPACITY];
+			scores = new float[INITIAL_CAPACITY];
+			return;
+		}
+		int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, starts.length * 2l);
+		int extraCapacity = newCapacity - starts.length;
+		long newBufferedCapacity = bufferedCapacity.addAndGet(extraCapacity);
+		if ((size >= MIN_SPILL_SIZE) && (newBufferedCapacity > maxBufferedCapacity)) {
+			bufferedCapacity.addAndGet(-extraCapacity);
+			spill();
+		} else {
+			starts = Arrays.copyOf(starts, newCapacity);
+			stops = Arrays.copyOf(stops, newCapacity);
+			scores = Arrays.copyOf(scores, newCapacity);
+		}
+	}
+
+
+	@Override
+	public ListView<ScoredChromosomeWindow> getListView() {
+		if (!isBuilt) {
+			isBuilt = true;
+			try {
+				sortBuffer();
+				if (chunks.isEmpty()) {
+					for (int i = 0; i < size; i++) {
+						flattener.addWindow(starts[i], stops[i], scores[i]);
+					}
+				} else {
+					mergeChunks();
+				}
+			} catch (IOException e) {
+				throw new DataLoadingException("Cannot read the windows sorted on the disk", e);
+			} finally {
+				release();
+			}
+		}
+		return flattener.getListView();
+	}
+
+
+	/**
+	 * @param reader1 index of a chunk reader
+	 * @param reader2 index of another chunk reader
+	 * @param readers chunk readers
+	 * @return true if the current window of the first reader must be flattened before the current window of the second reader
+	 */
+	private static boolean isBefore(int reader1, int reader2, SortedChunkReader[] readers) {
+		int start1 = readers[reader1].start;
+		int start2 = readers[reader2].start;
+		return (start1 < start2) || ((start1 == start2) && (reader1 < reader2));
+	}
+
+
+	/**
+	 * Merges the chunks written on the disk and the buffer and adds the windows to the wrapped flattener.
+	 * The buffer is merged last so the windows with the same start position stay in the order they were added.
+	 * @throws IOException
+	 */
+	private void mergeChunks() throws IOException {
+		SortedChunkReader[] readers = new SortedChunkReader[chunks.size() + 1];
+		try {
+			for (int i = 0; i < chunks.size(); i++) {
+				readers[i] = new SortedChunkReader(chunks.get(i));
+			}
+			readers[chunks.size()] = new SortedChunkReader(starts, stops, scores, size);
+			int[] heap = new int[readers.length];
+			int heapSize = 0;
+			for (int i = 0; i < readers.length; i++) {
+				if (readers[i].next()) {
+					heap[heapSize++] = i;
+				}
+			}
+			for (int i = (heapSize / 2) - 1; i >= 0; i--) {
+				siftDown(heap, heapSize, i, readers);
+			}
+			while (heapSize > 0) {
+				SortedChunkReader reader = readers[heap[0]];
+				flattener.addWindow(reader.start, reader.stop, reader.score);
+				if (!reader.next()) {
+					heap[0] = heap[--heapSize];
+				}
+				siftDown(heap, heapSize, 0, readers);
+			}
+		} finally {
+			for (SortedChunkReader reader: readers) {
+				if (reader != null) {
+					reader.close();
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Moves down the specified element of a heap of chunk readers until the heap is ordered
+	 * @param heap heap containing the indexes of the chunk readers
+	 * @param heapSize number of elements in the heap
+	 * @param index index in the heap of the element to move
+	 * @param readers chunk readers
+	 */
+	private static void siftDown(int[] heap, int heapSize, int index, SortedChunkReader[] readers) {
+		if (index >= heapSize) {
+			return;
+		}
+		int element = heap[index];
+		while (true) {
+			int child = (2 * index) + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (((child + 1) < heapSize) && isBefore(heap[child + 1], heap[child], readers)) {
+				child++;
+			}
+			if (!isBefore(heap[child], element, readers)) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = element;
+	}
+
+
+	/**
+	 * Sorts the buffered windows by start position.  The sort is stable.
+	 * The start positions are sorted as primitive keys containing the start position
+	 * in the high bits and the index of the window in the low bits.
+	 */
+	private void sortBuffer() {
+		boolean isSorted = true;
+		for (int i = 1; (i < size) && isSorted; i++) {
+			isSorted = starts[i - 1] <= starts[i];
+		}
+		if (isSorted) {
+			return;
+		}
+		long[] keys = new long[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = ((long) starts[i] << 32) | i;
+		}
+		Arrays.sort(keys);
+		int[] sortedStops = new int[starts.length];
+		float[] sortedScores = new float[starts.length];
+		for (int i = 0; i < size; i++) {
+			int index = (int) keys[i];
+			sortedStops[i] = stops[index];
+			sortedScores[i] = scores[index];
+			starts[i] = (int) (keys[i] >> 32);
+		}
+		stops = sortedStops;
+		scores = sortedScores;
+	}
+
+
+	/**
+	 * Deletes the temporary files and releases the buffer
+	 */
+	private void release() {
+		for (File chunk: chunks) {
+			chunk.delete();
+		}
+		chunks.clear();
+		if (starts != null) {
+			bufferedCapacity.addAndGet(-starts.length);
+		}
+		starts = null;
+		stops = null;
+		scores = null;
+		size = 0;
+	}
+
+
+	/**
+	 * Sorts the buffer and writes it in a temporary file
+	 */
+	private void spill() {
+		sortBuffer();
+		DataOutputStream outputStream = null;
+		try {
+			File chunk = File.createTempFile("sortedChunk", ".tmp", tmpDirectory);
+			chunk.deleteOnExit();
+			chunks.add(chunk);
+			outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(chunk), IO_BUFFER_SIZE));
+			for (int i = 0; i < size; i++) {
+				outputStream.writeInt(starts[i]);
+				outputStream.writeInt(stops[i]);
+				outputStream.writeFloat(scores[i]);
+			}
+			outputStream.close();
+			outputStream = null;
+		} catch (IOException e) {
+			throw new DataLoadingException("Cannot write the sorted windows on the disk", e);
+		} finally {
+			if (outputStream != null) {
+				try {
+					outputStream.close();
+				} catch (IOException e) {
+					// the exception causing the stream to be closed is more relevant
+				}
+			}
+		}
+		size = 0;
+	}
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.pileupFlattener;
+
+import java.util.Arrays;
+
+
+/**
+ * Array based binary min-heap of windows keyed by stop position.
+ * Each entry stores the stop position and the score of a window in two parallel primitive arrays
+ * so pushing and popping a window doesn't allocate any object.
+ * The arrays grow by doubling their capacity so the cost of an insertion is amortized O(log n).
+ * @author Julien Lajugie
+ */
+class StopPositionHeap {
+
+	/** Default capacity of the heap */
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/** Stop positions of the windows in heap order */
+	private int[] stops;
+
+	/** Scores of the windows, parallel to the stop array */
+	private float[] scores;
+
+	/** Number of windows in the heap */
+	private int size;
+
+
+	/**
+	 * Creates an instance of {@link StopPositionHeap}
+	 */
+	StopPositionHeap() {
+		stops = new int[DEFAULT_CAPACITY];
+		scores = new float[DEFAULT_CAPACITY];
+		size = 0;
+	}
+
+
+	/**
+	 * @return true if the heap contains no window
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+
+	/**
+	 * @return the smallest stop position of the heap
+	 */
+	int peekStop() {
+		return stops[0];
+	}
+
+
+	/**
+	 * @return the score of the window with the smallest stop position of the heap
+	 */
+	float peekScore() {
+		return scores[0];
+	}
+
+
+	/**
+	 * Removes the window with the smallest stop position from the heap
+	 */
+	void pop() {
+		size--;
+		if (size > 0) {
+			int stop = stops[size];
+			float score = scores[size];
+			int index = 0;
+			int half = size >>> 1;
+			while (index < half) {
+				int child = (index << 1) + 1;
+				int right = child + 1;
+				if ((right < size) && (stops[right] < stops[child])) {
+					child = right;
+				}
+				if (stop <= stops[child]) {
+					break;
+				}
+				stops[index] = stops[child];
+				scores[index] = scores[child];
+				index = child;
+			}
+			stops[index] = stop;
+			scores[index] = score;
+		}
+	}
+
+
+	/**
+	 * Adds a window to the heap
+	 * @param stop stop position of the window
+	 * @param score score of the window
+	 */
+	void push(int stop, float score) {
+		if (size == stops.length) {
+			stops = Arrays.copyOf(stops, size * 2);
+			scores = Arrays.copyOf(scores, size * 2);
+		}
+		int index = size++;
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (stops[parent] <= stop) {
+				break;
+			}
+			stops[index] = stops[parent];
+			scores[index] = scores[parent];
+			index = parent;
+		}
+		stops[index] = stop;
+		scores[index] = score;
+	}
+
+
+	/**
+	 * @return the number of windows in the heap
+	 */
+	int size() {
+		return size;
+	}
+}
@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.core.pileupFlattener;
+
+import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.dense.DenseSCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.mask.MaskListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SimpleSCWList.SimpleSCWList;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.exception.exceptions.ElementAddedNotSortedException;
+import edu.yu.einstein.genplay.exception.exceptions.ObjectAlreadyBuiltException;
+
+
+/**
+ * {@link PileupFlattener} for {@link SimpleSCWList} using a sweep-line algorithm.<br>
+ * The windows of the pileup are stored in a primitive heap sorted by stop position and the scores of the
+ * windows overlapping the sweep-line are aggregated incrementally: a running sum and a count of non-zero
+ * scores for the {@link ScoreOperation#ADDITION} and {@link ScoreOperation#AVERAGE} operations and
+ * heaps with lazy deletion for the {@link ScoreOperation#MAXIMUM} and {@link ScoreOperation#MINIMUM} operations.
+ * The {@link ScoreOperation#MULTIPLICATION} operation uses a running sum of the logarithms of the absolute values
+ * of the non-zero scores, a count of the negative scores and a count of the zero scores.
+ * Adding a window costs an amortized O(log depth) and doesn't allocate any object.<br>
+ * The results are the same as the ones of the {@link SimpleSCWPileupFlattener} except that:
+ * <ul>
+ * <li>sums are accumulated in double precision in the sweep order so the scores can differ from the
+ * ones of the {@link SimpleSCWPileupFlattener} by a few float ulps (same for the products)</li>
+ * <li>the {@link ScoreOperation#MINIMUM} operation returns the minimum of the non-zero scores</li>
+ * </ul>
+ * @author Julien Lajugie
+ */
+public class SweepLinePileupFlattener implements PileupFlattener {
+
+	/** Builder to create the result {@link ListView} */
+	private final SCWListViewBuilder resultLVBuilder;
+
+	/** Operation to compute the score of the result value of the flattening */
+	private final ScoreOperation scoreOperation;
+
+	/** Windows overlapping the sweep-line sorted by stop position */
+	private final StopPositionHeap activeWindows;
+
+	/** Heap of the opposite of the non-zero scores overlapping the sweep-line (maximum operation only) */
+	private final FloatMinHeap maxHeap;
+
+	/** Heap of the non-zero scores overlapping the sweep-line (minimum operation only) */
+	private final FloatMinHeap minHeap;
+
+	/** Sum of the scores overlapping the sweep-line */
+	private double scoreSum;
+
+	/** Count of non-zero scores overlapping the sweep-line */
+	private int nonZeroScoreCount;
+
+	/** Sum of the logarithms of the absolute values of the non-zero scores overlapping the sweep-line (multiplication operation only) */
+	private double logProduct;
+
+	/** Count of negative scores overlapping the sweep-line (multiplication operation only) */
+	private int negativeScoreCount;
+
+	/** Count of zero scores overlapping the sweep-line */
+	private int zeroScoreCount;
+
+	/** Position of the sweep-line */
+	private int sweepPosition;
+
+	/** Start position of the last window added */
+	private int lastStart;
+
+	/** True if at least one window has been added */
+	private boolean hasWindow;
+
+	/** True if the list view has already been built */
+	private boolean isBuilt;
+
+
+	/**
+	 * Creates an instance of {@link SweepLinePileupFlattener}
+	 * @param scoreOperation {@link ScoreOperation} to compute the score of the result value of the flattening
+	 * @param scwListType type of the list that this flattener will create
+	 */
+	public SweepLinePileupFlattener(ScoreOperation scoreOperation, SCWListType scwListType) {
+		this(scoreOperation, createBuilder(scwListType));
+	}
+
+
+	/**
+	 * Creates an instance of {@link SweepLinePileupFlattener}
+	 * @param scoreOperation {@link ScoreOperation} to compute the score of the result value of the flattening
+	 * @param resultLVBuilder {@link ListViewBuilder} to create the result {@link ListView}
+	 */
+	public SweepLinePileupFlattener(ScoreOperation scoreOperation, SCWListViewBuilder resultLVBuilder) {
+		switch (scoreOperation) {
+		case DIVISION:
+			throw new UnsupportedOperationException("Operation not supported: Division. Noncommutative operations are not supported.");
+		case SUBTRACTION:
+			throw new UnsupportedOperationException("Operation not supported: Subtraction. Noncommutative operations are not supported.");
+		default:
+			break;
+		}
+		this.scoreOperation = scoreOperation;
+		this.resultLVBuilder = resultLVBuilder;
+		activeWindows = new StopPositionHeap();
+		maxHeap = scoreOperation == ScoreOperation.MAXIMUM ? new FloatMinHeap() : null;
+		minHeap = scoreOperation == ScoreOperation.MINIMUM ? new FloatMinHeap() : null;
+		hasWindow = false;
+		isBuilt = false;
+	}
+
+
+	/**
+	 * @param scwListType type of the list that the flattener will create
+	 * @return a {@link SCWListViewBuilder} creating the specified type of list
+	 */
+	private static SCWListViewBuilder createBuilder(SCWListType scwListType) {
+		switch (scwListType) {
+		case DENSE:
+			return new DenseSCWListViewBuilder();
+		case GENERIC:
+			return new GenericSCWListViewBuilder();
+		case MASK:
+			return new MaskListViewBuilder();
+		default:
+			// case where the input list is a binlist
+			// the flattener will create a generic result list
+			return new GenericSCWListViewBuilder();
+		}
+	}
+
+
+	@Override
+	public void addWindow(int windowStart, int windowStop, float windowScore) throws ElementAddedNotSortedException, ObjectAlreadyBuiltException {
+		if (isBuilt) {
+			throw new ObjectAlreadyBuiltException();
+		}
+		if (!hasWindow) {
+			sweepPosition = windowStart;
+			hasWindow = true;
+		} else if (windowStart < lastStart) {
+			throw new ElementAddedNotSortedException();
+		} else {
+			moveSweepLine(windowStart);
+		}
+		lastStart = windowStart;
+		activeWindows.push(windowStop, windowScore);
+		addScore(windowScore);
+	}
+
+
+	@Override
+	public void addWindow(ScoredChromosomeWindow windowToAdd) throws ElementAddedNotSortedException, ObjectAlreadyBuiltException {
+		addWindow(windowToAdd.getStart(), windowToAdd.getStop(), windowToAdd.getScore());
+	}
+
+
+	/**
+	 * Adds a score to the aggregates of the scores overlapping the sweep-line
+	 * @param score score to add
+	 */
+	private void addScore(float score) {
+		if (score == 0) {
+			zeroScoreCount++;
+		} else {
+			scoreSum += score;
+			nonZeroScoreCount++;
+			if (scoreOperation == ScoreOperation.MULTIPLICATION) {
+				logProduct += Math.log(Math.abs(score));
+				if (score < 0) {
+					negativeScoreCount++;
+				}
+			}
+			if (maxHeap != null) {
+				maxHeap.add(-score);
+			}
+			if (minHeap != null) {
+				minHeap.add(score);
+			}
+		}
+	}
+
+
+	/**
+	 * A new instance of {@link SweepLinePileupFlattener} containing no element.
+	 */
+	@Override
+	public SweepLinePileupFlattener clone() {
+		return new SweepLinePileupFlattener(scoreOperation, resultLVBuilder.clone());
+	}
+
+
+	/**
+	 * @return the score of the windows overlapping the sweep-line computed using the {@link ScoreOperation}
+	 * set during the construction of this {@link SweepLinePileupFlattener} object.
+	 */
+	private float computeScore() {
+		if (nonZeroScoreCount == 0) {
+			return 0;
+		}
+		switch (scoreOperation) {
+		case ADDITION:
+			return (float) scoreSum;
+		case AVERAGE:
+			return (float) (scoreSum / nonZeroScoreCount);
+		case MAXIMUM:
+			return -maxHeap.min();
+		case MINIMUM:
+			return minHeap.min();
+		case MULTIPLICATION:
+			// same behavior as FloatLists.multiply: the product of a single value is 0
+			if ((activeWindows.size() < 2) || (zeroScoreCount > 0)) {
+				return 0;
+			}
+			float product = (float) Math.exp(logProduct);
+			return (negativeScoreCount % 2) == 0 ? product : -product;
+		default:
+			throw new UnsupportedOperationException("Operation not supported: " + scoreOperation.name());
+		}
+	}
+
+
+	/**
+	 * Adds the window between the specified positions to the result list if
+	 * the score of the windows overlapping the sweep-line is not zero
+	 * @param start start position of the window
+	 * @param stop stop position of the window
+	 */
+	private void flattenWindow(int start, int stop) {
+		if (start < stop) {
+			float score = computeScore();
+			if (score != 0) {
+				resultLVBuilder.addElementToBuild(start, stop, score);
+			}
+		}
+	}
+
+
+	@Override
+	public ListView<ScoredChromosomeWindow> getListView() {
+		if (!isBuilt) {
+			if (hasWindow) {
+				moveSweepLine(Integer.MAX_VALUE);
+			}
+			isBuilt = true;
+		}
+		return resultLVBuilder.getListView();
+	}
+
+
+	/**
+	 * Moves the sweep-line to the specified position.  The windows between the current position and
+	 * the new position are flattened and the windows ending before the new position are removed.
+	 * @param position new position of the sweep-line
+	 */
+	private void moveSweepLine(int position) {
+		while (!activeWindows.isEmpty() && (activeWindows.peekStop() <= position)) {
+			int nextStop = activeWindows.peekStop();
+			flattenWindow(sweepPosition, nextStop);
+			// remove all the windows ending at the next stop position
+			do {
+				removeScore(activeWindows.peekScore());
+				activeWindows.pop();
+			} while (!activeWindows.isEmpty() && (activeWindows.peekStop() == nextStop));
+			sweepPosition = Math.max(sweepPosition, nextStop);
+		}
+		flattenWindow(sweepPosition, position);
+		sweepPosition = Math.max(sweepPosition, position);
+	}
+
+
+	/**
+	 * Removes a score from the aggregates of the scores overlapping the sweep-line
+	 * @param score score to remove
+	 */
+	private void removeScore(float score) {
+		if (score == 0) {
+			zeroScoreCount--;
+		} else {
+			nonZeroScoreCount--;
+			if ((scoreOperation == ScoreOperation.MULTIPLICATION) && (score < 0)) {
+				negativeScoreCount--;
+			}
+			if (nonZeroScoreCount == 0) {
+				// reset the aggregates to avoid accumulating rounding errors and stale heap entries
+				scoreSum = 0;
+				logProduct = 0;
+				negativeScoreCount = 0;
+				if (maxHeap != null) {
+					maxHeap.clear();
+				}
+				if (minHeap != null) {
+					minHeap.clear();
+				}
+			} else {
+				scoreSum -= score;
+				if (scoreOperation == ScoreOperation.MULTIPLICATION) {
+					logProduct -= Math.log(Math.abs(score));
+				}
+				if (maxHeap != null) {
+					maxHeap.remove(-score);
+				}
+				if (minHeap != null) {
+					minHeap.remove(score);
+				}
+			}
+		}
+	}
+}
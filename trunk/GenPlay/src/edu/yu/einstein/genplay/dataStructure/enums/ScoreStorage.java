@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.enums;
+
+
+
+/**
+ * Enumeration of the different ways the scores of the data can be stored in GenPlay
+ * @author Julien Lajugie
+ */
+public enum ScoreStorage {
+
+
+	/**
+	 * Scores stored in arrays on the java heap
+	 */
+	IN_MEMORY ("Memory", "Scores stored in the java heap"),
+	/**
+	 * Scores stored in memory-mapped files in the temporary directory
+	 */
+	MEMORY_MAPPED ("Memory-Mapped Files", "Scores stored in memory-mapped files in the temporary directory");
+
+
+	private final String name; 			// name of the storage
+	private final String description;	// description of the storage
+
+
+	/**
+	 * Private constructor. Creates an instance of {@link ScoreStorage}
+	 * @param name name of the storage
+	 * @param description
+	 */
+	private ScoreStorage(String name, String description) {
+		this.name = name;
+		this.description = description;
+	}
+
+
+	/**
+	 * @return the description of the score storage
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+
+	/**
+	 * @return the name of the score storage
+	 */
+	public String getName() {
+		return name;
+	}
+
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView;
+
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+
+
+/**
+ * {@link ListView} of {@link ScoredChromosomeWindow} giving access to the positions and scores
+ * of the windows as primitives.
+ * Unlike the {@link #get(int)} method, the methods of this interface don't create any object.
+ * They should be used in the loops going through large lists.
+ * @author Julien Lajugie
+ */
+public interface SCWListView extends ListView<ScoredChromosomeWindow> {
+
+	/**
+	 * @param elementIndex index of a window
+	 * @return the score of the window at the specified index
+	 */
+	public float getScore(int elementIndex);
+
+
+	/**
+	 * Copies the scores of the windows from index fromIndex (inclusive) to index toIndex (exclusive) in the specified array
+	 * @param fromIndex index of the first window
+	 * @param toIndex index after the last window
+	 * @param destination destination array
+	 * @param destinationIndex index in the destination array of the score of the first window
+	 */
+	public void getScores(int fromIndex, int toIndex, float[] destination, int destinationIndex);
+
+
+	/**
+	 * @param elementIndex index of a window
+	 * @return the start position of the window at the specified index
+	 */
+	public int getStart(int elementIndex);
+
+
+	/**
+	 * Copies the start positions of the windows from index fromIndex (inclusive) to index toIndex (exclusive) in the specified array
+	 * @param fromIndex index of the first window
+	 * @param toIndex index after the last window
+	 * @param destination destination array
+	 * @param destinationIndex index in the destination array of the start of the first window
+	 */
+	public void getStarts(int fromIndex, int toIndex, int[] destination, int destinationIndex);
+
+
+	/**
+	 * @param elementIndex index of a window
+	 * @return the stop position of the window at the specified index
+	 */
+	public int getStop(int elementIndex);
+
+
+	/**
+	 * Copies the stop positions of the windows from index fromIndex (inclusive) to index toIndex (exclusive) in the specified array
+	 * @param fromIndex index of the first window
+	 * @param toIndex index after the last window
+	 * @param destination destination array
+	 * @param destinationIndex index in the destination array of the stop of the first window
+	 */
+	public void getStops(int fromIndex, int toIndex, int[] destination, int destinationIndex);
+}
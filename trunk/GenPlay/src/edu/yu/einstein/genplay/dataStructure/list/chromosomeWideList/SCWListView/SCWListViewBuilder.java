@@ -46,6 +46,19 @@ public interface SCWListViewBuilder extends ListViewBuilder<ScoredChromosomeWind
 	 */
 	public void addElementToBuild(int start, int stop, float score) throws ObjectAlreadyBuiltException;
 
+	/**
+	 * Adds a slice of elements to the ListView that will be built.
+	 * The result is the same as calling {@link #addElementToBuild(int, int, float)} for
+	 * each element of the slice but implementations can append the slice in bulk.
+	 * @param starts start positions of the SCWs to add
+	 * @param stops stop positions of the SCWs to add
+	 * @param scores score values of the SCWs to add
+	 * @param offset index in the arrays of the first SCW to add
+	 * @param length number of SCWs to add
+	 * @throws ObjectAlreadyBuiltException
+	 */
+	public void addElementsToBuild(int[] starts, int[] stops, float[] scores, int offset, int length) throws ObjectAlreadyBuiltException;
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView;
+
+import edu.yu.einstein.genplay.dataStructure.list.listView.AbstractListView;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+
+
+/**
+ * Continuous sublist of a {@link SCWListView}.
+ * Sublists of {@link SCWListView} are also {@link SCWListView} so their elements
+ * can be accessed without creating objects.
+ * @author Julien Lajugie
+ */
+public final class SCWSubListView extends AbstractListView<ScoredChromosomeWindow> implements SCWListView {
+
+	/** Generated serial ID */
+	private static final long serialVersionUID = 2960722616207547613L;
+
+	/** Parent {@link SCWListView} of the sublist */
+	private final SCWListView parent;
+
+	/** Offset of the start of the list view */
+	private final int offset;
+
+	/** Size of the {@link ListView} */
+	private final int size;
+
+
+	/**
+	 * Creates an instance of {@link SCWSubListView}
+	 * @param parent parent {@link SCWListView} of the sublist
+	 * @param fromIndex first index of the sublist in the parent list
+	 * @param toIndex index after the last index of the sublist in the parent list
+	 */
+	public SCWSubListView(SCWListView parent, int fromIndex, int toIndex) {
+		if (fromIndex < 0) {
+			throw new IndexOutOfBoundsException("fromIndex = " + fromIndex);
+		}
+		if (toIndex > parent.size()) {
+			throw new IndexOutOfBoundsException("toIndex = " + toIndex);
+		}
+		if (fromIndex > toIndex) {
+			throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+		}
+		this.parent = parent;
+		offset = fromIndex;
+		size = toIndex - fromIndex;
+	}
+
+
+	@Override
+	public ScoredChromosomeWindow get(int elementIndex) {
+		rangeCheck(elementIndex);
+		return parent.get(offset + elementIndex);
+	}
+
+
+	@Override
+	public float getScore(int elementIndex) {
+		rangeCheck(elementIndex);
+		return parent.getScore(offset + elementIndex);
+	}
+
+
+	@Override
+	public void getScores(int fromIndex, int toIndex, float[] destination, int destinationIndex) {
+		rangeCheck(fromIndex, toIndex);
+		parent.getScores(offset + fromIndex, offset + toIndex, destination, destinationIndex);
+	}
+
+
+	@Override
+	public int getStart(int elementIndex) {
+		rangeCheck(elementIndex);
+		return parent.getStart(offset + elementIndex);
+	}
+
+
+	@Override
+	public void getStarts(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		rangeCheck(fromIndex, toIndex);
+		parent.getStarts(offset + fromIndex, offset + toIndex, destination, destinationIndex);
+	}
+
+
+	@Override
+	public int getStop(int elementIndex) {
+		rangeCheck(elementIndex);
+		return parent.getStop(offset + elementIndex);
+	}
+
+
+	@Override
+	public void getStops(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		rangeCheck(fromIndex, toIndex);
+		parent.getStops(offset + fromIndex, offset + toIndex, destination, destinationIndex);
+	}
+
+
+	/**
+	 * Checks if the specified index is valid
+	 * @param index
+	 */
+	private void rangeCheck(int index) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+
+	/**
+	 * Checks if the specified range of indexes is valid
+	 * @param fromIndex
+	 * @param toIndex
+	 */
+	private void rangeCheck(int fromIndex, int toIndex) {
+		if ((fromIndex < 0) || (toIndex > size) || (fromIndex > toIndex)) {
+			throw new IndexOutOfBoundsException("From Index: " + fromIndex + ", To Index: " + toIndex + ", Size: " + size);
+		}
+	}
+
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+
+	@Override
+	public ListView<ScoredChromosomeWindow> subList(int fromIndex, int toIndex) {
+		rangeCheck(fromIndex, toIndex);
+		return new SCWSubListView(parent, offset + fromIndex, offset + toIndex);
+	}
+}
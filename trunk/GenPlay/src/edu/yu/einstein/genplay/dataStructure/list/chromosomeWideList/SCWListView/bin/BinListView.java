@@ -27,8 +27,11 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.List;
 
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWSubListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.AbstractListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.AbstractScoredChromosomeWindow;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 
@@ -38,7 +41,7 @@ import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromo
  * {@link BinListView} objects are immutable.
  * @author Julien Lajugie
  */
-public final class BinListView extends AbstractListView<ScoredChromosomeWindow> implements ListView<ScoredChromosomeWindow> {
+public final class BinListView extends AbstractListView<ScoredChromosomeWindow> implements SCWListView {
 
 	/**
 	 * Implementation of the {@link ScoredChromosomeWindow} interface for windows retrieved from a {@link ListView}
@@ -64,18 +67,18 @@ public final class BinListView extends AbstractListView<ScoredChromosomeWindow>
 
 		@Override
 		public float getScore() {
-			return binScores.get(windowIndex);
+			return BinListView.this.getScore(windowIndex);
 		}
 
 
 		@Override
 		public int getStart() {
-			return (windowIndex * binSize) + 1;
+			return BinListView.this.getStart(windowIndex);
 		}
 
 		@Override
 		public int getStop() {
-			return ((windowIndex + 1) * binSize) + 1;
+			return BinListView.this.getStop(windowIndex);
 		}
 	}
 
@@ -111,6 +114,46 @@ public final class BinListView extends AbstractListView<ScoredChromosomeWindow>
 	}
 
 
+	@Override
+	public float getScore(int elementIndex) {
+		return ((PrimitiveList<Float>) binScores).getFloat(elementIndex);
+	}
+
+
+	@Override
+	public void getScores(int fromIndex, int toIndex, float[] destination, int destinationIndex) {
+		((PrimitiveList<Float>) binScores).getFloats(fromIndex, toIndex, destination, destinationIndex);
+	}
+
+
+	@Override
+	public int getStart(int elementIndex) {
+		return (elementIndex * binSize) + 1;
+	}
+
+
+	@Override
+	public void getStarts(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			destination[destinationIndex++] = (i * binSize) + 1;
+		}
+	}
+
+
+	@Override
+	public int getStop(int elementIndex) {
+		return ((elementIndex + 1) * binSize) + 1;
+	}
+
+
+	@Override
+	public void getStops(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			destination[destinationIndex++] = ((i + 1) * binSize) + 1;
+		}
+	}
+
+
 	/**
 	 * @return the size of the bins of the {@link ListView}
 	 */
@@ -130,6 +173,8 @@ public final class BinListView extends AbstractListView<ScoredChromosomeWindow>
 		in.readInt();
 		// read the final fields
 		in.defaultReadObject();
+		// the scores can be stored in memory-mapped files
+		((PrimitiveList<Float>) binScores).setMappable(true);
 	}
 
 
@@ -139,6 +184,12 @@ public final class BinListView extends AbstractListView<ScoredChromosomeWindow>
 	}
 
 
+	@Override
+	public ListView<ScoredChromosomeWindow> subList(int fromIndex, int toIndex) {
+		return new SCWSubListView(this, fromIndex, toIndex);
+	}
+
+
 	/**
 	 * Method used for serialization
 	 * @param out
@@ -22,8 +22,6 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.bin;
 
-import java.util.List;
-
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
@@ -45,7 +43,7 @@ public final class BinListViewBuilder implements ListViewBuilder<ScoredChromosom
 	private final int binSize;
 
 	/** List of the score values of the SCWs */
-	private List<Float> windowScores;
+	private PrimitiveList<Float> windowScores;
 
 
 	/**
@@ -54,7 +52,7 @@ public final class BinListViewBuilder implements ListViewBuilder<ScoredChromosom
 	 */
 	public BinListViewBuilder(int binSize) {
 		this.binSize = binSize;
-		windowScores = new PrimitiveList<Float>(Float.class);
+		windowScores = new PrimitiveList<Float>(Float.class, true);
 	}
 
 
@@ -118,6 +116,31 @@ public final class BinListViewBuilder implements ListViewBuilder<ScoredChromosom
 	}
 
 
+	/**
+	 * Adds a slice of new {@link ScoredChromosomeWindow} to the list to be build with the specified scores.
+	 * The scores are appended in bulk, the window of the first score added starts where the last window of the list stops.
+	 * @param scores scores of the windows to add
+	 * @param offset index in the array of the first score to add
+	 * @param length number of scores to add
+	 * @throws ObjectAlreadyBuiltException
+	 */
+	public void addElementsToBuild(float[] scores, int offset, int length) throws ObjectAlreadyBuiltException {
+		if (windowScores == null) {
+			throw new ObjectAlreadyBuiltException();
+		}
+		windowScores.addFloats(scores, offset, length);
+	}
+
+
+	@Override
+	public void addElementsToBuild(int[] starts, int[] stops, float[] scores, int offset, int length)
+			throws ObjectAlreadyBuiltException, ElementAddedNotSortedException, ElementAddedOverlapException, ElementAddedDontFallInBinException {
+		for (int i = offset; i < (offset + length); i++) {
+			addElementToBuild(starts[i], stops[i], scores[i]);
+		}
+	}
+
+
 	@Override
 	public BinListViewBuilder clone() {
 		BinListViewBuilder clone = new BinListViewBuilder(binSize);
@@ -138,8 +161,6 @@ public final class BinListViewBuilder implements ListViewBuilder<ScoredChromosom
 	 * Trims the lists to their sizes in order to improve the memory usage of the list view
 	 */
 	private void trimListsToSize() {
-		if (windowScores instanceof PrimitiveList<?>) {
-			((PrimitiveList<?>) windowScores).trimToSize();
-		}
+		windowScores.trimToSize();
 	}
 }
@@ -27,8 +27,11 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.List;
 
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWSubListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.AbstractListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.AbstractScoredChromosomeWindow;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 
@@ -40,7 +43,7 @@ import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromo
  * {@link DenseSCWListView} objects are immutable.
  * @author Julien Lajugie
  */
-public final class DenseSCWListView extends AbstractListView<ScoredChromosomeWindow> implements ListView<ScoredChromosomeWindow> {
+public final class DenseSCWListView extends AbstractListView<ScoredChromosomeWindow> implements SCWListView {
 
 	/**
 	 * Implementation of the {@link ScoredChromosomeWindow} interface for windows retrieved from a {@link ListView}
@@ -66,22 +69,18 @@ public final class DenseSCWListView extends AbstractListView<ScoredChromosomeWin
 
 		@Override
 		public float getScore() {
-			return windowScores.get(windowIndex);
+			return DenseSCWListView.this.getScore(windowIndex);
 		}
 
 
 		@Override
 		public int getStart() {
-			if (windowIndex > 0) {
-				return windowStops.get(windowIndex - 1);
-			} else {
-				return 1;
-			}
+			return DenseSCWListView.this.getStart(windowIndex);
 		}
 
 		@Override
 		public int getStop() {
-			return windowStops.get(windowIndex);
+			return DenseSCWListView.this.getStop(windowIndex);
 		}
 	}
 
@@ -118,6 +117,54 @@ public final class DenseSCWListView extends AbstractListView<ScoredChromosomeWin
 	}
 
 
+	@Override
+	public float getScore(int elementIndex) {
+		return ((PrimitiveList<Float>) windowScores).getFloat(elementIndex);
+	}
+
+
+	@Override
+	public void getScores(int fromIndex, int toIndex, float[] destination, int destinationIndex) {
+		((PrimitiveList<Float>) windowScores).getFloats(fromIndex, toIndex, destination, destinationIndex);
+	}
+
+
+	@Override
+	public int getStart(int elementIndex) {
+		if (elementIndex > 0) {
+			return ((PrimitiveList<Integer>) windowStops).getInt(elementIndex - 1);
+		} else {
+			return 1;
+		}
+	}
+
+
+	@Override
+	public void getStarts(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		if (fromIndex < toIndex) {
+			// the start of a window is the stop of the previous window
+			if (fromIndex == 0) {
+				destination[destinationIndex] = 1;
+				((PrimitiveList<Integer>) windowStops).getInts(0, toIndex - 1, destination, destinationIndex + 1);
+			} else {
+				((PrimitiveList<Integer>) windowStops).getInts(fromIndex - 1, toIndex - 1, destination, destinationIndex);
+			}
+		}
+	}
+
+
+	@Override
+	public int getStop(int elementIndex) {
+		return ((PrimitiveList<Integer>) windowStops).getInt(elementIndex);
+	}
+
+
+	@Override
+	public void getStops(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		((PrimitiveList<Integer>) windowStops).getInts(fromIndex, toIndex, destination, destinationIndex);
+	}
+
+
 	/**
 	 * Method used for deserialization
 	 * @param in
@@ -129,6 +176,9 @@ public final class DenseSCWListView extends AbstractListView<ScoredChromosomeWin
 		in.readInt();
 		// read the final fields
 		in.defaultReadObject();
+		// the stops and the scores can be stored in memory-mapped files
+		((PrimitiveList<Integer>) windowStops).setMappable(true);
+		((PrimitiveList<Float>) windowScores).setMappable(true);
 	}
 
 
@@ -138,6 +188,12 @@ public final class DenseSCWListView extends AbstractListView<ScoredChromosomeWin
 	}
 
 
+	@Override
+	public ListView<ScoredChromosomeWindow> subList(int fromIndex, int toIndex) {
+		return new SCWSubListView(this, fromIndex, toIndex);
+	}
+
+
 	/**
 	 * Method used for serialization
 	 * @param out
@@ -22,8 +22,6 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.dense;
 
-import java.util.List;
-
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
@@ -41,18 +39,18 @@ import edu.yu.einstein.genplay.exception.exceptions.ObjectAlreadyBuiltException;
 public final class DenseSCWListViewBuilder implements ListViewBuilder<ScoredChromosomeWindow>, SCWListViewBuilder {
 
 	/** List of the stop positions of the SCWs */
-	private List<Integer> windowStops;
+	private PrimitiveList<Integer> windowStops;
 
 	/** List of the score values of the SCWs */
-	private List<Float> windowScores;
+	private PrimitiveList<Float> windowScores;
 
 
 	/**
 	 * Creates an instance of {@link DenseSCWListViewBuilder}
 	 */
 	public DenseSCWListViewBuilder() {
-		windowStops = new PrimitiveList<Integer>(Integer.class);
-		windowScores = new PrimitiveList<Float>(Float.class);
+		windowStops = new PrimitiveList<Integer>(Integer.class, true);
+		windowScores = new PrimitiveList<Float>(Float.class, true);
 	}
 
 
@@ -113,6 +111,83 @@ public final class DenseSCWListViewBuilder implements ListViewBuilder<ScoredChro
 	}
 
 
+	/**
+	 * Adds a slice of elements to the ListView that will be built.
+	 * The gaps between the windows are filled with windows scored 0, the adjacent windows with the
+	 * same score are merged and the resulting windows are appended in bulk to the lists of the builder.
+	 * @param starts start positions of the SCWs to add
+	 * @param stops stop positions of the SCWs to add
+	 * @param scores score values of the SCWs to add
+	 * @param offset index in the arrays of the first SCW to add
+	 * @param length number of SCWs to add
+	 * @throws ObjectAlreadyBuiltException
+	 * @throws ElementAddedNotSortedException If elements are not added in sorted order
+	 * @throws ElementAddedOverlapException If elements added overlaps
+	 */
+	@Override
+	public void addElementsToBuild(int[] starts, int[] stops, float[] scores, int offset, int length)
+			throws ObjectAlreadyBuiltException, ElementAddedNotSortedException, ElementAddedOverlapException {
+		if (windowStops == null) {
+			throw new ObjectAlreadyBuiltException();
+		}
+		// each element can generate a gap window in addition to its own window
+		int[] newStops = new int[length * 2];
+		float[] newScores = new float[length * 2];
+		int newCount = 0;
+		int lastElementIndex = windowStops.size() - 1;
+		boolean hasLast = lastElementIndex >= 0;
+		int lastStart = lastElementIndex > 0 ? windowStops.getInt(lastElementIndex - 1) : 1;
+		int lastStop = hasLast ? windowStops.getInt(lastElementIndex) : 0;
+		float lastScore = hasLast ? windowScores.getFloat(lastElementIndex) : 0;
+		try {
+			for (int i = offset; i < (offset + length); i++) {
+				int start = starts[i];
+				int stop = stops[i];
+				float score = scores[i];
+				if (hasLast) {
+					if (start < lastStart) {
+						// case where the elements added are not sorted
+						throw new ElementAddedNotSortedException();
+					} else if (start < lastStop) {
+						// case where the elements added overlap
+						throw new ElementAddedOverlapException();
+					}
+					if (lastStop != start) {
+						newStops[newCount] = start;
+						newScores[newCount] = 0f;
+						newCount++;
+					} else if (lastScore == score) {
+						// if the current window and the previous one have the same same score
+						// and are adjacent we merge them
+						if (newCount == 0) {
+							windowStops.set(lastElementIndex, stop);
+						} else {
+							newStops[newCount - 1] = stop;
+						}
+						lastStop = stop;
+						continue;
+					}
+				} else if (start != 1) {
+					newStops[newCount] = start;
+					newScores[newCount] = 0f;
+					newCount++;
+				}
+				newStops[newCount] = stop;
+				newScores[newCount] = score;
+				newCount++;
+				hasLast = true;
+				lastStart = start;
+				lastStop = stop;
+				lastScore = score;
+			}
+		} finally {
+			// the elements preceding an invalid element are added like with addElementToBuild
+			windowStops.addInts(newStops, 0, newCount);
+			windowScores.addFloats(newScores, 0, newCount);
+		}
+	}
+
+
 	@Override
 	public DenseSCWListViewBuilder clone() {
 		DenseSCWListViewBuilder clone = new DenseSCWListViewBuilder();
@@ -134,11 +209,7 @@ public final class DenseSCWListViewBuilder implements ListViewBuilder<ScoredChro
 	 * Trims the lists to their sizes in order to improve the memory usage of the list view
 	 */
 	private void trimListsToSize() {
-		if (windowStops instanceof PrimitiveList<?>) {
-			((PrimitiveList<?>) windowStops).trimToSize();
-		}
-		if (windowScores instanceof PrimitiveList<?>) {
-			((PrimitiveList<?>) windowScores).trimToSize();
-		}
+		windowStops.trimToSize();
+		windowScores.trimToSize();
 	}
 }
@@ -27,8 +27,11 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.List;
 
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWSubListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.AbstractListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.AbstractScoredChromosomeWindow;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 
@@ -40,7 +43,7 @@ import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromo
  * {@link GenericSCWListView} objects are immutable.
  * @author Julien Lajugie
  */
-public final class GenericSCWListView extends AbstractListView<ScoredChromosomeWindow> implements ListView<ScoredChromosomeWindow> {
+public final class GenericSCWListView extends AbstractListView<ScoredChromosomeWindow> implements SCWListView {
 
 	/**
 	 * Implementation of the {@link ScoredChromosomeWindow} interface for windows retrieved from a {@link ListView}
@@ -66,18 +69,18 @@ public final class GenericSCWListView extends AbstractListView<ScoredChromosomeW
 
 		@Override
 		public float getScore() {
-			return windowScores.get(windowIndex);
+			return GenericSCWListView.this.getScore(windowIndex);
 		}
 
 
 		@Override
 		public int getStart() {
-			return windowStarts.get(windowIndex);
+			return GenericSCWListView.this.getStart(windowIndex);
 		}
 
 		@Override
 		public int getStop() {
-			return windowStops.get(windowIndex);
+			return GenericSCWListView.this.getStop(windowIndex);
 		}
 	}
 
@@ -118,6 +121,42 @@ public final class GenericSCWListView extends AbstractListView<ScoredChromosomeW
 	}
 
 
+	@Override
+	public float getScore(int elementIndex) {
+		return ((PrimitiveList<Float>) windowScores).getFloat(elementIndex);
+	}
+
+
+	@Override
+	public void getScores(int fromIndex, int toIndex, float[] destination, int destinationIndex) {
+		((PrimitiveList<Float>) windowScores).getFloats(fromIndex, toIndex, destination, destinationIndex);
+	}
+
+
+	@Override
+	public int getStart(int elementIndex) {
+		return ((PrimitiveList<Integer>) windowStarts).getInt(elementIndex);
+	}
+
+
+	@Override
+	public void getStarts(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		((PrimitiveList<Integer>) windowStarts).getInts(fromIndex, toIndex, destination, destinationIndex);
+	}
+
+
+	@Override
+	public int getStop(int elementIndex) {
+		return ((PrimitiveList<Integer>) windowStops).getInt(elementIndex);
+	}
+
+
+	@Override
+	public void getStops(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		((PrimitiveList<Integer>) windowStops).getInts(fromIndex, toIndex, destination, destinationIndex);
+	}
+
+
 	/**
 	 * Method used for deserialization
 	 * @param in
@@ -138,6 +177,12 @@ public final class GenericSCWListView extends AbstractListView<ScoredChromosomeW
 	}
 
 
+	@Override
+	public ListView<ScoredChromosomeWindow> subList(int fromIndex, int toIndex) {
+		return new SCWSubListView(this, fromIndex, toIndex);
+	}
+
+
 	/**
 	 * Method used for serialization
 	 * @param out
@@ -22,8 +22,6 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic;
 
-import java.util.List;
-
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListViewBuilder;
@@ -41,13 +39,13 @@ import edu.yu.einstein.genplay.exception.exceptions.ObjectAlreadyBuiltException;
 public final class GenericSCWListViewBuilder implements ListViewBuilder<ScoredChromosomeWindow>, SCWListViewBuilder {
 
 	/** List of the start positions of the SCWs */
-	private List<Integer> windowStarts;
+	private PrimitiveList<Integer> windowStarts;
 
 	/** List of the stop positions of the SCWs */
-	private List<Integer> windowStops;
+	private PrimitiveList<Integer> windowStops;
 
 	/** List of the score values of the SCWs */
-	private List<Float> windowScores;
+	private PrimitiveList<Float> windowScores;
 
 
 	/**
@@ -110,6 +108,77 @@ public final class GenericSCWListViewBuilder implements ListViewBuilder<ScoredCh
 	}
 
 
+	/**
+	 * Adds a slice of elements to the ListView that will be built.
+	 * The adjacent windows with the same score are merged and the remaining windows are
+	 * appended in bulk to the lists of the builder.
+	 * @param starts start positions of the SCWs to add
+	 * @param stops stop positions of the SCWs to add
+	 * @param scores score values of the SCWs to add
+	 * @param offset index in the arrays of the first SCW to add
+	 * @param length number of SCWs to add
+	 * @throws ObjectAlreadyBuiltException
+	 * @throws ElementAddedNotSortedException If elements are not added in sorted order
+	 * @throws ElementAddedOverlapException If elements added overlaps
+	 */
+	@Override
+	public void addElementsToBuild(int[] starts, int[] stops, float[] scores, int offset, int length)
+			throws ObjectAlreadyBuiltException, ElementAddedNotSortedException, ElementAddedOverlapException {
+		if (windowStarts == null) {
+			throw new ObjectAlreadyBuiltException();
+		}
+		int[] newStarts = new int[length];
+		int[] newStops = new int[length];
+		float[] newScores = new float[length];
+		int newCount = 0;
+		int lastElementIndex = windowStarts.size() - 1;
+		boolean hasLast = lastElementIndex >= 0;
+		int lastStart = hasLast ? windowStarts.getInt(lastElementIndex) : 0;
+		int lastStop = hasLast ? windowStops.getInt(lastElementIndex) : 0;
+		float lastScore = hasLast ? windowScores.getFloat(lastElementIndex) : 0;
+		try {
+			for (int i = offset; i < (offset + length); i++) {
+				int start = starts[i];
+				int stop = stops[i];
+				float score = scores[i];
+				if (hasLast) {
+					if (start < lastStart) {
+						// case where the elements added are not sorted
+						throw new ElementAddedNotSortedException();
+					} else if (start < lastStop) {
+						// case where the elements added overlap
+						throw new ElementAddedOverlapException();
+					}
+					// if the previous window stop is equal to the current window start
+					// and the 2 windows have the same same score we merge them
+					if ((start == lastStop) && (score == lastScore)) {
+						if (newCount == 0) {
+							windowStops.set(lastElementIndex, stop);
+						} else {
+							newStops[newCount - 1] = stop;
+						}
+						lastStop = stop;
+						continue;
+					}
+				}
+				newStarts[newCount] = start;
+				newStops[newCount] = stop;
+				newScores[newCount] = score;
+				newCount++;
+				hasLast = true;
+				lastStart = start;
+				lastStop = stop;
+				lastScore = score;
+			}
+		} finally {
+			// the elements preceding an invalid element are added like with addElementToBuild
+			windowStarts.addInts(newStarts, 0, newCount);
+			windowStops.addInts(newStops, 0, newCount);
+			windowScores.addFloats(newScores, 0, newCount);
+		}
+	}
+
+
 	/**
 	 * Adds a {@link ScoredChromosomeWindow} to the list to be build without checking if the elements are
 	 * added in start position order
@@ -152,14 +221,8 @@ public final class GenericSCWListViewBuilder implements ListViewBuilder<ScoredCh
 	 * Trims the lists to their sizes in order to improve the memory usage of the list view
 	 */
 	private void trimListsToSize() {
-		if (windowStarts instanceof PrimitiveList<?>) {
-			((PrimitiveList<?>) windowStarts).trimToSize();
-		}
-		if (windowStops instanceof PrimitiveList<?>) {
-			((PrimitiveList<?>) windowStops).trimToSize();
-		}
-		if (windowScores instanceof PrimitiveList<?>) {
-			((PrimitiveList<?>) windowScores).trimToSize();
-		}
+		windowStarts.trimToSize();
+		windowStops.trimToSize();
+		windowScores.trimToSize();
 	}
 }
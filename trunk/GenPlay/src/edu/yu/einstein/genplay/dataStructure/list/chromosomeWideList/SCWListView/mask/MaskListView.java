@@ -25,10 +25,14 @@ package edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListVie
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.List;
 
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWSubListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.AbstractListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.AbstractScoredChromosomeWindow;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 
@@ -38,7 +42,7 @@ import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromo
  * {@link MaskListView} objects are immutable.
  * @author Julien Lajugie
  */
-public final class MaskListView extends AbstractListView<ScoredChromosomeWindow> implements ListView<ScoredChromosomeWindow> {
+public final class MaskListView extends AbstractListView<ScoredChromosomeWindow> implements SCWListView {
 
 	/**
 	 * Implementation of the {@link ScoredChromosomeWindow} interface for windows retrieved from a {@link ListView}
@@ -70,12 +74,12 @@ public final class MaskListView extends AbstractListView<ScoredChromosomeWindow>
 
 		@Override
 		public int getStart() {
-			return maskStarts.get(windowIndex);
+			return MaskListView.this.getStart(windowIndex);
 		}
 
 		@Override
 		public int getStop() {
-			return maskStops.get(windowIndex);
+			return MaskListView.this.getStop(windowIndex);
 		}
 	}
 
@@ -112,6 +116,42 @@ public final class MaskListView extends AbstractListView<ScoredChromosomeWindow>
 	}
 
 
+	@Override
+	public float getScore(int elementIndex) {
+		return 1f;
+	}
+
+
+	@Override
+	public void getScores(int fromIndex, int toIndex, float[] destination, int destinationIndex) {
+		Arrays.fill(destination, destinationIndex, (destinationIndex + toIndex) - fromIndex, 1f);
+	}
+
+
+	@Override
+	public int getStart(int elementIndex) {
+		return ((PrimitiveList<Integer>) maskStarts).getInt(elementIndex);
+	}
+
+
+	@Override
+	public void getStarts(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		((PrimitiveList<Integer>) maskStarts).getInts(fromIndex, toIndex, destination, destinationIndex);
+	}
+
+
+	@Override
+	public int getStop(int elementIndex) {
+		return ((PrimitiveList<Integer>) maskStops).getInt(elementIndex);
+	}
+
+
+	@Override
+	public void getStops(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		((PrimitiveList<Integer>) maskStops).getInts(fromIndex, toIndex, destination, destinationIndex);
+	}
+
+
 	/**
 	 * Method used for deserialization
 	 * @param in
@@ -132,6 +172,12 @@ public final class MaskListView extends AbstractListView<ScoredChromosomeWindow>
 	}
 
 
+	@Override
+	public ListView<ScoredChromosomeWindow> subList(int fromIndex, int toIndex) {
+		return new SCWSubListView(this, fromIndex, toIndex);
+	}
+
+
 	/**
 	 * Method used for serialization
 	 * @param out
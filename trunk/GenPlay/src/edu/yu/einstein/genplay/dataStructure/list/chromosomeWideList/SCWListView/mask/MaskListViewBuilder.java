@@ -109,6 +109,18 @@ public final class MaskListViewBuilder implements ListViewBuilder<ScoredChromoso
 	}
 
 
+	/**
+	 * {@inheritDoc}
+	 * The scores are not used.
+	 */
+	@Override
+	public void addElementsToBuild(int[] starts, int[] stops, float[] scores, int offset, int length) throws ObjectAlreadyBuiltException {
+		for (int i = offset; i < (offset + length); i++) {
+			addElementToBuild(starts[i], stops[i]);
+		}
+	}
+
+
 	/**
 	 * Creates a clone of this {@link MaskListViewBuilder} prototype
 	 * containing no elements.
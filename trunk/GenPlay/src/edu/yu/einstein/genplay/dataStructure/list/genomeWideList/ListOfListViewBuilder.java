@@ -24,6 +24,7 @@ package edu.yu.einstein.genplay.dataStructure.list.genomeWideList;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
@@ -36,6 +37,11 @@ import edu.yu.einstein.genplay.exception.exceptions.ObjectAlreadyBuiltException;
 /**
  * Creates a list of {@link ListView} objects.
  * The list has one {@link ListView} per chromosome of the project genome.
+ * <br/>Each chromosome has its own {@link ListViewBuilder} so different threads can fill
+ * different chromosomes concurrently without locking as long as a chromosome is filled by
+ * one thread at a time.  A thread can seal the {@link ListView} of a chromosome as soon as it
+ * is done with it using {@link #buildListView(Chromosome)} so the view is built on the worker
+ * thread rather than sequentially in {@link #getGenomicList()}.
  * @param <T> type of the data stored in the {@link ListView} objects (eg: genes, SCW)
  * @author Julien Lajugie
  */
@@ -44,6 +50,9 @@ public class ListOfListViewBuilder<T> {
 	/** List of the builders that will create the {@link ListView} objects */
 	private List<ListViewBuilder<T>> builders;
 
+	/** {@link ListView} objects already sealed by {@link #buildListView(Chromosome)} */
+	private final AtomicReferenceArray<ListView<T>> listViews;
+
 	/** We store the {@link ProjectChromosomes} to avoid wasting time retrieving it */
 	private final ProjectChromosomes projectChromosomes;
 
@@ -57,6 +66,7 @@ public class ListOfListViewBuilder<T> {
 		projectChromosomes =  ProjectManager.getInstance().getProjectChromosomes();
 		int chromosomeCount = projectChromosomes.size();
 		builders = new ArrayList<ListViewBuilder<T>>(chromosomeCount);
+		listViews = new AtomicReferenceArray<ListView<T>>(chromosomeCount);
 		if (chromosomeCount > 0) {
 			builders.add(0, listViewBuilderPrototype);
 			for (int i = 1; i < chromosomeCount; i++) {
@@ -82,6 +92,26 @@ public class ListOfListViewBuilder<T> {
 	}
 
 
+	/**
+	 * Builds the {@link ListView} of the specified chromosome.
+	 * No element can be added to this chromosome once its {@link ListView} is built.
+	 * This method can be called concurrently for different chromosomes.
+	 * @param chromosome a {@link Chromosome}
+	 * @throws InvalidChromosomeException
+	 * @throws ObjectAlreadyBuiltException if the {@link ListView} of the chromosome has already been built
+	 */
+	public void buildListView(Chromosome chromosome) throws InvalidChromosomeException, ObjectAlreadyBuiltException {
+		if (builders == null) {
+			throw new ObjectAlreadyBuiltException();
+		}
+		int chromosomeIndex = projectChromosomes.getIndex(chromosome);
+		if (listViews.get(chromosomeIndex) != null) {
+			throw new ObjectAlreadyBuiltException();
+		}
+		listViews.set(chromosomeIndex, builders.get(chromosomeIndex).getListView());
+	}
+
+
 	/**
 	 * @param chromosome a {@link Chromosome}
 	 * @return the builders for the {@link ListView} of the specified {@link Chromosome}
@@ -99,9 +129,17 @@ public class ListOfListViewBuilder<T> {
 	 * @return the list of {@link ListView} elements
 	 */
 	public List<ListView<T>> getGenomicList() {
-		List<ListView<T>> genomicList = new ArrayList<ListView<T>>();
-		for (ListViewBuilder<T> currentBuilder: builders) {
-			genomicList.add(currentBuilder.getListView());
+		if (builders == null) {
+			throw new ObjectAlreadyBuiltException();
+		}
+		List<ListView<T>> genomicList = new ArrayList<ListView<T>>(builders.size());
+		for (int i = 0; i < builders.size(); i++) {
+			ListView<T> listView = listViews.get(i);
+			if (listView == null) {
+				// the list view was not sealed by a worker thread
+				listView = builders.get(i).getListView();
+			}
+			genomicList.add(listView);
 		}
 		builders = null;
 		return genomicList;
@@ -26,6 +26,7 @@ import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.GenomicListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListStats.SCWListStats;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListZoomPyramid.SCWListZoomPyramid;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 
 
@@ -61,4 +62,10 @@ public interface SCWList extends GenomicListView<ScoredChromosomeWindow> {
 	 * @return the statistics of the {@link SCWList}
 	 */
 	public SCWListStats getStatistics();
+
+
+	/**
+	 * @return the {@link SCWListZoomPyramid} summarizing the {@link SCWList} at different resolutions
+	 */
+	public SCWListZoomPyramid getZoomPyramid();
 }
@@ -48,6 +48,10 @@ import edu.yu.einstein.genplay.exception.exceptions.ObjectAlreadyBuiltException;
  */
 public class SCWListBuilder {
 
+	/** Number of windows per slice passed to {@link #addElementsToBuild(Chromosome, int[], int[], float[], int, int)} by the operations */
+	public static final int SLICE_SIZE = 4096;
+
+
 	/**
 	 * @param list an object instance of {@link SCWList}.
 	 * @return A {@link ListViewBuilder} that creates ListView objects the same kind of the ones from the specified list
@@ -123,6 +127,37 @@ public class SCWListBuilder {
 	}
 
 
+	/**
+	 * Adds a slice of elements of the same chromosome to the {@link SCWList} to be built.
+	 * The elements are appended in bulk which is much faster than adding them one by one.
+	 * @param chromosome chromosome of the elements to add
+	 * @param starts start positions of the windows to add
+	 * @param stops stop positions of the windows to add
+	 * @param scores scores of the windows to add
+	 * @param offset index in the arrays of the first window to add
+	 * @param length number of windows to add
+	 * @throws InvalidChromosomeException if the chromosome is not valid
+	 * @throws ObjectAlreadyBuiltException if the SCWList has already been created
+	 */
+	public void addElementsToBuild(Chromosome chromosome, int[] starts, int[] stops, float[] scores, int offset, int length) throws InvalidChromosomeException, ObjectAlreadyBuiltException {
+		SCWListViewBuilder scwLVB = (SCWListViewBuilder) builders.getBuilder(chromosome);
+		scwLVB.addElementsToBuild(starts, stops, scores, offset, length);
+	}
+
+
+	/**
+	 * Builds the {@link ListView} of the specified chromosome.
+	 * Operations filling the builder with one thread per chromosome should call this method once
+	 * a chromosome is done so the {@link ListView} is built on the worker thread.
+	 * @param chromosome a {@link Chromosome}
+	 * @throws InvalidChromosomeException if the chromosome is not valid
+	 * @throws ObjectAlreadyBuiltException if the {@link ListView} of the chromosome has already been built
+	 */
+	public void buildListView(Chromosome chromosome) throws InvalidChromosomeException, ObjectAlreadyBuiltException {
+		builders.buildListView(chromosome);
+	}
+
+
 	/**
 	 * Creates an instance of {@link SCWList} that can either be an instance of {@link BinList} or of {@link SimpleSCWList} depending
 	 * on the specified {@link ListView} objects
@@ -22,18 +22,30 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList;
 
+import java.io.File;
 import java.io.IOException;
 import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import edu.yu.einstein.genplay.core.IO.dataReader.CoverageReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.dataReader.StrandReader;
+import edu.yu.einstein.genplay.core.IO.extractor.ParallelSCWExtractor;
+import edu.yu.einstein.genplay.core.IO.extractor.TextFileExtractor;
+import edu.yu.einstein.genplay.core.IO.utils.Extractors;
+import edu.yu.einstein.genplay.core.manager.application.ConfigurationManager;
+import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operation.SCWList.SCWLOTwoLayers;
 import edu.yu.einstein.genplay.core.operation.binList.BLOTwoLayers;
+import edu.yu.einstein.genplay.core.pileupFlattener.BinCoverageAccumulator;
 import edu.yu.einstein.genplay.core.pileupFlattener.BinListPileupFlattener;
 import edu.yu.einstein.genplay.core.pileupFlattener.GenomeWideFlattener;
+import edu.yu.einstein.genplay.core.pileupFlattener.ParallelGenomeWideFlattener;
 import edu.yu.einstein.genplay.core.pileupFlattener.PileupFlattener;
-import edu.yu.einstein.genplay.core.pileupFlattener.SimpleSCWPileupFlattener;
+import edu.yu.einstein.genplay.core.pileupFlattener.SortingPileupFlattener;
+import edu.yu.einstein.genplay.core.pileupFlattener.SweepLinePileupFlattener;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
 import edu.yu.einstein.genplay.dataStructure.enums.Strand;
@@ -43,13 +55,26 @@ import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.mask.MaskListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SimpleSCWList.SimpleSCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.exception.exceptions.BinListDifferentWindowSizeException;
 import edu.yu.einstein.genplay.exception.exceptions.ElementAddedNotSortedException;
 import edu.yu.einstein.genplay.exception.exceptions.InvalidChromosomeException;
 import edu.yu.einstein.genplay.exception.exceptions.ObjectAlreadyBuiltException;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressEventsGenerator;
+import edu.yu.einstein.genplay.gui.event.operationProgressEvent.OperationProgressListener;
+import edu.yu.einstein.genplay.util.Utils;
 
 /**
  * Factory class for vending {@link SimpleSCWList} objects.
+ * When the parallel loading is enabled in the {@link ConfigurationManager}, the windows
+ * are flattened by a {@link ParallelGenomeWideFlattener} so the parsing of the data and the
+ * flattening of the different chromosomes overlap.  The text files that can be split are also
+ * parsed in parallel by a {@link ParallelSCWExtractor}.<br>
+ * The {@link BinList} objects are computed without flattener when the reader is a {@link CoverageReader}:
+ * the windows are accumulated directly into the bins by {@link BinCoverageAccumulator} objects.<br>
+ * When the unsorted loading is enabled in the {@link ConfigurationManager}, the flatteners are wrapped
+ * in {@link SortingPileupFlattener} objects so unsorted files are loaded in one pass.
  * @author Julien Lajugie
  */
 public class SCWListFactory {
@@ -73,13 +98,32 @@ public class SCWListFactory {
 	public static BinList createBinList(SCWReader scwReader, int binSize, ScoreOperation scoreOperation)
 			throws CloneNotSupportedException, ElementAddedNotSortedException, InvalidChromosomeException,
 			ObjectAlreadyBuiltException, IOException, InterruptedException, ExecutionException {
+		if ((scwReader instanceof CoverageReader) && BinCoverageAccumulator.isSupported(scoreOperation)) {
+			List<BinCoverageAccumulator> accumulators = createCoverageAccumulators(binSize, scoreOperation);
+			try {
+				((CoverageReader) scwReader).readCoverage(accumulators, accumulators);
+			} finally {
+				Extractors.close(scwReader);
+			}
+			return new BinList(getCoverageListViews(accumulators));
+		}
 		// create object that will "flattened" pileups of overlapping windows
 		BinListPileupFlattener flattenerPrototype = new BinListPileupFlattener(binSize, scoreOperation);
-		GenomeWideFlattener genomeWideFlattener = new GenomeWideFlattener(flattenerPrototype);
-		while (scwReader.readItem()) {
-			genomeWideFlattener.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+		return new BinList(flattenData(scwReader, flattenerPrototype));
+	}
+
+
+	/**
+	 * @param binSize size of the bins
+	 * @param scoreOperation {@link ScoreOperation} to compute the score of the bins
+	 * @return a list containing one {@link BinCoverageAccumulator} per chromosome of the project
+	 */
+	private static List<BinCoverageAccumulator> createCoverageAccumulators(int binSize, ScoreOperation scoreOperation) {
+		List<BinCoverageAccumulator> accumulators = new ArrayList<BinCoverageAccumulator>();
+		for (Chromosome chromosome: ProjectManager.getInstance().getProjectChromosomes()) {
+			accumulators.add(new BinCoverageAccumulator(binSize, scoreOperation, chromosome.getLength()));
 		}
-		return new BinList(genomeWideFlattener.getListOfListViews());
+		return accumulators;
 	}
 
 
@@ -138,9 +182,13 @@ public class SCWListFactory {
 	public static SCWList createMaskSCWList(SCWReader scwReader) throws InterruptedException, ExecutionException, CloneNotSupportedException, InvalidChromosomeException, ObjectAlreadyBuiltException, IOException {
 		SCWListViewBuilder lvBuilderPrototype = new MaskListViewBuilder();
 		SCWListBuilder builder = new SCWListBuilder(lvBuilderPrototype);
-		while (scwReader.readItem()) {
-			Chromosome currentChromosome = scwReader.getChromosome();
-			builder.addElementToBuild(currentChromosome, scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+		try {
+			while (scwReader.readItem()) {
+				Chromosome currentChromosome = scwReader.getChromosome();
+				builder.addElementToBuild(currentChromosome, scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+			}
+		} finally {
+			Extractors.close(scwReader);
 		}
 		return builder.getSCWList();
 	}
@@ -163,12 +211,8 @@ public class SCWListFactory {
 	 */
 	private static SCWList createSimpleSCWList(SCWReader scwReader, SCWListViewBuilder lvBuilderPrototype, ScoreOperation scoreOperation) throws InterruptedException, ExecutionException, CloneNotSupportedException, InvalidChromosomeException, ObjectAlreadyBuiltException, IOException {
 		// create object that will "flattened" pileups of overlapping windows
-		PileupFlattener flattenerPrototype = new SimpleSCWPileupFlattener(scoreOperation, lvBuilderPrototype);
-		GenomeWideFlattener gwFlattener = new GenomeWideFlattener(flattenerPrototype);
-		while (scwReader.readItem()) {
-			gwFlattener.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
-		}
-		return new SimpleSCWList(gwFlattener.getListOfListViews());
+		PileupFlattener flattenerPrototype = new SweepLinePileupFlattener(scoreOperation, lvBuilderPrototype);
+		return new SimpleSCWList(flattenData(scwReader, flattenerPrototype));
 	}
 
 
@@ -191,20 +235,24 @@ public class SCWListFactory {
 	 * @throws BinListDifferentWindowSizeException
 	 */
 	public static BinList createStrandSafeBinList(SCWReader scwReader, int binSize, ScoreOperation scoreOperation) throws InvalidParameterException, InterruptedException, ExecutionException, CloneNotSupportedException, ObjectAlreadyBuiltException, IOException, BinListDifferentWindowSizeException {
+		if ((scwReader instanceof CoverageReader) && BinCoverageAccumulator.isSupported(scoreOperation)) {
+			List<BinCoverageAccumulator> accumulators5 = createCoverageAccumulators(binSize, scoreOperation);
+			List<BinCoverageAccumulator> accumulators3 = createCoverageAccumulators(binSize, scoreOperation);
+			try {
+				((CoverageReader) scwReader).readCoverage(accumulators5, accumulators3);
+			} finally {
+				Extractors.close(scwReader);
+			}
+			BinList binList5 = new BinList(getCoverageListViews(accumulators5));
+			BinList binList3 = new BinList(getCoverageListViews(accumulators3));
+			return (BinList) new BLOTwoLayers(binList5, binList3, ScoreOperation.ADDITION).compute();
+		}
 		// create object that will "flattened" pileups of overlapping windows
 		BinListPileupFlattener flattenerPrototype5 = new BinListPileupFlattener(binSize, scoreOperation);
 		BinListPileupFlattener flattenerPrototype3 = new BinListPileupFlattener(binSize, scoreOperation);
-		GenomeWideFlattener genomeWideFlattener5 = new GenomeWideFlattener(flattenerPrototype5);
-		GenomeWideFlattener genomeWideFlattener3 = new GenomeWideFlattener(flattenerPrototype3);
-		while (scwReader.readItem()) {
-			if ((scwReader instanceof StrandReader) && (((StrandReader) scwReader).getStrand() == Strand.THREE)){
-				genomeWideFlattener3.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
-			} else {
-				genomeWideFlattener5.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
-			}
-		}
-		BinList binList5 = new BinList(genomeWideFlattener5.getListOfListViews());
-		BinList binList3 = new BinList(genomeWideFlattener3.getListOfListViews());
+		List<List<ListView<ScoredChromosomeWindow>>> strandedData = flattenStrandedData(scwReader, flattenerPrototype5, flattenerPrototype3);
+		BinList binList5 = new BinList(strandedData.get(0));
+		BinList binList3 = new BinList(strandedData.get(1));
 		return (BinList) new BLOTwoLayers(binList5, binList3, ScoreOperation.ADDITION).compute();
 	}
 
@@ -276,19 +324,180 @@ public class SCWListFactory {
 	private static SCWList createStrandSafeSimpleSCWList(SCWReader scwReader, SCWListViewBuilder lvBuilderPrototype5, ScoreOperation scoreOperation) throws CloneNotSupportedException, InvalidParameterException, InterruptedException, ExecutionException, ObjectAlreadyBuiltException, IOException {
 		SCWListViewBuilder lvBuilderPrototype3 = lvBuilderPrototype5.clone();
 		// create object that will "flattened" pileups of overlapping windows
-		PileupFlattener flattenerPrototype5 = new SimpleSCWPileupFlattener(scoreOperation, lvBuilderPrototype5);
-		PileupFlattener flattenerPrototype3 = new SimpleSCWPileupFlattener(scoreOperation, lvBuilderPrototype3);
-		GenomeWideFlattener gwFlattener5 = new GenomeWideFlattener(flattenerPrototype5);
-		GenomeWideFlattener gwFlattener3 = new GenomeWideFlattener(flattenerPrototype3);
-		while (scwReader.readItem()) {
-			if ((scwReader instanceof StrandReader) && (((StrandReader) scwReader).getStrand() == Strand.THREE)){
-				gwFlattener3.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
-			} else {
-				gwFlattener5.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+		PileupFlattener flattenerPrototype5 = new SweepLinePileupFlattener(scoreOperation, lvBuilderPrototype5);
+		PileupFlattener flattenerPrototype3 = new SweepLinePileupFlattener(scoreOperation, lvBuilderPrototype3);
+		List<List<ListView<ScoredChromosomeWindow>>> strandedData = flattenStrandedData(scwReader, flattenerPrototype5, flattenerPrototype3);
+		SCWList scwList5 = new SimpleSCWList(strandedData.get(0));
+		SCWList scwList3 = new SimpleSCWList(strandedData.get(1));
+		return new SCWLOTwoLayers(scwList5, scwList3, ScoreOperation.ADDITION).compute();
+	}
+
+	/**
+	 * @param scwReader a {@link SCWReader}
+	 * @return a {@link ParallelSCWExtractor} wrapping the specified reader if the reader supports it,
+	 * the specified reader otherwise
+	 * @throws IOException
+	 */
+	private static SCWReader createParallelReader(SCWReader scwReader) throws IOException {
+		if (ParallelSCWExtractor.isSupported(scwReader)) {
+			return new ParallelSCWExtractor((TextFileExtractor) scwReader);
+		}
+		return scwReader;
+	}
+
+
+	/**
+	 * @param flattenerPrototype prototype of the flatteners of the chromosomes
+	 * @param prototypeCount number of prototypes sharing the sort memory
+	 * @return a {@link SortingPileupFlattener} wrapping the specified prototype if the unsorted loading
+	 * is enabled, the specified prototype otherwise
+	 */
+	private static PileupFlattener createSortingPrototype(PileupFlattener flattenerPrototype, int prototypeCount) {
+		ConfigurationManager configurationManager = ConfigurationManager.getInstance();
+		if (!configurationManager.isUnsortedLoading()) {
+			return flattenerPrototype;
+		}
+		long memoryBudget = (configurationManager.getSortMemory() * 1024l * 1024l) / prototypeCount;
+		return new SortingPileupFlattener(flattenerPrototype, memoryBudget, new File(Utils.getTmpDirectoryPath()));
+	}
+
+
+	/**
+	 * Flattens the windows retrieved by the specified {@link SCWReader}
+	 * @param scwReader a {@link SCWReader}
+	 * @param flattenerPrototype prototype of the flatteners of the chromosomes
+	 * @return a list of {@link ListView} with one {@link ListView} per chromosome
+	 * @throws CloneNotSupportedException
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private static List<ListView<ScoredChromosomeWindow>> flattenData(SCWReader scwReader, PileupFlattener flattenerPrototype)
+			throws CloneNotSupportedException, IOException, InterruptedException, ExecutionException {
+		flattenerPrototype = createSortingPrototype(flattenerPrototype, 1);
+		if (ConfigurationManager.getInstance().isParallelLoading()) {
+			ParallelGenomeWideFlattener gwFlattener = new ParallelGenomeWideFlattener(flattenerPrototype);
+			try {
+				registerProgressListeners(scwReader, gwFlattener);
+				scwReader = createParallelReader(scwReader);
+				while (scwReader.readItem()) {
+					gwFlattener.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+				}
+				return gwFlattener.getListOfListViews();
+			} finally {
+				// releases the worker threads and the files if the flattening failed
+				gwFlattener.abort();
+				Extractors.close(scwReader);
+			}
+		} else {
+			GenomeWideFlattener gwFlattener = new GenomeWideFlattener(flattenerPrototype);
+			try {
+				while (scwReader.readItem()) {
+					gwFlattener.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+				}
+				return gwFlattener.getListOfListViews();
+			} finally {
+				// deletes the temporary files if the flattening failed
+				gwFlattener.abort();
+				Extractors.close(scwReader);
+			}
+		}
+	}
+
+
+	/**
+	 * Flattens separately the windows of each strand retrieved by the specified {@link SCWReader}
+	 * @param scwReader a {@link SCWReader}
+	 * @param flattenerPrototype5 prototype of the flatteners of the chromosomes for the 5' strand
+	 * @param flattenerPrototype3 prototype of the flatteners of the chromosomes for the 3' strand
+	 * @return a list containing the list of {@link ListView} of the 5' strand at index 0
+	 * and the list of {@link ListView} of the 3' strand at index 1
+	 * @throws CloneNotSupportedException
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private static List<List<ListView<ScoredChromosomeWindow>>> flattenStrandedData(SCWReader scwReader, PileupFlattener flattenerPrototype5, PileupFlattener flattenerPrototype3)
+			throws CloneNotSupportedException, IOException, InterruptedException, ExecutionException {
+		List<List<ListView<ScoredChromosomeWindow>>> strandedData = new ArrayList<List<ListView<ScoredChromosomeWindow>>>(2);
+		// the sort memory is shared between the two strands
+		flattenerPrototype5 = createSortingPrototype(flattenerPrototype5, 2);
+		flattenerPrototype3 = createSortingPrototype(flattenerPrototype3, 2);
+		if (ConfigurationManager.getInstance().isParallelLoading()) {
+			// the worker threads are shared between the two strands
+			int threadCount = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+			ParallelGenomeWideFlattener gwFlattener5 = new ParallelGenomeWideFlattener(flattenerPrototype5, threadCount);
+			ParallelGenomeWideFlattener gwFlattener3 = null;
+			try {
+				gwFlattener3 = new ParallelGenomeWideFlattener(flattenerPrototype3, threadCount);
+				registerProgressListeners(scwReader, gwFlattener5);
+				registerProgressListeners(scwReader, gwFlattener3);
+				scwReader = createParallelReader(scwReader);
+				while (scwReader.readItem()) {
+					if ((scwReader instanceof StrandReader) && (((StrandReader) scwReader).getStrand() == Strand.THREE)){
+						gwFlattener3.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+					} else {
+						gwFlattener5.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+					}
+				}
+				strandedData.add(gwFlattener5.getListOfListViews());
+				strandedData.add(gwFlattener3.getListOfListViews());
+			} finally {
+				// releases the worker threads of both strands and the files if the flattening failed
+				gwFlattener5.abort();
+				if (gwFlattener3 != null) {
+					gwFlattener3.abort();
+				}
+				Extractors.close(scwReader);
+			}
+		} else {
+			GenomeWideFlattener gwFlattener5 = new GenomeWideFlattener(flattenerPrototype5);
+			GenomeWideFlattener gwFlattener3 = new GenomeWideFlattener(flattenerPrototype3);
+			try {
+				while (scwReader.readItem()) {
+					if ((scwReader instanceof StrandReader) && (((StrandReader) scwReader).getStrand() == Strand.THREE)){
+						gwFlattener3.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+					} else {
+						gwFlattener5.addWindow(scwReader.getChromosome(), scwReader.getStart(), scwReader.getStop(), scwReader.getScore());
+					}
+				}
+				strandedData.add(gwFlattener5.getListOfListViews());
+				strandedData.add(gwFlattener3.getListOfListViews());
+			} finally {
+				// deletes the temporary files of both strands if the flattening failed
+				gwFlattener5.abort();
+				gwFlattener3.abort();
+				Extractors.close(scwReader);
+			}
+		}
+		return strandedData;
+	}
+
+
+	/**
+	 * @param accumulators a list of {@link BinCoverageAccumulator}
+	 * @return a list containing the {@link ListView} of each accumulator
+	 */
+	private static List<ListView<ScoredChromosomeWindow>> getCoverageListViews(List<BinCoverageAccumulator> accumulators) {
+		List<ListView<ScoredChromosomeWindow>> listViews = new ArrayList<ListView<ScoredChromosomeWindow>>(accumulators.size());
+		for (BinCoverageAccumulator accumulator: accumulators) {
+			listViews.add(accumulator.getListView());
+		}
+		return listViews;
+	}
+
+
+	/**
+	 * Registers the progress listeners of the specified reader to the specified flattener so
+	 * the progress of the flattening is reported during the extraction
+	 * @param scwReader a {@link SCWReader}
+	 * @param gwFlattener a {@link ParallelGenomeWideFlattener}
+	 */
+	private static void registerProgressListeners(SCWReader scwReader, ParallelGenomeWideFlattener gwFlattener) {
+		if (scwReader instanceof OperationProgressEventsGenerator) {
+			for (OperationProgressListener listener: ((OperationProgressEventsGenerator) scwReader).getOperationProgressListeners()) {
+				gwFlattener.addOperationProgressListener(listener);
 			}
 		}
-		SCWList scwList5 = new SimpleSCWList(gwFlattener5.getListOfListViews());
-		SCWList scwList3 = new SimpleSCWList(gwFlattener3.getListOfListViews());
-		return new SCWLOTwoLayers(scwList5, scwList3, ScoreOperation.ADDITION).compute();
 	}
 }
@@ -29,6 +29,7 @@ import java.io.Serializable;
 import java.util.concurrent.ExecutionException;
 
 import edu.yu.einstein.genplay.core.operation.SCWList.SCWLOComputeStats;
+import edu.yu.einstein.genplay.core.operation.SCWList.SCWLOSelectScores;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.gui.statusBar.Stoppable;
 
@@ -90,6 +91,9 @@ public class SCWListStats implements Serializable, Stoppable {
 	/** Sum of Float scores of all windows for each chromosome */
 	private final double[] scoreSums;
 
+	/** Sketch of the distribution of the scores different from 0, null if the list was saved without sketch */
+	private final ScoreQuantileSketch scoreSketch;
+
 
 	/**
 	 * Creates an instance of {@link SCWListStats}.
@@ -114,6 +118,7 @@ public class SCWListStats implements Serializable, Stoppable {
 		windowLengths = statOperation.getWindowLengths();
 		scoreSum = statOperation.getScoreSum();
 		scoreSums = statOperation.getScoreSums();
+		scoreSketch = statOperation.getScoreSketch();
 		statOperation = null;
 	}
 
@@ -166,6 +171,29 @@ public class SCWListStats implements Serializable, Stoppable {
 	}
 
 
+	/**
+	 * Returns an estimation of the specified quantile of the scores different from 0.
+	 * The estimation is within the relative accuracy of the {@link ScoreQuantileSketch}.
+	 * Use a {@link SCWLOSelectScores} operation to compute exact quantiles.
+	 * @param quantile a quantile between 0 and 1
+	 * @return an estimation of the quantile, NaN if the list was saved without sketch
+	 */
+	public float getScoreQuantile(double quantile) {
+		if (scoreSketch == null) {
+			return Float.NaN;
+		}
+		return scoreSketch.getQuantile(quantile);
+	}
+
+
+	/**
+	 * @return the sketch of the distribution of the scores different from 0, null if the list was saved without sketch
+	 */
+	public ScoreQuantileSketch getScoreSketch() {
+		return scoreSketch;
+	}
+
+
 	/**
 	 * @return the scoreSum
 	 */
@@ -0,0 +1,262 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListStats;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+
+/**
+ * Mergeable sketch of the distribution of the scores of a list of windows.<br>
+ * The scores are counted in buckets with boundaries growing geometrically so the quantiles returned
+ * by the sketch are within a relative error of {@link #RELATIVE_ACCURACY} from the exact quantiles.
+ * The memory used by the sketch only depends on the range of the scores and not on the number of scores.<br>
+ * Sketches of different chromosomes can be merged into a genome wide sketch.
+ * @author Julien Lajugie
+ */
+public class ScoreQuantileSketch implements Serializable {
+
+	/**
+	 * Counts of the scores of the buckets of one sign, stored in an array indexed from an offset
+	 * @author Julien Lajugie
+	 */
+	private static class BucketCounts implements Serializable {
+
+		/** Generated serial ID */
+		private static final long serialVersionUID = 2938541302548217536L;
+
+		/** Counts of the buckets */
+		private long[] counts = null;
+
+		/** Index of the bucket stored at the first position of the count array */
+		private int offset = 0;
+
+
+		/**
+		 * Adds the specified count to the specified bucket
+		 * @param bucketIndex index of a bucket
+		 * @param count count to add
+		 */
+		private void add(int bucketIndex, long count) {
+			if (counts == null) {
+				counts = new long[INITIAL_BUCKET_COUNT];
+				offset = bucketIndex - (INITIAL_BUCKET_COUNT / 2);
+			} else if ((bucketIndex < offset) || (bucketIndex >= (offset + counts.length))) {
+				int newOffset = Math.min(offset, bucketIndex);
+				int newEnd = Math.max(offset + counts.length, bucketIndex + 1);
+				// grow by at least half of the current size to amortize the copies
+				int extraLength = Math.max(newEnd - newOffset - counts.length, counts.length / 2);
+				if (newOffset < offset) {
+					newOffset = offset - extraLength;
+				}
+				long[] newCounts = new long[counts.length + extraLength];
+				System.arraycopy(counts, 0, newCounts, offset - newOffset, counts.length);
+				counts = newCounts;
+				offset = newOffset;
+			}
+			counts[bucketIndex - offset] += count;
+		}
+
+
+		/**
+		 * Adds the counts of the specified buckets to these buckets
+		 * @param other other {@link BucketCounts}
+		 */
+		private void merge(BucketCounts other) {
+			if (other.counts != null) {
+				for (int i = 0; i < other.counts.length; i++) {
+					if (other.counts[i] != 0) {
+						add(other.offset + i, other.counts[i]);
+					}
+				}
+			}
+		}
+	}
+
+	/** Generated serial ID */
+	private static final long serialVersionUID = -5310843468473165712L;
+
+	/** Version number of the class */
+	private static final transient int CLASS_VERSION_NUMBER = 0;
+
+	/** Relative accuracy of the quantiles returned by the sketch */
+	public static final double RELATIVE_ACCURACY = 0.01;
+
+	/** Ratio between the upper and the lower boundaries of a bucket */
+	private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+	/** Logarithm of the ratio between the upper and the lower boundaries of a bucket */
+	private static final double LOG_GAMMA = Math.log(GAMMA);
+
+	/** Index of the bucket of the greatest float absolute value */
+	private static final int MAX_BUCKET_INDEX = (int) Math.ceil(Math.log(Float.MAX_VALUE) / LOG_GAMMA);
+
+	/** Number of buckets allocated when the first score of a sign is added */
+	private static final int INITIAL_BUCKET_COUNT = 64;
+
+	/** Counts of the positive scores */
+	private final BucketCounts positiveCounts;
+
+	/** Counts of the negative scores */
+	private final BucketCounts negativeCounts;
+
+	/** Number of scores equal to zero */
+	private long zeroCount;
+
+	/** Number of scores added to the sketch */
+	private long count;
+
+
+	/**
+	 * Creates an empty instance of {@link ScoreQuantileSketch}
+	 */
+	public ScoreQuantileSketch() {
+		positiveCounts = new BucketCounts();
+		negativeCounts = new BucketCounts();
+		zeroCount = 0;
+		count = 0;
+	}
+
+
+	/**
+	 * Adds a score to the sketch.  NaN scores are ignored.
+	 * @param score score to add
+	 */
+	public void add(float score) {
+		if (score > 0) {
+			positiveCounts.add(getBucketIndex(score), 1);
+		} else if (score < 0) {
+			negativeCounts.add(getBucketIndex(-score), 1);
+		} else if (score == 0) {
+			zeroCount++;
+		} else {
+			// NaN
+			return;
+		}
+		count++;
+	}
+
+
+	/**
+	 * @param absoluteValue a positive value
+	 * @return the index of the bucket of the specified value
+	 */
+	private static int getBucketIndex(float absoluteValue) {
+		int bucketIndex = (int) Math.ceil(Math.log(absoluteValue) / LOG_GAMMA);
+		return Math.min(bucketIndex, MAX_BUCKET_INDEX);
+	}
+
+
+	/**
+	 * @param bucketIndex index of a bucket
+	 * @return the value representing the bucket, which is within the relative accuracy
+	 * of all the values of the bucket
+	 */
+	private static float getBucketValue(int bucketIndex) {
+		double value = (2 * Math.exp(bucketIndex * LOG_GAMMA)) / (GAMMA + 1);
+		return (float) Math.min(value, Float.MAX_VALUE);
+	}
+
+
+	/**
+	 * @return the number of scores added to the sketch
+	 */
+	public long getCount() {
+		return count;
+	}
+
+
+	/**
+	 * Returns an estimation of the specified quantile of the scores.
+	 * The quantile 0 is the smallest score and the quantile 1 is the greatest score.
+	 * @param quantile a quantile between 0 and 1
+	 * @return an estimation of the quantile within the relative accuracy of the sketch, 0 if the sketch is empty
+	 */
+	public float getQuantile(double quantile) {
+		if ((quantile < 0) || (quantile > 1)) {
+			throw new IllegalArgumentException("The quantile must be between 0 and 1");
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) (quantile * (count - 1));
+		// negative scores from the smallest to the greatest
+		if (negativeCounts.counts != null) {
+			for (int i = negativeCounts.counts.length - 1; i >= 0; i--) {
+				rank -= negativeCounts.counts[i];
+				if (rank < 0) {
+					return -getBucketValue(negativeCounts.offset + i);
+				}
+			}
+		}
+		rank -= zeroCount;
+		if (rank < 0) {
+			return 0;
+		}
+		for (int i = 0; i < positiveCounts.counts.length; i++) {
+			rank -= positiveCounts.counts[i];
+			if (rank < 0) {
+				return getBucketValue(positiveCounts.offset + i);
+			}
+		}
+		// not reachable since the counts of the buckets sum to the total count
+		return getBucketValue(positiveCounts.offset + positiveCounts.counts.length - 1);
+	}
+
+
+	/**
+	 * Adds the scores of the specified sketch to this sketch
+	 * @param other a {@link ScoreQuantileSketch}
+	 */
+	public void merge(ScoreQuantileSketch other) {
+		positiveCounts.merge(other.positiveCounts);
+		negativeCounts.merge(other.negativeCounts);
+		zeroCount += other.zeroCount;
+		count += other.count;
+	}
+
+
+	/**
+	 * Method used for unserialization
+	 * @param in
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.readInt();
+		in.defaultReadObject();
+	}
+
+
+	/**
+	 * Method used for serialization
+	 * @param out
+	 * @throws IOException
+	 */
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.writeInt(CLASS_VERSION_NUMBER);
+		out.defaultWriteObject();
+	}
+}
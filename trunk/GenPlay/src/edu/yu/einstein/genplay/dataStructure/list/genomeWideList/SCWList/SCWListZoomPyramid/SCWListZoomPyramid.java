@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListZoomPyramid;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
+
+
+/**
+ * {@link ZoomPyramid} of each chromosome of a {@link SCWList}.
+ * <br/>The pyramid of a chromosome is built the first time it is requested.
+ * The pyramids of different chromosomes can be built concurrently.
+ * @author Julien Lajugie
+ */
+public final class SCWListZoomPyramid {
+
+	/** Summarized list */
+	private final SCWList scwList;
+
+	/** Pyramids of each chromosome, null if the pyramid of a chromosome has not been built yet */
+	private final AtomicReferenceArray<ZoomPyramid> pyramids;
+
+	/** Locks used to build the pyramid of each chromosome only once */
+	private final Object[] buildLocks;
+
+
+	/**
+	 * Creates an instance of {@link SCWListZoomPyramid}
+	 * @param scwList summarized {@link SCWList}
+	 */
+	public SCWListZoomPyramid(SCWList scwList) {
+		this.scwList = scwList;
+		pyramids = new AtomicReferenceArray<ZoomPyramid>(scwList.size());
+		buildLocks = new Object[scwList.size()];
+		for (int i = 0; i < buildLocks.length; i++) {
+			buildLocks[i] = new Object();
+		}
+	}
+
+
+	/**
+	 * @param chromosomeIndex index of a chromosome
+	 * @return the {@link ZoomPyramid} of the chromosome. Builds the pyramid if it has not been built yet.
+	 * Returns null if the list has no data for the chromosome
+	 */
+	public ZoomPyramid get(int chromosomeIndex) {
+		ZoomPyramid pyramid = pyramids.get(chromosomeIndex);
+		if (pyramid == null) {
+			synchronized (buildLocks[chromosomeIndex]) {
+				pyramid = pyramids.get(chromosomeIndex);
+				if ((pyramid == null) && (scwList.get(chromosomeIndex) != null)) {
+					pyramid = new ZoomPyramid(SCWListViews.asSCWListView(scwList.get(chromosomeIndex)));
+					pyramids.set(chromosomeIndex, pyramid);
+				}
+			}
+		}
+		return pyramid;
+	}
+
+
+	/**
+	 * @param chromosomeIndex index of a chromosome
+	 * @return the {@link ZoomPyramid} of the chromosome if it has already been built, null otherwise.
+	 * This method never blocks
+	 */
+	public ZoomPyramid getIfBuilt(int chromosomeIndex) {
+		return pyramids.get(chromosomeIndex);
+	}
+}
@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListZoomPyramid;
+
+import java.util.Arrays;
+
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+
+
+/**
+ * Multi-resolution summary of the windows of a chromosome.
+ * <br/>The chromosome is divided in tiles whose size is a power of two.  The tiles of a level of the pyramid
+ * are twice as large as the tiles of the previous level.  Each tile stores the minimum, the maximum and the mean score
+ * of the windows overlapping the tile as well as the number of bases covered by these windows.
+ * The mean is weighted by the number of bases of the windows overlapping the tile.
+ * The windows with a score of 0 are considered as gaps.
+ * <br/>A region of the chromosome can be summarized at any resolution by reading only the tiles covering the region.
+ * @author Julien Lajugie
+ */
+public final class ZoomPyramid {
+
+	/** Minimum size of the tiles of the first level */
+	private static final int MIN_TILE_SIZE = 16;
+
+	/** Maximum size of the tiles */
+	private static final int MAX_TILE_SIZE = 1 << 30;
+
+	/** Average number of windows summarized by a tile of the first level */
+	private static final int WINDOWS_PER_TILE = 4;
+
+	/** Number of windows read at once from the summarized list */
+	private static final int READ_CHUNK_SIZE = 4096;
+
+	/** Size of the tiles of the first level */
+	private final int firstTileSize;
+
+	/** Minimum scores of the tiles of each level */
+	private final float[][] minScores;
+
+	/** Maximum scores of the tiles of each level */
+	private final float[][] maxScores;
+
+	/** Mean scores of the tiles of each level */
+	private final float[][] meanScores;
+
+	/** Number of bases covered by windows in the tiles of each level */
+	private final int[][] coverages;
+
+
+	/**
+	 * Creates an instance of {@link ZoomPyramid} summarizing the specified list
+	 * @param list a list of windows sorted by position and not overlapping
+	 */
+	public ZoomPyramid(SCWListView list) {
+		int windowCount = list.size();
+		int span = (windowCount == 0) ? 0 : list.getStop(windowCount - 1) - 1;
+		long targetTileSize = Math.max(MIN_TILE_SIZE, (WINDOWS_PER_TILE * (long) span) / Math.max(1, windowCount));
+		int tileSize = Integer.highestOneBit((int) Math.min(MAX_TILE_SIZE, targetTileSize));
+		if (tileSize < targetTileSize) {
+			tileSize <<= 1;
+		}
+		firstTileSize = tileSize;
+
+		// count the levels
+		int levelCount = 1;
+		int tileCount = computeTileCount(span, tileSize);
+		while ((tileCount > 1) && (tileSize < MAX_TILE_SIZE)) {
+			tileSize <<= 1;
+			tileCount = computeTileCount(span, tileSize);
+			levelCount++;
+		}
+		minScores = new float[levelCount][];
+		maxScores = new float[levelCount][];
+		meanScores = new float[levelCount][];
+		coverages = new int[levelCount][];
+
+		// first level: summarize the windows
+		tileCount = computeTileCount(span, firstTileSize);
+		double[] sums = new double[tileCount];
+		minScores[0] = new float[tileCount];
+		maxScores[0] = new float[tileCount];
+		coverages[0] = new int[tileCount];
+		Arrays.fill(minScores[0], Float.POSITIVE_INFINITY);
+		Arrays.fill(maxScores[0], Float.NEGATIVE_INFINITY);
+		int[] starts = new int[READ_CHUNK_SIZE];
+		int[] stops = new int[READ_CHUNK_SIZE];
+		float[] scores = new float[READ_CHUNK_SIZE];
+		for (int chunkStart = 0; chunkStart < windowCount; chunkStart += READ_CHUNK_SIZE) {
+			int chunkStop = Math.min(windowCount, chunkStart + READ_CHUNK_SIZE);
+			list.getStarts(chunkStart, chunkStop, starts, 0);
+			list.getStops(chunkStart, chunkStop, stops, 0);
+			list.getScores(chunkStart, chunkStop, scores, 0);
+			for (int i = 0; i < (chunkStop - chunkStart); i++) {
+				if ((scores[i] != 0) && (stops[i] > starts[i])) {
+					addWindow(starts[i], stops[i], scores[i], sums);
+				}
+			}
+		}
+		meanScores[0] = new float[tileCount];
+		computeMeans(0, sums);
+
+		// next levels: merge the tiles of the previous level two by two
+		for (int level = 1; level < levelCount; level++) {
+			int previousTileCount = tileCount;
+			tileCount = (previousTileCount + 1) / 2;
+			double[] levelSums = new double[tileCount];
+			minScores[level] = new float[tileCount];
+			maxScores[level] = new float[tileCount];
+			meanScores[level] = new float[tileCount];
+			coverages[level] = new int[tileCount];
+			for (int i = 0; i < tileCount; i++) {
+				float min = Float.POSITIVE_INFINITY;
+				float max = Float.NEGATIVE_INFINITY;
+				for (int j = 2 * i; j < Math.min(previousTileCount, (2 * i) + 2); j++) {
+					if (coverages[level - 1][j] > 0) {
+						levelSums[i] += sums[j];
+						coverages[level][i] += coverages[level - 1][j];
+						min = Math.min(min, minScores[level - 1][j]);
+						max = Math.max(max, maxScores[level - 1][j]);
+					}
+				}
+				minScores[level][i] = min;
+				maxScores[level][i] = max;
+			}
+			sums = levelSums;
+			computeMeans(level, sums);
+		}
+	}
+
+
+	/**
+	 * Adds a window to the tiles of the first level
+	 * @param start start of the window
+	 * @param stop stop of the window (exclusive)
+	 * @param score score of the window
+	 * @param sums sum of the scores weighted by the number of bases covered in each tile
+	 */
+	private void addWindow(int start, int stop, float score, double[] sums) {
+		int tileCount = sums.length;
+		int firstTile = Math.min(tileCount - 1, Math.max(0, (start - 1) / firstTileSize));
+		int lastTile = Math.min(tileCount - 1, Math.max(0, (stop - 2) / firstTileSize));
+		for (int tile = firstTile; tile <= lastTile; tile++) {
+			long tileStart = 1 + (tile * (long) firstTileSize);
+			long tileStop = tileStart + firstTileSize;
+			int coveredBases = (int) (Math.min(stop, tileStop) - Math.max(start, tileStart));
+			if (coveredBases > 0) {
+				sums[tile] += (double) score * coveredBases;
+				coverages[0][tile] += coveredBases;
+				minScores[0][tile] = Math.min(minScores[0][tile], score);
+				maxScores[0][tile] = Math.max(maxScores[0][tile], score);
+			}
+		}
+	}
+
+
+	/**
+	 * @param span number of bases to cover
+	 * @param tileSize size of the tiles
+	 * @return the number of tiles of the specified size needed to cover the specified number of bases
+	 */
+	private static int computeTileCount(int span, int tileSize) {
+		return (int) Math.max(1, ((long) span + tileSize - 1) / tileSize);
+	}
+
+
+	/**
+	 * Computes the mean scores of the tiles of a level.  Sets the scores of the empty tiles to 0
+	 * @param level a level of the pyramid
+	 * @param sums sum of the scores weighted by the number of bases covered in each tile of the level
+	 */
+	private void computeMeans(int level, double[] sums) {
+		for (int i = 0; i < sums.length; i++) {
+			if (coverages[level][i] > 0) {
+				meanScores[level][i] = (float) (sums[i] / coverages[level][i]);
+			} else {
+				minScores[level][i] = 0;
+				maxScores[level][i] = 0;
+				meanScores[level][i] = 0;
+			}
+		}
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @param tileIndex index of a tile of the level
+	 * @return the number of bases of the tile covered by windows
+	 */
+	public int getCoverage(int level, int tileIndex) {
+		return coverages[level][tileIndex];
+	}
+
+
+	/**
+	 * @return the number of levels of the pyramid
+	 */
+	public int getLevelCount() {
+		return coverages.length;
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @param tileIndex index of a tile of the level
+	 * @return the maximum score of the windows overlapping the tile, 0 if the tile is empty
+	 */
+	public float getMaxScore(int level, int tileIndex) {
+		return maxScores[level][tileIndex];
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @param tileIndex index of a tile of the level
+	 * @return the mean score of the bases of the tile covered by windows, 0 if the tile is empty
+	 */
+	public float getMeanScore(int level, int tileIndex) {
+		return meanScores[level][tileIndex];
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @param tileIndex index of a tile of the level
+	 * @return the minimum score of the windows overlapping the tile, 0 if the tile is empty
+	 */
+	public float getMinScore(int level, int tileIndex) {
+		return minScores[level][tileIndex];
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @return the number of tiles of the level
+	 */
+	public int getTileCount(int level) {
+		return coverages[level].length;
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @param position a position on the chromosome
+	 * @return the index of the tile of the level containing the position.
+	 * The result is not necessary a valid tile index if the position is outside of the summarized region
+	 */
+	public int getTileIndex(int level, int position) {
+		return (position - 1) / getTileSize(level);
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @return the size of the tiles of the level
+	 */
+	public int getTileSize(int level) {
+		return firstTileSize << level;
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @param tileIndex index of a tile of the level
+	 * @return the start position of the tile
+	 */
+	public int getTileStart(int level, int tileIndex) {
+		return (int) Math.min(Integer.MAX_VALUE, 1 + (tileIndex * (long) getTileSize(level)));
+	}
+
+
+	/**
+	 * @param level a level of the pyramid
+	 * @param tileIndex index of a tile of the level
+	 * @return the stop position (exclusive) of the tile
+	 */
+	public int getTileStop(int level, int tileIndex) {
+		return (int) Math.min(Integer.MAX_VALUE, 1 + ((tileIndex + 1) * (long) getTileSize(level)));
+	}
+
+
+	/**
+	 * @param basesPerPixel number of bases displayed on one pixel of the screen
+	 * @return the level of the pyramid with the largest tiles smaller than or equal to the specified number of bases.
+	 * -1 if the tiles of the first level are larger than the specified number of bases
+	 */
+	public int getZoomLevel(double basesPerPixel) {
+		int level = -1;
+		while (((level + 1) < getLevelCount()) && (getTileSize(level + 1) <= basesPerPixel)) {
+			level++;
+		}
+		return level;
+	}
+}
@@ -36,11 +36,13 @@ import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.SimpleChromosomeWindow;
 import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.dense.DenseSCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.mask.MaskListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListStats.SCWListStats;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListZoomPyramid.SCWListZoomPyramid;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.geneList.SimpleGeneList;
 import edu.yu.einstein.genplay.dataStructure.list.listView.AbstractListView;
@@ -48,6 +50,7 @@ import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
 import edu.yu.einstein.genplay.exception.exceptions.InvalidChromosomeException;
 import edu.yu.einstein.genplay.util.ListView.ListViews;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
 
 
 /**
@@ -70,7 +73,7 @@ public final class SimpleSCWList extends AbstractListView<ListView<ScoredChromos
 		if (scwListType == SCWListType.BIN) {
 			return BinList.getCreationStepCount(SCWListType.BIN);
 		} else {
-			return 2;
+			return 1;
 		}
 	}
 
@@ -83,6 +86,9 @@ public final class SimpleSCWList extends AbstractListView<ListView<ScoredChromos
 	/** Statistics of the list */
 	private final SCWListStats listStats;
 
+	/** Zoom pyramid of the list, created the first time it is requested */
+	private transient SCWListZoomPyramid zoomPyramid;
+
 
 	/**
 	 * Creates an instance of {@link SimpleGeneList}
@@ -140,7 +146,7 @@ public final class SimpleSCWList extends AbstractListView<ListView<ScoredChromos
 
 	@Override
 	public float getScore(Chromosome chromosome, int position) {
-		ListView<ScoredChromosomeWindow> currentList = get(chromosome);
+		SCWListView currentList = SCWListViews.asSCWListView(get(chromosome));
 		int indexWindow = ListViews.binarySearch(currentList, new SimpleChromosomeWindow(position, position), new ChromosomeWindowStartComparator());
 		if (indexWindow < 0) {
 			// retrieve the window right before the insert point
@@ -150,8 +156,8 @@ public final class SimpleSCWList extends AbstractListView<ListView<ScoredChromos
 			}
 		}
 		// check if the window contains the stop position
-		if (currentList.get(indexWindow).getStop() >= position) {
-			return currentList.get(indexWindow).getScore();
+		if (currentList.getStop(indexWindow) >= position) {
+			return currentList.getScore(indexWindow);
 		}
 		return 0;
 	}
@@ -169,6 +175,16 @@ public final class SimpleSCWList extends AbstractListView<ListView<ScoredChromos
 	}
 
 
+
+	@Override
+	public synchronized SCWListZoomPyramid getZoomPyramid() {
+		if (zoomPyramid == null) {
+			zoomPyramid = new SCWListZoomPyramid(this);
+		}
+		return zoomPyramid;
+	}
+
+
 	/**
 	 * Method used for unserialization. Computes the statistics of the list after unserialization
 	 * @param in
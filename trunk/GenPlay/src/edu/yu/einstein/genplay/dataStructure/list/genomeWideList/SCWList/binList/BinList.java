@@ -27,18 +27,17 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.security.InvalidParameterException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
-import edu.yu.einstein.genplay.core.operation.binList.BLOComputeAverageList;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.bin.BinListView;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListStats.SCWListStats;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListZoomPyramid.SCWListZoomPyramid;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SimpleSCWList.SimpleSCWList;
 import edu.yu.einstein.genplay.dataStructure.list.listView.AbstractListView;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
@@ -59,24 +58,18 @@ public final class BinList extends AbstractListView<ListView<ScoredChromosomeWin
 	/** Version number of the class */
 	private static final transient int CLASS_VERSION_NUMBER = 0;
 
-	/** Value of the BinSize factors averaged BinList */
-	public static final int[] AVERAGE_BIN_SIZE_FACTORS = {100, 10000};
-
 	/**
 	 * @param scwListType a {@link SCWListType}
 	 * @return the number of steps needed to create a list of the specified type
 	 */
 	public static int getCreationStepCount(SCWListType scwListType) {
 		if (scwListType == SCWListType.BIN) {
-			return AVERAGE_BIN_SIZE_FACTORS.length + 2;
+			return 1;
 		} else {
 			return SimpleSCWList.getCreationStepCount(scwListType);
 		}
 	}
 
-	/** List of list of bins with bin sizes equal to {@link #binSize} * {@link #AVERAGE_BIN_SIZE_FACTORS} */
-	private final List<List<ListView<ScoredChromosomeWindow>>> averagedList;
-
 	/** Size of the bins in bp */
 	private final int binSize;
 
@@ -86,6 +79,9 @@ public final class BinList extends AbstractListView<ListView<ScoredChromosomeWin
 	/** Statistics of the list */
 	private final SCWListStats listStats;
 
+	/** Zoom pyramid of the list, created the first time it is requested */
+	private transient SCWListZoomPyramid zoomPyramid;
+
 
 	/**
 	 * Creates an instance of {@link BinList}
@@ -107,10 +103,6 @@ public final class BinList extends AbstractListView<ListView<ScoredChromosomeWin
 		binSize = retrieveBinSize();
 		// computes some statistic values for this list
 		listStats = new SCWListStats(this);
-		averagedList = new ArrayList<List<ListView<ScoredChromosomeWindow>>>();
-		for (int currentFactor: AVERAGE_BIN_SIZE_FACTORS) {
-			averagedList.add(new BLOComputeAverageList(this, currentFactor).compute());
-		}
 	}
 
 
@@ -142,16 +134,6 @@ public final class BinList extends AbstractListView<ListView<ScoredChromosomeWin
 	}
 
 
-	/**
-	 * @param index
-	 * @return The averaged list of bins with a bin size equals to ({@link BinList#getBinSize()} * {@link #AVERAGE_BIN_SIZE_FACTORS}[index])
-	 * where index is the specified parameter
-	 */
-	public List<ListView<ScoredChromosomeWindow>> getAveragedList(int index) {
-		return averagedList.get(index);
-	}
-
-
 	/**
 	 * @return the size of the bins
 	 */
@@ -189,6 +171,15 @@ public final class BinList extends AbstractListView<ListView<ScoredChromosomeWin
 	}
 
 
+	@Override
+	public synchronized SCWListZoomPyramid getZoomPyramid() {
+		if (zoomPyramid == null) {
+			zoomPyramid = new SCWListZoomPyramid(this);
+		}
+		return zoomPyramid;
+	}
+
+
 	/**
 	 * Method used for unserialization. Computes the statistics of the list after unserialization
 	 * @param in
@@ -60,4 +60,20 @@ public class BinListBuilder extends SCWListBuilder{
 		BinListViewBuilder binLVB = (BinListViewBuilder) builders.getBuilder(chromosome);
 		binLVB.addElementToBuild(score);
 	}
+
+
+	/**
+	 * Adds a slice of elements of the same chromosome to the {@link SCWList} to be built.
+	 * The windows are appended after the last window of the chromosome
+	 * @param chromosome chromosome of the elements to add
+	 * @param scores scores of the windows to add
+	 * @param offset index in the array of the first score to add
+	 * @param length number of scores to add
+	 * @throws InvalidChromosomeException if the chromosome is not valid
+	 * @throws ObjectAlreadyBuiltException if the SCWList has already been created
+	 */
+	public void addElementsToBuild(Chromosome chromosome, float[] scores, int offset, int length) throws InvalidChromosomeException, ObjectAlreadyBuiltException {
+		BinListViewBuilder binLVB = (BinListViewBuilder) builders.getBuilder(chromosome);
+		binLVB.addElementsToBuild(scores, offset, length);
+	}
 }
@@ -30,6 +30,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
 import edu.yu.einstein.genplay.core.IO.dataReader.GeneReader;
+import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.core.operationPool.OperationPool;
@@ -70,17 +71,21 @@ public class GeneListFactory {
 	public static GeneList createGeneList(GeneReader geneReader) throws InterruptedException, ExecutionException, CloneNotSupportedException, InvalidChromosomeException, ObjectAlreadyBuiltException, IOException {
 		GeneListViewBuilder lvBuilderPrototype = new GeneListViewBuilder();
 		ListOfListViewBuilder<Gene> builder = new ListOfListViewBuilder<Gene>(lvBuilderPrototype);
-		while (geneReader.readItem()) {
-			Gene currentGene = new SimpleGene(
-					geneReader.getName(),
-					geneReader.getStrand(),
-					geneReader.getStart(),
-					geneReader.getStop(),
-					geneReader.getScore(),
-					geneReader.getUTR5Bound(),
-					geneReader.getUTR3Bound(),
-					geneReader.getExons());
-			builder.addElementToBuild(geneReader.getChromosome(), currentGene);
+		try {
+			while (geneReader.readItem()) {
+				Gene currentGene = new SimpleGene(
+						geneReader.getName(),
+						geneReader.getStrand(),
+						geneReader.getStart(),
+						geneReader.getStop(),
+						geneReader.getScore(),
+						geneReader.getUTR5Bound(),
+						geneReader.getUTR3Bound(),
+						geneReader.getExons());
+				builder.addElementToBuild(geneReader.getChromosome(), currentGene);
+			}
+		} finally {
+			Extractors.close(geneReader);
 		}
 		String geneDBURL = geneReader.getGeneDBURL();
 		GeneScoreType geneScoreType = geneReader.getGeneScoreType();
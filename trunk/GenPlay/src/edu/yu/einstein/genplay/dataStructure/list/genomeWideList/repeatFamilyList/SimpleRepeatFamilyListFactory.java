@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.util.concurrent.ExecutionException;
 
 import edu.yu.einstein.genplay.core.IO.dataReader.RepeatReader;
+import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.ChromosomeWindow;
 import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.SimpleChromosomeWindow;
 import edu.yu.einstein.genplay.exception.exceptions.InvalidChromosomeException;
@@ -51,9 +52,13 @@ public class SimpleRepeatFamilyListFactory {
 	 */
 	public static RepeatFamilyList createRepeatList(RepeatReader repeatReader) throws InterruptedException, ExecutionException, CloneNotSupportedException, InvalidChromosomeException, ObjectAlreadyBuiltException, IOException {
 		RepeatFamilyListBuilder builder = new RepeatFamilyListBuilder();
-		while (repeatReader.readItem()) {
-			ChromosomeWindow currentWindow = new SimpleChromosomeWindow(repeatReader.getStart(), repeatReader.getStop());
-			builder.addElementToBuild(repeatReader.getChromosome(), repeatReader.getName(), currentWindow);
+		try {
+			while (repeatReader.readItem()) {
+				ChromosomeWindow currentWindow = new SimpleChromosomeWindow(repeatReader.getStart(), repeatReader.getStop());
+				builder.addElementToBuild(repeatReader.getChromosome(), repeatReader.getName(), currentWindow);
+			}
+		} finally {
+			Extractors.close(repeatReader);
 		}
 		return new SimpleRepeatFamilyList(builder.getGenomicList());
 	}
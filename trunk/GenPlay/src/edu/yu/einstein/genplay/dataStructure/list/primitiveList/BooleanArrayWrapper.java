@@ -74,6 +74,18 @@ class BooleanArrayWrapper extends AbstractList<Boolean> implements Serializable,
 	}
 
 
+	@Override
+	public float getFloat(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+
+	@Override
+	public int getInt(int index) {
+		throw new UnsupportedOperationException();
+	}
+
+
 	/**
 	 * @param index
 	 * @return A message specifying what was the index and what was the size of the list
@@ -131,6 +143,18 @@ class BooleanArrayWrapper extends AbstractList<Boolean> implements Serializable,
 	}
 
 
+	@Override
+	public void setFloats(int index, float[] values, int valuesOffset, int length) {
+		throw new UnsupportedOperationException();
+	}
+
+
+	@Override
+	public void setInts(int index, int[] values, int valuesOffset, int length) {
+		throw new UnsupportedOperationException();
+	}
+
+
 	@Override
 	public int size() {
 		return size;
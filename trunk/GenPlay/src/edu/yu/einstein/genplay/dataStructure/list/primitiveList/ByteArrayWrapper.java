@@ -62,6 +62,18 @@ class ByteArrayWrapper extends AbstractList<Byte> implements Serializable, List<
 	}
 
 
+	@Override
+	public float getFloat(int index) {
+		return elementData[index];
+	}
+
+
+	@Override
+	public int getInt(int index) {
+		return elementData[index];
+	}
+
+
 	/**
 	 * Method used for deserialization
 	 * @param in
@@ -84,6 +96,22 @@ class ByteArrayWrapper extends AbstractList<Byte> implements Serializable, List<
 	}
 
 
+	@Override
+	public void setFloats(int index, float[] values, int valuesOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			elementData[index + i] = (byte) values[valuesOffset + i];
+		}
+	}
+
+
+	@Override
+	public void setInts(int index, int[] values, int valuesOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			elementData[index + i] = (byte) values[valuesOffset + i];
+		}
+	}
+
+
 	@Override
 	public int size() {
 		return elementData.length;
@@ -56,12 +56,33 @@ class FloatArrayWrapper extends AbstractList<Float> implements Serializable, Lis
 	}
 
 
+	/**
+	 * Creates an instance of {@link FloatArrayWrapper} wrapping the specified array
+	 * @param elementData array wrapped
+	 */
+	FloatArrayWrapper(float[] elementData) {
+		this.elementData = elementData;
+	}
+
+
 	@Override
 	public Float get(int index) {
 		return elementData[index];
 	}
 
 
+	@Override
+	public float getFloat(int index) {
+		return elementData[index];
+	}
+
+
+	@Override
+	public int getInt(int index) {
+		return (int) elementData[index];
+	}
+
+
 	/**
 	 * Method used for deserialization
 	 * @param in
@@ -84,6 +105,20 @@ class FloatArrayWrapper extends AbstractList<Float> implements Serializable, Lis
 	}
 
 
+	@Override
+	public void setFloats(int index, float[] values, int valuesOffset, int length) {
+		System.arraycopy(values, valuesOffset, elementData, index, length);
+	}
+
+
+	@Override
+	public void setInts(int index, int[] values, int valuesOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			elementData[index + i] = values[valuesOffset + i];
+		}
+	}
+
+
 	@Override
 	public int size() {
 		return elementData.length;
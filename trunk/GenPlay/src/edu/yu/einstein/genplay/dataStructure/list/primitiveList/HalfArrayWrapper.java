@@ -59,12 +59,33 @@ class HalfArrayWrapper extends AbstractList<Float> implements Serializable, List
 	}
 
 
+	/**
+	 * Creates an instance of {@link HalfArrayWrapper} wrapping the specified array
+	 * @param elementData array wrapped
+	 */
+	HalfArrayWrapper(char[] elementData) {
+		this.elementData = elementData;
+	}
+
+
 	@Override
 	public Float get(int index) {
 		return HalfFloat.toFloat(elementData[index]);
 	}
 
 
+	@Override
+	public float getFloat(int index) {
+		return HalfFloat.toFloat(elementData[index]);
+	}
+
+
+	@Override
+	public int getInt(int index) {
+		return (int) HalfFloat.toFloat(elementData[index]);
+	}
+
+
 	/**
 	 * Method used for deserialization
 	 * @param in
@@ -87,6 +108,22 @@ class HalfArrayWrapper extends AbstractList<Float> implements Serializable, List
 	}
 
 
+	@Override
+	public void setFloats(int index, float[] values, int valuesOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			elementData[index + i] = HalfFloat.fromFloat(values[valuesOffset + i]);
+		}
+	}
+
+
+	@Override
+	public void setInts(int index, int[] values, int valuesOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			elementData[index + i] = HalfFloat.fromFloat(values[valuesOffset + i]);
+		}
+	}
+
+
 	@Override
 	public int size() {
 		return elementData.length;
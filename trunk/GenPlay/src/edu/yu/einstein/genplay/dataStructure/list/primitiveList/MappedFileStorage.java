@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.list.primitiveList;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import edu.yu.einstein.genplay.util.Utils;
+
+
+/**
+ * Allocates the buffers of the memory-mapped {@link PrimitiveArrayWrapper}.
+ * The buffers are slices of large segment files mapped in memory and created in the temporary directory.
+ * A segment is unmapped by the garbage collector once all the buffers sliced from it are unreachable.
+ * The segment files are deleted right after being mapped when the operating system allows it
+ * so their disk space is released with the mapping.  Otherwise they are deleted when the VM exits.
+ * @author Julien Lajugie
+ */
+final class MappedFileStorage {
+
+	/** Size in bytes of the segment files */
+	private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	/** Prefix of the name of the segment files */
+	private static final String SEGMENT_FILE_PREFIX = "genplay-scores-";
+
+	/** Segment currently sliced */
+	private static MappedByteBuffer currentSegment = null;
+
+
+	/**
+	 * Allocates a new buffer in the memory-mapped files.
+	 * The buffer is filled with zeros and uses the native byte order.
+	 * @param byteCount size of the buffer in bytes
+	 * @return a new buffer mapped in a segment file
+	 * @throws IOException if a segment file cannot be created or mapped
+	 */
+	static synchronized ByteBuffer allocate(int byteCount) throws IOException {
+		if (byteCount > SEGMENT_SIZE) {
+			throw new IllegalArgumentException("Invalid Buffer Size: " + byteCount);
+		}
+		if ((currentSegment == null) || (currentSegment.remaining() < byteCount)) {
+			currentSegment = mapNewSegment();
+		}
+		int position = currentSegment.position();
+		ByteBuffer buffer = currentSegment.duplicate();
+		buffer.limit(position + byteCount);
+		currentSegment.position(position + byteCount);
+		return buffer.slice().order(ByteOrder.nativeOrder());
+	}
+
+
+	/**
+	 * Creates a new segment file in the temporary directory and maps it in memory
+	 * @return the mapped segment
+	 * @throws IOException
+	 */
+	private static MappedByteBuffer mapNewSegment() throws IOException {
+		File segmentFile = File.createTempFile(SEGMENT_FILE_PREFIX, null, new File(Utils.getTmpDirectoryPath()));
+		RandomAccessFile randomAccessFile = null;
+		try {
+			randomAccessFile = new RandomAccessFile(segmentFile, "rw");
+			randomAccessFile.setLength(SEGMENT_SIZE);
+			FileChannel channel = randomAccessFile.getChannel();
+			// the mapping stays valid after the channel is closed
+			return channel.map(MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+		} finally {
+			if (randomAccessFile != null) {
+				randomAccessFile.close();
+			}
+			if (!segmentFile.delete()) {
+				segmentFile.deleteOnExit();
+			}
+		}
+	}
+
+
+	/**
+	 * Private constructor. The class only has static methods
+	 */
+	private MappedFileStorage() {
+	}
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.list.primitiveList;
+
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.nio.FloatBuffer;
+import java.util.AbstractList;
+import java.util.List;
+
+
+/**
+ * Implementation of the {@link List} interface wrapping float primitives stored in a memory-mapped file.
+ * The wrapper is serialized as a {@link FloatArrayWrapper} so the serialization format
+ * doesn't depend on the storage of the data.
+ * @author Julien Lajugie
+ */
+class MappedFloatArrayWrapper extends AbstractList<Float> implements Serializable, List<Float>,  PrimitiveArrayWrapper<Float> {
+
+	/** Generated serial ID */
+	private static final long serialVersionUID = 3305823497916404652L;
+
+	/** Data of the list */
+	private final transient FloatBuffer elementData;
+
+	/** Size of the list */
+	private int size;
+
+
+	/**
+	 * Creates an instance of {@link MappedFloatArrayWrapper}
+	 * @param capacity capacity of the wrapper
+	 * @throws IOException if the memory-mapped buffer cannot be allocated
+	 */
+	MappedFloatArrayWrapper(int capacity) throws IOException {
+		elementData = MappedFileStorage.allocate(capacity * 4).asFloatBuffer();
+		size = capacity;
+	}
+
+
+	/**
+	 * Creates an instance of {@link MappedFloatArrayWrapper} containing the elements of the specified wrapper
+	 * @param wrapper a {@link PrimitiveArrayWrapper}
+	 * @throws IOException if the memory-mapped buffer cannot be allocated
+	 */
+	MappedFloatArrayWrapper(PrimitiveArrayWrapper<Float> wrapper) throws IOException {
+		this(wrapper.size());
+		for (int i = 0; i < size; i++) {
+			elementData.put(i, wrapper.getFloat(i));
+		}
+	}
+
+
+	@Override
+	public Float get(int index) {
+		return elementData.get(index);
+	}
+
+
+	@Override
+	public float getFloat(int index) {
+		return elementData.get(index);
+	}
+
+
+	@Override
+	public int getInt(int index) {
+		return (int) elementData.get(index);
+	}
+
+
+	@Override
+	public Float set(int index, Float element) {
+		Float oldElement = get(index);
+		elementData.put(index, element);
+		return oldElement;
+	}
+
+
+	@Override
+	public void setFloats(int index, float[] values, int valuesOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			elementData.put(index + i, values[valuesOffset + i]);
+		}
+	}
+
+
+	@Override
+	public void setInts(int index, int[] values, int valuesOffset, int length) {
+		for (int i = 0; i < length; i++) {
+			elementData.put(index + i, values[valuesOffset + i]);
+		}
+	}
+
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+
+	@Override
+	public void trimToSize(int newCapacity) {
+		// the mapped buffer is not reallocated, only the part of the buffer exposed is reduced
+		size = newCapacity;
+	}
+
+
+	/**
+	 * Method used for serialization.
+	 * Replaces the wrapper by an equivalent {@link FloatArrayWrapper}
+	 * @return a {@link FloatArrayWrapper} with the same elements
+	 * @throws ObjectStreamException
+	 */
+	private Object writeReplace() throws ObjectStreamException {
+		float[] array = new float[size];
+		for (int i = 0; i < size; i++) {
+			array[i] = elementData.get(i);
+		}
+		return new FloatArrayWrapper(array);
+	}
+}
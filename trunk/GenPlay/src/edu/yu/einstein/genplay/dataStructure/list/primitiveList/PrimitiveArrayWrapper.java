@@ -32,7 +32,45 @@ import java.util.List;
 interface PrimitiveArrayWrapper<T> extends List<T> {
 
 	/**
-	 * 
+	 * @param index index of an element
+	 * @return the value of the element at the specified index as a primitive float
+	 * @throws UnsupportedOperationException if the elements of the wrapper are not numbers
+	 */
+	float getFloat(int index);
+
+
+	/**
+	 * @param index index of an element
+	 * @return the value of the element at the specified index as a primitive int
+	 * @throws UnsupportedOperationException if the elements of the wrapper are not numbers
+	 */
+	int getInt(int index);
+
+
+	/**
+	 * Sets the elements of the wrapper starting at the specified index with the specified values
+	 * @param index index of the first element to set
+	 * @param values array containing the values to set
+	 * @param valuesOffset index of the first value in the array
+	 * @param length number of values to set
+	 * @throws UnsupportedOperationException if the elements of the wrapper are not numbers
+	 */
+	void setFloats(int index, float[] values, int valuesOffset, int length);
+
+
+	/**
+	 * Sets the elements of the wrapper starting at the specified index with the specified values
+	 * @param index index of the first element to set
+	 * @param values array containing the values to set
+	 * @param valuesOffset index of the first value in the array
+	 * @param length number of values to set
+	 * @throws UnsupportedOperationException if the elements of the wrapper are not numbers
+	 */
+	void setInts(int index, int[] values, int valuesOffset, int length);
+
+
+	/**
+	 * Trims the capacity of the wrapper to the specified size
 	 * @param size
 	 */
 	void trimToSize(int size);
@@ -0,0 +1,482 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.dataStructure.list.primitiveList;
+
+import java.util.Arrays;
+
+import edu.yu.einstein.genplay.dataStructure.halfFloat.HalfFloat;
+import edu.yu.einstein.genplay.exception.exceptions.InvalidPrimitiveArrayGenericParameterException;
+
+
+/**
+ * Encodes and decodes {@link PrimitiveArrayWrapper} objects as independent compressed blocks.
+ * <ul>
+ * <li>int blocks are encoded as runs of identical deltas between consecutive elements.
+ * The deltas are zigzag encoded and written as variable length integers.</li>
+ * <li>float and half blocks are encoded as runs of identical values, as indexes in a dictionary of
+ * the distinct values of the block or as raw values, whichever is the smallest.
+ * The bits of the values of the runs and of the dictionary are XORed with the bits of the previous value
+ * and written as variable length integers.</li>
+ * <li>byte and boolean blocks are encoded as runs of identical values.</li>
+ * </ul>
+ * The first byte of a block is the type of the wrapper, followed by the number of elements of the block.
+ * @author Julien Lajugie
+ */
+final class PrimitiveArrayWrapperCodec {
+
+	/**
+	 * Growable byte array used to encode a block
+	 * @author Julien Lajugie
+	 */
+	private static final class BlockWriter {
+
+		/** Bytes of the block */
+		private byte[] bytes = new byte[256];
+
+		/** Number of bytes written */
+		private int length = 0;
+
+
+		/**
+		 * @return the bytes written
+		 */
+		private byte[] toByteArray() {
+			return Arrays.copyOf(bytes, length);
+		}
+
+
+		/**
+		 * Writes a byte
+		 * @param b a byte
+		 */
+		private void write(int b) {
+			if (length == bytes.length) {
+				bytes = Arrays.copyOf(bytes, length * 2);
+			}
+			bytes[length++] = (byte) b;
+		}
+
+
+		/**
+		 * Writes the bytes written in another writer
+		 * @param writer a {@link BlockWriter}
+		 */
+		private void write(BlockWriter writer) {
+			for (int i = 0; i < writer.length; i++) {
+				write(writer.bytes[i]);
+			}
+		}
+
+
+		/**
+		 * Writes an int considered unsigned using 1 to 5 bytes.
+		 * The smaller the unsigned value, the fewer bytes are used.
+		 * @param value an int
+		 */
+		private void writeVarInt(int value) {
+			while ((value & ~0x7F) != 0) {
+				write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			write(value);
+		}
+	}
+
+
+	/**
+	 * Reads the values written by a {@link BlockWriter}
+	 * @author Julien Lajugie
+	 */
+	private static final class BlockReader {
+
+		/** Bytes of the block */
+		private final byte[] bytes;
+
+		/** Position of the next byte to read */
+		private int position = 0;
+
+
+		/**
+		 * Creates an instance of {@link BlockReader}
+		 * @param bytes bytes of the block
+		 */
+		private BlockReader(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+
+		/**
+		 * @return the next byte
+		 */
+		private byte read() {
+			return bytes[position++];
+		}
+
+
+		/**
+		 * @return the next variable length int
+		 */
+		private int readVarInt() {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = bytes[position++];
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			return value;
+		}
+	}
+
+
+	/** Type of the blocks of ints */
+	private static final byte INT_BLOCK = 0;
+
+	/** Type of the blocks of floats */
+	private static final byte FLOAT_BLOCK = 1;
+
+	/** Type of the blocks of half precision floats */
+	private static final byte HALF_BLOCK = 2;
+
+	/** Type of the blocks of bytes */
+	private static final byte BYTE_BLOCK = 3;
+
+	/** Type of the blocks of booleans */
+	private static final byte BOOLEAN_BLOCK = 4;
+
+	/** Float blocks encoded as runs of identical values */
+	private static final byte RUN_ENCODING = 0;
+
+	/** Float blocks encoded as indexes in a dictionary of values */
+	private static final byte DICTIONARY_ENCODING = 1;
+
+	/** Float blocks encoded as raw values */
+	private static final byte RAW_ENCODING = 2;
+
+	/** Maximum number of values in the dictionary of a float block */
+	private static final int MAX_DICTIONARY_SIZE = 256;
+
+
+	/**
+	 * @param dictionarySize number of values in a dictionary
+	 * @return the number of bits needed to store the indexes of a dictionary with the specified size
+	 */
+	private static int bitsPerDictionaryIndex(int dictionarySize) {
+		return 32 - Integer.numberOfLeadingZeros(dictionarySize - 1);
+	}
+
+
+	/**
+	 * @param elementBits bits of the elements of a block
+	 * @return the sorted distinct values of the specified array or null if there are more
+	 * than {@link #MAX_DICTIONARY_SIZE} distinct values
+	 */
+	private static int[] createDictionary(int[] elementBits) {
+		int[] sortedBits = Arrays.copyOf(elementBits, elementBits.length);
+		Arrays.sort(sortedBits);
+		int distinctCount = 0;
+		for (int i = 0; i < sortedBits.length; i++) {
+			if ((i == 0) || (sortedBits[i] != sortedBits[i - 1])) {
+				if (distinctCount == MAX_DICTIONARY_SIZE) {
+					return null;
+				}
+				sortedBits[distinctCount++] = sortedBits[i];
+			}
+		}
+		return Arrays.copyOf(sortedBits, distinctCount);
+	}
+
+
+	/**
+	 * Decodes a block encoded with the {@link #encode(PrimitiveArrayWrapper)} method
+	 * @param block an encoded block
+	 * @return a {@link PrimitiveArrayWrapper} with the elements of the block
+	 */
+	static PrimitiveArrayWrapper<?> decode(byte[] block) {
+		BlockReader reader = new BlockReader(block);
+		byte blockType = reader.read();
+		int size = reader.readVarInt();
+		switch (blockType) {
+		case INT_BLOCK:
+			return new IntArrayWrapper(decodeInts(reader, size));
+		case FLOAT_BLOCK:
+			return new FloatArrayWrapper(decodeFloats(reader, size));
+		case HALF_BLOCK:
+			float[] floats = decodeFloats(reader, size);
+			char[] halfs = new char[size];
+			for (int i = 0; i < size; i++) {
+				halfs[i] = HalfFloat.fromFloat(floats[i]);
+			}
+			return new HalfArrayWrapper(halfs);
+		case BYTE_BLOCK:
+			ByteArrayWrapper bytes = new ByteArrayWrapper(size);
+			int byteIndex = 0;
+			while (byteIndex < size) {
+				int runLength = reader.readVarInt();
+				byte value = reader.read();
+				for (int i = 0; i < runLength; i++) {
+					bytes.set(byteIndex++, value);
+				}
+			}
+			return bytes;
+		case BOOLEAN_BLOCK:
+			BooleanArrayWrapper booleans = new BooleanArrayWrapper(size);
+			int booleanIndex = 0;
+			while (booleanIndex < size) {
+				int runLength = reader.readVarInt();
+				boolean value = reader.read() != 0;
+				for (int i = 0; i < runLength; i++) {
+					booleans.set(booleanIndex++, value);
+				}
+			}
+			return booleans;
+		default:
+			throw new IllegalArgumentException("Invalid Block Type: " + blockType);
+		}
+	}
+
+
+	/**
+	 * Decodes the elements of a block of floats
+	 * @param reader reader positioned on the encoding type of the block
+	 * @param size number of elements of the block
+	 * @return the elements of the block
+	 */
+	private static float[] decodeFloats(BlockReader reader, int size) {
+		float[] elements = new float[size];
+		byte encoding = reader.read();
+		if (encoding == RUN_ENCODING) {
+			int index = 0;
+			int previousBits = 0;
+			while (index < size) {
+				int runLength = reader.readVarInt();
+				previousBits ^= Integer.reverse(reader.readVarInt());
+				float value = Float.intBitsToFloat(previousBits);
+				for (int i = 0; i < runLength; i++) {
+					elements[index++] = value;
+				}
+			}
+		} else if (encoding == DICTIONARY_ENCODING) {
+			float[] dictionary = new float[reader.readVarInt()];
+			int previousBits = 0;
+			for (int i = 0; i < dictionary.length; i++) {
+				previousBits ^= Integer.reverse(reader.readVarInt());
+				dictionary[i] = Float.intBitsToFloat(previousBits);
+			}
+			int bitsPerIndex = bitsPerDictionaryIndex(dictionary.length);
+			int mask = (1 << bitsPerIndex) - 1;
+			long buffer = 0;
+			int bufferBitCount = 0;
+			for (int i = 0; i < size; i++) {
+				while (bufferBitCount < bitsPerIndex) {
+					buffer |= (reader.read() & 0xFFL) << bufferBitCount;
+					bufferBitCount += 8;
+				}
+				elements[i] = dictionary[(int) buffer & mask];
+				buffer >>>= bitsPerIndex;
+				bufferBitCount -= bitsPerIndex;
+			}
+		} else {
+			for (int i = 0; i < size; i++) {
+				int bits = (reader.read() & 0xFF) | ((reader.read() & 0xFF) << 8) | ((reader.read() & 0xFF) << 16) | (reader.read() << 24);
+				elements[i] = Float.intBitsToFloat(bits);
+			}
+		}
+		return elements;
+	}
+
+
+	/**
+	 * Decodes the elements of a block of ints
+	 * @param reader reader positioned on the first run of the block
+	 * @param size number of elements of the block
+	 * @return the elements of the block
+	 */
+	private static int[] decodeInts(BlockReader reader, int size) {
+		int[] elements = new int[size];
+		int index = 0;
+		int previousValue = 0;
+		while (index < size) {
+			int runLength = reader.readVarInt();
+			int zigzagDelta = reader.readVarInt();
+			int delta = (zigzagDelta >>> 1) ^ -(zigzagDelta & 1);
+			for (int i = 0; i < runLength; i++) {
+				previousValue += delta;
+				elements[index++] = previousValue;
+			}
+		}
+		return elements;
+	}
+
+
+	/**
+	 * Encodes the specified wrapper as an independent block
+	 * @param wrapper a {@link PrimitiveArrayWrapper}
+	 * @return the encoded block
+	 * @throws InvalidPrimitiveArrayGenericParameterException if the type of the wrapper is not supported
+	 */
+	static byte[] encode(PrimitiveArrayWrapper<?> wrapper) throws InvalidPrimitiveArrayGenericParameterException {
+		BlockWriter writer = new BlockWriter();
+		int size = wrapper.size();
+		if ((wrapper instanceof IntArrayWrapper) || (wrapper instanceof MappedIntArrayWrapper)) {
+			writer.write(INT_BLOCK);
+			writer.writeVarInt(size);
+			encodeInts(writer, wrapper);
+		} else if ((wrapper instanceof FloatArrayWrapper) || (wrapper instanceof MappedFloatArrayWrapper)) {
+			writer.write(FLOAT_BLOCK);
+			writer.writeVarInt(size);
+			encodeFloats(writer, wrapper);
+		} else if ((wrapper instanceof HalfArrayWrapper) || (wrapper instanceof MappedHalfArrayWrapper)) {
+			writer.write(HALF_BLOCK);
+			writer.writeVarInt(size);
+			encodeFloats(writer, wrapper);
+		} else if ((wrapper instanceof ByteArrayWrapper) || (wrapper instanceof BooleanArrayWrapper)) {
+			boolean isByteWrapper = wrapper instanceof ByteArrayWrapper;
+			writer.write(isByteWrapper ? BYTE_BLOCK : BOOLEAN_BLOCK);
+			writer.writeVarInt(size);
+			int i = 0;
+			while (i < size) {
+				Object value = wrapper.get(i);
+				int runLength = 1;
+				while (((i + runLength) < size) && value.equals(wrapper.get(i + runLength))) {
+					runLength++;
+				}
+				writer.writeVarInt(runLength);
+				if (isByteWrapper) {
+					writer.write((Byte) value);
+				} else {
+					writer.write((Boolean) value ? 1 : 0);
+				}
+				i += runLength;
+			}
+		} else {
+			throw new InvalidPrimitiveArrayGenericParameterException(wrapper.getClass());
+		}
+		return writer.toByteArray();
+	}
+
+
+	/**
+	 * Encodes the elements of a wrapper of floats.
+	 * The elements are encoded as runs of identical values, as indexes in a dictionary of the
+	 * values of the block or as raw values.  The smallest encoding is selected.
+	 * @param writer a {@link BlockWriter}
+	 * @param wrapper a {@link PrimitiveArrayWrapper} of floats
+	 */
+	private static void encodeFloats(BlockWriter writer, PrimitiveArrayWrapper<?> wrapper) {
+		int size = wrapper.size();
+		int[] elementBits = new int[size];
+		for (int i = 0; i < size; i++) {
+			elementBits[i] = Float.floatToRawIntBits(wrapper.getFloat(i));
+		}
+		// runs of identical values, the bits of each value are XORed with the bits of the previous value
+		// and reversed so the trailing zeros of the mantissa end up in the high bits of the varint
+		BlockWriter bestEncoding = new BlockWriter();
+		bestEncoding.write(RUN_ENCODING);
+		int previousBits = 0;
+		int i = 0;
+		while (i < size) {
+			int runLength = 1;
+			while (((i + runLength) < size) && (elementBits[i + runLength] == elementBits[i])) {
+				runLength++;
+			}
+			bestEncoding.writeVarInt(runLength);
+			bestEncoding.writeVarInt(Integer.reverse(elementBits[i] ^ previousBits));
+			previousBits = elementBits[i];
+			i += runLength;
+		}
+		// indexes in the dictionary of the distinct values of the block
+		int[] dictionary = createDictionary(elementBits);
+		if (dictionary != null) {
+			BlockWriter dictionaryEncoding = new BlockWriter();
+			dictionaryEncoding.write(DICTIONARY_ENCODING);
+			dictionaryEncoding.writeVarInt(dictionary.length);
+			previousBits = 0;
+			for (int currentBits: dictionary) {
+				dictionaryEncoding.writeVarInt(Integer.reverse(currentBits ^ previousBits));
+				previousBits = currentBits;
+			}
+			int bitsPerIndex = bitsPerDictionaryIndex(dictionary.length);
+			long buffer = 0;
+			int bufferBitCount = 0;
+			for (int currentBits: elementBits) {
+				buffer |= ((long) Arrays.binarySearch(dictionary, currentBits)) << bufferBitCount;
+				bufferBitCount += bitsPerIndex;
+				while (bufferBitCount >= 8) {
+					dictionaryEncoding.write((int) buffer);
+					buffer >>>= 8;
+					bufferBitCount -= 8;
+				}
+			}
+			if (bufferBitCount > 0) {
+				dictionaryEncoding.write((int) buffer);
+			}
+			if (dictionaryEncoding.length < bestEncoding.length) {
+				bestEncoding = dictionaryEncoding;
+			}
+		}
+		// raw values if the data can't be compressed
+		if (bestEncoding.length > ((size * 4) + 1)) {
+			bestEncoding = new BlockWriter();
+			bestEncoding.write(RAW_ENCODING);
+			for (int currentBits: elementBits) {
+				bestEncoding.write(currentBits);
+				bestEncoding.write(currentBits >> 8);
+				bestEncoding.write(currentBits >> 16);
+				bestEncoding.write(currentBits >> 24);
+			}
+		}
+		writer.write(bestEncoding);
+	}
+
+
+	/**
+	 * Encodes the elements of a wrapper of ints
+	 * @param writer a {@link BlockWriter}
+	 * @param wrapper a {@link PrimitiveArrayWrapper} of ints
+	 */
+	private static void encodeInts(BlockWriter writer, PrimitiveArrayWrapper<?> wrapper) {
+		int size = wrapper.size();
+		int previousValue = 0;
+		int i = 0;
+		while (i < size) {
+			int delta = wrapper.getInt(i) - previousValue;
+			int runLength = 1;
+			while (((i + runLength) < size) && ((wrapper.getInt(i + runLength) - wrapper.getInt((i + runLength) - 1)) == delta)) {
+				runLength++;
+			}
+			writer.writeVarInt(runLength);
+			writer.writeVarInt((delta << 1) ^ (delta >> 31));
+			previousValue = wrapper.getInt((i + runLength) - 1);
+			i += runLength;
+		}
+	}
+
+
+	/**
+	 * Private constructor. The class only has static methods
+	 */
+	private PrimitiveArrayWrapperCodec() {
+	}
+}
@@ -22,23 +22,24 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.dataStructure.list.primitiveList;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.RandomAccess;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.Callable;
 
 import edu.yu.einstein.genplay.dataStructure.compressible.CompressibleList;
 import edu.yu.einstein.genplay.dataStructure.enums.ScorePrecision;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreStorage;
 import edu.yu.einstein.genplay.exception.ExceptionManager;
 import edu.yu.einstein.genplay.exception.exceptions.CompressionException;
+import edu.yu.einstein.genplay.exception.exceptions.DataLoadingException;
 import edu.yu.einstein.genplay.exception.exceptions.InvalidPrimitiveArrayGenericParameterException;
 
 
@@ -50,6 +51,32 @@ import edu.yu.einstein.genplay.exception.exceptions.InvalidPrimitiveArrayGeneric
  */
 public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Serializable, List<T>, RandomAccess, CompressibleList<T> {
 
+	/**
+	 * Cache of the last blocks decoded from a compressed list.
+	 * The least recently accessed block is removed when the cache is full.
+	 * @author Julien Lajugie
+	 */
+	private static class DecodedBlockCache extends LinkedHashMap<Integer, PrimitiveArrayWrapper<?>> {
+
+		/** Generated serial ID */
+		private static final long serialVersionUID = -2279403853712575254L;
+
+
+		/**
+		 * Creates an instance of {@link DecodedBlockCache}
+		 */
+		private DecodedBlockCache() {
+			super(DECODED_BLOCK_CACHE_SIZE + 1, 1f, true);
+		}
+
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, PrimitiveArrayWrapper<?>> eldest) {
+			return size() > DECODED_BLOCK_CACHE_SIZE;
+		}
+	}
+
+
 	/** Generated serial ID */
 	private static final long serialVersionUID = -3250259696514106453L;
 
@@ -59,9 +86,15 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	/** Size of the sub arrays */
 	private static final int DEFAULT_SUBARRAY_SIZE = 5000;
 
+	/** Number of decoded blocks kept in cache when the list is compressed */
+	private static final int DECODED_BLOCK_CACHE_SIZE = 16;
+
 	/** Precision of the data of the project */
 	private transient static ScorePrecision scorePrecision = ScorePrecision.PRECISION_32BIT;
 
+	/** Storage of the data of the project */
+	private transient static ScoreStorage scoreStorage = ScoreStorage.IN_MEMORY;
+
 	/**
 	 * Sets the score precision of the project
 	 * @param scorePrecision
@@ -70,6 +103,16 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 		PrimitiveList.scorePrecision = scorePrecision;
 	}
 
+	/**
+	 * Sets the score storage of the project.
+	 * Only the lists that are mappable are stored in memory-mapped files
+	 * when the storage is {@link ScoreStorage#MEMORY_MAPPED}.
+	 * @param scoreStorage
+	 */
+	public static void setScoreStorage(ScoreStorage scoreStorage) {
+		PrimitiveList.scoreStorage = scoreStorage;
+	}
+
 	/** We need to store the type of the element of the list because java
 	 * generics are not reified */
 	private final Class<T> elementClass;
@@ -77,19 +120,28 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	/** Size of the subarrays of the list */
 	private final int subarraySize;
 
-	/** List compressed as a ByteArrayOutputStream */
-	private transient ByteArrayOutputStream	compressedData = null;
+	/** Subarrays of the list compressed as independent blocks */
+	private transient byte[][] compressedBlocks = null;
+
+	/** Last blocks decoded when the list is compressed */
+	private transient DecodedBlockCache decodedBlocks = null;
 
 	/** Size of the list */
 	private transient int size = 0;
 
 	/** Data of the list */
-	private transient List<PrimitiveArrayWrapper<T>> elementData;
+	private transient volatile List<PrimitiveArrayWrapper<T>> elementData;
+
+	/** Loads the elements of the list the first time they are accessed. Null if the elements are loaded */
+	private transient volatile Callable<PrimitiveList<T>> elementLoader = null;
 
 
 	/** True if the list is compressed */
 	private transient boolean isCompressed = false;
 
+	/** True if the data of the list can be stored in memory-mapped files */
+	private transient boolean isMappable = false;
+
 
 	/**
 	 * Creates an instance of {@link PrimitiveList} with default initial capacity.
@@ -100,6 +152,18 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	}
 
 
+	/**
+	 * Creates an instance of {@link PrimitiveList} with default initial capacity.
+	 * @param elementClass class of the elements of the list
+	 * @param isMappable true if the data of the list can be stored in memory-mapped files.
+	 * The list will be stored in memory-mapped files if the score storage of the project is {@link ScoreStorage#MEMORY_MAPPED}
+	 */
+	public PrimitiveList(Class<T> elementClass, boolean isMappable) {
+		this(elementClass, DEFAULT_SUBARRAY_SIZE);
+		this.isMappable = isMappable;
+	}
+
+
 	/**
 	 * Constructs an empty list with the specified initial capacity.
 	 * @param elementClass class of the elements of the list
@@ -117,8 +181,28 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	}
 
 
+	/**
+	 * Creates an instance of {@link PrimitiveList} whose elements are loaded the first time they are accessed.
+	 * The loader returns a list with the same elements as the list to create.
+	 * @param elementClass class of the elements of the list
+	 * @param subarraySize size of the subarrays constituting the list
+	 * @param size size of the list
+	 * @param elementLoader loads the elements of the list
+	 */
+	public PrimitiveList(Class<T> elementClass, int subarraySize, int size, Callable<PrimitiveList<T>> elementLoader) {
+		this(elementClass, subarraySize);
+		this.size = size;
+		this.elementLoader = elementLoader;
+		elementData = null;
+	}
+
+
 	@Override
 	public boolean add(T e) {
+		loadElements();
+		if (isCompressed) {
+			uncompress();
+		}
 		int subarrayIndex = getSubarrayIndex(size);
 		int indexWithinSubarray = getIndexWithinSubarray(size);
 		ensureCapacity(++size);
@@ -127,23 +211,69 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	}
 
 
+	/**
+	 * Appends the specified values at the end of the list.
+	 * The subarrays are filled with bulk copies which is faster than adding the elements one by one.
+	 * The elements of the list must be numbers.
+	 * @param values array containing the values to append
+	 * @param valuesOffset index in the array of the first value to append
+	 * @param length number of values to append
+	 */
+	public void addFloats(float[] values, int valuesOffset, int length) {
+		int index = prepareBulkAdd(length);
+		int toIndex = index + length;
+		while (index < toIndex) {
+			int indexWithinSubarray = getIndexWithinSubarray(index);
+			int copyLength = Math.min(subarraySize - indexWithinSubarray, toIndex - index);
+			elementData.get(getSubarrayIndex(index)).setFloats(indexWithinSubarray, values, valuesOffset, copyLength);
+			valuesOffset += copyLength;
+			index += copyLength;
+		}
+	}
+
+
+	/**
+	 * Appends the specified values at the end of the list.
+	 * The subarrays are filled with bulk copies which is faster than adding the elements one by one.
+	 * The elements of the list must be numbers.
+	 * @param values array containing the values to append
+	 * @param valuesOffset index in the array of the first value to append
+	 * @param length number of values to append
+	 */
+	public void addInts(int[] values, int valuesOffset, int length) {
+		int index = prepareBulkAdd(length);
+		int toIndex = index + length;
+		while (index < toIndex) {
+			int indexWithinSubarray = getIndexWithinSubarray(index);
+			int copyLength = Math.min(subarraySize - indexWithinSubarray, toIndex - index);
+			elementData.get(getSubarrayIndex(index)).setInts(indexWithinSubarray, values, valuesOffset, copyLength);
+			valuesOffset += copyLength;
+			index += copyLength;
+		}
+	}
+
+
+	/**
+	 * Compresses the list.  Each subarray is encoded as an independent block so the
+	 * elements of a compressed list can still be accessed.  Only the blocks accessed are decoded
+	 * and the last blocks decoded are cached.
+	 */
 	@Override
-	public void compress() throws CompressionException {
-		try {
-			if ((!isCompressed) && (elementData != null)) {
-				compressedData = new ByteArrayOutputStream();
-				GZIPOutputStream gz = new GZIPOutputStream(compressedData);
-				ObjectOutputStream oos = new ObjectOutputStream(gz);
-				oos.writeObject(elementData);
-				oos.flush();
-				oos.close();
-				gz.flush();
-				gz.close();
+	public synchronized void compress() throws CompressionException {
+		loadElements();
+		if ((!isCompressed) && (elementData != null)) {
+			try {
+				byte[][] blocks = new byte[elementData.size()][];
+				for (int i = 0; i < blocks.length; i++) {
+					blocks[i] = PrimitiveArrayWrapperCodec.encode(elementData.get(i));
+				}
+				compressedBlocks = blocks;
+				decodedBlocks = new DecodedBlockCache();
 				elementData = null;
 				isCompressed = true;
+			} catch (InvalidPrimitiveArrayGenericParameterException e) {
+				throw new CompressionException("An error occure during the data compression");
 			}
-		} catch (IOException e) {
-			throw new CompressionException("An error occure during the data compression");
 		}
 	}
 
@@ -155,6 +285,10 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	 * @param   minCapacity   the desired minimum capacity
 	 */
 	public void ensureCapacity(int minCapacity) {
+		loadElements();
+		if (isCompressed) {
+			uncompress();
+		}
 		modCount++;
 		int oldCapacity = elementData.size() * subarraySize;
 		while (minCapacity > oldCapacity) {
@@ -172,6 +306,21 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	 * @throws InvalidPrimitiveArrayGenericParameterException If the generic paramter of the instance is not valid
 	 */
 	private PrimitiveArrayWrapper<?> generateEmptyPrimitiveArrayWrapper(int capacity) throws InvalidPrimitiveArrayGenericParameterException {
+		if (isMemoryMapped()) {
+			try {
+				if (elementClass == Integer.class) {
+					return new MappedIntArrayWrapper(capacity);
+				} else if (elementClass == Float.class) {
+					if (scorePrecision == ScorePrecision.PRECISION_16BIT) {
+						return new MappedHalfArrayWrapper(capacity);
+					} else if (scorePrecision == ScorePrecision.PRECISION_32BIT) {
+						return new MappedFloatArrayWrapper(capacity);
+					}
+				}
+			} catch (IOException e) {
+				handleMappingException(e);
+			}
+		}
 		if (elementClass == Integer.class) {
 			return new IntArrayWrapper(capacity);
 		} else if (elementClass == Float.class) {
@@ -194,7 +343,85 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 		rangeCheck(index);
 		int subarrayIndex = getSubarrayIndex(index);
 		int indexWithinSubarray = getIndexWithinSubarray(index);
-		return elementData.get(subarrayIndex).get(indexWithinSubarray);
+		return getSubarray(subarrayIndex).get(indexWithinSubarray);
+	}
+
+
+	/**
+	 * Returns the element at the specified index without creating a boxed object.
+	 * The elements of the list must be numbers.
+	 * @param index index of the element to return
+	 * @return the element at the specified position in this list as a primitive float
+	 */
+	public float getFloat(int index) {
+		rangeCheck(index);
+		int subarrayIndex = getSubarrayIndex(index);
+		int indexWithinSubarray = getIndexWithinSubarray(index);
+		return getSubarray(subarrayIndex).getFloat(indexWithinSubarray);
+	}
+
+
+	/**
+	 * Copies the elements of the list from index fromIndex (inclusive) to index toIndex (exclusive) in the specified array.
+	 * The elements of the list must be numbers.
+	 * @param fromIndex index of the first element to copy
+	 * @param toIndex index after the last element to copy
+	 * @param destination destination array
+	 * @param destinationIndex index in the destination array of the first element copied
+	 */
+	public void getFloats(int fromIndex, int toIndex, float[] destination, int destinationIndex) {
+		if (fromIndex < toIndex) {
+			rangeCheck(toIndex - 1);
+		}
+		int index = fromIndex;
+		while (index < toIndex) {
+			PrimitiveArrayWrapper<T> subarray = getSubarray(getSubarrayIndex(index));
+			int indexWithinSubarray = getIndexWithinSubarray(index);
+			int subarrayStop = Math.min(subarraySize, (toIndex - index) + indexWithinSubarray);
+			for (int i = indexWithinSubarray; i < subarrayStop; i++) {
+				destination[destinationIndex++] = subarray.getFloat(i);
+			}
+			index += subarrayStop - indexWithinSubarray;
+		}
+	}
+
+
+	/**
+	 * Returns the element at the specified index without creating a boxed object.
+	 * The elements of the list must be numbers.
+	 * @param index index of the element to return
+	 * @return the element at the specified position in this list as a primitive int
+	 */
+	public int getInt(int index) {
+		rangeCheck(index);
+		int subarrayIndex = getSubarrayIndex(index);
+		int indexWithinSubarray = getIndexWithinSubarray(index);
+		return getSubarray(subarrayIndex).getInt(indexWithinSubarray);
+	}
+
+
+	/**
+	 * Copies the elements of the list from index fromIndex (inclusive) to index toIndex (exclusive) in the specified array.
+	 * The elements of the list must be numbers.
+	 * @param fromIndex index of the first element to copy
+	 * @param toIndex index after the last element to copy
+	 * @param destination destination array
+	 * @param destinationIndex index in the destination array of the first element copied
+	 */
+	public void getInts(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		if (fromIndex < toIndex) {
+			rangeCheck(toIndex - 1);
+		}
+		int index = fromIndex;
+		while (index < toIndex) {
+			PrimitiveArrayWrapper<T> subarray = getSubarray(getSubarrayIndex(index));
+			int indexWithinSubarray = getIndexWithinSubarray(index);
+			int subarrayStop = Math.min(subarraySize, (toIndex - index) + indexWithinSubarray);
+			for (int i = indexWithinSubarray; i < subarrayStop; i++) {
+				destination[destinationIndex++] = subarray.getInt(i);
+			}
+			index += subarrayStop - indexWithinSubarray;
+		}
 	}
 
 
@@ -207,6 +434,33 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	}
 
 
+	/**
+	 * Returns the specified subarray.  If the list is compressed the subarray
+	 * is decoded or retrieved from the cache of the decoded blocks.
+	 * @param subarrayIndex index of a subarray
+	 * @return the subarray with the specified index
+	 */
+	@SuppressWarnings("unchecked")
+	private PrimitiveArrayWrapper<T> getSubarray(int subarrayIndex) {
+		List<PrimitiveArrayWrapper<T>> data = elementData;
+		if (data != null) {
+			return data.get(subarrayIndex);
+		}
+		loadElements();
+		synchronized (this) {
+			if (!isCompressed) {
+				return elementData.get(subarrayIndex);
+			}
+			PrimitiveArrayWrapper<?> subarray = decodedBlocks.get(subarrayIndex);
+			if (subarray == null) {
+				subarray = PrimitiveArrayWrapperCodec.decode(compressedBlocks[subarrayIndex]);
+				decodedBlocks.put(subarrayIndex, subarray);
+			}
+			return (PrimitiveArrayWrapper<T>) subarray;
+		}
+	}
+
+
 	/**
 	 * @param index an index
 	 * @return the index of the subarray containing the specified index
@@ -216,8 +470,60 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	}
 
 
+	/**
+	 * Reports an exception thrown while creating a memory-mapped file and
+	 * stores the data of the following lists on the heap.
+	 * @param e exception thrown while creating a memory-mapped file
+	 */
+	private static void handleMappingException(IOException e) {
+		if (scoreStorage == ScoreStorage.MEMORY_MAPPED) {
+			scoreStorage = ScoreStorage.IN_MEMORY;
+			ExceptionManager.getInstance().caughtException(Thread.currentThread(), e, "The scores cannot be stored in memory-mapped files, the memory will be used instead");
+		}
+	}
+
+
+	/**
+	 * @return the number of bytes of the compressed blocks of the list, 0 if the list is not compressed
+	 */
+	public synchronized long getCompressedSize() {
+		long compressedSize = 0;
+		if (isCompressed && (compressedBlocks != null)) {
+			for (byte[] currentBlock: compressedBlocks) {
+				compressedSize += currentBlock.length;
+			}
+		}
+		return compressedSize;
+	}
+
+
+	/**
+	 * @return the class of the elements of the list
+	 */
+	public Class<T> getElementClass() {
+		return elementClass;
+	}
+
+
+	/**
+	 * @return the loader of the elements of the list if the elements are not loaded yet, null otherwise
+	 */
+	public Callable<PrimitiveList<T>> getElementLoader() {
+		return elementLoader;
+	}
+
+
+	/**
+	 * @return the size of the subarrays constituting the list
+	 */
+	public int getSubarraySize() {
+		return subarraySize;
+	}
+
+
 	@Override
 	public boolean isCompressed() throws CompressionException {
+		loadElements();
 		return isCompressed;
 	}
 
@@ -228,6 +534,70 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	}
 
 
+	/**
+	 * @return true if the data of the list must be stored in memory-mapped files
+	 */
+	private boolean isMemoryMapped() {
+		return isMappable && (scoreStorage == ScoreStorage.MEMORY_MAPPED);
+	}
+
+
+	/**
+	 * Loads the elements of the list if they are not loaded yet
+	 * @throws DataLoadingException if the elements of the list cannot be loaded
+	 */
+	public void loadElements() throws DataLoadingException {
+		if (elementLoader != null) {
+			synchronized (this) {
+				Callable<PrimitiveList<T>> loader = elementLoader;
+				if (loader != null) {
+					PrimitiveList<T> loadedList;
+					try {
+						loadedList = loader.call();
+					} catch (Exception e) {
+						throw new DataLoadingException("The elements of the list cannot be loaded", e);
+					}
+					size = loadedList.size;
+					isCompressed = loadedList.isCompressed;
+					compressedBlocks = loadedList.compressedBlocks;
+					decodedBlocks = loadedList.decodedBlocks;
+					elementData = loadedList.elementData;
+					elementLoader = null;
+					moveToMappedStorage();
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Moves the data of the list to memory-mapped files if the list is mappable and if the
+	 * storage of the project is {@link ScoreStorage#MEMORY_MAPPED}.
+	 * This method does nothing if the list is compressed.  The list is moved when uncompressed.
+	 */
+	@SuppressWarnings("unchecked")
+	private void moveToMappedStorage() {
+		if (isMemoryMapped() && (elementData != null)) {
+			try {
+				for (int i = 0; i < elementData.size(); i++) {
+					PrimitiveArrayWrapper<?> subarray = elementData.get(i);
+					PrimitiveArrayWrapper<?> mappedSubarray = subarray;
+					if (subarray instanceof IntArrayWrapper) {
+						mappedSubarray = new MappedIntArrayWrapper((IntArrayWrapper) subarray);
+					} else if (subarray instanceof FloatArrayWrapper) {
+						mappedSubarray = new MappedFloatArrayWrapper((FloatArrayWrapper) subarray);
+					} else if (subarray instanceof HalfArrayWrapper) {
+						mappedSubarray = new MappedHalfArrayWrapper((HalfArrayWrapper) subarray);
+					}
+					elementData.set(i, (PrimitiveArrayWrapper<T>) mappedSubarray);
+				}
+			} catch (IOException e) {
+				handleMappingException(e);
+			}
+		}
+	}
+
+
 	/**
 	 * @param index
 	 * @return A message specifying what was the index and what was the size of the list
@@ -237,6 +607,24 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	}
 
 
+	/**
+	 * Grows the list so it can receive the specified number of new elements
+	 * and increases its size accordingly
+	 * @param length number of elements that will be appended
+	 * @return the index of the first new element
+	 */
+	private int prepareBulkAdd(int length) {
+		loadElements();
+		if (isCompressed) {
+			uncompress();
+		}
+		int index = size;
+		size += length;
+		ensureCapacity(size);
+		return index;
+	}
+
+
 	/**
 	 * Checks if the given index is in range.  If not, throws an appropriate
 	 * runtime exception.  This method does *not* check if the index is
@@ -266,16 +654,32 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 		// read other fields
 		size = in.readInt();
 		elementData = (List<PrimitiveArrayWrapper<T>>) in.readObject();
-		isCompressed = in.readBoolean();
 		// compress the list if it was compressed when serialized
-		if (isCompressed) {
+		if (in.readBoolean()) {
 			compress();
 		}
 	}
 
 
+	/**
+	 * Sets whether the data of the list can be stored in memory-mapped files.
+	 * This property is not serialized and needs to be set again after deserialization.
+	 * If the list becomes mappable and the storage of the project is {@link ScoreStorage#MEMORY_MAPPED}
+	 * the data of the list are moved to memory-mapped files.
+	 * @param isMappable true if the data of the list can be stored in memory-mapped files
+	 */
+	public void setMappable(boolean isMappable) {
+		this.isMappable = isMappable;
+		moveToMappedStorage();
+	}
+
+
 	@Override
 	public T set(int index, T element) {
+		loadElements();
+		if (isCompressed) {
+			uncompress();
+		}
 		rangeCheck(index);
 		int subarrayIndex = getSubarrayIndex(index);
 		int indexWithinSubarray = getIndexWithinSubarray(index);
@@ -295,6 +699,10 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	 * the storage of an <tt>ArrayList</tt> instance.
 	 */
 	public void trimToSize() {
+		loadElements();
+		if (isCompressed) {
+			uncompress();
+		}
 		modCount++;
 		int oldCapacity = elementData.size() * subarraySize;
 		if (size < oldCapacity) {
@@ -307,20 +715,18 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 
 	@SuppressWarnings("unchecked")
 	@Override
-	public void uncompress() throws CompressionException {
-		try {
-			if ((isCompressed) && (compressedData != null)) {
-				ByteArrayInputStream bais = new ByteArrayInputStream(compressedData.toByteArray());
-				GZIPInputStream gz = new GZIPInputStream(bais);
-				ObjectInputStream ois = new ObjectInputStream(gz);
-				elementData = (List<PrimitiveArrayWrapper<T>>) ois.readObject();
-				compressedData = null;
-				isCompressed = false;
+	public synchronized void uncompress() throws CompressionException {
+		loadElements();
+		if ((isCompressed) && (compressedBlocks != null)) {
+			List<PrimitiveArrayWrapper<T>> data = new ArrayList<PrimitiveArrayWrapper<T>>(compressedBlocks.length);
+			for (byte[] currentBlock: compressedBlocks) {
+				data.add((PrimitiveArrayWrapper<T>) PrimitiveArrayWrapperCodec.decode(currentBlock));
 			}
-		} catch (IOException e) {
-			throw new CompressionException("An error occure during the data uncompression");
-		} catch (ClassNotFoundException e) {
-			throw new CompressionException("An error occure during the data uncompression");
+			compressedBlocks = null;
+			decodedBlocks = null;
+			isCompressed = false;
+			elementData = data;
+			moveToMappedStorage();
 		}
 	}
 
@@ -331,6 +737,7 @@ public class PrimitiveList<T> extends AbstractList<T> implements Cloneable, Seri
 	 * @throws IOException
 	 */
 	private void writeObject(ObjectOutputStream out) throws IOException {
+		loadElements();
 		// write the class version number
 		out.writeInt(CLASS_VERSION_NUMBER);
 		// write non transient fields
@@ -26,10 +26,14 @@ import java.io.File;
 
 import javax.swing.JOptionPane;
 
+import edu.yu.einstein.genplay.core.IO.dataReader.DataReader;
+import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.extractor.Extractor;
 import edu.yu.einstein.genplay.core.IO.extractor.ExtractorFactory;
 import edu.yu.einstein.genplay.core.IO.extractor.StrandedExtractor;
+import edu.yu.einstein.genplay.core.IO.fileSorter.ExternalSCWSorter;
 import edu.yu.einstein.genplay.core.IO.fileSorter.ExternalSortAdapter;
+import edu.yu.einstein.genplay.core.IO.utils.Extractors;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.exception.ExceptionManager;
 import edu.yu.einstein.genplay.exception.exceptions.ElementAddedNotSortedException;
@@ -51,6 +55,7 @@ public abstract class TrackListActionExtractorWorker<T> extends TrackListActionW
 	protected String							name;					// a name
 	protected Extractor							extractor;				// an extractor
 	protected boolean[]							selectedChromo = null;	// selected chromo
+	private ExternalSCWSorter					sortedReader = null;	// reader sorting the data of the extractor, null if the file is sorted
 
 
 	/**
@@ -63,6 +68,27 @@ public abstract class TrackListActionExtractorWorker<T> extends TrackListActionW
 	}
 
 
+	/**
+	 * Creates a new extractor for the specified file with the same parameters as the current extractor
+	 * @param file file to extract
+	 * @return a new {@link Extractor}
+	 * @throws Exception
+	 */
+	private Extractor createExtractor(File file) throws Exception {
+		Extractor newExtractor = ExtractorFactory.getExtractor(file);
+		newExtractor.addInvalidDataListener(this);
+		newExtractor.addOperationProgressListener(this);
+		newExtractor.setGenomeName(genomeName);
+		newExtractor.setAlleleType(alleleType);
+		newExtractor.setChromosomeSelector(extractor.getChromosomeSelector());
+		newExtractor.setFirstBasePosition(extractor.getFirstBasePosition());
+		if (extractor instanceof StrandedExtractor) {
+			((StrandedExtractor) newExtractor).setStrandedExtractorOptions(((StrandedExtractor) extractor).getStrandedExtractorOptions());
+		}
+		return newExtractor;
+	}
+
+
 	/**
 	 * Can be overridden to define actions to do before the extraction
 	 */
@@ -78,6 +104,19 @@ public abstract class TrackListActionExtractorWorker<T> extends TrackListActionW
 	abstract protected T generateList() throws Exception;
 
 
+	/**
+	 * @return the extractor as a {@link SCWReader}.  If the file is not sorted and its data
+	 * are sorted while being loaded, the extractor is wrapped into an {@link ExternalSCWSorter}
+	 * @throws ClassCastException if the extractor is not a {@link SCWReader}
+	 */
+	protected SCWReader getSCWReader() {
+		if (sortedReader != null) {
+			return sortedReader;
+		}
+		return (SCWReader) extractor;
+	}
+
+
 	/**
 	 * Handles an exception occurring in the {@link #processAction()} method
 	 * @param e exception caught in {@link #processAction()}
@@ -103,31 +142,34 @@ public abstract class TrackListActionExtractorWorker<T> extends TrackListActionW
 
 	/**
 	 * Asks the user if he wants to sort the input file.
+	 * When the data of the file can be sorted while being loaded the file is read again through an
+	 * {@link ExternalSCWSorter}.  Otherwise a sorted copy of the file is generated and loaded.
 	 * @return the result from {@link #generateList()} if the file can be sorted, null otherwise
 	 * @throws Exception
 	 */
 	private T handleUnsortedFile() throws Exception {
-		File sortedFile = ExternalSortAdapter.generateOutputFile(extractor.getDataFile());
-		int answer = JOptionPane.showConfirmDialog(getRootPane(), "GenPlay cannot load the selected file because it is not sorted.\n"
-				+ "Do you want GenPlay to sort the file?\n"
-				+ "(This will generate a new file with a .sorted prefix)", "Sort File", JOptionPane.YES_NO_OPTION);
-		if (answer == JOptionPane.YES_OPTION) {
-			if (!Utils.cancelBecauseFileExist(getRootPane(), sortedFile)) {
-				notifyActionStart("Sorting File", 1, false);
-				ExternalSortAdapter.externalSortGenomicFile(extractor.getDataFile());
-				Extractor newExtractor = ExtractorFactory.getExtractor(sortedFile);
-				newExtractor.addInvalidDataListener(this);
-				newExtractor.addOperationProgressListener(this);
-				newExtractor.setGenomeName(genomeName);
-				newExtractor.setAlleleType(alleleType);
-				newExtractor.setChromosomeSelector(extractor.getChromosomeSelector());
-				newExtractor.setFirstBasePosition(extractor.getFirstBasePosition());
-				if (extractor instanceof StrandedExtractor) {
-					((StrandedExtractor) newExtractor).setStrandedExtractorOptions(((StrandedExtractor) extractor).getStrandedExtractorOptions());
-				}
-				extractor = newExtractor;
+		if (isSortedWhileLoading() && (extractor instanceof SCWReader) && (sortedReader == null)) {
+			int answer = JOptionPane.showConfirmDialog(getRootPane(), "GenPlay cannot load the selected file because it is not sorted.\n"
+					+ "Do you want GenPlay to sort the data while loading the file?\n"
+					+ "(The file will not be modified)", "Sort File", JOptionPane.YES_NO_OPTION);
+			if (answer == JOptionPane.YES_OPTION) {
+				extractor = createExtractor(extractor.getDataFile());
+				sortedReader = new ExternalSCWSorter((SCWReader) extractor);
 				return generateList();
 			}
+		} else {
+			File sortedFile = ExternalSortAdapter.generateOutputFile(extractor.getDataFile());
+			int answer = JOptionPane.showConfirmDialog(getRootPane(), "GenPlay cannot load the selected file because it is not sorted.\n"
+					+ "Do you want GenPlay to sort the file?\n"
+					+ "(This will generate a new file with a .sorted prefix)", "Sort File", JOptionPane.YES_NO_OPTION);
+			if (answer == JOptionPane.YES_OPTION) {
+				if (!Utils.cancelBecauseFileExist(getRootPane(), sortedFile)) {
+					notifyActionStart("Sorting File", 1, false);
+					ExternalSortAdapter.externalSortGenomicFile(extractor.getDataFile());
+					extractor = createExtractor(sortedFile);
+					return generateList();
+				}
+			}
 		}
 		stop();
 		return null;
@@ -140,6 +182,15 @@ public abstract class TrackListActionExtractorWorker<T> extends TrackListActionW
 	}
 
 
+	/**
+	 * Can be overridden by the actions that retrieve their data with {@link #getSCWReader()}
+	 * @return true if the data of unsorted files can be sorted while being loaded instead of generating a sorted copy of the file
+	 */
+	protected boolean isSortedWhileLoading() {
+		return false;
+	}
+
+
 	@Override
 	protected final T processAction() throws Exception {
 		try {
@@ -162,6 +213,14 @@ public abstract class TrackListActionExtractorWorker<T> extends TrackListActionW
 				extractor.stop();
 			}
 			handleProcessActionException(e);
+		} finally {
+			// releases the threads and the files of the readers, also when the extraction was abandoned
+			if (sortedReader != null) {
+				sortedReader.close();
+			}
+			if (extractor instanceof DataReader) {
+				Extractors.close((DataReader) extractor);
+			}
 		}
 		throw new InterruptedException();
 	}
@@ -182,6 +241,9 @@ public abstract class TrackListActionExtractorWorker<T> extends TrackListActionW
 	 */
 	@Override
 	public void stop() {
+		if (sortedReader != null) {
+			sortedReader.stop();
+		}
 		if (extractor instanceof Stoppable) {
 			((Stoppable) extractor).stop();
 		}
@@ -24,7 +24,6 @@ package edu.yu.einstein.genplay.gui.action.track;
 
 import javax.swing.ActionMap;
 
-import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.extractor.Extractor;
 import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
 import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
@@ -99,10 +98,19 @@ public final class TAAddMaskLayer extends TrackListActionExtractorWorker<SCWList
 	public SCWList generateList() throws Exception {
 		try {
 			notifyActionStart("Generating Mask Layer", 1 + SimpleSCWList.getCreationStepCount(SCWListType.MASK), true);
-			SCWList maskList = SCWListFactory.createMaskSCWList((SCWReader) extractor);
+			SCWList maskList = SCWListFactory.createMaskSCWList(getSCWReader());
 			return maskList;
 		} catch (ClassCastException e) {
 			throw new InvalidFileTypeException();
 		}
 	}
+
+
+	/**
+	 * @return true because the data of the layer are retrieved with {@link #getSCWReader()}
+	 */
+	@Override
+	protected boolean isSortedWhileLoading() {
+		return true;
+	}
 }
@@ -24,7 +24,6 @@ package edu.yu.einstein.genplay.gui.action.track;
 
 import javax.swing.ActionMap;
 
-import edu.yu.einstein.genplay.core.IO.dataReader.SCWReader;
 import edu.yu.einstein.genplay.core.IO.extractor.Extractor;
 import edu.yu.einstein.genplay.core.IO.extractor.SAMExtractor;
 import edu.yu.einstein.genplay.core.IO.extractor.StrandedExtractor;
@@ -213,18 +212,18 @@ public final class TAAddSCWLayer extends TrackListActionExtractorWorker<SCWList>
 				 */
 				if (isBinList) {
 					notifyActionStart("Generating Fixed-Window Layer", (BinList.getCreationStepCount(SCWListType.BIN) * 3) + 2, true);
-					scwList = SCWListFactory.createStrandSafeBinList((SCWReader) extractor, binSize, scoreCalculation);
+					scwList = SCWListFactory.createStrandSafeBinList(getSCWReader(), binSize, scoreCalculation);
 				} else {
 					notifyActionStart("Generating Variable-Window Layer", (SimpleSCWList.getCreationStepCount(SCWListType.GENERIC) * 3) + 2, true);
-					scwList = SCWListFactory.createStrandSafeDenseSCWList((SCWReader) extractor, scoreCalculation);
+					scwList = SCWListFactory.createStrandSafeDenseSCWList(getSCWReader(), scoreCalculation);
 				}
 			} else {
 				if (isBinList) {
 					notifyActionStart("Generating Fixed-Window Layer", BinList.getCreationStepCount(SCWListType.BIN) + 1, true);
-					scwList = SCWListFactory.createBinList((SCWReader) extractor, binSize, scoreCalculation);
+					scwList = SCWListFactory.createBinList(getSCWReader(), binSize, scoreCalculation);
 				} else {
 					notifyActionStart("Generating Variable-Window Layer", SimpleSCWList.getCreationStepCount(SCWListType.GENERIC) + 1, true);
-					scwList = SCWListFactory.createDenseSCWList((SCWReader) extractor, scoreCalculation);
+					scwList = SCWListFactory.createDenseSCWList(getSCWReader(), scoreCalculation);
 				}
 			}
 			return scwList;
@@ -232,4 +231,13 @@ public final class TAAddSCWLayer extends TrackListActionExtractorWorker<SCWList>
 			throw new InvalidFileTypeException();
 		}
 	}
-}
\ No newline at end of file
+
+
+	/**
+	 * @return true because the data of the layer are retrieved with {@link #getSCWReader()}
+	 */
+	@Override
+	protected boolean isSortedWhileLoading() {
+		return true;
+	}
+}
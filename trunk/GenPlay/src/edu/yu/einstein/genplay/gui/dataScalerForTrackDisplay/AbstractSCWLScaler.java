@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.gui.dataScalerForTrackDisplay;
+
+import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
+import edu.yu.einstein.genplay.dataStructure.genomeWindow.GenomeWindow;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListZoomPyramid.ZoomPyramid;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.exception.ExceptionManager;
+import edu.yu.einstein.genplay.util.ListView.ChromosomeWindowListViews;
+import edu.yu.einstein.genplay.util.ListView.SCWListViews;
+
+
+/**
+ * Base class of the scalers of {@link SCWList}.
+ * <br/>The displayed region is scaled using the {@link ZoomPyramid} of the list so the time needed to scale
+ * the data depends on the number of pixels of the track and not on the size of the data.
+ * The zoom pyramid of a chromosome is built in a background thread the first time the chromosome is displayed.
+ * @param <T> type of the scaled {@link SCWList}
+ * @author Julien Lajugie
+ */
+abstract class AbstractSCWLScaler<T extends SCWList> implements DataScalerForTrackDisplay<T, ListView<ScoredChromosomeWindow>> {
+
+	/**
+	 * Thread that builds the zoom pyramid of a chromosome and redraws the layers when the pyramid is ready.
+	 * @author Julien Lajugie
+	 */
+	private class PyramidBuilderThread extends Thread {
+
+		/** Index of the chromosome of the pyramid to build */
+		private final int chromosomeIndex;
+
+
+		/**
+		 * Creates an instance of {@link PyramidBuilderThread}
+		 * @param chromosomeIndex index of the chromosome of the pyramid to build
+		 */
+		private PyramidBuilderThread(int chromosomeIndex) {
+			this.chromosomeIndex = chromosomeIndex;
+		}
+
+
+		@Override
+		public void run() {
+			setName("Data Scaler Thread");
+			try {
+				dataToScale.getZoomPyramid().get(chromosomeIndex);
+			} catch (Exception e) {
+				ExceptionManager.getInstance().caughtException(e);
+				return;
+			}
+			DataScalerManager.getInstance().redrawLayers(AbstractSCWLScaler.this);
+		}
+	}
+
+
+	/** Thread building the zoom pyramid of the displayed chromosome */
+	private PyramidBuilderThread builderThread;
+
+	/** Scaled genome window */
+	private GenomeWindow scaledWindow;
+
+	/** Scaled xRatio (ratio between the track width and the displayed genome window width) */
+	private double scaledXRatio;
+
+	/** The scw list scaled for the scaled genome window and xRatio */
+	private ListView<ScoredChromosomeWindow> scaledSCWList;
+
+	/** Data to be scaled for track display */
+	private final T dataToScale;
+
+
+	/**
+	 * Creates an instance of {@link AbstractSCWLScaler}
+	 * @param dataToScale the data that needs to be scaled
+	 */
+	AbstractSCWLScaler(T dataToScale) {
+		this.dataToScale = dataToScale;
+	}
+
+
+	@Override
+	public synchronized ListView<ScoredChromosomeWindow> getDataScaledForTrackDisplay() {
+		GenomeWindow projectWindow = ProjectManager.getInstance().getProjectWindow().getGenomeWindow();
+		double projectXRatio = ProjectManager.getInstance().getProjectWindow().getXRatio();
+		// if the project window or the xRatio changed we need to rescale the data
+		if ((scaledSCWList == null) || !projectWindow.equals(scaledWindow) || (projectXRatio != scaledXRatio)) {
+			scaledSCWList = scale(projectWindow, projectXRatio);
+			scaledWindow = projectWindow;
+			scaledXRatio = projectXRatio;
+		}
+		return scaledSCWList;
+	}
+
+
+	@Override
+	public T getDataToScale() {
+		return dataToScale;
+	}
+
+
+	/**
+	 * @param genomeWindow a genome window
+	 * @param xRatio ratio between the track width and the genome window width
+	 * @return the data of the genome window scaled for the specified xRatio.
+	 * Null if the zoom pyramid of the chromosome is not ready yet
+	 */
+	private ListView<ScoredChromosomeWindow> scale(GenomeWindow genomeWindow, double xRatio) {
+		int chromosomeIndex = ProjectManager.getInstance().getProjectChromosomes().getIndex(genomeWindow.getChromosome());
+		SCWListView chromosomeList = SCWListViews.asSCWListView(dataToScale.get(chromosomeIndex));
+		if ((chromosomeList == null) || chromosomeList.isEmpty()) {
+			return chromosomeList;
+		}
+		ZoomPyramid pyramid = dataToScale.getZoomPyramid().getIfBuilt(chromosomeIndex);
+		if (pyramid == null) {
+			if ((builderThread == null) || !builderThread.isAlive() || (builderThread.chromosomeIndex != chromosomeIndex)) {
+				builderThread = new PyramidBuilderThread(chromosomeIndex);
+				builderThread.start();
+			}
+			return null;
+		}
+		int start = genomeWindow.getStart();
+		int stop = genomeWindow.getStop();
+		int level = pyramid.getZoomLevel(1 / xRatio);
+		if (level == -1) {
+			// the tiles of the pyramid are larger than a pixel, the windows are scaled directly
+			SCWListView displayedList = SCWListViews.asSCWListView(ChromosomeWindowListViews.subList(chromosomeList, start, stop));
+			return scaleWindows(displayedList, xRatio);
+		}
+		int firstTile = Math.max(0, pyramid.getTileIndex(level, start));
+		int lastTile = Math.min(pyramid.getTileCount(level) - 1, pyramid.getTileIndex(level, stop));
+		return scaleTiles(pyramid, level, firstTile, lastTile, xRatio);
+	}
+
+
+	/**
+	 * Scales the tiles of the zoom pyramid.  The tiles are smaller than or equal to a pixel
+	 * @param pyramid {@link ZoomPyramid} of the displayed chromosome
+	 * @param level level of the pyramid to use
+	 * @param firstTile index of the first displayed tile
+	 * @param lastTile index of the last displayed tile (inclusive)
+	 * @param xRatio ratio between the track width and the genome window width
+	 * @return the scaled data
+	 */
+	abstract ListView<ScoredChromosomeWindow> scaleTiles(ZoomPyramid pyramid, int level, int firstTile, int lastTile, double xRatio);
+
+
+	/**
+	 * Scales the displayed windows when the tiles of the zoom pyramid are larger than a pixel
+	 * @param displayedList windows of the displayed genome window
+	 * @param xRatio ratio between the track width and the genome window width
+	 * @return the scaled data
+	 */
+	abstract ListView<ScoredChromosomeWindow> scaleWindows(SCWListView displayedList, double xRatio);
+}
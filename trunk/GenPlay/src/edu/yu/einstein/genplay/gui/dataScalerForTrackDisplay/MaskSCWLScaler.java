@@ -22,128 +22,79 @@
  ******************************************************************************/
 package edu.yu.einstein.genplay.gui.dataScalerForTrackDisplay;
 
-import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
-import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
-import edu.yu.einstein.genplay.dataStructure.genomeWindow.GenomeWindow;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.mask.MaskListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListZoomPyramid.ZoomPyramid;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
-import edu.yu.einstein.genplay.exception.ExceptionManager;
-import edu.yu.einstein.genplay.exception.exceptions.InvalidChromosomeException;
-import edu.yu.einstein.genplay.util.ListView.ChromosomeWindowListViews;
 
 
 /**
  * This class scales a {@link SCWList} of masks to be displayed on a track.
  * @author Julien Lajugie
  */
-class MaskSCWLScaler implements DataScalerForTrackDisplay<SCWList, ListView<ScoredChromosomeWindow>> {
-
-	/**
-	 * Threads that computes the scaled data for the chromosome currently displayed
-	 * at the current zoom level and screen resolution.
-	 * @author Julien Lajugie
-	 */
-	private class ScalerThread extends Thread {
-
-		@Override
-		public void run() {
-			Thread thisThread = Thread.currentThread();
-			setName("Data Scaler Thread");
-			ListView<ScoredChromosomeWindow> currentChromosomeList;
-			try {
-				currentChromosomeList = dataToScale.get(scaledChromosome);
-			} catch (InvalidChromosomeException e) {
-				ExceptionManager.getInstance().caughtException(e);
-				return;
-			}
-			if ((currentChromosomeList == null) || currentChromosomeList.isEmpty() || (scaledXRatio >= 1)) {
-				scaledSCWList = currentChromosomeList;
-			} else {
-				// compute the width on the genome that takes up 1 pixel on the screen
-				double pixelGenomicWidth = 1 / scaledXRatio;
-				MaskListViewBuilder maskLVBuilder = new MaskListViewBuilder();
-				int i = 0;
-				while (i < currentChromosomeList.size()) {
-					if (thisThread != scalerThread) {
-						scaledSCWList = null;
-						return;
-					}
-					int currentStart = currentChromosomeList.get(i).getStart();
-					int currentStop = currentChromosomeList.get(i).getStop();
-					// we merge two windows together if there is a next window
-					// and if the gap between the current window and the next one is smaller than 1 pixel
-					while (((i + 1) < currentChromosomeList.size())
-							&& ((currentChromosomeList.get(i + 1).getStart() - currentStop) < pixelGenomicWidth)) {
-						i++;
-						// the new stop is the one of the next window
-						currentStop = currentChromosomeList.get(i).getStop();
-					}
-					maskLVBuilder.addElementToBuild(currentStart, currentStop);
-					i++;
-				}
-				scaledSCWList = maskLVBuilder.getListView();
-			}
-			DataScalerManager.getInstance().redrawLayers(MaskSCWLScaler.this);
-		}
-	}
-
-	/** Thread that scales the data */
-	private ScalerThread scalerThread;
-
-	/** scaled chromosome */
-	private Chromosome scaledChromosome;
-
-	/** Scaled xRatio (ratio between the track width and the displayed genome window width) */
-	private double scaledXRatio;
-
-	/** The SCW list scaled for a specified chromosome and xRatio */
-	private ListView<ScoredChromosomeWindow> scaledSCWList;
-
-	/** Data to be scaled for track display */
-	private final SCWList dataToScale;
-
+class MaskSCWLScaler extends AbstractSCWLScaler<SCWList> {
 
 	/**
 	 * Creates an instance of {@link MaskSCWLScaler}
 	 * @param dataToScale the data that needs to be scaled
 	 */
 	MaskSCWLScaler(SCWList dataToScale) {
-		this.dataToScale = dataToScale;
+		super(dataToScale);
 	}
 
 
 	@Override
-	public ListView<ScoredChromosomeWindow> getDataScaledForTrackDisplay() {
-		GenomeWindow projectWindow = ProjectManager.getInstance().getProjectWindow().getGenomeWindow();
-		double projectXRatio = ProjectManager.getInstance().getProjectWindow().getXRatio();
-		// if the chromosome or the xRatio of the project window changed we need to rescale the data
-		if (!projectWindow.getChromosome().equals(scaledChromosome) || (projectXRatio != scaledXRatio)) {
-			scaledChromosome = projectWindow.getChromosome();
-			scaledXRatio = projectXRatio;
-			scaleChromosome();
+	ListView<ScoredChromosomeWindow> scaleTiles(ZoomPyramid pyramid, int level, int firstTile, int lastTile, double xRatio) {
+		double pixelGenomicWidth = 1 / xRatio;
+		MaskListViewBuilder maskLVBuilder = new MaskListViewBuilder();
+		int currentStart = -1;
+		int currentStop = -1;
+		for (int i = firstTile; i <= lastTile; i++) {
+			if (pyramid.getCoverage(level, i) > 0) {
+				int tileStart = pyramid.getTileStart(level, i);
+				// we merge the tiles if the gap between them is smaller than 1 pixel
+				if ((currentStart != -1) && ((tileStart - currentStop) >= pixelGenomicWidth)) {
+					maskLVBuilder.addElementToBuild(currentStart, currentStop);
+					currentStart = -1;
+				}
+				if (currentStart == -1) {
+					currentStart = tileStart;
+				}
+				currentStop = pyramid.getTileStop(level, i);
+			}
 		}
-		if (scaledSCWList == null) {
-			return null;
+		if (currentStart != -1) {
+			maskLVBuilder.addElementToBuild(currentStart, currentStop);
 		}
-		return ChromosomeWindowListViews.subList(scaledSCWList, projectWindow.getStart(), projectWindow.getStop());
+		return maskLVBuilder.getListView();
 	}
 
 
 	@Override
-	public SCWList getDataToScale() {
-		return dataToScale;
-	}
-
-
-	/**
-	 * Starts the thread that scales the current chromosome
-	 * for the current zoom level and screen resolution
-	 */
-	private void scaleChromosome() {
-		scaledSCWList = null;
-		scalerThread = new ScalerThread();
-		scalerThread.start();
+	ListView<ScoredChromosomeWindow> scaleWindows(SCWListView displayedList, double xRatio) {
+		if (xRatio >= 1) {
+			return displayedList;
+		}
+		// compute the width on the genome that takes up 1 pixel on the screen
+		double pixelGenomicWidth = 1 / xRatio;
+		MaskListViewBuilder maskLVBuilder = new MaskListViewBuilder();
+		int i = 0;
+		while (i < displayedList.size()) {
+			int currentStart = displayedList.getStart(i);
+			int currentStop = displayedList.getStop(i);
+			// we merge two windows together if there is a next window
+			// and if the gap between the current window and the next one is smaller than 1 pixel
+			while (((i + 1) < displayedList.size())
+					&& ((displayedList.getStart(i + 1) - currentStop) < pixelGenomicWidth)) {
+				i++;
+				// the new stop is the one of the next window
+				currentStop = displayedList.getStop(i);
+			}
+			maskLVBuilder.addElementToBuild(currentStart, currentStop);
+			i++;
+		}
+		return maskLVBuilder.getListView();
 	}
 }
@@ -25,145 +25,79 @@ package edu.yu.einstein.genplay.gui.dataScalerForTrackDisplay;
 import java.util.ArrayList;
 import java.util.List;
 
-import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
-import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
-import edu.yu.einstein.genplay.dataStructure.genomeWindow.GenomeWindow;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListZoomPyramid.ZoomPyramid;
 import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SimpleSCWList.SimpleSCWList;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
 import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
-import edu.yu.einstein.genplay.exception.ExceptionManager;
-import edu.yu.einstein.genplay.exception.exceptions.InvalidChromosomeException;
 import edu.yu.einstein.genplay.util.FloatLists;
-import edu.yu.einstein.genplay.util.ListView.ChromosomeWindowListViews;
 
 
 /**
  * This class scales a {@link SimpleSCWList}to be displayed on a track.
  * @author Julien Lajugie
  */
-class SimpleSCWLScaler implements DataScalerForTrackDisplay<SCWList, ListView<ScoredChromosomeWindow>> {
-
-	/**
-	 * Threads that computes the scaled data for the chromosome currently displayed
-	 * at the current zoom level and screen resolution.
-	 * @author Julien Lajugie
-	 */
-	private class ScalerThread extends Thread {
-
-		@Override
-		public void run() {
-			Thread thisThread = Thread.currentThread();
-			setName("Data Scaler Thread");
-			ListView<ScoredChromosomeWindow> currentChromosomeList;
-			try {
-				currentChromosomeList = dataToScale.get(scaledChromosome);
-			} catch (InvalidChromosomeException e) {
-				ExceptionManager.getInstance().caughtException(e);
-				return;
-			}
-			if ((currentChromosomeList == null) || currentChromosomeList.isEmpty() || (scaledXRatio >= 1)) {
-				scaledSCWList = currentChromosomeList;
-			} else {
-				if (currentChromosomeList.size() > 0) {
-					// compute the width on the genome that takes up 1 pixel on the screen
-					double pixelGenomicWidth = 1 / scaledXRatio;
-					GenericSCWListViewBuilder scaledSCWListBuilder = new GenericSCWListViewBuilder();
-					List<Float> scoreList = new ArrayList<Float>();
-					int i = 0;
-					while (i < currentChromosomeList.size()) {
-						if (thisThread != scalerThread) {
-							scaledSCWList = null;
-							return;
-						}
-						int currentStart = currentChromosomeList.get(i).getStart();
-						int currentStop = currentChromosomeList.get(i).getStop();
-						float currentScore = currentChromosomeList.get(i).getScore();
-						scoreList.add(currentScore);
-						// we merge two windows together if there is a next window
-						// and if the gap between the current window and the next one is smaller than 1 pixel
-						// and if the score of the next window is equal to the score of the current one
-						while (((i + 1) < currentChromosomeList.size())
-								&& ((((currentChromosomeList.get(i + 1).getStart() - currentStop) < pixelGenomicWidth) && (currentChromosomeList.get(i + 1).getScore() == currentScore))
-										|| ((currentChromosomeList.get(i + 1).getStop() - currentStart) < pixelGenomicWidth))) {
-
-							i++;
-							// the new stop position is the max of the current stop and the stop of the new merged interval
-							currentStop = Math.max(currentStop, currentChromosomeList.get(i).getStop());
-							currentScore = currentChromosomeList.get(i).getScore();
-							if (currentScore != 0) {
-								scoreList.add(currentScore);
-							}
-						}
-						currentScore = FloatLists.average(scoreList);
-						scoreList.clear();
-						scaledSCWListBuilder.addElementToBuild(currentStart, currentStop, currentScore);
-						i++;
-					}
-					scaledSCWList = scaledSCWListBuilder.getListView();
-				}
-			}
-			DataScalerManager.getInstance().redrawLayers(SimpleSCWLScaler.this);
-		}
-	}
-
-
-	/** Thread that scales the data */
-	private ScalerThread scalerThread;
-
-	/** Scaled chromosome */
-	private Chromosome scaledChromosome;
-
-	/** Scaled xRatio (ratio between the track width and the displayed genome window width) */
-	private double scaledXRatio;
-
-	/** The scw list scaled for a specified chromosome and xRatio */
-	private ListView<ScoredChromosomeWindow> scaledSCWList;
-
-	/** Data to be scaled for track display */
-	private final SCWList dataToScale;
-
+class SimpleSCWLScaler extends AbstractSCWLScaler<SCWList> {
 
 	/**
 	 * Creates an instance of {@link SimpleSCWLScaler}
 	 * @param dataToScale the data that needs to be scaled
 	 */
 	SimpleSCWLScaler(SCWList dataToScale) {
-		this.dataToScale = dataToScale;
+		super(dataToScale);
 	}
 
 
 	@Override
-	public ListView<ScoredChromosomeWindow> getDataScaledForTrackDisplay() {
-		GenomeWindow projectWindow = ProjectManager.getInstance().getProjectWindow().getGenomeWindow();
-		double projectXRatio = ProjectManager.getInstance().getProjectWindow().getXRatio();
-		// if the chromosome or the xRatio of the project window changed we need to rescale the data
-		if (!projectWindow.getChromosome().equals(scaledChromosome) || (projectXRatio != scaledXRatio)) {
-			scaledChromosome = projectWindow.getChromosome();
-			scaledXRatio = projectXRatio;
-			scaleChromosome();
-		}
-		if (scaledSCWList == null) {
-			return null;
+	ListView<ScoredChromosomeWindow> scaleTiles(ZoomPyramid pyramid, int level, int firstTile, int lastTile, double xRatio) {
+		// each tile covered by windows becomes a window scored with the average of the windows of the tile
+		GenericSCWListViewBuilder scaledSCWListBuilder = new GenericSCWListViewBuilder();
+		for (int i = firstTile; i <= lastTile; i++) {
+			if (pyramid.getCoverage(level, i) > 0) {
+				scaledSCWListBuilder.addElementToBuild(pyramid.getTileStart(level, i), pyramid.getTileStop(level, i), pyramid.getMeanScore(level, i));
+			}
 		}
-		return ChromosomeWindowListViews.subList(scaledSCWList, projectWindow.getStart(), projectWindow.getStop());
+		return scaledSCWListBuilder.getListView();
 	}
 
 
 	@Override
-	public SCWList getDataToScale() {
-		return dataToScale;
-	}
-
-
-	/**
-	 * Starts the thread that scales the current chromosome
-	 * for the current zoom level and screen resolution
-	 */
-	private void scaleChromosome() {
-		scaledSCWList = null;
-		scalerThread = new ScalerThread();
-		scalerThread.start();
+	ListView<ScoredChromosomeWindow> scaleWindows(SCWListView displayedList, double xRatio) {
+		if (xRatio >= 1) {
+			return displayedList;
+		}
+		// compute the width on the genome that takes up 1 pixel on the screen
+		double pixelGenomicWidth = 1 / xRatio;
+		GenericSCWListViewBuilder scaledSCWListBuilder = new GenericSCWListViewBuilder();
+		List<Float> scoreList = new ArrayList<Float>();
+		int i = 0;
+		while (i < displayedList.size()) {
+			int currentStart = displayedList.getStart(i);
+			int currentStop = displayedList.getStop(i);
+			float currentScore = displayedList.getScore(i);
+			scoreList.add(currentScore);
+			// we merge two windows together if there is a next window
+			// and if the gap between the current window and the next one is smaller than 1 pixel
+			// and if the score of the next window is equal to the score of the current one
+			while (((i + 1) < displayedList.size())
+					&& ((((displayedList.getStart(i + 1) - currentStop) < pixelGenomicWidth) && (displayedList.getScore(i + 1) == currentScore))
+							|| ((displayedList.getStop(i + 1) - currentStart) < pixelGenomicWidth))) {
+
+				i++;
+				// the new stop position is the max of the current stop and the stop of the new merged interval
+				currentStop = Math.max(currentStop, displayedList.getStop(i));
+				currentScore = displayedList.getScore(i);
+				if (currentScore != 0) {
+					scoreList.add(currentScore);
+				}
+			}
+			currentScore = FloatLists.average(scoreList);
+			scoreList.clear();
+			scaledSCWListBuilder.addElementToBuild(currentStart, currentStop, currentScore);
+			i++;
+		}
+		return scaledSCWListBuilder.getListView();
 	}
 }
@@ -78,6 +78,7 @@ public final class OptionDialog extends JDialog implements TreeSelectionListener
 	private final int 					trackCount; 		// track count
 	private final int 					trackHeight; 		// track height
 	private final int 					undoCount; 			// undo count
+	private final int 					undoMemory; 		// undo memory
 	private final boolean				resetTrack;			// reset track feature
 	private final boolean				legend;				// show legend (multi genome)
 	private MemoryOptionPanel memoryOptionPanel = null;		// panel for the install version of GenPlay on OSX to modify the max memory
@@ -109,6 +110,7 @@ public final class OptionDialog extends JDialog implements TreeSelectionListener
 		trackCount = cm.getTrackCount();
 		trackHeight = cm.getTrackHeight();
 		undoCount = cm.getUndoCount();
+		undoMemory = cm.getUndoMemory();
 		resetTrack = cm.isResetTrack();
 		legend = cm.isLegend();
 
@@ -214,6 +216,7 @@ public final class OptionDialog extends JDialog implements TreeSelectionListener
 					cm.setTrackCount(trackCount);
 					cm.setTrackHeight(trackHeight);
 					cm.setUndoCount(undoCount);
+					cm.setUndoMemory(undoMemory);
 				}
 			}
 		});
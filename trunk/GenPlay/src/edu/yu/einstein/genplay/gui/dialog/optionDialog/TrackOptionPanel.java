@@ -56,6 +56,8 @@ final class TrackOptionPanel extends OptionPanel {
 	private final JFormattedTextField 	jftfTrackHeight;	// text field track count
 	private final JLabel 				jlUndoCount; 		// label undo count
 	private final JFormattedTextField 	jftfUndoCount; 		// label undo count
+	private final JLabel 				jlUndoMemory; 		// label undo memory
+	private final JFormattedTextField 	jftfUndoMemory; 	// text field undo memory
 	private final JLabel 				jlResetTrack;	 	// label reset track
 	private final JCheckBox				jcResetTrack;	 	// checkbox reset track
 	private final JLabel 				jlCacheTrack;	 	// label cache track
@@ -112,6 +114,20 @@ final class TrackOptionPanel extends OptionPanel {
 			}
 		});
 
+		jlUndoMemory = new JLabel("Undo Memory (MB):");
+		jlUndoMemory.setToolTipText("Memory used by the undo history of each layer before being written on the disk");
+		jftfUndoMemory = new JFormattedTextField(NumberFormat.getInstance());
+		((NumberFormatter) jftfUndoMemory.getFormatter()).setMinimum(0);
+		((NumberFormatter) jftfUndoMemory.getFormatter()).setMaximum(Integer.MAX_VALUE);
+		jftfUndoMemory.setColumns(5);
+		jftfUndoMemory.setValue(configurationManager.getUndoMemory());
+		jftfUndoMemory.addPropertyChangeListener(new PropertyChangeListener() {
+			@Override
+			public void propertyChange(PropertyChangeEvent evt) {
+				configurationManager.setUndoMemory(((Number) jftfUndoMemory.getValue()).intValue());
+			}
+		});
+
 		jlResetTrack = new JLabel("Enable reset:");
 		jcResetTrack = new JCheckBox();
 		jcResetTrack.setSelected(ConfigurationManager.getInstance().isResetTrack());
@@ -186,36 +202,48 @@ final class TrackOptionPanel extends OptionPanel {
 		c.gridy = 3;
 		c.anchor = GridBagConstraints.LINE_START;
 		c.insets = new Insets(10, 0, 10, 10);
-		add(jlResetTrack, c);
+		add(jlUndoMemory, c);
 
 		c.gridx = 1;
 		c.gridy = 3;
 		c.anchor = GridBagConstraints.LINE_END;
 		c.insets = new Insets(10, 10, 10, 0);
-		add(jcResetTrack, c);
+		add(jftfUndoMemory, c);
 
 		c.gridx = 0;
 		c.gridy = 4;
 		c.anchor = GridBagConstraints.LINE_START;
 		c.insets = new Insets(10, 0, 10, 10);
-		add(jlCacheTrack, c);
+		add(jlResetTrack, c);
 
 		c.gridx = 1;
 		c.gridy = 4;
 		c.anchor = GridBagConstraints.LINE_END;
 		c.insets = new Insets(10, 10, 10, 0);
-		add(jcCacheTrack, c);
+		add(jcResetTrack, c);
 
 		c.gridx = 0;
 		c.gridy = 5;
 		c.anchor = GridBagConstraints.LINE_START;
 		c.insets = new Insets(10, 0, 10, 10);
-		add(jlLegend, c);
+		add(jlCacheTrack, c);
 
 		c.gridx = 1;
 		c.gridy = 5;
 		c.anchor = GridBagConstraints.LINE_END;
 		c.insets = new Insets(10, 10, 10, 0);
+		add(jcCacheTrack, c);
+
+		c.gridx = 0;
+		c.gridy = 6;
+		c.anchor = GridBagConstraints.LINE_START;
+		c.insets = new Insets(10, 0, 10, 10);
+		add(jlLegend, c);
+
+		c.gridx = 1;
+		c.gridy = 6;
+		c.anchor = GridBagConstraints.LINE_END;
+		c.insets = new Insets(10, 10, 10, 0);
 		add(jcLegend, c);
 	}
 }
@@ -27,6 +27,7 @@ import java.io.Serializable;
 
 import javax.swing.filechooser.FileFilter;
 
+import edu.yu.einstein.genplay.core.IO.utils.CompressedFiles;
 import edu.yu.einstein.genplay.util.Utils;
 
 
@@ -62,8 +63,10 @@ public abstract class ExtendedFileFilter extends FileFilter implements Serializa
 		if (extension == null) {
 			return false;
 		} else {
+			// compressed files are accepted using the extension preceding the compression extension
+			String uncompressedExtension = CompressedFiles.getUncompressedExtension(f);
 			for (String currentExtension: extensions) {
-				if (currentExtension.equalsIgnoreCase(extension)) {
+				if (currentExtension.equalsIgnoreCase(extension) || currentExtension.equalsIgnoreCase(uncompressedExtension)) {
 					return true;
 				}
 			}
@@ -131,6 +131,7 @@ public class Launcher {
 		ProjectManager projectManager = ProjectManager.getInstance();
 		projectManager.setProjectName(projectFrame.getProjectName());
 		projectManager.setProjectScorePrecision(projectFrame.getProjectScorePrecision());
+		projectManager.setProjectScoreStorage(projectFrame.getProjectScoreStorage());
 		projectManager.setCladeName(clade.getName());
 		projectManager.setGenomeName(genome.getName());
 		projectManager.setAssembly(assembly);
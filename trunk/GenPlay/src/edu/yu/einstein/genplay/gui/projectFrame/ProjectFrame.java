@@ -35,6 +35,7 @@ import javax.swing.JOptionPane;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.ScorePrecision;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreStorage;
 import edu.yu.einstein.genplay.dataStructure.genome.Assembly;
 import edu.yu.einstein.genplay.dataStructure.genome.Clade;
 import edu.yu.einstein.genplay.dataStructure.genome.Genome;
@@ -222,6 +223,14 @@ public class ProjectFrame extends JFrame {
 	}
 
 
+	/**
+	 * @return the selected score storage
+	 */
+	public ScoreStorage getProjectScoreStorage() {
+		return newProjectPanel.getProjectScoreStorage();
+	}
+
+
 	/**
 	 * @return the selected assembly
 	 */
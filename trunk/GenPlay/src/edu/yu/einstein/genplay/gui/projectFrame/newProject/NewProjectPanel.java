@@ -33,6 +33,7 @@ import javax.swing.JPanel;
 import edu.yu.einstein.genplay.core.multiGenome.VCF.VCFFile.VCFFile;
 import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
 import edu.yu.einstein.genplay.dataStructure.enums.ScorePrecision;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreStorage;
 import edu.yu.einstein.genplay.dataStructure.genome.Assembly;
 import edu.yu.einstein.genplay.dataStructure.genome.Clade;
 import edu.yu.einstein.genplay.dataStructure.genome.Genome;
@@ -52,6 +53,7 @@ public class NewProjectPanel extends JPanel {
 
 	private ProjectNameComponents 		nameComponents;				// Name components
 	private ScorePrecisionComponents	scorePrecisionComponents;	// Score precision components
+	private ScoreStorageComponents		scoreStorageComponents;		// Score storage components
 	private AssemblyComponents 			assemblyComponents;			// Assembly components
 	private GenomeProjectTypePanel 		genomePanel;				// Genome panel
 	private MultiGenomePanel			multiGenomePanel;			// Multi genome panel
@@ -114,6 +116,14 @@ public class NewProjectPanel extends JPanel {
 	}
 
 
+	/**
+	 * @return the selected score storage
+	 */
+	public ScoreStorage getProjectScoreStorage() {
+		return scoreStorageComponents.getProjectScoreStorage();
+	}
+
+
 	/**
 	 * @return a {@link Map} containing the selected chromosomes.  Each chromosome is associated to its name in the map
 	 */
@@ -137,6 +147,7 @@ public class NewProjectPanel extends JPanel {
 		//Panels
 		nameComponents = new ProjectNameComponents();
 		scorePrecisionComponents = new ScorePrecisionComponents();
+		scoreStorageComponents = new ScoreStorageComponents();
 		assemblyComponents = new AssemblyComponents();
 		genomePanel = new GenomeProjectTypePanel();
 		multiGenomePanel = new MultiGenomePanel();
@@ -169,6 +180,17 @@ public class NewProjectPanel extends JPanel {
 		gbc.gridx = 2;
 		jpBasicInfo.add(scorePrecisionComponents.getJlHelp(), gbc);
 
+		// project storage
+		gbc.gridx = 0;
+		gbc.gridy++;
+		jpBasicInfo.add(scoreStorageComponents.getJlScoreStorage(), gbc);
+
+		gbc.gridx = 1;
+		jpBasicInfo.add(scoreStorageComponents.getJcbScoreStorage(), gbc);
+
+		gbc.gridx = 2;
+		jpBasicInfo.add(scoreStorageComponents.getJlHelp(), gbc);
+
 		// project assembly
 		gbc.gridx = 0;
 		gbc.gridy++;
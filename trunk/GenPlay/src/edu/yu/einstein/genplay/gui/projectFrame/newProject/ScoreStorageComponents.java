@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.gui.projectFrame.newProject;
+
+import javax.swing.ImageIcon;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreStorage;
+import edu.yu.einstein.genplay.util.Images;
+
+
+/**
+ * Components to choose the storage of the scores of the project
+ * @author Julien Lajugie
+ */
+@SuppressWarnings({"rawtypes", "unchecked"}) // JComboBox is not generic in the Java 6 API
+class ScoreStorageComponents {
+
+	/** Default project score storage */
+	private static final ScoreStorage DEFAULT_STORAGE = ScoreStorage.IN_MEMORY;
+
+	private final JComboBox 	jcbScoreStorage;	// combobox to choose the score storage
+	private final JLabel 		jlHelp;				// label help
+	private final JLabel 		jlScoreStorage;		// label score storage
+
+
+	/**
+	 * Creates an instance of {@link ScoreStorageComponents}
+	 */
+	ScoreStorageComponents() {
+		jlScoreStorage = new JLabel("Storage:");
+		jcbScoreStorage = new JComboBox(ScoreStorage.values());
+		jcbScoreStorage.setSelectedItem(DEFAULT_STORAGE);
+
+		// tooltip
+		jlHelp = new JLabel(new ImageIcon(Images.getHelpImage()));
+		jlHelp.setToolTipText("<html>Memory storage is faster but limited by the memory allocated to GenPlay.<br>" +
+				"Memory-mapped files store the scores of the bin lists and of the dense lists<br>" +
+				"in the temporary directory and allow more genome-wide tracks to be loaded.</html>");
+	}
+
+
+	/**
+	 * @return  jcbScoreStorage
+	 */
+	JComboBox getJcbScoreStorage() {
+		return jcbScoreStorage;
+	}
+
+
+	/**
+	 * @return  jlHelp
+	 */
+	JLabel getJlHelp() {
+		return jlHelp;
+	}
+
+
+	/**
+	 * @return  jlScoreStorage
+	 */
+	JLabel getJlScoreStorage() {
+		return jlScoreStorage;
+	}
+
+
+	/**
+	 * @return the score storage selected
+	 */
+	public ScoreStorage getProjectScoreStorage() {
+		return (ScoreStorage) jcbScoreStorage.getSelectedItem();
+	}
+}
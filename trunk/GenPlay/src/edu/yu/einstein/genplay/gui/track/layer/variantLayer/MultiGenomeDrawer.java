@@ -47,6 +47,7 @@ import edu.yu.einstein.genplay.gui.MGDisplaySettings.FiltersData;
 import edu.yu.einstein.genplay.gui.MGDisplaySettings.MGDisplaySettings;
 import edu.yu.einstein.genplay.gui.MGDisplaySettings.VariantLayerDisplaySettings;
 import edu.yu.einstein.genplay.gui.dialog.multiGenomeDialog.variantInformation.VariantInformationDialog;
+import edu.yu.einstein.genplay.gui.track.Track;
 
 
 /**
@@ -74,6 +75,8 @@ public class MultiGenomeDrawer implements Serializable {
 	private boolean 						forceFitToScreen;
 	private boolean 						locked;
 	private Variant 						variantUnderMouse;
+	private transient volatile boolean		isLoading;			// true while the variants around the window are loaded in the background (lazy loading only)
+	private transient volatile GenomeWindow	requestedWindow;	// last window whose variants have been loaded in the background (lazy loading only)
 
 
 	/**
@@ -84,6 +87,8 @@ public class MultiGenomeDrawer implements Serializable {
 		variantDisplayList = new ArrayList<VariantDisplayList>();
 		forceFitToScreen = false;
 		locked = false;
+		isLoading = false;
+		requestedWindow = null;
 		statistics = null;
 		variantDrawer = new MultiGenomeVariantDrawer(this);
 		handler = new MultiGenomeListHandler();
@@ -98,15 +103,23 @@ public class MultiGenomeDrawer implements Serializable {
 
 	/**
 	 * Draws stripes showing information for multi genome. The method checks if the track must show both allele or only one, in order to split the track or not.
+	 * When the variants are loaded lazily, they are not drawn if the window is too large and they are loaded in the background if they are not available yet.
 	 * @param g graphics object
 	 * @param width
 	 * @param height
+	 * @param track the track to repaint when the variants have been loaded in the background
 	 */
-	public void drawMultiGenomeInformation(Graphics g, int width, int height) {
+	public void drawMultiGenomeInformation(Graphics g, int width, int height, Track track) {
 		if ((variantDataList != null) && (variantDataList.size() > 0)) {
 			variantDrawer.initializeStripesOpacity();
-			if (!locked) { // if there are stripes
-				GenomeWindow genomeWindow = ProjectManager.getInstance().getProjectWindow().getGenomeWindow();
+			GenomeWindow genomeWindow = ProjectManager.getInstance().getProjectWindow().getGenomeWindow();
+			if (locked) {
+				variantDrawer.drawMultiGenomeMask(g, height, "Multi genome display interrupted while loading information");
+			} else if (!VariantDisplayList.isWindowDisplayable(genomeWindow)) {
+				variantDrawer.drawMultiGenomeMask(g, height, "Zoom in to display the variants");
+			} else if (!updateLoadedWindow(genomeWindow, track)) {
+				variantDrawer.drawMultiGenomeMask(g, height, "Loading the variants...");
+			} else { // if there are stripes
 				double xRatio = ProjectManager.getInstance().getProjectWindow().getXRatio();
 				int halfHeight = height / 2; 																	// calculates the half of the height track
 				Graphics allele01Graphic = g.create(0, 0, width, halfHeight); 									// create a graphics for the first allele that correspond to the upper half of the track
@@ -123,8 +136,6 @@ public class MultiGenomeDrawer implements Serializable {
 				variantDrawer.setCurrentAllele(AlleleType.ALLELE02);
 				variantDrawer.drawGenome(allele02Graphic, width, halfHeight, genomeWindow, handler.getFittedData(genomeWindow, xRatio, 1)); // draw the stripes for the second allele
 				variantDrawer.drawMultiGenomeLine(g, width, height); // draw a line in the middle of the track to distinguish upper and lower half.
-			} else {
-				variantDrawer.drawMultiGenomeMask(g, height, "Multi genome display interrupted while loading information");
 			}
 		}
 	}
@@ -341,7 +352,10 @@ public class MultiGenomeDrawer implements Serializable {
 	 */
 	public boolean isOverVariant(int height, MouseEvent e) {
 		if (ProjectManager.getInstance().isMultiGenomeProject() && !locked) { // if we are in multi genome project
-			Variant variant = getVariantUnderMouse(height, e.getX(), e.getY()); // we get the variant (Y is needed to know if the variant is on the upper or lower half of the track)
+			Variant variant = null;
+			if (isWindowLoaded(ProjectManager.getInstance().getProjectWindow().getGenomeWindow())) { // the lists can be empty while the variants of the window are not loaded
+				variant = getVariantUnderMouse(height, e.getX(), e.getY()); // we get the variant (Y is needed to know if the variant is on the upper or lower half of the track)
+			}
 			if (variant != null) { // if a variant has been found
 				variantUnderMouse = variant; // the mouse is on this variant (we save it)
 				return true; // we return true
@@ -354,6 +368,20 @@ public class MultiGenomeDrawer implements Serializable {
 	}
 
 
+	/**
+	 * @param genomeWindow a {@link GenomeWindow}
+	 * @return true if the variants of the window are loaded in all the lists (always true when variants are not loaded lazily)
+	 */
+	private boolean isWindowLoaded (GenomeWindow genomeWindow) {
+		for (VariantDisplayList currentList: variantDisplayList) {
+			if (!currentList.isWindowLoaded(genomeWindow)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
 	/**
 	 * Disposes all {@link VariantInformationDialog} related to this track
 	 */
@@ -400,6 +428,8 @@ public class MultiGenomeDrawer implements Serializable {
 		forceFitToScreen = in.readBoolean();
 		locked = in.readBoolean();
 		variantUnderMouse = (Variant) in.readObject();
+		isLoading = false;
+		requestedWindow = null;
 
 		variantDrawer.setDrawer(this);
 	}
@@ -525,6 +555,51 @@ public class MultiGenomeDrawer implements Serializable {
 	}
 
 
+	/**
+	 * Loads the variants around the genome window when they are loaded lazily and the window is out of the loaded region.
+	 * The content of the files is read in the background and the track is repainted when it is available,
+	 * the lists are then generated from the content in memory.
+	 * @param genomeWindow the displayed {@link GenomeWindow}
+	 * @param track the track to repaint when the content of the files has been loaded
+	 * @return true if the variants of the window are loaded, false if they are being loaded in the background
+	 */
+	private boolean updateLoadedWindow (final GenomeWindow genomeWindow, final Track track) {
+		if (isWindowLoaded(genomeWindow)) {
+			return true;
+		}
+		// once the window has been loaded in the background the lists are generated even if the loading failed, otherwise it would be loaded again at each repaint
+		if (!genomeWindow.equals(requestedWindow) && !VariantDisplayList.isWindowCached(genomeWindow)) {
+			if (!isLoading) {
+				isLoading = true;
+				VariantDisplayList.loadWindow(genomeWindow, new Runnable() {
+					@Override
+					public void run() {
+						requestedWindow = genomeWindow;
+						isLoading = false;
+						track.repaint();
+					}
+				});
+			}
+			return false;
+		}
+
+		List<MGFilter> filters = filtersList;
+		if (filters == null) {
+			filters = new ArrayList<MGFilter>();
+		}
+		for (VariantDisplayList currentList: variantDisplayList) {
+			if (!currentList.isWindowLoaded(genomeWindow)) {
+				currentList.generateLists(genomeWindow);
+				currentList.updateDisplay(filters, showFilter);
+				currentList.updateDisplayForOption(showReference, showFilter);
+			}
+		}
+		handler.initialize(variantDisplayList);
+		forceFitToScreen = true;
+		return true;
+	}
+
+
 	private boolean updateVariant (List<VariantLayerDisplaySettings> variantDataList) {
 		boolean generateLists = false;
 
@@ -26,10 +26,8 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
-import edu.yu.einstein.genplay.core.comparator.VariantComparator;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.VariantDisplayList;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.VariantDisplayMultiListScanner;
 import edu.yu.einstein.genplay.core.multiGenome.data.display.variant.MixVariant;
@@ -47,10 +45,9 @@ public class MultiGenomeListHandler implements Serializable {
 
 	/** Generated serial version ID */
 	private static final long serialVersionUID = -7976375676020159462L;
-	private static final int SAVED_FORMAT_VERSION_NUMBER = 0; // saved format version
+	private static final int SAVED_FORMAT_VERSION_NUMBER = 1; // saved format version
 
 	private List<VariantDisplayList> 					variantList;
-	private List<List<Variant>> 						fullList;
 	private List<List<VariantDisplay>> 					fittedList;
 	private CacheTrack<List<List<VariantDisplay>>> 		cache;
 	private Chromosome 									fittedChromosome; // Chromosome with the adapted data
@@ -78,9 +75,9 @@ public class MultiGenomeListHandler implements Serializable {
 		int middle = (indexStop - indexStart) / 2;
 		if (indexStart == indexStop) {
 			return indexStart;
-		} else if (value == list.get(indexStart + middle).getVariant().getStart()) {
+		} else if (value == list.get(indexStart + middle).getStart()) {
 			return indexStart + middle;
-		} else if (value > list.get(indexStart + middle).getVariant().getStart()) {
+		} else if (value > list.get(indexStart + middle).getStart()) {
 			return findStart(list, value, indexStart + middle + 1, indexStop);
 		} else {
 			return findStart(list, value, indexStart, indexStart + middle);
@@ -100,9 +97,9 @@ public class MultiGenomeListHandler implements Serializable {
 		int middle = (indexStop - indexStart) / 2;
 		if (indexStart == indexStop) {
 			return indexStart;
-		} else if (value == list.get(indexStart + middle).getVariant().getStop()) {
+		} else if (value == list.get(indexStart + middle).getStop()) {
 			return indexStart + middle;
-		} else if (value > list.get(indexStart + middle).getVariant().getStop()) {
+		} else if (value > list.get(indexStart + middle).getStop()) {
 			return findStop(list, value, indexStart + middle + 1, indexStop);
 		} else {
 			return findStop(list, value, indexStart, indexStart + middle);
@@ -138,14 +135,14 @@ public class MultiGenomeListHandler implements Serializable {
 				Variant variant = firstVariants.get(0);
 				VariantDisplayList list = scanner.getCurrentVariantDisplayList(variant);
 				int index = scanner.getCurrentVariantIndex(variant);
-				fittedList.get(allele).add(new VariantDisplay(list, variant, allele, index));
+				fittedList.get(allele).add(new VariantDisplay(list, allele, index));
 			}
 			while (scanner.hasNext()) {
 				List<Variant> variants = scanner.next();
 				Variant variant = variants.get(0);
 				VariantDisplayList list = scanner.getCurrentVariantDisplayList(variant);
 				int index = scanner.getCurrentVariantIndex(variant);
-				fittedList.get(allele).add(new VariantDisplay(list, variant, allele, index));
+				fittedList.get(allele).add(new VariantDisplay(list, allele, index));
 			}
 		} else {
 			// Initialize the first position
@@ -174,12 +171,10 @@ public class MultiGenomeListHandler implements Serializable {
 			}
 
 			// Process the next positions
-			Variant previousVariant = null;
 			boolean hasToMerge = false;
 			while (scanner.hasNext()) {
 				previousIndex = currentIndex;
 				previousList = currentList;
-				previousVariant = currentVariant;
 				currentVariant = scanner.next().get(0); // Get the next position
 				currentIndex = scanner.getCurrentVariantIndex(currentVariant);
 				currentList = scanner.getCurrentVariantDisplayList(currentVariant);
@@ -194,7 +189,7 @@ public class MultiGenomeListHandler implements Serializable {
 						hasToMerge = false;
 						variantDisplay = new VariantDisplay(null, new MixVariant(start, stop), allele, -1);
 					} else {
-						variantDisplay = new VariantDisplay(previousList, previousVariant, allele, previousIndex);
+						variantDisplay = new VariantDisplay(previousList, allele, previousIndex);
 					}
 
 					if (variantDisplay != null) {
@@ -213,7 +208,7 @@ public class MultiGenomeListHandler implements Serializable {
 				variantDisplay = new VariantDisplay(null, new MixVariant(start, stop), allele, -1);
 			} else {
 				if (currentVariant != null) {
-					variantDisplay = new VariantDisplay(currentList, currentVariant, allele, currentIndex);
+					variantDisplay = new VariantDisplay(currentList, allele, currentIndex);
 				}
 			}
 			if (variantDisplay != null) {
@@ -276,14 +271,14 @@ public class MultiGenomeListHandler implements Serializable {
 
 		if (indexStart > 0) {
 			VariantDisplay variant = fittedList.get(allele).get(indexStart - 1);
-			if (variant.getVariant().getStop() >= start) {
+			if (variant.getStop() >= start) {
 				resultList.add(variant);
 			}
 		}
 		for (int i = indexStart; i <= indexStop; i++) {
 			if (i == indexStop) {
 				VariantDisplay variant = fittedList.get(allele).get(indexStop);
-				if (variant.getVariant().getStart() <= stop) {
+				if (variant.getStart() <= stop) {
 					resultList.add(variant);
 				}
 			} else {
@@ -292,7 +287,7 @@ public class MultiGenomeListHandler implements Serializable {
 		}
 		if ((indexStop + 1) < fittedList.get(allele).size()) {
 			VariantDisplay variant = fittedList.get(allele).get(indexStop + 1);
-			if (variant.getVariant().getStart() <= stop) {
+			if (variant.getStart() <= stop) {
 				resultList.add(variant);
 			}
 		}
@@ -310,17 +305,6 @@ public class MultiGenomeListHandler implements Serializable {
 			variantList = new ArrayList<VariantDisplayList>();
 		}
 		this.variantList = variantList;
-		fullList = new ArrayList<List<Variant>>();
-		fullList.add(new ArrayList<Variant>());
-		fullList.add(new ArrayList<Variant>());
-
-		for (VariantDisplayList current: variantList) {
-			fullList.get(0).addAll(current.getVariants().get(0));
-			fullList.get(1).addAll(current.getVariants().get(1));
-		}
-
-		Collections.sort(fullList.get(0), new VariantComparator());
-		Collections.sort(fullList.get(1), new VariantComparator());
 	}
 
 
@@ -332,9 +316,11 @@ public class MultiGenomeListHandler implements Serializable {
 	 */
 	@SuppressWarnings("unchecked")
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-		in.readInt();
+		int savedVersion = in.readInt();
 		variantList = (List<VariantDisplayList>) in.readObject();
-		fullList = (List<List<Variant>>) in.readObject();
+		if (savedVersion == 0) {
+			in.readObject(); // full list of variants, not saved anymore
+		}
 		fittedList = (List<List<VariantDisplay>>) in.readObject();
 		fittedChromosome = (Chromosome) in.readObject();
 		fittedXRatio = in.readDouble();
@@ -351,7 +337,6 @@ public class MultiGenomeListHandler implements Serializable {
 	private void writeObject(java.io.ObjectOutputStream out) throws IOException {
 		out.writeInt(SAVED_FORMAT_VERSION_NUMBER);
 		out.writeObject(variantList);
-		out.writeObject(fullList);
 		out.writeObject(fittedList);
 		out.writeObject(fittedChromosome);
 		if (fittedXRatio == null) {
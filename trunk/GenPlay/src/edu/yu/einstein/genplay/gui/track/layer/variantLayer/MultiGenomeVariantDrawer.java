@@ -108,7 +108,7 @@ class MultiGenomeVariantDrawer implements Serializable {
 			Color mixColor = new Color(Colors.BLUE.getRed(), Colors.BLUE.getGreen(), Colors.BLUE.getBlue());			// color for mixed variant
 			for (int i = 0; i < variants.size(); i++) {
 				VariantDisplay variant = variants.get(i);
-				VariantType type = variant.getVariant().getType();			// gets its type
+				VariantType type = variant.getType();			// gets its type
 				Color color;
 				if (type == VariantType.REFERENCE_INSERTION) {
 					color = MGDisplaySettings.REFERENCE_INSERTION_COLOR;
@@ -158,12 +158,11 @@ class MultiGenomeVariantDrawer implements Serializable {
 	 * @param nucleotideNumber	number of nucleotide to display
 	 */
 	private void drawLetters (Graphics g, int graphicsHeigth, int x, int width, int height, VariantDisplay variantDisplay, int nucleotideNumber) {
-		Variant variant = variantDisplay.getVariant();
-		VariantType variantType = variant.getType();		// gets the variant type
+		VariantType variantType = variantDisplay.getType();		// gets the variant type
 		if (	((variantType == VariantType.INSERTION) && 	(MGDisplaySettings.DRAW_INSERTION_LETTERS 	== MGDisplaySettings.YES_MG_OPTION)) ||	// checks all options in order to determine if the letters must be drawn
 				((variantType == VariantType.DELETION) 	&& 	(MGDisplaySettings.DRAW_DELETION_LETTERS 	== MGDisplaySettings.YES_MG_OPTION)) ||
 				((variantType == VariantType.SNPS) 		&& 	(MGDisplaySettings.DRAW_SNP_LETTERS 		== MGDisplaySettings.YES_MG_OPTION)) ||
-				((variant instanceof ReferenceVariant)	&& 	(MGDisplaySettings.DRAW_REFERENCE_LETTERS 	== MGDisplaySettings.YES_MG_OPTION))) {
+				(variantDisplay.isReference()			&& 	(MGDisplaySettings.DRAW_REFERENCE_LETTERS 	== MGDisplaySettings.YES_MG_OPTION))) {
 
 			// if the letters must be drawn
 			double windowWidth = width / nucleotideNumber;									// calculate the size of window (here, the window is the width of a nucleotide on the screen)
@@ -181,7 +180,7 @@ class MultiGenomeVariantDrawer implements Serializable {
 					//letterY += fm.getHeight() / 2d;	// commented because it was buggy on windows
 				}
 
-				int firstNucleotide = projectWindow.screenToGenomePosition(x) - variant.getStart();	// retrieve the position of the first displayed nucleotide in the variant
+				int firstNucleotide = projectWindow.screenToGenomePosition(x) - variantDisplay.getStart();	// retrieve the position of the first displayed nucleotide in the variant
 				firstNucleotide = Math.max(0, firstNucleotide);
 
 				for (int i = 0; i < nucleotideNumber; i++) {								// for all the nucleotide that are supposed to be displayed
@@ -190,7 +189,7 @@ class MultiGenomeVariantDrawer implements Serializable {
 						letter = letters.charAt(i + firstNucleotide) + "";					// we get the current character
 					}
 					//int xC = (int) Math.round(x + (i * windowWidth) + ((windowWidth - fm.stringWidth(letter)) * 0.5));	// the horizontal position from where the draw starts: x (of the stripe) + size of a window * current window number + (windows width - letter width) / 2 (for the middle)
-					int xC = projectWindow.genomeToScreenPosition(variant.getStart() + i + firstNucleotide);
+					int xC = projectWindow.genomeToScreenPosition(variantDisplay.getStart() + i + firstNucleotide);
 					g2d.drawString(letter, xC, letterY);							// we draw the letter
 				}
 			}
@@ -264,11 +263,11 @@ class MultiGenomeVariantDrawer implements Serializable {
 	 * @param genomeWindow		the displayed genome window
 	 */
 	private void drawVariant (Graphics g, int height, VariantDisplay variantDisplay, Color color, GenomeWindow genomeWindow) {
-		Variant variant = variantDisplay.getVariant();
+		VariantType type = variantDisplay.getType();
 
 		// Get start and stop position
-		int start = variant.getStart();
-		int stop = variant.getStop();
+		int start = variantDisplay.getStart();
+		int stop = variantDisplay.getStop();
 
 		// Fits the start and stop position to the screen
 		if ((start < genomeWindow.getStart()) && (stop > genomeWindow.getStart())) {	// if the variant starts before the left edge of the track but stop after
@@ -287,11 +286,11 @@ class MultiGenomeVariantDrawer implements Serializable {
 		}
 
 		// Get the height of the clip and of the stripe
-		int variantHeight = getVariantHeight(variant, height);																	// Instantiate the int for the height of the variant
+		int variantHeight = getVariantHeight(variantDisplay, height);																	// Instantiate the int for the height of the variant
 
 		// Sets the stripe color
 		Color newColor;
-		if ((drawer.getVariantUnderMouse() != null) && drawer.getVariantUnderMouse().equals(variant)) {		// if there is a variant under the mouse
+		if ((drawer.getVariantUnderMouse() != null) && variantDisplay.isVariant(drawer.getVariantUnderMouse())) {		// if there is a variant under the mouse
 			newColor = Colors.stripeFilter(color);									// we change the color of the variant
 		} else {																	// if not
 			newColor = new Color(color.getRed(), color.getGreen(), color.getBlue(), variantOpacity);	// we use the defined color taking into account the opacity
@@ -303,7 +302,7 @@ class MultiGenomeVariantDrawer implements Serializable {
 
 		// Draws the variant
 		int nucleotideNumber;
-		if (variant instanceof ReferenceVariant) {					// drawing a reference stripe requires a different method (shorter and more simple)
+		if (variantDisplay.isReference()) {					// drawing a reference stripe requires a different method (shorter and more simple)
 			if (color != null) {						// if color is null, it means we don't want to draw the reference
 				drawReference(g, x, width, height);
 			}
@@ -311,9 +310,9 @@ class MultiGenomeVariantDrawer implements Serializable {
 			g.fillRect(x, y, width, variantHeight);									// draw the stripe
 
 			// Draws the edge line of stripes
-			if (variant.getType() == VariantType.INSERTION) {					// the edge of an insertion and a deletion are different
+			if (type == VariantType.INSERTION) {					// the edge of an insertion and a deletion are different
 				drawInsertion(g, x, y, width, variantHeight);
-			} else if (variant.getType() == VariantType.DELETION) {
+			} else if (type == VariantType.DELETION) {
 				drawDeletion(g, x, y, width, variantHeight);
 			}
 		}
@@ -327,7 +326,7 @@ class MultiGenomeVariantDrawer implements Serializable {
 		}
 
 		// Draw the variant letters
-		if (variant.getType() != VariantType.MIX) {
+		if (type != VariantType.MIX) {
 			drawLetters(g, height, x, width, variantHeight, variantDisplay, nucleotideNumber);					// draw the letters (nucleotides) over the stripe
 		}
 	}
@@ -357,16 +356,42 @@ class MultiGenomeVariantDrawer implements Serializable {
 
 
 	protected int getVariantHeight (Variant variant, int clipHeight) {
+		boolean isMix = variant instanceof MixVariant;
+		float score = isMix ? 0 : variant.getScore();
+		return getVariantHeight(variant instanceof ReferenceVariant, isMix, score, clipHeight);
+	}
+
+
+	/**
+	 * @param variantDisplay	a {@link VariantDisplay}
+	 * @param clipHeight		height of the clip
+	 * @return the height of the stripe of the variant
+	 */
+	private int getVariantHeight (VariantDisplay variantDisplay, int clipHeight) {
+		boolean isMix = variantDisplay.getType() == VariantType.MIX;
+		float score = isMix ? 0 : variantDisplay.getScore();
+		return getVariantHeight(variantDisplay.isReference(), isMix, score, clipHeight);
+	}
+
+
+	/**
+	 * @param isReference	true if the variant is a reference
+	 * @param isMix			true if the variant is a mix of variants
+	 * @param variantScore	score of the variant
+	 * @param clipHeight	height of the clip
+	 * @return the height of the stripe of the variant
+	 */
+	private int getVariantHeight (boolean isReference, boolean isMix, float variantScore, int clipHeight) {
 		int height;																	// Instantiate the int for the height of the variant
-		if (variant instanceof ReferenceVariant) {					// drawing a reference stripe requires a different method (shorter and more simple)
+		if (isReference) {					// drawing a reference stripe requires a different method (shorter and more simple)
 			height = clipHeight;
 		} else {
 
 			int score;																	// get the score of the variant
-			if (variant instanceof MixVariant) {
+			if (isMix) {
 				score = 101;
 			} else {
-				score = (int) variant.getScore();										// get the score of the variant
+				score = (int) variantScore;										// get the score of the variant
 			}
 
 			if (score > 100) {															// if the score is higher than 100,
@@ -80,7 +80,7 @@ public class VariantLayer extends AbstractLayer<VariantLayerDisplaySettings> imp
 	@Override
 	public void draw(Graphics g, int width, int height) {
 		if (isVisible()) {
-			genomeDrawer.drawMultiGenomeInformation(g, width, height);
+			genomeDrawer.drawMultiGenomeInformation(g, width, height, getTrack());
 		}
 	}
 
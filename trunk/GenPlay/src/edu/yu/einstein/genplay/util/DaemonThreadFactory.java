@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * {@link ThreadFactory} creating daemon threads.
+ * The pools using this factory don't prevent the JVM from exiting if they are not shut down.
+ * @author Julien Lajugie
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+	/** Prefix of the names of the threads */
+	private final String threadNamePrefix;
+
+	/** Number of threads created */
+	private final AtomicInteger threadCount;
+
+
+	/**
+	 * Creates an instance of {@link DaemonThreadFactory}
+	 * @param threadNamePrefix prefix of the names of the threads
+	 */
+	public DaemonThreadFactory(String threadNamePrefix) {
+		this.threadNamePrefix = threadNamePrefix;
+		threadCount = new AtomicInteger(0);
+	}
+
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, threadNamePrefix + " " + threadCount.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	}
+}
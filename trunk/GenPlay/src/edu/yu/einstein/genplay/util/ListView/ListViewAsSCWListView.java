@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.util.ListView;
+
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
+import edu.yu.einstein.genplay.dataStructure.list.listView.AbstractListView;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+
+
+/**
+ * Wraps a {@link ListView} of {@link ScoredChromosomeWindow} that doesn't implement the {@link SCWListView} interface
+ * (eg: sub lists) so it can be used with the methods of the {@link SCWListView} interface.
+ * The methods of the wrapper retrieve the windows using the {@link ListView#get(int)} method of the wrapped list.
+ * @author Julien Lajugie
+ */
+class ListViewAsSCWListView extends AbstractListView<ScoredChromosomeWindow> implements SCWListView {
+
+	/** Generated serial ID */
+	private static final long serialVersionUID = -3458930405871187434L;
+
+	/** Wrapped list */
+	private final ListView<ScoredChromosomeWindow> wrappedList;
+
+
+	/**
+	 * Creates an instance of {@link ListViewAsSCWListView}
+	 * @param wrappedList list to wrap
+	 */
+	ListViewAsSCWListView(ListView<ScoredChromosomeWindow> wrappedList) {
+		this.wrappedList = wrappedList;
+	}
+
+
+	@Override
+	public ScoredChromosomeWindow get(int elementIndex) {
+		return wrappedList.get(elementIndex);
+	}
+
+
+	@Override
+	public float getScore(int elementIndex) {
+		return wrappedList.get(elementIndex).getScore();
+	}
+
+
+	@Override
+	public void getScores(int fromIndex, int toIndex, float[] destination, int destinationIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			destination[destinationIndex++] = wrappedList.get(i).getScore();
+		}
+	}
+
+
+	@Override
+	public int getStart(int elementIndex) {
+		return wrappedList.get(elementIndex).getStart();
+	}
+
+
+	@Override
+	public void getStarts(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			destination[destinationIndex++] = wrappedList.get(i).getStart();
+		}
+	}
+
+
+	@Override
+	public int getStop(int elementIndex) {
+		return wrappedList.get(elementIndex).getStop();
+	}
+
+
+	@Override
+	public void getStops(int fromIndex, int toIndex, int[] destination, int destinationIndex) {
+		for (int i = fromIndex; i < toIndex; i++) {
+			destination[destinationIndex++] = wrappedList.get(i).getStop();
+		}
+	}
+
+
+	@Override
+	public int size() {
+		return wrappedList.size();
+	}
+}
@@ -23,6 +23,7 @@
 package edu.yu.einstein.genplay.util.ListView;
 
 import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.SimpleChromosomeWindow;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListView;
 import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
 import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
@@ -36,6 +37,19 @@ import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromo
 public class SCWListViews {
 
 
+	/**
+	 * @param list {@link ListView} of {@link ScoredChromosomeWindow}
+	 * @return the specified list if it implements {@link SCWListView}, a {@link SCWListView} wrapping the specified list otherwise.
+	 * Returns null if the specified list is null
+	 */
+	public static final SCWListView asSCWListView(ListView<ScoredChromosomeWindow> list) {
+		if ((list == null) || (list instanceof SCWListView)) {
+			return (SCWListView) list;
+		}
+		return new ListViewAsSCWListView(list);
+	}
+
+
 	/**
 	 * @param list {@link ListView} of {@link ScoredChromosomeWindow}
 	 * @return the average value of the list
@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.util;
+
+
+/**
+ * Sliding window kernels computed on arrays of scores.
+ * The cost of the moving average is linear and the cost of the gaussian and loess kernels is O(n log n)
+ * regardless of the size of the window.
+ * The scores equal to zero are skipped (ie: they are not part of the windows) like in the operations on bin lists.
+ * <br/>
+ * The moving average is computed with prefix sums and the large gaussian and loess windows with FFT convolutions.
+ * Their results are not bit-identical to a direct evaluation of the windows because the rounding errors are different.
+ * The differences are within a relative tolerance of {@link #TOLERANCE} of the scale of the scores.
+ * Windows with a half width smaller or equal to {@link #DIRECT_COMPUTATION_MAX_HALF_WIDTH} are evaluated directly
+ * since the FFT is slower on small windows. The results of the direct evaluation are exact.
+ * @author Julien Lajugie
+ */
+public class SlidingWindowKernels {
+
+	/** Largest half width of the gaussian and loess windows evaluated directly instead of with a FFT convolution */
+	public static final int DIRECT_COMPUTATION_MAX_HALF_WIDTH = 64;
+
+	/** Relative tolerance of the results compared to a direct evaluation of the windows */
+	public static final double TOLERANCE = 1e-4;
+
+
+	/**
+	 * Computes the linear convolution of two arrays of values with a kernel.
+	 * The two arrays are packed in the real and imaginary parts of a single complex array
+	 * so both convolutions are computed with the same FFTs.
+	 * @param real real values to convolve
+	 * @param imaginary imaginary values to convolve. Can be null
+	 * @param kernelSpectrum spectrum of the kernel
+	 * @return an array where the first element contains the real part and the second the imaginary part of the convolution
+	 */
+	private static double[][] convolve(double[] real, double[] imaginary, double[][] kernelSpectrum) {
+		int size = kernelSpectrum[0].length;
+		double[] re = new double[size];
+		double[] im = new double[size];
+		System.arraycopy(real, 0, re, 0, real.length);
+		if (imaginary != null) {
+			System.arraycopy(imaginary, 0, im, 0, imaginary.length);
+		}
+		fft(re, im, false);
+		for (int i = 0; i < size; i++) {
+			double kernelRe = kernelSpectrum[0][i];
+			double kernelIm = kernelSpectrum[1][i];
+			double valueRe = re[i];
+			re[i] = (valueRe * kernelRe) - (im[i] * kernelIm);
+			im[i] = (valueRe * kernelIm) + (im[i] * kernelRe);
+		}
+		fft(re, im, true);
+		double[][] result = {re, im};
+		return result;
+	}
+
+
+	/**
+	 * Computes in place the fast Fourier transform of the specified complex array
+	 * @param re real part of the array. The length of the array must be a power of 2
+	 * @param im imaginary part of the array
+	 * @param inverse true to compute the inverse transform
+	 */
+	private static void fft(double[] re, double[] im, boolean inverse) {
+		int n = re.length;
+		// bit reversal permutation
+		for (int i = 1, j = 0; i < n; i++) {
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1) {
+				j ^= bit;
+			}
+			j ^= bit;
+			if (i < j) {
+				double temp = re[i];
+				re[i] = re[j];
+				re[j] = temp;
+				temp = im[i];
+				im[i] = im[j];
+				im[j] = temp;
+			}
+		}
+		// the twiddle factors are computed directly for better accuracy
+		double[] cos = new double[n / 2];
+		double[] sin = new double[n / 2];
+		double sign = inverse ? 1 : -1;
+		for (int i = 0; i < (n / 2); i++) {
+			cos[i] = Math.cos((2 * Math.PI * i) / n);
+			sin[i] = sign * Math.sin((2 * Math.PI * i) / n);
+		}
+		for (int length = 2; length <= n; length <<= 1) {
+			int halfLength = length / 2;
+			int twiddleStep = n / length;
+			for (int i = 0; i < n; i += length) {
+				for (int j = 0; j < halfLength; j++) {
+					double wRe = cos[j * twiddleStep];
+					double wIm = sin[j * twiddleStep];
+					int even = i + j;
+					int odd = even + halfLength;
+					double oddRe = (re[odd] * wRe) - (im[odd] * wIm);
+					double oddIm = (re[odd] * wIm) + (im[odd] * wRe);
+					re[odd] = re[even] - oddRe;
+					im[odd] = im[even] - oddIm;
+					re[even] += oddRe;
+					im[even] += oddIm;
+				}
+			}
+		}
+		if (inverse) {
+			for (int i = 0; i < n; i++) {
+				re[i] /= n;
+				im[i] /= n;
+			}
+		}
+	}
+
+
+	/**
+	 * @param length length of a signal
+	 * @param halfWidth half width of a kernel
+	 * @return the size of the FFT needed to compute the linear convolution of the signal with the kernel
+	 */
+	private static int fftSize(int length, int halfWidth) {
+		int size = 1;
+		while (size < (length + (2 * halfWidth))) {
+			size <<= 1;
+		}
+		return size;
+	}
+
+
+	/**
+	 * Applies a gaussian filter on the specified scores.
+	 * The score of an element is the average of the non-zero scores of the window weighted
+	 * by the coefficient associated to their distance from the element.
+	 * The score is 0 if there is no non-zero score in the window.
+	 * @param scores scores to filter. Scores outside of this array are considered null
+	 * @param coefficients coefficients of the gaussian. The index of a coefficient is the distance to the center of the window
+	 * @param from index of the first element to compute
+	 * @param to index after the last element to compute
+	 * @param result array receiving the scores of the elements from index from to index to
+	 */
+	public static void gauss(float[] scores, double[] coefficients, int from, int to, float[] result) {
+		int halfWidth = coefficients.length - 1;
+		if (halfWidth <= DIRECT_COMPUTATION_MAX_HALF_WIDTH) {
+			for (int j = from; j < to; j++) {
+				double SumCoef = 0;
+				double SumNormSignalCoef = 0;
+				for (int k = -halfWidth; k <= halfWidth; k++) {
+					if (((j + k) >= 0) && ((j + k) < scores.length) && (scores[j + k] != 0)) {
+						int distance = Math.abs(k);
+						SumCoef += coefficients[distance];
+						SumNormSignalCoef += coefficients[distance] * scores[j + k];
+					}
+				}
+				result[j - from] = SumCoef != 0 ? (float) (SumNormSignalCoef / SumCoef) : 0f;
+			}
+		} else {
+			int[] nonNullCounts = nonNullPrefixCounts(scores);
+			double[] nonNulls = new double[scores.length];
+			double[] values = new double[scores.length];
+			for (int i = 0; i < scores.length; i++) {
+				nonNulls[i] = scores[i] != 0 ? 1 : 0;
+				values[i] = scores[i];
+			}
+			double[][] kernelSpectrum = kernelSpectrum(symmetricKernel(coefficients), fftSize(scores.length, halfWidth));
+			double[][] convolution = convolve(nonNulls, values, kernelSpectrum);
+			for (int j = from; j < to; j++) {
+				float score = 0f;
+				// the non-null counts are exact so windows with only null scores stay null
+				if (windowCount(nonNullCounts, j, halfWidth) != 0) {
+					double SumCoef = convolution[0][j + halfWidth];
+					double SumNormSignalCoef = convolution[1][j + halfWidth];
+					score = (float) (SumNormSignalCoef / SumCoef);
+				}
+				result[j - from] = score;
+			}
+		}
+	}
+
+
+	/**
+	 * @param kernel values of the kernel at the distances -halfWidth to halfWidth
+	 * @param size size of the FFT
+	 * @return the spectrum of the specified kernel reversed so the convolution of a signal with the returned spectrum
+	 * is the sum of the signal weighted by the kernel centered on each element
+	 */
+	private static double[][] kernelSpectrum(double[] kernel, int size) {
+		double[] re = new double[size];
+		double[] im = new double[size];
+		for (int i = 0; i < kernel.length; i++) {
+			re[i] = kernel[kernel.length - 1 - i];
+		}
+		fft(re, im, false);
+		double[][] result = {re, im};
+		return result;
+	}
+
+
+	/**
+	 * Computes a weighted linear regression (loess) on the specified scores.
+	 * The regression is computed for each element using the non-zero scores of the window
+	 * and the x coordinates of the elements as variables.
+	 * The regression formula is the one used by the loess operation on bin lists
+	 * (including the x^2 computed with a xor) so the results are identical.
+	 * @param scores scores to regress. Scores outside of this array are considered null
+	 * @param firstX x coordinate of the first element of the score array
+	 * @param weights weights of the regression. The index of a weight is the distance to the center of the window
+	 * @param from index of the first element to compute
+	 * @param to index after the last element to compute
+	 * @param result array receiving the scores of the elements from index from to index to
+	 */
+	public static void loessRegression(float[] scores, int firstX, double[] weights, int from, int to, float[] result) {
+		int halfWidth = weights.length - 1;
+		if (halfWidth <= DIRECT_COMPUTATION_MAX_HALF_WIDTH) {
+			for (int j = from; j < to; j++) {
+				double sumWts = 0;
+				double sumWtX = 0;
+				double sumWtX2 = 0;
+				double sumWtY = 0;
+				double sumWtXY = 0;
+				for (int k = -halfWidth; k <= halfWidth; k++) {
+					if (((j + k) >= 0) && ((j + k) < scores.length) && (scores[j + k] != 0)) {
+						int movingX = firstX + j + k;
+						int distance = Math.abs(k);
+						sumWts += weights[distance];
+						sumWtX += movingX * weights[distance];
+						sumWtX2 += (movingX ^ 2) * weights[distance];
+						sumWtY += scores[j + k] * weights[distance];
+						sumWtXY += movingX * scores[j + k] * weights[distance];
+					}
+				}
+				float score = 0f;
+				double denom = (sumWts * sumWtX2) - Math.pow(sumWtX, 2);
+				if(denom != 0) {
+					double WLRSlope = ((sumWts * sumWtXY) - (sumWtX * sumWtY)) / denom;
+					double WLRIntercept = ((sumWtX2 * sumWtY) - (sumWtX * sumWtXY)) / denom;
+					score = (float) ((WLRSlope * (firstX + j)) + WLRIntercept);
+				}
+				result[j - from] = score;
+			}
+		} else {
+			// The sums of the regression centered on x are expressed with sums that don't depend on x:
+			// sumWts = S0, sumWtX = x * S0 + S1, sumWtY = T0, sumWtXY = x * T0 + T1
+			// where S0 and T0 are the sums of the weights and of the weighted scores,
+			// S1 and T1 the same sums weighted by the distance to the center of the window.
+			// x xor 2 is equal to x + 2 when the second bit of x is 0 and to x - 2 otherwise so
+			// sumWtX2 = sumWtX + C where C is the sum of the weighted +/-2 corrections.
+			// Each sum is a convolution computed with a FFT.
+			// The regression then simplifies to y = (T0 * Q - S1 * T1) / (S0 * Q - S1^2)
+			// with Q = S0 * (x - x^2) + S1 * (1 - 2x) + C
+			int[] nonNullCounts = nonNullPrefixCounts(scores);
+			double[] nonNulls = new double[scores.length];
+			double[] values = new double[scores.length];
+			double[] corrections = new double[scores.length];
+			for (int i = 0; i < scores.length; i++) {
+				if (scores[i] != 0) {
+					nonNulls[i] = 1;
+					values[i] = scores[i];
+					corrections[i] = (((firstX + i) & 2) == 0) ? 2 : -2;
+				}
+			}
+			double[] distanceWeights = new double[(2 * halfWidth) + 1];
+			for (int k = -halfWidth; k <= halfWidth; k++) {
+				distanceWeights[k + halfWidth] = k * weights[Math.abs(k)];
+			}
+			int fftSize = fftSize(scores.length, halfWidth);
+			double[][] weightSpectrum = kernelSpectrum(symmetricKernel(weights), fftSize);
+			double[][] distanceWeightSpectrum = kernelSpectrum(distanceWeights, fftSize);
+			double[][] sums0 = convolve(nonNulls, values, weightSpectrum);
+			double[][] sums1 = convolve(nonNulls, values, distanceWeightSpectrum);
+			double[][] correctionSums = convolve(corrections, null, weightSpectrum);
+			for (int j = from; j < to; j++) {
+				float score = 0f;
+				// the weight at the distance halfWidth is null so the window must contain a non-null score closer to the center
+				if (windowCount(nonNullCounts, j, halfWidth - 1) != 0) {
+					double x = firstX + j;
+					double s0 = sums0[0][j + halfWidth];
+					double t0 = sums0[1][j + halfWidth];
+					double s1 = sums1[0][j + halfWidth];
+					double t1 = sums1[1][j + halfWidth];
+					double c = correctionSums[0][j + halfWidth];
+					double q = (s0 * (x - (x * x))) + (s1 * (1 - (2 * x))) + c;
+					double denom = (s0 * q) - (s1 * s1);
+					if (denom != 0) {
+						score = (float) (((t0 * q) - (s1 * t1)) / denom);
+					}
+				}
+				result[j - from] = score;
+			}
+		}
+	}
+
+
+	/**
+	 * Computes the moving average of the specified scores.
+	 * The score of an element is the average of the non-zero scores of the window or 0
+	 * if there is no non-zero score in the window.
+	 * @param scores scores to average. Scores outside of this array are considered null
+	 * @param halfWidth half width of the moving window
+	 * @param from index of the first element to compute
+	 * @param to index after the last element to compute
+	 * @param result array receiving the scores of the elements from index from to index to
+	 */
+	public static void movingAverage(float[] scores, int halfWidth, int from, int to, float[] result) {
+		int[] nonNullCounts = nonNullPrefixCounts(scores);
+		double[] scoreSums = new double[scores.length + 1];
+		for (int i = 0; i < scores.length; i++) {
+			scoreSums[i + 1] = scoreSums[i] + scores[i];
+		}
+		for (int j = from; j < to; j++) {
+			int windowStart = Math.max(0, j - halfWidth);
+			int windowStop = Math.min(scores.length, j + halfWidth + 1);
+			int count = windowCount(nonNullCounts, j, halfWidth);
+			if (count != 0) {
+				result[j - from] = (float) ((scoreSums[windowStop] - scoreSums[windowStart]) / count);
+			} else {
+				result[j - from] = 0f;
+			}
+		}
+	}
+
+
+	/**
+	 * @param scores array of scores
+	 * @return an array where the element i + 1 is the number of non-zero scores
+	 * in the specified array from index 0 to index i
+	 */
+	private static int[] nonNullPrefixCounts(float[] scores) {
+		int[] nonNullCounts = new int[scores.length + 1];
+		for (int i = 0; i < scores.length; i++) {
+			nonNullCounts[i + 1] = nonNullCounts[i] + (scores[i] != 0 ? 1 : 0);
+		}
+		return nonNullCounts;
+	}
+
+
+	/**
+	 * @param halfKernel values of a kernel from the distance 0 to halfWidth
+	 * @return the values of the symmetric kernel from the distance -halfWidth to halfWidth
+	 */
+	private static double[] symmetricKernel(double[] halfKernel) {
+		int halfWidth = halfKernel.length - 1;
+		double[] kernel = new double[(2 * halfWidth) + 1];
+		for (int k = -halfWidth; k <= halfWidth; k++) {
+			kernel[k + halfWidth] = halfKernel[Math.abs(k)];
+		}
+		return kernel;
+	}
+
+
+	/**
+	 * @param nonNullCounts prefix counts of non-zero scores (see {@link #nonNullPrefixCounts(float[])})
+	 * @param center index of the center of the window
+	 * @param halfWidth half width of the window
+	 * @return the number of non-zero scores in the window
+	 */
+	private static int windowCount(int[] nonNullCounts, int center, int halfWidth) {
+		int windowStart = Math.max(0, center - halfWidth);
+		int windowStop = Math.min(nonNullCounts.length - 1, center + halfWidth + 1);
+		return nonNullCounts[windowStop] - nonNullCounts[windowStart];
+	}
+}
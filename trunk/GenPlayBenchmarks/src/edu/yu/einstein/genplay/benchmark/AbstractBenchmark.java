@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark;
+
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+
+
+/**
+ * Base class for the {@link Benchmark} implementations.
+ * Stores the name and the parameters of the synthetic data shared by all the benchmarks.
+ * @author Julien Lajugie
+ */
+public abstract class AbstractBenchmark implements Benchmark {
+
+	private final String 			name;		// name of the benchmark
+	private final SyntheticGenome 	genome;		// genome of the synthetic data
+	private final long 				seed;		// seed of the random generators
+
+
+	/**
+	 * @param list a {@link SCWList}
+	 * @return the number of windows of all the chromosomes of the list
+	 */
+	protected static long countWindows(SCWList list) {
+		long windowCount = 0;
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i) != null) {
+				windowCount += list.get(i).size();
+			}
+		}
+		return windowCount;
+	}
+
+
+	/**
+	 * Creates an instance of {@link AbstractBenchmark}
+	 * @param name name of the benchmark
+	 * @param genome genome of the synthetic data. Can be null if the benchmark doesn't use genomic data
+	 * @param seed seed of the random generators used to generate the synthetic data
+	 */
+	protected AbstractBenchmark(String name, SyntheticGenome genome, long seed) {
+		this.name = name;
+		this.genome = genome;
+		this.seed = seed;
+	}
+
+
+	/**
+	 * @return the genome of the synthetic data
+	 */
+	protected SyntheticGenome getGenome() {
+		return genome;
+	}
+
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+
+	@Override
+	public String getReport() {
+		return null;
+	}
+
+
+	/**
+	 * @return the seed of the random generators used to generate the synthetic data
+	 */
+	protected long getSeed() {
+		return seed;
+	}
+
+
+	/**
+	 * Installs the synthetic genome as the genome of the project
+	 */
+	@Override
+	public void setUp() throws Exception {
+		if (genome != null) {
+			genome.install();
+		}
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {}
+}
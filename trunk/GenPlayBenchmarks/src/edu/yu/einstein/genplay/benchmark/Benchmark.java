@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark;
+
+
+/**
+ * A benchmark measured by the {@link BenchmarkRunner}.
+ * The runner calls {@link #setUp()} once, then {@link #run()} once per warm-up and
+ * measurement iteration and finally {@link #tearDown()}.  Only the {@link #run()} method is timed.
+ * @author Julien Lajugie
+ */
+public interface Benchmark {
+
+	/**
+	 * @return the name of the benchmark. The results of two runs are matched by name
+	 * so the name must only depend on the parameters of the benchmark
+	 */
+	public String getName();
+
+
+	/**
+	 * @return the number of operations performed by one call to {@link #run()}.
+	 * Used to compute the time per operation
+	 */
+	public long getOperationCount();
+
+
+	/**
+	 * @return a measure of the benchmark that is not a time (eg: a compression ratio) computed during the last iteration,
+	 * null if the benchmark doesn't report any.  The report is saved as a comment with the results
+	 */
+	public String getReport();
+
+
+	/**
+	 * Runs one iteration of the benchmark
+	 * @return a value computed from the results of the iteration.  The runner accumulates it
+	 * so the JIT compiler cannot eliminate the measured code
+	 * @throws Exception
+	 */
+	public long run() throws Exception;
+
+
+	/**
+	 * Prepares the data of the benchmark. Not timed.
+	 * @throws Exception
+	 */
+	public void setUp() throws Exception;
+
+
+	/**
+	 * Releases the data of the benchmark. Not timed.
+	 * @throws Exception
+	 */
+	public void tearDown() throws Exception;
+}
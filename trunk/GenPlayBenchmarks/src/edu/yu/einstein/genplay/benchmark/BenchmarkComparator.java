@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+
+/**
+ * Compares the results of two runs of the {@link BenchmarkRunner}.
+ * A benchmark is reported as slower or faster when its time per operation changed by more than
+ * the threshold and by more than the error of the two measurements.
+ * <br/>Usage: BenchmarkComparator baseline_results candidate_results [threshold in %]
+ * <br/>The exit status is 2 when at least one benchmark is slower in the candidate run.
+ * @author Julien Lajugie
+ */
+public final class BenchmarkComparator {
+
+	/** Default threshold in percent above which a change is reported */
+	private static final double DEFAULT_THRESHOLD = 5;
+
+
+	/**
+	 * Compares the results of two runs
+	 * @param args the files of the baseline and of the candidate results and optionally the threshold in %
+	 * @throws IOException
+	 */
+	public static void main(String[] args) throws IOException {
+		if ((args.length < 2) || (args.length > 3)) {
+			System.err.println("Usage: BenchmarkComparator baseline_results candidate_results [threshold in %]");
+			System.exit(1);
+		}
+		Map<String, BenchmarkResult> baseline = readResults(new File(args[0]));
+		Map<String, BenchmarkResult> candidate = readResults(new File(args[1]));
+		double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+		boolean hasRegression = false;
+		System.out.println(String.format(Locale.US, "%-60s %15s %15s %9s  %s", "benchmark", "baseline ns/op", "candidate ns/op", "ratio", "verdict"));
+		for (BenchmarkResult baselineResult: baseline.values()) {
+			BenchmarkResult candidateResult = candidate.get(baselineResult.getName());
+			if (candidateResult == null) {
+				System.out.println(String.format(Locale.US, "%-60s %15.1f %15s %9s  %s", baselineResult.getName(), baselineResult.getMean(), "-", "-", "missing"));
+				continue;
+			}
+			double ratio = candidateResult.getMean() / baselineResult.getMean();
+			double difference = candidateResult.getMean() - baselineResult.getMean();
+			double noise = baselineResult.getError() + candidateResult.getError();
+			String verdict = "same";
+			if ((Math.abs(ratio - 1) * 100 > threshold) && (Math.abs(difference) > noise)) {
+				if (difference > 0) {
+					verdict = "SLOWER";
+					hasRegression = true;
+				} else {
+					verdict = "faster";
+				}
+			}
+			System.out.println(String.format(Locale.US, "%-60s %15.1f %15.1f %9.3f  %s", baselineResult.getName(), baselineResult.getMean(), candidateResult.getMean(), ratio, verdict));
+		}
+		for (BenchmarkResult candidateResult: candidate.values()) {
+			if (!baseline.containsKey(candidateResult.getName())) {
+				System.out.println(String.format(Locale.US, "%-60s %15s %15.1f %9s  %s", candidateResult.getName(), "-", candidateResult.getMean(), "-", "new"));
+			}
+		}
+		System.exit(hasRegression ? 2 : 0);
+	}
+
+
+	/**
+	 * Reads a result file saved by the {@link BenchmarkRunner}
+	 * @param resultFile a result file
+	 * @return the results of the file indexed by benchmark name
+	 * @throws IOException
+	 */
+	private static Map<String, BenchmarkResult> readResults(File resultFile) throws IOException {
+		Map<String, BenchmarkResult> results = new LinkedHashMap<String, BenchmarkResult>();
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new FileReader(resultFile));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.trim().isEmpty() && !line.startsWith("#") && !line.equals(BenchmarkResult.HEADER)) {
+					BenchmarkResult result = BenchmarkResult.parse(line);
+					results.put(result.getName(), result);
+				}
+			}
+		} finally {
+			if (reader != null) {
+				reader.close();
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark;
+
+import java.util.Locale;
+
+
+/**
+ * Timings of the measurement iterations of a {@link Benchmark}.
+ * Results are saved as one tab separated line per benchmark so two runs can be compared
+ * with the {@link BenchmarkComparator}.
+ * @author Julien Lajugie
+ */
+public final class BenchmarkResult {
+
+	/** Number of fields of a result line */
+	private static final int FIELD_COUNT = 6;
+
+	/** Header of the result files */
+	public static final String HEADER = "benchmark\titerations\tns/op\terror (ns/op)\tmin (ns/op)\tops/s";
+
+	private final String 	name;			// name of the benchmark
+	private final int 		iterationCount;	// number of measurement iterations
+	private final double	mean;			// mean time per operation in ns
+	private final double	error;			// standard deviation of the time per operation in ns
+	private final double	min;			// fastest time per operation in ns
+
+
+	/**
+	 * Parses a line created by {@link #toString()}
+	 * @param line a result line
+	 * @return the result from the line
+	 * @throws IllegalArgumentException if the line is not a valid result line
+	 */
+	public static BenchmarkResult parse(String line) {
+		String[] fields = line.split("\t");
+		if (fields.length < FIELD_COUNT) {
+			throw new IllegalArgumentException("Invalid result line: " + line);
+		}
+		try {
+			return new BenchmarkResult(fields[0], Integer.parseInt(fields[1]), Double.parseDouble(fields[2]), Double.parseDouble(fields[3]), Double.parseDouble(fields[4]));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid result line: " + line, e);
+		}
+	}
+
+
+	/**
+	 * Creates an instance of {@link BenchmarkResult} from the timings of the iterations of a benchmark
+	 * @param name name of the benchmark
+	 * @param operationCount number of operations per iteration
+	 * @param iterationTimes duration of each measurement iteration in ns
+	 */
+	public BenchmarkResult(String name, long operationCount, long[] iterationTimes) {
+		this.name = name;
+		iterationCount = iterationTimes.length;
+		double sum = 0;
+		double minTime = Double.POSITIVE_INFINITY;
+		for (long currentTime: iterationTimes) {
+			double timePerOperation = currentTime / (double) operationCount;
+			sum += timePerOperation;
+			minTime = Math.min(minTime, timePerOperation);
+		}
+		mean = sum / iterationCount;
+		double squareSum = 0;
+		for (long currentTime: iterationTimes) {
+			double deviation = (currentTime / (double) operationCount) - mean;
+			squareSum += deviation * deviation;
+		}
+		error = iterationCount > 1 ? Math.sqrt(squareSum / (iterationCount - 1)) : 0;
+		min = minTime;
+	}
+
+
+	/**
+	 * Creates an instance of {@link BenchmarkResult}
+	 * @param name name of the benchmark
+	 * @param iterationCount number of measurement iterations
+	 * @param mean mean time per operation in ns
+	 * @param error standard deviation of the time per operation in ns
+	 * @param min fastest time per operation in ns
+	 */
+	private BenchmarkResult(String name, int iterationCount, double mean, double error, double min) {
+		this.name = name;
+		this.iterationCount = iterationCount;
+		this.mean = mean;
+		this.error = error;
+		this.min = min;
+	}
+
+
+	/**
+	 * @return the standard deviation of the time per operation in ns
+	 */
+	public double getError() {
+		return error;
+	}
+
+
+	/**
+	 * @return the number of measurement iterations
+	 */
+	public int getIterationCount() {
+		return iterationCount;
+	}
+
+
+	/**
+	 * @return the mean time per operation in ns
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+
+	/**
+	 * @return the fastest time per operation in ns
+	 */
+	public double getMin() {
+		return min;
+	}
+
+
+	/**
+	 * @return the name of the benchmark
+	 */
+	public String getName() {
+		return name;
+	}
+
+
+	/**
+	 * @return the mean number of operations per second
+	 */
+	public double getThroughput() {
+		return 1e9 / mean;
+	}
+
+
+	/**
+	 * @return the result as a tab separated line
+	 */
+	@Override
+	public String toString() {
+		return String.format(Locale.US, "%s\t%d\t%.3f\t%.3f\t%.3f\t%.1f", name, iterationCount, mean, error, min, getThroughput());
+	}
+}
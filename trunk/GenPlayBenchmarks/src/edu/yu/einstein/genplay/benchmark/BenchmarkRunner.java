@@ -0,0 +1,229 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import edu.yu.einstein.genplay.benchmark.suite.BenchmarkSuite;
+
+
+/**
+ * Runs the benchmarks of the {@link BenchmarkSuite} and saves the results in a file
+ * that can be compared with the results of another run using the {@link BenchmarkComparator}.
+ * <br/>Usage: BenchmarkRunner [-w warm-up iterations] [-i measurement iterations] [-f benchmark name regex]
+ * [-s data scale] [-seed seed] [-o result file] [-l]
+ * @author Julien Lajugie
+ */
+public final class BenchmarkRunner {
+
+	/** Default number of warm-up iterations */
+	private static final int DEFAULT_WARMUP_ITERATIONS = 3;
+
+	/** Default number of measurement iterations */
+	private static final int DEFAULT_MEASUREMENT_ITERATIONS = 5;
+
+	/** Default seed of the random generators of the synthetic data */
+	private static final long DEFAULT_SEED = 42;
+
+	/** Accumulates the values returned by the benchmarks so the measured code is never eliminated */
+	private static volatile long sink;
+
+
+	/**
+	 * Prints the usage of the runner and exits
+	 */
+	private static void exitWithUsage() {
+		System.err.println("Usage: BenchmarkRunner [-w warm-up iterations] [-i measurement iterations] [-f benchmark name regex] [-s data scale] [-seed seed] [-o result file] [-l]");
+		System.err.println("  -l lists the benchmarks without running them");
+		System.exit(1);
+	}
+
+
+	/**
+	 * Runs the benchmarks
+	 * @param args command line arguments
+	 * @throws Exception
+	 */
+	public static void main(String[] args) throws Exception {
+		int warmupIterations = DEFAULT_WARMUP_ITERATIONS;
+		int measurementIterations = DEFAULT_MEASUREMENT_ITERATIONS;
+		Pattern filter = null;
+		double scale = 1;
+		long seed = DEFAULT_SEED;
+		File resultFile = null;
+		boolean listOnly = false;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-w")) {
+					warmupIterations = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-i")) {
+					measurementIterations = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-f")) {
+					filter = Pattern.compile(args[++i]);
+				} else if (args[i].equals("-s")) {
+					scale = Double.parseDouble(args[++i]);
+				} else if (args[i].equals("-seed")) {
+					seed = Long.parseLong(args[++i]);
+				} else if (args[i].equals("-o")) {
+					resultFile = new File(args[++i]);
+				} else if (args[i].equals("-l")) {
+					listOnly = true;
+				} else {
+					exitWithUsage();
+				}
+			}
+		} catch (RuntimeException e) {
+			exitWithUsage();
+		}
+		if (measurementIterations < 1) {
+			exitWithUsage();
+		}
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (Benchmark currentBenchmark: BenchmarkSuite.createBenchmarks(scale, seed)) {
+			if ((filter == null) || filter.matcher(currentBenchmark.getName()).find()) {
+				benchmarks.add(currentBenchmark);
+			}
+		}
+		if (listOnly) {
+			for (Benchmark currentBenchmark: benchmarks) {
+				System.out.println(currentBenchmark.getName());
+			}
+			System.exit(0);
+		}
+
+		List<String> environment = describeEnvironment(warmupIterations, measurementIterations, scale, seed);
+		for (String currentLine: environment) {
+			System.out.println(currentLine);
+		}
+		System.out.println(BenchmarkResult.HEADER);
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+		List<String> reports = new ArrayList<String>();
+		for (Benchmark currentBenchmark: benchmarks) {
+			BenchmarkResult result = runBenchmark(currentBenchmark, warmupIterations, measurementIterations, reports);
+			System.out.println(result);
+			results.add(result);
+		}
+		for (String currentLine: reports) {
+			System.out.println(currentLine);
+		}
+		if (resultFile != null) {
+			saveResults(resultFile, environment, results, reports);
+		}
+		// the operation pool threads are not daemon threads
+		System.exit(0);
+	}
+
+
+	/**
+	 * @param warmupIterations number of warm-up iterations
+	 * @param measurementIterations number of measurement iterations
+	 * @param scale scale of the synthetic data
+	 * @param seed seed of the random generators
+	 * @return comment lines describing the settings of the run and the machine running it
+	 */
+	private static List<String> describeEnvironment(int warmupIterations, int measurementIterations, double scale, long seed) {
+		List<String> environment = new ArrayList<String>();
+		environment.add("# date: " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(new Date()));
+		environment.add("# java: " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+		environment.add("# os: " + System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+		environment.add("# processors: " + Runtime.getRuntime().availableProcessors() + ", max memory: " + (Runtime.getRuntime().maxMemory() >> 20) + "MB");
+		environment.add("# warm-up iterations: " + warmupIterations + ", measurement iterations: " + measurementIterations + ", scale: " + scale + ", seed: " + seed);
+		return environment;
+	}
+
+
+	/**
+	 * Runs a benchmark
+	 * @param benchmark benchmark to run
+	 * @param warmupIterations number of warm-up iterations
+	 * @param measurementIterations number of measurement iterations
+	 * @param reports list where the report of the benchmark is added as a comment line, if the benchmark has one
+	 * @return the result of the benchmark
+	 * @throws Exception
+	 */
+	private static BenchmarkResult runBenchmark(Benchmark benchmark, int warmupIterations, int measurementIterations, List<String> reports) throws Exception {
+		benchmark.setUp();
+		try {
+			for (int i = 0; i < warmupIterations; i++) {
+				sink += benchmark.run();
+			}
+			long[] iterationTimes = new long[measurementIterations];
+			for (int i = 0; i < measurementIterations; i++) {
+				// we don't want the garbage of the previous iteration to be collected during the measurement
+				System.gc();
+				long startTime = System.nanoTime();
+				sink += benchmark.run();
+				iterationTimes[i] = System.nanoTime() - startTime;
+			}
+			if (benchmark.getReport() != null) {
+				reports.add("# " + benchmark.getName() + ": " + benchmark.getReport());
+			}
+			return new BenchmarkResult(benchmark.getName(), benchmark.getOperationCount(), iterationTimes);
+		} finally {
+			benchmark.tearDown();
+		}
+	}
+
+
+	/**
+	 * Saves the results of a run
+	 * @param resultFile file where to save the results
+	 * @param environment comment lines describing the run
+	 * @param results results of the benchmarks
+	 * @param reports comment lines reporting the measures of the benchmarks that are not times
+	 * @throws IOException
+	 */
+	private static void saveResults(File resultFile, List<String> environment, List<BenchmarkResult> results, List<String> reports) throws IOException {
+		if ((resultFile.getParentFile() != null) && !resultFile.getParentFile().exists()) {
+			resultFile.getParentFile().mkdirs();
+		}
+		PrintWriter writer = null;
+		try {
+			writer = new PrintWriter(new FileWriter(resultFile));
+			for (String currentLine: environment) {
+				writer.println(currentLine);
+			}
+			writer.println(BenchmarkResult.HEADER);
+			for (BenchmarkResult currentResult: results) {
+				writer.println(currentResult);
+			}
+			for (String currentLine: reports) {
+				writer.println(currentLine);
+			}
+		} finally {
+			if (writer != null) {
+				writer.close();
+			}
+		}
+	}
+}
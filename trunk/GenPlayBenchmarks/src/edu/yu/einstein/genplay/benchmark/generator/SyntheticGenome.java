@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.yu.einstein.genplay.core.manager.project.ProjectChromosomes;
+import edu.yu.einstein.genplay.core.manager.project.ProjectManager;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.chromosome.SimpleChromosome;
+
+
+/**
+ * Synthetic genome made of chromosomes of the same length named chr1, chr2, ...
+ * The genome needs to be installed as the genome of the project before creating data on it.
+ * @author Julien Lajugie
+ */
+public final class SyntheticGenome {
+
+	private final List<Chromosome> chromosomes;	// chromosomes of the genome
+
+
+	/**
+	 * Creates an instance of {@link SyntheticGenome}
+	 * @param chromosomeCount number of chromosomes
+	 * @param chromosomeLength length of each chromosome
+	 */
+	public SyntheticGenome(int chromosomeCount, int chromosomeLength) {
+		chromosomes = new ArrayList<Chromosome>(chromosomeCount);
+		for (int i = 1; i <= chromosomeCount; i++) {
+			chromosomes.add(new SimpleChromosome("chr" + i, chromosomeLength));
+		}
+	}
+
+
+	/**
+	 * @return the chromosomes of the genome
+	 */
+	public List<Chromosome> getChromosomes() {
+		return chromosomes;
+	}
+
+
+	/**
+	 * @return the length of the genome
+	 */
+	public long getLength() {
+		long length = 0;
+		for (Chromosome currentChromosome: chromosomes) {
+			length += currentChromosome.getLength();
+		}
+		return length;
+	}
+
+
+	/**
+	 * Sets this genome as the genome of the project
+	 */
+	public void install() {
+		ProjectChromosomes projectChromosomes = ProjectManager.getInstance().getProjectChromosomes();
+		if (projectChromosomes.getChromosomeList() != chromosomes) {
+			projectChromosomes.setChromosomeList(chromosomes);
+		}
+	}
+}
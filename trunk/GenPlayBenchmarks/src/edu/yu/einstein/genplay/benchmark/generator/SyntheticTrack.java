@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.generator;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinListBuilder;
+
+
+/**
+ * Reproducible synthetic track: the windows of each chromosome of a {@link SyntheticGenome}
+ * stored as arrays of start positions, stop positions and scores sorted by start position.
+ * Two tracks created with the same parameters and the same seed are identical.
+ * The genome of the track must be installed before the track is converted into a {@link SCWList}.
+ * @author Julien Lajugie
+ */
+public final class SyntheticTrack {
+
+	/** Probability that a window is adjacent to the previous one */
+	private static final double ADJACENT_WINDOW_PROBABILITY = 0.3;
+
+	/** Probability that a window has the same score as the previous one */
+	private static final double SAME_SCORE_PROBABILITY = 0.2;
+
+
+	/**
+	 * Creates a track with one window per bin of each chromosome
+	 * @param genome a {@link SyntheticGenome}
+	 * @param binSize size of the bins
+	 * @param seed seed of the random generator
+	 * @return a new {@link SyntheticTrack}
+	 */
+	public static SyntheticTrack createBins(SyntheticGenome genome, int binSize, long seed) {
+		List<Chromosome> chromosomes = genome.getChromosomes();
+		SyntheticTrack track = new SyntheticTrack(genome);
+		Random random = new Random(seed);
+		for (int i = 0; i < chromosomes.size(); i++) {
+			int binCount = (chromosomes.get(i).getLength() / binSize) + 1;
+			int[] starts = new int[binCount];
+			int[] stops = new int[binCount];
+			float[] scores = new float[binCount];
+			float score = 0;
+			for (int j = 0; j < binCount; j++) {
+				starts[j] = (j * binSize) + 1;
+				stops[j] = starts[j] + binSize;
+				score = nextScore(random, score);
+				scores[j] = score;
+			}
+			track.setChromosomeData(i, starts, stops, scores, binCount);
+		}
+		return track;
+	}
+
+
+	/**
+	 * Creates a track of overlapping reads with a score of 1, like the alignments of a sequencing experiment
+	 * @param genome a {@link SyntheticGenome}
+	 * @param readsPerChromosome number of reads on each chromosome
+	 * @param readLength length of the reads
+	 * @param seed seed of the random generator
+	 * @return a new {@link SyntheticTrack}
+	 */
+	public static SyntheticTrack createReads(SyntheticGenome genome, int readsPerChromosome, int readLength, long seed) {
+		List<Chromosome> chromosomes = genome.getChromosomes();
+		SyntheticTrack track = new SyntheticTrack(genome);
+		Random random = new Random(seed);
+		for (int i = 0; i < chromosomes.size(); i++) {
+			int lastStart = chromosomes.get(i).getLength() - readLength;
+			int[] starts = new int[readsPerChromosome];
+			int[] stops = new int[readsPerChromosome];
+			float[] scores = new float[readsPerChromosome];
+			for (int j = 0; j < readsPerChromosome; j++) {
+				starts[j] = random.nextInt(lastStart) + 1;
+			}
+			Arrays.sort(starts);
+			for (int j = 0; j < readsPerChromosome; j++) {
+				stops[j] = starts[j] + readLength;
+				scores[j] = 1;
+			}
+			track.setChromosomeData(i, starts, stops, scores, readsPerChromosome);
+		}
+		return track;
+	}
+
+
+	/**
+	 * Creates a track of non-overlapping windows of variable length.
+	 * Some windows are adjacent and some consecutive windows have the same score.
+	 * @param genome a {@link SyntheticGenome}
+	 * @param windowsPerChromosome number of windows on each chromosome
+	 * @param seed seed of the random generator
+	 * @return a new {@link SyntheticTrack}
+	 */
+	public static SyntheticTrack createWindows(SyntheticGenome genome, int windowsPerChromosome, long seed) {
+		List<Chromosome> chromosomes = genome.getChromosomes();
+		SyntheticTrack track = new SyntheticTrack(genome);
+		Random random = new Random(seed);
+		for (int i = 0; i < chromosomes.size(); i++) {
+			int chromosomeLength = chromosomes.get(i).getLength();
+			// half the space available for each window is used for the gaps and half for the windows
+			int halfStep = Math.max(1, chromosomeLength / windowsPerChromosome / 2);
+			int[] starts = new int[windowsPerChromosome];
+			int[] stops = new int[windowsPerChromosome];
+			float[] scores = new float[windowsPerChromosome];
+			int position = 1;
+			float score = 0;
+			int windowCount = 0;
+			while (windowCount < windowsPerChromosome) {
+				int start = position;
+				if (random.nextDouble() >= ADJACENT_WINDOW_PROBABILITY) {
+					start += random.nextInt(halfStep) + 1;
+				}
+				int stop = start + random.nextInt(halfStep) + 1;
+				if (stop > chromosomeLength) {
+					break;
+				}
+				score = nextScore(random, score);
+				starts[windowCount] = start;
+				stops[windowCount] = stop;
+				scores[windowCount] = score;
+				windowCount++;
+				position = stop;
+			}
+			track.setChromosomeData(i, starts, stops, scores, windowCount);
+		}
+		return track;
+	}
+
+
+	/**
+	 * @param random random generator
+	 * @param previousScore score of the previous window
+	 * @return the score of the next window. Scores have 2 decimals like the scores of most data files
+	 */
+	private static float nextScore(Random random, float previousScore) {
+		if (random.nextDouble() < SAME_SCORE_PROBABILITY) {
+			return previousScore;
+		}
+		return Math.round(random.nextGaussian() * 1000) / 100f;
+	}
+
+
+	private final SyntheticGenome 	genome;		// genome of the track
+	private final int[][] 			starts;		// start positions of the windows of each chromosome
+	private final int[][] 			stops;		// stop positions of the windows of each chromosome
+	private final float[][] 		scores;		// scores of the windows of each chromosome
+
+
+	/**
+	 * Creates an instance of {@link SyntheticTrack}
+	 * @param genome genome of the track
+	 */
+	private SyntheticTrack(SyntheticGenome genome) {
+		this.genome = genome;
+		int chromosomeCount = genome.getChromosomes().size();
+		starts = new int[chromosomeCount][];
+		stops = new int[chromosomeCount][];
+		scores = new float[chromosomeCount][];
+	}
+
+
+	/**
+	 * @return the genome of the track
+	 */
+	public SyntheticGenome getGenome() {
+		return genome;
+	}
+
+
+	/**
+	 * @param chromosomeIndex index of a chromosome
+	 * @return the scores of the windows of the chromosome
+	 */
+	public float[] getScores(int chromosomeIndex) {
+		return scores[chromosomeIndex];
+	}
+
+
+	/**
+	 * @param chromosomeIndex index of a chromosome
+	 * @return the start positions of the windows of the chromosome
+	 */
+	public int[] getStarts(int chromosomeIndex) {
+		return starts[chromosomeIndex];
+	}
+
+
+	/**
+	 * @param chromosomeIndex index of a chromosome
+	 * @return the stop positions of the windows of the chromosome
+	 */
+	public int[] getStops(int chromosomeIndex) {
+		return stops[chromosomeIndex];
+	}
+
+
+	/**
+	 * @return the number of windows of the track
+	 */
+	public long getWindowCount() {
+		long windowCount = 0;
+		for (int[] currentStarts: starts) {
+			windowCount += currentStarts.length;
+		}
+		return windowCount;
+	}
+
+
+	/**
+	 * Sets the windows of a chromosome
+	 * @param chromosomeIndex index of the chromosome
+	 * @param chromosomeStarts start positions of the windows
+	 * @param chromosomeStops stop positions of the windows
+	 * @param chromosomeScores scores of the windows
+	 * @param windowCount number of windows generated
+	 */
+	private void setChromosomeData(int chromosomeIndex, int[] chromosomeStarts, int[] chromosomeStops, float[] chromosomeScores, int windowCount) {
+		starts[chromosomeIndex] = Arrays.copyOf(chromosomeStarts, windowCount);
+		stops[chromosomeIndex] = Arrays.copyOf(chromosomeStops, windowCount);
+		scores[chromosomeIndex] = Arrays.copyOf(chromosomeScores, windowCount);
+	}
+
+
+	/**
+	 * Creates a {@link BinList} with the scores of the track.
+	 * The track must have been created with {@link #createBins(SyntheticGenome, int, long)}.
+	 * @param binSize size of the bins of the track
+	 * @return a new {@link BinList}
+	 * @throws Exception
+	 */
+	public BinList toBinList(int binSize) throws Exception {
+		BinListBuilder builder = new BinListBuilder(binSize);
+		List<Chromosome> chromosomes = genome.getChromosomes();
+		for (int i = 0; i < chromosomes.size(); i++) {
+			builder.addElementsToBuild(chromosomes.get(i), scores[i], 0, scores[i].length);
+		}
+		return (BinList) builder.getSCWList();
+	}
+
+
+	/**
+	 * Creates a {@link SCWList} with the windows of the track
+	 * @param builderPrototype prototype of the builder of the {@link SCWList} (eg: a generic or a dense builder)
+	 * @return a new {@link SCWList}
+	 * @throws Exception
+	 */
+	public SCWList toSCWList(SCWListViewBuilder builderPrototype) throws Exception {
+		SCWListBuilder builder = new SCWListBuilder(builderPrototype);
+		List<Chromosome> chromosomes = genome.getChromosomes();
+		for (int i = 0; i < chromosomes.size(); i++) {
+			builder.addElementsToBuild(chromosomes.get(i), starts[i], stops[i], scores[i], 0, starts[i].length);
+		}
+		return builder.getSCWList();
+	}
+
+
+	/**
+	 * Writes the track in a bedGraph file
+	 * @param file output file
+	 * @throws IOException
+	 */
+	public void writeBedGraph(File file) throws IOException {
+		BufferedWriter writer = null;
+		try {
+			writer = new BufferedWriter(new FileWriter(file));
+			for (int i = 0; i < starts.length; i++) {
+				for (int j = 0; j < starts[i].length; j++) {
+					writeBedGraphLine(writer, i, j);
+				}
+			}
+		} finally {
+			if (writer != null) {
+				writer.close();
+			}
+		}
+	}
+
+
+	/**
+	 * Writes a window of the track in a bedGraph file
+	 * @param writer writer of the bedGraph file
+	 * @param chromosomeIndex index of the chromosome of the window
+	 * @param windowIndex index of the window in its chromosome
+	 * @throws IOException
+	 */
+	private void writeBedGraphLine(BufferedWriter writer, int chromosomeIndex, int windowIndex) throws IOException {
+		String chromosomeName = genome.getChromosomes().get(chromosomeIndex).getName();
+		// bedGraph files are 0-based
+		writer.write(chromosomeName + '\t' + (starts[chromosomeIndex][windowIndex] - 1) + '\t' + (stops[chromosomeIndex][windowIndex] - 1) + '\t' + scores[chromosomeIndex][windowIndex]);
+		writer.newLine();
+	}
+
+
+	/**
+	 * Writes the track in a bedGraph file with the lines in a random order, like an unsorted data file.
+	 * Two files written with the same seed are identical.
+	 * @param file output file
+	 * @param seed seed of the random generator shuffling the lines
+	 * @throws IOException
+	 */
+	public void writeShuffledBedGraph(File file, long seed) throws IOException {
+		// each window is identified by the index of its chromosome in the high bits and its index in the low bits
+		long[] windows = new long[(int) getWindowCount()];
+		int windowCount = 0;
+		for (int i = 0; i < starts.length; i++) {
+			for (int j = 0; j < starts[i].length; j++) {
+				windows[windowCount++] = ((long) i << 32) | j;
+			}
+		}
+		Random random = new Random(seed);
+		for (int i = windows.length - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			long window = windows[i];
+			windows[i] = windows[j];
+			windows[j] = window;
+		}
+		BufferedWriter writer = null;
+		try {
+			writer = new BufferedWriter(new FileWriter(file));
+			for (long window: windows) {
+				writeBedGraphLine(writer, (int) (window >>> 32), (int) window);
+			}
+		} finally {
+			if (writer != null) {
+				writer.close();
+			}
+		}
+	}
+}
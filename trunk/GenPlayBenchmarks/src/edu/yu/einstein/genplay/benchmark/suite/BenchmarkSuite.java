@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.yu.einstein.genplay.benchmark.Benchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.enums.ScorePrecision;
+
+
+/**
+ * Lists the benchmarks of GenPlay's core data paths.
+ * The size of the synthetic data is proportional to the scale parameter.
+ * With a scale of 1 the data fit in a 2GB heap.
+ * @author Julien Lajugie
+ */
+public final class BenchmarkSuite {
+
+	/** Number of chromosomes of the main synthetic genome */
+	private static final int CHROMOSOME_COUNT = 4;
+
+	/** Length of the chromosomes of the main synthetic genome at scale 1 */
+	private static final int CHROMOSOME_LENGTH = 50000000;
+
+	/** Number of windows per chromosome at scale 1 */
+	private static final int WINDOWS_PER_CHROMOSOME = 250000;
+
+	/** Number of reads flattened at scale 1 */
+	private static final int READ_COUNT = 1000000;
+
+	/** Mean depth of the deep pileups flattened */
+	private static final int DEEP_PILEUP_DEPTH = 1000;
+
+	/** Number of elements of the primitive lists at scale 1 */
+	private static final int PRIMITIVE_LIST_SIZE = 5000000;
+
+	/** Size of the bins of the bin lists */
+	private static final int BIN_SIZE = 100;
+
+	/** Number of chromosomes of the genome of the builder throughput benchmarks */
+	private static final int THROUGHPUT_CHROMOSOME_COUNT = 32;
+
+	/** Number of windows per chromosome of the builder throughput benchmarks at scale 1 */
+	private static final int THROUGHPUT_WINDOWS_PER_CHROMOSOME = 100000;
+
+	/** Numbers of threads of the builder throughput benchmarks */
+	private static final int[] THROUGHPUT_THREAD_COUNTS = {1, 2, 4, 8, 16, 32};
+
+
+	/**
+	 * @param scale scale of the synthetic data
+	 * @param seed seed of the random generators
+	 * @return the benchmarks of the suite
+	 */
+	public static List<Benchmark> createBenchmarks(double scale, long seed) {
+		SyntheticGenome genome = new SyntheticGenome(CHROMOSOME_COUNT, scale(CHROMOSOME_LENGTH, scale));
+		int windowsPerChromosome = scale(WINDOWS_PER_CHROMOSOME, scale);
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+
+		for (ScorePrecision precision: ScorePrecision.values()) {
+			for (PrimitiveListBenchmark.Mode mode: PrimitiveListBenchmark.Mode.values()) {
+				benchmarks.add(new PrimitiveListBenchmark(mode, precision, scale(PRIMITIVE_LIST_SIZE, scale), seed));
+			}
+		}
+		for (PrimitiveListCompressionBenchmark.Data data: PrimitiveListCompressionBenchmark.Data.values()) {
+			for (PrimitiveListCompressionBenchmark.Mode mode: PrimitiveListCompressionBenchmark.Mode.values()) {
+				for (PrimitiveListCompressionBenchmark.Codec codec: PrimitiveListCompressionBenchmark.Codec.values()) {
+					benchmarks.add(new PrimitiveListCompressionBenchmark(codec, data, mode, scale(PRIMITIVE_LIST_SIZE, scale), seed));
+				}
+			}
+		}
+
+		SCWListType[] builderTypes = {SCWListType.GENERIC, SCWListType.DENSE, SCWListType.MASK};
+		for (SCWListType listType: builderTypes) {
+			benchmarks.add(new SCWListViewBuilderBenchmark(listType, false, genome, windowsPerChromosome, seed));
+			benchmarks.add(new SCWListViewBuilderBenchmark(listType, true, genome, windowsPerChromosome, seed));
+		}
+
+		SyntheticGenome throughputGenome = new SyntheticGenome(THROUGHPUT_CHROMOSOME_COUNT, scale(CHROMOSOME_LENGTH, scale));
+		for (int threadCount: THROUGHPUT_THREAD_COUNTS) {
+			benchmarks.add(new BuilderThroughputBenchmark(threadCount, false, throughputGenome, scale(THROUGHPUT_WINDOWS_PER_CHROMOSOME, scale), seed));
+			benchmarks.add(new BuilderThroughputBenchmark(threadCount, true, throughputGenome, scale(THROUGHPUT_WINDOWS_PER_CHROMOSOME, scale), seed));
+		}
+
+		ScoreOperation[] flatteningOperations = {ScoreOperation.ADDITION, ScoreOperation.AVERAGE, ScoreOperation.MAXIMUM};
+		for (PileupFlattenerBenchmark.Mode mode: PileupFlattenerBenchmark.Mode.values()) {
+			for (ScoreOperation scoreOperation: flatteningOperations) {
+				benchmarks.add(new PileupFlattenerBenchmark(mode, scoreOperation, SCWListType.GENERIC, genome, scale(READ_COUNT, scale), seed));
+			}
+			benchmarks.add(new PileupFlattenerBenchmark(mode, ScoreOperation.ADDITION, SCWListType.DENSE, genome, scale(READ_COUNT, scale), seed));
+		}
+		// deep pileups: the reads are piled up on a single short chromosome
+		int deepPileupLength = Math.max(2 * PileupFlattenerBenchmark.READ_LENGTH, (int) (((long) scale(READ_COUNT, scale) * PileupFlattenerBenchmark.READ_LENGTH) / DEEP_PILEUP_DEPTH));
+		SyntheticGenome deepPileupGenome = new SyntheticGenome(1, deepPileupLength);
+		ScoreOperation[] deepFlatteningOperations = {ScoreOperation.ADDITION, ScoreOperation.MAXIMUM};
+		for (PileupFlattenerBenchmark.Mode mode: PileupFlattenerBenchmark.Mode.values()) {
+			for (ScoreOperation scoreOperation: deepFlatteningOperations) {
+				benchmarks.add(new PileupFlattenerBenchmark(mode, scoreOperation, SCWListType.GENERIC, deepPileupGenome, scale(READ_COUNT, scale), seed));
+			}
+		}
+
+		for (ListViewSearchBenchmark.Mode mode: ListViewSearchBenchmark.Mode.values()) {
+			benchmarks.add(new ListViewSearchBenchmark(mode, genome, windowsPerChromosome, seed));
+		}
+
+		SCWListType[] extractedTypes = {SCWListType.GENERIC, SCWListType.DENSE, SCWListType.BIN};
+		for (SCWListType listType: extractedTypes) {
+			benchmarks.add(new ExtractorBenchmark(listType, BIN_SIZE, genome, windowsPerChromosome, seed));
+		}
+
+		for (UnsortedLoadingBenchmark.Mode mode: UnsortedLoadingBenchmark.Mode.values()) {
+			benchmarks.add(new UnsortedLoadingBenchmark(mode, genome, windowsPerChromosome, seed));
+		}
+
+		benchmarks.add(new TwoLayersBenchmark(true, BIN_SIZE, genome, windowsPerChromosome, seed));
+		benchmarks.add(new TwoLayersBenchmark(false, BIN_SIZE, genome, windowsPerChromosome, seed));
+
+		for (SmoothingBenchmark.Mode mode: SmoothingBenchmark.Mode.values()) {
+			benchmarks.add(new SmoothingBenchmark(mode, BIN_SIZE, genome, seed));
+		}
+
+		benchmarks.add(new SerializationBenchmark(true, BIN_SIZE, genome, windowsPerChromosome, seed));
+		benchmarks.add(new SerializationBenchmark(false, BIN_SIZE, genome, windowsPerChromosome, seed));
+		return benchmarks;
+	}
+
+
+	/**
+	 * @param value a size at scale 1
+	 * @param scale a scale
+	 * @return the size at the specified scale
+	 */
+	private static int scale(int value, double scale) {
+		return Math.max(1, (int) (value * scale));
+	}
+}
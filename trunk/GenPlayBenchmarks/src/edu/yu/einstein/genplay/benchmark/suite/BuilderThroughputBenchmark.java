@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+
+
+/**
+ * Throughput of a {@link SCWListBuilder} filled by several threads, one task per chromosome,
+ * the way the operations fill their result lists in the operation pool.
+ * In the sliced mode the windows are added in slices and each task builds the list view of its chromosome.
+ * @author Julien Lajugie
+ */
+public final class BuilderThroughputBenchmark extends AbstractBenchmark {
+
+	private final int 				threadCount;		// number of threads filling the builder
+	private final boolean 			isSliced;			// true if the windows are added in slices
+	private final int 				windowsPerChromosome;// number of windows per chromosome
+	private SyntheticTrack 			track;				// windows added to the builder
+	private ExecutorService 		executor;			// threads filling the builder
+
+
+	/**
+	 * Creates an instance of {@link BuilderThroughputBenchmark}
+	 * @param threadCount number of threads filling the builder
+	 * @param isSliced true if the windows are added in slices
+	 * @param genome synthetic genome. Should have at least as many chromosomes as threads
+	 * @param windowsPerChromosome number of windows per chromosome
+	 * @param seed seed of the random generator
+	 */
+	public BuilderThroughputBenchmark(int threadCount, boolean isSliced, SyntheticGenome genome, int windowsPerChromosome, long seed) {
+		super("BuilderThroughput.generic:threads=" + threadCount + ",slices=" + isSliced, genome, seed);
+		this.threadCount = threadCount;
+		this.isSliced = isSliced;
+		this.windowsPerChromosome = windowsPerChromosome;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return track.getWindowCount();
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		final SCWListBuilder builder = new SCWListBuilder(new GenericSCWListViewBuilder());
+		List<Chromosome> chromosomes = getGenome().getChromosomes();
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		for (int i = 0; i < chromosomes.size(); i++) {
+			final Chromosome chromosome = chromosomes.get(i);
+			final int[] starts = track.getStarts(i);
+			final int[] stops = track.getStops(i);
+			final float[] scores = track.getScores(i);
+			futures.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					if (isSliced) {
+						for (int j = 0; j < starts.length; j += SCWListBuilder.SLICE_SIZE) {
+							builder.addElementsToBuild(chromosome, starts, stops, scores, j, Math.min(SCWListBuilder.SLICE_SIZE, starts.length - j));
+						}
+						builder.buildListView(chromosome);
+					} else {
+						for (int j = 0; j < starts.length; j++) {
+							builder.addElementToBuild(chromosome, starts[j], stops[j], scores[j]);
+						}
+					}
+					return null;
+				}
+			}));
+		}
+		for (Future<Void> currentFuture: futures) {
+			currentFuture.get();
+		}
+		long elementCount = 0;
+		for (ListView<ScoredChromosomeWindow> currentListView: builder.getListOfListViews()) {
+			elementCount += currentListView.size();
+		}
+		return elementCount;
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		track = SyntheticTrack.createWindows(getGenome(), windowsPerChromosome, getSeed());
+		executor = Executors.newFixedThreadPool(threadCount);
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		executor.shutdown();
+		executor = null;
+		track = null;
+	}
+}
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import java.io.File;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.core.IO.extractor.BedGraphExtractor;
+import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListFactory;
+
+
+/**
+ * Benchmark of the loading of a bedGraph file: extraction of the lines and creation of the {@link SCWList}.
+ * @author Julien Lajugie
+ */
+public final class ExtractorBenchmark extends AbstractBenchmark {
+
+	private final SCWListType 	listType;				// type of the list created
+	private final int 			binSize;				// size of the bins when a bin list is created
+	private final int 			windowsPerChromosome;	// number of windows per chromosome
+	private File 				dataFile;				// bedGraph file loaded
+	private long 				lineCount;				// number of lines of the file
+
+
+	/**
+	 * Creates an instance of {@link ExtractorBenchmark}
+	 * @param listType type of the list created. Must be generic, dense or bin
+	 * @param binSize size of the bins when a bin list is created
+	 * @param genome synthetic genome
+	 * @param windowsPerChromosome number of windows per chromosome
+	 * @param seed seed of the random generator
+	 */
+	public ExtractorBenchmark(SCWListType listType, int binSize, SyntheticGenome genome, int windowsPerChromosome, long seed) {
+		super("Extractor.bedGraph:list=" + listType.name().toLowerCase(), genome, seed);
+		this.listType = listType;
+		this.binSize = binSize;
+		this.windowsPerChromosome = windowsPerChromosome;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return lineCount;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		BedGraphExtractor extractor = new BedGraphExtractor(dataFile);
+		SCWList list;
+		switch (listType) {
+		case BIN:
+			list = SCWListFactory.createBinList(extractor, binSize, ScoreOperation.AVERAGE);
+			break;
+		case DENSE:
+			list = SCWListFactory.createDenseSCWList(extractor, ScoreOperation.AVERAGE);
+			break;
+		case GENERIC:
+			list = SCWListFactory.createGenericSCWList(extractor, ScoreOperation.AVERAGE);
+			break;
+		default:
+			throw new IllegalStateException("Invalid list type: " + listType);
+		}
+		return countWindows(list);
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		SyntheticTrack track = SyntheticTrack.createWindows(getGenome(), windowsPerChromosome, getSeed());
+		lineCount = track.getWindowCount();
+		dataFile = File.createTempFile("genplayBenchmark", ".bedgraph");
+		dataFile.deleteOnExit();
+		track.writeBedGraph(dataFile);
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		dataFile.delete();
+		dataFile = null;
+	}
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import java.util.List;
+import java.util.Random;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.core.comparator.ChromosomeWindowStartComparator;
+import edu.yu.einstein.genplay.dataStructure.chromosome.Chromosome;
+import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.ChromosomeWindow;
+import edu.yu.einstein.genplay.dataStructure.chromosomeWindow.SimpleChromosomeWindow;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.listView.ListView;
+import edu.yu.einstein.genplay.dataStructure.scoredChromosomeWindow.ScoredChromosomeWindow;
+import edu.yu.einstein.genplay.util.ListView.ChromosomeWindowListViews;
+import edu.yu.einstein.genplay.util.ListView.ListViews;
+
+
+/**
+ * Benchmarks of the random accesses to a generic {@link SCWList}:
+ * binary searches, sublist queries like the ones of the track display and score lookups.
+ * @author Julien Lajugie
+ */
+public final class ListViewSearchBenchmark extends AbstractBenchmark {
+
+	/**
+	 * Operations measured by the benchmark
+	 * @author Julien Lajugie
+	 */
+	public enum Mode {
+		/** {@link ListViews#binarySearch(ListView, Object, java.util.Comparator)} on random positions */
+		BINARY_SEARCH,
+		/** {@link SCWList#getScore(Chromosome, int)} on random positions */
+		SCORE_AT,
+		/** {@link ChromosomeWindowListViews#subList(ListView, int, int)} on random windows, reading the scores of the sublists */
+		SUBLIST;
+	}
+
+	/** Number of queries per iteration */
+	private static final int QUERY_COUNT = 100000;
+
+	/** Width of the windows of the sublist queries */
+	private static final int SUBLIST_WIDTH = 100000;
+
+	private final Mode 					mode;					// operation measured
+	private final int 					windowsPerChromosome;	// number of windows per chromosome
+	private SCWList 					list;					// list queried
+	private Chromosome[] 				queryChromosomes;		// chromosomes of the queries
+	private ChromosomeWindow[] 			queryWindows;			// positions of the queries
+
+
+	/**
+	 * Creates an instance of {@link ListViewSearchBenchmark}
+	 * @param mode operation measured
+	 * @param genome synthetic genome
+	 * @param windowsPerChromosome number of windows per chromosome
+	 * @param seed seed of the random generator
+	 */
+	public ListViewSearchBenchmark(Mode mode, SyntheticGenome genome, int windowsPerChromosome, long seed) {
+		super("ListViewSearch." + mode.name().toLowerCase(), genome, seed);
+		this.mode = mode;
+		this.windowsPerChromosome = windowsPerChromosome;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return QUERY_COUNT;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		long result = 0;
+		ChromosomeWindowStartComparator comparator = new ChromosomeWindowStartComparator();
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			Chromosome chromosome = queryChromosomes[i];
+			ChromosomeWindow queryWindow = queryWindows[i];
+			switch (mode) {
+			case BINARY_SEARCH:
+				result += ListViews.binarySearch(list.get(chromosome), queryWindow, comparator);
+				break;
+			case SCORE_AT:
+				result += Float.floatToIntBits(list.getScore(chromosome, queryWindow.getStart()));
+				break;
+			case SUBLIST:
+				ListView<ScoredChromosomeWindow> subList = ChromosomeWindowListViews.subList(list.get(chromosome), queryWindow.getStart(), queryWindow.getStop());
+				for (ScoredChromosomeWindow currentWindow: subList) {
+					result += Float.floatToIntBits(currentWindow.getScore());
+				}
+				break;
+			default:
+				throw new IllegalStateException("Invalid mode: " + mode);
+			}
+		}
+		return result;
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		list = SyntheticTrack.createWindows(getGenome(), windowsPerChromosome, getSeed()).toSCWList(new GenericSCWListViewBuilder());
+		List<Chromosome> chromosomes = getGenome().getChromosomes();
+		Random random = new Random(getSeed());
+		queryChromosomes = new Chromosome[QUERY_COUNT];
+		queryWindows = new ChromosomeWindow[QUERY_COUNT];
+		for (int i = 0; i < QUERY_COUNT; i++) {
+			queryChromosomes[i] = chromosomes.get(random.nextInt(chromosomes.size()));
+			int start = random.nextInt(Math.max(1, queryChromosomes[i].getLength() - SUBLIST_WIDTH)) + 1;
+			queryWindows[i] = new SimpleChromosomeWindow(start, start + SUBLIST_WIDTH);
+		}
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		list = null;
+		queryChromosomes = null;
+		queryWindows = null;
+	}
+}
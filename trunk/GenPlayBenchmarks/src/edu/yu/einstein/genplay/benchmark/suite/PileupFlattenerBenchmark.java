@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.core.pileupFlattener.PileupFlattener;
+import edu.yu.einstein.genplay.core.pileupFlattener.SimpleSCWPileupFlattener;
+import edu.yu.einstein.genplay.core.pileupFlattener.SweepLinePileupFlattener;
+import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+
+
+/**
+ * Benchmark of the {@link PileupFlattener} implementations.
+ * Flattens the overlapping reads of the first chromosome of a synthetic track.
+ * The depth of the pileup is set by the length of the chromosomes of the synthetic genome.
+ * The implementations are measured on the same reads so their results can be compared side by side.
+ * @author Julien Lajugie
+ */
+public final class PileupFlattenerBenchmark extends AbstractBenchmark {
+
+	/**
+	 * Flatteners measured by the benchmark
+	 * @author Julien Lajugie
+	 */
+	public enum Mode {
+		/** {@link SimpleSCWPileupFlattener} */
+		SIMPLE,
+		/** {@link SweepLinePileupFlattener}, used to load the tracks */
+		SWEEP_LINE;
+	}
+
+	/** Length of the reads */
+	public static final int READ_LENGTH = 100;
+
+	private final Mode 				mode;			// flattener measured
+	private final ScoreOperation 	scoreOperation;	// operation used to compute the score of the flattened windows
+	private final SCWListType 		listType;		// type of the result list view
+	private final int 				readCount;		// number of reads
+	private SyntheticTrack 			track;			// reads to flatten
+
+
+	/**
+	 * Creates an instance of {@link PileupFlattenerBenchmark}
+	 * @param mode flattener measured
+	 * @param scoreOperation operation used to compute the score of the flattened windows
+	 * @param listType type of the result list view
+	 * @param genome synthetic genome
+	 * @param readCount number of reads to flatten
+	 * @param seed seed of the random generator
+	 */
+	public PileupFlattenerBenchmark(Mode mode, ScoreOperation scoreOperation, SCWListType listType, SyntheticGenome genome, int readCount, long seed) {
+		super("PileupFlattener." + mode.name().toLowerCase() + "." + listType.name().toLowerCase() + ":operation=" + scoreOperation.name().toLowerCase()
+				+ ",depth=" + (((long) readCount * READ_LENGTH) / genome.getChromosomes().get(0).getLength()), genome, seed);
+		this.mode = mode;
+		this.scoreOperation = scoreOperation;
+		this.listType = listType;
+		this.readCount = readCount;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return readCount;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		int[] starts = track.getStarts(0);
+		int[] stops = track.getStops(0);
+		float[] scores = track.getScores(0);
+		PileupFlattener flattener;
+		if (mode == Mode.SWEEP_LINE) {
+			flattener = new SweepLinePileupFlattener(scoreOperation, listType);
+		} else {
+			flattener = new SimpleSCWPileupFlattener(scoreOperation, listType);
+		}
+		for (int i = 0; i < starts.length; i++) {
+			flattener.addWindow(starts[i], stops[i], scores[i]);
+		}
+		return flattener.getListView().size();
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		track = SyntheticTrack.createReads(getGenome(), readCount, READ_LENGTH, getSeed());
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		track = null;
+	}
+}
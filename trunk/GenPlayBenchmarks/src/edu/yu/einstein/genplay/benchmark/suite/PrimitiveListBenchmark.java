@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import java.util.Random;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.dataStructure.enums.ScorePrecision;
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
+
+
+/**
+ * Benchmarks of the accesses to a {@link PrimitiveList} of scores.
+ * The 16-bit precision benchmarks measure the half-float wrappers.
+ * @author Julien Lajugie
+ */
+public final class PrimitiveListBenchmark extends AbstractBenchmark {
+
+	/**
+	 * Operations measured by the benchmark
+	 * @author Julien Lajugie
+	 */
+	public enum Mode {
+		/** Adds the elements one by one */
+		ADD,
+		/** Adds the elements in slices */
+		BULK_ADD,
+		/** Compresses and uncompresses the list */
+		COMPRESSION,
+		/** Reads elements at random indexes */
+		RANDOM_GET,
+		/** Reads all the elements in slices */
+		SEQUENTIAL_GET;
+	}
+
+	/** Number of elements read or added in one slice */
+	private static final int SLICE_SIZE = 4096;
+
+	/** Number of elements read by the random get benchmark */
+	private static final int RANDOM_GET_COUNT = 1000000;
+
+	private final Mode 				mode;			// operation measured
+	private final ScorePrecision 	precision;		// precision of the scores of the list
+	private final int 				elementCount;	// number of elements of the list
+	private float[] 				values;			// values of the list
+	private int[] 					indexes;		// indexes read by the random get benchmark
+	private PrimitiveList<Float> 	list;			// list read by the benchmark
+
+
+	/**
+	 * Creates an instance of {@link PrimitiveListBenchmark}
+	 * @param mode operation measured
+	 * @param precision precision of the scores of the list
+	 * @param elementCount number of elements of the list
+	 * @param seed seed of the random generator
+	 */
+	public PrimitiveListBenchmark(Mode mode, ScorePrecision precision, int elementCount, long seed) {
+		super("PrimitiveList." + mode.name().toLowerCase() + ":precision=" + (precision == ScorePrecision.PRECISION_16BIT ? "16bit" : "32bit"), null, seed);
+		this.mode = mode;
+		this.precision = precision;
+		this.elementCount = elementCount;
+	}
+
+
+	/**
+	 * @return a new list containing the values of the benchmark
+	 */
+	private PrimitiveList<Float> createList() {
+		PrimitiveList<Float> newList = new PrimitiveList<Float>(Float.class);
+		newList.addFloats(values, 0, values.length);
+		return newList;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return mode == Mode.RANDOM_GET ? RANDOM_GET_COUNT : elementCount;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		switch (mode) {
+		case ADD:
+			PrimitiveList<Float> addList = new PrimitiveList<Float>(Float.class);
+			for (float currentValue: values) {
+				addList.add(currentValue);
+			}
+			return addList.size();
+		case BULK_ADD:
+			PrimitiveList<Float> bulkAddList = new PrimitiveList<Float>(Float.class);
+			for (int i = 0; i < values.length; i += SLICE_SIZE) {
+				bulkAddList.addFloats(values, i, Math.min(SLICE_SIZE, values.length - i));
+			}
+			return bulkAddList.size();
+		case COMPRESSION:
+			list.compress();
+			list.uncompress();
+			return list.size();
+		case RANDOM_GET:
+			float randomSum = 0;
+			for (int currentIndex: indexes) {
+				randomSum += list.getFloat(currentIndex);
+			}
+			return Float.floatToIntBits(randomSum);
+		case SEQUENTIAL_GET:
+			float[] slice = new float[SLICE_SIZE];
+			float sequentialSum = 0;
+			for (int i = 0; i < elementCount; i += SLICE_SIZE) {
+				int sliceStop = Math.min(elementCount, i + SLICE_SIZE);
+				list.getFloats(i, sliceStop, slice, 0);
+				for (int j = 0; j < (sliceStop - i); j++) {
+					sequentialSum += slice[j];
+				}
+			}
+			return Float.floatToIntBits(sequentialSum);
+		default:
+			throw new IllegalStateException("Invalid mode: " + mode);
+		}
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		PrimitiveList.setScorePrecision(precision);
+		Random random = new Random(getSeed());
+		values = new float[elementCount];
+		for (int i = 0; i < elementCount; i++) {
+			values[i] = Math.round(random.nextGaussian() * 1000) / 100f;
+		}
+		indexes = new int[RANDOM_GET_COUNT];
+		for (int i = 0; i < RANDOM_GET_COUNT; i++) {
+			indexes[i] = random.nextInt(elementCount);
+		}
+		list = createList();
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		PrimitiveList.setScorePrecision(ScorePrecision.PRECISION_32BIT);
+		values = null;
+		indexes = null;
+		list = null;
+	}
+}
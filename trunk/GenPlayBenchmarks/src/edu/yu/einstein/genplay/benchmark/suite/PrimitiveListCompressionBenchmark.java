@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.dataStructure.list.primitiveList.PrimitiveList;
+
+
+/**
+ * Benchmarks of the compression of a {@link PrimitiveList}.
+ * Compares the block compression of the lists with the gzip compression of the whole serialized list
+ * used before: compression ratio (reported with the results) and time to compress and to read windows of
+ * a compressed list at random positions.
+ * @author Julien Lajugie
+ */
+public final class PrimitiveListCompressionBenchmark extends AbstractBenchmark {
+
+	/**
+	 * Compressions measured by the benchmark
+	 * @author Julien Lajugie
+	 */
+	public enum Codec {
+		/** Each subarray of the list is compressed as an independent block (see {@link PrimitiveList#compress()}) */
+		BLOCK,
+		/** The whole serialized list is compressed with gzip */
+		GZIP;
+	}
+
+	/**
+	 * Data compressed by the benchmark
+	 * @author Julien Lajugie
+	 */
+	public enum Data {
+		/** Scores of a coverage: runs of equal integer scores */
+		COVERAGE_SCORES,
+		/** Gaussian scores with two decimals */
+		NOISY_SCORES,
+		/** Increasing positions separated by random gaps */
+		STOPS;
+	}
+
+	/**
+	 * Operations measured by the benchmark
+	 * @author Julien Lajugie
+	 */
+	public enum Mode {
+		/** Compresses and uncompresses the list */
+		COMPRESSION,
+		/** Reads windows of a compressed list at random positions */
+		RANDOM_WINDOW_GET;
+	}
+
+	/** Number of elements of the windows read at random positions */
+	private static final int WINDOW_SIZE = 2000;
+
+	/** Number of windows read by the block compression random window benchmark */
+	private static final int BLOCK_WINDOW_COUNT = 1000;
+
+	/** Number of windows read by the gzip compression random window benchmark (the whole list is uncompressed for each window) */
+	private static final int GZIP_WINDOW_COUNT = 4;
+
+	private final Codec 			codec;				// compression measured
+	private final Data 				data;				// data compressed
+	private final Mode 				mode;				// operation measured
+	private final int 				elementCount;		// number of elements of the list
+	private int[] 					windowStarts;		// first indexes of the windows read at random positions
+	private PrimitiveList<?> 		list;				// list compressed or read by the benchmark
+	private byte[] 					gzipData;			// list compressed with gzip
+	private long 					compressedSize;		// size of the compressed list during the last iteration
+
+
+	/**
+	 * Creates an instance of {@link PrimitiveListCompressionBenchmark}
+	 * @param codec compression measured
+	 * @param data data compressed
+	 * @param mode operation measured
+	 * @param elementCount number of elements of the list
+	 * @param seed seed of the random generator
+	 */
+	public PrimitiveListCompressionBenchmark(Codec codec, Data data, Mode mode, int elementCount, long seed) {
+		super("PrimitiveListCompression." + codec.name().toLowerCase() + "." + mode.name().toLowerCase() + ":data=" + data.name().toLowerCase(), null, seed);
+		this.codec = codec;
+		this.data = data;
+		this.mode = mode;
+		this.elementCount = elementCount;
+	}
+
+
+	/**
+	 * @param random random generator
+	 * @return a new list containing the data of the benchmark
+	 */
+	private PrimitiveList<?> createList(Random random) {
+		if (data == Data.STOPS) {
+			int[] values = new int[elementCount];
+			int position = 0;
+			for (int i = 0; i < elementCount; i++) {
+				position += random.nextInt(200) + 1;
+				values[i] = position;
+			}
+			PrimitiveList<Integer> newList = new PrimitiveList<Integer>(Integer.class);
+			newList.addInts(values, 0, values.length);
+			return newList;
+		}
+		float[] values = new float[elementCount];
+		if (data == Data.COVERAGE_SCORES) {
+			int i = 0;
+			while (i < elementCount) {
+				int runLength = random.nextInt(200) + 1;
+				float score = random.nextDouble() < 0.3 ? 0 : random.nextInt(50) + 1;
+				for (int j = 0; (j < runLength) && (i < elementCount); j++, i++) {
+					values[i] = score;
+				}
+			}
+		} else {
+			for (int i = 0; i < elementCount; i++) {
+				values[i] = Math.round(random.nextGaussian() * 1000) / 100f;
+			}
+		}
+		PrimitiveList<Float> newList = new PrimitiveList<Float>(Float.class);
+		newList.addFloats(values, 0, values.length);
+		return newList;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		if (mode == Mode.COMPRESSION) {
+			return elementCount;
+		}
+		return windowStarts.length;
+	}
+
+
+	@Override
+	public String getReport() {
+		if ((mode != Mode.COMPRESSION) || (compressedSize == 0)) {
+			return null;
+		}
+		// all the elements of the lists are 4 bytes long
+		long uncompressedSize = elementCount * 4L;
+		return String.format(Locale.US, "compression ratio %.1fx (%d bytes compressed into %d bytes)", uncompressedSize / (double) compressedSize, uncompressedSize, compressedSize);
+	}
+
+
+	/**
+	 * @param compressedList list compressed with gzip
+	 * @return the uncompressed list
+	 * @throws IOException
+	 * @throws ClassNotFoundException
+	 */
+	private static PrimitiveList<?> gunzip(byte[] compressedList) throws IOException, ClassNotFoundException {
+		ObjectInputStream ois = new ObjectInputStream(new GZIPInputStream(new ByteArrayInputStream(compressedList)));
+		try {
+			return (PrimitiveList<?>) ois.readObject();
+		} finally {
+			ois.close();
+		}
+	}
+
+
+	/**
+	 * @param listToCompress a list
+	 * @return the list serialized and compressed with gzip
+	 * @throws IOException
+	 */
+	private static byte[] gzip(PrimitiveList<?> listToCompress) throws IOException {
+		ByteArrayOutputStream compressedList = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(compressedList));
+		try {
+			oos.writeObject(listToCompress);
+		} finally {
+			oos.close();
+		}
+		return compressedList.toByteArray();
+	}
+
+
+	/**
+	 * Reads a window of a list
+	 * @param listToRead a list
+	 * @param windowStart index of the first element of the window
+	 * @return a value computed from the elements of the window
+	 */
+	private long readWindow(PrimitiveList<?> listToRead, int windowStart) {
+		long sum = 0;
+		int windowStop = Math.min(elementCount, windowStart + WINDOW_SIZE);
+		if (data == Data.STOPS) {
+			int[] window = new int[WINDOW_SIZE];
+			listToRead.getInts(windowStart, windowStop, window, 0);
+			for (int currentValue: window) {
+				sum += currentValue;
+			}
+		} else {
+			float[] window = new float[WINDOW_SIZE];
+			listToRead.getFloats(windowStart, windowStop, window, 0);
+			for (float currentValue: window) {
+				sum += Float.floatToIntBits(currentValue);
+			}
+		}
+		return sum;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		long result = 0;
+		switch (mode) {
+		case COMPRESSION:
+			if (codec == Codec.BLOCK) {
+				list.compress();
+				compressedSize = list.getCompressedSize();
+				list.uncompress();
+				result = list.size();
+			} else {
+				byte[] compressedList = gzip(list);
+				compressedSize = compressedList.length;
+				result = gunzip(compressedList).size();
+			}
+			return result + compressedSize;
+		case RANDOM_WINDOW_GET:
+			for (int currentStart: windowStarts) {
+				if (codec == Codec.BLOCK) {
+					result += readWindow(list, currentStart);
+				} else {
+					// the gzip compressed list needs to be uncompressed before any access
+					result += readWindow(gunzip(gzipData), currentStart);
+				}
+			}
+			return result;
+		default:
+			throw new IllegalStateException("Invalid mode: " + mode);
+		}
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		Random random = new Random(getSeed());
+		list = createList(random);
+		windowStarts = new int[codec == Codec.BLOCK ? BLOCK_WINDOW_COUNT : GZIP_WINDOW_COUNT];
+		for (int i = 0; i < windowStarts.length; i++) {
+			windowStarts[i] = random.nextInt(Math.max(1, elementCount - WINDOW_SIZE));
+		}
+		compressedSize = 0;
+		if (mode == Mode.RANDOM_WINDOW_GET) {
+			if (codec == Codec.BLOCK) {
+				list.compress();
+			} else {
+				gzipData = gzip(list);
+				list = null;
+			}
+		}
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		windowStarts = null;
+		list = null;
+		gzipData = null;
+	}
+}
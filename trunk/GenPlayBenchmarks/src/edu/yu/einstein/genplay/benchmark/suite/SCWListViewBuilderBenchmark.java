@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.dataStructure.enums.SCWListType;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.SCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.dense.DenseSCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.mask.MaskListViewBuilder;
+
+
+/**
+ * Benchmark of the {@link SCWListViewBuilder} implementations.
+ * Builds the list view of the first chromosome of a synthetic track, adding the windows one by one or in slices.
+ * @author Julien Lajugie
+ */
+public final class SCWListViewBuilderBenchmark extends AbstractBenchmark {
+
+	/** Number of windows per slice */
+	private static final int SLICE_SIZE = 4096;
+
+	private final SCWListType 	listType;			// type of the list view built
+	private final boolean 		isSliced;			// true if the windows are added in slices
+	private final int 			windowCount;		// number of windows of the chromosome
+	private SyntheticTrack 		track;				// windows added to the builder
+
+
+	/**
+	 * Creates an instance of {@link SCWListViewBuilderBenchmark}
+	 * @param listType type of the list view built. Must be generic, dense or mask
+	 * @param isSliced true if the windows are added in slices
+	 * @param genome synthetic genome
+	 * @param windowCount number of windows added to the builder
+	 * @param seed seed of the random generator
+	 */
+	public SCWListViewBuilderBenchmark(SCWListType listType, boolean isSliced, SyntheticGenome genome, int windowCount, long seed) {
+		super("SCWListViewBuilder." + listType.name().toLowerCase() + ":slices=" + isSliced, genome, seed);
+		this.listType = listType;
+		this.isSliced = isSliced;
+		this.windowCount = windowCount;
+	}
+
+
+	/**
+	 * @return a new builder of the type of the benchmark
+	 */
+	private SCWListViewBuilder createBuilder() {
+		switch (listType) {
+		case DENSE:
+			return new DenseSCWListViewBuilder();
+		case GENERIC:
+			return new GenericSCWListViewBuilder();
+		case MASK:
+			return new MaskListViewBuilder();
+		default:
+			throw new IllegalStateException("Invalid list type: " + listType);
+		}
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return track.getStarts(0).length;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		int[] starts = track.getStarts(0);
+		int[] stops = track.getStops(0);
+		float[] scores = track.getScores(0);
+		SCWListViewBuilder builder = createBuilder();
+		if (isSliced) {
+			for (int i = 0; i < starts.length; i += SLICE_SIZE) {
+				builder.addElementsToBuild(starts, stops, scores, i, Math.min(SLICE_SIZE, starts.length - i));
+			}
+		} else {
+			for (int i = 0; i < starts.length; i++) {
+				builder.addElementToBuild(starts[i], stops[i], scores[i]);
+			}
+		}
+		return builder.getListView().size();
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		track = SyntheticTrack.createWindows(getGenome(), windowCount, getSeed());
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		track = null;
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+
+
+/**
+ * Benchmark of the serialization of the track data saved in the project files.
+ * Writes a {@link SCWList} in memory and reads it back.
+ * @author Julien Lajugie
+ */
+public final class SerializationBenchmark extends AbstractBenchmark {
+
+	private final boolean 	isBinList;				// true to serialize a bin list, false for a generic list
+	private final int 		binSize;				// size of the bins
+	private final int 		windowsPerChromosome;	// number of windows per chromosome of the generic list
+	private SCWList 		list;					// list serialized
+	private long 			windowCount;			// number of windows of the list
+
+
+	/**
+	 * Creates an instance of {@link SerializationBenchmark}
+	 * @param isBinList true to serialize a bin list, false for a generic list
+	 * @param binSize size of the bins of the bin list
+	 * @param genome synthetic genome
+	 * @param windowsPerChromosome number of windows per chromosome of the generic list
+	 * @param seed seed of the random generator
+	 */
+	public SerializationBenchmark(boolean isBinList, int binSize, SyntheticGenome genome, int windowsPerChromosome, long seed) {
+		super("Serialization.writeRead:list=" + (isBinList ? "bin" : "generic"), genome, seed);
+		this.isBinList = isBinList;
+		this.binSize = binSize;
+		this.windowsPerChromosome = windowsPerChromosome;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return windowCount;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+		ObjectOutputStream outputStream = new ObjectOutputStream(byteStream);
+		outputStream.writeObject(list);
+		outputStream.close();
+		ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(byteStream.toByteArray()));
+		SCWList readList = (SCWList) inputStream.readObject();
+		inputStream.close();
+		return countWindows(readList) + byteStream.size();
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		if (isBinList) {
+			list = SyntheticTrack.createBins(getGenome(), binSize, getSeed()).toBinList(binSize);
+		} else {
+			list = SyntheticTrack.createWindows(getGenome(), windowsPerChromosome, getSeed()).toSCWList(new GenericSCWListViewBuilder());
+		}
+		windowCount = countWindows(list);
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		list = null;
+	}
+}
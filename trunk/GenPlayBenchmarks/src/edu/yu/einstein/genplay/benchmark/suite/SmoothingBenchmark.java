@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.core.operation.binList.BLOGauss;
+import edu.yu.einstein.genplay.core.operation.binList.BLOMovingAverage;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
+
+
+/**
+ * Benchmark of the smoothing operations on a bin list
+ * @author Julien Lajugie
+ */
+public final class SmoothingBenchmark extends AbstractBenchmark {
+
+	/**
+	 * Smoothing operations measured by the benchmark
+	 * @author Julien Lajugie
+	 */
+	public enum Mode {
+		/** {@link BLOGauss} */
+		GAUSS,
+		/** {@link BLOMovingAverage} */
+		MOVING_AVERAGE;
+	}
+
+	/** Width of the moving window in bins */
+	private static final int MOVING_WINDOW_BIN_COUNT = 10;
+
+	private final Mode 		mode;		// operation measured
+	private final int 		binSize;	// size of the bins
+	private BinList 		binList;	// list smoothed
+	private long 			binCount;	// number of bins of the list
+
+
+	/**
+	 * Creates an instance of {@link SmoothingBenchmark}
+	 * @param mode operation measured
+	 * @param binSize size of the bins
+	 * @param genome synthetic genome
+	 * @param seed seed of the random generator
+	 */
+	public SmoothingBenchmark(Mode mode, int binSize, SyntheticGenome genome, long seed) {
+		super("Smoothing." + mode.name().toLowerCase(), genome, seed);
+		this.mode = mode;
+		this.binSize = binSize;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return binCount;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		int movingWindowWidth = MOVING_WINDOW_BIN_COUNT * binSize;
+		BinList result;
+		if (mode == Mode.GAUSS) {
+			result = new BLOGauss(binList, movingWindowWidth, false).compute();
+		} else {
+			result = new BLOMovingAverage(binList, movingWindowWidth, false).compute();
+		}
+		return countWindows(result);
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		binList = SyntheticTrack.createBins(getGenome(), binSize, getSeed()).toBinList(binSize);
+		binCount = countWindows(binList);
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		binList = null;
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.core.operation.SCWList.SCWLOTwoLayers;
+import edu.yu.einstein.genplay.core.operation.binList.BLOTwoLayers;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.chromosomeWideList.SCWListView.generic.GenericSCWListViewBuilder;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.binList.BinList;
+
+
+/**
+ * Benchmark of the two-layer operations on two bin lists ({@link BLOTwoLayers})
+ * or on two generic lists ({@link SCWLOTwoLayers}).
+ * @author Julien Lajugie
+ */
+public final class TwoLayersBenchmark extends AbstractBenchmark {
+
+	private final boolean 	isBinList;				// true to benchmark the bin list operation
+	private final int 		binSize;				// size of the bins
+	private final int 		windowsPerChromosome;	// number of windows per chromosome of the generic lists
+	private SCWList 		list1;					// first layer
+	private SCWList 		list2;					// second layer
+	private long 			windowCount;			// number of windows of the two layers
+
+
+	/**
+	 * Creates an instance of {@link TwoLayersBenchmark}
+	 * @param isBinList true to benchmark the bin list operation, false for the generic list operation
+	 * @param binSize size of the bins of the bin lists
+	 * @param genome synthetic genome
+	 * @param windowsPerChromosome number of windows per chromosome of the generic lists
+	 * @param seed seed of the random generator
+	 */
+	public TwoLayersBenchmark(boolean isBinList, int binSize, SyntheticGenome genome, int windowsPerChromosome, long seed) {
+		super("TwoLayers.addition:list=" + (isBinList ? "bin" : "generic"), genome, seed);
+		this.isBinList = isBinList;
+		this.binSize = binSize;
+		this.windowsPerChromosome = windowsPerChromosome;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return windowCount;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		SCWList result;
+		if (isBinList) {
+			result = new BLOTwoLayers((BinList) list1, (BinList) list2, ScoreOperation.ADDITION).compute();
+		} else {
+			result = new SCWLOTwoLayers(list1, list2, ScoreOperation.ADDITION).compute();
+		}
+		return countWindows(result);
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		SyntheticTrack track1;
+		SyntheticTrack track2;
+		if (isBinList) {
+			track1 = SyntheticTrack.createBins(getGenome(), binSize, getSeed());
+			track2 = SyntheticTrack.createBins(getGenome(), binSize, getSeed() + 1);
+			list1 = track1.toBinList(binSize);
+			list2 = track2.toBinList(binSize);
+		} else {
+			track1 = SyntheticTrack.createWindows(getGenome(), windowsPerChromosome, getSeed());
+			track2 = SyntheticTrack.createWindows(getGenome(), windowsPerChromosome, getSeed() + 1);
+			list1 = track1.toSCWList(new GenericSCWListViewBuilder());
+			list2 = track2.toSCWList(new GenericSCWListViewBuilder());
+		}
+		windowCount = track1.getWindowCount() + track2.getWindowCount();
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		list1 = null;
+		list2 = null;
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * GenPlay, Einstein Genome Analyzer
+ * Copyright (C) 2009, 2014 Albert Einstein College of Medicine
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ * Authors: Julien Lajugie <julien.lajugie@einstein.yu.edu>
+ *          Nicolas Fourel <nicolas.fourel@einstein.yu.edu>
+ *          Eric Bouhassira <eric.bouhassira@einstein.yu.edu>
+ * 
+ * Website: <http://genplay.einstein.yu.edu>
+ ******************************************************************************/
+package edu.yu.einstein.genplay.benchmark.suite;
+
+import java.io.File;
+
+import edu.yu.einstein.genplay.benchmark.AbstractBenchmark;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticGenome;
+import edu.yu.einstein.genplay.benchmark.generator.SyntheticTrack;
+import edu.yu.einstein.genplay.core.IO.extractor.BedGraphExtractor;
+import edu.yu.einstein.genplay.core.IO.fileSorter.ExternalSCWSorter;
+import edu.yu.einstein.genplay.core.IO.fileSorter.ExternalSortAdapter;
+import edu.yu.einstein.genplay.core.manager.application.ConfigurationManager;
+import edu.yu.einstein.genplay.core.pileupFlattener.SortingPileupFlattener;
+import edu.yu.einstein.genplay.dataStructure.enums.ScoreOperation;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWList;
+import edu.yu.einstein.genplay.dataStructure.list.genomeWideList.SCWList.SCWListFactory;
+
+
+/**
+ * Benchmark of the loading of an unsorted bedGraph file into a generic {@link SCWList}.
+ * The lines of the file are shuffled.  Compares the sort of the windows in the flatteners,
+ * the sort of the extracted items and the sort of the file before it is loaded.
+ * @author Julien Lajugie
+ */
+public final class UnsortedLoadingBenchmark extends AbstractBenchmark {
+
+	/**
+	 * Ways of loading the unsorted file measured by the benchmark
+	 * @author Julien Lajugie
+	 */
+	public enum Mode {
+		/** The windows are sorted by {@link SortingPileupFlattener} objects while the file is loaded */
+		SORTING_FLATTENER,
+		/** The extracted items are sorted by an {@link ExternalSCWSorter} */
+		SCW_SORTER,
+		/** A sorted copy of the file is generated by the {@link ExternalSortAdapter} and loaded */
+		EXTERNAL_SORT;
+	}
+
+	private final Mode 			mode;					// way of loading the file
+	private final int 			windowsPerChromosome;	// number of windows per chromosome
+	private File 				dataFile;				// unsorted bedGraph file loaded
+	private long 				lineCount;				// number of lines of the file
+	private boolean 			wasUnsortedLoading;		// unsorted loading option before the benchmark
+
+
+	/**
+	 * Creates an instance of {@link UnsortedLoadingBenchmark}
+	 * @param mode way of loading the file
+	 * @param genome synthetic genome
+	 * @param windowsPerChromosome number of windows per chromosome
+	 * @param seed seed of the random generator
+	 */
+	public UnsortedLoadingBenchmark(Mode mode, SyntheticGenome genome, int windowsPerChromosome, long seed) {
+		super("UnsortedLoading." + mode.name().toLowerCase(), genome, seed);
+		this.mode = mode;
+		this.windowsPerChromosome = windowsPerChromosome;
+	}
+
+
+	@Override
+	public long getOperationCount() {
+		return lineCount;
+	}
+
+
+	@Override
+	public long run() throws Exception {
+		SCWList list;
+		switch (mode) {
+		case SORTING_FLATTENER:
+			list = SCWListFactory.createGenericSCWList(new BedGraphExtractor(dataFile), ScoreOperation.AVERAGE);
+			break;
+		case SCW_SORTER:
+			list = SCWListFactory.createGenericSCWList(new ExternalSCWSorter(new BedGraphExtractor(dataFile)), ScoreOperation.AVERAGE);
+			break;
+		case EXTERNAL_SORT:
+			ExternalSortAdapter.externalSortGenomicFile(dataFile);
+			File sortedFile = ExternalSortAdapter.generateOutputFile(dataFile);
+			try {
+				list = SCWListFactory.createGenericSCWList(new BedGraphExtractor(sortedFile), ScoreOperation.AVERAGE);
+			} finally {
+				sortedFile.delete();
+			}
+			break;
+		default:
+			throw new IllegalStateException("Invalid mode: " + mode);
+		}
+		return countWindows(list);
+	}
+
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		ConfigurationManager configurationManager = ConfigurationManager.getInstance();
+		wasUnsortedLoading = configurationManager.isUnsortedLoading();
+		configurationManager.setUnsortedLoading(mode == Mode.SORTING_FLATTENER);
+		SyntheticTrack track = SyntheticTrack.createWindows(getGenome(), windowsPerChromosome, getSeed());
+		lineCount = track.getWindowCount();
+		// the extension of the file is needed by the external sort
+		dataFile = File.createTempFile("genplayBenchmark", ".bgr");
+		dataFile.deleteOnExit();
+		track.writeShuffledBedGraph(dataFile, getSeed());
+	}
+
+
+	@Override
+	public void tearDown() throws Exception {
+		ConfigurationManager.getInstance().setUnsortedLoading(wasUnsortedLoading);
+		dataFile.delete();
+		dataFile = null;
+	}
+}